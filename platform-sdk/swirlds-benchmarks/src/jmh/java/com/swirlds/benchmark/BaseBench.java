@@ -71,7 +71,15 @@ public abstract class BaseBench {
 
     protected static Configuration configuration;
 
-    private static void loadConfig() throws IOException {
+    /**
+     * Applies benchmark specific configuration overrides, e.g. derived from benchmark parameters.
+     * Values set here take precedence over the values from settings.txt.
+     *
+     * @param builder the configuration builder
+     */
+    protected void configure(final ConfigurationBuilder builder) {}
+
+    private void loadConfig() throws IOException {
         ConfigurationBuilder configurationBuilder = ConfigurationBuilder.create()
                 .autoDiscoverExtensions()
                 .withSource(new LegacyFileConfigSource(Path.of(".", "settings.txt")))
@@ -80,6 +88,7 @@ public abstract class BaseBench {
                 .withConfigDataType(MerkleDbConfig.class)
                 .withConfigDataType(MetricsConfig.class)
                 .withConfigDataType(CryptoConfig.class);
+        configure(configurationBuilder);
         configuration = configurationBuilder.build();
 
         final StringBuilder settingsUsed = new StringBuilder();
@@ -145,9 +154,15 @@ public abstract class BaseBench {
         }
     }
 
+    /* GC stats at the start of the current test, to report GC activity during the test */
+    private long gcCountAtStart;
+    private long gcTimeAtStart;
+
     @Setup(Level.Invocation)
     public void beforeTest() {
         BenchmarkMetrics.reset();
+        gcCountAtStart = Utils.gcCount();
+        gcTimeAtStart = Utils.gcTimeMillis();
     }
 
     public void beforeTest(String name) {
@@ -184,6 +199,7 @@ public abstract class BaseBench {
 
     public void afterTest(boolean keepTestDir, RunnableWithException runnable) throws Exception {
         BenchmarkMetrics.report();
+        Utils.printMemoryStats(gcCountAtStart, gcTimeAtStart);
         if (getBenchmarkConfig().printHistogram()) {
             // Class histogram is interesting before closing
             Utils.printClassHistogram(15);
@@ -2,6 +2,7 @@
 package com.swirlds.benchmark;
 
 import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import com.swirlds.config.api.ConfigurationBuilder;
 import com.swirlds.merkledb.collections.LongList;
 import com.swirlds.merkledb.collections.LongListOffHeap;
 import com.swirlds.merkledb.config.MerkleDbConfig;
@@ -9,7 +10,9 @@ import com.swirlds.merkledb.files.DataFileCollection;
 import com.swirlds.merkledb.files.DataFileCompactor;
 import com.swirlds.merkledb.files.DataFileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.stream.IntStream;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -93,4 +96,66 @@ public class DataFileCollectionBench extends BaseBench {
             index.close();
         });
     }
+
+    /**
+     * Compares random data item reads through file channels with reads from memory mapped files.
+     * The same set of files is opened twice, once per read mode, and read from multiple threads.
+     */
+    @Benchmark
+    public void randomReads() throws Exception {
+        String storeName = "randomReadsBench";
+        beforeTest(storeName);
+
+        final LongListOffHeap index = new LongListOffHeap();
+        final MerkleDbConfig dbConfig = getConfig(MerkleDbConfig.class);
+        System.out.println();
+
+        // Write files
+        long start = System.currentTimeMillis();
+        final DataFileCollection writeStore =
+                new DataFileCollection(dbConfig, getTestDir(), storeName, null, (dataLocation, dataValue) -> {});
+        for (int i = 0; i < numFiles; i++) {
+            writeStore.startWriting();
+            resetKeys();
+            for (int j = 0; j < numRecords; ++j) {
+                long id = nextAscKey();
+                BenchmarkRecord record = new BenchmarkRecord(id, nextValue());
+                index.put(id, writeStore.storeDataItem(record::serialize, BenchmarkRecord.getSerializedSize()));
+            }
+            writeStore.endWriting(0, maxKey).setFileCompleted();
+        }
+        writeStore.close();
+        System.out.println("Created " + numFiles + " files in " + (System.currentTimeMillis() - start) + "ms");
+
+        final int readsPerThread = numRecords * numFiles / numThreads;
+        for (final boolean memoryMapped : new boolean[] {false, true}) {
+            final MerkleDbConfig readConfig = ConfigurationBuilder.create()
+                    .withConfigDataType(MerkleDbConfig.class)
+                    .withValue("merkleDb.memoryMappedReadsEnabled", Boolean.toString(memoryMapped))
+                    .build()
+                    .getConfigData(MerkleDbConfig.class);
+            final DataFileCollection readStore = new DataFileCollection(readConfig, getTestDir(), storeName, null);
+            start = System.currentTimeMillis();
+            IntStream.range(0, numThreads).parallel().forEach(thread -> {
+                try {
+                    for (int i = 0; i < readsPerThread; ++i) {
+                        final BufferedData recordData =
+                                readStore.readDataItemUsingIndex(index, Utils.randomLong(maxKey));
+                        if (verify && recordData != null) {
+                            new BenchmarkRecordSerializer().deserialize(recordData);
+                        }
+                    }
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            System.out.println("Read " + (long) readsPerThread * numThreads + " items "
+                    + (memoryMapped ? "from memory mapped files" : "using file channels") + " in "
+                    + (System.currentTimeMillis() - start) + "ms, mapped "
+                    + readStore.getMappedFilesSize() + " bytes");
+            readStore.close();
+        }
+
+        afterTest(index::close);
+    }
 }
@@ -0,0 +1,96 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.benchmark;
+
+import com.swirlds.merkledb.collections.LongList;
+import com.swirlds.merkledb.collections.LongListOffHeap;
+import com.swirlds.merkledb.config.MerkleDbConfig;
+import com.swirlds.merkledb.files.DataFileCollection.ConcurrentLoadedDataCallback;
+import com.swirlds.merkledb.files.DataFileCollection.LoadedDataCallback;
+import com.swirlds.merkledb.files.MemoryIndexDiskKeyValueStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long it takes to rebuild a data location index from data files on startup, depending
+ * on the state size (numFiles * numRecords) and whether data files are processed in parallel.
+ */
+@Fork(value = 1)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class IndexRebuildBench extends BaseBench {
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    String benchmarkName() {
+        return "IndexRebuildBench";
+    }
+
+    @Benchmark
+    public void rebuild() throws Exception {
+        final String storeName = "rebuildBench";
+        beforeTest(storeName);
+
+        final MerkleDbConfig dbConfig = getConfig(MerkleDbConfig.class);
+        final LongListOffHeap index = new LongListOffHeap();
+        index.updateValidRange(0, maxKey);
+        final var store = new MemoryIndexDiskKeyValueStore(dbConfig, getTestDir(), storeName, null, null, index);
+
+        // Write files
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < numFiles; i++) {
+            store.updateValidKeyRange(0, maxKey);
+            store.startWriting();
+            resetKeys();
+            for (int j = 0; j < numRecords; ++j) {
+                long id = nextAscKey();
+                BenchmarkRecord value = new BenchmarkRecord(id, nextValue());
+                store.put(id, value::serialize, BenchmarkRecord.getSerializedSize());
+            }
+            store.endWriting();
+        }
+        System.out.println("Created " + numFiles + " files in " + (System.currentTimeMillis() - start) + "ms");
+        store.close();
+
+        // Restart the store and rebuild the index
+        final LongListOffHeap rebuiltIndex = new LongListOffHeap();
+        rebuiltIndex.updateValidRange(0, maxKey);
+        // The first long in a serialized record is its key
+        final LoadedDataCallback callback = parallel
+                ? (ConcurrentLoadedDataCallback)
+                        (dataLocation, dataValue) -> rebuiltIndex.putIfGreater(dataValue.readLong(), dataLocation)
+                : (dataLocation, dataValue) -> rebuiltIndex.put(dataValue.readLong(), dataLocation);
+        start = System.currentTimeMillis();
+        final var restartedStore =
+                new MemoryIndexDiskKeyValueStore(dbConfig, getTestDir(), storeName, null, callback, rebuiltIndex);
+        System.out.println("Rebuilt index of " + (long) numFiles * numRecords + " records, parallel=" + parallel
+                + " in " + (System.currentTimeMillis() - start) + "ms");
+
+        // Verify rebuilt index
+        if (verify) {
+            start = System.currentTimeMillis();
+            for (long key = 0; key <= maxKey; ++key) {
+                if (index.get(key, LongList.IMPERMISSIBLE_VALUE)
+                        != rebuiltIndex.get(key, LongList.IMPERMISSIBLE_VALUE)) {
+                    throw new RuntimeException("Bad data location for key " + key);
+                }
+            }
+            System.out.println("Verified rebuilt index in " + (System.currentTimeMillis() - start) + "ms");
+        }
+
+        afterTest(() -> {
+            restartedStore.close();
+            index.close();
+            rebuiltIndex.close();
+        });
+    }
+}
@@ -6,6 +6,7 @@ import com.swirlds.benchmark.reconnect.StateBuilder;
 import com.swirlds.common.merkle.MerkleInternal;
 import com.swirlds.common.merkle.MerkleNode;
 import com.swirlds.common.platform.NodeId;
+import com.swirlds.config.api.ConfigurationBuilder;
 import com.swirlds.virtualmap.VirtualKey;
 import com.swirlds.virtualmap.VirtualMap;
 import com.swirlds.virtualmap.VirtualValue;
@@ -83,6 +84,26 @@ public class ReconnectBench extends VirtualMapBaseBench {
     @Param({"0.15"})
     public double delayNetworkFuzzRangePercent;
 
+    /**
+     * Emulated network bandwidth between the teacher and the learner in each direction,
+     * in megabits per second, or zero for unlimited bandwidth. Unlike delayNetworkMicroseconds,
+     * this emulates a network where the time to send a message depends on its size.
+     */
+    @Param({"0"})
+    public long bandwidthLimitMbps;
+
+    /** Virtual map reconnect mode, see VirtualMapReconnectMode. */
+    @Param({"push"})
+    public String reconnectMode;
+
+    /** Max number of paths sent in a single learner request in pull reconnect modes. */
+    @Param({"1"})
+    public int pullRequestBatchSize;
+
+    /** Whether the teacher should compress leaf data in pull reconnect modes. */
+    @Param({"false"})
+    public boolean pullCompressLeaves;
+
     private List<VirtualMap<BenchmarkKey, BenchmarkValue>> teacherMaps;
     private List<VirtualMap<BenchmarkKey, BenchmarkValue>> learnerMaps;
 
@@ -97,6 +118,16 @@ public class ReconnectBench extends VirtualMapBaseBench {
         return "ReconnectBench";
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void configure(final ConfigurationBuilder builder) {
+        builder.withValue("virtualMap.reconnectMode", reconnectMode)
+                .withValue("reconnect.pullLearnerRequestBatchSize", Integer.toString(pullRequestBatchSize))
+                .withValue("reconnect.pullTeacherCompressLeaves", Boolean.toString(pullCompressLeaves));
+    }
+
     /**
      * Builds a VirtualMap populator that is able to add/update, as well as remove nodes (when the value is null.)
      * Note that it doesn't support explicitly adding null values under a key.
@@ -249,6 +280,7 @@ public class ReconnectBench extends VirtualMapBaseBench {
                 delayStorageFuzzRangePercent,
                 delayNetworkMicroseconds,
                 delayNetworkFuzzRangePercent,
+                bandwidthLimitMbps * 1_000_000 / Byte.SIZE,
                 new NodeId(),
                 configuration);
     }
@@ -3,11 +3,17 @@ package com.swirlds.benchmark;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Stream;
@@ -20,6 +26,8 @@ public final class Utils {
 
     private static final Logger logger = LogManager.getLogger(Utils.class);
 
+    private static final long MB = 1024 * 1024;
+
     private Utils() {
         // do not instantiate
     }
@@ -78,6 +86,45 @@ public final class Utils {
         }
     }
 
+    /* GC and memory utils */
+
+    public static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .filter(count -> count > 0)
+                .sum();
+    }
+
+    public static long gcTimeMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(time -> time > 0)
+                .sum();
+    }
+
+    /**
+     * Logs the number of GCs and total GC time since the given start values, heap usage after
+     * the last GC, and direct memory usage.
+     */
+    public static void printMemoryStats(long gcCountAtStart, long gcTimeAtStart) {
+        final long heapAfterGc = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .map(MemoryPoolMXBean::getCollectionUsage)
+                .filter(Objects::nonNull)
+                .mapToLong(MemoryUsage::getUsed)
+                .sum();
+        final long directUsed = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> "direct".equals(pool.getName()))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+        logger.info(
+                "GC: {} collections, {} ms total, heap used after last GC: {} MB, direct memory used: {} MB",
+                gcCount() - gcCountAtStart,
+                gcTimeMillis() - gcTimeAtStart,
+                heapAfterGc / MB,
+                directUsed / MB);
+    }
+
     /* Random utils */
 
     public static long randomLong() {
@@ -1,8 +1,10 @@
 // SPDX-License-Identifier: Apache-2.0
 package com.swirlds.benchmark;
 
+import com.swirlds.config.api.ConfigurationBuilder;
 import com.swirlds.virtualmap.VirtualMap;
 import java.util.ArrayDeque;
+import java.util.LongSummaryStatistics;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -10,6 +12,7 @@ import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
@@ -21,10 +24,25 @@ import org.openjdk.jmh.annotations.Warmup;
 @Measurement(iterations = 5)
 public class VirtualMapBench extends VirtualMapBaseBench {
 
+    /**
+     * Whether to move dirty leaf values of sealed virtual node cache copies off-heap. Heap usage and
+     * GC activity for both modes are reported at the end of every test.
+     */
+    @Param({"false"})
+    public boolean offHeapLeafValues;
+
     String benchmarkName() {
         return "VirtualMapBench";
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void configure(final ConfigurationBuilder builder) {
+        builder.withValue("virtualMap.offHeapLeafValues", Boolean.toString(offHeapLeafValues));
+    }
+
     /**
      * [Read-update or create-write] cycle. Single-threaded.
      */
@@ -124,6 +142,51 @@ public class VirtualMapBench extends VirtualMapBaseBench {
         });
     }
 
+    /**
+     * [Create-write or replace] cycle with a fixed number of mutations per copy over a small set of hot
+     * keys. Most mutations in every copy override mutations from the previous copies, which stresses
+     * virtual node cache merges. Merge durations and the number of scanned cache mutations are reported
+     * in virtual map metrics. Single-threaded.
+     */
+    @Benchmark
+    public void mergeHotKeys() throws Exception {
+        beforeTest("mergeHotKeys");
+
+        logger.info(RUN_DELIMITER);
+
+        final int mutationsPerCopy = 100_000;
+        final int hotKeys = Math.max(1, maxKey / 10);
+
+        final long[] map = new long[verify ? maxKey : 0];
+        VirtualMap<BenchmarkKey, BenchmarkValue> virtualMap = createMap(map);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < numFiles; i++) {
+            for (int j = 0; j < mutationsPerCopy; ++j) {
+                final long id = Utils.randomLong(hotKeys);
+                final long val = nextValue();
+                virtualMap.put(new BenchmarkKey(id), new BenchmarkValue(val));
+                if (verify) {
+                    map[(int) id] = val;
+                }
+            }
+
+            virtualMap = copyMap(virtualMap);
+        }
+
+        logger.info("Updated {} copies in {} ms", numFiles, System.currentTimeMillis() - start);
+
+        // Ensure the map is done with hashing/merging/flushing
+        final var finalMap = flushMap(virtualMap);
+
+        verifyMap(map, finalMap);
+
+        afterTest(() -> {
+            finalMap.release();
+            finalMap.getDataSource().close();
+        });
+    }
+
     /**
      * [Read-update or create-write][Remove expired] cycle. Single-threaded.
      */
@@ -247,4 +310,52 @@ public class VirtualMapBench extends VirtualMapBaseBench {
 
         afterTest(true);
     }
+
+    private void scan(final String name, final boolean parallel) throws Exception {
+        beforeTest(name);
+
+        logger.info(RUN_DELIMITER);
+
+        preCreateMap();
+
+        // Leaves can only be traversed in an immutable copy
+        final VirtualMap<BenchmarkKey, BenchmarkValue> scanCopy = virtualMapP;
+        virtualMapP = virtualMapP.copy();
+
+        final long start = System.currentTimeMillis();
+        final long count;
+        final long sum;
+        try (final var leaves = scanCopy.leafStream(parallel)) {
+            final LongSummaryStatistics stats =
+                    leaves.mapToLong(leaf -> leaf.getValue().hashCode()).summaryStatistics();
+            count = stats.getCount();
+            sum = stats.getSum();
+        }
+        scanCopy.release();
+
+        logger.info(
+                "Scanned {} leaves ({}) in {} ms, checksum {}",
+                count,
+                parallel ? "parallel" : "sequential",
+                System.currentTimeMillis() - start,
+                sum);
+
+        afterTest(true);
+    }
+
+    /**
+     * Traverse all leaves of a pre-created map. Single-threaded.
+     */
+    @Benchmark
+    public void scan() throws Exception {
+        scan("scan", false);
+    }
+
+    /**
+     * Traverse all leaves of a pre-created map. Parallel.
+     */
+    @Benchmark
+    public void parallelScan() throws Exception {
+        scan("parallelScan", true);
+    }
 }
@@ -51,6 +51,7 @@ public class MerkleBenchmarkUtils {
             final double delayStorageFuzzRangePercent,
             final long delayNetworkMicroseconds,
             final double delayNetworkFuzzRangePercent,
+            final long bandwidthBytesPerSecond,
             final NodeId selfId,
             final Configuration configuration)
             throws Exception {
@@ -72,12 +73,15 @@ public class MerkleBenchmarkUtils {
                 delayStorageFuzzRangePercent,
                 delayNetworkMicroseconds,
                 delayNetworkFuzzRangePercent,
+                bandwidthBytesPerSecond,
                 selfId,
                 configuration);
     }
 
     /**
-     * Synchronize two trees and verify that the end result is the expected result.
+     * Synchronize two trees and verify that the end result is the expected result. If
+     * bandwidthBytesPerSecond is positive, the streams between the teacher and the learner
+     * are limited to this number of bytes per second in each direction.
      */
     @SuppressWarnings("unchecked")
     private static <T extends MerkleNode> T testSynchronization(
@@ -88,6 +92,7 @@ public class MerkleBenchmarkUtils {
             final double delayStorageFuzzRangePercent,
             final long delayNetworkMicroseconds,
             final double delayNetworkFuzzRangePercent,
+            final long bandwidthBytesPerSecond,
             final NodeId selfId,
             final Configuration configuration)
             throws Exception {
@@ -95,7 +100,8 @@ public class MerkleBenchmarkUtils {
         final GossipConfig gossipConfig = configuration.getConfigData(GossipConfig.class);
         final ReconnectConfig reconnectConfig = configuration.getConfigData(ReconnectConfig.class);
 
-        try (PairedStreams streams = new PairedStreams(selfId, socketConfig, gossipConfig)) {
+        try (PairedStreams streams =
+                new PairedStreams(selfId, socketConfig, gossipConfig, bandwidthBytesPerSecond)) {
             final LearningSynchronizer learner;
             final TeachingSynchronizer teacher;
 
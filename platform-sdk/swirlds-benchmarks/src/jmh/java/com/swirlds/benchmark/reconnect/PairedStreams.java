@@ -1,6 +1,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package com.swirlds.benchmark.reconnect;
 
+import com.swirlds.benchmark.reconnect.lag.BandwidthLimitedOutputStream;
 import com.swirlds.common.io.streams.MerkleDataInputStream;
 import com.swirlds.common.io.streams.MerkleDataOutputStream;
 import com.swirlds.common.platform.NodeId;
@@ -11,6 +12,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
 
@@ -39,6 +41,25 @@ public class PairedStreams implements AutoCloseable {
             @NonNull final SocketConfig socketConfig,
             @NonNull final GossipConfig gossipConfig)
             throws IOException {
+        this(nodeId, socketConfig, gossipConfig, 0);
+    }
+
+    /**
+     * Creates paired streams, optionally with limited bandwidth in both directions.
+     *
+     * @param nodeId the node ID
+     * @param socketConfig the socket config
+     * @param gossipConfig the gossip config
+     * @param bandwidthBytesPerSecond the max number of bytes per second to send in each
+     *                                direction, or zero for unlimited bandwidth
+     * @throws IOException if the sockets can't be opened
+     */
+    public PairedStreams(
+            @NonNull final NodeId nodeId,
+            @NonNull final SocketConfig socketConfig,
+            @NonNull final GossipConfig gossipConfig,
+            final long bandwidthBytesPerSecond)
+            throws IOException {
 
         // open server socket
         server = new ServerSocket();
@@ -47,19 +68,25 @@ public class PairedStreams implements AutoCloseable {
         teacherSocket = new Socket("127.0.0.1", server.getLocalPort());
         learnerSocket = server.accept();
 
-        teacherOutputBuffer = new BufferedOutputStream(teacherSocket.getOutputStream());
+        teacherOutputBuffer =
+                new BufferedOutputStream(limitBandwidth(teacherSocket.getOutputStream(), bandwidthBytesPerSecond));
         teacherOutput = new MerkleDataOutputStream(teacherOutputBuffer);
 
         teacherInputBuffer = new BufferedInputStream(teacherSocket.getInputStream());
         teacherInput = new MerkleDataInputStream(teacherInputBuffer);
 
-        learnerOutputBuffer = new BufferedOutputStream(learnerSocket.getOutputStream());
+        learnerOutputBuffer =
+                new BufferedOutputStream(limitBandwidth(learnerSocket.getOutputStream(), bandwidthBytesPerSecond));
         learnerOutput = new MerkleDataOutputStream(learnerOutputBuffer);
 
         learnerInputBuffer = new BufferedInputStream(learnerSocket.getInputStream());
         learnerInput = new MerkleDataInputStream(learnerInputBuffer);
     }
 
+    private static OutputStream limitBandwidth(final OutputStream out, final long bandwidthBytesPerSecond) {
+        return bandwidthBytesPerSecond > 0 ? new BandwidthLimitedOutputStream(out, bandwidthBytesPerSecond) : out;
+    }
+
     public MerkleDataOutputStream getTeacherOutput() {
         return teacherOutput;
     }
@@ -0,0 +1,87 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.benchmark.reconnect.lag;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An output stream that limits the rate bytes are written to the underlying stream. This
+ * emulates a network link with limited bandwidth. Unlike the per-message delays introduced
+ * by {@link BenchmarkSlowAsyncOutputStream}, the delay here is proportional to the number
+ * of bytes sent, so smaller (e.g. compressed) messages are transferred faster.
+ */
+public class BandwidthLimitedOutputStream extends FilterOutputStream {
+
+    /** Max number of bytes to write to the underlying stream at once */
+    private static final int MAX_CHUNK_SIZE = 8 * 1024;
+
+    private final long bytesPerSecond;
+
+    /** Time when the stream was created, in nanos */
+    private final long startNanos;
+
+    /** Total number of bytes written so far */
+    private long bytesWritten;
+
+    /**
+     * Creates a new bandwidth limited stream.
+     *
+     * @param out the underlying stream
+     * @param bytesPerSecond the max number of bytes to write per second, must be positive
+     */
+    public BandwidthLimitedOutputStream(final OutputStream out, final long bytesPerSecond) {
+        super(out);
+        if (bytesPerSecond <= 0) {
+            throw new IllegalArgumentException("Bandwidth limit must be positive");
+        }
+        this.bytesPerSecond = bytesPerSecond;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final int b) throws IOException {
+        throttle(1);
+        out.write(b);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        int pos = off;
+        int remaining = len;
+        while (remaining > 0) {
+            final int chunk = Math.min(remaining, MAX_CHUNK_SIZE);
+            throttle(chunk);
+            out.write(b, pos, chunk);
+            pos += chunk;
+            remaining -= chunk;
+        }
+    }
+
+    /**
+     * Accounts the given number of bytes and sleeps, if they can't be written yet without
+     * exceeding the bandwidth limit.
+     */
+    private void throttle(final int len) throws IOException {
+        bytesWritten += len;
+        final long allowedAtNanos =
+                startNanos + (long) ((double) bytesWritten * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond);
+        final long delayNanos = allowedAtNanos - System.nanoTime();
+        if (delayNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while throttling");
+            }
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.swirlds.common.merkle.synchronization.config;
 
 import com.swirlds.config.api.ConfigData;
 import com.swirlds.config.api.ConfigProperty;
+import com.swirlds.config.api.validation.annotation.Max;
+import com.swirlds.config.api.validation.annotation.Min;
 import java.time.Duration;
 
 /**
@@ -41,6 +43,30 @@ import java.time.Duration;
  * @param pullLearnerRootResponseTimeout         In pull-based reconnect implementations (virtual trees only), the
  *                                               timeout on the learner side to get a virtual root node response from
  *                                               teacher
+ * @param pullLearnerRequestBatchSize            In pull-based reconnect implementations (virtual trees only), the max
+ *                                               number of virtual node requests the learner packs into a single
+ *                                               message. Paths are batched in the order provided by the node traversal
+ *                                               order, so sibling subtrees typically end up in the same batch. The
+ *                                               teacher sends a single response message for every request message.
+ *                                               If greater than one, the teacher must support batched requests.
+ *                                               Single path requests are sent in the original format
+ * @param pullLearnerParallelHashThreshold       In pull-based reconnect implementations (virtual trees only), the min
+ *                                               number of requests in a batch to load the learner node hashes for the
+ *                                               batch in parallel. If zero, hashes are always loaded one by one
+ * @param pullTeacherCompressLeaves              In pull-based reconnect implementations (virtual trees only), whether
+ *                                               the teacher compresses response payloads, which include leaf data,
+ *                                               using deflate compression. Only responses to batched requests are
+ *                                               compressed, responses to single path requests are sent in the
+ *                                               original format
+ * @param pullTeacherCompressMinBytes            In pull-based reconnect implementations (virtual trees only), the min
+ *                                               size of a response payload, in bytes, to compress, if compression is
+ *                                               enabled. Smaller payloads are sent uncompressed
+ * @param pullLearnerHashSummaryRank             In the hash summary pull-based reconnect mode (virtual trees only),
+ *                                               the rank of the virtual tree, which hashes are sent by the learner in a
+ *                                               single request as a summary of the learner state. Every node at this
+ *                                               rank is a root of a chunk, which is only traversed further if its hash
+ *                                               differs on the teacher. If the tree is not tall enough, the last rank
+ *                                               of internal nodes is used instead
  */
 @ConfigData("reconnect")
 public record ReconnectConfig(
@@ -55,4 +81,9 @@ public record ReconnectConfig(
         @ConfigProperty(defaultValue = "10m") Duration minimumTimeBetweenReconnects,
         @ConfigProperty(defaultValue = "0") int teacherMaxNodesPerSecond,
         @ConfigProperty(defaultValue = "1us") Duration teacherRateLimiterSleep,
-        @ConfigProperty(defaultValue = "60s") Duration pullLearnerRootResponseTimeout) {}
+        @ConfigProperty(defaultValue = "60s") Duration pullLearnerRootResponseTimeout,
+        @Min(1) @ConfigProperty(defaultValue = "1") int pullLearnerRequestBatchSize,
+        @Min(0) @ConfigProperty(defaultValue = "16") int pullLearnerParallelHashThreshold,
+        @ConfigProperty(defaultValue = "false") boolean pullTeacherCompressLeaves,
+        @Min(0) @ConfigProperty(defaultValue = "512") int pullTeacherCompressMinBytes,
+        @Min(1) @Max(16) @ConfigProperty(defaultValue = "16") int pullLearnerHashSummaryRank) {}
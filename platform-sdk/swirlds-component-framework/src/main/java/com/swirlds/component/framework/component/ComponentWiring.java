@@ -671,6 +671,17 @@ public class ComponentWiring<COMPONENT_TYPE, OUTPUT_TYPE> {
         scheduler.flush();
     }
 
+    /**
+     * Get the number of unprocessed tasks in the task scheduler, see
+     * {@link TaskScheduler#getUnprocessedTaskCount()}. Tasks are counted until they have been handled, so while the
+     * component is handling a task, that task is included in the count.
+     *
+     * @return the number of unprocessed tasks
+     */
+    public long getUnprocessedTaskCount() {
+        return scheduler.getUnprocessedTaskCount();
+    }
+
     /**
      * Start squelching the output of this component.
      *
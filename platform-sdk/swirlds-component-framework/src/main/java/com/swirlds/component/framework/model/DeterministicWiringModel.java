@@ -13,6 +13,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A deterministic implementation of a wiring model. Suitable for testing, not intended for production use cases.
@@ -106,6 +107,17 @@ public class DeterministicWiringModel extends TraceableWiringModel {
         return Duration.ZERO;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Schedulers of this model don't use a pool, so the common pool is returned.
+     */
+    @NonNull
+    @Override
+    public ForkJoinPool getDefaultPool() {
+        return ForkJoinPool.commonPool();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -154,6 +154,15 @@ public class StandardWiringModel extends TraceableWiringModel {
         return healthMonitor.getUnhealthyDuration();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public ForkJoinPool getDefaultPool() {
+        return defaultPool;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -13,6 +13,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A wiring model is a collection of task schedulers and the wires connecting them. It can be used to analyze the wiring
@@ -118,6 +119,16 @@ public interface WiringModel extends Startable, Stoppable {
     @NonNull
     Duration getUnhealthyDuration();
 
+    /**
+     * Get the pool that runs tasks of concurrent schedulers built by this model, unless a scheduler is configured to
+     * use a different pool. Components may submit their own parallel work to this pool instead of creating a pool of
+     * their own. The pool lives as long as the model, it must not be shut down by components.
+     *
+     * @return the default pool
+     */
+    @NonNull
+    ForkJoinPool getDefaultPool();
+
     /**
      * Build a wire that produces an instant (reflecting current time) at the specified rate. Note that the exact rate
      * of heartbeats may vary. This is a best effort algorithm, and actual rates may vary depending on a variety of
@@ -3,7 +3,9 @@ package com.swirlds.benchmark;
 
 import com.swirlds.merkledb.collections.LongList;
 import com.swirlds.merkledb.collections.LongListHeap;
+import com.swirlds.merkledb.collections.LongListNative;
 import com.swirlds.merkledb.collections.LongListOffHeap;
+import com.swirlds.merkledb.utilities.DirectMemoryAllocator;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.MemoryType;
@@ -37,15 +39,20 @@ public class LongListBenchmark {
     private LongList list;
     private int nextIndex = INITIAL_DATA_SIZE;
 
-    @Param({"LongListHeap", "LongListOffHeap"})
+    @Param({"LongListHeap", "LongListOffHeap", "LongListOffHeapHugePages", "LongListNative"})
     public String listImpl;
 
     @Setup(Level.Trial)
     public void setup() {
         random = new Random(1234);
+        DirectMemoryAllocator.setMode(
+                "LongListOffHeapHugePages".equals(listImpl)
+                        ? DirectMemoryAllocator.Mode.HUGE_PAGE_ALIGNED
+                        : DirectMemoryAllocator.Mode.DEFAULT);
         list = switch (listImpl) {
             default -> new LongListHeap();
-            case "LongListOffHeap" -> new LongListOffHeap();};
+            case "LongListOffHeap", "LongListOffHeapHugePages" -> new LongListOffHeap();
+            case "LongListNative" -> new LongListNative();};
         // fill with some data
         for (int i = 0; i < INITIAL_DATA_SIZE; i++) {
             list.put(i, i + 1);
@@ -53,6 +60,12 @@ public class LongListBenchmark {
         // print memory usage
         System.out.printf("Memory for initial %,d accounts:\n", INITIAL_DATA_SIZE);
         printMemoryUsage();
+        if ("LongListOffHeapHugePages".equals(listImpl)) {
+            final DirectMemoryAllocator.PageSizeReport report = DirectMemoryAllocator.reportPageSizes();
+            System.out.printf(
+                    "    THP mode: %s, aligned: %,d bytes, backed by huge pages: %,d bytes\n",
+                    report.transparentHugePages(), report.alignedBytes(), report.hugePageBytes());
+        }
     }
 
     @Setup(Level.Invocation)
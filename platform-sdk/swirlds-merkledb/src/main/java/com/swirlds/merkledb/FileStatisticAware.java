@@ -13,4 +13,11 @@ public interface FileStatisticAware {
      * @return statistics for sizes of all fully written files, in bytes
      */
     LongSummaryStatistics getFilesSizeStatistics();
+
+    /**
+     * Get the total size of the files it uses, which are currently memory mapped for reads.
+     *
+     * @return mapped size of all files, in bytes
+     */
+    long getMappedFilesSize();
 }
@@ -0,0 +1,122 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb;
+
+/**
+ * A probabilistic estimate of how often items were accessed recently, used as an admission filter
+ * by {@link LeafRecordCache}. It's a count-min sketch with four 4-bit counters per item, so every
+ * frequency is capped at 15. To keep the estimates recent, all counters are halved once the
+ * number of recorded accesses reaches ten times the expected number of items.
+ *
+ * <p>Items are identified by their hash codes only. Hash collisions may overestimate frequencies,
+ * which is acceptable for an admission filter.
+ *
+ * <p>This class is not thread safe.
+ */
+final class FrequencySketch {
+
+    /** Seeds used to derive four counter indices from a single item hash */
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    /** Mask to clear the high bit of every 4-bit counter after a right shift */
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    /** Mask to extract the low bit of every 4-bit counter */
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    /** Max value of a 4-bit counter */
+    private static final int MAX_FREQUENCY = 15;
+
+    /** Sixteen 4-bit counters per long */
+    private final long[] table;
+
+    private final int tableMask;
+
+    /** Number of recorded accesses after which all counters are halved */
+    private final int sampleSize;
+
+    /** Number of recorded accesses since the last reset */
+    private int size;
+
+    /**
+     * Creates a new sketch.
+     *
+     * @param expectedItems expected number of distinct items to track
+     */
+    FrequencySketch(final long expectedItems) {
+        final int maximum = (int) Math.min(Math.max(expectedItems, 1), Integer.MAX_VALUE >>> 4);
+        final int tableSize = Integer.highestOneBit(maximum - 1) << 1;
+        table = new long[Math.max(tableSize, 1)];
+        tableMask = table.length - 1;
+        sampleSize = 10 * maximum;
+    }
+
+    /**
+     * Returns the estimated number of recent accesses of the given item, from 0 to 15.
+     *
+     * @param itemHash the item hash code
+     * @return the estimated frequency
+     */
+    int frequency(final int itemHash) {
+        final int hash = spread(itemHash);
+        final int start = (hash & 3) << 2;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < 4; i++) {
+            final int index = indexOf(hash, i);
+            final int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Records an access of the given item.
+     *
+     * @param itemHash the item hash code
+     */
+    void increment(final int itemHash) {
+        final int hash = spread(itemHash);
+        final int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && (++size >= sampleSize)) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(final int index, final int counter) {
+        final int offset = counter << 2;
+        final long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /** Halves all counters, so old accesses gradually lose their weight */
+    private void reset() {
+        int oddCounters = 0;
+        for (int i = 0; i < table.length; i++) {
+            oddCounters += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size - (oddCounters >>> 2)) >>> 1;
+    }
+
+    private int indexOf(final int hash, final int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return ((int) h) & tableMask;
+    }
+
+    /** Applies a supplemental hash function to defend against poor quality hash codes */
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
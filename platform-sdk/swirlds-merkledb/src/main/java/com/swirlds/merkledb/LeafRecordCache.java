@@ -0,0 +1,506 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb;
+
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.virtualmap.datasource.VirtualLeafBytes;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Virtual leaf records cache used by {@link MerkleDbDataSource} to serve key lookups without
+ * going to disk. The cache is limited both by size in bytes and by number of entries, since
+ * leaf records vary in size a lot.
+ *
+ * <p>The cache follows W-TinyLFU design. New entries are added to a small LRU admission window,
+ * about 1% of the cache. Entries evicted from the window become candidates to the main cache,
+ * which is a segmented LRU with probation and protected areas. A candidate is only admitted to
+ * the main cache, if it's been accessed recently more often than the entry it would replace,
+ * according to a {@link FrequencySketch}. This keeps frequently accessed entries like hot accounts
+ * in the cache, while entries which are read once, like in a scan, are quickly evicted from the
+ * window and don't pollute the main cache.
+ *
+ * <p>The cache is split into independently locked segments by key hash code, every segment has
+ * its own frequency sketch. Lookups don't take segment locks. Every lookup is recorded in a lossy
+ * per-segment read buffer, which is drained to the frequency sketch and access queues by the
+ * thread that holds the segment lock next, so under contention some accesses may be not
+ * recorded. Cached entries may be negative, i.e. contain {@link
+ * com.swirlds.virtualmap.datasource.VirtualDataSource#INVALID_PATH} path, or may contain a
+ * key and a path, but no value.
+ *
+ * <p>This class is thread safe.
+ */
+final class LeafRecordCache {
+
+    /** Estimated heap size of a cache entry excluding key and value bytes: node, record, bytes objects */
+    static final int ENTRY_OVERHEAD = 160;
+
+    /** Expected average entry size, used to size frequency sketches */
+    private static final int EXPECTED_ENTRY_SIZE = 256;
+
+    /** Minimal segment size. Small caches have fewer segments */
+    private static final long MIN_SEGMENT_SIZE = 1024 * 1024;
+
+    /** Admission window size, as a fraction of the whole cache size */
+    private static final double WINDOW_FRACTION = 0.01;
+
+    /** Protected area size, as a fraction of the main cache size */
+    private static final double PROTECTED_FRACTION = 0.8;
+
+    private static final byte WINDOW = 0;
+    private static final byte PROBATION = 1;
+    private static final byte PROTECTED = 2;
+    private static final byte REMOVED = 3;
+
+    /** Size of a segment read buffer, must be a power of two */
+    private static final int READ_BUFFER_SIZE = 128;
+
+    /** A read buffer is drained every this number of lookups, if the segment lock is available */
+    private static final int READ_DRAIN_INTERVAL = 32;
+
+    private final Segment[] segments;
+
+    private final long maxSizeBytes;
+
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSizeBytes max cache size, in bytes
+     * @param maxEntries max number of entries in the cache
+     */
+    LeafRecordCache(final long maxSizeBytes, final int maxEntries) {
+        this(maxSizeBytes, maxEntries, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Creates a new cache with the given number of segments. The number of segments may be
+     * reduced, so every segment is at least {@link #MIN_SEGMENT_SIZE} bytes.
+     *
+     * @param maxSizeBytes max cache size, in bytes
+     * @param maxEntries max number of entries in the cache
+     * @param concurrency desired number of segments
+     */
+    LeafRecordCache(final long maxSizeBytes, final int maxEntries, final int concurrency) {
+        if (maxSizeBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache entry count must be positive");
+        }
+        this.maxSizeBytes = maxSizeBytes;
+        this.maxEntries = maxEntries;
+        final long maxSegments = Math.max(1, Math.min(concurrency, maxSizeBytes / MIN_SEGMENT_SIZE));
+        final int segmentCount = Integer.highestOneBit((int) Math.min(maxSegments, 1 << 16));
+        segments = new Segment[segmentCount];
+        final int maxSegmentEntries = (int) Math.max(1, ((long) maxEntries + segmentCount - 1) / segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxSizeBytes / segmentCount, maxSegmentEntries);
+        }
+    }
+
+    /**
+     * Looks up a cached record by key. Every lookup is recorded in the frequency sketch, even if
+     * the key isn't found, so keys that are requested often get a chance to be admitted later.
+     *
+     * @param keyBytes the key
+     * @param keyHashCode the key hash code
+     * @return the cached record, or null if the key isn't in the cache
+     */
+    @Nullable
+    VirtualLeafBytes get(@NonNull final Bytes keyBytes, final int keyHashCode) {
+        final VirtualLeafBytes cached = segmentFor(keyHashCode).get(keyBytes, keyHashCode);
+        if (cached != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return cached;
+    }
+
+    /**
+     * Puts a record to the cache. If a record with the same key is already cached, it's replaced.
+     * Otherwise the record is put to the admission window, which may result in other records
+     * evicted from the cache.
+     *
+     * @param keyHashCode the record key hash code
+     * @param leafBytes the record to cache
+     */
+    void put(final int keyHashCode, @NonNull final VirtualLeafBytes leafBytes) {
+        segmentFor(keyHashCode).put(keyHashCode, leafBytes);
+    }
+
+    /**
+     * Removes the given key from the cache, if it's cached.
+     *
+     * @param keyBytes the key
+     * @param keyHashCode the key hash code
+     */
+    void invalidate(@NonNull final Bytes keyBytes, final int keyHashCode) {
+        segmentFor(keyHashCode).remove(keyBytes);
+    }
+
+    /** Max cache size, in bytes */
+    long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    /** Max number of entries in the cache */
+    int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /** Number of entries in the cache */
+    long getEntryCount() {
+        long count = 0;
+        for (final Segment segment : segments) {
+            count += segment.entryCount();
+        }
+        return count;
+    }
+
+    /** Estimated current cache size, in bytes */
+    long getSizeBytes() {
+        long size = 0;
+        for (final Segment segment : segments) {
+            size += segment.weight();
+        }
+        return size;
+    }
+
+    /** Total number of lookups, which found a record in the cache */
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    /** Total number of lookups, which didn't find a record in the cache */
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    /** Total number of records evicted from the cache, or rejected by the admission filter */
+    long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /** Number of cache segments, for testing purposes */
+    int getSegmentCount() {
+        return segments.length;
+    }
+
+    private Segment segmentFor(final int keyHashCode) {
+        final int h = keyHashCode ^ (keyHashCode >>> 16);
+        return segments[h & (segments.length - 1)];
+    }
+
+    private static int weigh(final VirtualLeafBytes leafBytes) {
+        final Bytes valueBytes = leafBytes.valueBytes();
+        final long size =
+                ENTRY_OVERHEAD + leafBytes.keyBytes().length() + (valueBytes == null ? 0 : valueBytes.length());
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * A cache entry, also a node in one of the segment access queues. All fields but {@link #value}
+     * are only accessed under the segment lock.
+     */
+    private static final class Node {
+        private final Bytes key;
+        private final int hash;
+        private volatile VirtualLeafBytes value;
+        private int weight;
+        private byte queue;
+        private Node prev;
+        private Node next;
+
+        private Node(final Bytes key, final int hash, final byte queue) {
+            this.key = key;
+            this.hash = hash;
+            this.queue = queue;
+        }
+    }
+
+    /** A doubly linked list of nodes in access order, from the least recently used */
+    private static final class AccessQueue {
+        private final Node sentinel = new Node(null, 0, REMOVED);
+
+        private AccessQueue() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+        }
+
+        @Nullable
+        Node first() {
+            return sentinel.next == sentinel ? null : sentinel.next;
+        }
+
+        @Nullable
+        Node next(final Node node) {
+            return node.next == sentinel ? null : node.next;
+        }
+
+        void addLast(final Node node) {
+            node.prev = sentinel.prev;
+            node.next = sentinel;
+            sentinel.prev.next = node;
+            sentinel.prev = node;
+        }
+
+        void remove(final Node node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToLast(final Node node) {
+            remove(node);
+            addLast(node);
+        }
+    }
+
+    /** An independently locked part of the cache */
+    private final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Bytes, Node> data = new ConcurrentHashMap<>();
+        private final AtomicReferenceArray<Node> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        private final AtomicLong readCount = new AtomicLong();
+        private final FrequencySketch sketch;
+        private final AccessQueue window = new AccessQueue();
+        private final AccessQueue probation = new AccessQueue();
+        private final AccessQueue protectedQueue = new AccessQueue();
+
+        private final long maxWeight;
+        private final int maxCount;
+        private final long maxWindowWeight;
+        private final long maxProtectedWeight;
+
+        private long windowWeight;
+        private long probationWeight;
+        private long protectedWeight;
+        private int count;
+
+        private Segment(final long maxWeight, final int maxCount) {
+            this.maxWeight = maxWeight;
+            this.maxCount = maxCount;
+            maxWindowWeight = Math.max(1, (long) (maxWeight * WINDOW_FRACTION));
+            maxProtectedWeight = (long) ((maxWeight - maxWindowWeight) * PROTECTED_FRACTION);
+            sketch = new FrequencySketch(Math.min(maxWeight / EXPECTED_ENTRY_SIZE, maxCount));
+        }
+
+        long weight() {
+            lock.lock();
+            try {
+                return windowWeight + probationWeight + protectedWeight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int entryCount() {
+            lock.lock();
+            try {
+                return count;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        VirtualLeafBytes get(final Bytes key, final int hash) {
+            final Node node = data.get(key);
+            // misses are recorded too, as nodes that aren't in the cache
+            recordRead(node != null ? node : new Node(null, hash, REMOVED));
+            return node != null ? node.value : null;
+        }
+
+        void put(final int hash, final VirtualLeafBytes leafBytes) {
+            final Bytes key = leafBytes.keyBytes();
+            final int weight = weigh(leafBytes);
+            lock.lock();
+            try {
+                drainReads();
+                if (weight > maxWeight) {
+                    // too large to be cached, but make sure no stale record is left
+                    removeNode(key);
+                    return;
+                }
+                Node node = data.get(key);
+                if (node != null) {
+                    addWeight(node.queue, weight - node.weight);
+                    node.weight = weight;
+                    node.value = leafBytes;
+                    onAccess(node);
+                    demoteProtected();
+                } else {
+                    node = new Node(key, hash, WINDOW);
+                    node.value = leafBytes;
+                    node.weight = weight;
+                    data.put(key, node);
+                    count++;
+                    window.addLast(node);
+                    windowWeight += weight;
+                }
+                evict();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(final Bytes key) {
+            lock.lock();
+            try {
+                removeNode(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void removeNode(final Bytes key) {
+            final Node node = data.remove(key);
+            if (node != null) {
+                detach(node);
+            }
+        }
+
+        /**
+         * Records a lookup in the read buffer. If the buffer is full, the oldest recorded lookup
+         * is lost. Every {@link #READ_DRAIN_INTERVAL} lookups the buffer is drained, unless the
+         * segment is locked by another thread, which will drain it instead.
+         */
+        private void recordRead(final Node node) {
+            final long index = readCount.getAndIncrement();
+            readBuffer.lazySet((int) (index & (READ_BUFFER_SIZE - 1)), node);
+            if (((index + 1) % READ_DRAIN_INTERVAL == 0) && lock.tryLock()) {
+                try {
+                    drainReads();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        /** Applies recorded lookups to the frequency sketch and access queues. Called under the lock */
+        private void drainReads() {
+            for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+                if (readBuffer.get(i) == null) {
+                    continue;
+                }
+                final Node node = readBuffer.getAndSet(i, null);
+                if (node != null) {
+                    sketch.increment(node.hash);
+                    if (node.queue != REMOVED) {
+                        onAccess(node);
+                    }
+                }
+            }
+        }
+
+        private void onAccess(final Node node) {
+            switch (node.queue) {
+                case WINDOW -> window.moveToLast(node);
+                case PROBATION -> {
+                    // the second access promotes a node to the protected area
+                    probation.remove(node);
+                    probationWeight -= node.weight;
+                    node.queue = PROTECTED;
+                    protectedQueue.addLast(node);
+                    protectedWeight += node.weight;
+                    demoteProtected();
+                }
+                default -> protectedQueue.moveToLast(node);
+            }
+        }
+
+        /** Moves least recently used protected nodes to probation, while the protected area is too large */
+        private void demoteProtected() {
+            while (protectedWeight > maxProtectedWeight) {
+                final Node node = protectedQueue.first();
+                protectedQueue.remove(node);
+                protectedWeight -= node.weight;
+                node.queue = PROBATION;
+                probation.addLast(node);
+                probationWeight += node.weight;
+            }
+        }
+
+        private void evict() {
+            // Nodes evicted from the window become candidates in the probation area. The oldest
+            // candidate competes with the least recently used probation node (victim), the
+            // loser is evicted
+            Node candidate = null;
+            while (windowWeight > maxWindowWeight) {
+                final Node node = window.first();
+                window.remove(node);
+                windowWeight -= node.weight;
+                node.queue = PROBATION;
+                probation.addLast(node);
+                probationWeight += node.weight;
+                if (candidate == null) {
+                    candidate = node;
+                }
+            }
+            while ((windowWeight + probationWeight + protectedWeight > maxWeight) || (count > maxCount)) {
+                Node victim = probation.first();
+                if (victim == null) {
+                    victim = protectedQueue.first();
+                }
+                if (victim == null) {
+                    victim = window.first();
+                }
+                if ((candidate == null) || (victim == candidate)) {
+                    if (victim == candidate) {
+                        candidate = probation.next(candidate);
+                    }
+                    evictNode(victim);
+                } else if (sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+                    evictNode(victim);
+                } else {
+                    final Node next = probation.next(candidate);
+                    evictNode(candidate);
+                    candidate = next;
+                }
+            }
+        }
+
+        private void evictNode(final Node node) {
+            data.remove(node.key);
+            detach(node);
+            evictions.increment();
+        }
+
+        private void detach(final Node node) {
+            queueOf(node.queue).remove(node);
+            addWeight(node.queue, -node.weight);
+            node.queue = REMOVED;
+            count--;
+        }
+
+        private AccessQueue queueOf(final byte queue) {
+            return switch (queue) {
+                case WINDOW -> window;
+                case PROBATION -> probation;
+                default -> protectedQueue;
+            };
+        }
+
+        private void addWeight(final byte queue, final long delta) {
+            switch (queue) {
+                case WINDOW -> windowWeight += delta;
+                case PROBATION -> probationWeight += delta;
+                default -> protectedWeight += delta;
+            }
+        }
+    }
+}
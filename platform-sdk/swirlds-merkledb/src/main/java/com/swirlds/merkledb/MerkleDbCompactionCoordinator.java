@@ -9,6 +9,7 @@ import static java.util.Objects.requireNonNull;
 
 import com.swirlds.common.threading.framework.config.ThreadConfiguration;
 import com.swirlds.merkledb.config.MerkleDbConfig;
+import com.swirlds.merkledb.files.CompactionIoBudget;
 import com.swirlds.merkledb.files.DataFileCompactor;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -19,11 +20,13 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -34,7 +37,13 @@ import org.apache.logging.log4j.Logger;
  * and keep them disabled until they are explicitly enabled again.
  * The compaction tasks are executed in a background thread pool.
  * The number of threads in the pool is defined by {@link MerkleDbConfig#compactionThreads()} property.
- *
+ * If there are more compaction tasks than threads, pending tasks are prioritized by the estimated
+ * garbage ratio of their stores, see {@link DataFileCompactor#getGarbageRatio()}. Tasks for stores
+ * that can't estimate their garbage ratios are run after all other pending tasks, in the order they
+ * were submitted.
+ * <p>
+ * All compactions share a single {@link CompactionIoBudget}, which limits compaction bandwidth and
+ * puts compactions on hold while data source flushes are in progress.
  */
 @SuppressWarnings("rawtypes")
 class MerkleDbCompactionCoordinator {
@@ -49,6 +58,11 @@ class MerkleDbCompactionCoordinator {
      */
     private static ExecutorService compactionExecutor = null;
 
+    /**
+     * An I/O budget shared by all compactions. Accessed using {@link #getCompactionIoBudget(MerkleDbConfig)}.
+     */
+    private static CompactionIoBudget compactionIoBudget = null;
+
     /**
      * This method is invoked from a non-static method and uses the provided configuration.
      * Consequently, the compaction executor will be initialized using the configuration provided
@@ -65,7 +79,8 @@ class MerkleDbCompactionCoordinator {
                     merkleDbConfig.compactionThreads(),
                     50L,
                     TimeUnit.MILLISECONDS,
-                    new LinkedBlockingQueue<>(),
+                    // All tasks are CompactionFutureTasks, which are ordered by store garbage ratio
+                    new PriorityBlockingQueue<>(),
                     new ThreadConfiguration(getStaticThreadManager())
                             .setThreadGroup(new ThreadGroup("Compaction"))
                             .setComponent(MERKLEDB_COMPONENT)
@@ -77,6 +92,20 @@ class MerkleDbCompactionCoordinator {
         return compactionExecutor;
     }
 
+    /**
+     * Returns the I/O budget shared by all compactions. Similar to {@link #getCompactionExecutor(MerkleDbConfig)},
+     * the budget is initialized using the configuration provided by the first caller.
+     */
+    static synchronized CompactionIoBudget getCompactionIoBudget(final @NonNull MerkleDbConfig merkleDbConfig) {
+        requireNonNull(merkleDbConfig);
+
+        if (compactionIoBudget == null) {
+            compactionIoBudget = new CompactionIoBudget(
+                    merkleDbConfig.compactionMaxBytesPerSecond(), merkleDbConfig.compactionPausedDuringFlushes());
+        }
+        return compactionIoBudget;
+    }
+
     public static final String HASH_STORE_DISK_SUFFIX = "HashStoreDisk";
     public static final String OBJECT_KEY_TO_PATH_SUFFIX = "ObjectKeyToPath";
     public static final String PATH_TO_KEY_VALUE_SUFFIX = "PathToKeyValue";
@@ -201,6 +230,22 @@ class MerkleDbCompactionCoordinator {
         }
     }
 
+    /**
+     * Notifies the coordinator that a data source flush is started. Compactions may be put on hold
+     * until {@link #flushFinished()} is called.
+     */
+    void flushStarted() {
+        getCompactionIoBudget(merkleDbConfig).flushStarted();
+    }
+
+    /**
+     * Notifies the coordinator that a data source flush previously started with {@link #flushStarted()}
+     * is finished.
+     */
+    void flushFinished() {
+        getCompactionIoBudget(merkleDbConfig).flushFinished();
+    }
+
     /**
      * Stops all compactions in progress and disables background compaction.
      * All subsequent calls to compacting methods will be ignored until {@link #enableBackgroundCompaction()} is called.
@@ -249,7 +294,9 @@ class MerkleDbCompactionCoordinator {
                 }
             }
             final ExecutorService executor = getCompactionExecutor(merkleDbConfig);
-            compactionFuturesByName.put(task.id, executor.submit(task));
+            final CompactionFutureTask future = new CompactionFutureTask(task, task.compactor.getGarbageRatio());
+            compactionFuturesByName.put(task.id, future);
+            executor.execute(future);
         }
     }
 
@@ -290,4 +337,33 @@ class MerkleDbCompactionCoordinator {
             return false;
         }
     }
+
+    /**
+     * A future for a compaction task. Futures are ordered by the garbage ratio of the corresponding
+     * stores, the highest first, so the compaction executor picks the stores that benefit from
+     * compaction the most.
+     */
+    private static class CompactionFutureTask extends FutureTask<Boolean>
+            implements Comparable<CompactionFutureTask> {
+
+        // Used to order tasks with equal garbage ratios by submission time
+        private static final AtomicLong SEQUENCE = new AtomicLong();
+
+        // Estimated garbage ratio of the store at the moment the task was submitted, or
+        // DataFileCompactor.UNKNOWN_GARBAGE_RATIO, which is lower than any known ratio
+        private final double garbageRatio;
+
+        private final long sequence = SEQUENCE.getAndIncrement();
+
+        CompactionFutureTask(@NonNull Callable<Boolean> task, double garbageRatio) {
+            super(task);
+            this.garbageRatio = garbageRatio;
+        }
+
+        @Override
+        public int compareTo(@NonNull CompactionFutureTask other) {
+            final int byRatio = Double.compare(other.garbageRatio, garbageRatio);
+            return (byRatio != 0) ? byRatio : Long.compare(sequence, other.sequence);
+        }
+    }
 }
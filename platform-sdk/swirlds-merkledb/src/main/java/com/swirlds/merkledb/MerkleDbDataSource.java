@@ -25,14 +25,22 @@ import com.swirlds.common.threading.framework.config.ThreadConfiguration;
 import com.swirlds.merkledb.collections.HashListByteBuffer;
 import com.swirlds.merkledb.collections.LongList;
 import com.swirlds.merkledb.collections.LongListDisk;
+import com.swirlds.merkledb.collections.LongListNative;
 import com.swirlds.merkledb.collections.LongListOffHeap;
 import com.swirlds.merkledb.collections.OffHeapUser;
 import com.swirlds.merkledb.config.MerkleDbConfig;
+import com.swirlds.merkledb.files.BatchReadExecutor;
+import com.swirlds.merkledb.files.CompactionIoBudget;
+import com.swirlds.merkledb.files.DataFileCollection;
+import com.swirlds.merkledb.files.DataFileCollection.ConcurrentLoadedDataCallback;
 import com.swirlds.merkledb.files.DataFileCollection.LoadedDataCallback;
+import com.swirlds.merkledb.files.DataFileCommon;
 import com.swirlds.merkledb.files.DataFileCompactor;
 import com.swirlds.merkledb.files.DataFileReader;
+import com.swirlds.merkledb.files.HashChunkStore;
 import com.swirlds.merkledb.files.MemoryIndexDiskKeyValueStore;
 import com.swirlds.merkledb.files.hashmap.HalfDiskHashMap;
+import com.swirlds.merkledb.utilities.DirectMemoryAllocator;
 import com.swirlds.metrics.api.Metrics;
 import com.swirlds.virtualmap.datasource.VirtualDataSource;
 import com.swirlds.virtualmap.datasource.VirtualHashRecord;
@@ -44,11 +52,17 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.channels.ClosedChannelException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
@@ -56,6 +70,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
@@ -75,6 +90,16 @@ public final class MerkleDbDataSource implements VirtualDataSource {
     private static final FieldDefinition FIELD_DSMETADATA_MAXVALIDKEY =
             new FieldDefinition("maxValidKey", FieldType.UINT64, false, true, false, 2);
 
+    /**
+     * Max distance, in bytes, between two leaf records in a data file to be read with a single
+     * file read in {@link #loadLeafRecords(long, long)}. Bytes between the records are read, too,
+     * but not used
+     */
+    private static final int MAX_COALESCED_LEAF_READ_GAP = 32 * 1024;
+
+    /** Max number of bytes to read with a single file read in {@link #loadLeafRecords(long, long)} */
+    private static final int MAX_COALESCED_LEAF_READ_BYTES = 1024 * 1024;
+
     /** Virtual database instance that hosts this data source. */
     private final MerkleDb database;
 
@@ -116,6 +141,13 @@ public final class MerkleDbDataSource implements VirtualDataSource {
      */
     private final MemoryIndexDiskKeyValueStore hashStoreDisk;
 
+    /**
+     * On disk store for node hashes, which addresses chunks of hashes directly by path rather than
+     * through {@link #pathToDiskLocationInternalNodes}. Used instead of {@link #hashStoreDisk}, if
+     * the table is configured with a hash store chunk height. Can be null.
+     */
+    private final HashChunkStore hashChunkStore;
+
     /** True when hashesRamToDiskThreshold is less than Long.MAX_VALUE */
     private final boolean hasDiskStoreForHashes;
 
@@ -129,18 +161,13 @@ public final class MerkleDbDataSource implements VirtualDataSource {
     private final MemoryIndexDiskKeyValueStore pathToKeyValue;
 
     /**
-     * Cache size for reading virtual leaf records. Initialized in data source creation time from
-     * MerkleDb settings. If the value is zero, leaf records cache isn't used.
-     */
-    private final int leafRecordCacheSize;
-
-    /**
-     * Virtual leaf records cache. It's a simple array indexed by leaf keys % cache size. Cache
-     * eviction is not needed, as array size is fixed and can be configured in MerkleDb settings.
-     * Index conflicts are resolved in a very straightforward way: whatever entry is read last, it's
-     * put to the cache.
+     * Virtual leaf records cache, limited by size in bytes, with frequency based admission. See
+     * {@link LeafRecordCache} for details. The cache size is initialized in data source creation
+     * time from MerkleDb settings. If the size is zero, or if the table is configured to bypass
+     * the cache, leaf records cache isn't used.
      */
-    private final VirtualLeafBytes[] leafRecordCache;
+    @Nullable
+    private final LeafRecordCache leafRecordCache;
 
     /** Thread pool storing internal records */
     private final ExecutorService storeHashesExecutor;
@@ -231,26 +258,34 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         }
         saveMetadata(dbPaths);
 
+        // off-heap allocation mode is global, the first data source sets it
+        DirectMemoryAllocator.configure(merkleDbConfig);
+
         // create path to disk location index
         final boolean forceIndexRebuilding = merkleDbConfig.indexRebuildingEnforced();
+        final boolean nativeMemoryIndices = tableConfig.isNativeMemoryIndices();
         if (preferDiskBasedIndices) {
             pathToDiskLocationInternalNodes =
                     new LongListDisk(dbPaths.pathToDiskLocationInternalNodesFile, database.getConfiguration());
         } else if (Files.exists(dbPaths.pathToDiskLocationInternalNodesFile) && !forceIndexRebuilding) {
-            pathToDiskLocationInternalNodes =
-                    new LongListOffHeap(dbPaths.pathToDiskLocationInternalNodesFile, database.getConfiguration());
+            pathToDiskLocationInternalNodes = nativeMemoryIndices
+                    ? new LongListNative(dbPaths.pathToDiskLocationInternalNodesFile, database.getConfiguration())
+                    : new LongListOffHeap(dbPaths.pathToDiskLocationInternalNodesFile, database.getConfiguration());
         } else {
-            pathToDiskLocationInternalNodes = new LongListOffHeap();
+            pathToDiskLocationInternalNodes = nativeMemoryIndices ? new LongListNative() : new LongListOffHeap();
         }
         // path to disk location index, leaf nodes
         if (preferDiskBasedIndices) {
             pathToDiskLocationLeafNodes =
                     new LongListDisk(dbPaths.pathToDiskLocationLeafNodesFile, database.getConfiguration());
         } else if (Files.exists(dbPaths.pathToDiskLocationLeafNodesFile) && !forceIndexRebuilding) {
-            pathToDiskLocationLeafNodes =
-                    new LongListOffHeap(dbPaths.pathToDiskLocationLeafNodesFile, database.getConfiguration());
+            pathToDiskLocationLeafNodes = nativeMemoryIndices
+                    ? new LongListNative(dbPaths.pathToDiskLocationLeafNodesFile, database.getConfiguration())
+                    : new LongListOffHeap(dbPaths.pathToDiskLocationLeafNodesFile, database.getConfiguration());
         } else {
-            pathToDiskLocationLeafNodes = new LongListOffHeap(merkleDbConfig.reservedBufferLengthForLeafList());
+            pathToDiskLocationLeafNodes = nativeMemoryIndices
+                    ? new LongListNative(merkleDbConfig.reservedBufferLengthForLeafList())
+                    : new LongListOffHeap(merkleDbConfig.reservedBufferLengthForLeafList());
         }
 
         // internal node hashes store, RAM
@@ -264,26 +299,52 @@ public final class MerkleDbDataSource implements VirtualDataSource {
             hashStoreRam = null;
         }
 
+        // Leaf records cache
+        final int leafRecordCacheSize = merkleDbConfig.leafRecordCacheSize();
+        final long leafRecordCacheMaxBytes = merkleDbConfig.leafRecordCacheMaxBytes();
+        leafRecordCache = ((leafRecordCacheSize > 0)
+                        && (leafRecordCacheMaxBytes > 0)
+                        && !tableConfig.isLeafRecordCacheBypassed())
+                ? new LeafRecordCache(leafRecordCacheMaxBytes, leafRecordCacheSize)
+                : null;
+
         statisticsUpdater = new MerkleDbStatisticsUpdater(merkleDbConfig, tableName);
 
         final Runnable updateTotalStatsFunction = () -> {
             statisticsUpdater.updateStoreFileStats(this);
             statisticsUpdater.updateOffHeapStats(this);
+            statisticsUpdater.updateLeafRecordCacheStats(leafRecordCache);
         };
 
+        // All compactions share the same I/O budget
+        final CompactionIoBudget compactionIoBudget =
+                MerkleDbCompactionCoordinator.getCompactionIoBudget(merkleDbConfig);
+
         // internal node hashes store, on disk
         hasDiskStoreForHashes = tableConfig.getHashesRamToDiskThreshold() < Long.MAX_VALUE;
         final DataFileCompactor hashStoreDiskFileCompactor;
-        if (hasDiskStoreForHashes) {
+        if (hasDiskStoreForHashes && (tableConfig.getHashStoreChunkHeight() > 0)) {
+            // Chunk files are updated in place and never need to be compacted
+            hashChunkStore = new HashChunkStore(
+                    merkleDbConfig,
+                    dbPaths.hashStoreChunksDirectory,
+                    tableName + "_internalhashes",
+                    tableConfig.getHashStoreChunkHeight());
+            hashChunkStore.updateValidKeyRange(validLeafPathRange.getMaxValidKey());
+            hashStoreDisk = null;
+            hashStoreDiskFileCompactor = null;
+        } else if (hasDiskStoreForHashes) {
+            hashChunkStore = null;
             final boolean hashIndexEmpty = pathToDiskLocationInternalNodes.size() == 0;
             final LoadedDataCallback hashRecordLoadedCallback;
             if (hashIndexEmpty) {
                 if (validLeafPathRange.getMaxValidKey() >= 0) {
                     pathToDiskLocationInternalNodes.updateValidRange(0, validLeafPathRange.getMaxValidKey());
                 }
-                hashRecordLoadedCallback = (dataLocation, hashData) -> {
+                // data files may be processed in parallel, the latest data location wins
+                hashRecordLoadedCallback = (ConcurrentLoadedDataCallback) (dataLocation, hashData) -> {
                     final VirtualHashRecord hashRecord = VirtualHashRecord.parseFrom(hashData);
-                    pathToDiskLocationInternalNodes.put(hashRecord.path(), dataLocation);
+                    pathToDiskLocationInternalNodes.putIfGreater(hashRecord.path(), dataLocation);
                 };
             } else {
                 hashRecordLoadedCallback = null;
@@ -304,8 +365,15 @@ public final class MerkleDbDataSource implements VirtualDataSource {
                     statisticsUpdater::setHashesStoreCompactionTimeMs,
                     statisticsUpdater::setHashesStoreCompactionSavedSpaceMb,
                     statisticsUpdater::setHashesStoreFileSizeByLevelMb,
-                    updateTotalStatsFunction);
+                    statisticsUpdater::setHashesStoreWriteAmplification,
+                    updateTotalStatsFunction,
+                    compactionIoBudget,
+                    // hashes for paths below the RAM threshold are never stored on disk
+                    () -> countValidKeys(
+                            hashStoreDisk.getFileCollection().getValidKeyRange(),
+                            tableConfig.getHashesRamToDiskThreshold()));
         } else {
+            hashChunkStore = null;
             hashStoreDisk = null;
             hashStoreDiskFileCompactor = null;
         }
@@ -328,7 +396,10 @@ public final class MerkleDbDataSource implements VirtualDataSource {
                 statisticsUpdater::setLeafKeysStoreCompactionTimeMs,
                 statisticsUpdater::setLeafKeysStoreCompactionSavedSpaceMb,
                 statisticsUpdater::setLeafKeysStoreFileSizeByLevelMb,
-                updateTotalStatsFunction);
+                statisticsUpdater::setLeafKeysStoreWriteAmplification,
+                updateTotalStatsFunction,
+                compactionIoBudget,
+                null);
         keyToPath.printStats();
 
         final LoadedDataCallback leafRecordLoadedCallback;
@@ -338,9 +409,10 @@ public final class MerkleDbDataSource implements VirtualDataSource {
                 pathToDiskLocationLeafNodes.updateValidRange(
                         validLeafPathRange.getMinValidKey(), validLeafPathRange.getMaxValidKey());
             }
-            leafRecordLoadedCallback = (dataLocation, leafData) -> {
+            // data files may be processed in parallel, the latest data location wins
+            leafRecordLoadedCallback = (ConcurrentLoadedDataCallback) (dataLocation, leafData) -> {
                 final VirtualLeafBytes leafBytes = VirtualLeafBytes.parseFrom(leafData);
-                pathToDiskLocationLeafNodes.put(leafBytes.path(), dataLocation);
+                pathToDiskLocationLeafNodes.putIfGreater(leafBytes.path(), dataLocation);
             };
         } else {
             leafRecordLoadedCallback = null;
@@ -362,11 +434,10 @@ public final class MerkleDbDataSource implements VirtualDataSource {
                 statisticsUpdater::setLeavesStoreCompactionTimeMs,
                 statisticsUpdater::setLeavesStoreCompactionSavedSpaceMb,
                 statisticsUpdater::setLeavesStoreFileSizeByLevelMb,
-                updateTotalStatsFunction);
-
-        // Leaf records cache
-        leafRecordCacheSize = merkleDbConfig.leafRecordCacheSize();
-        leafRecordCache = (leafRecordCacheSize > 0) ? new VirtualLeafBytes[leafRecordCacheSize] : null;
+                statisticsUpdater::setLeavesStoreWriteAmplification,
+                updateTotalStatsFunction,
+                compactionIoBudget,
+                () -> countValidKeys(pathToKeyValue.getFileCollection().getValidKeyRange(), 0));
 
         // Update count of open databases
         COUNT_OF_OPEN_DATABASES.increment();
@@ -490,6 +561,8 @@ public final class MerkleDbDataSource implements VirtualDataSource {
             @NonNull final Stream<VirtualLeafBytes> leafRecordsToDelete,
             final boolean isReconnectContext)
             throws IOException {
+        // Compactions compete with flushes for disk I/O. Put them on hold till the flush is complete
+        compactionCoordinator.flushStarted();
         try {
             validLeafPathRange = new KeyRange(firstLeafPath, lastLeafPath);
             final CountDownLatch countDownLatch = new CountDownLatch(lastLeafPath > 0 ? 2 : 1);
@@ -544,12 +617,14 @@ public final class MerkleDbDataSource implements VirtualDataSource {
                 Thread.currentThread().interrupt();
             }
         } finally {
+            compactionCoordinator.flushFinished();
             // Report total size on disk as sum of all store files. All metadata and other helper files
             // are considered small enough to be ignored. If/when we decide to use on-disk long lists
             // for indices, they should be added here
             statisticsUpdater.updateStoreFileStats(this);
             // update off-heap stats
             statisticsUpdater.updateOffHeapStats(this);
+            statisticsUpdater.updateLeafRecordCacheStats(leafRecordCache);
         }
     }
 
@@ -566,18 +641,9 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         requireNonNull(keyBytes);
 
         final long path;
-        VirtualLeafBytes cached = null;
-        int cacheIndex = -1;
-        if (leafRecordCache != null) {
-            cacheIndex = Math.abs(keyHashCode % leafRecordCacheSize);
-            // No synchronization is needed here. Java guarantees (JLS 17.7) that reference writes
-            // are atomic, so we will never get corrupted objects from the array. The object may
-            // be overwritten in the cache in a different thread in parallel, but it isn't a
-            // problem as cached entry key is checked below anyway
-            cached = leafRecordCache[cacheIndex];
-        }
-        // If an entry is found in the cache, and entry key is the one requested
-        if ((cached != null) && keyBytes.equals(cached.keyBytes())) {
+        final VirtualLeafBytes cached = (leafRecordCache != null) ? leafRecordCache.get(keyBytes, keyHashCode) : null;
+        // If an entry is found in the cache
+        if (cached != null) {
             // Some cache entries contain just key and path, but no value. If the value is there,
             // just return the cached entry. If not, at least make use of the path
             if (cached.valueBytes() != null) {
@@ -587,7 +653,6 @@ public final class MerkleDbDataSource implements VirtualDataSource {
             path = cached.path();
         } else {
             // Cache miss
-            cached = null;
             statisticsUpdater.countLeafKeyReads();
             path = keyToPath.get(keyBytes, keyHashCode, INVALID_PATH);
         }
@@ -596,7 +661,7 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         if (path == INVALID_PATH) {
             // Cache the result if not already cached
             if (leafRecordCache != null && cached == null) {
-                leafRecordCache[cacheIndex] = new VirtualLeafBytes(path, keyBytes, 0, null);
+                leafRecordCache.put(keyHashCode, new VirtualLeafBytes(path, keyBytes, keyHashCode, null));
             }
             return null;
         }
@@ -614,13 +679,117 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         assert leafBytes != null && leafBytes.keyBytes().equals(keyBytes);
 
         if (leafRecordCache != null) {
-            // No synchronization is needed here, see the comment above
-            leafRecordCache[cacheIndex] = leafBytes;
+            leafRecordCache.put(keyHashCode, leafBytes);
         }
 
         return leafBytes;
     }
 
+    /**
+     * Load leaf records for multiple keys. Duplicate keys are resolved once. Keys found in the
+     * leaf record cache are resolved first. Paths for all other keys are looked up in the
+     * key to path map as a single batch, see {@link HalfDiskHashMap#getAll(Bytes[], int[], long)}.
+     * Then leaf records are read from the path to key/value store in parallel, in the order of
+     * paths.
+     *
+     * @param keyBytes the keys of the leaves to load records for
+     * @param keyHashCodes the key hash codes
+     * @return loaded records, null elements for keys that are not found
+     * @throws IOException If there was a problem reading records from db
+     */
+    @NonNull
+    @Override
+    public VirtualLeafBytes[] loadLeafRecords(@NonNull final Bytes[] keyBytes, @NonNull final int[] keyHashCodes)
+            throws IOException {
+        requireNonNull(keyBytes);
+        requireNonNull(keyHashCodes);
+        if (keyBytes.length != keyHashCodes.length) {
+            throw new IllegalArgumentException("Keys and key hash codes must be of the same length");
+        }
+        final int count = keyBytes.length;
+        final VirtualLeafBytes[] result = new VirtualLeafBytes[count];
+        // For every key, the index of its first occurrence in the batch
+        final int[] firstIndices = new int[count];
+        final Map<Bytes, Integer> uniqueKeys = new HashMap<>();
+        final long[] paths = new long[count];
+        final boolean[] cachedKeys = new boolean[count];
+        final List<Integer> keysToLookUp = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requireNonNull(keyBytes[i]);
+            final Integer firstIndex = uniqueKeys.putIfAbsent(keyBytes[i], i);
+            firstIndices[i] = (firstIndex != null) ? firstIndex : i;
+            if (firstIndex != null) {
+                continue;
+            }
+            final VirtualLeafBytes cached =
+                    (leafRecordCache != null) ? leafRecordCache.get(keyBytes[i], keyHashCodes[i]) : null;
+            if (cached != null) {
+                cachedKeys[i] = true;
+                if (cached.valueBytes() != null) {
+                    result[i] = cached;
+                    paths[i] = INVALID_PATH;
+                } else {
+                    // Note that the path may be INVALID_PATH here, this is perfectly legal
+                    paths[i] = cached.path();
+                }
+            } else {
+                statisticsUpdater.countLeafKeyReads();
+                keysToLookUp.add(i);
+            }
+        }
+
+        // Look up paths for all keys not found in the cache as a single batch
+        if (!keysToLookUp.isEmpty()) {
+            final Bytes[] lookupKeys = new Bytes[keysToLookUp.size()];
+            final int[] lookupHashCodes = new int[keysToLookUp.size()];
+            for (int j = 0; j < lookupKeys.length; j++) {
+                lookupKeys[j] = keyBytes[keysToLookUp.get(j)];
+                lookupHashCodes[j] = keyHashCodes[keysToLookUp.get(j)];
+            }
+            final long[] lookupPaths = keyToPath.getAll(lookupKeys, lookupHashCodes, INVALID_PATH);
+            for (int j = 0; j < lookupKeys.length; j++) {
+                paths[keysToLookUp.get(j)] = lookupPaths[j];
+            }
+        }
+
+        // Load leaf records for all found paths in parallel, in the order of paths
+        final List<Integer> recordsToLoad = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if ((firstIndices[i] != i) || (result[i] != null)) {
+                continue;
+            }
+            if (paths[i] == INVALID_PATH) {
+                // Cache the result if not already cached
+                if ((leafRecordCache != null) && !cachedKeys[i]) {
+                    leafRecordCache.put(
+                            keyHashCodes[i], new VirtualLeafBytes(INVALID_PATH, keyBytes[i], keyHashCodes[i], null));
+                }
+            } else if (validLeafPathRange.withinRange(paths[i])) {
+                recordsToLoad.add(i);
+            }
+        }
+        recordsToLoad.sort(Comparator.comparingLong(i -> paths[i]));
+        final MerkleDbConfig merkleDbConfig = database.getConfiguration().getConfigData(MerkleDbConfig.class);
+        BatchReadExecutor.readAll(merkleDbConfig, recordsToLoad.size(), r -> {
+            final int i = recordsToLoad.get(r);
+            statisticsUpdater.countLeafReads();
+            final VirtualLeafBytes leafBytes = VirtualLeafBytes.parseFrom(pathToKeyValue.get(paths[i]));
+            assert leafBytes != null && leafBytes.keyBytes().equals(keyBytes[i]);
+            if (leafRecordCache != null) {
+                leafRecordCache.put(keyHashCodes[i], leafBytes);
+            }
+            result[i] = leafBytes;
+        });
+
+        // Duplicate keys get the same records as their first occurrences
+        for (int i = 0; i < count; i++) {
+            if (firstIndices[i] != i) {
+                result[i] = result[firstIndices[i]];
+            }
+        }
+        return result;
+    }
+
     /**
      * Load a leaf record by path. This method returns {@code null}, if the path is outside the
      * valid path range.
@@ -643,6 +812,97 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         return VirtualLeafBytes.parseFrom(pathToKeyValue.get(path));
     }
 
+    /**
+     * Load leaf records for all paths in a range. Leaf data locations are looked up in the path
+     * to disk location index first. Then records are read in the order of their locations, i.e.
+     * data file by data file, and by offsets within every file. Records stored close to each
+     * other in a data file are read with a single file read, see {@link
+     * DataFileCollection#readDataItems(long[], int, int)}. Records that are not covered by such
+     * reads, for example, if their data file has just been compacted, are read one by one.
+     *
+     * <p>Paths outside the valid leaf path range are returned as nulls.
+     *
+     * @param firstPath the first path in the range, inclusive
+     * @param lastPath the last path in the range, inclusive
+     * @return loaded records, null elements for paths that are not stored
+     * @throws IOException If there was a problem reading records from db
+     */
+    @NonNull
+    @Override
+    public VirtualLeafBytes[] loadLeafRecords(final long firstPath, final long lastPath) throws IOException {
+        if ((firstPath < 0) || (lastPath < firstPath) || (lastPath - firstPath >= Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("Invalid path range: " + firstPath + " - " + lastPath);
+        }
+        final VirtualLeafBytes[] result = new VirtualLeafBytes[Math.toIntExact(lastPath - firstPath + 1)];
+        final KeyRange leafPathRange = validLeafPathRange;
+        final long from = Math.max(firstPath, leafPathRange.getMinValidKey());
+        final long to = Math.min(lastPath, leafPathRange.getMaxValidKey());
+        if (from > to) {
+            return result;
+        }
+
+        // Look up data locations, then sort path indices by their locations, i.e. by data file
+        // and offset within the file
+        final int count = Math.toIntExact(to - from + 1);
+        final long[] locations = new long[count];
+        final Integer[] order = new Integer[count];
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            final long location = pathToDiskLocationLeafNodes.get(from + i, LongList.IMPERMISSIBLE_VALUE);
+            if (location != LongList.IMPERMISSIBLE_VALUE) {
+                locations[i] = location;
+                order[found++] = i;
+            }
+        }
+        Arrays.sort(order, 0, found, Comparator.comparingLong(i -> locations[i]));
+        final long[] sortedLocations = new long[found];
+        for (int j = 0; j < found; j++) {
+            sortedLocations[j] = locations[order[j]];
+        }
+
+        final DataFileCollection fileCollection = pathToKeyValue.getFileCollection();
+        final int resultOffset = Math.toIntExact(from - firstPath);
+        int start = 0;
+        while (start < found) {
+            // Find the longest run of records close to each other in the same file
+            final int fileIndex = DataFileCommon.fileIndexFromDataLocation(sortedLocations[start]);
+            final long startOffset = DataFileCommon.byteOffsetFromDataLocation(sortedLocations[start]);
+            long prevOffset = startOffset;
+            int end = start + 1;
+            while (end < found) {
+                final long location = sortedLocations[end];
+                if (DataFileCommon.fileIndexFromDataLocation(location) != fileIndex) {
+                    break;
+                }
+                final long offset = DataFileCommon.byteOffsetFromDataLocation(location);
+                if ((offset - prevOffset > MAX_COALESCED_LEAF_READ_GAP)
+                        || (offset - startOffset >= MAX_COALESCED_LEAF_READ_BYTES)) {
+                    break;
+                }
+                prevOffset = offset;
+                end++;
+            }
+            BufferedData[] items = null;
+            if (end - start > 1) {
+                try {
+                    items = fileCollection.readDataItems(sortedLocations, start, end);
+                } catch (final ClosedChannelException e) {
+                    // The data file may be already deleted by compaction. Records will be read
+                    // one by one from their new locations
+                }
+            }
+            for (int j = start; j < end; j++) {
+                final int i = order[j];
+                final BufferedData item = (items != null) ? items[j - start] : null;
+                statisticsUpdater.countLeafReads();
+                result[resultOffset + i] =
+                        VirtualLeafBytes.parseFrom((item != null) ? item : pathToKeyValue.get(from + i));
+            }
+            start = end;
+        }
+        return result;
+    }
+
     /**
      * Find the path of the given key.
      *
@@ -655,12 +915,9 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         requireNonNull(keyBytes);
 
         // Check the cache first
-        int cacheIndex = -1;
         if (leafRecordCache != null) {
-            cacheIndex = Math.abs(keyHashCode % leafRecordCacheSize);
-            // No synchronization is needed here. See the comment in loadLeafRecord(key) above
-            final VirtualLeafBytes cached = leafRecordCache[cacheIndex];
-            if (cached != null && keyBytes.equals(cached.keyBytes())) {
+            final VirtualLeafBytes cached = leafRecordCache.get(keyBytes, keyHashCode);
+            if (cached != null) {
                 // Cached path may be a valid path or INVALID_PATH, both are legal here
                 return cached.path();
             }
@@ -671,7 +928,7 @@ public final class MerkleDbDataSource implements VirtualDataSource {
 
         if (leafRecordCache != null) {
             // Path may be INVALID_PATH here. Still needs to be cached (negative result)
-            leafRecordCache[cacheIndex] = new VirtualLeafBytes(path, keyBytes, keyHashCode, null);
+            leafRecordCache.put(keyHashCode, new VirtualLeafBytes(path, keyBytes, keyHashCode, null));
         }
 
         return path;
@@ -700,6 +957,9 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         if (path < tableConfig.getHashesRamToDiskThreshold()) {
             hash = hashStoreRam.get(path);
             // Should count hash reads here, too?
+        } else if (hashChunkStore != null) {
+            hash = hashChunkStore.get(path);
+            statisticsUpdater.countHashReads();
         } else {
             final VirtualHashRecord rec = VirtualHashRecord.parseFrom(hashStoreDisk.get(path));
             hash = (rec != null) ? rec.hash() : null;
@@ -731,6 +991,12 @@ public final class MerkleDbDataSource implements VirtualDataSource {
                 return false;
             }
             hash.serialize(out);
+        } else if (hashChunkStore != null) {
+            final Hash hash = hashChunkStore.get(path);
+            if (hash == null) {
+                return false;
+            }
+            hash.serialize(out);
         } else {
             final BufferedData hashBytes = hashStoreDisk.get(path);
             if (hashBytes == null) {
@@ -766,6 +1032,9 @@ public final class MerkleDbDataSource implements VirtualDataSource {
                     if (hashStoreDisk != null) {
                         hashStoreDisk.close();
                     }
+                    if (hashChunkStore != null) {
+                        hashChunkStore.close();
+                    }
                     // Then hashes index
                     pathToDiskLocationInternalNodes.close();
                     // Key to paths, both store and index
@@ -820,40 +1089,59 @@ public final class MerkleDbDataSource implements VirtualDataSource {
             // create snapshot dir if it doesn't exist
             Files.createDirectories(snapshotDirectory);
             final MerkleDbPaths snapshotDbPaths = new MerkleDbPaths(snapshotDirectory);
+            final boolean incremental =
+                    database.getConfiguration().getConfigData(MerkleDbConfig.class).incrementalSnapshots();
+            // bytes written to disk, hard linked files are not counted
+            final AtomicLong bytesWritten = new AtomicLong();
             // main snapshotting process in multiple-threads
             try {
-                final CountDownLatch countDownLatch = new CountDownLatch(7);
+                final CountDownLatch countDownLatch = new CountDownLatch(8);
                 // write all data stores
                 runWithSnapshotExecutor(true, countDownLatch, "pathToDiskLocationInternalNodes", () -> {
-                    pathToDiskLocationInternalNodes.writeToFile(snapshotDbPaths.pathToDiskLocationInternalNodesFile);
+                    bytesWritten.addAndGet(pathToDiskLocationInternalNodes.writeToFile(
+                            snapshotDbPaths.pathToDiskLocationInternalNodesFile,
+                            incremental ? dbPaths.pathToDiskLocationInternalNodesFile : null));
                     return true;
                 });
                 runWithSnapshotExecutor(true, countDownLatch, "pathToDiskLocationLeafNodes", () -> {
-                    pathToDiskLocationLeafNodes.writeToFile(snapshotDbPaths.pathToDiskLocationLeafNodesFile);
+                    bytesWritten.addAndGet(pathToDiskLocationLeafNodes.writeToFile(
+                            snapshotDbPaths.pathToDiskLocationLeafNodesFile,
+                            incremental ? dbPaths.pathToDiskLocationLeafNodesFile : null));
                     return true;
                 });
                 runWithSnapshotExecutor(hashStoreRam != null, countDownLatch, "internalHashStoreRam", () -> {
                     hashStoreRam.writeToFile(snapshotDbPaths.hashStoreRamFile);
+                    bytesWritten.addAndGet(Files.size(snapshotDbPaths.hashStoreRamFile));
                     return true;
                 });
                 runWithSnapshotExecutor(hashStoreDisk != null, countDownLatch, "internalHashStoreDisk", () -> {
                     hashStoreDisk.snapshot(snapshotDbPaths.hashStoreDiskDirectory);
+                    bytesWritten.addAndGet(hashStoreDisk.getLastSnapshotBytesWritten());
+                    return true;
+                });
+                runWithSnapshotExecutor(hashChunkStore != null, countDownLatch, "internalHashStoreChunks", () -> {
+                    // chunk files are hard linked, nothing is written
+                    hashChunkStore.snapshot(snapshotDbPaths.hashStoreChunksDirectory);
                     return true;
                 });
                 runWithSnapshotExecutor(keyToPath != null, countDownLatch, "keyToPath", () -> {
                     keyToPath.snapshot(snapshotDbPaths.keyToPathDirectory);
+                    bytesWritten.addAndGet(keyToPath.getLastSnapshotBytesWritten());
                     return true;
                 });
                 runWithSnapshotExecutor(true, countDownLatch, "pathToKeyValue", () -> {
                     pathToKeyValue.snapshot(snapshotDbPaths.pathToKeyValueDirectory);
+                    bytesWritten.addAndGet(pathToKeyValue.getLastSnapshotBytesWritten());
                     return true;
                 });
                 runWithSnapshotExecutor(true, countDownLatch, "metadata", () -> {
                     saveMetadata(snapshotDbPaths);
+                    bytesWritten.addAndGet(Files.size(snapshotDbPaths.metadataFile));
                     return true;
                 });
                 // wait for the others to finish
                 countDownLatch.await();
+                statisticsUpdater.setSnapshotBytesWritten(bytesWritten.get());
             } catch (final InterruptedException e) {
                 logger.error(
                         EXCEPTION.getMarker(),
@@ -878,11 +1166,13 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         return new ToStringBuilder(this)
                 .append("maxNumberOfKeys", tableConfig.getMaxNumberOfKeys())
                 .append("preferDiskBasedIndexes", preferDiskBasedIndices)
+                .append("nativeMemoryIndices", tableConfig.isNativeMemoryIndices())
                 .append("pathToDiskLocationInternalNodes.size", pathToDiskLocationInternalNodes.size())
                 .append("pathToDiskLocationLeafNodes.size", pathToDiskLocationLeafNodes.size())
                 .append("hashesRamToDiskThreshold", tableConfig.getHashesRamToDiskThreshold())
                 .append("hashStoreRam.size", hashStoreRam == null ? null : hashStoreRam.size())
                 .append("hashStoreDisk", hashStoreDisk)
+                .append("hashChunkStore", hashChunkStore)
                 .append("hasDiskStoreForHashes", hasDiskStoreForHashes)
                 .append("keyToPath", keyToPath)
                 .append("pathToKeyValue", pathToKeyValue)
@@ -1079,11 +1369,29 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         }
     }
 
+    /**
+     * Counts keys in a valid key range that are not less than the given key. In path-keyed stores every
+     * valid path has exactly one live data item, so this is the number of live items in such stores.
+     *
+     * @param keyRange the valid key range
+     * @param minKey the min key to count
+     * @return the number of keys
+     */
+    private static long countValidKeys(final KeyRange keyRange, final long minKey) {
+        if (keyRange.getMaxValidKey() < 0) {
+            return 0;
+        }
+        final long fromKey = Math.max(keyRange.getMinValidKey(), minKey);
+        return Math.max(0, keyRange.getMaxValidKey() - fromKey + 1);
+    }
+
     /**
      * Write all hashes to hashStore
      */
     private void writeHashes(final long maxValidPath, final Stream<VirtualHashRecord> dirtyHashes) throws IOException {
-        if (hasDiskStoreForHashes) {
+        if (hashChunkStore != null) {
+            hashChunkStore.updateValidKeyRange(maxValidPath);
+        } else if (hasDiskStoreForHashes) {
             if (maxValidPath < 0) {
                 // Empty store
                 hashStoreDisk.updateValidKeyRange(-1, -1);
@@ -1097,7 +1405,9 @@ public final class MerkleDbDataSource implements VirtualDataSource {
             return;
         }
 
-        if (hasDiskStoreForHashes) {
+        if (hashChunkStore != null) {
+            hashChunkStore.startWriting();
+        } else if (hasDiskStoreForHashes) {
             hashStoreDisk.startWriting();
         }
 
@@ -1105,6 +1415,8 @@ public final class MerkleDbDataSource implements VirtualDataSource {
             statisticsUpdater.countFlushHashesWritten();
             if (rec.path() < tableConfig.getHashesRamToDiskThreshold()) {
                 hashStoreRam.put(rec.path(), rec.hash());
+            } else if (hashChunkStore != null) {
+                hashChunkStore.put(rec.path(), rec.hash());
             } else {
                 try {
                     hashStoreDisk.put(rec.path(), rec::writeTo, rec.getSizeInBytes());
@@ -1115,7 +1427,9 @@ public final class MerkleDbDataSource implements VirtualDataSource {
             }
         });
 
-        if (hasDiskStoreForHashes) {
+        if (hashChunkStore != null) {
+            hashChunkStore.endWriting();
+        } else if (hasDiskStoreForHashes) {
             final DataFileReader newHashesFile = hashStoreDisk.endWriting();
             statisticsUpdater.setFlushHashesStoreFileSize(newHashesFile);
             compactionCoordinator.compactDiskStoreForHashesAsync();
@@ -1208,18 +1522,14 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         compactionCoordinator.compactPathToKeyValueAsync();
         final DataFileReader keyToPathReader = keyToPath.endWriting();
         statisticsUpdater.setFlushLeafKeysStoreFileSize(keyToPathReader);
+        if (keyToPathReader != null) {
+            statisticsUpdater.setFlushLeafKeysPhaseTimes(keyToPath.getLastFlushStats());
+        }
         compactionCoordinator.compactDiskStoreForKeyToPathAsync();
     }
 
     /**
      * Invalidates the given key in virtual leaf record cache, if the cache is enabled.
-     * <p>
-     * If the key is deleted, it's still updated in the cache. It means no record with the given
-     * key exists in the data source, so further lookups for the key are skipped.
-     * <p>
-     * Cache index is calculated as the key's hash code % cache size. The cache is only updated,
-     * if the current record at this index has the given key. If the key is different, no update is
-     * performed.
      *
      * @param keyBytes virtual key
      * @param keyHashCode virtual key hash code
@@ -1228,15 +1538,11 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         if (leafRecordCache == null) {
             return;
         }
-        final int cacheIndex = Math.abs(keyHashCode % leafRecordCacheSize);
-        final VirtualLeafBytes cached = leafRecordCache[cacheIndex];
-        if ((cached != null) && keyBytes.equals(cached.keyBytes())) {
-            leafRecordCache[cacheIndex] = null;
-        }
+        leafRecordCache.invalidate(keyBytes, keyHashCode);
     }
 
     FileStatisticAware getHashStoreDisk() {
-        return hashStoreDisk;
+        return (hashChunkStore != null) ? hashChunkStore : hashStoreDisk;
     }
 
     FileStatisticAware getKeyToPath() {
@@ -14,6 +14,7 @@ public class MerkleDbPaths {
     public final Path pathToDiskLocationLeafNodesFile;
     public final Path hashStoreRamFile;
     public final Path hashStoreDiskDirectory;
+    public final Path hashStoreChunksDirectory;
     public final Path keyToPathDirectory;
     public final Path pathToKeyValueDirectory;
 
@@ -30,6 +31,7 @@ public class MerkleDbPaths {
         pathToDiskLocationLeafNodesFile = storageDir.resolve("pathToDiskLocationLeafNodes.ll");
         hashStoreRamFile = storageDir.resolve("internalHashStoreRam.hl");
         hashStoreDiskDirectory = storageDir.resolve("internalHashStoreDisk");
+        hashStoreChunksDirectory = storageDir.resolve("internalHashStoreChunks");
         keyToPathDirectory = storageDir.resolve("objectKeyToPath");
         pathToKeyValueDirectory = storageDir.resolve("pathToHashKeyValue");
     }
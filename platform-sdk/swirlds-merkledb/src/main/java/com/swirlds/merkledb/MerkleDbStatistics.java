@@ -3,9 +3,11 @@ package com.swirlds.merkledb;
 
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.metrics.api.DoubleAccumulator;
+import com.swirlds.metrics.api.DoubleGauge;
 import com.swirlds.metrics.api.FloatFormats;
 import com.swirlds.metrics.api.IntegerGauge;
 import com.swirlds.metrics.api.LongAccumulator;
+import com.swirlds.metrics.api.LongGauge;
 import com.swirlds.metrics.api.Metrics;
 import java.util.ArrayList;
 import java.util.List;
@@ -33,6 +35,11 @@ public class MerkleDbStatistics {
     /** Prefix for all off-heap related metrics */
     private static final String OFFHEAP_PREFIX = "offheap_";
 
+    /** Prefix for leaf record cache related metrics */
+    private static final String CACHE_PREFIX = "cache_";
+    /** Prefix for all snapshot related metrics */
+    private static final String SNAPSHOTS_PREFIX = "snapshots_";
+
     private final MerkleDbConfig dbConfig;
 
     private final String label;
@@ -59,6 +66,22 @@ public class MerkleDbStatistics {
     /** Total file size in Mb */
     // Should all file sizes be doubles?
     private IntegerGauge totalFileSizeMb;
+    /** Total size of memory mapped files in Mb */
+    private IntegerGauge mappedFilesSizeMb;
+
+    /** Leaf key reads of missing keys answered by the bucket bloom filter, as a fraction of all such reads */
+    private DoubleGauge leafKeysBloomFilterHitRatio;
+
+    /** Leaf record cache - total number of lookups, which found a record in the cache */
+    private LongGauge leafRecordCacheHits;
+    /** Leaf record cache - total number of lookups, which didn't find a record in the cache */
+    private LongGauge leafRecordCacheMisses;
+    /** Leaf record cache - total number of evicted or not admitted records */
+    private LongGauge leafRecordCacheEvictions;
+    /** Leaf record cache - hits as a fraction of all lookups */
+    private DoubleGauge leafRecordCacheHitRatio;
+    /** Leaf record cache - estimated size in Mb */
+    private IntegerGauge leafRecordCacheSizeMb;
 
     private LongAccumulator flushHashesWritten;
     private DoubleAccumulator flushHashesStoreFileSizeMb;
@@ -67,6 +90,15 @@ public class MerkleDbStatistics {
     private DoubleAccumulator flushLeavesStoreFileSizeMb;
     private LongAccumulator flushLeafKeysWritten;
     private DoubleAccumulator flushLeafKeysStoreFileSizeMb;
+    /** Leaf keys flushes - total time spent in all threads to read buckets, ms */
+    private LongAccumulator flushLeafKeysReadTimeMs;
+    /** Leaf keys flushes - total time spent in all threads to apply updates to buckets, ms */
+    private LongAccumulator flushLeafKeysMergeTimeMs;
+    /** Leaf keys flushes - time spent to write updated buckets, ms */
+    private LongAccumulator flushLeafKeysWriteTimeMs;
+
+    /** Snapshots - bytes written to disk by the last snapshot, excluding hard linked files */
+    private LongGauge snapshotBytesWritten;
 
     /** Hashes store compactions - time in ms */
     private final List<LongAccumulator> hashesStoreCompactionTimeMsList;
@@ -88,12 +120,20 @@ public class MerkleDbStatistics {
 
     /** Leaf keys store - cumulative file size by compaction level in Mb */
     private final List<DoubleAccumulator> leafKeysStoreFileSizeByLevelMbList;
+    /** Hashes store - bytes written by compactions to a level divided by bytes written by flushes */
+    private final List<DoubleGauge> hashesStoreWriteAmplificationList;
+    /** Leaves store - bytes written by compactions to a level divided by bytes written by flushes */
+    private final List<DoubleGauge> leavesStoreWriteAmplificationList;
+    /** Leaf keys store - bytes written by compactions to a level divided by bytes written by flushes */
+    private final List<DoubleGauge> leafKeysStoreWriteAmplificationList;
     /** Off-heap usage in MB of hashes store index */
     private IntegerGauge offHeapHashesIndexMb;
     /** Off-heap usage in MB of leaves store index */
     private IntegerGauge offHeapLeavesIndexMb;
     /** Off-heap usage in MB of object keys store bucket index */
     private IntegerGauge offHeapObjectKeyBucketsIndexMb;
+    /** Off-heap usage in MB of object keys store bucket bloom filter */
+    private IntegerGauge offHeapObjectKeyBloomFilterMb;
     /** Off-heap usage in MB of hashes list in RAM */
     private IntegerGauge offHeapHashesListMb;
     /** Total data source off-heap usage in MB */
@@ -120,12 +160,19 @@ public class MerkleDbStatistics {
         leafKeysStoreCompactionTimeMsList = new ArrayList<>();
         leafKeysStoreCompactionSavedSpaceMbList = new ArrayList<>();
         leafKeysStoreFileSizeByLevelMbList = new ArrayList<>();
+        hashesStoreWriteAmplificationList = new ArrayList<>();
+        leavesStoreWriteAmplificationList = new ArrayList<>();
+        leafKeysStoreWriteAmplificationList = new ArrayList<>();
     }
 
     private static IntegerGauge buildIntegerGauge(final Metrics metrics, final String name, final String description) {
         return metrics.getOrCreate(new IntegerGauge.Config(STAT_CATEGORY, name).withDescription(description));
     }
 
+    private static LongGauge buildLongGauge(final Metrics metrics, final String name, final String description) {
+        return metrics.getOrCreate(new LongGauge.Config(STAT_CATEGORY, name).withDescription(description));
+    }
+
     private static LongAccumulator buildLongAccumulator(
             final Metrics metrics, final String name, final String description) {
         return metrics.getOrCreate(new LongAccumulator.Config(STAT_CATEGORY, name)
@@ -134,6 +181,12 @@ public class MerkleDbStatistics {
                 .withDescription(description));
     }
 
+    private static DoubleGauge buildDoubleGauge(final Metrics metrics, final String name, final String description) {
+        return metrics.getOrCreate(new DoubleGauge.Config(STAT_CATEGORY, name)
+                .withDescription(description)
+                .withFormat(FloatFormats.FORMAT_9_6));
+    }
+
     private static DoubleAccumulator buildDoubleAccumulator(
             final Metrics metrics, final String name, final String description) {
         return metrics.getOrCreate(new DoubleAccumulator.Config(STAT_CATEGORY, name)
@@ -160,6 +213,32 @@ public class MerkleDbStatistics {
                 metrics, DS_PREFIX + READS_PREFIX + "leaves_" + label, "Number of leaf reads, " + label);
         leafKeyReads = buildLongAccumulator(
                 metrics, DS_PREFIX + READS_PREFIX + "leafKeys_" + label, "Number of leaf key reads, " + label);
+        leafKeysBloomFilterHitRatio = buildDoubleGauge(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "leafKeysBloomFilterHitRatio_" + label,
+                "Fraction of leaf key reads of missing keys answered by the bucket bloom filter, " + label);
+
+        // Leaf record cache
+        leafRecordCacheHits = buildLongGauge(
+                metrics,
+                DS_PREFIX + CACHE_PREFIX + "leafRecordHits_" + label,
+                "Total number of leaf record cache hits, " + label);
+        leafRecordCacheMisses = buildLongGauge(
+                metrics,
+                DS_PREFIX + CACHE_PREFIX + "leafRecordMisses_" + label,
+                "Total number of leaf record cache misses, " + label);
+        leafRecordCacheEvictions = buildLongGauge(
+                metrics,
+                DS_PREFIX + CACHE_PREFIX + "leafRecordEvictions_" + label,
+                "Total number of leaf records evicted from or not admitted to the cache, " + label);
+        leafRecordCacheHitRatio = buildDoubleGauge(
+                metrics,
+                DS_PREFIX + CACHE_PREFIX + "leafRecordHitRatio_" + label,
+                "Leaf record cache hits as a fraction of all lookups, " + label);
+        leafRecordCacheSizeMb = buildIntegerGauge(
+                metrics,
+                DS_PREFIX + CACHE_PREFIX + "leafRecordSizeMb_" + label,
+                "Estimated leaf record cache size, " + label + ", Mb");
 
         // File counts and sizes
         hashesStoreFileCount = metrics.getOrCreate(
@@ -187,6 +266,10 @@ public class MerkleDbStatistics {
                 metrics,
                 DS_PREFIX + FILES_PREFIX + "totalSizeMb_" + label,
                 "Total file size, data source, " + label + ", Mb");
+        mappedFilesSizeMb = buildIntegerGauge(
+                metrics,
+                DS_PREFIX + FILES_PREFIX + "mappedSizeMb_" + label,
+                "Total size of memory mapped files, data source, " + label + ", Mb");
 
         // Flushes
         flushHashesWritten = buildLongAccumulator(
@@ -217,6 +300,24 @@ public class MerkleDbStatistics {
                 metrics,
                 DS_PREFIX + FLUSHES_PREFIX + "leafKeysStoreFileSizeMb_" + label,
                 "Size of the new leaf keys store file created during flush, " + label + ", Mb");
+        flushLeafKeysReadTimeMs = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + FLUSHES_PREFIX + "leafKeysReadTimeMs_" + label,
+                "Total time spent in all threads to read buckets during flush, " + label + ", ms");
+        flushLeafKeysMergeTimeMs = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + FLUSHES_PREFIX + "leafKeysMergeTimeMs_" + label,
+                "Total time spent in all threads to update buckets during flush, " + label + ", ms");
+        flushLeafKeysWriteTimeMs = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + FLUSHES_PREFIX + "leafKeysWriteTimeMs_" + label,
+                "Time spent to write updated buckets during flush, " + label + ", ms");
+
+        // Snapshots
+        snapshotBytesWritten = buildLongGauge(
+                metrics,
+                DS_PREFIX + SNAPSHOTS_PREFIX + "bytesWritten_" + label,
+                "Bytes written to disk by the last snapshot, excluding hard linked files, " + label);
 
         // Compaction
 
@@ -234,6 +335,10 @@ public class MerkleDbStatistics {
                     metrics,
                     DS_PREFIX + FILES_PREFIX + LEVEL_PREFIX + level + "_hashesFileSizeByLevelMb_" + label,
                     "Total space taken by files of level %s, hashes store, %s, Mb".formatted(level, label)));
+            hashesStoreWriteAmplificationList.add(buildDoubleGauge(
+                    metrics,
+                    DS_PREFIX + COMPACTIONS_PREFIX + LEVEL_PREFIX + level + "_hashesWriteAmplification_" + label,
+                    "Write amplification of level %s, hashes store, %s".formatted(level, label)));
 
             // Leaves store
             leavesStoreCompactionTimeMsList.add(buildLongAccumulator(
@@ -248,6 +353,10 @@ public class MerkleDbStatistics {
                     metrics,
                     DS_PREFIX + FILES_PREFIX + LEVEL_PREFIX + level + "_leavesFileSizeByLevelMb_" + label,
                     "Total space taken by files of level %s, leaves store, %s, Mb".formatted(level, label)));
+            leavesStoreWriteAmplificationList.add(buildDoubleGauge(
+                    metrics,
+                    DS_PREFIX + COMPACTIONS_PREFIX + LEVEL_PREFIX + level + "_leavesWriteAmplification_" + label,
+                    "Write amplification of level %s, leaves store, %s".formatted(level, label)));
 
             // Leaf keys store
             leafKeysStoreCompactionTimeMsList.add(buildLongAccumulator(
@@ -262,6 +371,10 @@ public class MerkleDbStatistics {
                     metrics,
                     DS_PREFIX + FILES_PREFIX + LEVEL_PREFIX + level + "_leafKeysFileSizeByLevelMb_" + label,
                     "Total space taken by files of level %s, leaf keys store, %s, Mb".formatted(level, label)));
+            leafKeysStoreWriteAmplificationList.add(buildDoubleGauge(
+                    metrics,
+                    DS_PREFIX + COMPACTIONS_PREFIX + LEVEL_PREFIX + level + "_leafKeysWriteAmplification_" + label,
+                    "Write amplification of level %s, leaf keys store, %s".formatted(level, label)));
         }
 
         // Off-heap usage
@@ -274,6 +387,9 @@ public class MerkleDbStatistics {
         offHeapObjectKeyBucketsIndexMb = metrics.getOrCreate(
                 new IntegerGauge.Config(STAT_CATEGORY, DS_PREFIX + OFFHEAP_PREFIX + "objectKeyBucketsIndexMb_" + label)
                         .withDescription("Off-heap usage, object leaf key buckets store index, " + label + ", Mb"));
+        offHeapObjectKeyBloomFilterMb = metrics.getOrCreate(
+                new IntegerGauge.Config(STAT_CATEGORY, DS_PREFIX + OFFHEAP_PREFIX + "objectKeyBloomFilterMb_" + label)
+                        .withDescription("Off-heap usage, object leaf key buckets bloom filter, " + label + ", Mb"));
         offHeapHashesListMb = metrics.getOrCreate(
                 new IntegerGauge.Config(STAT_CATEGORY, DS_PREFIX + OFFHEAP_PREFIX + "hashesListMb_" + label)
                         .withDescription("Off-heap usage, hashes list, " + label + ", Mb"));
@@ -309,6 +425,43 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Set the current values for leaf record cache stats.
+     *
+     * @param hits total number of cache hits
+     * @param misses total number of cache misses
+     * @param evictions total number of evicted or not admitted records
+     * @param sizeMb estimated cache size, in Mb
+     */
+    public void setLeafRecordCacheStats(final long hits, final long misses, final long evictions, final int sizeMb) {
+        if (leafRecordCacheHits != null) {
+            leafRecordCacheHits.set(hits);
+        }
+        if (leafRecordCacheMisses != null) {
+            leafRecordCacheMisses.set(misses);
+        }
+        if (leafRecordCacheEvictions != null) {
+            leafRecordCacheEvictions.set(evictions);
+        }
+        if ((leafRecordCacheHitRatio != null) && (hits + misses > 0)) {
+            leafRecordCacheHitRatio.set((double) hits / (hits + misses));
+        }
+        if (leafRecordCacheSizeMb != null) {
+            leafRecordCacheSizeMb.set(sizeMb);
+        }
+    }
+
+    /**
+     * Set the current value for the {@link #leafKeysBloomFilterHitRatio} stat
+     *
+     * @param value the value to set
+     */
+    public void setLeafKeysBloomFilterHitRatio(final double value) {
+        if (leafKeysBloomFilterHitRatio != null) {
+            leafKeysBloomFilterHitRatio.set(value);
+        }
+    }
+
     /**
      * Set the current value for the {@link #hashesStoreFileCount} stat
      *
@@ -393,6 +546,18 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Set the current value for the {@link #mappedFilesSizeMb} stat
+     *
+     * @param value
+     * 		the value to set
+     */
+    public void setMappedFilesSizeMb(final int value) {
+        if (mappedFilesSizeMb != null) {
+            mappedFilesSizeMb.set(value);
+        }
+    }
+
     public void countFlushHashesWritten(final long value) {
         if (flushHashesWritten != null) {
             flushHashesWritten.update(value);
@@ -435,6 +600,36 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Set the number of bytes written to disk by the last snapshot.
+     *
+     * @param value the number of bytes
+     */
+    public void setSnapshotBytesWritten(final long value) {
+        if (snapshotBytesWritten != null) {
+            snapshotBytesWritten.set(value);
+        }
+    }
+
+    /**
+     * Set leaf keys flush phase times.
+     *
+     * @param readTimeMs total time spent in all threads to read buckets, ms
+     * @param mergeTimeMs total time spent in all threads to update buckets, ms
+     * @param writeTimeMs time spent to write updated buckets, ms
+     */
+    public void setFlushLeafKeysPhaseTimesMs(final long readTimeMs, final long mergeTimeMs, final long writeTimeMs) {
+        if (flushLeafKeysReadTimeMs != null) {
+            flushLeafKeysReadTimeMs.update(readTimeMs);
+        }
+        if (flushLeafKeysMergeTimeMs != null) {
+            flushLeafKeysMergeTimeMs.update(mergeTimeMs);
+        }
+        if (flushLeafKeysWriteTimeMs != null) {
+            flushLeafKeysWriteTimeMs.update(writeTimeMs);
+        }
+    }
+
     /**
      * Set the current value for the accumulator corresponding to provided compaction level from
      * {@link #hashesStoreCompactionTimeMsList}
@@ -568,6 +763,51 @@ public class MerkleDbStatistics {
         leafKeysStoreFileSizeByLevelMbList.get(compactionLevel).update(value);
     }
 
+    /**
+     * Set the current value for the gauge corresponding to provided compaction level from
+     * {@link #hashesStoreWriteAmplificationList}
+     *
+     * @param value the value to set
+     */
+    public void setHashesStoreWriteAmplification(final int compactionLevel, final double value) {
+        assert compactionLevel >= 0 && compactionLevel <= dbConfig.maxCompactionLevel();
+        if (hashesStoreWriteAmplificationList.isEmpty()) {
+            // if the method called before the metrics are registered, there is nothing to do
+            return;
+        }
+        hashesStoreWriteAmplificationList.get(compactionLevel).set(value);
+    }
+
+    /**
+     * Set the current value for the gauge corresponding to provided compaction level from
+     * {@link #leavesStoreWriteAmplificationList}
+     *
+     * @param value the value to set
+     */
+    public void setLeavesStoreWriteAmplification(final int compactionLevel, final double value) {
+        assert compactionLevel >= 0 && compactionLevel <= dbConfig.maxCompactionLevel();
+        if (leavesStoreWriteAmplificationList.isEmpty()) {
+            // if the method called before the metrics are registered, there is nothing to do
+            return;
+        }
+        leavesStoreWriteAmplificationList.get(compactionLevel).set(value);
+    }
+
+    /**
+     * Set the current value for the gauge corresponding to provided compaction level from
+     * {@link #leafKeysStoreWriteAmplificationList}
+     *
+     * @param value the value to set
+     */
+    public void setLeafKeysStoreWriteAmplification(final int compactionLevel, final double value) {
+        assert compactionLevel >= 0 && compactionLevel <= dbConfig.maxCompactionLevel();
+        if (leafKeysStoreWriteAmplificationList.isEmpty()) {
+            // if the method called before the metrics are registered, there is nothing to do
+            return;
+        }
+        leafKeysStoreWriteAmplificationList.get(compactionLevel).set(value);
+    }
+
     /**
      * Set the current value for the {@link #offHeapLeavesIndexMb} stat
      *
@@ -601,6 +841,17 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Set the current value for {@link #offHeapObjectKeyBloomFilterMb} stat
+     *
+     * @param value the value to set
+     */
+    public void setOffHeapObjectKeyBloomFilterMb(final int value) {
+        if (offHeapObjectKeyBloomFilterMb != null) {
+            offHeapObjectKeyBloomFilterMb.set(value);
+        }
+    }
+
     /**
      * Set the current value for {@link #offHeapHashesListMb} stat
      *
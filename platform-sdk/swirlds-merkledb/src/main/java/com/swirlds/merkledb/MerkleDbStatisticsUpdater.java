@@ -8,8 +8,10 @@ import com.swirlds.merkledb.collections.LongList;
 import com.swirlds.merkledb.collections.OffHeapUser;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.files.DataFileReader;
+import com.swirlds.merkledb.files.hashmap.HalfDiskHashMap;
 import com.swirlds.metrics.api.Metrics;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.LongSummaryStatistics;
 import java.util.function.IntConsumer;
 
@@ -50,6 +52,17 @@ public class MerkleDbStatisticsUpdater {
                 newLeafKeysFile == null ? 0 : newLeafKeysFile.getSize() * BYTES_TO_MEBIBYTES);
     }
 
+    /** Updates statistics with the number of bytes written by the last snapshot. */
+    void setSnapshotBytesWritten(final long bytesWritten) {
+        statistics.setSnapshotBytesWritten(bytesWritten);
+    }
+
+    /** Updates statistics with leaf keys store flush read, merge, and write times. */
+    void setFlushLeafKeysPhaseTimes(final HalfDiskHashMap.FlushStats flushStats) {
+        statistics.setFlushLeafKeysPhaseTimesMs(
+                flushStats.readTimeMs(), flushStats.mergeTimeMs(), flushStats.writeTimeMs());
+    }
+
     /** Updates statistics with leaf store file size. */
     void setFlushLeavesStoreFileSize(final DataFileReader newLeafKeysFile) {
         statistics.setFlushLeavesStoreFileSizeMb(
@@ -117,6 +130,19 @@ public class MerkleDbStatisticsUpdater {
         statistics.setTotalFileSizeMb(updateHashesStoreFileStats(dataSource)
                 + updateLeavesStoreFileStats(dataSource)
                 + updateLeafKeysStoreFileStats(dataSource));
+        updateMappedFilesStats(dataSource);
+    }
+
+    /** Updates total size of data files memory mapped for reads by all the storages. */
+    private void updateMappedFilesStats(final MerkleDbDataSource dataSource) {
+        long mappedSize = dataSource.getPathToKeyValue().getMappedFilesSize();
+        if (dataSource.getHashStoreDisk() != null) {
+            mappedSize += dataSource.getHashStoreDisk().getMappedFilesSize();
+        }
+        if (dataSource.getKeyToPath() != null) {
+            mappedSize += dataSource.getKeyToPath().getMappedFilesSize();
+        }
+        statistics.setMappedFilesSizeMb((int) (mappedSize * BYTES_TO_MEBIBYTES));
     }
 
     /**
@@ -126,7 +152,15 @@ public class MerkleDbStatisticsUpdater {
         int totalOffHeapMemoryConsumption = updateOffHeapStat(
                         dataSource.getPathToDiskLocationInternalNodes(), statistics::setOffHeapHashesIndexMb)
                 + updateOffHeapStat(dataSource.getPathToDiskLocationLeafNodes(), statistics::setOffHeapLeavesIndexMb);
-        if (dataSource.getKeyToPath() != null) {
+        if (dataSource.getKeyToPath() instanceof HalfDiskHashMap keyToPath) {
+            // Bucket index and bloom filter usage are reported separately, both are included into the total
+            final int bloomFilterUsage = (int) (keyToPath.getBloomFilterOffHeapConsumption() * BYTES_TO_MEBIBYTES);
+            final int keyToPathUsage = (int) (keyToPath.getOffHeapConsumption() * BYTES_TO_MEBIBYTES);
+            statistics.setOffHeapObjectKeyBloomFilterMb(bloomFilterUsage);
+            statistics.setOffHeapObjectKeyBucketsIndexMb(keyToPathUsage - bloomFilterUsage);
+            totalOffHeapMemoryConsumption += keyToPathUsage;
+            updateBloomFilterStats(keyToPath);
+        } else if (dataSource.getKeyToPath() != null) {
             totalOffHeapMemoryConsumption += updateOffHeapStat(
                     (OffHeapUser) dataSource.getKeyToPath(), statistics::setOffHeapObjectKeyBucketsIndexMb);
         }
@@ -147,6 +181,22 @@ public class MerkleDbStatisticsUpdater {
         statistics.countLeafKeyReads();
     }
 
+    /**
+     * Updates leaf record cache statistics.
+     *
+     * @param cache the leaf record cache, or null if the data source doesn't use the cache
+     */
+    void updateLeafRecordCacheStats(@Nullable final LeafRecordCache cache) {
+        if (cache == null) {
+            return;
+        }
+        statistics.setLeafRecordCacheStats(
+                cache.getHitCount(),
+                cache.getMissCount(),
+                cache.getEvictionCount(),
+                (int) (cache.getSizeBytes() * BYTES_TO_MEBIBYTES));
+    }
+
     /** Updates statistics with number of hash reads. */
     void countHashReads() {
         statistics.countHashReads();
@@ -172,6 +222,18 @@ public class MerkleDbStatisticsUpdater {
         statistics.countFlushHashesWritten(1);
     }
 
+    /**
+     * Updates the fraction of leaf key reads of missing keys, which were answered by the bucket
+     * bloom filter without reading buckets from disk.
+     */
+    private void updateBloomFilterStats(final HalfDiskHashMap keyToPath) {
+        final long skipped = keyToPath.getBloomFilterSkippedReads();
+        final long falsePositives = keyToPath.getBloomFilterFalsePositives();
+        if (skipped + falsePositives > 0) {
+            statistics.setLeafKeysBloomFilterHitRatio((double) skipped / (skipped + falsePositives));
+        }
+    }
+
     private static int updateOffHeapStat(final LongList longList, final IntConsumer updateFunction) {
         if (longList instanceof OffHeapUser longListOffHeap) {
             final int result = (int) (longListOffHeap.getOffHeapConsumption() * BYTES_TO_MEBIBYTES);
@@ -223,4 +285,16 @@ public class MerkleDbStatisticsUpdater {
     void setLeavesStoreFileSizeByLevelMb(Integer compactionType, Double savedSpace) {
         statistics.setLeavesStoreFileSizeByLevelMb(compactionType, savedSpace);
     }
+
+    void setLeafKeysStoreWriteAmplification(Integer compactionLevel, Double writeAmplification) {
+        statistics.setLeafKeysStoreWriteAmplification(compactionLevel, writeAmplification);
+    }
+
+    void setHashesStoreWriteAmplification(Integer compactionLevel, Double writeAmplification) {
+        statistics.setHashesStoreWriteAmplification(compactionLevel, writeAmplification);
+    }
+
+    void setLeavesStoreWriteAmplification(Integer compactionLevel, Double writeAmplification) {
+        statistics.setLeavesStoreWriteAmplification(compactionLevel, writeAmplification);
+    }
 }
@@ -15,6 +15,7 @@ import com.swirlds.common.crypto.DigestType;
 import com.swirlds.common.io.SelfSerializable;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
 import com.swirlds.common.io.streams.SerializableDataOutputStream;
+import com.swirlds.merkledb.files.HashChunkStore;
 import com.swirlds.virtualmap.serialize.KeySerializer;
 import com.swirlds.virtualmap.serialize.ValueSerializer;
 import java.io.IOException;
@@ -62,6 +63,12 @@ public final class MerkleDbTableConfig implements SelfSerializable {
             new FieldDefinition("maxNumberOfKeys", FieldType.UINT64, false, true, false, 8);
     private static final FieldDefinition FIELD_TABLECONFIG_HASHRAMTODISKTHRESHOLD =
             new FieldDefinition("hashesRamToDiskThreshold", FieldType.UINT64, false, true, false, 9);
+    private static final FieldDefinition FIELD_TABLECONFIG_NATIVEMEMORYINDICES =
+            new FieldDefinition("nativeMemoryIndices", FieldType.UINT32, false, true, false, 10);
+    private static final FieldDefinition FIELD_TABLECONFIG_LEAFRECORDCACHEBYPASSED =
+            new FieldDefinition("leafRecordCacheBypassed", FieldType.UINT32, false, true, false, 11);
+    private static final FieldDefinition FIELD_TABLECONFIG_HASHSTORECHUNKHEIGHT =
+            new FieldDefinition("hashStoreChunkHeight", FieldType.UINT32, false, true, false, 12);
 
     /**
      * Hash version.
@@ -114,6 +121,29 @@ public final class MerkleDbTableConfig implements SelfSerializable {
      */
     private long hashesRamToDiskThreshold = 0;
 
+    /**
+     * Whether in-memory path to disk location indices are stored in native memory chunks ({@link
+     * com.swirlds.merkledb.collections.LongListNative}) rather than in direct byte buffers ({@link
+     * com.swirlds.merkledb.collections.LongListOffHeap}). Disk based indices, if enabled in MerkleDb
+     * config, take precedence over this flag.
+     */
+    private boolean nativeMemoryIndices = false;
+
+    /**
+     * Whether leaf record lookups by key bypass the data source leaf record cache. Useful for
+     * tables that are mostly scanned or read just once per key, so caching doesn't help, but
+     * costs memory and CPU.
+     */
+    private boolean leafRecordCacheBypassed = false;
+
+    /**
+     * Height of hash chunks in the on-disk hash store. If zero, hashes on disk are stored in a
+     * generic data file collection with a path to disk location index. Otherwise, hashes are
+     * stored in a {@link com.swirlds.merkledb.files.HashChunkStore}, which addresses chunks of
+     * hashes directly by path.
+     */
+    private int hashStoreChunkHeight = 0;
+
     /**
      * Creates a new virtual table config with default values. This constructor should only be used
      * for deserialization.
@@ -165,6 +195,9 @@ public final class MerkleDbTableConfig implements SelfSerializable {
         hashType = DigestType.SHA_384;
         maxNumberOfKeys = 0;
         hashesRamToDiskThreshold = 0;
+        nativeMemoryIndices = false;
+        leafRecordCacheBypassed = false;
+        hashStoreChunkHeight = 0;
 
         while (in.hasRemaining()) {
             final int tag = in.readVarInt(false);
@@ -193,6 +226,12 @@ public final class MerkleDbTableConfig implements SelfSerializable {
                 maxNumberOfKeys = in.readVarLong(false);
             } else if (fieldNum == FIELD_TABLECONFIG_HASHRAMTODISKTHRESHOLD.number()) {
                 hashesRamToDiskThreshold = in.readVarLong(false);
+            } else if (fieldNum == FIELD_TABLECONFIG_NATIVEMEMORYINDICES.number()) {
+                nativeMemoryIndices = in.readVarInt(false) != 0;
+            } else if (fieldNum == FIELD_TABLECONFIG_LEAFRECORDCACHEBYPASSED.number()) {
+                leafRecordCacheBypassed = in.readVarInt(false) != 0;
+            } else if (fieldNum == FIELD_TABLECONFIG_HASHSTORECHUNKHEIGHT.number()) {
+                hashStoreChunkHeight = in.readVarInt(false);
             } else {
                 throw new IllegalArgumentException("Unknown table config field: " + fieldNum);
             }
@@ -223,6 +262,21 @@ public final class MerkleDbTableConfig implements SelfSerializable {
                     FIELD_TABLECONFIG_HASHRAMTODISKTHRESHOLD, ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG);
             size += ProtoWriterTools.sizeOfVarInt64(hashesRamToDiskThreshold);
         }
+        if (nativeMemoryIndices) {
+            size += ProtoWriterTools.sizeOfTag(
+                    FIELD_TABLECONFIG_NATIVEMEMORYINDICES, ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG);
+            size += ProtoWriterTools.sizeOfVarInt32(1);
+        }
+        if (leafRecordCacheBypassed) {
+            size += ProtoWriterTools.sizeOfTag(
+                    FIELD_TABLECONFIG_LEAFRECORDCACHEBYPASSED, ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG);
+            size += ProtoWriterTools.sizeOfVarInt32(1);
+        }
+        if (hashStoreChunkHeight != 0) {
+            size += ProtoWriterTools.sizeOfTag(
+                    FIELD_TABLECONFIG_HASHSTORECHUNKHEIGHT, ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG);
+            size += ProtoWriterTools.sizeOfVarInt32(hashStoreChunkHeight);
+        }
         return size;
     }
 
@@ -240,6 +294,18 @@ public final class MerkleDbTableConfig implements SelfSerializable {
             ProtoWriterTools.writeTag(out, FIELD_TABLECONFIG_HASHRAMTODISKTHRESHOLD);
             out.writeVarLong(hashesRamToDiskThreshold, false);
         }
+        if (nativeMemoryIndices) {
+            ProtoWriterTools.writeTag(out, FIELD_TABLECONFIG_NATIVEMEMORYINDICES);
+            out.writeVarInt(1, false);
+        }
+        if (leafRecordCacheBypassed) {
+            ProtoWriterTools.writeTag(out, FIELD_TABLECONFIG_LEAFRECORDCACHEBYPASSED);
+            out.writeVarInt(1, false);
+        }
+        if (hashStoreChunkHeight != 0) {
+            ProtoWriterTools.writeTag(out, FIELD_TABLECONFIG_HASHSTORECHUNKHEIGHT);
+            out.writeVarInt(hashStoreChunkHeight, false);
+        }
     }
 
     /**
@@ -337,6 +403,96 @@ public final class MerkleDbTableConfig implements SelfSerializable {
         return this;
     }
 
+    /**
+     * Indicates whether in-memory path to disk location indices are stored in native memory
+     * chunks rather than in direct byte buffers.
+     *
+     * @return
+     *      Whether native memory indices are used
+     */
+    public boolean isNativeMemoryIndices() {
+        return nativeMemoryIndices;
+    }
+
+    /**
+     * Specifies whether in-memory path to disk location indices are to be stored in native memory
+     * chunks rather than in direct byte buffers. This is a per-table setting, so native memory
+     * indices can be enabled for some tables only. The setting is persisted in table metadata,
+     * but it only affects how indices are stored in memory, it doesn't change any files.
+     *
+     * <p>This setting is not stored using legacy {@link #serialize(SerializableDataOutputStream)}.
+     *
+     * @param nativeMemoryIndices
+     *      Whether native memory indices are to be used
+     * @return
+     *      This table config object
+     */
+    public MerkleDbTableConfig nativeMemoryIndices(final boolean nativeMemoryIndices) {
+        this.nativeMemoryIndices = nativeMemoryIndices;
+        return this;
+    }
+
+    /**
+     * Indicates whether leaf record lookups by key bypass the data source leaf record cache.
+     *
+     * @return
+     *      Whether the leaf record cache is bypassed
+     */
+    public boolean isLeafRecordCacheBypassed() {
+        return leafRecordCacheBypassed;
+    }
+
+    /**
+     * Specifies whether leaf record lookups by key are to bypass the data source leaf record
+     * cache. Tables, which are mostly scanned rather than queried for the same keys over and
+     * over again, don't benefit from the cache.
+     *
+     * <p>This setting is not stored using legacy {@link #serialize(SerializableDataOutputStream)}.
+     *
+     * @param leafRecordCacheBypassed
+     *      Whether the leaf record cache is to be bypassed
+     * @return
+     *      This table config object
+     */
+    public MerkleDbTableConfig leafRecordCacheBypassed(final boolean leafRecordCacheBypassed) {
+        this.leafRecordCacheBypassed = leafRecordCacheBypassed;
+        return this;
+    }
+
+    /**
+     * Height of hash chunks in the on-disk hash store, or zero if the generic hash store is used.
+     *
+     * @return
+     *      Hash store chunk height
+     */
+    public int getHashStoreChunkHeight() {
+        return hashStoreChunkHeight;
+    }
+
+    /**
+     * Specifies the height of hash chunks in the on-disk hash store. If greater than zero, hashes
+     * above {@link #getHashesRamToDiskThreshold()} are stored in fixed-position chunk files, one
+     * sub-tree of this height per chunk, rather than in data files with a path to disk location
+     * index. It's recommended to use the virtual hasher chunk height. Since this setting changes
+     * the file format, it must only be set for new tables. Must be between zero and {@link
+     * com.swirlds.merkledb.files.HashChunkStore#MAX_CHUNK_HEIGHT}.
+     *
+     * <p>This setting is not stored using legacy {@link #serialize(SerializableDataOutputStream)}.
+     *
+     * @param hashStoreChunkHeight
+     *      Hash store chunk height, or zero to use the generic hash store
+     * @return
+     *      This table config object
+     */
+    public MerkleDbTableConfig hashStoreChunkHeight(final int hashStoreChunkHeight) {
+        if ((hashStoreChunkHeight < 0) || (hashStoreChunkHeight > HashChunkStore.MAX_CHUNK_HEIGHT)) {
+            throw new IllegalArgumentException("Hash store chunk height must be between 0 and "
+                    + HashChunkStore.MAX_CHUNK_HEIGHT);
+        }
+        this.hashStoreChunkHeight = hashStoreChunkHeight;
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -391,7 +547,10 @@ public final class MerkleDbTableConfig implements SelfSerializable {
      * @return Table config copy
      */
     public MerkleDbTableConfig copy() {
-        return new MerkleDbTableConfig(hashVersion, hashType, maxNumberOfKeys, hashesRamToDiskThreshold);
+        return new MerkleDbTableConfig(hashVersion, hashType, maxNumberOfKeys, hashesRamToDiskThreshold)
+                .nativeMemoryIndices(nativeMemoryIndices)
+                .leafRecordCacheBypassed(leafRecordCacheBypassed)
+                .hashStoreChunkHeight(hashStoreChunkHeight);
     }
 
     /**
@@ -399,7 +558,14 @@ public final class MerkleDbTableConfig implements SelfSerializable {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(hashVersion, hashType, maxNumberOfKeys, hashesRamToDiskThreshold);
+        return Objects.hash(
+                hashVersion,
+                hashType,
+                maxNumberOfKeys,
+                hashesRamToDiskThreshold,
+                nativeMemoryIndices,
+                leafRecordCacheBypassed,
+                hashStoreChunkHeight);
     }
 
     /**
@@ -412,6 +578,9 @@ public final class MerkleDbTableConfig implements SelfSerializable {
         }
         return (maxNumberOfKeys == other.maxNumberOfKeys)
                 && (hashesRamToDiskThreshold == other.hashesRamToDiskThreshold)
+                && (nativeMemoryIndices == other.nativeMemoryIndices)
+                && (leafRecordCacheBypassed == other.leafRecordCacheBypassed)
+                && (hashStoreChunkHeight == other.hashStoreChunkHeight)
                 && (hashVersion == other.hashVersion)
                 && Objects.equals(hashType, other.hashType);
     }
@@ -11,17 +11,24 @@ import static java.util.Objects.requireNonNull;
 import com.swirlds.config.api.Configuration;
 import com.swirlds.merkledb.utilities.MerkleDbFileUtils;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.LongStream;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
@@ -57,6 +64,8 @@ public abstract class AbstractLongList<C> implements LongList {
     private static final int INITIAL_VERSION = 1;
     /** File format that supports min valid index */
     private static final int MIN_VALID_INDEX_SUPPORT_VERSION = 2;
+    /** Incremental file format: a header file and a separate file per chunk */
+    private static final int CHUNKED_VERSION = 3;
     /** The version number for format of current data files */
     private static final int CURRENT_FILE_FORMAT_VERSION = MIN_VALID_INDEX_SUPPORT_VERSION;
     /** The number of bytes required to store file version */
@@ -77,6 +86,8 @@ public abstract class AbstractLongList<C> implements LongList {
     protected static final int FILE_HEADER_SIZE_V1 = VERSION_METADATA_SIZE + FORMAT_METADATA_SIZE_V1;
     /** The number for bytes to read for file header, v2 */
     protected static final int FILE_HEADER_SIZE_V2 = VERSION_METADATA_SIZE + FORMAT_METADATA_SIZE_V2;
+    /** The number for bytes to read for file header in the chunked format: v2 header and list size */
+    protected static final int FILE_HEADER_SIZE_CHUNKED = FILE_HEADER_SIZE_V2 + Long.BYTES;
     /** File header size for the latest format */
     protected final int currentFileHeaderSize;
 
@@ -122,6 +133,34 @@ public abstract class AbstractLongList<C> implements LongList {
     /** Platform configuration */
     protected Configuration configuration;
 
+    /** Chunks modified since the last incremental snapshot, a bit per chunk */
+    private final AtomicLongArray dirtyChunks = new AtomicLongArray(MAX_NUM_CHUNKS / Long.SIZE);
+
+    /**
+     * The base file of the last incremental snapshot of this list. Base chunk files next to it
+     * contain all chunks, which are not modified since then, see {@link #baseChunkFile(Path, int)}.
+     * If null, there are no such files
+     */
+    private Path lastBaseFile = null;
+
+    /** The range of chunk indices, for which base chunk files of {@link #lastBaseFile} exist */
+    private int lastBaseFirstChunk = -1;
+
+    private int lastBaseLastChunk = -1;
+
+    /**
+     * The header file this list was loaded from, if it's in the chunked format. Its chunk files
+     * are never changed, and they contain all chunks, which are not modified since the list was
+     * loaded. Only used till the first incremental snapshot
+     */
+    private Path loadedChunkedFile = null;
+
+    /**
+     * The header file, if this list is being loaded from a file in the chunked format. Only used
+     * during initialization
+     */
+    private Path chunkedSourceFile = null;
+
     /**
      * Construct a new LongList with the specified number of longs per chunk and maximum number of
      * longs.
@@ -186,7 +225,7 @@ public abstract class AbstractLongList<C> implements LongList {
                 if (formatVersion == INITIAL_VERSION) {
                     formatMetadataSize = FORMAT_METADATA_SIZE_V1;
                     currentFileHeaderSize = FILE_HEADER_SIZE_V1;
-                } else if (formatVersion == MIN_VALID_INDEX_SUPPORT_VERSION) {
+                } else if ((formatVersion == MIN_VALID_INDEX_SUPPORT_VERSION) || (formatVersion == CHUNKED_VERSION)) {
                     formatMetadataSize = FORMAT_METADATA_SIZE_V2;
                     currentFileHeaderSize = FILE_HEADER_SIZE_V2;
                 } else {
@@ -208,7 +247,16 @@ public abstract class AbstractLongList<C> implements LongList {
                 maxLongs = headerBuffer.getLong();
 
                 // Compute how many longs are in the file body
-                final long longsInFile = (fileChannel.size() - currentFileHeaderSize) / Long.BYTES;
+                final long longsInFile;
+                if (formatVersion == CHUNKED_VERSION) {
+                    // List body is stored in chunk files, the header file contains the list size
+                    final long readMinValidIndex = headerBuffer.getLong(Integer.BYTES + Long.BYTES);
+                    final long listSize = readFromFileChannel(fileChannel, Long.BYTES).getLong();
+                    longsInFile = (readMinValidIndex < 0) ? 0 : listSize - readMinValidIndex;
+                    chunkedSourceFile = path;
+                } else {
+                    longsInFile = (fileChannel.size() - currentFileHeaderSize) / Long.BYTES;
+                }
 
                 if (formatVersion >= MIN_VALID_INDEX_SUPPORT_VERSION) {
                     final long readMinValidIndex = headerBuffer.getLong();
@@ -233,6 +281,12 @@ public abstract class AbstractLongList<C> implements LongList {
 
                 chunkList = new AtomicReferenceArray<>(calculateNumberOfChunks(maxLongs));
                 readBodyFromFileChannelOnInit(file.getName(), fileChannel);
+                if (chunkedSourceFile != null) {
+                    // Chunk files of the source are identical to the loaded chunks, they can be
+                    // linked on the next incremental snapshot
+                    loadedChunkedFile = chunkedSourceFile;
+                    chunkedSourceFile = null;
+                }
             }
         }
     }
@@ -260,7 +314,16 @@ public abstract class AbstractLongList<C> implements LongList {
             final int startIndexInChunk = (chunkIndex == firstChunkIndex) ? minValidIndexInChunk : 0;
             final int endIndexInChunk = (chunkIndex == lastChunkIndex) ? (maxValidIndexInChunk + 1) : numLongsPerChunk;
 
-            C chunk = readChunkData(fileChannel, chunkIndex, startIndexInChunk, endIndexInChunk);
+            final C chunk;
+            if (chunkedSourceFile != null) {
+                try (final FileChannel chunkChannel =
+                        FileChannel.open(chunkFile(chunkedSourceFile, chunkIndex), StandardOpenOption.READ)) {
+                    chunkChannel.position((long) startIndexInChunk * Long.BYTES);
+                    chunk = readChunkData(chunkChannel, chunkIndex, startIndexInChunk, endIndexInChunk);
+                }
+            } else {
+                chunk = readChunkData(fileChannel, chunkIndex, startIndexInChunk, endIndexInChunk);
+            }
             setChunk(chunkIndex, chunk);
         }
     }
@@ -394,6 +457,7 @@ public abstract class AbstractLongList<C> implements LongList {
         final C chunk = createOrGetChunk(index);
         final int subIndex = toIntExact(index % numLongsPerChunk);
         putToChunk(chunk, subIndex, value);
+        markChunkDirty(toIntExact(index / numLongsPerChunk));
     }
 
     /**
@@ -431,10 +495,37 @@ public abstract class AbstractLongList<C> implements LongList {
         if (result) {
             // update the size if necessary
             size.getAndUpdate(oldSize -> index >= oldSize ? (index + 1) : oldSize);
+            markChunkDirty(chunkIndex);
         }
         return result;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean putIfGreater(final long index, final long newValue) {
+        checkIndex(index);
+        checkValue(newValue);
+        final int chunkIndex = toIntExact(index / numLongsPerChunk);
+        C chunk = chunkList.get(chunkIndex);
+        if (chunk == null) {
+            chunk = createOrGetChunk(index);
+        }
+        final int subIndex = toIntExact(index % numLongsPerChunk);
+        while (true) {
+            final long oldValue = lookupInChunk(chunk, subIndex);
+            if ((oldValue != IMPERMISSIBLE_VALUE) && (oldValue >= newValue)) {
+                return false;
+            }
+            if (putIfEqual(chunk, subIndex, oldValue, newValue)) {
+                size.getAndUpdate(oldSize -> index >= oldSize ? (index + 1) : oldSize);
+                markChunkDirty(chunkIndex);
+                return true;
+            }
+        }
+    }
+
     /**
      * Stores a long in a given chunk at a given sub index, on the condition that the current long therein has a given
      * value.
@@ -512,6 +603,206 @@ public abstract class AbstractLongList<C> implements LongList {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public synchronized long writeToFile(final Path file, @Nullable final Path baseFile) throws IOException {
+        if (baseFile == null) {
+            writeToFile(file);
+            return Files.size(file);
+        }
+        // Chunk files, which match chunks not modified since they were written. If this snapshot
+        // fails, the next one must not use them, since dirty flags may be already cleared
+        final boolean baseValid = baseFile.equals(lastBaseFile);
+        final Path loadedFile = loadedChunkedFile;
+        lastBaseFile = null;
+        loadedChunkedFile = null;
+        final long currentMinValidIndex = minValidIndex.get();
+        final long currentSize = size();
+        try (final FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            final ByteBuffer headerBuffer = ByteBuffer.allocate(FILE_HEADER_SIZE_CHUNKED);
+            headerBuffer.putInt(CHUNKED_VERSION);
+            headerBuffer.putInt(getNumLongsPerChunk());
+            headerBuffer.putLong(maxLongs);
+            headerBuffer.putLong(currentMinValidIndex);
+            headerBuffer.putLong(currentSize);
+            headerBuffer.flip();
+            if (MerkleDbFileUtils.completelyWrite(fc, headerBuffer, 0) != FILE_HEADER_SIZE_CHUNKED) {
+                throw new IOException("Failed to write long list header to the file channel " + fc);
+            }
+            fc.force(true);
+        }
+        long bytesWritten = FILE_HEADER_SIZE_CHUNKED;
+        int firstChunkIndex = -1;
+        int lastChunkIndex = -1;
+        if ((currentMinValidIndex >= 0) && (currentSize > currentMinValidIndex)) {
+            firstChunkIndex = toIntExact(currentMinValidIndex / numLongsPerChunk);
+            lastChunkIndex = toIntExact((currentSize - 1) / numLongsPerChunk);
+            ByteBuffer transferBuffer = null;
+            for (int chunkIndex = firstChunkIndex; chunkIndex <= lastChunkIndex; chunkIndex++) {
+                // The dirty flag is cleared before the chunk is written. If the chunk is modified
+                // in parallel, the flag is set again, and the chunk is written next time
+                final boolean dirty = clearChunkDirty(chunkIndex);
+                final Path baseChunkFile = baseChunkFile(baseFile, chunkIndex);
+                Path cleanChunkFile = null;
+                if (!dirty) {
+                    if (baseValid) {
+                        cleanChunkFile = baseChunkFile;
+                    } else if (loadedFile != null) {
+                        cleanChunkFile = chunkFile(loadedFile, chunkIndex);
+                    }
+                }
+                if ((cleanChunkFile != null) && Files.exists(cleanChunkFile)) {
+                    if (!cleanChunkFile.equals(baseChunkFile)) {
+                        replaceWithLink(baseChunkFile, cleanChunkFile);
+                    }
+                } else {
+                    if (transferBuffer == null) {
+                        transferBuffer = ByteBuffer.allocate(memoryChunkSize).order(ByteOrder.nativeOrder());
+                    }
+                    writeBaseChunkFile(baseChunkFile, chunkIndex, transferBuffer);
+                    bytesWritten += memoryChunkSize;
+                }
+                Files.createLink(chunkFile(file, chunkIndex), baseChunkFile);
+            }
+        }
+        deleteStaleBaseChunkFiles(baseFile, baseValid, firstChunkIndex, lastChunkIndex);
+        lastBaseFile = baseFile;
+        lastBaseFirstChunk = firstChunkIndex;
+        lastBaseLastChunk = lastChunkIndex;
+        return bytesWritten;
+    }
+
+    /**
+     * Writes a chunk to a new file, which then replaces the given base chunk file. Base chunk
+     * files may be hard linked from earlier snapshots, so they must never be modified in place.
+     */
+    private void writeBaseChunkFile(final Path baseChunkFile, final int chunkIndex, final ByteBuffer transferBuffer)
+            throws IOException {
+        final Path tmpFile = baseChunkFile.resolveSibling(baseChunkFile.getFileName() + ".tmp");
+        Files.deleteIfExists(tmpFile);
+        try (final FileChannel fc =
+                FileChannel.open(tmpFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            final C chunk = chunkList.get(chunkIndex);
+            transferBuffer.clear();
+            if (chunk != null) {
+                writeChunkData(fc, chunk, transferBuffer);
+            } else {
+                Arrays.fill(transferBuffer.array(), (byte) 0);
+                MerkleDbFileUtils.completelyWrite(fc, transferBuffer);
+            }
+            fc.force(true);
+        }
+        Files.move(tmpFile, baseChunkFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void replaceWithLink(final Path file, final Path target) throws IOException {
+        final Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.deleteIfExists(tmpFile);
+        Files.createLink(tmpFile, target);
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Deletes base chunk files outside the given chunk range. If base chunk files of the previous
+     * snapshot are known, only files in their range are checked. Otherwise, the base file directory
+     * is scanned for base chunk files.
+     */
+    private void deleteStaleBaseChunkFiles(
+            final Path baseFile, final boolean baseValid, final int firstChunkIndex, final int lastChunkIndex)
+            throws IOException {
+        if (baseValid) {
+            if (lastBaseFirstChunk < 0) {
+                return;
+            }
+            for (int chunkIndex = lastBaseFirstChunk; chunkIndex <= lastBaseLastChunk; chunkIndex++) {
+                if ((chunkIndex < firstChunkIndex) || (chunkIndex > lastChunkIndex)) {
+                    Files.deleteIfExists(baseChunkFile(baseFile, chunkIndex));
+                }
+            }
+            return;
+        }
+        final Path dir = baseFile.toAbsolutePath().getParent();
+        final String namePrefix = baseFile.getFileName() + ".base.";
+        try (final Stream<Path> files = Files.list(dir)) {
+            for (final Path f : (Iterable<Path>) files::iterator) {
+                final String name = f.getFileName().toString();
+                if (!name.startsWith(namePrefix)) {
+                    continue;
+                }
+                final int chunkIndex;
+                try {
+                    chunkIndex = Integer.parseInt(name.substring(namePrefix.length()));
+                } catch (final NumberFormatException e) {
+                    continue;
+                }
+                if ((chunkIndex < firstChunkIndex) || (chunkIndex > lastChunkIndex)) {
+                    Files.deleteIfExists(f);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes all longs of the given chunk to a file channel, {@link #memoryChunkSize} bytes in
+     * total, in native byte order. This default implementation copies the longs one by one using
+     * {@link #lookupInChunk(Object, long)}. Subclasses may override it to write chunk data in bulk.
+     *
+     * @param fc the file channel to write to
+     * @param chunk the chunk to write
+     * @param transferBuffer a heap buffer of {@link #memoryChunkSize} bytes, which may be used to
+     *                       transfer chunk data
+     * @throws IOException if there was a problem writing the chunk
+     */
+    protected void writeChunkData(final FileChannel fc, @NonNull final C chunk, final ByteBuffer transferBuffer)
+            throws IOException {
+        for (int i = 0; i < numLongsPerChunk; i++) {
+            transferBuffer.putLong(lookupInChunk(chunk, i));
+        }
+        transferBuffer.flip();
+        if (MerkleDbFileUtils.completelyWrite(fc, transferBuffer) != memoryChunkSize) {
+            throw new IOException("Failed to write long list chunk to the file channel " + fc);
+        }
+    }
+
+    /**
+     * Returns a chunk file path for a long list file in the chunked format.
+     *
+     * @param file the long list header file
+     * @param chunkIndex the chunk index
+     * @return the chunk file path
+     */
+    static Path chunkFile(final Path file, final int chunkIndex) {
+        return file.resolveSibling(file.getFileName() + "." + chunkIndex);
+    }
+
+    /**
+     * Returns a base chunk file path for incremental snapshots. Base chunk files are named
+     * differently from snapshot chunk files, so a base file may be in the same directory as a
+     * snapshot of the list, for example, the one it was loaded from.
+     *
+     * @param baseFile the base file
+     * @param chunkIndex the chunk index
+     * @return the base chunk file path
+     */
+    static Path baseChunkFile(final Path baseFile, final int chunkIndex) {
+        return baseFile.resolveSibling(baseFile.getFileName() + ".base." + chunkIndex);
+    }
+
+    private void markChunkDirty(final int chunkIndex) {
+        final int word = chunkIndex / Long.SIZE;
+        final long bit = 1L << (chunkIndex % Long.SIZE);
+        // Check first to avoid contended writes on hot paths
+        if ((dirtyChunks.get(word) & bit) == 0) {
+            dirtyChunks.getAndAccumulate(word, bit, (v, b) -> v | b);
+        }
+    }
+
+    private boolean clearChunkDirty(final int chunkIndex) {
+        final int word = chunkIndex / Long.SIZE;
+        final long bit = 1L << (chunkIndex % Long.SIZE);
+        return (dirtyChunks.getAndAccumulate(word, ~bit, (v, b) -> v & b) & bit) != 0;
+    }
+
     /**
      * Write or rewrite header in file
      *
@@ -617,6 +908,7 @@ public abstract class AbstractLongList<C> implements LongList {
             final C chunk = chunkList.get(i);
             if (chunk != null && chunkList.compareAndSet(i, chunk, null)) {
                 closeChunk(chunk);
+                markChunkDirty(i);
             }
         }
 
@@ -626,6 +918,7 @@ public abstract class AbstractLongList<C> implements LongList {
         C chunk = chunkList.get(firstChunkWithDataIndex);
         if (chunk != null && numberOfElementsToCleanUp > 0) {
             partialChunkCleanup(chunk, true, numberOfElementsToCleanUp);
+            markChunkDirty(firstChunkWithDataIndex);
         }
 
         // clean up chunk(s) reserved for buffer
@@ -633,6 +926,7 @@ public abstract class AbstractLongList<C> implements LongList {
             chunk = chunkList.get(i);
             if (chunk != null) {
                 partialChunkCleanup(chunk, true, numLongsPerChunk);
+                markChunkDirty(i);
             }
         }
     }
@@ -654,6 +948,7 @@ public abstract class AbstractLongList<C> implements LongList {
             final C chunk = chunkList.get(i);
             if (chunk != null && chunkList.compareAndSet(i, chunk, null)) {
                 closeChunk(chunk);
+                markChunkDirty(i);
             }
         }
 
@@ -663,6 +958,7 @@ public abstract class AbstractLongList<C> implements LongList {
         C chunk = chunkList.get(firstChunkWithDataIndex);
         if (chunk != null && numberOfEntriesToCleanUp > 0) {
             partialChunkCleanup(chunk, false, numberOfEntriesToCleanUp);
+            markChunkDirty(firstChunkWithDataIndex);
         }
 
         // clean up chunk(s) reserved for buffer
@@ -670,6 +966,7 @@ public abstract class AbstractLongList<C> implements LongList {
             chunk = chunkList.get(i);
             if (chunk != null) {
                 partialChunkCleanup(chunk, false, numLongsPerChunk);
+                markChunkDirty(i);
             }
         }
     }
@@ -5,12 +5,11 @@ import static com.swirlds.merkledb.utilities.HashTools.HASH_SIZE_BYTES;
 import static com.swirlds.merkledb.utilities.HashTools.byteBufferToHash;
 import static com.swirlds.merkledb.utilities.HashTools.hashToByteBuffer;
 import static java.nio.ByteBuffer.allocate;
-import static java.nio.ByteBuffer.allocateDirect;
 
 import com.swirlds.base.utility.ToStringBuilder;
 import com.swirlds.common.crypto.Hash;
+import com.swirlds.merkledb.utilities.DirectMemoryAllocator;
 import com.swirlds.merkledb.utilities.HashTools;
-import com.swirlds.merkledb.utilities.MemoryUtils;
 import com.swirlds.merkledb.utilities.MerkleDbFileUtils;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -138,7 +137,8 @@ public final class HashListByteBuffer implements HashList, OffHeapUser {
             final int numOfBuffers = headerBuffer.getInt();
             // read data
             for (int i = 0; i < numOfBuffers; i++) {
-                ByteBuffer buffer = offHeap ? allocateDirect(memoryBufferSize) : allocate(memoryBufferSize);
+                ByteBuffer buffer =
+                        offHeap ? DirectMemoryAllocator.allocate(memoryBufferSize) : allocate(memoryBufferSize);
                 MerkleDbFileUtils.completelyRead(fc, buffer);
                 buffer.position(0);
                 data.add(buffer);
@@ -183,7 +183,7 @@ public final class HashListByteBuffer implements HashList, OffHeapUser {
         numberOfHashesStored.set(0);
         if (offHeap) {
             for (final ByteBuffer directBuffer : data) {
-                MemoryUtils.closeDirectByteBuffer(directBuffer);
+                DirectMemoryAllocator.release(directBuffer);
             }
         }
         data.clear();
@@ -222,7 +222,7 @@ public final class HashListByteBuffer implements HashList, OffHeapUser {
         // Expand data if needed
         maxIndexThatCanBeStored.updateAndGet(currentValue -> {
             while (index > currentValue) { // need to expand
-                data.add(offHeap ? allocateDirect(memoryBufferSize) : allocate(memoryBufferSize));
+                data.add(offHeap ? DirectMemoryAllocator.allocate(memoryBufferSize) : allocate(memoryBufferSize));
                 currentValue += numHashesPerBuffer;
             }
             return currentValue;
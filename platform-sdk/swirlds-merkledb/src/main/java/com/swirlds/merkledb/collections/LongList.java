@@ -2,6 +2,7 @@
 package com.swirlds.merkledb.collections;
 
 import com.swirlds.merkledb.files.DataFileCommon;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -67,6 +68,20 @@ public interface LongList extends CASableLongIndex, Closeable {
     @Override
     boolean putIfEqual(long index, long oldValue, long newValue);
 
+    /**
+     * Stores a long at the given index, on the condition that there is no long at the index yet, or
+     * the current long is less than the new value. Data locations are ordered by data file index
+     * first, and then by offset in the file, so this method can be used to keep the latest data
+     * location for the index, when data files are processed in an arbitrary order from multiple
+     * threads.
+     *
+     * @param index    the index to use
+     * @param newValue the new value to store
+     * @return whether the newValue was set
+     * @throws IndexOutOfBoundsException if the index is negative or beyond the max capacity of the list
+     */
+    boolean putIfGreater(long index, long newValue);
+
     /**
      * Get the maximum capacity of this LongList; that is, one greater than the maximum legal value
      * of an {@code index} parameter used in a {@code put()} call.
@@ -103,6 +118,30 @@ public interface LongList extends CASableLongIndex, Closeable {
      */
     void writeToFile(Path file) throws IOException;
 
+    /**
+     * Write all longs in this LongList into a file, either in full, or incrementally. In the
+     * incremental mode, the list is written as a small header file and a file per chunk.
+     *
+     * <p>Incremental snapshots need a base file, which is owned by this list and doesn't move
+     * between snapshots, for example, a file in the list's data source storage directory. The list
+     * keeps the current version of every chunk in a file next to the base file. Chunks, which
+     * haven't changed since the previous incremental snapshot with the same base file, are hard
+     * linked from these files rather than written again. Changed chunks are written to new files,
+     * which replace the old ones, so files linked from earlier snapshots never change. Snapshot
+     * files may therefore be moved or deleted after they are written. Lists can be loaded from
+     * files in both formats.
+     *
+     * <p>The same consistency considerations apply as for {@link #writeToFile(Path)}.
+     *
+     * @param file The file to write into, it should not exist but its parent directory should exist
+     *             and be writable.
+     * @param baseFile the base file for incremental snapshots, or null to write the list in full.
+     *                 The base file itself is never created
+     * @return number of bytes written to disk, excluding hard linked chunk files
+     * @throws IOException If there was a problem creating or writing to the file.
+     */
+    long writeToFile(Path file, @Nullable Path baseFile) throws IOException;
+
     /**
      * Updates min and max valid indexes in this list. If both values are -1, this indicates
      * the list is empty.
@@ -302,6 +302,22 @@ public class LongListDisk extends AbstractLongList<Long> {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected void writeChunkData(final FileChannel fc, @NonNull final Long chunk, final ByteBuffer transferBuffer)
+            throws IOException {
+        transferBuffer.clear().limit(memoryChunkSize);
+        MerkleDbFileUtils.completelyRead(currentFileChannel, transferBuffer, chunk);
+        // Bytes beyond the end of the current file are zeroes
+        while (transferBuffer.hasRemaining()) {
+            transferBuffer.put((byte) 0);
+        }
+        transferBuffer.flip();
+        if (MerkleDbFileUtils.completelyWrite(fc, transferBuffer) != memoryChunkSize) {
+            throw new IOException("Failed to write long list chunk to the file channel " + fc);
+        }
+    }
+
     /**
      * Lookup a long in data
      *
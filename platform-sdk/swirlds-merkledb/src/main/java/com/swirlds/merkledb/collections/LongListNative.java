@@ -0,0 +1,220 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb.collections;
+
+import static com.swirlds.base.units.UnitConstants.MEBIBYTES_TO_BYTES;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+
+import com.swirlds.config.api.Configuration;
+import com.swirlds.merkledb.utilities.MemoryUtils;
+import com.swirlds.merkledb.utilities.MerkleDbFileUtils;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * A {@link LongList} that stores its contents in native memory chunks allocated outside of
+ * direct byte buffers. Every chunk is represented by its native memory address. Compared to
+ * {@link LongListOffHeap}, there are no byte buffer objects, no cleaners, and no buffer bounds
+ * checks on reads and writes. Chunks are released deterministically, as soon as they are
+ * removed from the list or the list is closed, without waiting for GC.
+ *
+ * <p>The file format is the same as for all other long lists, so a list saved by this class
+ * can be loaded by {@link LongListOffHeap}, {@link LongListHeap}, or {@link LongListDisk},
+ * and vice versa.
+ *
+ * <p>Per the {@link LongList} contract, this class is thread-safe for both concurrent reads and
+ * writes. The caller must make sure there are no reads or writes to the list after it's
+ * closed, since chunk memory is freed immediately.
+ */
+public final class LongListNative extends AbstractLongList<Long> implements OffHeapUser {
+
+    /** Size of a direct buffer used to transfer chunk data to and from files */
+    private static final int TRANSFER_BUFFER_SIZE = MEBIBYTES_TO_BYTES;
+
+    /**
+     * Construct a new LongListNative with the default 8Mb chunk size and 2Mb of reserved buffer
+     */
+    public LongListNative() {
+        this(DEFAULT_NUM_LONGS_PER_CHUNK, DEFAULT_MAX_LONGS_TO_STORE, DEFAULT_RESERVED_BUFFER_LENGTH);
+    }
+
+    /**
+     * Construct a new LongListNative with the specified chunk size
+     *
+     * @param numLongsPerChunk size for each chunk of memory to allocate. Max 16Gb = 16,384Mb
+     * @param maxLongs the maximum number of longs permissible for this LongList
+     * @param reservedBufferLength the number of indices before the minimal index to keep reserved
+     */
+    LongListNative(final int numLongsPerChunk, final long maxLongs, final long reservedBufferLength) {
+        super(numLongsPerChunk, maxLongs, reservedBufferLength);
+    }
+
+    /**
+     * Construct a new LongListNative with the default 8Mb chunk size and the specified reserved buffer
+     */
+    public LongListNative(final int reservedBufferLength) {
+        this(DEFAULT_NUM_LONGS_PER_CHUNK, DEFAULT_MAX_LONGS_TO_STORE, reservedBufferLength);
+    }
+
+    /**
+     * Create a {@link LongListNative} from a file that was saved.
+     *
+     * @throws IOException If there was a problem reading the file
+     */
+    public LongListNative(final Path file, final Configuration configuration) throws IOException {
+        super(file, DEFAULT_RESERVED_BUFFER_LENGTH, configuration);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Long readChunkData(
+            final FileChannel fileChannel, final int chunkIndex, final int startIndex, final int endIndex)
+            throws IOException {
+        final long chunk = createChunk();
+        final long startOffset = (long) startIndex * Long.BYTES;
+        final long endOffset = (long) endIndex * Long.BYTES;
+        final ByteBuffer transferBuffer =
+                ByteBuffer.allocateDirect(toIntExact(min(TRANSFER_BUFFER_SIZE, endOffset - startOffset)));
+        try {
+            long offset = startOffset;
+            while (offset < endOffset) {
+                final int bytesToRead = toIntExact(min(endOffset - offset, transferBuffer.capacity()));
+                transferBuffer.clear().limit(bytesToRead);
+                final int bytesRead = MerkleDbFileUtils.completelyRead(fileChannel, transferBuffer);
+                if (bytesRead != bytesToRead) {
+                    throw new IOException("Failed to read chunks, chunkIndex=" + chunkIndex + " expected="
+                            + bytesToRead + " actual=" + bytesRead);
+                }
+                NativeMemory.copyMemory(transferBuffer, 0, chunk + offset, bytesToRead);
+                offset += bytesToRead;
+            }
+        } catch (final IOException e) {
+            closeChunk(chunk);
+            throw e;
+        } finally {
+            MemoryUtils.closeDirectByteBuffer(transferBuffer);
+        }
+        return chunk;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void closeChunk(@NonNull final Long chunk) {
+        NativeMemory.freeMemory(chunk);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void putToChunk(final Long chunk, final int subIndex, final long value) {
+        NativeMemory.putLongVolatile(chunk + (long) subIndex * Long.BYTES, value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean putIfEqual(final Long chunk, final int subIndex, final long oldValue, final long newValue) {
+        return NativeMemory.compareAndSwapLong(chunk + (long) subIndex * Long.BYTES, oldValue, newValue);
+    }
+
+    /**
+     * Write the long data to file, This it is expected to be in one simple block of raw longs.
+     *
+     * @param fc The file channel to write to
+     * @throws IOException if there was a problem writing longs
+     */
+    @Override
+    protected void writeLongsData(final FileChannel fc) throws IOException {
+        final long currentSize = size();
+        final int totalNumOfChunks = calculateNumberOfChunks(currentSize);
+        final long currentMinValidIndex = minValidIndex.get();
+        final int firstChunkWithDataIndex = toIntExact(currentMinValidIndex / numLongsPerChunk);
+        final ByteBuffer transferBuffer = ByteBuffer.allocateDirect(TRANSFER_BUFFER_SIZE);
+        try {
+            for (int i = firstChunkWithDataIndex; i < totalNumOfChunks; i++) {
+                final Long chunk = chunkList.get(i);
+                // writing starts from the first valid index in the first valid chunk
+                final long startOffset =
+                        (i == firstChunkWithDataIndex) ? (currentMinValidIndex % numLongsPerChunk) * Long.BYTES : 0;
+                // the last chunk is only written up to the list size
+                final long endOffset = (i == totalNumOfChunks - 1)
+                        ? currentSize * Long.BYTES - (long) memoryChunkSize * i
+                        : memoryChunkSize;
+                long offset = startOffset;
+                while (offset < endOffset) {
+                    final int bytesToWrite = toIntExact(min(endOffset - offset, TRANSFER_BUFFER_SIZE));
+                    if (chunk != null) {
+                        NativeMemory.copyMemory(chunk + offset, transferBuffer, 0, bytesToWrite);
+                    } else {
+                        MemoryUtils.setMemory(transferBuffer, 0, bytesToWrite, (byte) 0);
+                    }
+                    transferBuffer.clear().limit(bytesToWrite);
+                    MerkleDbFileUtils.completelyWrite(fc, transferBuffer);
+                    offset += bytesToWrite;
+                }
+            }
+        } finally {
+            MemoryUtils.closeDirectByteBuffer(transferBuffer);
+        }
+    }
+
+    /**
+     * Lookup a long in a data chunk.
+     *
+     * @param chunk     The data chunk
+     * @param subIndex   The sub index of the long in that chunk
+     * @return The stored long value at given index
+     */
+    @Override
+    protected long lookupInChunk(@NonNull final Long chunk, final long subIndex) {
+        return NativeMemory.getLongVolatile(chunk + subIndex * Long.BYTES);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Long createChunk() {
+        final long chunk = NativeMemory.allocateMemory(memoryChunkSize);
+        // zero is IMPERMISSIBLE_VALUE, i.e. no value
+        NativeMemory.setMemory(chunk, memoryChunkSize, (byte) 0);
+        return chunk;
+    }
+
+    /**
+     * Looks up a chunk by {@code chunkIndex} and, if the chunk exists,
+     * zeros values up to {@code elementsToCleanUp} index.
+     *
+     * @param chunk            a chunk to clean up,
+     * @param entriesToCleanUp number of elements to clean up starting with 0 index
+     */
+    @Override
+    protected void partialChunkCleanup(@NonNull final Long chunk, final boolean leftSide, final long entriesToCleanUp) {
+        if (leftSide) {
+            // cleans up all values up to newMinValidIndex in the first chunk
+            NativeMemory.setMemory(chunk, entriesToCleanUp * Long.BYTES, (byte) 0);
+        } else {
+            // cleans up all values on the right side of the last chunk
+            final long offset = (numLongsPerChunk - entriesToCleanUp) * Long.BYTES;
+            NativeMemory.setMemory(chunk + offset, entriesToCleanUp * Long.BYTES, (byte) 0);
+        }
+    }
+
+    /**
+     * Measures the amount of off-heap memory consumption.
+     * It doesn't guarantee the exact result, there is a chance it may deviate
+     * by a chunk size from the actual amount if this chunk was added or removed while the measurement.
+     *
+     * @return the amount of off-heap memory (in bytes) consumed by the list
+     */
+    @Override
+    public long getOffHeapConsumption() {
+        int nonEmptyChunkCount = 0;
+        final int chunkListSize = chunkList.length();
+        for (int i = 0; i < chunkListSize; i++) {
+            if (chunkList.get(i) != null) {
+                nonEmptyChunkCount++;
+            }
+        }
+        return (long) nonEmptyChunkCount * memoryChunkSize;
+    }
+}
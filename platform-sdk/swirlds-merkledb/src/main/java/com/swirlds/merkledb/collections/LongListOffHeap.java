@@ -6,6 +6,7 @@ import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNullElse;
 
 import com.swirlds.config.api.Configuration;
+import com.swirlds.merkledb.utilities.DirectMemoryAllocator;
 import com.swirlds.merkledb.utilities.MemoryUtils;
 import com.swirlds.merkledb.utilities.MerkleDbFileUtils;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -86,7 +87,7 @@ public final class LongListOffHeap extends AbstractLongList<ByteBuffer> implemen
     /** {@inheritDoc} */
     @Override
     protected void closeChunk(@NonNull final ByteBuffer directBuffer) {
-        MemoryUtils.closeDirectByteBuffer(directBuffer);
+        DirectMemoryAllocator.release(directBuffer);
     }
 
     /** {@inheritDoc} */
@@ -151,7 +152,19 @@ public final class LongListOffHeap extends AbstractLongList<ByteBuffer> implemen
             }
         } finally {
             // releasing memory allocated
-            MemoryUtils.closeDirectByteBuffer(emptyBuffer);
+            closeChunk(emptyBuffer);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void writeChunkData(
+            final FileChannel fc, @NonNull final ByteBuffer chunk, final ByteBuffer transferBuffer)
+            throws IOException {
+        // Slice so we don't mess with the byte buffer pointers
+        final ByteBuffer buf = chunk.slice(0, memoryChunkSize);
+        if (MerkleDbFileUtils.completelyWrite(fc, buf) != memoryChunkSize) {
+            throw new IOException("Failed to write long list chunk to the file channel " + fc);
         }
     }
 
@@ -179,7 +192,7 @@ public final class LongListOffHeap extends AbstractLongList<ByteBuffer> implemen
     }
 
     protected ByteBuffer createChunk() {
-        final ByteBuffer directBuffer = ByteBuffer.allocateDirect(memoryChunkSize);
+        final ByteBuffer directBuffer = DirectMemoryAllocator.allocate(memoryChunkSize);
         directBuffer.order(ByteOrder.nativeOrder());
         return directBuffer;
     }
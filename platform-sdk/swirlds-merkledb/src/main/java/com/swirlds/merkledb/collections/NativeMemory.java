@@ -0,0 +1,151 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb.collections;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import sun.misc.Unsafe;
+
+/**
+ * Raw native memory access for {@link LongListNative}. Memory blocks are addressed directly, and
+ * none of the methods check addresses, so they are kept package-private rather than exposed in
+ * {@link com.swirlds.merkledb.utilities.MemoryUtils}.
+ */
+final class NativeMemory {
+
+    private static final Unsafe UNSAFE;
+
+    /** Offset of the {@code java.nio.Buffer#address} field. */
+    private static final long BYTE_BUFFER_ADDRESS_FIELD_OFFSET;
+
+    static {
+        try {
+            final Field f = Unsafe.class.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            UNSAFE = (Unsafe) f.get(null);
+            BYTE_BUFFER_ADDRESS_FIELD_OFFSET = UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+        } catch (NoSuchFieldException | SecurityException | IllegalArgumentException | IllegalAccessException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    private NativeMemory() {}
+
+    /**
+     * Allocates a block of native memory. The memory is not initialized. The block must be
+     * released using {@link #freeMemory(long)}, it isn't tracked by GC.
+     *
+     * @param bytes the block size, in bytes
+     * @return the block address
+     */
+    static long allocateMemory(final long bytes) {
+        return UNSAFE.allocateMemory(bytes);
+    }
+
+    /**
+     * Releases a block of native memory allocated using {@link #allocateMemory(long)}.
+     *
+     * @param address the block address
+     */
+    static void freeMemory(final long address) {
+        UNSAFE.freeMemory(address);
+    }
+
+    /**
+     * Reads a long from native memory with volatile semantics.
+     *
+     * <p>This method performs no checks. The address must point to a live block allocated using
+     * {@link #allocateMemory(long)}, the 8 bytes at the address must be within the block, and the
+     * address must be 8-byte aligned. Otherwise, the result is undefined, and the JVM may crash.
+     *
+     * @param address the native memory address
+     * @return the long value
+     */
+    static long getLongVolatile(final long address) {
+        return UNSAFE.getLongVolatile(null, address);
+    }
+
+    /**
+     * Writes a long to native memory with volatile semantics.
+     *
+     * <p>This method performs no checks. The address must point to a live block allocated using
+     * {@link #allocateMemory(long)}, the 8 bytes at the address must be within the block, and the
+     * address must be 8-byte aligned. Otherwise, the behavior is undefined, and the JVM may crash
+     * or unrelated memory may be corrupted.
+     *
+     * @param address the native memory address
+     * @param value the long value
+     */
+    static void putLongVolatile(final long address, final long value) {
+        UNSAFE.putLongVolatile(null, address, value);
+    }
+
+    /**
+     * Atomically updates a long in native memory, if its current value is the expected value.
+     *
+     * <p>This method performs no checks. The address must point to a live block allocated using
+     * {@link #allocateMemory(long)}, the 8 bytes at the address must be within the block, and the
+     * address must be 8-byte aligned, otherwise the update isn't guaranteed to be atomic. Invalid
+     * addresses result in undefined behavior, the JVM may crash or unrelated memory may be corrupted.
+     *
+     * @param address the native memory address
+     * @param expected the expected current value
+     * @param value the new value
+     * @return whether the value was updated
+     */
+    static boolean compareAndSwapLong(final long address, final long expected, final long value) {
+        return UNSAFE.compareAndSwapLong(null, address, expected, value);
+    }
+
+    /**
+     * Fills a range of native memory with the given byte.
+     *
+     * <p>This method performs no checks. The whole range must be within a live block allocated
+     * using {@link #allocateMemory(long)}. Otherwise, the behavior is undefined, and the JVM may
+     * crash or unrelated memory may be corrupted.
+     *
+     * @param address the range start address
+     * @param len the range length, in bytes
+     * @param value the byte to fill the range with
+     */
+    static void setMemory(final long address, final long len, final byte value) {
+        UNSAFE.setMemory(address, len, value);
+    }
+
+    /**
+     * Copies bytes from native memory to a direct byte buffer. Buffer position and limit are
+     * not changed. The source range is not checked.
+     *
+     * @param srcAddress the source address
+     * @param dst the destination buffer, must be direct
+     * @param dstOffset the offset in the destination buffer
+     * @param len the number of bytes to copy
+     */
+    static void copyMemory(final long srcAddress, @NonNull final ByteBuffer dst, final long dstOffset, final long len) {
+        Objects.checkFromIndexSize(dstOffset, len, dst.capacity());
+        UNSAFE.copyMemory(srcAddress, bufferAddress(dst) + dstOffset, len);
+    }
+
+    /**
+     * Copies bytes from a direct byte buffer to native memory. Buffer position and limit are
+     * not changed. The destination range is not checked.
+     *
+     * @param src the source buffer, must be direct
+     * @param srcOffset the offset in the source buffer
+     * @param dstAddress the destination address
+     * @param len the number of bytes to copy
+     */
+    static void copyMemory(@NonNull final ByteBuffer src, final long srcOffset, final long dstAddress, final long len) {
+        Objects.checkFromIndexSize(srcOffset, len, src.capacity());
+        UNSAFE.copyMemory(bufferAddress(src) + srcOffset, dstAddress, len);
+    }
+
+    private static long bufferAddress(@NonNull final ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("buffer.isDirect() must be true");
+        }
+        return UNSAFE.getLong(buffer, BYTE_BUFFER_ADDRESS_FIELD_OFFSET);
+    }
+}
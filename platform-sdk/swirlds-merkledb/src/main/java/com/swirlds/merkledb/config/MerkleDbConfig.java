@@ -47,12 +47,63 @@ import com.swirlds.config.extensions.validators.DefaultConfigViolation;
  * @param reservedBufferLengthForLeafList
  *      Length of a reserved buffer in a LongList used to store leafs. Value in bytes.
  * @param leafRecordCacheSize
- *      Cache size in bytes for reading virtual leaf records. Initialized in data source creation time from MerkleDb config.
- *      If the value is zero, leaf records cache isn't used.
+ *      Max number of virtual leaf records in the leaf records cache, per data source. Initialized in data source
+ *      creation time from MerkleDb config. If the value is zero, leaf records cache isn't used. Individual tables may
+ *      bypass the cache, see {@link com.swirlds.merkledb.MerkleDbTableConfig#leafRecordCacheBypassed(boolean)}. The
+ *      cache is also limited by size in bytes, see {@link #leafRecordCacheMaxBytes}.
  * @param maxFileChannelsPerFileReader
  *     Maximum number of file channels per file reader.
  * @param maxThreadsPerFileChannel
  *    Maximum number of threads per file channel.
+ * @param memoryMappedReadsEnabled
+ *      If true, data file readers memory-map fully written, immutable data files and serve data item reads as
+ *      zero-copy slices of the mapped regions rather than through file channels. Files that are still being
+ *      written are always read using file channels.
+ * @param compactionMaxBytesPerSecond
+ *      Maximum bandwidth, in bytes per second, that all compactions together may use to copy data items. If
+ *      zero, compaction bandwidth isn't limited.
+ * @param compactionPausedDuringFlushes
+ *      If true, compactions are put on hold while data source flushes are in progress. Under a continuous flush
+ *      load, compactions may then be postponed indefinitely, so this is disabled by default.
+ * @param halfDiskHashMapBloomFilterBitsPerBucket
+ *      Number of bits in a per-bucket bloom filter of key hash codes in HalfDiskHashMap, rounded up to a power
+ *      of two. The filter lets reads of missing keys skip reading buckets from disk. If zero, the filter is
+ *      disabled.
+ * @param indexRebuildingThreads
+ *      Number of threads to use to rebuild indexes from data files on startup, when indexes are missing or
+ *      {@link #indexRebuildingEnforced} is set. Data files are processed in parallel, one file per thread. If set
+ *      to a negative value, the number of available processors is used. If set to 1, data files are processed
+ *      sequentially.
+ * @param offHeapHugePageAlignment
+ *      If true, off-heap index and hash list buffers are aligned to huge page boundaries, so they can be fully
+ *      backed by transparent huge pages, if the host transparent huge pages mode is "always". Buffers are not
+ *      advised to use huge pages, so in "madvise" mode this setting has no effect on page sizes. It costs up to one
+ *      extra huge page of memory per buffer. This setting is global, it's read from the config of the first
+ *      created data source.
+ * @param halfDiskHashMapFlushMaxCoalescedReadBytes
+ *      Max size of a single read of multiple buckets during HalfDiskHashMap flushes. Buckets to update are
+ *      sorted by their locations on disk, and buckets that are close to each other in the same file are read
+ *      with a single file read up to this size. If zero, every bucket is read separately.
+ * @param incrementalSnapshots
+ *      If true, data source indices are written to snapshots incrementally: every index is stored as a small
+ *      header file and a file per index chunk. Every index keeps the current version of its chunks in base
+ *      chunk files in the data source storage directory. Chunks not changed since the previous snapshot are
+ *      hard linked from these files rather than written again, changed chunks replace base chunk files with
+ *      new files, so snapshots never change. Data files are always hard linked. Snapshots in both formats can
+ *      be loaded regardless of this setting.
+ * @param hashStoreChunksCompressed
+ *      If true, hash chunks are compressed when written to tables with chunked hash stores, see {@link
+ *      com.swirlds.merkledb.MerkleDbTableConfig#hashStoreChunkHeight(int)}. Chunks are only stored compressed, if
+ *      it makes them smaller. Chunk stores may contain both compressed and uncompressed chunks, so this setting can
+ *      be changed for existing tables.
+ * @param leafRecordCacheMaxBytes
+ *      Max estimated size in bytes of the leaf records cache, per data source. Records are evicted from the cache
+ *      when either this limit or {@link #leafRecordCacheSize} is reached. If the value is zero, leaf records cache
+ *      isn't used.
+ * @param batchReadThreads
+ *      Number of threads to read data from disk in batch lookups, for example, when multiple leaf records are
+ *      loaded by keys at once. The threads are shared by all data sources. If set to a negative value, the number
+ *      of available processors is used.
  */
 @ConfigData("merkleDb")
 public record MerkleDbConfig(
@@ -71,7 +122,18 @@ public record MerkleDbConfig(
         @ConfigProperty(defaultValue = "262144") int reservedBufferLengthForLeafList,
         @ConfigProperty(defaultValue = "1048576") int leafRecordCacheSize,
         @Min(1) @ConfigProperty(defaultValue = "8") int maxFileChannelsPerFileReader,
-        @Min(1) @ConfigProperty(defaultValue = "8") int maxThreadsPerFileChannel) {
+        @Min(1) @ConfigProperty(defaultValue = "8") int maxThreadsPerFileChannel,
+        @ConfigProperty(defaultValue = "false") boolean memoryMappedReadsEnabled,
+        @Min(0) @ConfigProperty(defaultValue = "0") long compactionMaxBytesPerSecond,
+        @ConfigProperty(defaultValue = "false") boolean compactionPausedDuringFlushes,
+        @Min(0) @ConfigProperty(defaultValue = "0") int halfDiskHashMapBloomFilterBitsPerBucket,
+        @ConfigProperty(defaultValue = "-1") int indexRebuildingThreads,
+        @ConfigProperty(defaultValue = "false") boolean offHeapHugePageAlignment,
+        @Min(0) @ConfigProperty(defaultValue = "262144") int halfDiskHashMapFlushMaxCoalescedReadBytes,
+        @ConfigProperty(defaultValue = "false") boolean incrementalSnapshots,
+        @ConfigProperty(defaultValue = "false") boolean hashStoreChunksCompressed,
+        @Min(0) @ConfigProperty(defaultValue = "33554432") long leafRecordCacheMaxBytes,
+        @ConfigProperty(defaultValue = "-1") int batchReadThreads) {
 
     static double UNIT_FRACTION_PERCENT = 100.0;
 
@@ -96,4 +158,17 @@ public record MerkleDbConfig(
                 : numHalfDiskHashMapFlushThreads();
         return Math.max(1, threads);
     }
+
+    public int getNumIndexRebuildingThreads() {
+        final int threads = (indexRebuildingThreads() < 0)
+                ? Runtime.getRuntime().availableProcessors()
+                : indexRebuildingThreads();
+        return Math.max(1, threads);
+    }
+
+    public int getNumBatchReadThreads() {
+        final int threads =
+                (batchReadThreads() < 0) ? Runtime.getRuntime().availableProcessors() : batchReadThreads();
+        return Math.max(1, threads);
+    }
 }
@@ -0,0 +1,179 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb.files;
+
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
+import static com.swirlds.merkledb.MerkleDb.MERKLEDB_COMPONENT;
+import static java.util.Objects.requireNonNull;
+
+import com.swirlds.common.threading.framework.config.ThreadConfiguration;
+import com.swirlds.merkledb.config.MerkleDbConfig;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Runs disk reads of batch lookups, for example, {@link
+ * com.swirlds.merkledb.files.hashmap.HalfDiskHashMap#getAll(com.hedera.pbj.runtime.io.buffer.Bytes[], int[], long)},
+ * in parallel. Reads are run in a thread pool shared by all data sources. The pool size is limited by
+ * {@link MerkleDbConfig#getNumBatchReadThreads()}, so batch reads don't compete with other tasks in the
+ * common fork-join pool, and the number of reads in flight doesn't depend on batch sizes.
+ */
+public final class BatchReadExecutor {
+
+    private static final Logger logger = LogManager.getLogger(BatchReadExecutor.class);
+
+    /**
+     * A read of a single batch item.
+     */
+    @FunctionalInterface
+    public interface ItemRead {
+        /**
+         * Reads a batch item.
+         *
+         * @param index the item index in the batch
+         * @throws IOException if an I/O error occurred
+         */
+        void read(int index) throws IOException;
+    }
+
+    /**
+     * The shared thread pool. Accessed using {@link #getExecutor(MerkleDbConfig)}.
+     */
+    private static ThreadPoolExecutor executor = null;
+
+    private BatchReadExecutor() {}
+
+    /**
+     * This method uses the provided configuration. Consequently, the executor will be initialized using
+     * the configuration provided by the first caller. Subsequent calls will reuse the same executor,
+     * regardless of any new configurations provided.
+     * FUTURE WORK: it can be moved to MerkleDb.
+     */
+    private static synchronized ThreadPoolExecutor getExecutor(final @NonNull MerkleDbConfig merkleDbConfig) {
+        requireNonNull(merkleDbConfig);
+
+        if (executor == null) {
+            final int threads = merkleDbConfig.getNumBatchReadThreads();
+            executor = new ThreadPoolExecutor(
+                    threads,
+                    threads,
+                    0L,
+                    TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    new ThreadConfiguration(getStaticThreadManager())
+                            .setComponent(MERKLEDB_COMPONENT)
+                            .setThreadName("BatchRead")
+                            .setExceptionHandler((t, ex) ->
+                                    logger.error(EXCEPTION.getMarker(), "Uncaught exception during batch read", ex))
+                            .buildFactory());
+        }
+        return executor;
+    }
+
+    /**
+     * Reads all items of a batch. Items are read roughly in the order of their indices, which
+     * callers may use to order reads by disk locations. The calling thread reads items, too, so
+     * the batch is completed even if all pool threads are busy. This method returns once all
+     * items are read.
+     *
+     * @param merkleDbConfig MerkleDb config, used to create the thread pool on first use
+     * @param count the number of items in the batch
+     * @param itemRead the read to run for every item index from 0 to {@code count - 1}
+     * @throws IOException if any of the reads failed, other failed reads are added as suppressed exceptions
+     */
+    public static void readAll(
+            final @NonNull MerkleDbConfig merkleDbConfig, final int count, final @NonNull ItemRead itemRead)
+            throws IOException {
+        requireNonNull(itemRead);
+        if (count <= 1) {
+            if (count == 1) {
+                itemRead.read(0);
+            }
+            return;
+        }
+        final ThreadPoolExecutor pool = getExecutor(merkleDbConfig);
+        final AtomicInteger nextIndex = new AtomicInteger(0);
+        final Runnable worker = () -> {
+            int index;
+            while ((index = nextIndex.getAndIncrement()) < count) {
+                try {
+                    itemRead.read(index);
+                } catch (final IOException e) {
+                    // Skip the rest of the batch
+                    nextIndex.set(count);
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        final int poolWorkers = Math.min(count, pool.getMaximumPoolSize()) - 1;
+        final List<Future<?>> futures = new ArrayList<>(poolWorkers);
+        for (int i = 0; i < poolWorkers; i++) {
+            futures.add(pool.submit(worker));
+        }
+        Throwable error = null;
+        try {
+            worker.run();
+        } catch (final RuntimeException | Error e) {
+            error = unwrap(e);
+        }
+        boolean interrupted = false;
+        for (final Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (final ExecutionException e) {
+                error = addError(error, unwrap(e.getCause()));
+            } catch (final InterruptedException e) {
+                // Let pool workers finish their current items, but not start new ones. Workers are not
+                // interrupted, as interrupted reads would close file channels shared with other readers
+                nextIndex.set(count);
+                futures.forEach(f -> f.cancel(false));
+                interrupted = true;
+                break;
+            } catch (final CancellationException e) {
+                error = addError(error, e);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException e = new InterruptedIOException("Interrupted while waiting for batch reads");
+            if (error != null) {
+                e.addSuppressed(error);
+            }
+            throw e;
+        }
+        if (error instanceof IOException e) {
+            throw e;
+        } else if (error instanceof RuntimeException e) {
+            throw e;
+        } else if (error instanceof Error e) {
+            throw e;
+        } else if (error != null) {
+            throw new IOException(error);
+        }
+    }
+
+    private static Throwable unwrap(final Throwable error) {
+        return (error instanceof UncheckedIOException e) ? e.getCause() : error;
+    }
+
+    private static Throwable addError(final Throwable error, final Throwable newError) {
+        if (error == null) {
+            return newError;
+        }
+        error.addSuppressed(newError);
+        return error;
+    }
+}
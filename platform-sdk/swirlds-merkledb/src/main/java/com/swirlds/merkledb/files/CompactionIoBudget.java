@@ -0,0 +1,146 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb.files;
+
+/**
+ * Limits the I/O bandwidth used by compactions. All compactors that share a disk are expected to share
+ * a single budget instance.
+ *
+ * <p>The budget is a token bucket. Every byte copied by a compaction consumes a token, and tokens are
+ * refilled at the configured rate, up to one second worth of bytes. When the bucket is empty, compaction
+ * threads sleep until enough tokens are refilled. If the rate is zero, compactions are not throttled.
+ *
+ * <p>In addition to bandwidth limits, compactions can be put on hold while data source flushes are in
+ * progress. Flushes are on the critical path of the platform, and compactions running in parallel to
+ * them compete for the same disk. Flushes are registered using {@link #flushStarted()} and
+ * {@link #flushFinished()}, which must always be balanced.
+ */
+public class CompactionIoBudget {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Max number of bytes compactions may copy before acquiring them from the budget.
+     */
+    private static final long MAX_ACQUIRE_BATCH_BYTES = 1024 * 1024;
+
+    /**
+     * Compactions acquire budget at least this many times per second, if the bandwidth is limited.
+     */
+    private static final long MIN_ACQUIRES_PER_SECOND = 10;
+
+    /**
+     * Max compaction bandwidth, bytes per second. Zero means unlimited.
+     */
+    private final long bytesPerSecond;
+
+    /**
+     * Whether compactions should wait for running flushes to complete.
+     */
+    private final boolean pauseDuringFlushes;
+
+    /**
+     * Number of tokens (bytes) currently available. May be negative, if a large data item is
+     * copied when the bucket is almost empty. Guarded by this object's monitor.
+     */
+    private long tokens;
+
+    /**
+     * Last time tokens were refilled, in nanos. Guarded by this object's monitor.
+     */
+    private long lastRefillNanos;
+
+    /**
+     * Number of flushes currently in progress. Guarded by this object's monitor.
+     */
+    private int flushesInProgress = 0;
+
+    /**
+     * Creates a new compaction I/O budget.
+     *
+     * @param bytesPerSecond max compaction bandwidth, bytes per second, or zero for no limit
+     * @param pauseDuringFlushes whether compactions should be put on hold while flushes are in progress
+     */
+    public CompactionIoBudget(final long bytesPerSecond, final boolean pauseDuringFlushes) {
+        if (bytesPerSecond < 0) {
+            throw new IllegalArgumentException("Compaction bandwidth must not be negative");
+        }
+        this.bytesPerSecond = bytesPerSecond;
+        this.pauseDuringFlushes = pauseDuringFlushes;
+        this.tokens = bytesPerSecond;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Registers a new flush. Until a matching call to {@link #flushFinished()}, all compactions that
+     * use this budget will be on hold, if configured so.
+     */
+    public synchronized void flushStarted() {
+        flushesInProgress++;
+    }
+
+    /**
+     * Unregisters a flush previously registered with {@link #flushStarted()}.
+     */
+    public synchronized void flushFinished() {
+        assert flushesInProgress > 0;
+        flushesInProgress--;
+        if (flushesInProgress == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Acquires budget to copy the given number of bytes. This method blocks while flushes are in
+     * progress (if configured), and then until the bandwidth limit allows the bytes to be copied.
+     *
+     * <p>This method must not be called while holding any locks that snapshots or flushes may need.
+     *
+     * @param bytes number of bytes to copy
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public void acquire(final long bytes) throws InterruptedException {
+        final long waitNanos;
+        synchronized (this) {
+            while (pauseDuringFlushes && (flushesInProgress > 0)) {
+                wait();
+            }
+            if (bytesPerSecond == 0) {
+                return;
+            }
+            final long now = System.nanoTime();
+            final long elapsedNanos = now - lastRefillNanos;
+            lastRefillNanos = now;
+            final long refill = elapsedNanos >= NANOS_PER_SECOND
+                    ? bytesPerSecond
+                    : (long) ((double) elapsedNanos * bytesPerSecond / NANOS_PER_SECOND);
+            tokens = Math.min(bytesPerSecond, tokens + refill);
+            tokens -= bytes;
+            waitNanos = tokens >= 0 ? 0 : (long) ((double) -tokens * NANOS_PER_SECOND / bytesPerSecond);
+        }
+        if (waitNanos > 0) {
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+
+    /**
+     * Returns the number of bytes compactions should copy before acquiring them from this budget
+     * with a single {@link #acquire(long)} call. Batches are limited by {@link
+     * #MAX_ACQUIRE_BATCH_BYTES}, and for low bandwidth limits by a fraction of the bandwidth, so
+     * compactions are throttled smoothly rather than in long bursts.
+     *
+     * @return the number of bytes to acquire at once
+     */
+    public long getAcquireBatchBytes() {
+        if (bytesPerSecond == 0) {
+            return MAX_ACQUIRE_BATCH_BYTES;
+        }
+        return Math.max(1, Math.min(MAX_ACQUIRE_BATCH_BYTES, bytesPerSecond / MIN_ACQUIRES_PER_SECOND));
+    }
+
+    /**
+     * Returns the max compaction bandwidth, bytes per second, or zero if not limited.
+     */
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+}
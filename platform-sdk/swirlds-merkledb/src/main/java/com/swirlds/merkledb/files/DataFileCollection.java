@@ -29,10 +29,12 @@ import com.swirlds.merkledb.config.MerkleDbConfig;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -41,7 +43,11 @@ import java.util.List;
 import java.util.LongSummaryStatistics;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -115,6 +121,10 @@ public class DataFileCollection implements Snapshotable {
     private final AtomicInteger nextFileIndex = new AtomicInteger();
     /** The range of valid data item keys for data currently stored by this data file collection. */
     private volatile KeyRange validKeyRange = INVALID_KEY_RANGE;
+    /** Total size of all data files written by flushes since this collection was opened, in bytes. */
+    private final AtomicLong flushedBytes = new AtomicLong();
+    /** Number of bytes written by the last snapshot. Data files are hard linked and not counted */
+    private volatile long lastSnapshotBytesWritten = 0;
 
     /**
      * The list of current files in this data file collection. The files are added to this list
@@ -312,6 +322,42 @@ public class DataFileCollection implements Snapshotable {
                         .summaryStatistics();
     }
 
+    /**
+     * Get the total number of bytes of all data files in this collection currently memory mapped
+     * for reads.
+     *
+     * @return mapped size of all files, in bytes
+     */
+    public long getMappedFilesSize() {
+        final ImmutableIndexedObjectList<DataFileReader> activeIndexedFiles = dataFiles.get();
+        return activeIndexedFiles == null
+                ? 0
+                : activeIndexedFiles.stream()
+                        .mapToLong(DataFileReader::getMappedSize)
+                        .sum();
+    }
+
+    /**
+     * Get the total size of all data files written using {@link #startWriting()} and {@link
+     * #endWriting(long, long)} since this collection was opened. Files created by compactions
+     * aren't included.
+     *
+     * @return total flushed size, in bytes
+     */
+    public long getFlushedBytes() {
+        return flushedBytes.get();
+    }
+
+    /**
+     * Returns the number of bytes written to disk by the last {@link #snapshot(Path)} call. Only
+     * the metadata file is written, data files are hard linked.
+     *
+     * @return the number of bytes written by the last snapshot
+     */
+    public long getLastSnapshotBytesWritten() {
+        return lastSnapshotBytesWritten;
+    }
+
     /** Close all the data files */
     public void close() throws IOException {
         // finish writing if we still are
@@ -402,6 +448,7 @@ public class DataFileCollection implements Snapshotable {
         // finish writing the file and write its footer
         dataWriter.finishWriting();
         final DataFileReader dataReader = currentDataFileReader.getAndSet(null);
+        flushedBytes.addAndGet(Files.size(dataWriter.getPath()));
         if (logger.isTraceEnabled()) {
             final DataFileMetadata metadata = dataReader.getMetadata();
             setOfNewFileIndexes.remove(metadata.getIndex());
@@ -470,6 +517,28 @@ public class DataFileCollection implements Snapshotable {
         return (file != null) ? file.readDataItem(dataLocation) : null;
     }
 
+    /**
+     * Read multiple data items, which are stored close to each other in a single data file, with
+     * a single file read. Data locations must all be in the same file and sorted by offset. See
+     * {@link DataFileReader#readDataItems(long[], int, int)} for details.
+     *
+     * <p>This method returns null, if the file is not found or already closed. Individual items
+     * may also be null, if they are not covered by the read. In both cases callers are expected
+     * to fall back to reading items one by one, e.g. using {@link #readDataItemUsingIndex(LongList,
+     * long)}.
+     *
+     * @param dataLocations data item locations, all in the same file
+     * @param from the index of the first location to read, inclusive
+     * @param to the index of the last location to read, exclusive
+     * @return data items in the same order as locations, or null if the file is not available
+     * @throws IOException If there was a problem reading the data items
+     */
+    public BufferedData[] readDataItems(final long[] dataLocations, final int from, final int to)
+            throws IOException {
+        final DataFileReader file = readerForDataLocation(dataLocations[from]);
+        return (file != null) ? file.readDataItems(dataLocations, from, to) : null;
+    }
+
     /**
      * Read a data item from any file that has finished being written. Uses a LongList that maps
      * key-&gt;dataLocation, this allows for multiple retries going back to the index each time. The
@@ -555,6 +624,7 @@ public class DataFileCollection implements Snapshotable {
     @Override
     public void snapshot(final Path snapshotDirectory) throws IOException {
         saveMetadata(snapshotDirectory);
+        lastSnapshotBytesWritten = Files.size(snapshotDirectory.resolve(storeName + METADATA_FILENAME_SUFFIX));
         final List<DataFileReader> snapshotIndexedFiles = getAllCompletedFiles();
         for (final DataFileReader fileReader : snapshotIndexedFiles) {
             final Path existingFile = fileReader.getPath();
@@ -588,6 +658,16 @@ public class DataFileCollection implements Snapshotable {
         void newIndexEntry(long dataLocation, @NonNull BufferedData dataValue);
     }
 
+    /**
+     * A callback, which can be called concurrently from multiple threads for different data files.
+     * Data files are then processed in parallel, and there is no guarantee that newer data items are
+     * passed to the callback after older ones. Implementations must resolve it themselves, for example,
+     * by only storing data locations greater than the current ones in the index, see {@link
+     * LongList#putIfGreater(long, long)}.
+     */
+    @FunctionalInterface
+    public interface ConcurrentLoadedDataCallback extends LoadedDataCallback {}
+
     // =================================================================================================================
     // Private API
 
@@ -779,15 +859,7 @@ public class DataFileCollection implements Snapshotable {
         nextFileIndex.set(getMaxFileReaderIndex(dataFileReaders) + 1);
         // now call indexEntryCallback
         if (loadedDataCallback != null) {
-            // now iterate over every file and every key
-            for (final DataFileReader reader : dataFileReaders) {
-                try (final DataFileIterator iterator = reader.createIterator()) {
-                    while (iterator.next()) {
-                        loadedDataCallback.newIndexEntry(
-                                iterator.getDataItemDataLocation(), iterator.getDataItemData());
-                    }
-                }
-            }
+            rebuildIndex(dataFileReaders, loadedDataCallback);
         }
         // Mark all files we loaded as being available for compactions
         for (final DataFileReader dataFileReader : dataFileReaders) {
@@ -797,6 +869,87 @@ public class DataFileCollection implements Snapshotable {
                 MERKLE_DB.getMarker(), "Finished loading existing data files for DataFileCollection [{}]", storeName);
     }
 
+    /**
+     * Iterates over every data item in every data file and calls the callback for it. If the callback
+     * is a {@link ConcurrentLoadedDataCallback} and more than one thread is configured, data files are
+     * processed in parallel, the largest files first. Otherwise data files are processed sequentially
+     * in data file index order.
+     */
+    private void rebuildIndex(final DataFileReader[] dataFileReaders, final LoadedDataCallback loadedDataCallback)
+            throws IOException {
+        final long[] fileSizes = new long[dataFileReaders.length];
+        long totalBytes = 0;
+        for (int i = 0; i < dataFileReaders.length; i++) {
+            fileSizes[i] = Files.size(dataFileReaders[i].getPath());
+            totalBytes += fileSizes[i];
+        }
+        final boolean parallel = (loadedDataCallback instanceof ConcurrentLoadedDataCallback)
+                && (dbConfig.getNumIndexRebuildingThreads() > 1)
+                && (dataFileReaders.length > 1);
+        final int threads = parallel ? Math.min(dbConfig.getNumIndexRebuildingThreads(), dataFileReaders.length) : 1;
+        final IndexRebuildProgress progress =
+                new IndexRebuildProgress(storeName, dataFileReaders.length, totalBytes, threads);
+        if (parallel) {
+            final Integer[] order = new Integer[dataFileReaders.length];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, (i1, i2) -> Long.compare(fileSizes[i2], fileSizes[i1]));
+            // Index rebuilding only happens on startup, so every rebuild uses its own pool, which is shut
+            // down once the rebuild is complete, rather than a static pool that lives as long as the JVM
+            final ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                final List<ForkJoinTask<Void>> tasks = new ArrayList<>(order.length);
+                for (final int i : order) {
+                    tasks.add(pool.submit(() -> {
+                        loadDataFile(dataFileReaders[i], fileSizes[i], loadedDataCallback, progress);
+                        return null;
+                    }));
+                }
+                try {
+                    for (final ForkJoinTask<Void> task : tasks) {
+                        task.get();
+                    }
+                } catch (final InterruptedException e) {
+                    tasks.forEach(task -> task.cancel(false));
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while rebuilding index for " + storeName, e);
+                } catch (final ExecutionException e) {
+                    tasks.forEach(task -> task.cancel(false));
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof IOException ioException) {
+                        throw ioException;
+                    } else if (cause instanceof UncheckedIOException uncheckedIOException) {
+                        throw uncheckedIOException.getCause();
+                    }
+                    throw new IOException("Failed to rebuild index for " + storeName, cause);
+                }
+            } finally {
+                // Running tasks, if any, are not interrupted, pool threads exit once they are done
+                pool.shutdown();
+            }
+        } else {
+            for (int i = 0; i < dataFileReaders.length; i++) {
+                loadDataFile(dataFileReaders[i], fileSizes[i], loadedDataCallback, progress);
+            }
+        }
+        progress.finished();
+    }
+
+    private static void loadDataFile(
+            final DataFileReader reader,
+            final long fileSize,
+            final LoadedDataCallback loadedDataCallback,
+            final IndexRebuildProgress progress)
+            throws IOException {
+        long items = 0;
+        try (final DataFileIterator iterator = reader.createIterator()) {
+            while (iterator.next()) {
+                loadedDataCallback.newIndexEntry(iterator.getDataItemDataLocation(), iterator.getDataItemData());
+                items++;
+            }
+        }
+        progress.fileLoaded(fileSize, items);
+    }
+
     private int getMaxFileReaderIndex(final DataFileReader[] dataFileReaders) {
         int maxIndex = -1;
         for (final DataFileReader reader : dataFileReaders) {
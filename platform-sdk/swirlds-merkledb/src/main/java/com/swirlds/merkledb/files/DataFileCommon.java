@@ -174,7 +174,7 @@ public final class DataFileCommon {
      * @param dataLocation packed data location
      * @return data offset in bytes
      */
-    static long byteOffsetFromDataLocation(final long dataLocation) {
+    public static long byteOffsetFromDataLocation(final long dataLocation) {
         return dataLocation & ITEM_OFFSET_MASK;
     }
 
@@ -25,8 +25,11 @@ import java.util.Map;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -45,6 +48,11 @@ public class DataFileCompactor {
      */
     public static final int INITIAL_COMPACTION_LEVEL = 0;
 
+    /**
+     * Garbage ratio reported by stores that can't estimate their numbers of live data items.
+     */
+    public static final double UNKNOWN_GARBAGE_RATIO = -1.0;
+
     private final MerkleDbConfig dbConfig;
 
     /**
@@ -73,12 +81,36 @@ public class DataFileCompactor {
 
     private final BiConsumer<Integer, Double> reportFileSizeByLevelMetricFunction;
 
+    /**
+     * A function that will be called to report write amplification of a compaction level
+     */
+    @Nullable
+    private final BiConsumer<Integer, Double> reportWriteAmplificationMetricFunction;
+
     /**
      * A function that updates statistics of total usage of disk space and off-heap space
      */
     @Nullable
     private final Runnable updateTotalStatsFunction;
 
+    /**
+     * I/O budget to acquire before copying data items, or null if compaction I/O isn't limited
+     */
+    @Nullable
+    private final CompactionIoBudget ioBudget;
+
+    /**
+     * Supplies the number of live data items in the store, or null if the store can't estimate it.
+     */
+    @Nullable
+    private final LongSupplier liveItemCountSupplier;
+
+    /**
+     * Total number of bytes written by this compactor to files of every compaction level. Used to
+     * calculate write amplification, together with {@link DataFileCollection#getFlushedBytes()}.
+     */
+    private final AtomicLongArray compactedBytesByLevel;
+
     /**
      * A lock used for synchronization between snapshots and compactions. While a compaction is in
      * progress, it runs on its own without any synchronization. However, a few critical sections
@@ -145,6 +177,46 @@ public class DataFileCompactor {
             @Nullable final BiConsumer<Integer, Double> reportSavedSpaceMetricFunction,
             @Nullable final BiConsumer<Integer, Double> reportFileSizeByLevelMetricFunction,
             @Nullable Runnable updateTotalStatsFunction) {
+        this(
+                dbConfig,
+                storeName,
+                dataFileCollection,
+                index,
+                reportDurationMetricFunction,
+                reportSavedSpaceMetricFunction,
+                reportFileSizeByLevelMetricFunction,
+                null,
+                updateTotalStatsFunction,
+                null,
+                null);
+    }
+
+    /**
+     * @param dbConfig                       MerkleDb config
+     * @param storeName                      name of the store to compact
+     * @param dataFileCollection             data file collection to compact
+     * @param index                          index to update during compaction
+     * @param reportDurationMetricFunction   function to report how long compaction took, in ms
+     * @param reportSavedSpaceMetricFunction function to report how much space was compacted, in Mb
+     * @param reportFileSizeByLevelMetricFunction function to report how much spaсе is used by the store by compaction level, in Mb
+     * @param reportWriteAmplificationMetricFunction function to report write amplification by compaction level
+     * @param updateTotalStatsFunction       A function that updates statistics of total usage of disk space and off-heap space
+     * @param ioBudget                       I/O budget to limit compaction bandwidth, or null for no limits
+     * @param liveItemCountSupplier          supplies the number of live data items in the store, used to estimate
+     *                                       its garbage ratio, or null if the store can't estimate it
+     */
+    public DataFileCompactor(
+            final MerkleDbConfig dbConfig,
+            final String storeName,
+            final DataFileCollection dataFileCollection,
+            CASableLongIndex index,
+            @Nullable final BiConsumer<Integer, Long> reportDurationMetricFunction,
+            @Nullable final BiConsumer<Integer, Double> reportSavedSpaceMetricFunction,
+            @Nullable final BiConsumer<Integer, Double> reportFileSizeByLevelMetricFunction,
+            @Nullable final BiConsumer<Integer, Double> reportWriteAmplificationMetricFunction,
+            @Nullable Runnable updateTotalStatsFunction,
+            @Nullable final CompactionIoBudget ioBudget,
+            @Nullable final LongSupplier liveItemCountSupplier) {
         this.dbConfig = dbConfig;
         this.storeName = storeName;
         this.dataFileCollection = dataFileCollection;
@@ -152,7 +224,11 @@ public class DataFileCompactor {
         this.reportDurationMetricFunction = reportDurationMetricFunction;
         this.reportSavedSpaceMetricFunction = reportSavedSpaceMetricFunction;
         this.reportFileSizeByLevelMetricFunction = reportFileSizeByLevelMetricFunction;
+        this.reportWriteAmplificationMetricFunction = reportWriteAmplificationMetricFunction;
         this.updateTotalStatsFunction = updateTotalStatsFunction;
+        this.ioBudget = ioBudget;
+        this.liveItemCountSupplier = liveItemCountSupplier;
+        this.compactedBytesByLevel = new AtomicLongArray(dbConfig.maxCompactionLevel() + 1);
     }
 
     /**
@@ -210,6 +286,11 @@ public class DataFileCompactor {
             readers[r.getIndex() - firstIndexInc] = r;
         }
 
+        // Bytes copied, but not yet acquired from the I/O budget. The budget is acquired in batches
+        // rather than per data item, as budget acquisitions are synchronized across all compactions
+        final long ioBudgetBatchBytes = (ioBudget != null) ? ioBudget.getAcquireBatchBytes() : 0;
+        final AtomicLong bytesToAcquire = new AtomicLong(0);
+
         boolean allDataItemsProcessed = false;
         try {
             final KeyRange keyRange = dataFileCollection.getValidKeyRange();
@@ -226,6 +307,7 @@ public class DataFileCompactor {
                     return;
                 }
                 final long fileOffset = DataFileCommon.byteOffsetFromDataLocation(dataLocation);
+                long itemSize = 0;
                 // Take the lock. If a snapshot is started in a different thread, this call
                 // will block until the snapshot is done. The current file will be flushed,
                 // and current data file writer and reader will point to a new file
@@ -234,6 +316,7 @@ public class DataFileCompactor {
                     final DataFileWriter newFileWriter = currentWriter.get();
                     final BufferedData itemBytes = reader.readDataItem(fileOffset);
                     assert itemBytes != null;
+                    itemSize = itemBytes.length();
                     long newLocation = newFileWriter.storeDataItem(itemBytes);
                     // update the index
                     index.putIfEqual(path, dataLocation, newLocation);
@@ -251,7 +334,14 @@ public class DataFileCompactor {
                 } finally {
                     snapshotCompactionLock.release();
                 }
+                // Throttle outside the lock, so snapshots are never blocked by compaction I/O limits
+                if ((ioBudget != null) && (bytesToAcquire.addAndGet(itemSize) >= ioBudgetBatchBytes)) {
+                    ioBudget.acquire(bytesToAcquire.getAndSet(0));
+                }
             });
+            if ((ioBudget != null) && (bytesToAcquire.get() > 0)) {
+                ioBudget.acquire(bytesToAcquire.getAndSet(0));
+            }
             allDataItemsProcessed = true;
         } finally {
             // Even if the thread is interrupted, make sure the new compacted file is properly closed
@@ -424,6 +514,7 @@ public class DataFileCompactor {
         }
 
         reportFileSizeByLevel(dataFileCollection.getAllCompletedFiles());
+        reportWriteAmplification(targetCompactionLevel, compactedFilesSize);
 
         logCompactStats(
                 storeName,
@@ -461,6 +552,38 @@ public class DataFileCompactor {
         }
     }
 
+    private void reportWriteAmplification(final int compactionLevel, final long compactedFilesSize) {
+        final long compactedBytes = compactedBytesByLevel.addAndGet(compactionLevel, compactedFilesSize);
+        final long flushedBytes = dataFileCollection.getFlushedBytes();
+        if ((reportWriteAmplificationMetricFunction != null) && (flushedBytes > 0)) {
+            reportWriteAmplificationMetricFunction.accept(compactionLevel, (double) compactedBytes / flushedBytes);
+        }
+    }
+
+    /**
+     * Estimates the fraction of garbage in the data files that are ready to compact, based on the number
+     * of live data items provided by the store. The estimate is good enough to compare stores with each
+     * other and decide which one needs compaction the most. Stores that can't estimate the number of
+     * live items, for example, stores keyed by sparse bucket indices, report {@link #UNKNOWN_GARBAGE_RATIO}.
+     *
+     * @return the estimated garbage ratio, from 0.0 (no garbage) to 1.0 (all items are garbage), or
+     *      {@link #UNKNOWN_GARBAGE_RATIO} if it can't be estimated
+     */
+    public double getGarbageRatio() {
+        if (liveItemCountSupplier == null) {
+            return UNKNOWN_GARBAGE_RATIO;
+        }
+        long totalItems = 0;
+        for (final DataFileReader reader : dataFileCollection.getAllCompletedFiles()) {
+            totalItems += reader.getMetadata().getDataItemCount();
+        }
+        if (totalItems == 0) {
+            return 0.0;
+        }
+        final long liveItems = liveItemCountSupplier.getAsLong();
+        return Math.max(0.0, 1.0 - (double) liveItems / totalItems);
+    }
+
     /**
      * The target compaction level should not exceed the maxCompactionLevel configuration parameter.
      * We need a limit on compaction levels for two reasons:
@@ -2,6 +2,7 @@
 package com.swirlds.merkledb.files;
 
 import static com.hedera.pbj.runtime.ProtoParserTools.TAG_FIELD_OFFSET;
+import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
 import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILE_ITEMS;
 
 import com.hedera.pbj.runtime.ProtoConstants;
@@ -25,6 +26,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * The aim for a DataFileReader is to facilitate fast highly concurrent random reading of items from
@@ -57,9 +60,32 @@ import java.util.concurrent.atomic.AtomicReferenceArray;
  */
 public final class DataFileReader implements AutoCloseable, Comparable<DataFileReader>, IndexedObject {
 
+    private static final Logger logger = LogManager.getLogger(DataFileReader.class);
+
     private static final ThreadLocal<ByteBuffer> BUFFER_CACHE = new ThreadLocal<>();
     private static final ThreadLocal<BufferedData> BUFFEREDDATA_CACHE = new ThreadLocal<>();
 
+    /** Expected tag of every data item in a data file */
+    private static final int DATA_ITEM_TAG =
+            (FIELD_DATAFILE_ITEMS.number() << TAG_FIELD_OFFSET) | ProtoConstants.WIRE_TYPE_DELIMITED.ordinal();
+
+    /** Max size of a data item header: the tag (a single byte) and the item size (up to 5 bytes) */
+    private static final int MAX_DATA_ITEM_HEADER_SIZE = 1 + 5;
+
+    /**
+     * Buffer size to read data item tag and size. If the whole item is small and fits into this
+     * buffer, there is no need to make an extra file read
+     */
+    private static final int PRE_READ_BUF_SIZE = 2048;
+
+    /**
+     * Size of a single memory mapped region. A mapped byte buffer can't be larger than 2Gb, while
+     * data files, especially after compaction, may be larger than that. Such files are mapped as a
+     * sequence of regions of this size. Data items that cross region boundaries are read using
+     * file channels.
+     */
+    static final long MAPPED_REGION_SIZE = 1L << 30;
+
     private final MerkleDbConfig dbConfig;
 
     /** Max number of file channels to use for reading */
@@ -104,6 +130,18 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
      */
     private final AtomicLong fileSizeBytes = new AtomicLong(0);
 
+    /** Indicates whether fully written data files should be memory mapped for reads */
+    private final boolean memoryMappedReads;
+
+    /**
+     * Memory mapped regions of this file, or null if the file isn't mapped. The file is mapped in
+     * {@link #setFileCompleted()}, when it's read only, and the mapping is released in {@link
+     * #close()}. Mapped buffers are only unmapped when they are garbage collected, so reads that
+     * are in progress when the reader is closed, e.g. because the file has been compacted and
+     * deleted, still see valid file contents.
+     */
+    private volatile BufferedData[] mappedRegions = null;
+
     /**
      * Open an existing data file, reading the metadata from the file
      *
@@ -126,6 +164,7 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
         this.dbConfig = dbConfig;
         maxFileChannels = dbConfig.maxFileChannelsPerFileReader();
         threadsPerFileChannel = dbConfig.maxThreadsPerFileChannel();
+        memoryMappedReads = dbConfig.memoryMappedReadsEnabled();
         fileChannels = new AtomicReferenceArray<>(maxFileChannels);
         if (!Files.exists(path)) {
             throw new IllegalArgumentException(
@@ -159,6 +198,9 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
         } finally {
             fileCompleted.set(true);
         }
+        if (memoryMappedReads) {
+            mapFile(fileSizeBytes.get());
+        }
     }
 
     /**
@@ -210,9 +252,72 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
      */
     public BufferedData readDataItem(final long dataLocation) throws IOException {
         final long byteOffset = DataFileCommon.byteOffsetFromDataLocation(dataLocation);
+        final BufferedData[] regions = mappedRegions;
+        if (regions != null) {
+            final BufferedData mappedData = readMapped(regions, byteOffset);
+            if (mappedData != null) {
+                return mappedData;
+            }
+        }
         return read(byteOffset);
     }
 
+    /**
+     * Reads multiple data items from this file with a single positional file read. Data item
+     * locations must be sorted by offset. The read covers all bytes from the first item to the
+     * last one, plus a pre-read buffer to cover the last item, so this method should only be
+     * used for items, which are close enough to each other in the file.
+     *
+     * <p>Items that are not fully covered by the read, e.g. large items at the end of the range,
+     * are returned as nulls. Callers are expected to read such items separately using {@link
+     * #readDataItem(long)}. All returned items are slices of a single newly allocated buffer, it
+     * isn't reused by this reader.
+     *
+     * @param dataLocations data item locations, all in this file
+     * @param from the index of the first location to read, inclusive
+     * @param to the index of the last location to read, exclusive
+     * @return data items in the same order as locations, or null if the file was closed
+     * @throws IOException If there was a problem reading from data file
+     */
+    public BufferedData[] readDataItems(final long[] dataLocations, final int from, final int to)
+            throws IOException {
+        assert from < to;
+        final long startOffset = DataFileCommon.byteOffsetFromDataLocation(dataLocations[from]);
+        long endOffset = DataFileCommon.byteOffsetFromDataLocation(dataLocations[to - 1]) + PRE_READ_BUF_SIZE;
+        if (isFileCompleted()) {
+            endOffset = Math.min(endOffset, getSize());
+        }
+        final ByteBuffer readBB = ByteBuffer.allocate(Math.toIntExact(endOffset - startOffset));
+        // Try a few times, see read() for details
+        for (int retries = 3; retries > 0; retries--) {
+            final int fcIndex = leaseFileChannel();
+            final FileChannel fileChannel = fileChannels.get(fcIndex);
+            if (fileChannel == null) {
+                // The file is closed, the caller should read the items one by one
+                return null;
+            }
+            try {
+                readBB.clear();
+                MerkleDbFileUtils.completelyRead(fileChannel, readBB, startOffset);
+                readBB.flip();
+                final BufferedData readBuf = BufferedData.wrap(readBB);
+                final BufferedData[] items = new BufferedData[to - from];
+                for (int i = from; i < to; i++) {
+                    final long byteOffset = DataFileCommon.byteOffsetFromDataLocation(dataLocations[i]);
+                    items[i - from] = sliceDataItem(readBuf, byteOffset - startOffset, byteOffset);
+                }
+                return items;
+            } catch (final ClosedByInterruptException e) {
+                throw e;
+            } catch (final ClosedChannelException e) {
+                reopenFileChannel(fcIndex, fileChannel);
+            } finally {
+                releaseFileChannel();
+            }
+        }
+        throw new IOException("Failed to read from file, file channel keeps getting closed");
+    }
+
     /**
      * Get the size of this file in bytes. This method should only be called for files available to
      * merging (compaction), i.e. after they are fully written.
@@ -223,6 +328,25 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
         return fileSizeBytes.get();
     }
 
+    /**
+     * Get the number of bytes of this file currently memory mapped for reads. If memory mapped
+     * reads are disabled, or the file isn't fully written yet, or the reader is closed, this
+     * method returns zero.
+     *
+     * @return mapped size in bytes
+     */
+    public long getMappedSize() {
+        final BufferedData[] regions = mappedRegions;
+        if (regions == null) {
+            return 0;
+        }
+        long size = 0;
+        for (final BufferedData region : regions) {
+            size += region.length();
+        }
+        return size;
+    }
+
     /** Equals for use when comparing in collections, based on matching file paths */
     @Override
     public boolean equals(final Object o) {
@@ -282,6 +406,8 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
     @Override
     public void close() throws IOException {
         open.set(false);
+        // Mapped regions are unmapped by GC, once no in-flight reads reference them any longer
+        mappedRegions = null;
         for (int i = 0; i < maxFileChannels; i++) {
             final FileChannel fileChannel = fileChannels.getAndSet(i, null);
             if (fileChannel != null) {
@@ -293,6 +419,88 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
     // =================================================================================================================
     // Private methods
 
+    /**
+     * Memory maps this file for reads. This method must only be called when the file is fully
+     * written. If the file can't be mapped, a warning is logged, and all reads continue to use
+     * file channels.
+     *
+     * @param fileSize the size of the file, in bytes
+     */
+    private void mapFile(final long fileSize) {
+        final FileChannel fileChannel = fileChannels.get(0);
+        if ((fileChannel == null) || (fileSize == 0)) {
+            // The reader is already closed, or there is nothing to map
+            return;
+        }
+        try {
+            final int regionsCount = Math.toIntExact((fileSize + MAPPED_REGION_SIZE - 1) / MAPPED_REGION_SIZE);
+            final BufferedData[] regions = new BufferedData[regionsCount];
+            for (int i = 0; i < regionsCount; i++) {
+                final long regionStart = i * MAPPED_REGION_SIZE;
+                final long regionSize = Math.min(MAPPED_REGION_SIZE, fileSize - regionStart);
+                regions[i] = BufferedData.wrap(fileChannel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionSize));
+            }
+            if (open.get()) {
+                mappedRegions = regions;
+            }
+        } catch (final IOException e) {
+            logger.warn(EXCEPTION.getMarker(), "Failed to memory map data file {}, using file channels", path, e);
+        }
+    }
+
+    /**
+     * Reads a data item at the given offset from memory mapped regions of this file. The returned
+     * buffer is a slice of the mapped region, no data is copied. If the data item can't be read
+     * from the mapped regions, for example, when it crosses a region boundary, this method returns
+     * null, and the caller should read the item using file channels.
+     *
+     * @param regions memory mapped regions of this file
+     * @param byteOffsetInFile data item offset in the file
+     * @return data item bytes, or null if the item isn't fully available in a single mapped region
+     * @throws IOException if the data at the given offset is not a data item
+     */
+    private BufferedData readMapped(final BufferedData[] regions, final long byteOffsetInFile) throws IOException {
+        final int regionIndex = (int) (byteOffsetInFile / MAPPED_REGION_SIZE);
+        if (regionIndex >= regions.length) {
+            return null;
+        }
+        final BufferedData region = regions[regionIndex];
+        final long offsetInRegion = byteOffsetInFile - regionIndex * MAPPED_REGION_SIZE;
+        return sliceDataItem(region, offsetInRegion, byteOffsetInFile);
+    }
+
+    /**
+     * Parses a data item header at the given offset in a buffer, which contains a part of this
+     * file, and returns a slice of the buffer with data item bytes.
+     *
+     * @param data a buffer with a part of this file
+     * @param offsetInData data item offset in the buffer
+     * @param byteOffsetInFile data item offset in the file, used for error reporting only
+     * @return data item bytes, or null if the item isn't fully available in the buffer
+     * @throws IOException if the data at the given offset is not a data item
+     */
+    private BufferedData sliceDataItem(final BufferedData data, final long offsetInData, final long byteOffsetInFile)
+            throws IOException {
+        if (data.length() - offsetInData < MAX_DATA_ITEM_HEADER_SIZE) {
+            // The header may cross the buffer boundary
+            return null;
+        }
+        final int tag = data.getVarInt(offsetInData, false);
+        if (tag != DATA_ITEM_TAG) {
+            throw new IOException(
+                    "Unknown data item tag: tag=" + tag + " file=" + getIndex() + " off=" + byteOffsetInFile);
+        }
+        final int sizeOfTag = ProtoWriterTools.sizeOfUnsignedVarInt32(tag);
+        final int size = data.getVarInt(offsetInData + sizeOfTag, false);
+        final int sizeOfSize = ProtoWriterTools.sizeOfUnsignedVarInt32(size);
+        final long itemOffsetInData = offsetInData + sizeOfTag + sizeOfSize;
+        if (itemOffsetInData + size > data.length()) {
+            // The data item crosses the buffer boundary
+            return null;
+        }
+        return data.slice(itemOffsetInData, size);
+    }
+
     /**
      * Opens a new file channel for reading the file, if the total number of channels opened is
      * less than {@link #maxFileChannels}. This method is safe to call from multiple threads.
@@ -382,9 +590,6 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
      * @throws ClosedChannelException if the file was closed
      */
     private BufferedData read(final long byteOffsetInFile) throws IOException {
-        // Buffer size to read data item tag and size. If the whole item is small and
-        // fits into this buffer, there is no need to make an extra file read
-        final int PRE_READ_BUF_SIZE = 2048;
         ByteBuffer readBB = BUFFER_CACHE.get();
         BufferedData readBuf = BUFFEREDDATA_CACHE.get();
         if (readBuf == null) {
@@ -416,9 +621,7 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
                 // Then read the tag and size from the read buffer, since it's wrapped over the byte buffer
                 readBuf.reset();
                 final int tag = readBuf.getVarInt(0, false); // tag
-                if (tag
-                        != ((FIELD_DATAFILE_ITEMS.number() << TAG_FIELD_OFFSET)
-                                | ProtoConstants.WIRE_TYPE_DELIMITED.ordinal())) {
+                if (tag != DATA_ITEM_TAG) {
                     throw new IOException(
                             "Unknown data item tag: tag=" + tag + " file=" + getIndex() + " off=" + byteOffsetInFile);
                 }
@@ -0,0 +1,603 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb.files;
+
+import static com.swirlds.logging.legacy.LogMarker.MERKLE_DB;
+import static com.swirlds.merkledb.utilities.HashTools.DEFAULT_DIGEST;
+import static com.swirlds.merkledb.utilities.HashTools.HASH_SIZE_BYTES;
+import static java.util.Objects.requireNonNull;
+
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.merkledb.FileStatisticAware;
+import com.swirlds.merkledb.Snapshotable;
+import com.swirlds.merkledb.config.MerkleDbConfig;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A disk based store for virtual node hashes, which are addressed directly by path, without any
+ * path to disk location index. The virtual tree is split into chunks, every chunk is a sub-tree
+ * of a fixed height. Chunk roots are at ranks 0, height, 2 * height, and so on. Every chunk is
+ * stored in a fixed size slot in a chunk file, so the location of a hash on disk is computed from
+ * its path. Chunks are numbered rank by rank, from left to right, so chunk numbers never decrease
+ * as paths increase.
+ *
+ * <p>Slot layout is a data length (4 bytes) followed by chunk data. Chunk data is entries for all
+ * nodes in the chunk, in path order. Every entry is a flag byte, which indicates whether the hash
+ * has been written, and the hash (48 bytes). If compression is enabled, chunk data may be
+ * compressed, then the data length is less than the uncompressed chunk size. Hashes are high
+ * entropy data, so compression mostly helps with partially filled chunks at the bottom of the
+ * tree. Compressed and uncompressed slots may be mixed in the same file, so compression can be
+ * turned on and off for existing stores.
+ *
+ * <p>Hashes are updated in place. There is no garbage in the files, so no compaction is needed.
+ * The only maintenance is to delete whole chunk files past the last valid path, when the tree
+ * shrinks. Reads and writes are synchronized using striped read-write locks per chunk, so readers
+ * never see partially written chunks.
+ *
+ * <p>Chunk files are copied on write. Snapshots hard link chunk files, and files of a loaded store
+ * may be hard linked from a saved state, which must never change. Such files are shared, they are
+ * never modified. The first time a shared file is written to, it's replaced with its private copy,
+ * which is then updated in place till the next snapshot. Snapshots are never taken during flushes,
+ * see {@link Snapshotable}.
+ */
+public class HashChunkStore implements AutoCloseable, Snapshotable, FileStatisticAware {
+
+    private static final Logger logger = LogManager.getLogger(HashChunkStore.class);
+
+    /** Max chunk height. Chunks of this height are about 3Mb in size */
+    public static final int MAX_CHUNK_HEIGHT = 16;
+
+    /** Chunk file extension */
+    static final String FILE_EXTENSION = ".hc";
+
+    /** Chunk files are sized to hold as many chunks as fit into this size */
+    static final long TARGET_FILE_SIZE = 64L * 1024 * 1024;
+
+    /** Slot header size: data length */
+    static final int SLOT_HEADER_SIZE = Integer.BYTES;
+
+    /** Chunk entry size: a flag byte and a hash */
+    static final int ENTRY_SIZE = 1 + HASH_SIZE_BYTES;
+
+    /** Max virtual node rank */
+    private static final int MAX_RANK = 62;
+
+    /** Number of chunk lock stripes */
+    private static final int LOCK_STRIPES = 64;
+
+    /** Store directory */
+    private final Path storeDir;
+
+    /** Store name, used as a chunk file name prefix */
+    private final String storeName;
+
+    /** Chunk height */
+    private final int chunkHeight;
+
+    /** Number of hashes in a chunk */
+    private final int hashesPerChunk;
+
+    /** Uncompressed chunk data size */
+    private final int chunkDataSize;
+
+    /** Slot size: header and uncompressed chunk data */
+    private final int slotSize;
+
+    /** Number of chunks in a single file */
+    private final long chunksPerFile;
+
+    /** Number of chunks at all chunk ranks above the given chunk level */
+    private final long[] chunkLevelOffsets;
+
+    /** Open chunk files by file index */
+    private final Map<Long, FileChannel> files = new ConcurrentHashMap<>();
+
+    /** Indices of chunk files, which may be hard linked from snapshots and must not be modified */
+    private final Set<Long> sharedFiles = ConcurrentHashMap.newKeySet();
+
+    /** Striped locks to synchronize chunk reads and writes */
+    private final ReadWriteLock[] locks = new ReadWriteLock[LOCK_STRIPES];
+
+    /** Deflater to compress chunks, or null if compression is disabled. Only used in flushes */
+    @Nullable
+    private final Deflater deflater;
+
+    /** Max valid path, inclusive */
+    private volatile long maxValidPath = -1;
+
+    /** Hashes to write in the current writing session, by chunk ID. Null if not writing */
+    private Map<Long, Hash[]> pendingChunks = null;
+
+    /**
+     * Creates a new chunk store or loads an existing one from the given directory.
+     *
+     * @param config MerkleDb config
+     * @param storeDir the directory to store chunk files in
+     * @param storeName the store name, used as a chunk file name prefix
+     * @param chunkHeight the chunk height. Must be the same for all runs with the same directory
+     * @throws IOException if existing chunk files can't be opened
+     */
+    public HashChunkStore(
+            @NonNull final MerkleDbConfig config,
+            @NonNull final Path storeDir,
+            @NonNull final String storeName,
+            final int chunkHeight)
+            throws IOException {
+        if ((chunkHeight <= 0) || (chunkHeight > MAX_CHUNK_HEIGHT)) {
+            throw new IllegalArgumentException("Chunk height must be between 1 and " + MAX_CHUNK_HEIGHT);
+        }
+        this.storeDir = requireNonNull(storeDir);
+        this.storeName = requireNonNull(storeName);
+        this.chunkHeight = chunkHeight;
+        hashesPerChunk = (1 << chunkHeight) - 1;
+        chunkDataSize = hashesPerChunk * ENTRY_SIZE;
+        slotSize = SLOT_HEADER_SIZE + chunkDataSize;
+        chunksPerFile = Math.max(1, TARGET_FILE_SIZE / slotSize);
+        final int chunkLevels = MAX_RANK / chunkHeight + 1;
+        chunkLevelOffsets = new long[chunkLevels];
+        for (int level = 1; level < chunkLevels; level++) {
+            chunkLevelOffsets[level] = chunkLevelOffsets[level - 1] + (1L << ((level - 1) * chunkHeight));
+        }
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        deflater = config.hashStoreChunksCompressed() ? new Deflater(Deflater.BEST_SPEED, true) : null;
+
+        Files.createDirectories(storeDir);
+        try (final Stream<Path> existing = Files.list(storeDir)) {
+            for (final Path file : (Iterable<Path>) existing::iterator) {
+                final long fileIndex = parseFileIndex(file);
+                if (fileIndex >= 0) {
+                    files.put(fileIndex, openFile(file));
+                    sharedFiles.add(fileIndex);
+                } else if (isCopyFile(file)) {
+                    // A copy left from a failed flush
+                    Files.delete(file);
+                }
+            }
+        }
+        logger.info(
+                MERKLE_DB.getMarker(),
+                "{} Opened hash chunk store, chunkHeight={}, numOfFiles={}",
+                storeName,
+                chunkHeight,
+                files.size());
+    }
+
+    private static int rank(final long path) {
+        return 63 - Long.numberOfLeadingZeros(path + 1);
+    }
+
+    /**
+     * Gets the ID of the chunk, which contains the given path.
+     *
+     * @param path the path
+     * @return the chunk ID
+     */
+    long chunkId(final long path) {
+        final int rank = rank(path);
+        final int level = rank / chunkHeight;
+        final int depth = rank - level * chunkHeight;
+        final long indexInRank = path + 1 - (1L << rank);
+        return chunkLevelOffsets[level] + (indexInRank >> depth);
+    }
+
+    /**
+     * Gets the position of the given path in its chunk. Positions are zero-based, the chunk root
+     * is at position 0.
+     *
+     * @param path the path
+     * @return the position in the chunk
+     */
+    int positionInChunk(final long path) {
+        final int rank = rank(path);
+        final int depth = rank % chunkHeight;
+        final long indexInRank = path + 1 - (1L << rank);
+        return (int) ((1L << depth) - 1 + (indexInRank & ((1L << depth) - 1)));
+    }
+
+    /**
+     * Gets the chunk height.
+     *
+     * @return the chunk height
+     */
+    public int getChunkHeight() {
+        return chunkHeight;
+    }
+
+    /**
+     * Updates the max valid path. Chunk files past the chunk of the max valid path are deleted.
+     * This method must not be called concurrently with writing sessions.
+     *
+     * @param maxValidPath the max valid path, inclusive, or -1 if the store is empty
+     * @throws IOException if a chunk file can't be deleted
+     */
+    public void updateValidKeyRange(final long maxValidPath) throws IOException {
+        this.maxValidPath = maxValidPath;
+        final long lastFileIndex = (maxValidPath < 0) ? -1 : chunkId(maxValidPath) / chunksPerFile;
+        for (final Long fileIndex : files.keySet()) {
+            if (fileIndex > lastFileIndex) {
+                final FileChannel channel = files.remove(fileIndex);
+                channel.close();
+                // Only the store directory entry is deleted, snapshots may still link the file
+                Files.deleteIfExists(filePath(storeDir, fileIndex));
+                sharedFiles.remove(fileIndex);
+            }
+        }
+    }
+
+    /**
+     * Starts a writing session, ready for calls to {@link #put(long, Hash)}.
+     */
+    public void startWriting() {
+        if (pendingChunks != null) {
+            throw new IllegalStateException("Hash chunk store is already writing");
+        }
+        pendingChunks = new HashMap<>();
+    }
+
+    /**
+     * Puts a hash to this store. Hashes are buffered by chunk and written to disk in {@link
+     * #endWriting()}. This method must only be called in a writing session on the thread, which
+     * started the session.
+     *
+     * @param path the path
+     * @param hash the hash
+     */
+    public void put(final long path, @NonNull final Hash hash) {
+        if (pendingChunks == null) {
+            throw new IllegalStateException("Hash chunk store is not writing");
+        }
+        if ((path < 0) || (path > maxValidPath)) {
+            throw new IllegalArgumentException("Path " + path + " is out of valid range [0, " + maxValidPath + "]");
+        }
+        pendingChunks.computeIfAbsent(chunkId(path), id -> new Hash[hashesPerChunk])[positionInChunk(path)] =
+                requireNonNull(hash);
+    }
+
+    /**
+     * Ends the writing session. All chunks with updated hashes are read from disk, if they exist,
+     * updated, and written back to disk, in chunk ID order. Shared chunk files are copied before
+     * they are written to.
+     *
+     * @return the number of chunks written
+     * @throws IOException if a chunk can't be read or written
+     */
+    public int endWriting() throws IOException {
+        if (pendingChunks == null) {
+            throw new IllegalStateException("Hash chunk store is not writing");
+        }
+        final Map<Long, Hash[]> chunks = new TreeMap<>(pendingChunks);
+        pendingChunks = null;
+        final ByteBuffer data = ByteBuffer.allocate(chunkDataSize);
+        final ByteBuffer slot = ByteBuffer.allocate(slotSize);
+        for (final Map.Entry<Long, Hash[]> entry : chunks.entrySet()) {
+            final long chunkId = entry.getKey();
+            final Hash[] hashes = entry.getValue();
+            final FileChannel channel = writableFile(chunkId / chunksPerFile);
+            final ReadWriteLock lock = lock(chunkId);
+            lock.writeLock().lock();
+            try {
+                final long slotOffset = (chunkId % chunksPerFile) * slotSize;
+                data.clear();
+                if (!readChunk(channel, slotOffset, data)) {
+                    Arrays.fill(data.array(), (byte) 0);
+                }
+                for (int i = 0; i < hashesPerChunk; i++) {
+                    if (hashes[i] != null) {
+                        data.position(i * ENTRY_SIZE);
+                        data.put((byte) 1);
+                        hashes[i].getBytes().writeTo(data);
+                    }
+                }
+                slot.clear();
+                slot.position(SLOT_HEADER_SIZE);
+                final int dataLength = writeChunkData(data.array(), slot);
+                slot.putInt(0, dataLength);
+                slot.flip();
+                while (slot.hasRemaining()) {
+                    channel.write(slot, slotOffset + slot.position());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        logger.info(
+                MERKLE_DB.getMarker(),
+                "{} Ended writing, chunks={}, numOfFiles={}, maxValidPath={}",
+                storeName,
+                chunks.size(),
+                files.size(),
+                maxValidPath);
+        return chunks.size();
+    }
+
+    /**
+     * Gets a chunk file channel to write to. If the file is shared, it's replaced with its copy
+     * first. Readers may still use the channel of the shared file, it's closed once the copy is in
+     * place, and readers then retry with the copy, see {@link #get(long)}.
+     */
+    private FileChannel writableFile(final long fileIndex) throws IOException {
+        final FileChannel channel = files.get(fileIndex);
+        if (channel == null) {
+            final FileChannel newChannel = openFile(filePath(storeDir, fileIndex));
+            files.put(fileIndex, newChannel);
+            return newChannel;
+        }
+        if (!sharedFiles.contains(fileIndex)) {
+            return channel;
+        }
+        final Path file = filePath(storeDir, fileIndex);
+        final Path copy = copyFilePath(file);
+        Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+        final FileChannel copyChannel = openFile(copy);
+        try {
+            Files.move(copy, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            copyChannel.close();
+            throw e;
+        }
+        files.put(fileIndex, copyChannel);
+        sharedFiles.remove(fileIndex);
+        channel.close();
+        return copyChannel;
+    }
+
+    /**
+     * Writes chunk data to the slot buffer, compressed if compression is enabled and the
+     * compressed data is smaller than the uncompressed.
+     *
+     * @return the data length, as stored in the slot header
+     */
+    private int writeChunkData(final byte[] data, final ByteBuffer slot) {
+        if (deflater != null) {
+            deflater.reset();
+            deflater.setInput(data, 0, chunkDataSize);
+            deflater.finish();
+            final int compressed = deflater.deflate(slot.array(), SLOT_HEADER_SIZE, chunkDataSize - 1);
+            if (deflater.finished()) {
+                slot.position(SLOT_HEADER_SIZE + compressed);
+                return compressed;
+            }
+        }
+        slot.put(data, 0, chunkDataSize);
+        return chunkDataSize;
+    }
+
+    /**
+     * Reads and decompresses a chunk from the given slot to the given buffer.
+     *
+     * @return true if the chunk has been read, false if the slot is empty
+     */
+    private boolean readChunk(final FileChannel channel, final long slotOffset, final ByteBuffer data)
+            throws IOException {
+        final int dataLength = readDataLength(channel, slotOffset);
+        if (dataLength == 0) {
+            return false;
+        }
+        if (dataLength == chunkDataSize) {
+            readFully(channel, slotOffset + SLOT_HEADER_SIZE, data);
+        } else {
+            final ByteBuffer compressed = ByteBuffer.allocate(dataLength);
+            readFully(channel, slotOffset + SLOT_HEADER_SIZE, compressed);
+            final Inflater inflater = new Inflater(true);
+            try {
+                inflater.setInput(compressed.array(), 0, dataLength);
+                final int length = inflater.inflate(data.array(), 0, chunkDataSize);
+                if (length != chunkDataSize) {
+                    throw new IOException("Corrupted hash chunk at " + slotOffset + " in " + storeName);
+                }
+            } catch (final DataFormatException e) {
+                throw new IOException("Corrupted hash chunk at " + slotOffset + " in " + storeName, e);
+            } finally {
+                inflater.end();
+            }
+        }
+        return true;
+    }
+
+    private int readDataLength(final FileChannel channel, final long slotOffset) throws IOException {
+        if (slotOffset + SLOT_HEADER_SIZE > channel.size()) {
+            return 0;
+        }
+        final ByteBuffer header = ByteBuffer.allocate(SLOT_HEADER_SIZE);
+        readFully(channel, slotOffset, header);
+        final int dataLength = header.getInt(0);
+        if ((dataLength < 0) || (dataLength > chunkDataSize)) {
+            throw new IOException("Wrong hash chunk length " + dataLength + " at " + slotOffset + " in " + storeName);
+        }
+        return dataLength;
+    }
+
+    private static void readFully(final FileChannel channel, final long offset, final ByteBuffer buf)
+            throws IOException {
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, offset + buf.position()) < 0) {
+                throw new IOException("Unexpected end of hash chunk file at " + (offset + buf.position()));
+            }
+        }
+    }
+
+    /**
+     * Reads a hash from this store.
+     *
+     * @param path the path
+     * @return the hash, or null if the path is out of valid range or the hash has never been stored
+     * @throws IOException if the hash can't be read
+     */
+    @Nullable
+    public Hash get(final long path) throws IOException {
+        if ((path < 0) || (path > maxValidPath)) {
+            return null;
+        }
+        final long chunkId = chunkId(path);
+        final long fileIndex = chunkId / chunksPerFile;
+        FileChannel channel = files.get(fileIndex);
+        while (channel != null) {
+            try {
+                return get(channel, chunkId, path);
+            } catch (final ClosedChannelException e) {
+                // A shared file may be replaced with its copy concurrently, retry with the copy
+                final FileChannel current = files.get(fileIndex);
+                if ((current == null) || (current == channel)) {
+                    throw e;
+                }
+                channel = current;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private Hash get(final FileChannel channel, final long chunkId, final long path) throws IOException {
+        final long slotOffset = (chunkId % chunksPerFile) * slotSize;
+        final int entryOffset = positionInChunk(path) * ENTRY_SIZE;
+        final byte[] entry = new byte[ENTRY_SIZE];
+        final ReadWriteLock lock = lock(chunkId);
+        lock.readLock().lock();
+        try {
+            final int dataLength = readDataLength(channel, slotOffset);
+            if (dataLength == 0) {
+                return null;
+            } else if (dataLength == chunkDataSize) {
+                readFully(channel, slotOffset + SLOT_HEADER_SIZE + entryOffset, ByteBuffer.wrap(entry));
+            } else {
+                final ByteBuffer data = ByteBuffer.allocate(chunkDataSize);
+                readChunk(channel, slotOffset, data);
+                data.get(entryOffset, entry);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (entry[0] == 0) {
+            return null;
+        }
+        return new Hash(Arrays.copyOfRange(entry, 1, ENTRY_SIZE), DEFAULT_DIGEST);
+    }
+
+    private ReadWriteLock lock(final long chunkId) {
+        return locks[(int) (chunkId % LOCK_STRIPES)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        for (final FileChannel channel : files.values()) {
+            channel.close();
+        }
+        files.clear();
+        if (deflater != null) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Hard links all chunk files to the given directory. The files become shared, they are copied
+     * before they are written to next time.
+     *
+     * @param snapshotDirectory the snapshot directory
+     * @throws IOException if chunk files can't be linked
+     */
+    @Override
+    public void snapshot(@NonNull final Path snapshotDirectory) throws IOException {
+        Files.createDirectories(snapshotDirectory);
+        for (final Long fileIndex : files.keySet()) {
+            final Path source = filePath(storeDir, fileIndex);
+            if (Files.exists(source)) {
+                // Mark the file as shared before it's linked, so a failed snapshot never results
+                // in a linked file modified in place
+                sharedFiles.add(fileIndex);
+                Files.createLink(filePath(snapshotDirectory, fileIndex), source);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LongSummaryStatistics getFilesSizeStatistics() {
+        final LongSummaryStatistics stats = new LongSummaryStatistics();
+        for (final FileChannel channel : files.values()) {
+            try {
+                stats.accept(channel.size());
+            } catch (final IOException e) {
+                // The file may be closed and deleted concurrently
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Chunk files are never memory mapped.
+     */
+    @Override
+    public long getMappedFilesSize() {
+        return 0;
+    }
+
+    private Path filePath(final Path dir, final long fileIndex) {
+        return dir.resolve(storeName + "_" + fileIndex + FILE_EXTENSION);
+    }
+
+    private static Path copyFilePath(final Path file) {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    private boolean isCopyFile(final Path file) {
+        final String fileName = file.getFileName().toString();
+        return fileName.startsWith(storeName + "_") && fileName.endsWith(FILE_EXTENSION + ".tmp");
+    }
+
+    private long parseFileIndex(final Path file) {
+        final String fileName = file.getFileName().toString();
+        final String prefix = storeName + "_";
+        if (!fileName.startsWith(prefix) || !fileName.endsWith(FILE_EXTENSION)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(prefix.length(), fileName.length() - FILE_EXTENSION.length()));
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static FileChannel openFile(final Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "HashChunkStore{name=" + storeName + ", chunkHeight=" + chunkHeight + ", files=" + files.size() + "}";
+    }
+}
@@ -0,0 +1,131 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb.files;
+
+import static com.swirlds.base.units.UnitConstants.BYTES_TO_MEBIBYTES;
+import static com.swirlds.logging.legacy.LogMarker.MERKLE_DB;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Tracks and logs progress of an index rebuild from data files in a {@link DataFileCollection}.
+ * Progress is logged every time another 10% of data file bytes is processed. This class is
+ * thread safe, data files may be reported as loaded from multiple threads.
+ */
+final class IndexRebuildProgress {
+
+    private static final Logger logger = LogManager.getLogger(IndexRebuildProgress.class);
+
+    /** Progress is logged every time this percent of total bytes is processed */
+    private static final int REPORT_STEP_PERCENT = 10;
+
+    private final String storeName;
+
+    private final int totalFiles;
+
+    private final long totalBytes;
+
+    private final int threads;
+
+    private final long startNanos;
+
+    private final AtomicInteger loadedFiles = new AtomicInteger();
+
+    private final AtomicLong loadedBytes = new AtomicLong();
+
+    private final AtomicLong loadedItems = new AtomicLong();
+
+    /** The last logged progress, in percent */
+    private final AtomicInteger lastReportedPercent = new AtomicInteger();
+
+    /**
+     * Creates a new progress tracker and logs the rebuild start.
+     *
+     * @param storeName the store name, for logging
+     * @param totalFiles total number of data files to process
+     * @param totalBytes total size of data files to process, in bytes
+     * @param threads number of threads used to process the files
+     */
+    IndexRebuildProgress(final String storeName, final int totalFiles, final long totalBytes, final int threads) {
+        this.storeName = storeName;
+        this.totalFiles = totalFiles;
+        this.totalBytes = totalBytes;
+        this.threads = threads;
+        this.startNanos = System.nanoTime();
+        logger.info(
+                MERKLE_DB.getMarker(),
+                "Rebuilding index for [{}] from {} data files, {} MB, threads={}",
+                storeName,
+                totalFiles,
+                (long) (totalBytes * BYTES_TO_MEBIBYTES),
+                threads);
+    }
+
+    /**
+     * Records that a data file has been fully processed.
+     *
+     * @param fileBytes the file size, in bytes
+     * @param fileItems number of data items in the file
+     */
+    void fileLoaded(final long fileBytes, final long fileItems) {
+        final int files = loadedFiles.incrementAndGet();
+        final long bytes = loadedBytes.addAndGet(fileBytes);
+        final long items = loadedItems.addAndGet(fileItems);
+        final int percent = totalBytes > 0 ? (int) (bytes * 100 / totalBytes) : 100;
+        final int reported = lastReportedPercent.get();
+        if ((percent >= reported + REPORT_STEP_PERCENT) && (files < totalFiles)) {
+            if (lastReportedPercent.compareAndSet(reported, percent - percent % REPORT_STEP_PERCENT)) {
+                final long elapsedMs = getElapsedMillis();
+                logger.info(
+                        MERKLE_DB.getMarker(),
+                        "Rebuilding index for [{}]: {}% done, {}/{} files, {} items, {} items/s, {} MB/s",
+                        storeName,
+                        percent,
+                        files,
+                        totalFiles,
+                        items,
+                        perSecond(items, elapsedMs),
+                        perSecond((long) (bytes * BYTES_TO_MEBIBYTES), elapsedMs));
+            }
+        }
+    }
+
+    /**
+     * Logs the rebuild summary.
+     */
+    void finished() {
+        final long elapsedMs = getElapsedMillis();
+        final long items = loadedItems.get();
+        logger.info(
+                MERKLE_DB.getMarker(),
+                "Rebuilt index for [{}] from {} data files, {} items in {} ms, threads={}, {} items/s, {} MB/s",
+                storeName,
+                loadedFiles.get(),
+                items,
+                elapsedMs,
+                threads,
+                perSecond(items, elapsedMs),
+                perSecond((long) (loadedBytes.get() * BYTES_TO_MEBIBYTES), elapsedMs));
+    }
+
+    /** Number of data items processed so far */
+    long getLoadedItems() {
+        return loadedItems.get();
+    }
+
+    /** Number of data files processed so far */
+    int getLoadedFiles() {
+        return loadedFiles.get();
+    }
+
+    private long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static long perSecond(final long count, final long elapsedMs) {
+        return elapsedMs > 0 ? count * 1000 / elapsedMs : count;
+    }
+}
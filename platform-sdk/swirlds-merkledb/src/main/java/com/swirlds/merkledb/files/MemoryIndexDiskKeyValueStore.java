@@ -180,6 +180,16 @@ public class MemoryIndexDiskKeyValueStore implements AutoCloseable, Snapshotable
         fileCollection.snapshot(snapshotDirectory);
     }
 
+    /**
+     * Returns the number of bytes written to disk by the last {@link #snapshot(Path)} call. Data
+     * files, which are hard linked, are not counted.
+     *
+     * @return the number of bytes written by the last snapshot
+     */
+    public long getLastSnapshotBytesWritten() {
+        return fileCollection.getLastSnapshotBytesWritten();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -187,6 +197,13 @@ public class MemoryIndexDiskKeyValueStore implements AutoCloseable, Snapshotable
         return fileCollection.getAllCompletedFilesSizeStatistics();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public long getMappedFilesSize() {
+        return fileCollection.getMappedFilesSize();
+    }
+
     public DataFileCollection getFileCollection() {
         return fileCollection;
     }
@@ -0,0 +1,276 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb.files.hashmap;
+
+import com.swirlds.merkledb.collections.OffHeapUser;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An off-heap set of per-bucket bloom filters for {@link HalfDiskHashMap}. Every bucket has a small
+ * bloom filter of key hash codes of all entries in the bucket. If a key hash code isn't in the filter,
+ * the key is definitely not in the bucket, and the bucket doesn't have to be read from disk.
+ *
+ * <p>Filters are stored as arrays of longs in direct byte buffers. All bits of a single bucket filter
+ * are always in the same buffer. Filter words are read and written using volatile access, so readers
+ * always see either the old or the new value of every word.
+ *
+ * <p>To make sure readers never get false negatives while a bucket is being updated, filters are
+ * updated in two steps. Before a new bucket is made visible to readers, new bits are added to the
+ * existing filter ({@link #merge(int, Bucket)}). After the new bucket is visible, the filter is
+ * replaced with the bits of the new bucket only ({@link #replace(int, Bucket)}), which removes bits of
+ * deleted entries.
+ *
+ * <p>This class assumes a single writer thread at a time. Reads can be done concurrently from
+ * multiple threads.
+ */
+class BucketBloomFilter implements OffHeapUser {
+
+    /** The version number of bloom filter file format */
+    private static final int FILE_FORMAT_VERSION = 1;
+
+    /** Number of bits set in a filter for every key hash code */
+    private static final int NUM_HASH_FUNCTIONS = 3;
+
+    /** Max size of a single direct buffer, in bytes. Must be a power of two */
+    private static final int MAX_BUFFER_SIZE = 1 << 27;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    /** Number of buckets covered by this filter */
+    private final int numOfBuckets;
+
+    /** Number of bits in a single bucket filter, a power of two, at least 64 */
+    private final int bitsPerBucket;
+
+    /** Number of longs in a single bucket filter */
+    private final int wordsPerBucket;
+
+    /** Number of buckets stored in a single buffer */
+    private final int bucketsPerBuffer;
+
+    /** Filter data */
+    private final ByteBuffer[] buffers;
+
+    /**
+     * Creates a new empty filter.
+     *
+     * @param numOfBuckets number of buckets
+     * @param bitsPerBucket requested number of bits per bucket, rounded up to a power of two, at least 64
+     */
+    BucketBloomFilter(final int numOfBuckets, final int bitsPerBucket) {
+        if (numOfBuckets <= 0) {
+            throw new IllegalArgumentException("Number of buckets must be positive");
+        }
+        if (bitsPerBucket <= 0) {
+            throw new IllegalArgumentException("Number of bits per bucket must be positive");
+        }
+        this.numOfBuckets = numOfBuckets;
+        this.bitsPerBucket = Math.max(Long.SIZE, Integer.highestOneBit(bitsPerBucket * 2 - 1));
+        this.wordsPerBucket = this.bitsPerBucket / Long.SIZE;
+        final int bytesPerBucket = wordsPerBucket * Long.BYTES;
+        this.bucketsPerBuffer = Math.max(1, MAX_BUFFER_SIZE / bytesPerBucket);
+        final int numOfBuffers = (numOfBuckets + bucketsPerBuffer - 1) / bucketsPerBuffer;
+        buffers = new ByteBuffer[numOfBuffers];
+        for (int i = 0; i < numOfBuffers; i++) {
+            final int buckets = Math.min(bucketsPerBuffer, numOfBuckets - i * bucketsPerBuffer);
+            buffers[i] = ByteBuffer.allocateDirect(buckets * bytesPerBucket).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Loads a filter from the given file, if the file exists and was written for the same number of
+     * buckets and bits per bucket.
+     *
+     * @param file the file to load from
+     * @param numOfBuckets expected number of buckets
+     * @param bitsPerBucket expected number of bits per bucket
+     * @return the loaded filter, or null if the file is missing or written with different settings
+     * @throws IOException if an I/O error occurs
+     */
+    static BucketBloomFilter load(final Path file, final int numOfBuckets, final int bitsPerBucket)
+            throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        final BucketBloomFilter filter = new BucketBloomFilter(numOfBuckets, bitsPerBucket);
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES * 3);
+            readFully(channel, header);
+            header.flip();
+            if ((header.getInt() != FILE_FORMAT_VERSION)
+                    || (header.getInt() != numOfBuckets)
+                    || (header.getInt() != filter.bitsPerBucket)) {
+                filter.close();
+                return null;
+            }
+            for (final ByteBuffer buffer : filter.buffers) {
+                readFully(channel, buffer.clear());
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * Writes this filter to the given file. This method must not be called concurrently with
+     * filter updates.
+     *
+     * @param file the file to write to
+     * @throws IOException if an I/O error occurs
+     */
+    void writeToFile(final Path file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(
+                file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES * 3);
+            header.putInt(FILE_FORMAT_VERSION);
+            header.putInt(numOfBuckets);
+            header.putInt(bitsPerBucket);
+            writeFully(channel, header.flip());
+            for (final ByteBuffer buffer : buffers) {
+                writeFully(channel, buffer.duplicate().clear());
+            }
+        }
+    }
+
+    /**
+     * Checks if a key with the given hash code may be in the bucket.
+     *
+     * @param bucketIndex the bucket index
+     * @param keyHashCode the key hash code
+     * @return false if the key is definitely not in the bucket, true if it may be there
+     */
+    boolean mightContain(final int bucketIndex, final int keyHashCode) {
+        final ByteBuffer buffer = buffers[bucketIndex / bucketsPerBuffer];
+        final int base = (bucketIndex % bucketsPerBuffer) * wordsPerBucket;
+        final long hash = mix(keyHashCode);
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < NUM_HASH_FUNCTIONS; i++) {
+            final int bit = (h1 + i * h2) & (bitsPerBucket - 1);
+            final long word = (long) LONGS.getVolatile(buffer, (base + (bit >>> 6)) * Long.BYTES);
+            if ((word & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds hash codes of all entries of the given bucket to the bucket's filter. Existing bits
+     * are preserved.
+     *
+     * @param bucketIndex the bucket index
+     * @param bucket the bucket, may be empty
+     */
+    void merge(final int bucketIndex, final Bucket bucket) {
+        final ByteBuffer buffer = buffers[bucketIndex / bucketsPerBuffer];
+        final long[] words = computeWords(bucket);
+        final int base = (bucketIndex % bucketsPerBuffer) * wordsPerBucket;
+        for (int i = 0; i < wordsPerBucket; i++) {
+            if (words[i] != 0) {
+                LONGS.getAndBitwiseOr(buffer, (base + i) * Long.BYTES, words[i]);
+            }
+        }
+    }
+
+    /**
+     * Replaces the bucket's filter with hash codes of all entries of the given bucket.
+     *
+     * @param bucketIndex the bucket index
+     * @param bucket the bucket, may be empty
+     */
+    void replace(final int bucketIndex, final Bucket bucket) {
+        final ByteBuffer buffer = buffers[bucketIndex / bucketsPerBuffer];
+        final long[] words = computeWords(bucket);
+        final int base = (bucketIndex % bucketsPerBuffer) * wordsPerBucket;
+        for (int i = 0; i < wordsPerBucket; i++) {
+            LONGS.setVolatile(buffer, (base + i) * Long.BYTES, words[i]);
+        }
+    }
+
+    /**
+     * Clears filters of all buckets.
+     */
+    void clear() {
+        for (final ByteBuffer buffer : buffers) {
+            for (int i = 0; i < buffer.capacity(); i += Long.BYTES) {
+                LONGS.setVolatile(buffer, i, 0L);
+            }
+        }
+    }
+
+    /** Number of bits in a single bucket filter */
+    int getBitsPerBucket() {
+        return bitsPerBucket;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getOffHeapConsumption() {
+        long total = 0;
+        for (final ByteBuffer buffer : buffers) {
+            total += buffer.capacity();
+        }
+        return total;
+    }
+
+    /**
+     * Releases filter memory. Direct buffers are released by GC, this method just drops
+     * the references.
+     */
+    void close() {
+        // Direct buffers are released once they are garbage collected
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = null;
+        }
+    }
+
+    private long[] computeWords(final Bucket bucket) {
+        final long[] words = new long[wordsPerBucket];
+        bucket.forEachKeyHashCode(keyHashCode -> {
+            final long hash = mix(keyHashCode);
+            final int h1 = (int) hash;
+            final int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < NUM_HASH_FUNCTIONS; i++) {
+                final int bit = (h1 + i * h2) & (bitsPerBucket - 1);
+                words[bit >>> 6] |= 1L << bit;
+            }
+        });
+        return words;
+    }
+
+    /**
+     * All keys in a bucket share the lower bits of their hash codes, so the hash codes must be
+     * mixed well before they are used to select filter bits.
+     */
+    private static long mix(final int keyHashCode) {
+        long h = keyHashCode * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 29;
+        return h;
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of bloom filter file");
+            }
+        }
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -4,6 +4,7 @@ package com.swirlds.merkledb.files.hashmap;
 import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
 import static com.swirlds.logging.legacy.LogMarker.MERKLE_DB;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 import com.hedera.pbj.runtime.io.buffer.BufferedData;
 import com.hedera.pbj.runtime.io.buffer.Bytes;
@@ -17,21 +18,32 @@ import com.swirlds.merkledb.collections.LongListDisk;
 import com.swirlds.merkledb.collections.LongListOffHeap;
 import com.swirlds.merkledb.collections.OffHeapUser;
 import com.swirlds.merkledb.config.MerkleDbConfig;
+import com.swirlds.merkledb.files.BatchReadExecutor;
 import com.swirlds.merkledb.files.DataFileCollection;
+import com.swirlds.merkledb.files.DataFileCollection.ConcurrentLoadedDataCallback;
 import com.swirlds.merkledb.files.DataFileCollection.LoadedDataCallback;
+import com.swirlds.merkledb.files.DataFileCommon;
 import com.swirlds.merkledb.files.DataFileReader;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedByInterruptException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.LongSummaryStatistics;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.collections.api.tuple.primitive.IntObjectPair;
@@ -59,6 +71,8 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
     private static final String METADATA_FILENAME_SUFFIX = "_metadata.hdhm";
     /** Bucket index file name suffix with extension */
     private static final String BUCKET_INDEX_FILENAME_SUFFIX = "_bucket_index.ll";
+    /** Bucket bloom filter file name suffix with extension */
+    private static final String BLOOM_FILTER_FILENAME_SUFFIX = "_bloom_filter.bf";
     /**
      * A marker to indicate that a value should be deleted from the map, or that there is
      * no old value to compare against in putIfEqual/deleteIfEqual
@@ -73,9 +87,18 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
      */
     private static final long GOOD_AVERAGE_BUCKET_ENTRY_COUNT = 32;
 
-    /** The limit on the number of concurrent read tasks in {@code endWriting()} */
+    /** The limit on the number of buckets processed concurrently in {@code endWriting()} */
     private static final int MAX_IN_FLIGHT = 1024;
 
+    /** Max number of buckets to read with a single file read in {@code endWriting()} */
+    private static final int MAX_COALESCED_BUCKETS = 64;
+
+    /**
+     * Max distance, in bytes, between two buckets in a data file to be read with a single file
+     * read in {@code endWriting()}. Bytes between the buckets are read, too, but not used
+     */
+    private static final int MAX_COALESCED_READ_GAP = 32 * 1024;
+
     /** Platform configuration */
     @NonNull
     private final MerkleDbConfig merkleDbConfig;
@@ -100,6 +123,19 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
     private final long mapSize;
     /** The name to use for the files prefix on disk */
     private final String storeName;
+    /** The directory to store data files, also holds base chunk files for incremental index snapshots */
+    private final Path storeDir;
+
+    /**
+     * Optional per-bucket bloom filter of key hash codes. If not null, it's checked on reads to
+     * skip bucket reads for keys that are definitely not in the map
+     */
+    @Nullable
+    private final BucketBloomFilter bloomFilter;
+    /** Number of reads skipped because of the bloom filter */
+    private final LongAdder bloomFilterSkippedReads = new LongAdder();
+    /** Number of bucket reads, which passed the bloom filter, but the key was not found */
+    private final LongAdder bloomFilterFalsePositives = new LongAdder();
 
     /** Bucket pool used by this HDHM */
     private final ReusableBucketPool bucketPool;
@@ -148,6 +184,24 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
     /** A holder for the first exception occured during endWriting() tasks */
     private final AtomicReference<Throwable> exceptionOccurred = new AtomicReference<>();
 
+    /** Total time spent in all threads to read buckets from disk in the current flush, in nanoseconds */
+    private final LongAdder flushReadNanos = new LongAdder();
+
+    /** Total time spent in all threads to apply updates to buckets in the current flush, in nanoseconds */
+    private final LongAdder flushMergeNanos = new LongAdder();
+
+    /** Total time spent to write updated buckets to disk in the current flush, in nanoseconds */
+    private final LongAdder flushWriteNanos = new LongAdder();
+
+    /** Number of file reads made to read buckets in the current flush */
+    private final LongAdder flushFileReads = new LongAdder();
+
+    /** Statistics of the last completed flush */
+    private volatile FlushStats lastFlushStats = new FlushStats(0, 0, 0, 0, 0);
+
+    /** Number of bytes written by the last snapshot, excluding hard linked files */
+    private volatile long lastSnapshotBytesWritten = 0;
+
     /** Fork-join pool for HDHM.endWriting() */
     private static volatile ForkJoinPool flushingPool = null;
 
@@ -176,6 +230,30 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         return pool;
     }
 
+    /** Executor to read buckets from disk in HDHM.endWriting(), every read runs in its own virtual thread */
+    private static volatile ExecutorService flushReadExecutor = null;
+
+    /**
+     * Bucket reads during flushes are mostly waiting for disk I/O. They are run in virtual threads
+     * rather than in {@link #getFlushingPool(MerkleDbConfig) the flushing pool}, so the number of
+     * reads in flight isn't limited by the number of flushing threads, but only by the number of
+     * buckets in progress, {@link #MAX_IN_FLIGHT}.
+     */
+    private static ExecutorService getFlushReadExecutor() {
+        ExecutorService executor = flushReadExecutor;
+        if (executor == null) {
+            synchronized (HalfDiskHashMap.class) {
+                executor = flushReadExecutor;
+                if (executor == null) {
+                    executor = Executors.newThreadPerTaskExecutor(
+                            Thread.ofVirtual().name("hdhm-flush-read-", 0).factory());
+                    flushReadExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
     /**
      * Construct a new HalfDiskHashMap
      *
@@ -206,6 +284,7 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         this.merkleDbConfig = configuration.getConfigData(MerkleDbConfig.class);
         this.mapSize = mapSize;
         this.storeName = storeName;
+        this.storeDir = storeDir;
         Path indexFile = storeDir.resolve(storeName + BUCKET_INDEX_FILENAME_SUFFIX);
         // create bucket pool
         this.bucketPool = new ReusableBucketPool(Bucket::new);
@@ -256,10 +335,14 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
                 // create new index and setup call back to rebuild
                 bucketIndexToBucketLocation =
                         preferDiskBasedIndex ? new LongListDisk(indexFile, configuration) : new LongListOffHeap();
-                loadedDataCallback = (dataLocation, bucketData) -> {
-                    final Bucket bucket = bucketPool.getBucket();
-                    bucket.readFrom(bucketData);
-                    bucketIndexToBucketLocation.put(bucket.getBucketIndex(), dataLocation);
+                // data files may be processed in parallel, the latest data location wins
+                loadedDataCallback = (ConcurrentLoadedDataCallback) (dataLocation, bucketData) -> {
+                    try (final Bucket bucket = bucketPool.getBucket()) {
+                        bucket.readFrom(bucketData);
+                        bucketIndexToBucketLocation.putIfGreater(bucket.getBucketIndex(), dataLocation);
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
                 };
             }
         } else {
@@ -288,6 +371,40 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         fileCollection = new DataFileCollection(
                 // Need: propagate MerkleDb merkleDbConfig from the database
                 merkleDbConfig, storeDir, storeName, legacyStoreName, loadedDataCallback);
+        // load or rebuild bloom filter, if enabled
+        final int bloomFilterBitsPerBucket = merkleDbConfig.halfDiskHashMapBloomFilterBitsPerBucket();
+        if (bloomFilterBitsPerBucket > 0) {
+            final Path bloomFilterFile = storeDir.resolve(storeName + BLOOM_FILTER_FILENAME_SUFFIX);
+            BucketBloomFilter filter = BucketBloomFilter.load(bloomFilterFile, numOfBuckets, bloomFilterBitsPerBucket);
+            if (filter == null) {
+                filter = new BucketBloomFilter(numOfBuckets, bloomFilterBitsPerBucket);
+                rebuildBloomFilter(filter);
+            }
+            bloomFilter = filter;
+        } else {
+            bloomFilter = null;
+        }
+    }
+
+    /**
+     * Fills the given bloom filter with key hash codes of all buckets stored in this map. Used
+     * when the filter can't be loaded from disk, e.g. it's enabled for the first time.
+     */
+    private void rebuildBloomFilter(final BucketBloomFilter filter) throws IOException {
+        final long start = System.currentTimeMillis();
+        for (int i = 0; i < numOfBuckets; i++) {
+            try (final Bucket bucket = readBucket(i)) {
+                if (bucket != null) {
+                    filter.replace(i, bucket);
+                }
+            }
+        }
+        logger.info(
+                MERKLE_DB.getMarker(),
+                "HalfDiskHashMap [{}] rebuilt bloom filter with bitsPerBucket={} in {} ms",
+                storeName,
+                filter.getBitsPerBucket(),
+                System.currentTimeMillis() - start);
     }
 
     private void writeMetadata(final Path dir) throws IOException {
@@ -305,11 +422,35 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         // create snapshot directory if needed
         Files.createDirectories(snapshotDirectory);
         // write index to file
-        bucketIndexToBucketLocation.writeToFile(snapshotDirectory.resolve(storeName + BUCKET_INDEX_FILENAME_SUFFIX));
-        // snapshot files
+        // when incremental, unchanged index chunks are hard linked from base chunk files in the store dir
+        final Path indexBaseFile = merkleDbConfig.incrementalSnapshots()
+                ? storeDir.resolve(storeName + BUCKET_INDEX_FILENAME_SUFFIX)
+                : null;
+        long bytesWritten = bucketIndexToBucketLocation.writeToFile(
+                snapshotDirectory.resolve(storeName + BUCKET_INDEX_FILENAME_SUFFIX), indexBaseFile);
+        // snapshot files, they are hard linked
         fileCollection.snapshot(snapshotDirectory);
+        bytesWritten += fileCollection.getLastSnapshotBytesWritten();
+        // write bloom filter
+        if (bloomFilter != null) {
+            final Path bloomFilterFile = snapshotDirectory.resolve(storeName + BLOOM_FILTER_FILENAME_SUFFIX);
+            bloomFilter.writeToFile(bloomFilterFile);
+            bytesWritten += Files.size(bloomFilterFile);
+        }
         // write metadata
         writeMetadata(snapshotDirectory);
+        bytesWritten += Files.size(snapshotDirectory.resolve(storeName + METADATA_FILENAME_SUFFIX));
+        lastSnapshotBytesWritten = bytesWritten;
+    }
+
+    /**
+     * Returns the number of bytes written to disk by the last {@link #snapshot(Path)} call. Data
+     * files and index chunks, which are hard linked rather than written, are not counted.
+     *
+     * @return the number of bytes written by the last snapshot
+     */
+    public long getLastSnapshotBytesWritten() {
+        return lastSnapshotBytesWritten;
     }
 
     /**
@@ -317,10 +458,34 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
      */
     @Override
     public long getOffHeapConsumption() {
+        long total = getBloomFilterOffHeapConsumption();
         if (bucketIndexToBucketLocation instanceof LongListOffHeap offheapIndex) {
-            return offheapIndex.getOffHeapConsumption();
+            total += offheapIndex.getOffHeapConsumption();
         }
-        return 0;
+        return total;
+    }
+
+    /**
+     * Returns the off-heap memory used by the bucket bloom filter, or zero if the filter is disabled.
+     */
+    public long getBloomFilterOffHeapConsumption() {
+        return bloomFilter != null ? bloomFilter.getOffHeapConsumption() : 0;
+    }
+
+    /**
+     * Returns the number of reads, which were answered by the bucket bloom filter without reading
+     * a bucket from disk.
+     */
+    public long getBloomFilterSkippedReads() {
+        return bloomFilterSkippedReads.sum();
+    }
+
+    /**
+     * Returns the number of reads, which passed the bucket bloom filter, but the key wasn't found
+     * in the bucket.
+     */
+    public long getBloomFilterFalsePositives() {
+        return bloomFilterFalsePositives.sum();
     }
 
     /**
@@ -330,6 +495,13 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         return fileCollection.getAllCompletedFilesSizeStatistics();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public long getMappedFilesSize() {
+        return fileCollection.getMappedFilesSize();
+    }
+
     /**
      * Close this HalfDiskHashMap's data files. Once closed this HalfDiskHashMap can not be reused.
      * You should make sure you call close before system exit otherwise any files being written
@@ -343,6 +515,9 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         // file operations still running, but the index is already closed
         fileCollection.close();
         bucketIndexToBucketLocation.close();
+        if (bloomFilter != null) {
+            bloomFilter.close();
+        }
     }
 
     // =================================================================================================================
@@ -448,11 +623,21 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         lastStoreTask.set(null);
         storeBucketTasksCreated.set(0);
         notifyTaskRef.set(new NotifyTask(pool));
+        flushReadNanos.reset();
+        flushMergeNanos.reset();
+        flushWriteNanos.reset();
+        flushFileReads.reset();
     }
 
     /**
      * End current writing session, committing all puts to data store.
      *
+     * <p>Buckets to update are sorted by their current locations on disk, so buckets are read
+     * in file order, and buckets close to each other in the same file are read with a single
+     * file read, see {@link BucketBatches}. Reads are run in virtual threads, up to {@link
+     * #MAX_IN_FLIGHT} buckets at a time. Updated buckets are then written to the new data
+     * file one at a time.
+     *
      * @return Data file reader for the file written
      * @throws IOException If there was a problem committing data to store
      */
@@ -471,8 +656,8 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         final DataFileReader dataFileReader;
         try {
             if (size > 0) {
-                final Iterator<IntObjectPair<BucketMutation>> it =
-                        oneTransactionsData.keyValuesView().iterator();
+                final long startTime = System.nanoTime();
+                final BucketBatches batches = new BucketBatches(sortBucketUpdates());
                 fileCollection.startWriting();
                 final ForkJoinPool pool = getFlushingPool(merkleDbConfig);
                 resetEndWriting(pool, size);
@@ -480,7 +665,7 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
                 // is scheduled to run right away. Subsequent submit tasks will be run only
                 // after some buckets are completely processed to make sure no more than
                 // MAX_IN_FLIGHT buckets are handled in parallel (to limit resource usage)
-                final SubmitTask submitTask = new SubmitTask(pool, it, 1);
+                final SubmitTask submitTask = new SubmitTask(pool, batches, 1);
                 currentSubmitTask.set(submitTask);
                 submitTask.send();
                 // Wait until all tasks are completed by waiting for the notify task to join. This
@@ -493,6 +678,24 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
                 dataFileReader = fileCollection.endWriting(0, numOfBuckets);
                 // we have updated all indexes so the data file can now be included in merges
                 dataFileReader.setFileCompleted();
+                final FlushStats stats = new FlushStats(
+                        size,
+                        flushFileReads.sum(),
+                        NANOSECONDS.toMillis(flushReadNanos.sum()),
+                        NANOSECONDS.toMillis(flushMergeNanos.sum()),
+                        NANOSECONDS.toMillis(flushWriteNanos.sum()));
+                lastFlushStats = stats;
+                logger.info(
+                        MERKLE_DB.getMarker(),
+                        "Finished writing to {} in {} ms, {} buckets read in {} file reads,"
+                                + " read time = {} ms, merge time = {} ms, write time = {} ms",
+                        storeName,
+                        NANOSECONDS.toMillis(System.nanoTime() - startTime),
+                        stats.bucketsUpdated(),
+                        stats.fileReads(),
+                        stats.readTimeMs(),
+                        stats.mergeTimeMs(),
+                        stats.writeTimeMs());
             } else {
                 dataFileReader = null;
             }
@@ -505,6 +708,123 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         return dataFileReader;
     }
 
+    /**
+     * Returns statistics of the last completed {@link #endWriting()} call. Read and merge times
+     * are totals across all threads, since buckets are read and updated in parallel.
+     *
+     * @return the last flush statistics
+     */
+    public FlushStats getLastFlushStats() {
+        return lastFlushStats;
+    }
+
+    /**
+     * Collects all bucket updates of the current writing session and sorts them by the current
+     * bucket locations on disk. Buckets, which are not on disk yet, go first.
+     */
+    private BucketUpdate[] sortBucketUpdates() {
+        final BucketUpdate[] updates = new BucketUpdate[oneTransactionsData.size()];
+        int i = 0;
+        for (final IntObjectPair<BucketMutation> keyValue : oneTransactionsData.keyValuesView()) {
+            final int bucketIndex = keyValue.getOne();
+            final long bucketLocation = bucketIndexToBucketLocation.get(bucketIndex, LongList.IMPERMISSIBLE_VALUE);
+            updates[i++] = new BucketUpdate(bucketIndex, bucketLocation, keyValue.getTwo());
+        }
+        Arrays.sort(updates, Comparator.comparingLong(BucketUpdate::bucketLocation));
+        return updates;
+    }
+
+    /**
+     * Flush statistics.
+     *
+     * @param bucketsUpdated number of updated buckets
+     * @param fileReads number of file reads made to read the buckets from disk
+     * @param readTimeMs total time spent in all threads to read buckets from disk, ms
+     * @param mergeTimeMs total time spent in all threads to apply updates to buckets, ms
+     * @param writeTimeMs total time spent to write updated buckets to disk, ms
+     */
+    public record FlushStats(
+            long bucketsUpdated, long fileReads, long readTimeMs, long mergeTimeMs, long writeTimeMs) {}
+
+    /**
+     * A bucket to update during flush.
+     *
+     * @param bucketIndex the bucket index
+     * @param bucketLocation the bucket location on disk when the flush started, or zero if the
+     *                       bucket is not on disk
+     * @param keyUpdates updates to apply to the bucket
+     */
+    private record BucketUpdate(int bucketIndex, long bucketLocation, BucketMutation keyUpdates) {}
+
+    /**
+     * Splits a sorted array of bucket updates into batches. Every batch is a range of buckets, which
+     * are read together with a single file read. To be in the same batch, buckets must be in the same
+     * data file, close enough to each other, and the whole batch must fit into the max coalesced read
+     * size from config. Buckets, which are not on disk yet, are batched together, too, they don't need
+     * to be read at all.
+     *
+     * <p>This class is not thread safe. It's only used by submit tasks, which are run one at a time.
+     */
+    private final class BucketBatches {
+
+        private final BucketUpdate[] updates;
+
+        /** Bucket locations, in the same order as updates */
+        private final long[] bucketLocations;
+
+        /** The index of the first bucket in the next batch */
+        private int next = 0;
+
+        BucketBatches(final BucketUpdate[] updates) {
+            this.updates = updates;
+            bucketLocations = new long[updates.length];
+            for (int i = 0; i < updates.length; i++) {
+                bucketLocations[i] = updates[i].bucketLocation();
+            }
+        }
+
+        boolean hasNext() {
+            return next < updates.length;
+        }
+
+        /**
+         * Returns the next batch, which contains at most the given number of buckets.
+         *
+         * @param maxBuckets max number of buckets in the batch
+         * @return the next batch
+         */
+        ReadUpdateBucketsTask next(final ForkJoinPool pool, final int maxBuckets) {
+            final int from = next;
+            final int limit = Math.min(updates.length, from + Math.min(maxBuckets, MAX_COALESCED_BUCKETS));
+            final long firstLocation = bucketLocations[from];
+            final int maxReadBytes = merkleDbConfig.halfDiskHashMapFlushMaxCoalescedReadBytes();
+            int to = from + 1;
+            if (firstLocation == LongList.IMPERMISSIBLE_VALUE) {
+                while ((to < limit) && (bucketLocations[to] == LongList.IMPERMISSIBLE_VALUE)) {
+                    to++;
+                }
+            } else {
+                final int fileIndex = DataFileCommon.fileIndexFromDataLocation(firstLocation);
+                final long startOffset = DataFileCommon.byteOffsetFromDataLocation(firstLocation);
+                long prevOffset = startOffset;
+                while (to < limit) {
+                    final long location = bucketLocations[to];
+                    if (DataFileCommon.fileIndexFromDataLocation(location) != fileIndex) {
+                        break;
+                    }
+                    final long offset = DataFileCommon.byteOffsetFromDataLocation(location);
+                    if ((offset - prevOffset > MAX_COALESCED_READ_GAP) || (offset - startOffset >= maxReadBytes)) {
+                        break;
+                    }
+                    prevOffset = offset;
+                    to++;
+                }
+            }
+            next = to;
+            return new ReadUpdateBucketsTask(pool, this, from, to);
+        }
+    }
+
     /**
      * A task to submit "read bucket" tasks. Tasks are submitted till the number of buckets
      * in progress exceeds MAX_IN_FLIGHT. After that, if there are still unprocessed buckets,
@@ -513,11 +833,11 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
      */
     private class SubmitTask extends AbstractTask {
 
-        private final Iterator<IntObjectPair<BucketMutation>> it;
+        private final BucketBatches batches;
 
-        SubmitTask(final ForkJoinPool pool, final Iterator<IntObjectPair<BucketMutation>> it, final int depCount) {
+        SubmitTask(final ForkJoinPool pool, final BucketBatches batches, final int depCount) {
             super(pool, depCount);
-            this.it = it;
+            this.batches = batches;
         }
 
         // Notifies that some bucket is fully processed. It sets one of this task's dependencies.
@@ -531,21 +851,20 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
             // The next submit task to run after the current one. It will only be run, if
             // this task doesn't schedule tasks for all remaining buckets, and at least one
             // bucket is completely processed while this method is running
-            final SubmitTask nextSubmitTask = new SubmitTask(getPool(), it, 2);
+            final SubmitTask nextSubmitTask = new SubmitTask(getPool(), batches, 2);
             final boolean newSubmitTaskSet = currentSubmitTask.compareAndSet(this, nextSubmitTask);
             assert newSubmitTaskSet;
             int maxToSubmit = bucketPermits.getAndSet(0);
             assert maxToSubmit > 0;
-            while (it.hasNext() && (maxToSubmit-- > 0)) {
-                final IntObjectPair<BucketMutation> keyValue = it.next();
-                final int bucketIndex = keyValue.getOne();
-                final BucketMutation bucketMap = keyValue.getTwo();
-                // Create a "read bucket" task
-                final ReadUpdateBucketTask readBucketTask = new ReadUpdateBucketTask(getPool(), bucketIndex, bucketMap);
-                // Execute it right away
-                readBucketTask.send();
+            final ExecutorService readExecutor = getFlushReadExecutor();
+            while (batches.hasNext() && (maxToSubmit > 0)) {
+                // Create a "read bucket" task for the next batch of buckets and run it in a
+                // virtual thread right away
+                final ReadUpdateBucketsTask readBucketsTask = batches.next(getPool(), maxToSubmit);
+                maxToSubmit -= readBucketsTask.size();
+                readExecutor.execute(readBucketsTask);
             }
-            if (it.hasNext()) {
+            if (batches.hasNext()) {
                 // There are more buckets to process. Let the next submit task run. One of the next task's
                 // dependencies is set here, the other one is set in the end of StoreBucketTask
                 nextSubmitTask.send();
@@ -555,27 +874,37 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
     }
 
     /**
-     * A task to read a bucket identified by the given idex from disk and apply a list of
-     * updates to the keys to it. The task has no dependencies, it's executed right after
-     * creation.
+     * A task to read a batch of buckets from disk and apply updates to the keys to them. The
+     * task is run in a virtual thread. Buckets in the batch are read from disk with a single
+     * positional file read, if possible. Buckets not covered by the read, for example, because
+     * the data file has just been compacted, are read one by one using the bucket index.
      */
-    private class ReadUpdateBucketTask extends AbstractTask {
+    private class ReadUpdateBucketsTask implements Runnable {
+
+        private final ForkJoinPool pool;
 
-        // Bucket index
-        private final int bucketIndex;
+        private final BucketBatches batches;
 
-        // List of updates to apply to the bucket
-        private final BucketMutation keyUpdates;
+        // The index of the first bucket in the batch, inclusive
+        private final int from;
 
-        ReadUpdateBucketTask(final ForkJoinPool pool, final int bucketIndex, final BucketMutation keyUpdates) {
-            super(pool, 0);
-            this.bucketIndex = bucketIndex;
-            this.keyUpdates = keyUpdates;
+        // The index of the last bucket in the batch, exclusive
+        private final int to;
+
+        ReadUpdateBucketsTask(final ForkJoinPool pool, final BucketBatches batches, final int from, final int to) {
+            this.pool = pool;
+            this.batches = batches;
+            this.from = from;
+            this.to = to;
+        }
+
+        int size() {
+            return to - from;
         }
 
         private void createAndScheduleStoreTask(final Bucket bucket) {
             // Create a subsequent "store bucket" task for the bucket
-            final StoreBucketTask storeTask = new StoreBucketTask(getPool(), bucket);
+            final StoreBucketTask storeTask = new StoreBucketTask(pool, bucket);
             // The last created "store bucket" task. storeTask above will be set as an
             // output dependency for that task to make sure tasks are running only one at
             // a time. See StoreBucketTask for details
@@ -595,35 +924,74 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
             }
         }
 
-        @Override
-        protected boolean onExecute() throws IOException {
-            BufferedData bucketData = fileCollection.readDataItemUsingIndex(bucketIndexToBucketLocation, bucketIndex);
-            // The bucket will be closed by StoreBucketTask
-            final Bucket bucket = bucketPool.getBucket();
-            if (bucketData == null) {
-                // An empty bucket
-                bucket.setBucketIndex(bucketIndex);
-            } else {
-                // Read from bytes
-                bucket.readFrom(bucketData);
-                if (bucketIndex != bucket.getBucketIndex()) {
-                    throw new RuntimeException(
-                            "Bucket index integrity check " + bucketIndex + " != " + bucket.getBucketIndex());
-                }
+        /**
+         * Reads all buckets in the batch with a single file read. Returns null, if the batch
+         * contains a single bucket, or buckets not on disk, or the data file is not available.
+         */
+        @Nullable
+        private BufferedData[] readCoalesced() throws IOException {
+            if ((size() == 1) || (batches.bucketLocations[from] == LongList.IMPERMISSIBLE_VALUE)) {
+                return null;
+            }
+            try {
+                final BufferedData[] bucketsData = fileCollection.readDataItems(batches.bucketLocations, from, to);
+                flushFileReads.increment();
+                return bucketsData;
+            } catch (final ClosedByInterruptException e) {
+                throw e;
+            } catch (final IOException e) {
+                // The data file may be already deleted by compaction, if it happened after the
+                // flush was started. Buckets will be read one by one from their new locations
+                return null;
             }
-            // Apply all updates
-            keyUpdates.forEachKeyValue(bucket::putValue);
-            // Schedule a "store bucket" task for this bucket
-            createAndScheduleStoreTask(bucket);
-            return true;
         }
 
         @Override
-        protected void onException(final Throwable t) {
-            logger.error(MERKLE_DB.getMarker(), "Failed to read / update bucket " + bucketIndex, t);
-            exceptionOccurred.set(t);
-            // Make sure the writing thread is resumed
-            notifyTaskRef.get().completeExceptionally(t);
+        public void run() {
+            int bucketIndex = batches.updates[from].bucketIndex();
+            try {
+                long start = System.nanoTime();
+                final BufferedData[] bucketsData = readCoalesced();
+                long readNanos = System.nanoTime() - start;
+                long mergeNanos = 0;
+                for (int i = from; i < to; i++) {
+                    final BucketUpdate update = batches.updates[i];
+                    bucketIndex = update.bucketIndex();
+                    BufferedData bucketData = (bucketsData != null) ? bucketsData[i - from] : null;
+                    if ((bucketData == null) && (update.bucketLocation() != LongList.IMPERMISSIBLE_VALUE)) {
+                        start = System.nanoTime();
+                        bucketData = fileCollection.readDataItemUsingIndex(bucketIndexToBucketLocation, bucketIndex);
+                        readNanos += System.nanoTime() - start;
+                        flushFileReads.increment();
+                    }
+                    start = System.nanoTime();
+                    // The bucket will be closed by StoreBucketTask
+                    final Bucket bucket = bucketPool.getBucket();
+                    if (bucketData == null) {
+                        // An empty bucket
+                        bucket.setBucketIndex(bucketIndex);
+                    } else {
+                        // Read from bytes
+                        bucket.readFrom(bucketData);
+                        if (bucketIndex != bucket.getBucketIndex()) {
+                            throw new RuntimeException(
+                                    "Bucket index integrity check " + bucketIndex + " != " + bucket.getBucketIndex());
+                        }
+                    }
+                    // Apply all updates
+                    update.keyUpdates().forEachKeyValue(bucket::putValue);
+                    mergeNanos += System.nanoTime() - start;
+                    // Schedule a "store bucket" task for this bucket
+                    createAndScheduleStoreTask(bucket);
+                }
+                flushReadNanos.add(readNanos);
+                flushMergeNanos.add(mergeNanos);
+            } catch (final Throwable t) {
+                logger.error(MERKLE_DB.getMarker(), "Failed to read / update bucket " + bucketIndex, t);
+                exceptionOccurred.set(t);
+                // Make sure the writing thread is resumed
+                notifyTaskRef.get().completeExceptionally(t);
+            }
         }
     }
 
@@ -655,6 +1023,7 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
 
         @Override
         protected boolean onExecute() throws IOException {
+            final long start = System.nanoTime();
             try (bucket) {
                 final int bucketIndex = bucket.getBucketIndex();
                 if (bucket.isEmpty()) {
@@ -663,9 +1032,19 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
                 } else {
                     // save bucket
                     final long bucketLocation = fileCollection.storeDataItem(bucket::writeTo, bucket.sizeInBytes());
+                    // add new keys to the bloom filter before the bucket is visible to readers, so
+                    // concurrent reads never get false negatives
+                    if (bloomFilter != null) {
+                        bloomFilter.merge(bucketIndex, bucket);
+                    }
                     // update bucketIndexToBucketLocation
                     bucketIndexToBucketLocation.put(bucketIndex, bucketLocation);
                 }
+                // now the new bucket is visible, drop bits of deleted keys from the bloom filter
+                if (bloomFilter != null) {
+                    bloomFilter.replace(bucketIndex, bucket);
+                }
+                flushWriteNanos.add(System.nanoTime() - start);
                 next.send();
                 return true;
             } finally {
@@ -727,14 +1106,90 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
             throw new IllegalArgumentException("Can not get a null key");
         }
         final int bucketIndex = computeBucketIndex(keyHashCode);
+        if ((bloomFilter != null) && !bloomFilter.mightContain(bucketIndex, keyHashCode)) {
+            bloomFilterSkippedReads.increment();
+            return notFoundValue;
+        }
         try (final Bucket bucket = readBucket(bucketIndex)) {
             if (bucket != null) {
-                return bucket.findValue(keyHashCode, keyBytes, notFoundValue);
+                final long value = bucket.findValue(keyHashCode, keyBytes, notFoundValue);
+                if ((bloomFilter != null) && (value == notFoundValue)) {
+                    bloomFilterFalsePositives.increment();
+                }
+                return value;
             }
         }
+        if (bloomFilter != null) {
+            bloomFilterFalsePositives.increment();
+        }
         return notFoundValue;
     }
 
+    /**
+     * Get values for multiple keys. Keys are grouped by bucket, so every bucket is read at most
+     * once, even if multiple keys map to it. Buckets are read in parallel, in the order of their
+     * locations on disk.
+     *
+     * @param keyBytes the keys to get values for, must not contain nulls
+     * @param keyHashCodes the key hash codes, must be of the same length as the keys
+     * @param notFoundValue the value to return for keys not found in the map
+     * @return the values, in the same order as the keys
+     * @throws IOException If there was a problem reading buckets from disk
+     */
+    public long[] getAll(final Bytes[] keyBytes, final int[] keyHashCodes, final long notFoundValue)
+            throws IOException {
+        if (keyBytes.length != keyHashCodes.length) {
+            throw new IllegalArgumentException("Keys and key hash codes must be of the same length");
+        }
+        final int count = keyBytes.length;
+        final long[] values = new long[count];
+        Arrays.fill(values, notFoundValue);
+        final int[] bucketIndices = new int[count];
+        final long[] bucketLocations = new long[count];
+        final List<Integer> toRead = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (keyBytes[i] == null) {
+                throw new IllegalArgumentException("Can not get a null key");
+            }
+            final int bucketIndex = computeBucketIndex(keyHashCodes[i]);
+            if ((bloomFilter != null) && !bloomFilter.mightContain(bucketIndex, keyHashCodes[i])) {
+                bloomFilterSkippedReads.increment();
+                continue;
+            }
+            bucketIndices[i] = bucketIndex;
+            bucketLocations[i] =
+                    bucketIndexToBucketLocation.get(bucketIndex, DataFileCommon.NON_EXISTENT_DATA_LOCATION);
+            toRead.add(i);
+        }
+        // Sort keys by bucket locations, keys from the same bucket are next to each other
+        toRead.sort(
+                Comparator.<Integer>comparingLong(i -> bucketLocations[i]).thenComparingInt(i -> bucketIndices[i]));
+        final List<int[]> bucketKeys = new ArrayList<>();
+        int groupStart = 0;
+        for (int i = 1; i <= toRead.size(); i++) {
+            if ((i == toRead.size()) || (bucketIndices[toRead.get(i)] != bucketIndices[toRead.get(groupStart)])) {
+                bucketKeys.add(toRead.subList(groupStart, i).stream()
+                        .mapToInt(Integer::intValue)
+                        .toArray());
+                groupStart = i;
+            }
+        }
+        BatchReadExecutor.readAll(merkleDbConfig, bucketKeys.size(), b -> {
+            final int[] keys = bucketKeys.get(b);
+            try (final Bucket bucket = readBucket(bucketIndices[keys[0]])) {
+                for (final int i : keys) {
+                    if (bucket != null) {
+                        values[i] = bucket.findValue(keyHashCodes[i], keyBytes[i], notFoundValue);
+                    }
+                    if ((bloomFilter != null) && (values[i] == notFoundValue)) {
+                        bloomFilterFalsePositives.increment();
+                    }
+                }
+            }
+        });
+        return values;
+    }
+
     private Bucket readBucket(final int bucketIndex) throws IOException {
         final BufferedData bucketData = fileCollection.readDataItemUsingIndex(bucketIndexToBucketLocation, bucketIndex);
         if (bucketData == null) {
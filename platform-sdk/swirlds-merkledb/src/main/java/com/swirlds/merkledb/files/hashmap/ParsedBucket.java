@@ -15,6 +15,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntConsumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -198,6 +199,16 @@ public final class ParsedBucket extends Bucket {
         return -1;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachKeyHashCode(final IntConsumer action) {
+        for (final BucketEntry entry : entries) {
+            action.accept(entry.getHashCode());
+        }
+    }
+
     /** toString for debugging */
     @SuppressWarnings("StringConcatenationInsideStringBufferAppend")
     @Override
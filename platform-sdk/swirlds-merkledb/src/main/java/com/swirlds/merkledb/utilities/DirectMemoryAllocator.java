@@ -0,0 +1,269 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb.utilities;
+
+import static com.swirlds.logging.legacy.LogMarker.MERKLE_DB;
+
+import com.swirlds.merkledb.config.MerkleDbConfig;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Allocates direct byte buffers for large off-heap collections like {@link
+ * com.swirlds.merkledb.collections.LongListOffHeap} and {@link
+ * com.swirlds.merkledb.collections.HashListByteBuffer}.
+ *
+ * <p>In {@link Mode#DEFAULT} mode, buffers are allocated using {@link ByteBuffer#allocateDirect(int)}.
+ * In {@link Mode#HUGE_PAGE_ALIGNED} mode, every buffer starts at a {@link #HUGE_PAGE_SIZE} boundary.
+ * When transparent huge pages mode of the host is "always", it lets the kernel back whole buffers
+ * with huge pages, which reduces TLB misses on random reads. This class doesn't advise the kernel to
+ * use huge pages for the buffers ({@code madvise(MADV_HUGEPAGE)}), so in "madvise" mode buffers are
+ * backed by regular pages, and alignment alone doesn't help. The price is up to one extra huge page
+ * of memory per buffer, so this mode only makes sense for buffers that are much larger than a huge
+ * page. Actual huge page usage can be checked with {@link #reportPageSizes()}.
+ *
+ * <p>Buffers allocated by this class should be released using {@link #release(ByteBuffer)}. An aligned
+ * buffer is a slice of a larger buffer that owns the memory. The slice references the owning buffer,
+ * so if an aligned buffer is not released explicitly, its memory is freed once both buffers are
+ * collected by GC, like for plain direct buffers.
+ *
+ * <p>The mode is global. It's set from MerkleDb config by the first data source, see {@link
+ * #configure(MerkleDbConfig)}. Subsequent calls don't change the mode.
+ */
+public final class DirectMemoryAllocator {
+
+    private static final Logger logger = LogManager.getLogger(DirectMemoryAllocator.class);
+
+    /** Allocation modes */
+    public enum Mode {
+        /** Buffers are allocated with default alignment */
+        DEFAULT,
+        /** Buffers are aligned to huge page boundaries */
+        HUGE_PAGE_ALIGNED
+    }
+
+    /** Huge page size, 2MB on x86-64 and most aarch64 Linux hosts */
+    public static final int HUGE_PAGE_SIZE = 2 * 1024 * 1024;
+
+    private static final Path THP_ENABLED_FILE = Path.of("/sys/kernel/mm/transparent_hugepage/enabled");
+
+    private static final Path SMAPS_FILE = Path.of("/proc/self/smaps");
+
+    private static volatile Mode mode = Mode.DEFAULT;
+
+    private static final AtomicBoolean configured = new AtomicBoolean(false);
+
+    /** Removes memory regions of aligned buffers collected by GC */
+    private static final Cleaner cleaner = Cleaner.create();
+
+    /**
+     * Memory regions of aligned buffers allocated in {@link Mode#HUGE_PAGE_ALIGNED} mode, by buffer
+     * address. Regions don't reference the buffers, they are only used for accounting and huge page
+     * usage reports.
+     */
+    private static final Map<Long, AlignedRegion> alignedRegions = new ConcurrentHashMap<>();
+
+    /** Total size of aligned buffers currently allocated */
+    private static final AtomicLong alignedBytes = new AtomicLong();
+
+    /**
+     * A memory region of an aligned buffer. The region is removed, when the buffer is released, or
+     * when the buffer is collected by GC, whichever comes first.
+     */
+    private static final class AlignedRegion implements Runnable {
+        private final long address;
+        private final int size;
+        private final AtomicBoolean removed = new AtomicBoolean(false);
+        private volatile Cleaner.Cleanable cleanable;
+
+        private AlignedRegion(final long address, final int size) {
+            this.address = address;
+            this.size = size;
+        }
+
+        @Override
+        public void run() {
+            if (removed.compareAndSet(false, true)) {
+                alignedRegions.remove(address, this);
+                alignedBytes.addAndGet(-size);
+            }
+        }
+    }
+
+    /**
+     * Huge page usage report.
+     *
+     * @param transparentHugePages transparent huge pages mode of the host, e.g. "always" or "madvise",
+     *                             or "unavailable", if it can't be detected
+     * @param alignedBytes total size of buffers allocated in {@link Mode#HUGE_PAGE_ALIGNED} mode
+     * @param hugePageBytes bytes in memory regions with aligned buffers, which are backed by huge pages
+     */
+    public record PageSizeReport(String transparentHugePages, long alignedBytes, long hugePageBytes) {}
+
+    private DirectMemoryAllocator() {}
+
+    /**
+     * Sets the allocation mode from the given config, unless it's already configured.
+     *
+     * @param config MerkleDb config
+     */
+    public static void configure(@NonNull final MerkleDbConfig config) {
+        Objects.requireNonNull(config);
+        if (configured.compareAndSet(false, true)) {
+            setMode(config.offHeapHugePageAlignment() ? Mode.HUGE_PAGE_ALIGNED : Mode.DEFAULT);
+        }
+    }
+
+    /**
+     * Sets the allocation mode. Buffers allocated before the call are not affected. Used in
+     * tests and benchmarks, in other cases the mode should be set using {@link
+     * #configure(MerkleDbConfig)}.
+     *
+     * @param newMode the new allocation mode
+     */
+    public static void setMode(@NonNull final Mode newMode) {
+        mode = Objects.requireNonNull(newMode);
+        if (newMode == Mode.HUGE_PAGE_ALIGNED) {
+            final String thp = readTransparentHugePagesMode();
+            if ("always".equals(thp)) {
+                logger.info(MERKLE_DB.getMarker(), "Off-heap buffers are aligned to huge pages");
+            } else {
+                logger.warn(
+                        MERKLE_DB.getMarker(),
+                        "Off-heap buffers are aligned to huge pages, but transparent huge pages mode is [{}],"
+                                + " buffers are only backed by huge pages in [always] mode",
+                        thp);
+            }
+        }
+    }
+
+    /**
+     * Returns the current allocation mode.
+     */
+    public static Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Allocates a new direct byte buffer of the given size using the current allocation mode.
+     * Buffer byte order is {@link ByteOrder#BIG_ENDIAN}, like for buffers created using {@link
+     * ByteBuffer#allocateDirect(int)}.
+     *
+     * @param size the buffer size, in bytes
+     * @return the allocated buffer
+     */
+    public static ByteBuffer allocate(final int size) {
+        if ((mode != Mode.HUGE_PAGE_ALIGNED) || (size > Integer.MAX_VALUE - HUGE_PAGE_SIZE)) {
+            return ByteBuffer.allocateDirect(size);
+        }
+        final ByteBuffer parent = ByteBuffer.allocateDirect(size + HUGE_PAGE_SIZE);
+        final long parentAddress = MemoryUtils.bufferAddress(parent);
+        final int offset = (int) (-parentAddress & (HUGE_PAGE_SIZE - 1));
+        final ByteBuffer buffer = parent.slice(offset, size).order(ByteOrder.BIG_ENDIAN);
+        final AlignedRegion region = new AlignedRegion(parentAddress + offset, size);
+        alignedBytes.addAndGet(size);
+        alignedRegions.put(region.address, region);
+        // the action must not reference the buffer, otherwise the buffer is never collected
+        region.cleanable = cleaner.register(buffer, region);
+        return buffer;
+    }
+
+    /**
+     * Releases a buffer allocated using {@link #allocate(int)}.
+     *
+     * @param buffer the buffer to release
+     */
+    public static void release(@NonNull final ByteBuffer buffer) {
+        final ByteBuffer owner = MemoryUtils.directBufferOwner(buffer);
+        if (owner == null) {
+            MemoryUtils.closeDirectByteBuffer(buffer);
+            return;
+        }
+        final AlignedRegion region = alignedRegions.get(MemoryUtils.bufferAddress(buffer));
+        if (region != null) {
+            region.cleanable.clean();
+        }
+        MemoryUtils.closeDirectByteBuffer(owner);
+    }
+
+    /**
+     * Reports how much memory allocated in {@link Mode#HUGE_PAGE_ALIGNED} mode is actually backed by
+     * huge pages. The report is based on {@code /proc/self/smaps}, which is only available on Linux.
+     * Reading it may take a while, this method is not supposed to be called often.
+     *
+     * @return the huge page usage report
+     */
+    public static PageSizeReport reportPageSizes() {
+        final TreeMap<Long, Long> regions = new TreeMap<>();
+        alignedRegions.values().forEach(region -> regions.put(region.address, region.address + region.size));
+        long hugePageBytes = 0;
+        if (!regions.isEmpty() && Files.exists(SMAPS_FILE)) {
+            try (final BufferedReader reader = Files.newBufferedReader(SMAPS_FILE)) {
+                boolean overlaps = false;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    final int dash = line.indexOf('-');
+                    final int space = line.indexOf(' ');
+                    if ((dash > 0) && (space > dash) && isHex(line, 0, dash)) {
+                        // memory region header line: "start-end perms offset dev inode path"
+                        final long start = Long.parseUnsignedLong(line, 0, dash, 16);
+                        final long end = Long.parseUnsignedLong(line, dash + 1, space, 16);
+                        final Map.Entry<Long, Long> floor = regions.lowerEntry(end);
+                        overlaps = (floor != null) && (floor.getValue() > start);
+                    } else if (overlaps && line.startsWith("AnonHugePages:")) {
+                        hugePageBytes += parseKb(line) * 1024;
+                    }
+                }
+            } catch (final IOException | NumberFormatException e) {
+                logger.warn(MERKLE_DB.getMarker(), "Failed to read huge page usage from {}", SMAPS_FILE, e);
+            }
+        }
+        return new PageSizeReport(readTransparentHugePagesMode(), alignedBytes.get(), hugePageBytes);
+    }
+
+    private static String readTransparentHugePagesMode() {
+        try {
+            if (Files.exists(THP_ENABLED_FILE)) {
+                // the file content looks like "always [madvise] never", the current mode is in brackets
+                final String content = Files.readString(THP_ENABLED_FILE);
+                final int open = content.indexOf('[');
+                final int close = content.indexOf(']', open + 1);
+                if ((open >= 0) && (close > open)) {
+                    return content.substring(open + 1, close);
+                }
+            }
+        } catch (final IOException e) {
+            logger.warn(MERKLE_DB.getMarker(), "Failed to read transparent huge pages mode", e);
+        }
+        return "unavailable";
+    }
+
+    private static boolean isHex(final String s, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (Character.digit(s.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseKb(final String line) {
+        // e.g. "AnonHugePages:      4096 kB"
+        final String value = line.substring(line.indexOf(':') + 1).trim();
+        final int space = value.indexOf(' ');
+        return Long.parseLong(space > 0 ? value.substring(0, space) : value);
+    }
+}
@@ -20,6 +20,9 @@ public class MemoryUtils {
     /** Offset of the {@code java.nio.Buffer#address} field. */
     private static final long BYTE_BUFFER_ADDRESS_FIELD_OFFSET;
 
+    /** Offset of the {@code java.nio.DirectByteBuffer#att} field. */
+    private static final long DIRECT_BUFFER_ATTACHMENT_FIELD_OFFSET;
+
     static {
         try {
             Field f = Unsafe.class.getDeclaredField("theUnsafe");
@@ -33,6 +36,15 @@ public class MemoryUtils {
         } catch (final NoSuchFieldException | SecurityException | IllegalArgumentException e) {
             throw new InternalError(e);
         }
+        try {
+            DIRECT_BUFFER_ATTACHMENT_FIELD_OFFSET = UNSAFE.objectFieldOffset(
+                    Class.forName("java.nio.DirectByteBuffer").getDeclaredField("att"));
+        } catch (final ClassNotFoundException
+                | NoSuchFieldException
+                | SecurityException
+                | IllegalArgumentException e) {
+            throw new InternalError(e);
+        }
     }
 
     /**
@@ -58,35 +70,88 @@ public class MemoryUtils {
         UNSAFE.invokeCleaner(buffer);
     }
 
+    /**
+     * Reads a long from a direct byte buffer with volatile semantics. The offset is not checked
+     * against buffer capacity, and buffer position and limit are ignored.
+     *
+     * @param buffer the buffer, must be direct
+     * @param offset the offset in the buffer, must be 8-byte aligned
+     * @return the long value
+     */
     public static long getLongVolatile(@NonNull final ByteBuffer buffer, final long offset) {
         final long address = bufferAddress(buffer);
         return UNSAFE.getLongVolatile(null, address + offset);
     }
 
+    /**
+     * Writes a long to a direct byte buffer with volatile semantics. The offset is not checked
+     * against buffer capacity, and buffer position and limit are ignored.
+     *
+     * @param buffer the buffer, must be direct
+     * @param offset the offset in the buffer, must be 8-byte aligned
+     * @param value the long value
+     */
     public static void putLongVolatile(@NonNull final ByteBuffer buffer, final long offset, final long value) {
         final long address = bufferAddress(buffer);
         UNSAFE.putLongVolatile(null, address + offset, value);
     }
 
+    /**
+     * Atomically updates a long in a direct byte buffer, if its current value is the expected
+     * value. The offset is not checked against buffer capacity, and buffer position and limit
+     * are ignored.
+     *
+     * @param buffer the buffer, must be direct
+     * @param offset the offset in the buffer, must be 8-byte aligned
+     * @param expected the expected current value
+     * @param value the new value
+     * @return whether the value was updated
+     */
     public static boolean compareAndSwapLong(
             @NonNull final ByteBuffer buffer, final long offset, final long expected, final long value) {
         final long address = bufferAddress(buffer);
         return UNSAFE.compareAndSwapLong(null, address + offset, expected, value);
     }
 
+    /**
+     * Fills a range in a direct byte buffer with the given byte. The range is not checked against
+     * buffer capacity, and buffer position and limit are ignored.
+     *
+     * @param buffer the buffer, must be direct
+     * @param offset the range start offset in the buffer
+     * @param len the range length, in bytes
+     * @param value the byte to fill the range with
+     */
     public static void setMemory(
             @NonNull final ByteBuffer buffer, final long offset, final long len, final byte value) {
         final long address = bufferAddress(buffer);
         UNSAFE.setMemory(address + offset, len, value);
     }
 
+    /**
+     * Get the direct buffer that owns the memory of the given buffer, if the given buffer is a slice
+     * or a duplicate of another direct buffer. A slice references the owning buffer, so the memory
+     * isn't freed while the slice is reachable.
+     *
+     * @param buffer the buffer, must be direct
+     * @return the buffer that owns the memory, or null if the given buffer owns its memory
+     */
+    static ByteBuffer directBufferOwner(@NonNull final ByteBuffer buffer) {
+        Objects.requireNonNull(buffer);
+        if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("buffer.isDirect() must be true");
+        }
+        final Object attachment = UNSAFE.getObject(buffer, DIRECT_BUFFER_ATTACHMENT_FIELD_OFFSET);
+        return (attachment instanceof ByteBuffer owner) ? owner : null;
+    }
+
     /**
      * Get the address at which the underlying buffer storage begins.
      *
      * @param buffer that wraps the underlying storage.
      * @return the memory address at which the buffer storage begins.
      */
-    private static long bufferAddress(@NonNull final Buffer buffer) {
+    static long bufferAddress(@NonNull final Buffer buffer) {
         Objects.requireNonNull(buffer);
         if (!buffer.isDirect()) {
             throw new IllegalArgumentException("buffer.isDirect() must be true");
@@ -0,0 +1,160 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.virtualmap.datasource.VirtualDataSource;
+import com.swirlds.virtualmap.datasource.VirtualLeafBytes;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LeafRecordCacheTest {
+
+    private static final int VALUE_SIZE = 100;
+
+    private static Bytes key(final long id) {
+        return Bytes.wrap(ByteBuffer.allocate(Long.BYTES).putLong(id).array());
+    }
+
+    private static VirtualLeafBytes leaf(final long id) {
+        final Bytes key = key(id);
+        return new VirtualLeafBytes(id, key, key.hashCode(), Bytes.wrap(new byte[VALUE_SIZE]));
+    }
+
+    private static VirtualLeafBytes get(final LeafRecordCache cache, final long id) {
+        final Bytes key = key(id);
+        return cache.get(key, key.hashCode());
+    }
+
+    private static void put(final LeafRecordCache cache, final long id) {
+        final VirtualLeafBytes leaf = leaf(id);
+        cache.put(leaf.keyHashCode(), leaf);
+    }
+
+    @Test
+    @DisplayName("Put, get, and invalidate records")
+    void putGetInvalidate() {
+        final LeafRecordCache cache = new LeafRecordCache(1024 * 1024, Integer.MAX_VALUE, 1);
+        assertNull(get(cache, 1));
+        put(cache, 1);
+        final VirtualLeafBytes cached = get(cache, 1);
+        assertNotNull(cached);
+        assertEquals(1, cached.path());
+
+        // negative records are cached, too
+        final Bytes key2 = key(2);
+        cache.put(key2.hashCode(), new VirtualLeafBytes(VirtualDataSource.INVALID_PATH, key2, key2.hashCode(), null));
+        assertEquals(VirtualDataSource.INVALID_PATH, get(cache, 2).path());
+
+        final Bytes key1 = key(1);
+        cache.invalidate(key1, key1.hashCode());
+        assertNull(get(cache, 1));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Cache size is limited by bytes")
+    void sizeLimit() {
+        final long maxSize = 1024 * 1024;
+        final LeafRecordCache cache = new LeafRecordCache(maxSize, Integer.MAX_VALUE, 1);
+        final int entrySize = LeafRecordCache.ENTRY_OVERHEAD + Long.BYTES + VALUE_SIZE;
+        final int count = (int) (maxSize / entrySize) * 3;
+        for (int i = 0; i < count; i++) {
+            put(cache, i);
+            assertTrue(cache.getSizeBytes() <= maxSize, "Cache size exceeds the limit");
+        }
+        assertTrue(cache.getSizeBytes() > maxSize / 2, "Cache should be reasonably full");
+        assertTrue(cache.getEvictionCount() >= count - maxSize / entrySize, "Too few evictions");
+    }
+
+    @Test
+    @DisplayName("Cache size is limited by number of entries")
+    void entryLimit() {
+        final int maxEntries = 100;
+        final LeafRecordCache cache = new LeafRecordCache(1024 * 1024, maxEntries, 1);
+        for (int i = 0; i < maxEntries * 10; i++) {
+            put(cache, i);
+            assertTrue(cache.getEntryCount() <= maxEntries, "Cache entry count exceeds the limit");
+        }
+        assertEquals(maxEntries, cache.getEntryCount());
+        assertEquals(maxEntries * 9, cache.getEvictionCount());
+    }
+
+    @Test
+    @DisplayName("Frequently accessed records survive a scan")
+    void scanResistance() {
+        final long maxSize = 1024 * 1024;
+        final LeafRecordCache cache = new LeafRecordCache(maxSize, Integer.MAX_VALUE, 1);
+        final int entrySize = LeafRecordCache.ENTRY_OVERHEAD + Long.BYTES + VALUE_SIZE;
+        final int hotCount = (int) (maxSize / entrySize) / 4;
+        // make hot records frequently accessed
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < hotCount; i++) {
+                if (get(cache, i) == null) {
+                    put(cache, i);
+                }
+            }
+        }
+        // scan a lot of records, every record is read just once
+        for (int i = 1_000_000; i < 1_000_000 + hotCount * 20; i++) {
+            if (get(cache, i) == null) {
+                put(cache, i);
+            }
+        }
+        final long hotCached =
+                IntStream.range(0, hotCount).filter(i -> get(cache, i) != null).count();
+        assertTrue(hotCached > hotCount * 0.9, "Hot records should stay in the cache, but only " + hotCached + " of "
+                + hotCount + " did");
+    }
+
+    @Test
+    @DisplayName("Records larger than the cache are not cached")
+    void tooLargeRecord() {
+        final LeafRecordCache cache = new LeafRecordCache(1024, Integer.MAX_VALUE, 1);
+        final Bytes key = key(1);
+        cache.put(key.hashCode(), new VirtualLeafBytes(1, key, key.hashCode(), Bytes.wrap(new byte[4096])));
+        assertNull(get(cache, 1));
+        assertEquals(0, cache.getSizeBytes());
+    }
+
+    @Test
+    @DisplayName("Concurrent access")
+    void concurrentAccess() throws InterruptedException {
+        final long maxSize = 8 * 1024 * 1024;
+        final LeafRecordCache cache = new LeafRecordCache(maxSize, Integer.MAX_VALUE, 8);
+        assertEquals(8, cache.getSegmentCount());
+        final AtomicInteger errors = new AtomicInteger();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int seed = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    final long id = (i * 31L + seed) % 50_000;
+                    final VirtualLeafBytes cached = get(cache, id);
+                    if (cached == null) {
+                        put(cache, id);
+                    } else if (cached.path() != id) {
+                        errors.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, errors.get(), "Wrong records returned from the cache");
+        assertTrue(cache.getSizeBytes() <= maxSize, "Cache size exceeds the limit");
+    }
+}
@@ -55,5 +55,78 @@ class MerkleDbTableConfigTest {
         // Fields that aren't deserialized should have default protobuf values (e.g. zero), not
         // default MerkleDbConfig values
         Assertions.assertEquals(0, restored.getHashesRamToDiskThreshold());
+        Assertions.assertFalse(restored.isNativeMemoryIndices());
+        Assertions.assertFalse(restored.isLeafRecordCacheBypassed());
+    }
+
+    @Test
+    void leafRecordCacheBypassedTest() throws IOException {
+        final MerkleDbTableConfig tableConfig =
+                new MerkleDbTableConfig((short) 1, DigestType.SHA_384, 1000, 100).leafRecordCacheBypassed(true);
+        Assertions.assertTrue(tableConfig.isLeafRecordCacheBypassed());
+        Assertions.assertEquals(tableConfig, tableConfig.copy());
+        Assertions.assertNotEquals(tableConfig, tableConfig.copy().leafRecordCacheBypassed(false));
+
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (final WritableStreamingData out = new WritableStreamingData(bout)) {
+            tableConfig.writeTo(out);
+        }
+        final byte[] arr = bout.toByteArray();
+        Assertions.assertEquals(tableConfig.pbjSizeInBytes(), arr.length);
+
+        final MerkleDbTableConfig restored;
+        try (final ReadableStreamingData in = new ReadableStreamingData(arr)) {
+            restored = new MerkleDbTableConfig(in);
+        }
+        Assertions.assertTrue(restored.isLeafRecordCacheBypassed());
+        Assertions.assertFalse(restored.isNativeMemoryIndices());
+    }
+
+    @Test
+    void nativeMemoryIndicesTest() throws IOException {
+        final MerkleDbTableConfig tableConfig =
+                new MerkleDbTableConfig((short) 1, DigestType.SHA_384, 1000, 100).nativeMemoryIndices(true);
+        Assertions.assertTrue(tableConfig.isNativeMemoryIndices());
+        Assertions.assertFalse(tableConfig.isLeafRecordCacheBypassed());
+        Assertions.assertEquals(tableConfig, tableConfig.copy());
+
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (final WritableStreamingData out = new WritableStreamingData(bout)) {
+            tableConfig.writeTo(out);
+        }
+        final byte[] arr = bout.toByteArray();
+        Assertions.assertEquals(tableConfig.pbjSizeInBytes(), arr.length);
+
+        final MerkleDbTableConfig restored;
+        try (final ReadableStreamingData in = new ReadableStreamingData(arr)) {
+            restored = new MerkleDbTableConfig(in);
+        }
+        Assertions.assertTrue(restored.isNativeMemoryIndices());
+        Assertions.assertEquals(tableConfig, restored);
+    }
+
+    @Test
+    void hashStoreChunkHeightTest() throws IOException {
+        final MerkleDbTableConfig tableConfig =
+                new MerkleDbTableConfig((short) 1, DigestType.SHA_384, 1000, 100).hashStoreChunkHeight(6);
+        Assertions.assertEquals(6, tableConfig.getHashStoreChunkHeight());
+        Assertions.assertEquals(tableConfig, tableConfig.copy());
+        Assertions.assertNotEquals(tableConfig, tableConfig.copy().hashStoreChunkHeight(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tableConfig.hashStoreChunkHeight(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tableConfig.hashStoreChunkHeight(17));
+
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (final WritableStreamingData out = new WritableStreamingData(bout)) {
+            tableConfig.writeTo(out);
+        }
+        final byte[] arr = bout.toByteArray();
+        Assertions.assertEquals(tableConfig.pbjSizeInBytes(), arr.length);
+
+        final MerkleDbTableConfig restored;
+        try (final ReadableStreamingData in = new ReadableStreamingData(arr)) {
+            restored = new MerkleDbTableConfig(in);
+        }
+        Assertions.assertEquals(6, restored.getHashStoreChunkHeight());
+        Assertions.assertEquals(tableConfig, restored);
     }
 }
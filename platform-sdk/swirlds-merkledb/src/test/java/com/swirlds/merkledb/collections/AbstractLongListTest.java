@@ -6,6 +6,7 @@ import static com.swirlds.base.units.UnitConstants.MEBIBYTES_TO_BYTES;
 import static com.swirlds.common.test.fixtures.RandomUtils.nextInt;
 import static com.swirlds.merkledb.collections.AbstractLongList.DEFAULT_MAX_LONGS_TO_STORE;
 import static com.swirlds.merkledb.collections.AbstractLongList.DEFAULT_NUM_LONGS_PER_CHUNK;
+import static com.swirlds.merkledb.collections.AbstractLongList.FILE_HEADER_SIZE_CHUNKED;
 import static com.swirlds.merkledb.collections.AbstractLongList.FILE_HEADER_SIZE_V2;
 import static com.swirlds.merkledb.collections.LongList.IMPERMISSIBLE_VALUE;
 import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.CONFIGURATION;
@@ -23,6 +24,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
+import com.swirlds.common.io.utility.FileUtils;
 import com.swirlds.common.test.fixtures.io.ResourceLoader;
 import com.swirlds.config.api.Configuration;
 import java.io.IOException;
@@ -246,6 +248,44 @@ abstract class AbstractLongListTest<T extends AbstractLongList<?>> {
         }
     }
 
+    @Test
+    void testPutIfGreater() throws InterruptedException {
+        try (final LongList longList = createFullyParameterizedLongListWith(NUM_LONGS_PER_CHUNK, MAX_LONGS)) {
+            longList.updateValidRange(0, SAMPLE_SIZE - 1);
+            assertTrue(longList.putIfGreater(1, 10), "putIfGreater must put to an empty index");
+            assertFalse(longList.putIfGreater(1, 5), "putIfGreater must not put a smaller value");
+            assertFalse(longList.putIfGreater(1, 10), "putIfGreater must not put an equal value");
+            assertTrue(longList.putIfGreater(1, 11), "putIfGreater must put a greater value");
+            assertEquals(11, longList.get(1, DEFAULT_VALUE), "Wrong value after putIfGreater");
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> longList.putIfGreater(2, IMPERMISSIBLE_VALUE),
+                    "Should be illegal to put 0 in a LongList");
+
+            // Concurrent updates, the greatest value must win for every index
+            final int threads = 4;
+            final Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                workers[t] = new Thread(() -> {
+                    for (int i = 0; i < SAMPLE_SIZE; i++) {
+                        for (int v = thread; v < threads * 10; v += threads) {
+                            longList.putIfGreater(i, i * 1000L + v + 1);
+                        }
+                    }
+                });
+                workers[t].start();
+            }
+            for (final Thread worker : workers) {
+                worker.join();
+            }
+            for (int i = 0; i < SAMPLE_SIZE; i++) {
+                assertEquals(
+                        i * 1000L + threads * 10, longList.get(i, DEFAULT_VALUE), "Greatest value must win at " + i);
+            }
+        }
+    }
+
     @Test
     void testInsertAtTheEndOfTheList() {
         try (final LongList longList = createLongList()) {
@@ -512,6 +552,72 @@ abstract class AbstractLongListTest<T extends AbstractLongList<?>> {
         }
     }
 
+    @Test
+    void testIncrementalSnapshot(@TempDir final Path tempDir) throws IOException {
+        final int numLongsPerChunk = 100;
+        final int chunkSizeBytes = numLongsPerChunk * Long.BYTES;
+        final Path baseDir = Files.createDirectories(tempDir.resolve("base"));
+        final Path baseFile = baseDir.resolve("list.ll");
+        try (final LongList longList = createFullyParameterizedLongListWith(numLongsPerChunk, MAX_LONGS)) {
+            longList.updateValidRange(0, 999);
+            for (int i = 0; i < 1000; i++) {
+                longList.put(i, i + 1);
+            }
+            // All chunks are written on the first incremental snapshot. Snapshot dirs are renamed
+            // after snapshots are taken, the same way as platform states are saved
+            final Path tmpDir1 = Files.createDirectories(tempDir.resolve("tmp1"));
+            final long bytes1 = longList.writeToFile(tmpDir1.resolve("list.ll"), baseFile);
+            assertEquals(FILE_HEADER_SIZE_CHUNKED + 10L * chunkSizeBytes, bytes1);
+            final Path file1 = Files.move(tmpDir1, tempDir.resolve("snapshot1")).resolve("list.ll");
+            assertFalse(Files.exists(baseFile), "Base file itself must not be created");
+
+            // Only the modified chunk is written on the next snapshot
+            longList.put(150, 10_150);
+            final Path tmpDir2 = Files.createDirectories(tempDir.resolve("tmp2"));
+            final long bytes2 = longList.writeToFile(tmpDir2.resolve("list.ll"), baseFile);
+            assertEquals(FILE_HEADER_SIZE_CHUNKED + chunkSizeBytes, bytes2);
+            final Path dir2 = Files.move(tmpDir2, tempDir.resolve("snapshot2"));
+            final Path file2 = dir2.resolve("list.ll");
+            assertTrue(Files.isSameFile(
+                    AbstractLongList.chunkFile(file2, 0), AbstractLongList.baseChunkFile(baseFile, 0)));
+            assertFalse(Files.isSameFile(AbstractLongList.chunkFile(file1, 1), AbstractLongList.chunkFile(file2, 1)));
+
+            try (final LongList restored = createLongListFromFile(file2)) {
+                restored.updateValidRange(0, 999);
+                assertEquals(1000, restored.size());
+                for (int i = 0; i < 1000; i++) {
+                    assertEquals(i == 150 ? 10_150 : i + 1, restored.get(i), "Wrong value at index " + i);
+                }
+            }
+            // Earlier snapshots never change
+            try (final LongList restored = createLongListFromFile(file1)) {
+                restored.updateValidRange(0, 999);
+                assertEquals(151, restored.get(150));
+            }
+
+            // Previous snapshots may be deleted, unchanged chunks are still linked
+            FileUtils.deleteDirectory(file1.getParent());
+            FileUtils.deleteDirectory(dir2);
+            longList.put(999, 10_999);
+            final Path tmpDir3 = Files.createDirectories(tempDir.resolve("tmp3"));
+            assertEquals(
+                    FILE_HEADER_SIZE_CHUNKED + chunkSizeBytes,
+                    longList.writeToFile(tmpDir3.resolve("list.ll"), baseFile));
+            final Path file3 = Files.move(tmpDir3, tempDir.resolve("snapshot3")).resolve("list.ll");
+            try (final LongList restored = createLongListFromFile(file3)) {
+                restored.updateValidRange(0, 999);
+                assertEquals(10_150, restored.get(150));
+                assertEquals(10_999, restored.get(999));
+                assertEquals(1, restored.get(0));
+            }
+
+            // If the base file changes, all chunks are written again
+            final Path otherBaseFile = baseDir.resolve("other.ll");
+            final Path tmpDir4 = Files.createDirectories(tempDir.resolve("tmp4"));
+            assertEquals(bytes1, longList.writeToFile(tmpDir4.resolve("list.ll"), otherBaseFile));
+        }
+    }
+
     // Parametrized tests to test cross compatibility between the Long List implementations
 
     /**
@@ -549,6 +655,8 @@ abstract class AbstractLongListTest<T extends AbstractLongList<?>> {
 
     static LongListWriterFactory offHeapWriterFactory = new LongListWriterFactory(
             LongListOffHeap.class.getSimpleName(), () -> new LongListOffHeap(NUM_LONGS_PER_CHUNK, MAX_LONGS, 0));
+    static LongListWriterFactory nativeWriterFactory = new LongListWriterFactory(
+            LongListNative.class.getSimpleName(), () -> new LongListNative(NUM_LONGS_PER_CHUNK, MAX_LONGS, 0));
     static LongListWriterFactory diskWriterFactory = new LongListWriterFactory(
             LongListDisk.class.getSimpleName(),
             () -> new LongListDisk(NUM_LONGS_PER_CHUNK, MAX_LONGS, 0, CONFIGURATION));
@@ -574,6 +682,14 @@ abstract class AbstractLongListTest<T extends AbstractLongList<?>> {
                     throw new RuntimeException(e);
                 }
             });
+    static LongListReaderFactory nativeReaderFactory =
+            new LongListReaderFactory(LongListNative.class.getSimpleName(), (file, config) -> {
+                try {
+                    return new LongListNative(file, config);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
     static LongListReaderFactory diskReaderFactory =
             new LongListReaderFactory(LongListDisk.class.getSimpleName(), (file, config) -> {
                 try {
@@ -586,7 +702,7 @@ abstract class AbstractLongListTest<T extends AbstractLongList<?>> {
     /**
      * Generates a stream of writer-reader argument pairs for testing cross-compatibility
      * of different long list implementations. The writer implementation is supplied as
-     * a parameter, and the method pairs it with three readers (heap, off-heap, and disk-based)
+     * a parameter, and the method pairs it with four readers (heap, off-heap, native, and disk-based)
      * to test whether data written by one implementation can be correctly read by another.
      * <p>
      * This method is used internally to support the creation of specific writer-reader pairs
@@ -599,6 +715,7 @@ abstract class AbstractLongListTest<T extends AbstractLongList<?>> {
         return Stream.of(
                 Arguments.of(writerFactory, heapReaderFactory),
                 Arguments.of(writerFactory, offHeapReaderFactory),
+                Arguments.of(writerFactory, nativeReaderFactory),
                 Arguments.of(writerFactory, diskReaderFactory));
     }
 
@@ -52,7 +52,8 @@ class LongListAdHocTest {
         final int maxLongs = numLongsPerChunk * 4096;
         return Stream.of(
                 new LongListHeap(numLongsPerChunk, maxLongs, 0),
-                new LongListOffHeap(numLongsPerChunk, maxLongs, DEFAULT_RESERVED_BUFFER_LENGTH));
+                new LongListOffHeap(numLongsPerChunk, maxLongs, DEFAULT_RESERVED_BUFFER_LENGTH),
+                new LongListNative(numLongsPerChunk, maxLongs, DEFAULT_RESERVED_BUFFER_LENGTH));
     }
 
     // Tests https://github.com/hashgraph/hedera-services/issues/16860
@@ -34,8 +34,8 @@ public class LongListHeapTest extends AbstractLongListTest<LongListHeap> {
 
     /**
      * Provides a stream of writer-reader pairs specifically for the {@link LongListHeap} implementation.
-     * The writer is always {@link LongListHeap}, and it is paired with three reader implementations
-     * (heap, off-heap, and disk-based). This allows for testing whether data written by the
+     * The writer is always {@link LongListHeap}, and it is paired with four reader implementations
+     * (heap, off-heap, native, and disk-based). This allows for testing whether data written by the
      * {@link LongListHeap} can be correctly read back by all supported long list implementations.
      * <p>
      * This method builds on {@link AbstractLongListTest#longListWriterBasedPairsProvider} to generate
@@ -0,0 +1,86 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb.collections;
+
+import static com.swirlds.base.units.UnitConstants.MEBIBYTES_TO_BYTES;
+import static com.swirlds.merkledb.collections.AbstractLongList.DEFAULT_MAX_LONGS_TO_STORE;
+import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.CONFIGURATION;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.provider.Arguments;
+
+class LongListNativeTest extends AbstractLongListTest<LongListNative> {
+
+    @Override
+    protected LongListNative createLongList() {
+        return new LongListNative();
+    }
+
+    @Override
+    protected LongListNative createLongListWithChunkSizeInMb(final int chunkSizeInMb) {
+        final int impliedLongsPerChunk = Math.toIntExact((((long) chunkSizeInMb * MEBIBYTES_TO_BYTES) / Long.BYTES));
+        return new LongListNative(impliedLongsPerChunk, DEFAULT_MAX_LONGS_TO_STORE, 0);
+    }
+
+    @Override
+    protected LongListNative createFullyParameterizedLongListWith(final int numLongsPerChunk, final long maxLongs) {
+        return new LongListNative(numLongsPerChunk, maxLongs, 0);
+    }
+
+    @Override
+    protected LongListNative createLongListFromFile(final Path file) throws IOException {
+        return new LongListNative(file, CONFIGURATION);
+    }
+
+    /**
+     * Provides a stream of writer-reader pairs specifically for the {@link LongListNative} implementation.
+     * The writer is always {@link LongListNative}, and it is paired with four reader implementations
+     * (heap, off-heap, native, and disk-based). This allows for testing whether data written by the
+     * {@link LongListNative} can be correctly read back by all supported long list implementations.
+     * <p>
+     * This method builds on {@link AbstractLongListTest#longListWriterBasedPairsProvider} to generate
+     * the specific writer-reader combinations for the {@link LongListNative} implementation.
+     *
+     * @return a stream of argument pairs, each containing a {@link LongListNative} writer
+     *         and one of the supported reader implementations
+     */
+    static Stream<Arguments> longListWriterReaderPairsProvider() {
+        return longListWriterBasedPairsProvider(nativeWriterFactory);
+    }
+
+    /**
+     * Provides a stream of writer paired with two reader implementations for testing
+     * cross-compatibility.
+     * <p>
+     * Used for {@link AbstractLongListTest#testUpdateMinToTheLowerEnd}
+     *
+     * @return a stream of arguments containing a writer and two readers.
+     */
+    static Stream<Arguments> longListWriterSecondReaderPairsProvider() {
+        return longListWriterSecondReaderPairsProviderBase(longListWriterReaderPairsProvider());
+    }
+
+    /**
+     * Provides writer-reader pairs combined with range configurations for testing.
+     * <p>
+     * Used for {@link AbstractLongListTest#testWriteReadRangeElement}
+     *
+     * @return a stream of arguments for range-based parameterized tests
+     */
+    static Stream<Arguments> longListWriterReaderRangePairsProvider() {
+        return longListWriterReaderRangePairsProviderBase(longListWriterReaderPairsProvider());
+    }
+
+    /**
+     * Provides writer-reader pairs combined with chunk offset configurations (second set) for testing.
+     * <p>
+     * Used for {@link AbstractLongListTest#testPersistListWithNonZeroMinValidIndex}
+     * and {@link AbstractLongListTest#testPersistShrunkList}
+     *
+     * @return a stream of arguments for chunk offset based parameterized tests
+     */
+    static Stream<Arguments> longListWriterReaderOffsetPairsProvider() {
+        return longListWriterReaderOffsetPairsProviderBase(longListWriterReaderPairsProvider());
+    }
+}
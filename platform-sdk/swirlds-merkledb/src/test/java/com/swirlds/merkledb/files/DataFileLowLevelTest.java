@@ -6,11 +6,13 @@ import static com.swirlds.merkledb.files.DataFileCommon.createDataFilePath;
 import static com.swirlds.merkledb.files.DataFileCompactor.INITIAL_COMPACTION_LEVEL;
 import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.CONFIGURATION;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.hedera.pbj.runtime.ProtoParserTools;
 import com.hedera.pbj.runtime.ProtoWriterTools;
 import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import com.swirlds.config.api.ConfigurationBuilder;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.test.fixtures.files.FilesTestType;
 import java.io.IOException;
@@ -18,10 +20,15 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.IntStream;
 import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
 import org.junit.jupiter.api.MethodOrderer;
@@ -288,6 +295,53 @@ class DataFileLowLevelTest {
         secondReader.close();
     }
 
+    @Order(202)
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void readBackWithMemoryMappedReader(FilesTestType testType) throws Exception {
+        final MerkleDbConfig mappedConfig = ConfigurationBuilder.create()
+                .withConfigDataType(MerkleDbConfig.class)
+                .withValue("merkleDb.memoryMappedReadsEnabled", "true")
+                .build()
+                .getConfigData(MerkleDbConfig.class);
+        final var dataFile = dataFileMap.get(testType);
+        final var dataFileMetadata = dataFileMetadataMap.get(testType);
+        final var listOfDataItemLocations = listOfDataItemLocationsMap.get(testType);
+        final DataFileReader dataFileReader = new DataFileReader(mappedConfig, dataFile, dataFileMetadata);
+        // the file isn't mapped until it's marked as completed
+        assertEquals(0, dataFileReader.getMappedSize(), "file should not be mapped before completed");
+        dataFileReader.setFileCompleted();
+        assertEquals(Files.size(dataFile), dataFileReader.getMappedSize(), "unexpected mapped size");
+        // check by random in parallel, any read failure or unexpected data item fails the test
+        final int[] itemsToRead = IntStream.range(0, 10_000).map(i -> RANDOM.nextInt(1000)).toArray();
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                final int firstItem = t;
+                futures.add(executor.submit(() -> {
+                    for (int j = firstItem; j < itemsToRead.length; j += threads) {
+                        final int i = itemsToRead[j];
+                        long[] dataItem = readDataItem(dataFileReader, listOfDataItemLocations.get(i));
+                        checkItem(testType, i, dataItem);
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        dataFileReader.close();
+        assertEquals(0, dataFileReader.getMappedSize(), "mapping should be released on close");
+        assertNull(
+                dataFileReader.readDataItem(listOfDataItemLocations.get(0)),
+                "closed reader should not return data");
+    }
+
     @Order(300)
     @ParameterizedTest
     @EnumSource(FilesTestType.class)
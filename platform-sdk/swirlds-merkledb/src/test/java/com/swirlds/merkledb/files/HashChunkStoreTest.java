@@ -0,0 +1,177 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb.files;
+
+import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.CONFIGURATION;
+import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.hash;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.config.api.ConfigurationBuilder;
+import com.swirlds.merkledb.config.MerkleDbConfig;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class HashChunkStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static MerkleDbConfig config(final boolean compressed) {
+        return ConfigurationBuilder.create()
+                .withConfigDataType(MerkleDbConfig.class)
+                .withValue("merkleDb.hashStoreChunksCompressed", String.valueOf(compressed))
+                .build()
+                .getConfigData(MerkleDbConfig.class);
+    }
+
+    @Test
+    @DisplayName("Every path has a unique chunk and position")
+    void chunkGeometry() throws IOException {
+        try (final HashChunkStore store = new HashChunkStore(config(false), tempDir, "test", 3)) {
+            // Chunk 0 is paths 0-6, chunks 1-8 are rooted at paths 7-14
+            assertEquals(0, store.chunkId(0));
+            assertEquals(0, store.chunkId(6));
+            assertEquals(6, store.positionInChunk(6));
+            assertEquals(1, store.chunkId(7));
+            assertEquals(0, store.positionInChunk(7));
+            assertEquals(1, store.chunkId(15));
+            assertEquals(2, store.positionInChunk(16));
+            assertEquals(8, store.chunkId(14));
+            assertEquals(9, store.chunkId(63));
+
+            final Set<Long> slots = new HashSet<>();
+            long prevChunkId = 0;
+            for (long path = 0; path < 10_000; path++) {
+                final long chunkId = store.chunkId(path);
+                final int position = store.positionInChunk(path);
+                assertTrue(chunkId >= prevChunkId, "Chunk IDs must not decrease");
+                assertTrue(position >= 0 && position < 7, "Wrong position in chunk");
+                assertTrue(slots.add(chunkId * 7 + position), "Two paths in the same slot");
+                prevChunkId = chunkId;
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Hashes are read back after writes, reloads, and updates")
+    void putAndGet(final boolean compressed) throws IOException {
+        final long lastPath = 2_000;
+        try (final HashChunkStore store = new HashChunkStore(config(compressed), tempDir, "test", 4)) {
+            store.updateValidKeyRange(lastPath);
+            store.startWriting();
+            for (long path = 0; path <= lastPath; path += 2) {
+                store.put(path, hash((int) path + 1));
+            }
+            store.endWriting();
+            for (long path = 0; path <= lastPath; path++) {
+                if (path % 2 == 0) {
+                    assertEquals(hash((int) path + 1), store.get(path), "Wrong hash at " + path);
+                } else {
+                    assertNull(store.get(path), "Hash at " + path + " has never been written");
+                }
+            }
+            assertNull(store.get(lastPath + 1), "Path out of range");
+        }
+
+        try (final HashChunkStore store = new HashChunkStore(config(!compressed), tempDir, "test", 4)) {
+            store.updateValidKeyRange(lastPath);
+            assertEquals(hash(1001), store.get(1000), "Hashes should be loaded from existing files");
+            store.startWriting();
+            store.put(1000, hash(5));
+            store.put(1001, hash(6));
+            assertThrows(IllegalArgumentException.class, () -> store.put(lastPath + 1, hash(7)));
+            store.endWriting();
+            assertEquals(hash(5), store.get(1000));
+            assertEquals(hash(6), store.get(1001));
+            assertEquals(hash(999), store.get(998), "Other hashes in the chunk must not change");
+            assertThrows(IllegalStateException.class, () -> store.put(1000, hash(7)), "Not writing");
+        }
+    }
+
+    @Test
+    @DisplayName("Snapshots aren't affected by later writes")
+    void snapshot() throws IOException {
+        final Path storeDir = tempDir.resolve("store");
+        final Path snapshotDir = tempDir.resolve("snapshot");
+        final MerkleDbConfig config = CONFIGURATION.getConfigData(MerkleDbConfig.class);
+        try (final HashChunkStore store = new HashChunkStore(config, storeDir, "test", 2)) {
+            store.updateValidKeyRange(100);
+            store.startWriting();
+            store.put(50, hash(50));
+            store.endWriting();
+            store.snapshot(snapshotDir);
+            store.startWriting();
+            store.put(50, hash(51));
+            store.endWriting();
+            assertEquals(hash(51), store.get(50));
+
+            // Paths past the max valid path are never read
+            store.updateValidKeyRange(10);
+            assertNull(store.get(50));
+        }
+        try (final HashChunkStore restored = new HashChunkStore(config, snapshotDir, "test", 2)) {
+            restored.updateValidKeyRange(100);
+            assertEquals(hash(50), restored.get(50));
+        }
+        try (final var stream = Files.list(snapshotDir)) {
+            assertTrue(stream.allMatch(f -> f.toString().endsWith(HashChunkStore.FILE_EXTENSION)));
+        }
+    }
+
+    @Test
+    @DisplayName("Snapshot files are hard linked and never modified")
+    void snapshotFilesAreLinked() throws IOException {
+        final Path storeDir = tempDir.resolve("store");
+        final Path snapshotDir = tempDir.resolve("snapshot");
+        final Path restoredDir = tempDir.resolve("restored");
+        final MerkleDbConfig config = CONFIGURATION.getConfigData(MerkleDbConfig.class);
+        final Path chunkFile = storeDir.resolve("test_0" + HashChunkStore.FILE_EXTENSION);
+        final Path snapshotChunkFile = snapshotDir.resolve("test_0" + HashChunkStore.FILE_EXTENSION);
+        final Path restoredChunkFile = restoredDir.resolve("test_0" + HashChunkStore.FILE_EXTENSION);
+        try (final HashChunkStore store = new HashChunkStore(config, storeDir, "test", 2)) {
+            store.updateValidKeyRange(100);
+            store.startWriting();
+            store.put(50, hash(50));
+            store.endWriting();
+            store.snapshot(snapshotDir);
+            assertTrue(Files.isSameFile(chunkFile, snapshotChunkFile));
+
+            // The linked file is replaced with its copy on the next write
+            store.startWriting();
+            store.put(50, hash(51));
+            store.endWriting();
+            assertFalse(Files.isSameFile(chunkFile, snapshotChunkFile));
+            assertEquals(hash(51), store.get(50));
+        }
+        // A store loaded from linked files, the same way as MerkleDb restores states, never changes them
+        Files.createDirectories(restoredDir);
+        Files.createLink(restoredChunkFile, snapshotChunkFile);
+        try (final HashChunkStore restored = new HashChunkStore(config, restoredDir, "test", 2)) {
+            restored.updateValidKeyRange(100);
+            assertEquals(hash(50), restored.get(50));
+            restored.startWriting();
+            restored.put(50, hash(52));
+            restored.put(51, hash(53));
+            restored.endWriting();
+            assertEquals(hash(52), restored.get(50));
+            assertEquals(hash(53), restored.get(51));
+        }
+        try (final HashChunkStore snapshot = new HashChunkStore(config, snapshotDir, "test", 2)) {
+            snapshot.updateValidKeyRange(100);
+            assertEquals(hash(50), snapshot.get(50));
+            assertNull(snapshot.get(51));
+        }
+    }
+}
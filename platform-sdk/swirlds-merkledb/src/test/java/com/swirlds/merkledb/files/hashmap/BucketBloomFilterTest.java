@@ -0,0 +1,119 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb.files.hashmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BucketBloomFilterTest {
+
+    private static final int NUM_BUCKETS = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private static Bytes keyBytes(final long key) {
+        return Bytes.wrap(ByteBuffer.allocate(Long.BYTES).putLong(key).array());
+    }
+
+    private static int keyHashCode(final long key) {
+        return Long.hashCode(key);
+    }
+
+    private static Bucket createBucket(final int bucketIndex, final long firstKey, final int count) {
+        final Bucket bucket = new Bucket();
+        bucket.setBucketIndex(bucketIndex);
+        for (int i = 0; i < count; i++) {
+            final long key = firstKey + (long) i * NUM_BUCKETS;
+            bucket.putValue(keyBytes(key), keyHashCode(key), key * 2);
+        }
+        return bucket;
+    }
+
+    @Test
+    void sizeIsRoundedUp() {
+        assertEquals(64, new BucketBloomFilter(NUM_BUCKETS, 1).getBitsPerBucket());
+        assertEquals(512, new BucketBloomFilter(NUM_BUCKETS, 300).getBitsPerBucket());
+        assertEquals(512, new BucketBloomFilter(NUM_BUCKETS, 512).getBitsPerBucket());
+        assertEquals(NUM_BUCKETS * 512 / 8, new BucketBloomFilter(NUM_BUCKETS, 512).getOffHeapConsumption());
+    }
+
+    @Test
+    void noFalseNegatives() throws IOException {
+        final BucketBloomFilter filter = new BucketBloomFilter(NUM_BUCKETS, 512);
+        final int bucketIndex = 7;
+        try (final Bucket bucket = createBucket(bucketIndex, bucketIndex, 32)) {
+            filter.replace(bucketIndex, bucket);
+        }
+        for (int i = 0; i < 32; i++) {
+            final long key = bucketIndex + (long) i * NUM_BUCKETS;
+            assertTrue(filter.mightContain(bucketIndex, keyHashCode(key)), "Key must be in the filter: " + key);
+        }
+        int falsePositives = 0;
+        for (int i = 32; i < 10_032; i++) {
+            final long key = bucketIndex + (long) i * NUM_BUCKETS;
+            if (filter.mightContain(bucketIndex, keyHashCode(key))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1000, "Too many false positives: " + falsePositives);
+    }
+
+    @Test
+    void mergeKeepsOldKeysAndReplaceDropsThem() throws IOException {
+        final BucketBloomFilter filter = new BucketBloomFilter(NUM_BUCKETS, 1024);
+        final int bucketIndex = 3;
+        try (final Bucket oldBucket = createBucket(bucketIndex, bucketIndex, 4)) {
+            filter.replace(bucketIndex, oldBucket);
+        }
+        final long oldKey = bucketIndex;
+        final long newKey = bucketIndex + 100L * NUM_BUCKETS;
+        try (final Bucket newBucket = createBucket(bucketIndex, newKey, 1)) {
+            filter.merge(bucketIndex, newBucket);
+            assertTrue(filter.mightContain(bucketIndex, keyHashCode(oldKey)), "Merge must keep old keys");
+            assertTrue(filter.mightContain(bucketIndex, keyHashCode(newKey)), "Merge must add new keys");
+            filter.replace(bucketIndex, newBucket);
+            assertTrue(filter.mightContain(bucketIndex, keyHashCode(newKey)), "Replace must keep new keys");
+        }
+        try (final Bucket emptyBucket = new Bucket()) {
+            filter.replace(bucketIndex, emptyBucket);
+            assertFalse(filter.mightContain(bucketIndex, keyHashCode(newKey)), "Empty bucket filter must be empty");
+        }
+    }
+
+    @Test
+    void writeAndLoad() throws IOException {
+        final BucketBloomFilter filter = new BucketBloomFilter(NUM_BUCKETS, 256);
+        for (int i = 0; i < NUM_BUCKETS; i += 10) {
+            try (final Bucket bucket = createBucket(i, i, 8)) {
+                filter.replace(i, bucket);
+            }
+        }
+        final Path file = tempDir.resolve("filter.bf");
+        filter.writeToFile(file);
+
+        assertNull(BucketBloomFilter.load(tempDir.resolve("missing.bf"), NUM_BUCKETS, 256), "Missing file");
+        assertNull(BucketBloomFilter.load(file, NUM_BUCKETS * 2, 256), "Different number of buckets");
+        assertNull(BucketBloomFilter.load(file, NUM_BUCKETS, 1024), "Different number of bits per bucket");
+
+        final BucketBloomFilter loaded = BucketBloomFilter.load(file, NUM_BUCKETS, 256);
+        assertNotNull(loaded, "Filter should be loaded");
+        for (int i = 0; i < NUM_BUCKETS; i += 10) {
+            for (int j = 0; j < 8; j++) {
+                final long key = i + (long) j * NUM_BUCKETS;
+                assertTrue(loaded.mightContain(i, keyHashCode(key)), "Loaded filter must contain key " + key);
+            }
+        }
+        loaded.close();
+        filter.close();
+    }
+}
@@ -4,8 +4,12 @@ package com.swirlds.merkledb.files.hashmap;
 import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.CONFIGURATION;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.hedera.pbj.runtime.io.buffer.Bytes;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
+import com.swirlds.config.api.Configuration;
+import com.swirlds.config.api.ConfigurationBuilder;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.files.DataFileCompactor;
 import com.swirlds.merkledb.test.fixtures.ExampleLongKeyFixedSize;
@@ -18,6 +22,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 @SuppressWarnings({"SameParameterValue", "unchecked"})
 class HalfDiskHashMapTest {
@@ -161,6 +166,64 @@ class HalfDiskHashMapTest {
         checkData(testType, map, 600, 400, 1);
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {0, 262144})
+    void coalescedBucketReads(final int maxCoalescedReadBytes) throws Exception {
+        final FilesTestType testType = FilesTestType.fixed;
+        final Configuration config = ConfigurationBuilder.create()
+                .withConfigDataType(MerkleDbConfig.class)
+                .withValue(
+                        "merkleDb.halfDiskHashMapFlushMaxCoalescedReadBytes", String.valueOf(maxCoalescedReadBytes))
+                .build();
+        final int count = 10_000;
+        final Path storeDir = tempDirPath.resolve("coalesced" + maxCoalescedReadBytes);
+        try (final HalfDiskHashMap map =
+                new HalfDiskHashMap(config, count, storeDir, "HalfDiskHashMapTest", null, false)) {
+            createSomeData(testType, map, 0, count, 1);
+            // all buckets are new, nothing to read
+            assertEquals(0, map.getLastFlushStats().fileReads());
+            // update every bucket, all of them are in the same file now
+            createSomeData(testType, map, 0, count, 2);
+            final HalfDiskHashMap.FlushStats stats = map.getLastFlushStats();
+            assertTrue(stats.bucketsUpdated() > 0);
+            if (maxCoalescedReadBytes == 0) {
+                assertEquals(stats.bucketsUpdated(), stats.fileReads(), "Every bucket should be read separately");
+            } else {
+                assertTrue(stats.fileReads() < stats.bucketsUpdated(), "Bucket reads should be coalesced");
+            }
+            checkData(testType, map, 0, count, 2);
+            // update some buckets
+            createSomeData(testType, map, count / 4, count / 2, 3);
+            checkData(testType, map, 0, count / 4, 2);
+            checkData(testType, map, count / 4, count / 2, 3);
+            checkData(testType, map, count * 3 / 4, count / 4, 2);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void getAll(FilesTestType testType) throws Exception {
+        try (final HalfDiskHashMap map = createNewTempMap(testType, 1000)) {
+            createSomeData(testType, map, 0, 1000, 3);
+            // existing keys, missing keys, and duplicates
+            final int[] ids = {5, 999, 1000, 5, 0, 123_456, 500};
+            final Bytes[] keys = new Bytes[ids.length];
+            final int[] hashCodes = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                final VirtualKey key = testType.createVirtualLongKey(ids[i]);
+                keys[i] = testType.keySerializer.toBytes(key);
+                hashCodes[i] = key.hashCode();
+            }
+            final long[] values = map.getAll(keys, hashCodes, -1);
+            assertEquals(ids.length, values.length);
+            for (int i = 0; i < ids.length; i++) {
+                final long expected = ids[i] < 1000 ? ids[i] * 3L : -1;
+                assertEquals(expected, values[i], "Wrong value for key=" + ids[i]);
+                assertEquals(map.get(keys[i], hashCodes[i], -1), values[i], "getAll and get results differ");
+            }
+        }
+    }
+
     @Test
     void testOverwritesWithCollision() throws IOException {
         final FilesTestType testType = FilesTestType.fixed;
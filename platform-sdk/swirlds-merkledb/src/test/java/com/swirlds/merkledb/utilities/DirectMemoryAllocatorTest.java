@@ -0,0 +1,81 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb.utilities;
+
+import static com.swirlds.common.test.fixtures.AssertionUtils.assertEventuallyTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DirectMemoryAllocatorTest {
+
+    @AfterEach
+    void resetMode() {
+        DirectMemoryAllocator.setMode(DirectMemoryAllocator.Mode.DEFAULT);
+    }
+
+    @Test
+    @DisplayName("Buffers in huge page aligned mode start at huge page boundaries")
+    void alignedAllocation() {
+        DirectMemoryAllocator.setMode(DirectMemoryAllocator.Mode.HUGE_PAGE_ALIGNED);
+        final long alignedBefore = DirectMemoryAllocator.reportPageSizes().alignedBytes();
+        final int size = 3 * 1024 * 1024;
+        final ByteBuffer buffer = DirectMemoryAllocator.allocate(size);
+        try {
+            assertTrue(buffer.isDirect(), "Buffer should be direct");
+            assertEquals(size, buffer.capacity(), "Wrong buffer capacity");
+            assertEquals(ByteOrder.BIG_ENDIAN, buffer.order(), "Wrong buffer byte order");
+            assertEquals(
+                    0,
+                    MemoryUtils.bufferAddress(buffer) % DirectMemoryAllocator.HUGE_PAGE_SIZE,
+                    "Buffer should be aligned to huge pages");
+            buffer.putLong(size - Long.BYTES, 42);
+            assertEquals(42, buffer.getLong(size - Long.BYTES), "Wrong value read from buffer");
+            assertEquals(
+                    alignedBefore + size,
+                    DirectMemoryAllocator.reportPageSizes().alignedBytes(),
+                    "Aligned bytes should include the new buffer");
+        } finally {
+            DirectMemoryAllocator.release(buffer);
+        }
+        assertEquals(
+                alignedBefore,
+                DirectMemoryAllocator.reportPageSizes().alignedBytes(),
+                "Aligned bytes should not include released buffer");
+    }
+
+    @Test
+    @DisplayName("Aligned buffers that are not released are cleaned up by GC")
+    void unreleasedAlignedBufferCollected() {
+        DirectMemoryAllocator.setMode(DirectMemoryAllocator.Mode.HUGE_PAGE_ALIGNED);
+        final long alignedBefore = DirectMemoryAllocator.reportPageSizes().alignedBytes();
+        final int size = 1024 * 1024;
+        ByteBuffer buffer = DirectMemoryAllocator.allocate(size);
+        assertNotNull(MemoryUtils.directBufferOwner(buffer), "Aligned buffer should reference its owner");
+        assertEquals(alignedBefore + size, DirectMemoryAllocator.reportPageSizes().alignedBytes());
+        buffer = null;
+        assertEventuallyTrue(
+                () -> {
+                    System.gc();
+                    return DirectMemoryAllocator.reportPageSizes().alignedBytes() == alignedBefore;
+                },
+                Duration.ofSeconds(10),
+                "Aligned bytes should not include collected buffer");
+    }
+
+    @Test
+    @DisplayName("Buffers in default mode are plain direct buffers")
+    void defaultAllocation() {
+        final ByteBuffer buffer = DirectMemoryAllocator.allocate(1024);
+        assertTrue(buffer.isDirect(), "Buffer should be direct");
+        assertEquals(1024, buffer.capacity(), "Wrong buffer capacity");
+        DirectMemoryAllocator.release(buffer);
+        assertNotNull(DirectMemoryAllocator.reportPageSizes().transparentHugePages());
+    }
+}
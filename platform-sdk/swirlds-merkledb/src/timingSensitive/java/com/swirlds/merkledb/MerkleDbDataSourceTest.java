@@ -16,15 +16,24 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import com.swirlds.base.function.CheckedConsumer;
 import com.swirlds.base.units.UnitConstants;
+import com.swirlds.common.config.StateCommonConfig;
 import com.swirlds.common.constructable.ConstructableRegistry;
+import com.swirlds.common.crypto.DigestType;
 import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.io.config.FileSystemManagerConfig;
+import com.swirlds.common.io.config.TemporaryFileConfig;
+import com.swirlds.common.io.utility.FileUtils;
 import com.swirlds.common.io.utility.LegacyTemporaryFileBuilder;
+import com.swirlds.config.api.Configuration;
+import com.swirlds.config.api.ConfigurationBuilder;
+import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.test.fixtures.ExampleByteArrayVirtualValue;
 import com.swirlds.merkledb.test.fixtures.TestType;
 import com.swirlds.metrics.api.IntegerGauge;
 import com.swirlds.metrics.api.Metric.ValueType;
 import com.swirlds.metrics.api.Metrics;
 import com.swirlds.virtualmap.VirtualKey;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
 import com.swirlds.virtualmap.datasource.VirtualHashRecord;
 import com.swirlds.virtualmap.datasource.VirtualLeafBytes;
 import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
@@ -268,6 +277,17 @@ class MerkleDbDataSourceTest {
             IntStream.range(incFirstLeafPath, exclLastLeafPath)
                     .forEach(
                             i -> assertLeaf(testType, keySerializer, valueSerializer, dataSource, i, i, i, i + 10_000));
+            // check all the leaf data loaded as a single path range, including paths out of the leaf range
+            final VirtualLeafBytes[] leaves = dataSource.loadLeafRecords(incFirstLeafPath - 1, exclLastLeafPath);
+            assertEquals(exclLastLeafPath - incFirstLeafPath + 2, leaves.length, "unexpected number of leaves");
+            assertNull(leaves[0], "path before the first leaf path should not have a leaf");
+            assertNull(leaves[leaves.length - 1], "path without a saved leaf should not have a leaf");
+            IntStream.range(incFirstLeafPath, exclLastLeafPath)
+                    .forEach(i -> assertEqualsAndPrint(
+                            testType.dataType()
+                                    .createVirtualLeafRecord(i, i, i + 10_000)
+                                    .toBytes(keySerializer, valueSerializer),
+                            leaves[i - incFirstLeafPath + 1]));
             // delete a couple leaves
             dataSource.saveRecords(
                     incFirstLeafPath,
@@ -518,6 +538,75 @@ class MerkleDbDataSourceTest {
         });
     }
 
+    @Test
+    void incrementalSnapshotsSurviveSnapshotRename() throws IOException {
+        final int count = 1000;
+        final String tableName = "vm";
+        final TestType testType = TestType.fixed_fixed;
+        final KeySerializer keySerializer = testType.dataType().getKeySerializer();
+        final ValueSerializer valueSerializer = testType.dataType().getValueSerializer();
+        final Configuration config = ConfigurationBuilder.create()
+                .withConfigDataType(MerkleDbConfig.class)
+                .withConfigDataType(VirtualMapConfig.class)
+                .withConfigDataType(TemporaryFileConfig.class)
+                .withConfigDataType(StateCommonConfig.class)
+                .withConfigDataType(FileSystemManagerConfig.class)
+                .withValue("merkleDb.incrementalSnapshots", "true")
+                .build();
+        final Path dbPath = testDirectory.resolve("merkledb-incrementalSnapshots");
+        final MerkleDb database = MerkleDb.getInstance(dbPath, config);
+        final MerkleDbTableConfig tableConfig =
+                new MerkleDbTableConfig((short) 1, DigestType.SHA_384, count * 10L, Long.MAX_VALUE);
+        final MerkleDbDataSource dataSource = database.createDataSource(tableName, tableConfig, false);
+        final int tableId = dataSource.getTableId();
+        final Path state1 = testDirectory.resolve("merkledb-incrementalSnapshots-state1");
+        final Path state2 = testDirectory.resolve("merkledb-incrementalSnapshots-state2");
+        try {
+            dataSource.saveRecords(
+                    count,
+                    count * 2,
+                    IntStream.range(0, count * 2).mapToObj(i -> createVirtualInternalRecord(i, i + 1)),
+                    IntStream.range(count, count * 2)
+                            .mapToObj(i -> testType.dataType().createVirtualLeafRecord(i))
+                            .map(r -> r.toBytes(keySerializer, valueSerializer)),
+                    Stream.empty());
+            // Snapshots are taken to temp dirs and then renamed, the same way as states are saved
+            final Path tmp1 = testDirectory.resolve("merkledb-incrementalSnapshots-tmp1");
+            FileUtils.executeAndRename(state1, tmp1, dir -> database.snapshot(dir, dataSource));
+            final Path tmp2 = testDirectory.resolve("merkledb-incrementalSnapshots-tmp2");
+            FileUtils.executeAndRename(state2, tmp2, dir -> database.snapshot(dir, dataSource));
+        } finally {
+            dataSource.close();
+        }
+
+        // Index chunks are not changed between the snapshots, they must be hard linked
+        final Path chunk1 = leafIndexChunk(MerkleDb.getInstance(state1, config), tableName, tableId);
+        final Path chunk2 = leafIndexChunk(MerkleDb.getInstance(state2, config), tableName, tableId);
+        assertTrue(Files.exists(chunk2), "Leaf index must be written in the chunked format");
+        assertTrue(Files.isSameFile(chunk1, chunk2), "Unchanged index chunks must be hard linked");
+
+        // The first snapshot may be deleted, the second one is still valid
+        FileUtils.deleteDirectory(state1);
+        final MerkleDb restoredDb =
+                MerkleDb.restore(state2, testDirectory.resolve("merkledb-incrementalSnapshots-restored"), config);
+        final MerkleDbDataSource restored = restoredDb.getDataSource(tableName, false);
+        try {
+            IntStream.range(0, count * 2).forEach(i -> assertHash(restored, i, i + 1));
+            IntStream.range(count, count * 2)
+                    .forEach(i -> assertLeaf(testType, keySerializer, valueSerializer, restored, i, i, i + 1, i));
+            // Chunks loaded from the restored snapshot are linked on the next snapshot, too
+            final Path state3 = testDirectory.resolve("merkledb-incrementalSnapshots-state3");
+            final Path tmp3 = testDirectory.resolve("merkledb-incrementalSnapshots-tmp3");
+            FileUtils.executeAndRename(state3, tmp3, dir -> restoredDb.snapshot(dir, restored));
+            final Path chunk3 = leafIndexChunk(MerkleDb.getInstance(state3, config), tableName, restored.getTableId());
+            assertTrue(Files.isSameFile(chunk2, chunk3), "Loaded index chunks must be hard linked");
+        } finally {
+            restored.close();
+        }
+        assertEventuallyEquals(
+                0L, MerkleDbDataSource::getCountOfOpenDatabases, Duration.ofSeconds(1), "Expected no open dbs");
+    }
+
     @Test
     void preservesInterruptStatusWhenInterruptedClosing() throws IOException {
         createAndApplyDataSource(testDirectory, "test8", TestType.fixed_fixed, 1000, dataSource -> {
@@ -775,6 +864,11 @@ class MerkleDbDataSourceTest {
                 0L, MerkleDbDataSource::getCountOfOpenDatabases, Duration.ofSeconds(1), "Expected no open dbs");
     }
 
+    private static Path leafIndexChunk(final MerkleDb db, final String tableName, final int tableId) {
+        final Path leafIndex = new MerkleDbPaths(db.getTableDir(tableName, tableId)).pathToDiskLocationLeafNodesFile;
+        return leafIndex.resolveSibling(leafIndex.getFileName() + ".0");
+    }
+
     public static VirtualHashRecord createVirtualInternalRecord(final int i) {
         return createVirtualInternalRecord(i, i);
     }
@@ -0,0 +1,77 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.merkledb.files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CompactionIoBudgetTest {
+
+    @Test
+    @DisplayName("Negative bandwidth is rejected")
+    void negativeBandwidth() {
+        assertThrows(IllegalArgumentException.class, () -> new CompactionIoBudget(-1, false));
+    }
+
+    @Test
+    @DisplayName("Unlimited budget never blocks")
+    void unlimitedBudget() throws InterruptedException {
+        final CompactionIoBudget budget = new CompactionIoBudget(0, false);
+        final long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            budget.acquire(1024 * 1024);
+        }
+        final long tookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(tookMillis < 1000, "Unlimited budget should not throttle, took " + tookMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("Limited budget throttles to the configured rate")
+    void limitedBudget() throws InterruptedException {
+        final long bytesPerSecond = 1024 * 1024;
+        final CompactionIoBudget budget = new CompactionIoBudget(bytesPerSecond, false);
+        final long start = System.nanoTime();
+        // The first second worth of bytes is available immediately, the next two have to be waited for
+        for (int i = 0; i < 30; i++) {
+            budget.acquire(bytesPerSecond / 10);
+        }
+        final long tookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(tookMillis >= 1800, "Budget should throttle, took " + tookMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("Acquire batches are limited by size and bandwidth")
+    void acquireBatchBytes() {
+        assertEquals(1024 * 1024, new CompactionIoBudget(0, false).getAcquireBatchBytes());
+        assertEquals(1024 * 1024, new CompactionIoBudget(1024L * 1024 * 1024, false).getAcquireBatchBytes());
+        assertEquals(10 * 1024, new CompactionIoBudget(100 * 1024, false).getAcquireBatchBytes());
+        assertEquals(1, new CompactionIoBudget(1, false).getAcquireBatchBytes());
+    }
+
+    @Test
+    @DisplayName("Compactions are on hold while flushes are in progress")
+    void pausedDuringFlushes() throws InterruptedException {
+        final CompactionIoBudget budget = new CompactionIoBudget(0, true);
+        budget.flushStarted();
+        final CountDownLatch acquired = new CountDownLatch(1);
+        final Thread compaction = new Thread(() -> {
+            try {
+                budget.acquire(1);
+                acquired.countDown();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        compaction.start();
+        assertFalse(acquired.await(200, TimeUnit.MILLISECONDS), "Acquire must block during flushes");
+        budget.flushFinished();
+        assertTrue(acquired.await(5, TimeUnit.SECONDS), "Acquire must proceed after flushes are finished");
+        compaction.join();
+    }
+}
@@ -282,6 +282,28 @@ class DataFileCollectionTest {
         checkData(fileCollectionMap.get(testType), storedOffsetsMap.get(testType), testType, 0, 1000, 10_000);
     }
 
+    @Order(52)
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void closeAndReopenWithConcurrentCallback(final FilesTestType testType) throws Exception {
+        final LongListHeap rebuiltIndex = new LongListHeap(5000);
+        rebuiltIndex.updateValidRange(0, 1100);
+        final DataFileCollection.ConcurrentLoadedDataCallback testCallback =
+                (dataLoc, data) -> rebuiltIndex.putIfGreater(data.readLong(), dataLoc);
+        fileCollectionMap.get(testType).close();
+        final DataFileCollection reopened = new DataFileCollection(
+                MERKLE_DB_CONFIG, tempFileDir.resolve(testType.name()), "test", testCallback);
+        fileCollectionMap.put(testType, reopened);
+        final LongListHeap storedOffsets = storedOffsetsMap.get(testType);
+        for (int key = 0; key < 1000; key++) {
+            assertEquals(
+                    storedOffsets.get(key, 0),
+                    rebuiltIndex.get(key, 0),
+                    "Index rebuilt in parallel should point to the latest data location for key " + key);
+        }
+        checkData(reopened, storedOffsets, testType, 0, 1000, 10_000);
+    }
+
     /**
      * Special slow wrapper on ImmutableIndexedObjectListUsingArray that slows down gets, this
      * causing threading bugs during merging where deletion and reading race each other, to be
@@ -25,6 +25,7 @@ jmhModuleInfo {
     requires("com.swirlds.platform.test")
     requires("com.swirlds.common.test.fixtures")
     requires("com.swirlds.platform.core.test.fixtures")
+    requires("com.swirlds.config.extensions.test.fixtures")
     requires("com.hedera.node.hapi")
     requires("jmh.core")
 }
@@ -4,8 +4,10 @@ package com.swirlds.platform.core.jmh;
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.test.fixtures.WeightGenerators;
 import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
+import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
 import com.swirlds.platform.Consensus;
 import com.swirlds.platform.ConsensusImpl;
+import com.swirlds.platform.consensus.ConsensusConfig_;
 import com.swirlds.platform.internal.EventImpl;
 import com.swirlds.platform.metrics.NoOpConsensusMetrics;
 import com.swirlds.platform.roster.RosterRetriever;
@@ -35,7 +37,7 @@ import org.openjdk.jmh.infra.Blackhole;
 @Warmup(iterations = 1, time = 1)
 @Measurement(iterations = 3, time = 10)
 public class ConsensusBenchmark {
-    @Param({"39"})
+    @Param({"4", "20", "40"})
     public int numNodes;
 
     @Param({"100000"})
@@ -44,6 +46,9 @@ public class ConsensusBenchmark {
     @Param({"0"})
     public long seed;
 
+    @Param({"false", "true"})
+    public boolean arrayMetadataStore;
+
     private List<EventImpl> events;
     private Consensus consensus;
 
@@ -52,8 +57,11 @@ public class ConsensusBenchmark {
         final List<EventSource> eventSources =
                 EventSourceFactory.newStandardEventSources(WeightGenerators.balancedNodeWeights(numNodes));
 
-        final PlatformContext platformContext =
-                TestPlatformContextBuilder.create().build();
+        final PlatformContext platformContext = TestPlatformContextBuilder.create()
+                .withConfiguration(new TestConfigBuilder()
+                        .withValue(ConsensusConfig_.ARRAY_METADATA_STORE, arrayMetadataStore)
+                        .getOrCreateConfig())
+                .build();
         final StandardGraphGenerator generator = new StandardGraphGenerator(platformContext, seed, eventSources);
         final StandardEventEmitter emitter = new StandardEventEmitter(generator);
         events = emitter.emitEvents(numEvents);
@@ -75,6 +83,9 @@ public class ConsensusBenchmark {
            Results on a M1 Max MacBook Pro:
            Benchmark                              (numEvents)  (numNodes)  (seed)  Mode  Cnt   Score    Error  Units
            ConsensusBenchmark.calculateConsensus       100000          39       0  avgt    3  27.551 ± 11.690  ms/op
+
+           Run with numNodes 4, 20 and 40 to compare metadata stored in events (arrayMetadataStore=false)
+           with metadata stored in arrays (arrayMetadataStore=true).
         */
     }
 }
@@ -2,28 +2,44 @@
 package com.swirlds.platform.core.jmh;
 
 import com.hedera.hapi.platform.event.GossipEvent;
+import com.hedera.pbj.runtime.io.buffer.Bytes;
 import com.swirlds.common.constructable.ConstructableRegistryException;
 import com.swirlds.common.io.streams.MerkleDataInputStream;
 import com.swirlds.common.io.streams.MerkleDataOutputStream;
+import com.swirlds.platform.consensus.EventWindow;
 import com.swirlds.platform.event.PlatformEvent;
 import com.swirlds.platform.event.hashing.EventHasher;
 import com.swirlds.platform.event.hashing.PbjStreamHasher;
+import com.swirlds.platform.event.validation.DefaultOrderedEventSignatureValidator;
+import com.swirlds.platform.event.validation.EventSignatureValidator;
+import com.swirlds.platform.event.validation.OrderedEventSignatureValidator;
+import com.swirlds.platform.event.validation.RosterUpdate;
 import com.swirlds.platform.test.fixtures.event.TestingEventBuilder;
 import java.io.IOException;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
@@ -94,6 +110,110 @@ public class EventBenchmarks {
         bh.consume(eventHasher.hashEvent(event));
     }
 
+    /**
+     * State for the signature verification benchmark, it has its own parameters so they don't multiply the runs of the
+     * other benchmarks.
+     */
+    @State(Scope.Benchmark)
+    public static class SignatureVerificationState {
+        /** the number of events verified per benchmark invocation, all of them are queued at the same time */
+        private static final int NUM_EVENTS = 1000;
+
+        @Param({"1", "4", "8"})
+        public int verificationParallelism;
+
+        @Param({"1", "16"})
+        public int verificationBatchSize;
+
+        private final List<PlatformEvent> events = new ArrayList<>(NUM_EVENTS);
+        private ForkJoinPool pool;
+        private long unprocessedInputCount;
+        private OrderedEventSignatureValidator validator;
+
+        @Setup
+        public void setup() throws GeneralSecurityException {
+            final Random random = new Random(0);
+            final KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(3072);
+            final KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+            for (int i = 0; i < NUM_EVENTS; i++) {
+                final PlatformEvent unsigned = new TestingEventBuilder(random)
+                        .setAppTransactionCount(20)
+                        .setSystemTransactionCount(10)
+                        .build();
+                final Signature signature = Signature.getInstance("SHA384withRSA");
+                signature.initSign(keyPair.getPrivate());
+                signature.update(unsigned.getHash().getBytes().toByteArray());
+                final PlatformEvent signed = new PlatformEvent(unsigned.getGossipEvent()
+                        .copyBuilder()
+                        .signature(Bytes.wrap(signature.sign()))
+                        .build());
+                signed.setHash(unsigned.getHash());
+                events.add(signed);
+            }
+
+            pool = new ForkJoinPool(verificationParallelism);
+            validator = new DefaultOrderedEventSignatureValidator(
+                    new RsaSignatureValidator(keyPair.getPublic()),
+                    pool,
+                    verificationBatchSize,
+                    verificationParallelism * 2,
+                    () -> unprocessedInputCount);
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Verifies real RSA signatures of all events with a single public key, without any of the roster lookups of the
+     * platform's validator.
+     */
+    private static class RsaSignatureValidator implements EventSignatureValidator {
+        private final PublicKey publicKey;
+
+        RsaSignatureValidator(final PublicKey publicKey) {
+            this.publicKey = publicKey;
+        }
+
+        @Override
+        public PlatformEvent validateSignature(final PlatformEvent event) {
+            try {
+                final Signature signature = Signature.getInstance("SHA384withRSA");
+                signature.initVerify(publicKey);
+                signature.update(event.getHash().getBytes().toByteArray());
+                return signature.verify(event.getSignature().toByteArray()) ? event : null;
+            } catch (final GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void setEventWindow(final EventWindow eventWindow) {}
+
+        @Override
+        public void updateRosters(final RosterUpdate rosterUpdate) {}
+    }
+
+    /*
+    Verifies the signatures of a burst of events queued at the same time, with parallelism 1 and batch size 1 being
+    equivalent to verifying them one by one on the scheduler thread. Reported per event.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(SignatureVerificationState.NUM_EVENTS)
+    public void signatureVerification(final SignatureVerificationState state, final Blackhole bh) {
+        final List<PlatformEvent> events = state.events;
+        for (int i = 0; i < events.size(); i++) {
+            state.unprocessedInputCount = events.size() - i;
+            bh.consume(state.validator.validateSignature(events.get(i)));
+        }
+    }
+
     public enum HasherType {
         PBJ_STREAM_DIGEST;
 
@@ -0,0 +1,98 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.platform.core.jmh;
+
+import com.swirlds.platform.sequence.map.PrimitiveSequenceMap;
+import com.swirlds.platform.sequence.map.SequenceMap;
+import com.swirlds.platform.sequence.map.StandardSequenceMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares sequence map implementations on the access pattern of the event intake components: every node creates one
+ * event per generation, the parents of each new event are looked up, the event is added, and the window is shifted
+ * forward as generations become ancient.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 10)
+public class SequenceMapBenchmark {
+
+    /**
+     * A key resembling an event descriptor.
+     */
+    private record Key(long creator, long generation, long hash) {}
+
+    @Param({"standard", "primitive"})
+    public String implementation;
+
+    @Param({"10", "40"})
+    public int nodeCount;
+
+    @Param({"26"})
+    public int nonAncientGenerations;
+
+    private SequenceMap<Key, Long> map;
+    private Key[] previousGeneration;
+    private Key[] currentGeneration;
+    private long generation;
+    private Random random;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        map = switch (implementation) {
+            case "standard" -> new StandardSequenceMap<>(0, 1024, true, Key::generation);
+            case "primitive" -> new PrimitiveSequenceMap<>(0, 1024, true, Key::generation);
+            default -> throw new IllegalArgumentException("Unknown implementation " + implementation);
+        };
+        random = new Random(0);
+        previousGeneration = new Key[nodeCount];
+        currentGeneration = new Key[nodeCount];
+        generation = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            previousGeneration[node] = new Key(node, generation, random.nextLong());
+            map.put(previousGeneration[node], generation);
+        }
+    }
+
+    /**
+     * Adds one generation of events per invocation.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void addGeneration(final Blackhole blackhole) {
+        generation++;
+        for (int node = 0; node < nodeCount; node++) {
+            final Key selfParent = previousGeneration[node];
+            final Key otherParent = previousGeneration[random.nextInt(nodeCount)];
+            blackhole.consume(map.containsKey(selfParent));
+            blackhole.consume(map.get(otherParent));
+
+            final Key event = new Key(node, generation, random.nextLong());
+            blackhole.consume(map.putIfAbsent(event, generation));
+            // duplicates are common during gossip
+            blackhole.consume(map.putIfAbsent(event, generation));
+            currentGeneration[node] = event;
+        }
+
+        final Key[] swap = previousGeneration;
+        previousGeneration = currentGeneration;
+        currentGeneration = swap;
+
+        map.shiftWindow(Math.max(0, generation - nonAncientGenerations), (key, value) -> blackhole.consume(value));
+    }
+}
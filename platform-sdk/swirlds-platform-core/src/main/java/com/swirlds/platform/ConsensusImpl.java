@@ -20,6 +20,7 @@ import com.swirlds.platform.consensus.AncestorSearch;
 import com.swirlds.platform.consensus.CandidateWitness;
 import com.swirlds.platform.consensus.ConsensusConfig;
 import com.swirlds.platform.consensus.ConsensusConstants;
+import com.swirlds.platform.consensus.ConsensusMetadata;
 import com.swirlds.platform.consensus.ConsensusRounds;
 import com.swirlds.platform.consensus.ConsensusSorter;
 import com.swirlds.platform.consensus.ConsensusUtils;
@@ -45,7 +46,6 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -165,7 +165,9 @@ public class ConsensusImpl implements Consensus {
      * decided. as soon as events reach consensus or become stale, they are discarded from this
      * list.
      */
-    private final List<EventImpl> recentEvents = new LinkedList<>();
+    private final List<EventImpl> recentEvents = new ArrayList<>();
+    /** the memoized metadata of recent events */
+    private final ConsensusMetadata metadata;
     /** stores all round information */
     private final ConsensusRounds rounds;
     /**
@@ -223,6 +225,7 @@ public class ConsensusImpl implements Consensus {
         this.roster = roster;
         this.rosterTotalWeight = RosterUtils.computeTotalWeight(roster);
         this.rosterIndicesMap = RosterUtils.toIndicesMap(roster);
+        this.metadata = ConsensusMetadata.create(config, roster.rosterEntries().size());
 
         this.ancientMode = platformContext
                 .getConfiguration()
@@ -252,6 +255,7 @@ public class ConsensusImpl implements Consensus {
     /** Reset this instance to a state of a newly created instance */
     private void reset() {
         recentEvents.clear();
+        metadata.reset();
         rounds.reset();
         numConsensus = 0;
         lastConsensusTime = null;
@@ -289,6 +293,7 @@ public class ConsensusImpl implements Consensus {
     public List<ConsensusRound> addEvent(@NonNull final EventImpl event) {
         try {
             recentEvents.add(event);
+            metadata.eventAdded(event);
             // set its round to undefined so that it gets calculated
             event.setRoundCreated(ConsensusConstants.ROUND_UNDEFINED);
             ConsensusRound consensusRound;
@@ -332,43 +337,55 @@ public class ConsensusImpl implements Consensus {
     @Nullable
     private ConsensusRound recalculateAndVote() {
         rounds.recalculating();
-        for (final Iterator<EventImpl> iterator = recentEvents.iterator(); iterator.hasNext(); ) {
-            final EventImpl insertedEvent = iterator.next();
-
-            if (rounds.isLastDecidedJudge(insertedEvent)
-                    && round(insertedEvent.getSelfParent()) == ConsensusConstants.ROUND_NEGATIVE_INFINITY
-                    && round(insertedEvent.getOtherParent()) == ConsensusConstants.ROUND_NEGATIVE_INFINITY) {
-                // If an event was a judge in the last round decided AND is not a descendant of any other judge in
-                // this round, we leave all of its metadata intact. We know that it is not a descendant of any other
-                // judge in this round if all of its parents have a round of -infinity.
-                //
-                // Its round must stay intact so that descendants can determine their round numbers.
-                // We don't call calculateAndVote() for this event because:
-                // - its metadata will be unchanged
-                // - it will not vote
-                // - it will never decide a round
-                continue;
-            }
+        // events that are discarded are compacted out of the list in place, all events before
+        // the index 'kept' are the ones that stay in the list
+        int kept = 0;
+        int next = 0;
+        try {
+            while (next < recentEvents.size()) {
+                final EventImpl insertedEvent = recentEvents.get(next++);
+
+                if (rounds.isLastDecidedJudge(insertedEvent)
+                        && round(insertedEvent.getSelfParent()) == ConsensusConstants.ROUND_NEGATIVE_INFINITY
+                        && round(insertedEvent.getOtherParent()) == ConsensusConstants.ROUND_NEGATIVE_INFINITY) {
+                    // If an event was a judge in the last round decided AND is not a descendant of any other judge
+                    // in this round, we leave all of its metadata intact. We know that it is not a descendant of any
+                    // other judge in this round if all of its parents have a round of -infinity.
+                    //
+                    // Its round must stay intact so that descendants can determine their round numbers.
+                    // We don't call calculateAndVote() for this event because:
+                    // - its metadata will be unchanged
+                    // - it will not vote
+                    // - it will never decide a round
+                    recentEvents.set(kept++, insertedEvent);
+                    continue;
+                }
 
-            if (insertedEvent.isConsensus() || ancient(insertedEvent)) {
-                insertedEvent.clearMetadata();
+                if (insertedEvent.isConsensus() || ancient(insertedEvent)) {
+                    insertedEvent.clearMetadata();
+                    metadata.eventRemoved(insertedEvent);
 
-                // all events that are consensus or ancient have a round of -infinity
-                insertedEvent.setRoundCreated(ConsensusConstants.ROUND_NEGATIVE_INFINITY);
-                iterator.remove();
-                continue;
-            }
+                    // all events that are consensus or ancient have a round of -infinity
+                    insertedEvent.setRoundCreated(ConsensusConstants.ROUND_NEGATIVE_INFINITY);
+                    continue;
+                }
 
-            // for all other events, we need to recalculate its round and metadata
-            insertedEvent.clearMetadata();
-            insertedEvent.setRoundCreated(ConsensusConstants.ROUND_UNDEFINED);
+                // for all other events, we need to recalculate its round and metadata
+                recentEvents.set(kept++, insertedEvent);
+                insertedEvent.clearMetadata();
+                metadata.clear(insertedEvent);
+                insertedEvent.setRoundCreated(ConsensusConstants.ROUND_UNDEFINED);
 
-            final ConsensusRound consensusRound = calculateAndVote(insertedEvent);
-            if (consensusRound != null) {
-                return consensusRound;
+                final ConsensusRound consensusRound = calculateAndVote(insertedEvent);
+                if (consensusRound != null) {
+                    return consensusRound;
+                }
             }
+            return null;
+        } finally {
+            // discard the events between the kept ones and the ones not visited yet
+            recentEvents.subList(kept, next).clear();
         }
-        return null;
     }
 
     @Nullable
@@ -959,34 +976,34 @@ public class ConsensusImpl implements Consensus {
         if (notRelevantForConsensus(x)) {
             return null;
         }
-        if (x.sizeLastSee() != 0) { // return memoized answer, if available
-            return x.getLastSee((int) m);
+        if (metadata.hasLastSee(x)) { // return memoized answer, if available
+            return metadata.getLastSee(x, (int) m);
         }
         // memoize answers for all choices of m, then return answer for just this m
         numMembers = roster.rosterEntries().size();
-        x.initLastSee(numMembers);
+        metadata.initLastSee(x);
 
         op = otherParent(x);
         sp = selfParent(x);
 
         for (int mm = 0; mm < numMembers; mm++) {
             if (creatorIndexEquals(x, mm)) {
-                x.setLastSee(mm, x);
+                metadata.setLastSee(x, mm, x);
             } else if (sp == null && op == null) {
-                x.setLastSee(mm, null);
+                metadata.setLastSee(x, mm, null);
             } else {
                 final EventImpl lsop = lastSee(op, mm);
                 final EventImpl lssp = lastSee(sp, mm);
                 final long lsopGen = lsop == null ? 0 : lsop.getGeneration();
                 final long lsspGen = lssp == null ? 0 : lssp.getGeneration();
                 if ((round(lsop) > round(lssp)) || ((lsopGen > lsspGen) && (firstSee(op, mm) == firstSee(sp, mm)))) {
-                    x.setLastSee(mm, lsop);
+                    metadata.setLastSee(x, mm, lsop);
                 } else {
-                    x.setLastSee(mm, lssp);
+                    metadata.setLastSee(x, mm, lssp);
                 }
             }
         }
-        return x.getLastSee((int) m);
+        return metadata.getLastSee(x, (int) m);
     }
 
     /**
@@ -1031,8 +1048,8 @@ public class ConsensusImpl implements Consensus {
         if (notRelevantForConsensus(x)) {
             return null;
         }
-        if (x.sizeStronglySeeP() != 0) { // return memoized answer, if available
-            return x.getStronglySeeP((int) m);
+        if (metadata.hasStronglySeeP(x)) { // return memoized answer, if available
+            return metadata.getStronglySeeP(x, (int) m);
         }
         // calculate the answer, and remember it for next time
         // find and memoize answers for all choices of m, then return answer for just this m
@@ -1043,17 +1060,17 @@ public class ConsensusImpl implements Consensus {
         final long prsp = parentRound(sp); // parent round of self parent of x
         final long prop = parentRound(op); // parent round of other parent of x
 
-        x.initStronglySeeP(numMembers);
+        metadata.initStronglySeeP(x);
         for (int mm = 0; mm < numMembers; mm++) {
             if (stronglySeeP(sp, mm) != null && prx == prsp) {
-                x.setStronglySeeP(mm, stronglySeeP(sp, mm));
+                metadata.setStronglySeeP(x, mm, stronglySeeP(sp, mm));
             } else if (stronglySeeP(op, mm) != null && prx == prop) {
-                x.setStronglySeeP(mm, stronglySeeP(op, mm));
+                metadata.setStronglySeeP(x, mm, stronglySeeP(op, mm));
             } else {
                 // the canonical witness by mm that is seen by x thru someone else
                 final EventImpl st = seeThru(x, mm, mm);
                 if (round(st) != prx) { // ignore if the canonical is in the wrong round, or doesn't exist
-                    x.setStronglySeeP(mm, null);
+                    metadata.setStronglySeeP(x, mm, null);
                 } else {
                     long weight = 0;
                     for (int m3 = 0; m3 < numMembers; m3++) {
@@ -1064,14 +1081,14 @@ public class ConsensusImpl implements Consensus {
                     if (Threshold.SUPER_MAJORITY.isSatisfiedBy(
                             weight, rosterTotalWeight)) { // strongly see supermajority of
                         // intermediates
-                        x.setStronglySeeP(mm, st);
+                        metadata.setStronglySeeP(x, mm, st);
                     } else {
-                        x.setStronglySeeP(mm, null);
+                        metadata.setStronglySeeP(x, mm, null);
                     }
                 }
             }
         }
-        return x.getStronglySeeP((int) m);
+        return metadata.getStronglySeeP(x, (int) m);
     }
 
     /**
@@ -1187,16 +1204,17 @@ public class ConsensusImpl implements Consensus {
         if (notRelevantForConsensus(x)) {
             return null;
         }
-        if (x.getFirstSelfWitnessS() != null) { // if already found and memoized, return it
-            return x.getFirstSelfWitnessS();
+        final EventImpl memoized = metadata.getFirstSelfWitnessS(x);
+        if (memoized != null) { // if already found and memoized, return it
+            return memoized;
         }
         // calculate, memoize, and return the result
         if (round(x) > round(selfParent(x))) {
-            x.setFirstSelfWitnessS(x);
+            metadata.setFirstSelfWitnessS(x, x);
         } else {
-            x.setFirstSelfWitnessS(firstSelfWitnessS(selfParent(x)));
+            metadata.setFirstSelfWitnessS(x, firstSelfWitnessS(selfParent(x)));
         }
-        return x.getFirstSelfWitnessS();
+        return metadata.getFirstSelfWitnessS(x);
     }
 
     /**
@@ -1214,18 +1232,19 @@ public class ConsensusImpl implements Consensus {
         if (notRelevantForConsensus(x)) {
             return null;
         }
-        if (x.getFirstWitnessS() != null) { // if already found and memoized, return it
-            return x.getFirstWitnessS();
+        final EventImpl memoized = metadata.getFirstWitnessS(x);
+        if (memoized != null) { // if already found and memoized, return it
+            return memoized;
         }
         // calculate, memoize, and return the result
         if (round(x) > parentRound(x)) {
-            x.setFirstWitnessS(x);
+            metadata.setFirstWitnessS(x, x);
         } else if (round(x) == round(selfParent(x))) {
-            x.setFirstWitnessS(firstWitnessS(selfParent(x)));
+            metadata.setFirstWitnessS(x, firstWitnessS(selfParent(x)));
         } else {
-            x.setFirstWitnessS(firstWitnessS(otherParent(x)));
+            metadata.setFirstWitnessS(x, firstWitnessS(otherParent(x)));
         }
-        return x.getFirstWitnessS();
+        return metadata.getFirstWitnessS(x);
     }
 
     /**
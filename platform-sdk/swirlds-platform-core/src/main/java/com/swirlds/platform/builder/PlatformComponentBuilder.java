@@ -45,8 +45,10 @@ import com.swirlds.platform.event.stream.ConsensusEventStream;
 import com.swirlds.platform.event.stream.DefaultConsensusEventStream;
 import com.swirlds.platform.event.validation.DefaultEventSignatureValidator;
 import com.swirlds.platform.event.validation.DefaultInternalEventValidator;
+import com.swirlds.platform.event.validation.DefaultOrderedEventSignatureValidator;
 import com.swirlds.platform.event.validation.EventSignatureValidator;
 import com.swirlds.platform.event.validation.InternalEventValidator;
+import com.swirlds.platform.event.validation.OrderedEventSignatureValidator;
 import com.swirlds.platform.eventhandling.DefaultTransactionHandler;
 import com.swirlds.platform.eventhandling.DefaultTransactionPrehandler;
 import com.swirlds.platform.eventhandling.TransactionHandler;
@@ -80,11 +82,13 @@ import com.swirlds.platform.system.events.CesEvent;
 import com.swirlds.platform.system.status.DefaultStatusStateMachine;
 import com.swirlds.platform.system.status.StatusStateMachine;
 import com.swirlds.platform.util.MetricsDocUtils;
+import com.swirlds.platform.wiring.PlatformSchedulersConfig;
 import com.swirlds.platform.wiring.components.Gossip;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Objects;
+import java.util.function.LongSupplier;
 
 /**
  * The advanced platform builder is responsible for constructing platform components. This class is exposed so that
@@ -112,6 +116,7 @@ public class PlatformComponentBuilder {
     private InternalEventValidator internalEventValidator;
     private EventDeduplicator eventDeduplicator;
     private EventSignatureValidator eventSignatureValidator;
+    private OrderedEventSignatureValidator orderedEventSignatureValidator;
     private SelfEventSigner selfEventSigner;
     private StateGarbageCollector stateGarbageCollector;
     private OrphanBuffer orphanBuffer;
@@ -352,6 +357,55 @@ public class PlatformComponentBuilder {
         return eventSignatureValidator;
     }
 
+    /**
+     * Provide an ordered event signature validator in place of the platform's default ordered event signature
+     * validator.
+     *
+     * @param orderedEventSignatureValidator the ordered event signature validator to use
+     * @return this builder
+     */
+    @NonNull
+    public PlatformComponentBuilder withOrderedEventSignatureValidator(
+            @NonNull final OrderedEventSignatureValidator orderedEventSignatureValidator) {
+        throwIfAlreadyUsed();
+        if (this.orderedEventSignatureValidator != null) {
+            throw new IllegalStateException("Ordered event signature validator has already been set");
+        }
+        this.orderedEventSignatureValidator = Objects.requireNonNull(orderedEventSignatureValidator);
+
+        return this;
+    }
+
+    /**
+     * Build the ordered event signature validator if it has not yet been built. If one has been provided via
+     * {@link #withOrderedEventSignatureValidator(OrderedEventSignatureValidator)}, that validator will be used. If
+     * this method is called more than once, only the first call will build the ordered event signature validator.
+     * Otherwise, the default ordered validator will be created and returned, it verifies signatures in parallel with
+     * the validator returned by {@link #buildEventSignatureValidator()}, using the default pool of the wiring model.
+     *
+     * @param unprocessedInputCount supplies the number of inputs not yet handled by the ordered validator, including
+     *                              the input being handled
+     * @return the ordered event signature validator
+     */
+    @NonNull
+    public OrderedEventSignatureValidator buildOrderedEventSignatureValidator(
+            @NonNull final LongSupplier unprocessedInputCount) {
+        if (orderedEventSignatureValidator == null) {
+            final PlatformSchedulersConfig schedulersConfig =
+                    blocks.platformContext().getConfiguration().getConfigData(PlatformSchedulersConfig.class);
+            final int parallelism = schedulersConfig.eventSignatureVerificationParallelism() > 0
+                    ? schedulersConfig.eventSignatureVerificationParallelism()
+                    : Runtime.getRuntime().availableProcessors();
+            orderedEventSignatureValidator = new DefaultOrderedEventSignatureValidator(
+                    buildEventSignatureValidator(),
+                    blocks.model().getDefaultPool(),
+                    schedulersConfig.eventSignatureVerificationBatchSize(),
+                    parallelism,
+                    unprocessedInputCount);
+        }
+        return orderedEventSignatureValidator;
+    }
+
     /**
      * Provide a state garbage collector in place of the platform's default state garbage collector.
      *
@@ -0,0 +1,317 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.platform.consensus;
+
+import com.swirlds.platform.internal.EventImpl;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Arrays;
+
+/**
+ * Consensus metadata stored in a structure of arrays. Every event added gets a slot, which is an index into primitive
+ * columns, see {@link EventImpl#getConsensusMetadataSlot()}. Events are referenced by their slots, so lastSee and
+ * stronglySeeP are stored in flat {@code int} columns indexed by {@code slot * numMembers + memberIndex}, and no
+ * memory is allocated per event once the columns are large enough for all non-ancient events.
+ *
+ * <p>A removed event may still be referenced by the metadata of other events, for example by the judges of the last
+ * decided round, whose metadata is not recalculated. So slots of removed events are not reused right away. They are
+ * reclaimed in bulk, once enough of them have accumulated, and only if they are not referenced by the metadata of any
+ * event still in use.
+ */
+public class ArrayConsensusMetadata implements ConsensusMetadata {
+    /** the initial number of slots */
+    static final int INITIAL_CAPACITY = 1024;
+    /** slots of removed events are reclaimed once they are at least 1/RECLAIM_RATIO of all slots */
+    private static final int RECLAIM_RATIO = 4;
+    /** the reference to no event */
+    private static final int NONE = -1;
+
+    /** the slot is assigned to an event that hasn't been removed */
+    private static final byte LIVE = 1;
+    /** the slot is in the list of slots of removed events */
+    private static final byte RELEASED = 1 << 1;
+    /** lastSee has been memoized for the event */
+    private static final byte LAST_SEE = 1 << 2;
+    /** stronglySeeP has been memoized for the event */
+    private static final byte STRONGLY_SEE_P = 1 << 3;
+
+    /** the number of members in the roster */
+    private final int numMembers;
+    /** the event in each slot */
+    private EventImpl[] events;
+    /** a combination of the flags above for each slot */
+    private byte[] flags;
+    /** lastSee for each slot and member, as the slots of the events seen */
+    private int[] lastSee;
+    /** stronglySeeP for each slot and member, as the slots of the witnesses strongly seen */
+    private int[] stronglySeeP;
+    /** firstSelfWitnessS for each slot */
+    private int[] firstSelfWitnessS;
+    /** firstWitnessS for each slot */
+    private int[] firstWitnessS;
+    /** the number of slots that have ever been assigned, all slots from this one up are unused */
+    private int numSlots = 0;
+    /** slots that can be assigned to new events */
+    private int[] freeSlots;
+    /** the number of elements in {@link #freeSlots} */
+    private int numFree = 0;
+    /** slots of removed events that may still be referenced */
+    private int[] releasedSlots;
+    /** the number of elements in {@link #releasedSlots} */
+    private int numReleased = 0;
+    /** a bitmap of slots referenced by events in use, only used while reclaiming slots */
+    private long[] referenced;
+
+    /**
+     * Constructs an empty object
+     *
+     * @param numMembers the number of members in the roster
+     */
+    public ArrayConsensusMetadata(final int numMembers) {
+        this.numMembers = numMembers;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public void eventAdded(@NonNull final EventImpl event) {
+        int slot = event.getConsensusMetadataSlot();
+        if (slot < 0 || slot >= numSlots || events[slot] != event) {
+            slot = nextSlot();
+            events[slot] = event;
+            flags[slot] = 0;
+            event.setConsensusMetadataSlot(slot);
+        }
+        // an event added again keeps its slot, it will be dropped from the released slots when they are reclaimed
+        flags[slot] |= LIVE;
+        clear(event);
+    }
+
+    @Override
+    public void eventRemoved(@NonNull final EventImpl event) {
+        final int slot = event.getConsensusMetadataSlot();
+        if (slot < 0 || slot >= numSlots || events[slot] != event) {
+            return;
+        }
+        clear(event);
+        flags[slot] &= ~LIVE;
+        if ((flags[slot] & RELEASED) == 0) {
+            flags[slot] |= RELEASED;
+            releasedSlots[numReleased++] = slot;
+        }
+    }
+
+    @Override
+    public void clear(@NonNull final EventImpl event) {
+        final int slot = slot(event);
+        flags[slot] &= ~(LAST_SEE | STRONGLY_SEE_P);
+        firstSelfWitnessS[slot] = NONE;
+        firstWitnessS[slot] = NONE;
+    }
+
+    @Override
+    public void reset() {
+        for (int slot = 0; slot < numSlots; slot++) {
+            if (events[slot] != null && events[slot].getConsensusMetadataSlot() == slot) {
+                events[slot].setConsensusMetadataSlot(NONE);
+            }
+        }
+        Arrays.fill(events, 0, numSlots, null);
+        Arrays.fill(flags, 0, numSlots, (byte) 0);
+        numSlots = 0;
+        numFree = 0;
+        numReleased = 0;
+    }
+
+    @Override
+    public boolean hasLastSee(@NonNull final EventImpl x) {
+        return (flags[slot(x)] & LAST_SEE) != 0;
+    }
+
+    @Override
+    public void initLastSee(@NonNull final EventImpl x) {
+        final int slot = slot(x);
+        Arrays.fill(lastSee, slot * numMembers, (slot + 1) * numMembers, NONE);
+        flags[slot] |= LAST_SEE;
+    }
+
+    @Override
+    public @Nullable EventImpl getLastSee(@NonNull final EventImpl x, final int m) {
+        return event(lastSee[slot(x) * numMembers + m]);
+    }
+
+    @Override
+    public void setLastSee(@NonNull final EventImpl x, final int m, @Nullable final EventImpl event) {
+        lastSee[slot(x) * numMembers + m] = reference(event);
+    }
+
+    @Override
+    public boolean hasStronglySeeP(@NonNull final EventImpl x) {
+        return (flags[slot(x)] & STRONGLY_SEE_P) != 0;
+    }
+
+    @Override
+    public void initStronglySeeP(@NonNull final EventImpl x) {
+        final int slot = slot(x);
+        Arrays.fill(stronglySeeP, slot * numMembers, (slot + 1) * numMembers, NONE);
+        flags[slot] |= STRONGLY_SEE_P;
+    }
+
+    @Override
+    public @Nullable EventImpl getStronglySeeP(@NonNull final EventImpl x, final int m) {
+        return event(stronglySeeP[slot(x) * numMembers + m]);
+    }
+
+    @Override
+    public void setStronglySeeP(@NonNull final EventImpl x, final int m, @Nullable final EventImpl event) {
+        stronglySeeP[slot(x) * numMembers + m] = reference(event);
+    }
+
+    @Override
+    public @Nullable EventImpl getFirstSelfWitnessS(@NonNull final EventImpl x) {
+        return event(firstSelfWitnessS[slot(x)]);
+    }
+
+    @Override
+    public void setFirstSelfWitnessS(@NonNull final EventImpl x, @Nullable final EventImpl event) {
+        firstSelfWitnessS[slot(x)] = reference(event);
+    }
+
+    @Override
+    public @Nullable EventImpl getFirstWitnessS(@NonNull final EventImpl x) {
+        return event(firstWitnessS[slot(x)]);
+    }
+
+    @Override
+    public void setFirstWitnessS(@NonNull final EventImpl x, @Nullable final EventImpl event) {
+        firstWitnessS[slot(x)] = reference(event);
+    }
+
+    /**
+     * @return the number of slots that can be used without allocating more memory
+     */
+    int capacity() {
+        return events.length;
+    }
+
+    /**
+     * @return the number of slots assigned to events that have been added and not removed yet
+     */
+    int numLiveEvents() {
+        int live = 0;
+        for (int slot = 0; slot < numSlots; slot++) {
+            if ((flags[slot] & LIVE) != 0) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    private static int slot(@NonNull final EventImpl event) {
+        return event.getConsensusMetadataSlot();
+    }
+
+    private int reference(@Nullable final EventImpl event) {
+        if (event == null) {
+            return NONE;
+        }
+        final int slot = event.getConsensusMetadataSlot();
+        if (slot < 0) {
+            throw new IllegalStateException("Event " + event.shortString() + " has no consensus metadata slot");
+        }
+        return slot;
+    }
+
+    private @Nullable EventImpl event(final int reference) {
+        return reference == NONE ? null : events[reference];
+    }
+
+    /**
+     * @return a slot for a new event
+     */
+    private int nextSlot() {
+        if (numFree == 0 && numReleased > 0 && numReleased * RECLAIM_RATIO >= numSlots) {
+            reclaimSlots();
+        }
+        if (numFree > 0) {
+            return freeSlots[--numFree];
+        }
+        if (numSlots == events.length) {
+            allocate(events.length * 2);
+        }
+        return numSlots++;
+    }
+
+    /**
+     * Make the slots of removed events that are not referenced by any event in use available for new events
+     */
+    private void reclaimSlots() {
+        Arrays.fill(referenced, 0L);
+        for (int slot = 0; slot < numSlots; slot++) {
+            if (events[slot] == null) {
+                continue;
+            }
+            // removed events have their metadata cleared, but they are scanned too, so nothing is missed
+            final byte slotFlags = flags[slot];
+            if ((slotFlags & LAST_SEE) != 0) {
+                markReferenced(lastSee, slot * numMembers, numMembers);
+            }
+            if ((slotFlags & STRONGLY_SEE_P) != 0) {
+                markReferenced(stronglySeeP, slot * numMembers, numMembers);
+            }
+            markReferenced(firstSelfWitnessS, slot, 1);
+            markReferenced(firstWitnessS, slot, 1);
+        }
+        int stillReleased = 0;
+        for (int i = 0; i < numReleased; i++) {
+            final int slot = releasedSlots[i];
+            if ((flags[slot] & LIVE) != 0) {
+                // the event has been added again
+                flags[slot] &= ~RELEASED;
+            } else if ((referenced[slot >>> 6] & (1L << slot)) != 0) {
+                releasedSlots[stillReleased++] = slot;
+            } else {
+                events[slot].setConsensusMetadataSlot(NONE);
+                events[slot] = null;
+                flags[slot] = 0;
+                freeSlots[numFree++] = slot;
+            }
+        }
+        numReleased = stillReleased;
+    }
+
+    private void markReferenced(@NonNull final int[] column, final int from, final int length) {
+        for (int i = from; i < from + length; i++) {
+            final int reference = column[i];
+            if (reference != NONE) {
+                referenced[reference >>> 6] |= 1L << reference;
+            }
+        }
+    }
+
+    /**
+     * Allocate all columns for the given number of slots, keeping existing data
+     *
+     * @param capacity the number of slots
+     */
+    private void allocate(final int capacity) {
+        if (events == null) {
+            events = new EventImpl[capacity];
+            flags = new byte[capacity];
+            lastSee = new int[capacity * numMembers];
+            stronglySeeP = new int[capacity * numMembers];
+            firstSelfWitnessS = new int[capacity];
+            firstWitnessS = new int[capacity];
+            freeSlots = new int[capacity];
+            releasedSlots = new int[capacity];
+        } else {
+            events = Arrays.copyOf(events, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            lastSee = Arrays.copyOf(lastSee, capacity * numMembers);
+            stronglySeeP = Arrays.copyOf(stronglySeeP, capacity * numMembers);
+            firstSelfWitnessS = Arrays.copyOf(firstSelfWitnessS, capacity);
+            firstWitnessS = Arrays.copyOf(firstWitnessS, capacity);
+            freeSlots = Arrays.copyOf(freeSlots, capacity);
+            releasedSlots = Arrays.copyOf(releasedSlots, capacity);
+        }
+        referenced = new long[(capacity + Long.SIZE - 1) / Long.SIZE];
+    }
+}
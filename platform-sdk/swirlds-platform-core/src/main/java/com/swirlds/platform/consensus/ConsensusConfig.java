@@ -15,9 +15,14 @@ import com.swirlds.config.api.ConfigProperty;
  *                         and never have their transactions handled.
  * @param roundsExpired    Events this many rounds old are expired, and can be deleted from memory
  * @param coinFreq         a coin round happens every coinFreq rounds during an election (every other one is all true)
+ * @param arrayMetadataStore if true, the memoized hashgraph metadata (lastSee, stronglySeeP, etc.) is stored in
+ *                         primitive arrays indexed by event slot and member index, see
+ *                         {@link ArrayConsensusMetadata}. If false, it is stored in arrays allocated for each event.
+ *                         The hashgraph GUI only shows metadata stored in events
  */
 @ConfigData("consensus")
 public record ConsensusConfig(
         @ConfigProperty(defaultValue = "26") int roundsNonAncient,
         @ConfigProperty(defaultValue = "1000") int roundsExpired,
-        @ConfigProperty(defaultValue = "12") int coinFreq) {}
+        @ConfigProperty(defaultValue = "12") int coinFreq,
+        @ConfigProperty(defaultValue = "false") boolean arrayMetadataStore) {}
@@ -0,0 +1,139 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.platform.consensus;
+
+import com.swirlds.platform.internal.EventImpl;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Storage for the memoized results of the hashgraph functions from SWIRLDS-TR-2020-01 (lastSee, stronglySeeP,
+ * firstSelfWitnessS and firstWitnessS) that are used to calculate consensus.
+ *
+ * <p>Members are identified by their index in the roster. Every event must be added with {@link #eventAdded(EventImpl)}
+ * before any of its metadata is set, and removed with {@link #eventRemoved(EventImpl)} once its metadata is no longer
+ * needed, i.e. once it is ancient or has reached consensus. An event that has been removed may still be returned by
+ * the getters of other events, but its own metadata must not be queried anymore.
+ *
+ * <p>Implementations are not thread safe.
+ */
+public interface ConsensusMetadata {
+
+    /**
+     * Create the metadata storage configured for consensus
+     *
+     * @param config     consensus configuration
+     * @param numMembers the number of members in the roster
+     * @return the metadata storage
+     */
+    static @NonNull ConsensusMetadata create(@NonNull final ConsensusConfig config, final int numMembers) {
+        return config.arrayMetadataStore()
+                ? new ArrayConsensusMetadata(numMembers)
+                : new EventConsensusMetadata(numMembers);
+    }
+
+    /**
+     * An event has been added to consensus, it will have its metadata calculated
+     *
+     * @param event the event added
+     */
+    void eventAdded(@NonNull EventImpl event);
+
+    /**
+     * An event has been removed from consensus, its metadata will not be calculated or queried anymore
+     *
+     * @param event the event removed
+     */
+    void eventRemoved(@NonNull EventImpl event);
+
+    /**
+     * Clear all metadata of an event, so it can be calculated again
+     *
+     * @param event the event to clear
+     */
+    void clear(@NonNull EventImpl event);
+
+    /** Remove all events, equivalent to creating a new instance */
+    void reset();
+
+    /**
+     * @param x the event being queried
+     * @return true if lastSee has been memoized for x
+     */
+    boolean hasLastSee(@NonNull EventImpl x);
+
+    /**
+     * Prepare to memoize lastSee for all members for x
+     *
+     * @param x the event being calculated
+     */
+    void initLastSee(@NonNull EventImpl x);
+
+    /**
+     * @param x the event being queried
+     * @param m the roster index of the creator
+     * @return the memoized last event created by m that is an ancestor of x
+     */
+    @Nullable
+    EventImpl getLastSee(@NonNull EventImpl x, int m);
+
+    /**
+     * @param x     the event being calculated
+     * @param m     the roster index of the creator
+     * @param event the last event created by m that is an ancestor of x
+     */
+    void setLastSee(@NonNull EventImpl x, int m, @Nullable EventImpl event);
+
+    /**
+     * @param x the event being queried
+     * @return true if stronglySeeP has been memoized for x
+     */
+    boolean hasStronglySeeP(@NonNull EventImpl x);
+
+    /**
+     * Prepare to memoize stronglySeeP for all members for x
+     *
+     * @param x the event being calculated
+     */
+    void initStronglySeeP(@NonNull EventImpl x);
+
+    /**
+     * @param x the event being queried
+     * @param m the roster index of the creator
+     * @return the memoized witness created by m in the parent round of x that x strongly sees
+     */
+    @Nullable
+    EventImpl getStronglySeeP(@NonNull EventImpl x, int m);
+
+    /**
+     * @param x     the event being calculated
+     * @param m     the roster index of the creator
+     * @param event the witness created by m in the parent round of x that x strongly sees
+     */
+    void setStronglySeeP(@NonNull EventImpl x, int m, @Nullable EventImpl event);
+
+    /**
+     * @param x the event being queried
+     * @return the memoized first witness that's a self-ancestor of x in the round of x, or null if not memoized
+     */
+    @Nullable
+    EventImpl getFirstSelfWitnessS(@NonNull EventImpl x);
+
+    /**
+     * @param x     the event being calculated
+     * @param event the first witness that's a self-ancestor of x in the round of x
+     */
+    void setFirstSelfWitnessS(@NonNull EventImpl x, @Nullable EventImpl event);
+
+    /**
+     * @param x the event being queried
+     * @return the memoized first witness that's an ancestor of x in the round of x, or null if not memoized
+     */
+    @Nullable
+    EventImpl getFirstWitnessS(@NonNull EventImpl x);
+
+    /**
+     * @param x     the event being calculated
+     * @param event the first witness that's an ancestor of x in the round of x
+     */
+    void setFirstWitnessS(@NonNull EventImpl x, @Nullable EventImpl event);
+}
@@ -0,0 +1,107 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.platform.consensus;
+
+import com.swirlds.platform.internal.EventImpl;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Consensus metadata stored in the fields of each {@link EventImpl}. Every event allocates arrays for lastSee and
+ * stronglySeeP with one element per member.
+ */
+public class EventConsensusMetadata implements ConsensusMetadata {
+    /** the number of members in the roster */
+    private final int numMembers;
+
+    /**
+     * Constructs an empty object
+     *
+     * @param numMembers the number of members in the roster
+     */
+    public EventConsensusMetadata(final int numMembers) {
+        this.numMembers = numMembers;
+    }
+
+    @Override
+    public void eventAdded(@NonNull final EventImpl event) {
+        // nothing to do, the metadata is stored in the event itself
+    }
+
+    @Override
+    public void eventRemoved(@NonNull final EventImpl event) {
+        clear(event);
+    }
+
+    @Override
+    public void clear(@NonNull final EventImpl event) {
+        event.initLastSee(0);
+        event.initStronglySeeP(0);
+        event.setFirstSelfWitnessS(null);
+        event.setFirstWitnessS(null);
+    }
+
+    @Override
+    public void reset() {
+        // nothing to do, the metadata is stored in the events
+    }
+
+    @Override
+    public boolean hasLastSee(@NonNull final EventImpl x) {
+        return x.sizeLastSee() != 0;
+    }
+
+    @Override
+    public void initLastSee(@NonNull final EventImpl x) {
+        x.initLastSee(numMembers);
+    }
+
+    @Override
+    public @Nullable EventImpl getLastSee(@NonNull final EventImpl x, final int m) {
+        return x.getLastSee(m);
+    }
+
+    @Override
+    public void setLastSee(@NonNull final EventImpl x, final int m, @Nullable final EventImpl event) {
+        x.setLastSee(m, event);
+    }
+
+    @Override
+    public boolean hasStronglySeeP(@NonNull final EventImpl x) {
+        return x.sizeStronglySeeP() != 0;
+    }
+
+    @Override
+    public void initStronglySeeP(@NonNull final EventImpl x) {
+        x.initStronglySeeP(numMembers);
+    }
+
+    @Override
+    public @Nullable EventImpl getStronglySeeP(@NonNull final EventImpl x, final int m) {
+        return x.getStronglySeeP(m);
+    }
+
+    @Override
+    public void setStronglySeeP(@NonNull final EventImpl x, final int m, @Nullable final EventImpl event) {
+        x.setStronglySeeP(m, event);
+    }
+
+    @Override
+    public @Nullable EventImpl getFirstSelfWitnessS(@NonNull final EventImpl x) {
+        return x.getFirstSelfWitnessS();
+    }
+
+    @Override
+    public void setFirstSelfWitnessS(@NonNull final EventImpl x, @Nullable final EventImpl event) {
+        x.setFirstSelfWitnessS(event);
+    }
+
+    @Override
+    public @Nullable EventImpl getFirstWitnessS(@NonNull final EventImpl x) {
+        return x.getFirstWitnessS();
+    }
+
+    @Override
+    public void setFirstWitnessS(@NonNull final EventImpl x, @Nullable final EventImpl event) {
+        x.setFirstWitnessS(event);
+    }
+}
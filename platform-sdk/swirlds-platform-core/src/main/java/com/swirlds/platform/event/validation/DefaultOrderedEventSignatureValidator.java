@@ -0,0 +1,256 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.platform.event.validation;
+
+import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
+
+import com.swirlds.platform.consensus.EventWindow;
+import com.swirlds.platform.event.PlatformEvent;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Default implementation of {@link OrderedEventSignatureValidator}. Incoming events are grouped in batches, and each
+ * batch is verified by a single task on an executor, so signatures of different batches are verified in parallel.
+ * Batches are released in the order they were created, a batch is never released before all batches created before
+ * it.
+ *
+ * <p>A batch is submitted once it is full, or once there is no more input waiting to be handled, in which case all
+ * events still being verified are waited for and released. So events are only held back while more input is queued,
+ * and no event is ever left behind when the input stops. When the input is sparse, this is equivalent to verifying
+ * every event on arrival, and batches only form while events are queuing up.
+ *
+ * <p>This class is not thread safe, it must be run on a sequential scheduler. Verification is delegated to an
+ * {@link EventSignatureValidator} that is called from executor threads. It is never called concurrently with a roster
+ * update.
+ *
+ * <p>If verifying an event fails with an exception, the event is logged and dropped, as if its signature was invalid.
+ * If a batch task fails, or this thread is interrupted while waiting for it, the batch is verified again on this
+ * thread, so a failure never prevents other events from being released.
+ */
+public class DefaultOrderedEventSignatureValidator implements OrderedEventSignatureValidator {
+
+    private static final Logger logger = LogManager.getLogger(DefaultOrderedEventSignatureValidator.class);
+
+    /**
+     * A batch of events being verified.
+     *
+     * @param events the events of the batch
+     * @param future yields the events of the batch with valid signatures
+     */
+    private record Batch(@NonNull List<PlatformEvent> events, @NonNull Future<List<PlatformEvent>> future) {}
+
+    /**
+     * Verifies the signature of a single event.
+     */
+    private final EventSignatureValidator validator;
+
+    /**
+     * Runs batch verification tasks.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The maximum number of events in a batch.
+     */
+    private final int batchSize;
+
+    /**
+     * The maximum number of batches being verified at the same time, once reached, new events wait for the oldest
+     * batch to be verified.
+     */
+    private final int maxBatchesInFlight;
+
+    /**
+     * The number of inputs that have not been handled yet, including the input being handled.
+     */
+    private final LongSupplier unprocessedInputCount;
+
+    /**
+     * Events that have been received but not yet submitted for verification.
+     */
+    private List<PlatformEvent> batch;
+
+    /**
+     * Batches being verified, in the order they were submitted.
+     */
+    private final Deque<Batch> batchesInFlight = new ArrayDeque<>();
+
+    /**
+     * Constructor
+     *
+     * @param validator             verifies the signature of a single event, must be safe to call from multiple
+     *                              threads
+     * @param executor              runs batch verification tasks
+     * @param batchSize             the maximum number of events in a batch
+     * @param maxBatchesInFlight    the maximum number of batches being verified at the same time
+     * @param unprocessedInputCount supplies the number of inputs that have not been handled yet by this component,
+     *                              including the input being handled. If the count is not available, every input is
+     *                              treated as the last one, and events are released as soon as they are verified.
+     */
+    public DefaultOrderedEventSignatureValidator(
+            @NonNull final EventSignatureValidator validator,
+            @NonNull final ExecutorService executor,
+            final int batchSize,
+            final int maxBatchesInFlight,
+            @NonNull final LongSupplier unprocessedInputCount) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, got " + batchSize);
+        }
+        if (maxBatchesInFlight < 1) {
+            throw new IllegalArgumentException("Max batches in flight must be at least 1, got " + maxBatchesInFlight);
+        }
+        this.validator = Objects.requireNonNull(validator);
+        this.executor = Objects.requireNonNull(executor);
+        this.batchSize = batchSize;
+        this.maxBatchesInFlight = maxBatchesInFlight;
+        this.unprocessedInputCount = Objects.requireNonNull(unprocessedInputCount);
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public List<PlatformEvent> validateSignature(@NonNull final PlatformEvent event) {
+        batch.add(event);
+        if (batch.size() >= batchSize) {
+            final List<PlatformEvent> fullBatch = batch;
+            batchesInFlight.add(new Batch(fullBatch, executor.submit(() -> verify(fullBatch))));
+            batch = new ArrayList<>(batchSize);
+        }
+        return release();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public List<PlatformEvent> setEventWindow(@NonNull final EventWindow eventWindow) {
+        validator.setEventWindow(eventWindow);
+        return release();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public List<PlatformEvent> updateRosters(@NonNull final RosterUpdate rosterUpdate) {
+        final List<PlatformEvent> released = releaseAll();
+        validator.updateRosters(rosterUpdate);
+        return released;
+    }
+
+    /**
+     * Release the events that are ready. If there is no more input waiting to be handled, all events are verified and
+     * released.
+     *
+     * @return the released events, in the order they were received
+     */
+    @NonNull
+    private List<PlatformEvent> release() {
+        if (unprocessedInputCount.getAsLong() <= 1) {
+            return releaseAll();
+        }
+
+        List<PlatformEvent> released = null;
+        while (!batchesInFlight.isEmpty()
+                && (batchesInFlight.size() > maxBatchesInFlight
+                        || batchesInFlight.peekFirst().future().isDone())) {
+            final List<PlatformEvent> verified = await(batchesInFlight.pollFirst());
+            if (released == null) {
+                released = verified;
+            } else {
+                released.addAll(verified);
+            }
+        }
+        return released == null ? List.of() : released;
+    }
+
+    /**
+     * Verify all events that have been received, and release them.
+     *
+     * @return the released events, in the order they were received
+     */
+    @NonNull
+    private List<PlatformEvent> releaseAll() {
+        // the last batch is verified on this thread, while the batches submitted earlier are being verified
+        final List<PlatformEvent> lastBatch;
+        if (batch.isEmpty()) {
+            lastBatch = List.of();
+        } else {
+            lastBatch = verify(batch);
+            batch.clear();
+        }
+        if (batchesInFlight.isEmpty()) {
+            return lastBatch;
+        }
+
+        final List<PlatformEvent> released = new ArrayList<>();
+        while (!batchesInFlight.isEmpty()) {
+            released.addAll(await(batchesInFlight.pollFirst()));
+        }
+        released.addAll(lastBatch);
+        return released;
+    }
+
+    /**
+     * Verify the signatures of a batch of events. Events that can't be verified because of an exception are dropped.
+     *
+     * @param events the events to verify
+     * @return the events with valid signatures, in the same order
+     */
+    @NonNull
+    private List<PlatformEvent> verify(@NonNull final List<PlatformEvent> events) {
+        final List<PlatformEvent> valid = new ArrayList<>(events.size());
+        for (final PlatformEvent event : events) {
+            final PlatformEvent validEvent;
+            try {
+                validEvent = validator.validateSignature(event);
+            } catch (final RuntimeException e) {
+                logger.error(EXCEPTION.getMarker(), "Failed to verify the signature of event {}", event, e);
+                continue;
+            }
+            if (validEvent != null) {
+                valid.add(validEvent);
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Wait for a batch to be verified. If the batch task failed, or this thread is interrupted while waiting, the batch
+     * is verified on this thread instead.
+     *
+     * @param batch the batch
+     * @return the events of the batch with valid signatures
+     */
+    @NonNull
+    private List<PlatformEvent> await(@NonNull final Batch batch) {
+        try {
+            return batch.future().get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error(
+                    EXCEPTION.getMarker(), "Interrupted while waiting for event signatures, verifying them in place");
+        } catch (final ExecutionException e) {
+            logger.error(
+                    EXCEPTION.getMarker(),
+                    "Failed to verify event signatures in the background, verifying them in place",
+                    e.getCause());
+        }
+        return verify(batch.events());
+    }
+}
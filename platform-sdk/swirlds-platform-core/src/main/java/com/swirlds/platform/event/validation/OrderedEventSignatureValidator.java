@@ -0,0 +1,46 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.platform.event.validation;
+
+import com.swirlds.component.framework.component.InputWireLabel;
+import com.swirlds.platform.consensus.EventWindow;
+import com.swirlds.platform.event.PlatformEvent;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.List;
+
+/**
+ * Verifies event signatures in parallel, and releases events with valid signatures in the order they were received.
+ * Events may be held back while their signatures are being verified, so every input returns the events that have been
+ * released as a result of handling it.
+ */
+public interface OrderedEventSignatureValidator {
+
+    /**
+     * Add an event to have its signature verified
+     *
+     * @param event the event to verify the signature of
+     * @return events with valid signatures that are ready to be released, in the order they were received
+     */
+    @InputWireLabel("PlatformEvent")
+    @NonNull
+    List<PlatformEvent> validateSignature(@NonNull final PlatformEvent event);
+
+    /**
+     * Set the event window that defines the minimum threshold required for an event to be non-ancient
+     *
+     * @param eventWindow the event window
+     * @return events with valid signatures that are ready to be released, in the order they were received
+     */
+    @InputWireLabel("event window")
+    @NonNull
+    List<PlatformEvent> setEventWindow(@NonNull final EventWindow eventWindow);
+
+    /**
+     * Set the previous and current rosters. Events received before the update are verified with the old rosters.
+     *
+     * @param rosterUpdate the new rosters
+     * @return events with valid signatures that are ready to be released, in the order they were received
+     */
+    @InputWireLabel("RosterUpdate")
+    @NonNull
+    List<PlatformEvent> updateRosters(@NonNull final RosterUpdate rosterUpdate);
+}
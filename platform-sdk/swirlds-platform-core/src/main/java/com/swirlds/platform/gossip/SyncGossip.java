@@ -329,7 +329,7 @@ public class SyncGossip implements ConnectionTracker, Gossip {
             final ReconnectConfig reconnectConfig,
             final PlatformStateFacade platformStateFacade) {
 
-        final Protocol syncProtocol = new SyncProtocol(
+        final SyncProtocol syncProtocol = new SyncProtocol(
                 platformContext,
                 syncShadowgraphSynchronizer,
                 fallenBehindManager,
@@ -356,8 +356,10 @@ public class SyncGossip implements ConnectionTracker, Gossip {
 
         final Protocol heartbeatProtocol = new HeartbeatProtocol(
                 Duration.ofMillis(syncConfig.syncProtocolHeartbeatPeriod()), networkMetrics, platformContext.getTime());
-        final VersionCompareHandshake versionCompareHandshake =
-                new VersionCompareHandshake(appVersion, !protocolConfig.tolerateMismatchedVersion());
+        final Protocol compactSyncProtocol = syncProtocol.compactSyncProtocol();
+        // peers running the same software support the compact sync protocol, legacy peers must never be offered it
+        final VersionCompareHandshake versionCompareHandshake = new VersionCompareHandshake(
+                appVersion, !protocolConfig.tolerateMismatchedVersion(), syncProtocol::peerVersionChecked);
         final List<ProtocolRunnable> handshakeProtocols = List.of(versionCompareHandshake);
         for (final NodeId otherId : topology.getNeighbors()) {
             syncProtocolThreads.add(new StoppableThreadConfiguration<>(threadManager)
@@ -374,7 +376,8 @@ public class SyncGossip implements ConnectionTracker, Gossip {
                             new NegotiationProtocols(List.of(
                                     heartbeatProtocol.createPeerInstance(otherId),
                                     reconnectProtocol.createPeerInstance(otherId),
-                                    syncProtocol.createPeerInstance(otherId))),
+                                    syncProtocol.createPeerInstance(otherId),
+                                    compactSyncProtocol.createPeerInstance(otherId))),
                             platformContext.getTime()))
                     .build());
         }
@@ -150,6 +150,8 @@ public class SyncGossipModular implements Gossip {
 
         this.controller = new SyncGossipController(intakeEventCounter, sharedState);
 
+        final SyncProtocol syncProtocol =
+                SyncProtocol.create(platformContext, sharedState, intakeEventCounter, peers.size() + 1);
         final List<Protocol> protocols = ImmutableList.of(
                 HeartbeatProtocol.create(platformContext, sharedState),
                 ReconnectProtocol.create(
@@ -165,11 +167,13 @@ public class SyncGossipModular implements Gossip {
                         selfId,
                         controller,
                         platformStateFacade),
-                SyncProtocol.create(platformContext, sharedState, intakeEventCounter, peers.size() + 1));
+                syncProtocol,
+                syncProtocol.compactSyncProtocol());
 
         final ProtocolConfig protocolConfig = platformContext.getConfiguration().getConfigData(ProtocolConfig.class);
-        final VersionCompareHandshake versionCompareHandshake =
-                new VersionCompareHandshake(appVersion, !protocolConfig.tolerateMismatchedVersion());
+        // peers running the same software support the compact sync protocol, legacy peers must never be offered it
+        final VersionCompareHandshake versionCompareHandshake = new VersionCompareHandshake(
+                appVersion, !protocolConfig.tolerateMismatchedVersion(), syncProtocol::peerVersionChecked);
         final List<ProtocolRunnable> handshakeProtocols = List.of(versionCompareHandshake);
 
         final List<StoppableThread> threads =
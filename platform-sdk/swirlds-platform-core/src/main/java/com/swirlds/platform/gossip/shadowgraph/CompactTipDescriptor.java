@@ -0,0 +1,63 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.platform.gossip.shadowgraph;
+
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.platform.event.AncientMode;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Identifies a tip in the compact sync protocol, in place of its full hash. A tip is matched to a known event by the
+ * first bytes of its hash, and the match is only accepted if the creator and ancient indicator agree as well. Since a
+ * creator can only collide with its own events, a creator that produces colliding hash prefixes can only delay the
+ * gossip of its own events.
+ *
+ * @param creator          the ID of the node that created the event
+ * @param ancientIndicator the ancient indicator of the event, i.e. its generation or birth round depending on the
+ *                         ancient mode
+ * @param hashPrefix       the first {@link Long#BYTES} bytes of the event hash
+ */
+public record CompactTipDescriptor(long creator, long ancientIndicator, long hashPrefix) {
+
+    /**
+     * The number of bytes a descriptor occupies on the wire.
+     */
+    public static final int SERIALIZED_SIZE = 3 * Long.BYTES;
+
+    /**
+     * Create the descriptor of a shadow event.
+     *
+     * @param shadow      the shadow event
+     * @param ancientMode the current ancient mode
+     * @return the descriptor of the event
+     */
+    @NonNull
+    public static CompactTipDescriptor of(@NonNull final ShadowEvent shadow, @NonNull final AncientMode ancientMode) {
+        return new CompactTipDescriptor(
+                shadow.getEvent().getCreatorId().id(),
+                shadow.getEvent().getAncientIndicator(ancientMode),
+                hashPrefix(shadow.getEventBaseHash()));
+    }
+
+    /**
+     * Get the prefix of a hash that is used to identify an event.
+     *
+     * @param hash the hash of the event
+     * @return the first {@link Long#BYTES} bytes of the hash
+     */
+    public static long hashPrefix(@NonNull final Hash hash) {
+        return hash.getBytes().getLong(0);
+    }
+
+    /**
+     * Check if this descriptor identifies a shadow event.
+     *
+     * @param shadow      the shadow event
+     * @param ancientMode the current ancient mode
+     * @return true if the creator, ancient indicator and hash prefix of the event match this descriptor
+     */
+    public boolean matches(@NonNull final ShadowEvent shadow, @NonNull final AncientMode ancientMode) {
+        return shadow.getEvent().getCreatorId().id() == creator
+                && shadow.getEvent().getAncientIndicator(ancientMode) == ancientIndicator
+                && hashPrefix(shadow.getEventBaseHash()) == hashPrefix;
+    }
+}
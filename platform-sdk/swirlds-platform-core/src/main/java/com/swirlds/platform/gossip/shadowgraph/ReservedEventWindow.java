@@ -12,6 +12,7 @@ import java.util.Objects;
 public class ReservedEventWindow implements AutoCloseable {
     private final EventWindow eventWindow;
     private final ShadowgraphReservation shadowgraphReservation;
+    private final Runnable onClose;
 
     /**
      * Constructor.
@@ -21,8 +22,23 @@ public class ReservedEventWindow implements AutoCloseable {
      */
     public ReservedEventWindow(
             @NonNull final EventWindow eventWindow, @NonNull final ShadowgraphReservation shadowgraphReservation) {
+        this(eventWindow, shadowgraphReservation, () -> {});
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param eventWindow            the event window
+     * @param shadowgraphReservation the shadowgraph reservation
+     * @param onClose                called after the reservation is released
+     */
+    public ReservedEventWindow(
+            @NonNull final EventWindow eventWindow,
+            @NonNull final ShadowgraphReservation shadowgraphReservation,
+            @NonNull final Runnable onClose) {
         this.eventWindow = Objects.requireNonNull(eventWindow);
         this.shadowgraphReservation = Objects.requireNonNull(shadowgraphReservation);
+        this.onClose = Objects.requireNonNull(onClose);
     }
 
     /**
@@ -31,6 +47,7 @@ public class ReservedEventWindow implements AutoCloseable {
     @Override
     public void close() {
         shadowgraphReservation.close();
+        onClose.run();
     }
 
     /**
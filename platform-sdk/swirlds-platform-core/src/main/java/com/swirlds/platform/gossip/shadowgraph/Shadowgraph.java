@@ -29,6 +29,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
@@ -37,6 +39,12 @@ import org.apache.logging.log4j.Logger;
 /**
  * The primary purpose of the shadowgraph is to unlink events when it is safe to do so. In order to decide when it is
  * safe to unlink an event, it allows for batches of events (by ancient indicator) to be reserved.
+ *
+ * <p>The shadowgraph is read by many gossip threads at the same time, and written by a single writer. Writes
+ * ({@link #addEvent(PlatformEvent)}, {@link #updateEventWindow(EventWindow)} and {@link #clear()}) are serialized on
+ * this instance. Reads never take that lock: events are looked up in a concurrent index, the tips are published as an
+ * immutable snapshot, and the event window and expiry threshold are volatile. Reservations are guarded by their own
+ * lock, so reserving the shadowgraph does not wait for events being added.
  */
 public class Shadowgraph implements Clearable {
 
@@ -48,30 +56,48 @@ public class Shadowgraph implements Clearable {
     public static final int NO_RESERVATION = -1;
 
     /**
-     * The shadowgraph represented in a map from has to shadow event.
+     * The shadowgraph represented in a map from hash to shadow event. Read without holding any lock.
      */
-    private final HashMap<Hash, ShadowEvent> hashToShadowEvent;
+    private final Map<Hash, ShadowEvent> hashToShadowEvent;
 
     /**
-     * Map from ancient indicator to all shadow events with that ancient indicator.
+     * Map from the hash prefix of a shadow event to the shadow event, used to look up tips sent by the compact sync
+     * protocol. If several events share a prefix, only the first one inserted is indexed. Read without holding any
+     * lock.
+     */
+    private final Map<Long, ShadowEvent> hashPrefixToShadowEvent;
+
+    /**
+     * Map from ancient indicator to all shadow events with that ancient indicator. Only accessed by the writer.
      */
     private final Map<Long /* ancient indicator */, Set<ShadowEvent>> indicatorToShadowEvent;
 
     /**
-     * The set of all tips for the shadowgraph. A tip is an event with no self child (could have other children)
+     * The set of all tips for the shadowgraph. A tip is an event with no self child (could have other children). Only
+     * accessed by the writer, readers use {@link #tipsSnapshot}.
      */
     private final HashSet<ShadowEvent> tips;
 
+    /**
+     * An immutable copy of {@link #tips}, published by the writer every time the tips change.
+     */
+    private volatile List<ShadowEvent> tipsSnapshot = List.of();
+
     /**
      * The oldest ancient indicator that has not yet been expired
      */
-    private long oldestUnexpiredIndicator;
+    private volatile long oldestUnexpiredIndicator;
 
     /**
-     * The list of all currently reserved indicators and their number of reservations.
+     * The list of all currently reserved indicators and their number of reservations. Guarded by its own monitor.
      */
     private final LinkedList<ShadowgraphReservation> reservationList;
 
+    /**
+     * The number of reservations that have not been closed yet, i.e. the number of syncs reading the shadowgraph.
+     */
+    private final AtomicInteger openReservations = new AtomicInteger();
+
     /**
      * Encapsulates metrics for the shadowgraph.
      */
@@ -88,9 +114,10 @@ public class Shadowgraph implements Clearable {
     private final AncientMode ancientMode;
 
     /**
-     * The most recent event window we know about.
+     * The most recent event window we know about. Only updated while holding the {@link #reservationList} monitor, so
+     * that a reservation is never made against a window that is being replaced.
      */
-    private EventWindow eventWindow;
+    private volatile EventWindow eventWindow;
 
     /**
      * For each peer, track the number of events in the intake pipeline prior to the shadowgraph.
@@ -118,7 +145,8 @@ public class Shadowgraph implements Clearable {
         this.numberOfNodes = numberOfNodes;
         this.intakeEventCounter = Objects.requireNonNull(intakeEventCounter);
         tips = new HashSet<>();
-        hashToShadowEvent = new HashMap<>();
+        hashToShadowEvent = new ConcurrentHashMap<>();
+        hashPrefixToShadowEvent = new ConcurrentHashMap<>();
         indicatorToShadowEvent = new HashMap<>();
         reservationList = new LinkedList<>();
     }
@@ -141,13 +169,17 @@ public class Shadowgraph implements Clearable {
      * Reset the shadowgraph manager to its constructed state.
      */
     public synchronized void clear() {
-        eventWindow = null;
+        synchronized (reservationList) {
+            eventWindow = null;
+            reservationList.clear();
+        }
         oldestUnexpiredIndicator = ancientMode.getGenesisIndicator();
         disconnectShadowEvents();
         tips.clear();
+        tipsSnapshot = List.of();
         hashToShadowEvent.clear();
+        hashPrefixToShadowEvent.clear();
         indicatorToShadowEvent.clear();
-        reservationList.clear();
     }
 
     /**
@@ -166,33 +198,47 @@ public class Shadowgraph implements Clearable {
      * @return the reservation instance, must be closed when the reservation is no longer needed
      */
     @NonNull
-    public synchronized ReservedEventWindow reserve() {
-        if (reservationList.isEmpty()) {
-            // If we are not currently holding any reservations, we need to create a new one.
-            return new ReservedEventWindow(eventWindow, newReservation());
-        }
+    public ReservedEventWindow reserve() {
+        final ReservedEventWindow reservedEventWindow = reserveEventWindow();
+        metrics.syncStarted(openReservations.incrementAndGet());
+        return reservedEventWindow;
+    }
 
-        // Check to see if an existing reservation is good enough.
+    /**
+     * Reserve the current event window, see {@link #reserve()}.
+     *
+     * @return the reservation instance
+     */
+    @NonNull
+    private ReservedEventWindow reserveEventWindow() {
+        synchronized (reservationList) {
+            if (reservationList.isEmpty()) {
+                // If we are not currently holding any reservations, we need to create a new one.
+                return new ReservedEventWindow(eventWindow, newReservation(), openReservations::decrementAndGet);
+            }
 
-        final ShadowgraphReservation lastReservation = reservationList.getLast();
+            // Check to see if an existing reservation is good enough.
 
-        final long previouslyReservedThreshold = lastReservation.getReservedThreshold();
-        final long thresholdWeWantToReserve = eventWindow.getExpiredThreshold();
+            final ShadowgraphReservation lastReservation = reservationList.getLast();
 
-        if (previouslyReservedThreshold == thresholdWeWantToReserve) {
+            final long previouslyReservedThreshold = lastReservation.getReservedThreshold();
+            final long thresholdWeWantToReserve = eventWindow.getExpiredThreshold();
 
-            // The latest reservation is against the same expired threshold that we currently want to reserve.
-            // We can reuse that reservation instead of creating a new one. We still need to package that
-            // reservation with the most recent eventWindow we know about.
+            if (previouslyReservedThreshold == thresholdWeWantToReserve) {
 
-            lastReservation.incrementReservations();
-            return new ReservedEventWindow(eventWindow, lastReservation);
-        } else {
+                // The latest reservation is against the same expired threshold that we currently want to reserve.
+                // We can reuse that reservation instead of creating a new one. We still need to package that
+                // reservation with the most recent eventWindow we know about.
+
+                lastReservation.incrementReservations();
+                return new ReservedEventWindow(eventWindow, lastReservation, openReservations::decrementAndGet);
+            } else {
 
-            // We want a reservation on an expired threshold that isn't currently reserved.
-            // Create a new reservation.
+                // We want a reservation on an expired threshold that isn't currently reserved.
+                // Create a new reservation.
 
-            return new ReservedEventWindow(eventWindow, newReservation());
+                return new ReservedEventWindow(eventWindow, newReservation(), openReservations::decrementAndGet);
+            }
         }
     }
 
@@ -200,7 +246,7 @@ public class Shadowgraph implements Clearable {
      * Get the latest event window known to the shadowgraph.
      */
     @NonNull
-    public synchronized EventWindow getEventWindow() {
+    public EventWindow getEventWindow() {
         return eventWindow;
     }
 
@@ -212,8 +258,8 @@ public class Shadowgraph implements Clearable {
      * @deprecated still used by tests, planned for removal. Do not add new uses.
      */
     @Deprecated(forRemoval = true)
-    public synchronized boolean isHashInGraph(final Hash hash) {
-        return hashToShadowEvent.containsKey(hash);
+    public boolean isHashInGraph(final Hash hash) {
+        return hash != null && hashToShadowEvent.containsKey(hash);
     }
 
     /**
@@ -227,9 +273,10 @@ public class Shadowgraph implements Clearable {
      *     <li>adding events to the the graph does not affect ancestors</li>
      *     <li>checks for expired parent events are atomic</li>
      * </ol>
-     * <p>Note: This method is always accessed after a call to a synchronized {@link Shadowgraph} method, like
-     * {@link #getTips()}, which acts as a memory gate and causes the calling thread to read the latest values for all
-     * variables from memory, including {@link ShadowEvent} links.</p>
+     * <p>Note: The events passed to this method are always obtained from the shadowgraph, like from
+     * {@link #getTips()}. Shadow events are published through the concurrent index and the volatile tip snapshot, which
+     * act as a memory gate and cause the calling thread to read the latest values of the {@link ShadowEvent} links set
+     * before the events were published.</p>
      *
      * @param events    the event to find ancestors of
      * @param predicate determines whether or not to add the ancestor to the return list
@@ -339,27 +386,30 @@ public class Shadowgraph implements Clearable {
      * @param eventWindow describes the current window of non-expired events
      */
     public synchronized void updateEventWindow(@NonNull final EventWindow eventWindow) {
-        if (this.eventWindow == null) {
-            startWithEventWindow(eventWindow);
-            return;
-        }
+        long oldestReservedIndicator;
+        synchronized (reservationList) {
+            if (this.eventWindow == null) {
+                startWithEventWindow(eventWindow);
+                return;
+            }
 
-        final long expiredThreshold = eventWindow.getExpiredThreshold();
+            final long expiredThreshold = eventWindow.getExpiredThreshold();
 
-        if (expiredThreshold < eventWindow.getExpiredThreshold()) {
-            logger.error(
-                    EXCEPTION.getMarker(),
-                    "A request to expire below {} is less than request of {}. Ignoring expiration request",
-                    expiredThreshold,
-                    eventWindow.getExpiredThreshold());
-            // The value of expireBelow must never decrease, so if we receive an invalid request like this, ignore it
-            return;
-        }
-        this.eventWindow = eventWindow;
+            if (expiredThreshold < eventWindow.getExpiredThreshold()) {
+                logger.error(
+                        EXCEPTION.getMarker(),
+                        "A request to expire below {} is less than request of {}. Ignoring expiration request",
+                        expiredThreshold,
+                        eventWindow.getExpiredThreshold());
+                // The value of expireBelow must never decrease, so if we receive an invalid request, ignore it
+                return;
+            }
+            this.eventWindow = eventWindow;
 
-        // Remove reservations for events that can and should be expired, and
-        // keep track of the oldest threshold that can be expired
-        long oldestReservedIndicator = pruneReservationList();
+            // Remove reservations for events that can and should be expired, and
+            // keep track of the oldest threshold that can be expired
+            oldestReservedIndicator = pruneReservationList();
+        }
 
         if (oldestReservedIndicator == NO_RESERVATION) {
             oldestReservedIndicator = eventWindow.getExpiredThreshold();
@@ -375,18 +425,26 @@ public class Shadowgraph implements Clearable {
 
         final long minimumIndicatorToKeep = Math.min(eventWindow.getExpiredThreshold(), oldestReservedIndicator);
 
+        boolean tipsChanged = false;
         while (oldestUnexpiredIndicator < minimumIndicatorToKeep) {
-            final Set<ShadowEvent> shadowsToExpire = indicatorToShadowEvent.remove(oldestUnexpiredIndicator);
+            final long indicatorToExpire = oldestUnexpiredIndicator;
+            final Set<ShadowEvent> shadowsToExpire = indicatorToShadowEvent.remove(indicatorToExpire);
+            // Readers must consider these events expired before they are disconnected
+            oldestUnexpiredIndicator = indicatorToExpire + 1;
             // shadowsToExpire should never be null, but check just in case.
             if (shadowsToExpire == null) {
                 logger.error(
                         EXCEPTION.getMarker(),
                         "There were no events with ancient indicator {} to expire.",
-                        oldestUnexpiredIndicator);
+                        indicatorToExpire);
             } else {
-                shadowsToExpire.forEach(this::expire);
+                for (final ShadowEvent shadow : shadowsToExpire) {
+                    tipsChanged |= expire(shadow);
+                }
             }
-            oldestUnexpiredIndicator++;
+        }
+        if (tipsChanged) {
+            publishTips();
         }
     }
 
@@ -426,13 +484,22 @@ public class Shadowgraph implements Clearable {
      * Expires a single {@link ShadowEvent} from the shadowgraph.
      *
      * @param shadow the shadow event to expire
+     * @return true if the shadow event was a tip
      */
-    private void expire(final ShadowEvent shadow) {
+    private boolean expire(final ShadowEvent shadow) {
         // Remove the shadow from the shadowgraph
         hashToShadowEvent.remove(shadow.getEventBaseHash());
+        hashPrefixToShadowEvent.remove(CompactTipDescriptor.hashPrefix(shadow.getEventBaseHash()), shadow);
         // Remove references to parent shadows so this event gets garbage collected
         shadow.disconnect();
-        tips.remove(shadow);
+        return tips.remove(shadow);
+    }
+
+    /**
+     * Publish a copy of the current tips to readers.
+     */
+    private void publishTips() {
+        tipsSnapshot = List.copyOf(tips);
     }
 
     /**
@@ -443,7 +510,7 @@ public class Shadowgraph implements Clearable {
      * @throws IllegalArgumentException if {@code otherParentsDescriptors} contains more than one event descriptor
      */
     @Nullable
-    private synchronized ShadowEvent shadow(@NonNull final List<EventDescriptorWrapper> otherParentsDescriptors) {
+    private ShadowEvent shadow(@NonNull final List<EventDescriptorWrapper> otherParentsDescriptors) {
         if (otherParentsDescriptors.isEmpty()) {
             return null;
         }
@@ -462,7 +529,7 @@ public class Shadowgraph implements Clearable {
      * @return the shadow event that references an event, or null is {@code e} is null
      */
     @Nullable
-    public synchronized ShadowEvent shadow(@Nullable final EventDescriptorWrapper e) {
+    public ShadowEvent shadow(@Nullable final EventDescriptorWrapper e) {
         if (e == null) {
             return null;
         }
@@ -476,7 +543,7 @@ public class Shadowgraph implements Clearable {
      * @param hashes The event hashes to get shadow events for
      * @return the shadow events that reference the events with the given hashes
      */
-    public synchronized List<ShadowEvent> shadows(final List<Hash> hashes) {
+    public List<ShadowEvent> shadows(final List<Hash> hashes) {
         Objects.requireNonNull(hashes);
         final List<ShadowEvent> shadows = new ArrayList<>(hashes.size());
         for (final Hash hash : hashes) {
@@ -485,6 +552,23 @@ public class Shadowgraph implements Clearable {
         return shadows;
     }
 
+    /**
+     * Get the shadow events described by compact tip descriptors.
+     *
+     * @param descriptors the descriptors to get shadow events for
+     * @return the shadow events matching the descriptors, with {@code null} for every descriptor that does not match a
+     * known event
+     */
+    public List<ShadowEvent> shadowsByDescriptor(@NonNull final List<CompactTipDescriptor> descriptors) {
+        Objects.requireNonNull(descriptors);
+        final List<ShadowEvent> shadows = new ArrayList<>(descriptors.size());
+        for (final CompactTipDescriptor descriptor : descriptors) {
+            final ShadowEvent shadow = hashPrefixToShadowEvent.get(descriptor.hashPrefix());
+            shadows.add(shadow != null && descriptor.matches(shadow, ancientMode) ? shadow : null);
+        }
+        return shadows;
+    }
+
     /**
      * Get a hashgraph event from a hash
      *
@@ -492,7 +576,7 @@ public class Shadowgraph implements Clearable {
      * @return the hashgraph event, if there is one in {@code this} shadowgraph, else `null`
      */
     @Nullable
-    public synchronized PlatformEvent hashgraphEvent(@Nullable final Hash h) {
+    public PlatformEvent hashgraphEvent(@Nullable final Hash h) {
         final ShadowEvent shadow = shadow(h);
         if (shadow == null) {
             return null;
@@ -508,8 +592,8 @@ public class Shadowgraph implements Clearable {
      * @return an unmodifiable copy of the tips
      */
     @NonNull
-    public synchronized List<ShadowEvent> getTips() {
-        return new ArrayList<>(tips);
+    public List<ShadowEvent> getTips() {
+        return tipsSnapshot;
     }
 
     /**
@@ -532,6 +616,7 @@ public class Shadowgraph implements Clearable {
                 final ShadowEvent s = insert(event);
                 tips.add(s);
                 tips.remove(s.getSelfParent());
+                publishTips();
 
                 if (numberOfNodes > 0 && tips.size() > numberOfNodes && tips.size() > tipsBefore) {
                     // It is possible that we have more tips than nodes even if there is no fork.
@@ -578,6 +663,12 @@ public class Shadowgraph implements Clearable {
         }
     }
 
+    /**
+     * Create a new reservation on the current expired threshold. Must be called while holding the
+     * {@link #reservationList} monitor.
+     *
+     * @return the new reservation
+     */
     private ShadowgraphReservation newReservation() {
         final ShadowgraphReservation reservation = new ShadowgraphReservation(eventWindow.getExpiredThreshold());
         reservationList.addLast(reservation);
@@ -585,7 +676,7 @@ public class Shadowgraph implements Clearable {
     }
 
     private ShadowEvent shadow(final Hash h) {
-        return hashToShadowEvent.get(h);
+        return h == null ? null : hashToShadowEvent.get(h);
     }
 
     /**
@@ -593,8 +684,8 @@ public class Shadowgraph implements Clearable {
      * @return the event that has the hash provided, or null if none exists
      */
     @Nullable
-    public synchronized PlatformEvent getEvent(@Nullable final Hash hash) {
-        final ShadowEvent shadowEvent = hashToShadowEvent.get(hash);
+    public PlatformEvent getEvent(@Nullable final Hash hash) {
+        final ShadowEvent shadowEvent = shadow(hash);
         return shadowEvent == null ? null : shadowEvent.getEvent();
     }
 
@@ -613,6 +704,7 @@ public class Shadowgraph implements Clearable {
         final ShadowEvent se = new ShadowEvent(event, sp, op);
 
         hashToShadowEvent.put(se.getEventBaseHash(), se);
+        hashPrefixToShadowEvent.putIfAbsent(CompactTipDescriptor.hashPrefix(se.getEventBaseHash()), se);
 
         final long ancientIndicator = event.getAncientIndicator(ancientMode);
         if (!indicatorToShadowEvent.containsKey(ancientIndicator)) {
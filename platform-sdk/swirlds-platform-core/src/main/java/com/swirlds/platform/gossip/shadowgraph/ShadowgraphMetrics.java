@@ -2,9 +2,12 @@
 package com.swirlds.platform.gossip.shadowgraph;
 
 import static com.swirlds.metrics.api.FloatFormats.FORMAT_5_3;
+import static com.swirlds.metrics.api.FloatFormats.FORMAT_8_1;
 import static com.swirlds.metrics.api.Metrics.PLATFORM_CATEGORY;
 
 import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.metrics.extensions.CountPerSecond;
+import com.swirlds.metrics.api.Metrics;
 import com.swirlds.platform.stats.AverageStat;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -13,7 +16,21 @@ import edu.umd.cs.findbugs.annotations.NonNull;
  */
 public class ShadowgraphMetrics {
 
+    /**
+     * The suffixes of the syncs per second metrics, by the number of syncs reading the shadowgraph at the same time.
+     * Bucket {@code i} holds syncs that run concurrently with {@code 2^i} to {@code 2^(i+1) - 1} syncs (including
+     * itself), the last bucket holds everything above.
+     */
+    private static final String[] CONCURRENT_SYNCS_BUCKETS = {"1", "2to3", "4to7", "8plus"};
+
+    private static final CountPerSecond.Config SYNCS_PER_SECOND_CONFIG = new CountPerSecond.Config(
+                    PLATFORM_CATEGORY, "shadowgraphSyncsPerSec")
+            .withDescription("the number of syncs per second that read the shadowgraph");
+
     private final AverageStat indicatorsWaitingForExpiry;
+    private final CountPerSecond syncsPerSecond;
+    private final CountPerSecond[] syncsPerSecondByConcurrentSyncs;
+    private final AverageStat concurrentSyncs;
 
     /**
      * Constructor
@@ -21,13 +38,31 @@ public class ShadowgraphMetrics {
      * @param platformContext the platform context
      */
     public ShadowgraphMetrics(@NonNull final PlatformContext platformContext) {
+        final Metrics metrics = platformContext.getMetrics();
         indicatorsWaitingForExpiry = new AverageStat(
-                platformContext.getMetrics(),
+                metrics,
                 PLATFORM_CATEGORY,
                 "indicatorsWaitingForExpiry",
                 "the average number of indicators waiting to be expired by the shadowgraph",
                 FORMAT_5_3,
                 AverageStat.WEIGHT_VOLATILE);
+        syncsPerSecond = new CountPerSecond(metrics, SYNCS_PER_SECOND_CONFIG);
+        syncsPerSecondByConcurrentSyncs = new CountPerSecond[CONCURRENT_SYNCS_BUCKETS.length];
+        for (int i = 0; i < CONCURRENT_SYNCS_BUCKETS.length; i++) {
+            final String bucket = CONCURRENT_SYNCS_BUCKETS[i];
+            syncsPerSecondByConcurrentSyncs[i] = new CountPerSecond(
+                    metrics,
+                    new CountPerSecond.Config(PLATFORM_CATEGORY, "shadowgraphSyncsPerSec_" + bucket)
+                            .withDescription("the number of syncs per second that read the shadowgraph while "
+                                    + bucket + " syncs were reading it"));
+        }
+        concurrentSyncs = new AverageStat(
+                metrics,
+                PLATFORM_CATEGORY,
+                "shadowgraphConcurrentSyncs",
+                "the average number of syncs reading the shadowgraph at the same time, sampled when a sync starts",
+                FORMAT_8_1,
+                AverageStat.WEIGHT_VOLATILE);
     }
 
     /**
@@ -39,4 +74,17 @@ public class ShadowgraphMetrics {
     public void updateIndicatorsWaitingForExpiry(final long numGenerations) {
         indicatorsWaitingForExpiry.update(numGenerations);
     }
+
+    /**
+     * Called by {@link Shadowgraph} when a sync starts reading the shadowgraph.
+     *
+     * @param syncsInProgress the number of syncs reading the shadowgraph, including the one that just started
+     */
+    public void syncStarted(final int syncsInProgress) {
+        syncsPerSecond.count();
+        final int bucket = Math.min(
+                31 - Integer.numberOfLeadingZeros(Math.max(1, syncsInProgress)), CONCURRENT_SYNCS_BUCKETS.length - 1);
+        syncsPerSecondByConcurrentSyncs[bucket].count();
+        concurrentSyncs.update(syncsInProgress);
+    }
 }
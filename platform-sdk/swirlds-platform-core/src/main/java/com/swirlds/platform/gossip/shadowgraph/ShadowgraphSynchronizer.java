@@ -7,10 +7,14 @@ import static com.swirlds.platform.gossip.shadowgraph.SyncUtils.getMyTipsTheyKno
 import static com.swirlds.platform.gossip.shadowgraph.SyncUtils.getTheirTipsIHave;
 import static com.swirlds.platform.gossip.shadowgraph.SyncUtils.readEventsINeed;
 import static com.swirlds.platform.gossip.shadowgraph.SyncUtils.readMyTipsTheyHave;
+import static com.swirlds.platform.gossip.shadowgraph.SyncUtils.readMyTipsTheyHaveBitSet;
+import static com.swirlds.platform.gossip.shadowgraph.SyncUtils.readTheirCompactTipsAndEventWindow;
 import static com.swirlds.platform.gossip.shadowgraph.SyncUtils.readTheirTipsAndEventWindow;
 import static com.swirlds.platform.gossip.shadowgraph.SyncUtils.sendEventsTheyNeed;
+import static com.swirlds.platform.gossip.shadowgraph.SyncUtils.writeMyCompactTipsAndEventWindow;
 import static com.swirlds.platform.gossip.shadowgraph.SyncUtils.writeMyTipsAndEventWindow;
 import static com.swirlds.platform.gossip.shadowgraph.SyncUtils.writeTheirTipsIHave;
+import static com.swirlds.platform.gossip.shadowgraph.SyncUtils.writeTheirTipsIHaveBitSet;
 
 import com.swirlds.base.time.Time;
 import com.swirlds.common.context.PlatformContext;
@@ -172,9 +176,26 @@ public class ShadowgraphSynchronizer {
      */
     public boolean synchronize(@NonNull final PlatformContext platformContext, @NonNull final Connection connection)
             throws IOException, ParallelExecutionException, SyncException, InterruptedException {
+        return synchronize(platformContext, connection, false);
+    }
+
+    /**
+     * Executes a sync using the supplied connection.
+     *
+     * @param platformContext the platform context
+     * @param connection      the connection to use
+     * @param compact         if true, tips are exchanged as compact descriptors and tip knowledge as bit sets. Both
+     *                        peers must use the same encoding.
+     * @return true if the sync was successful, false if it was aborted
+     */
+    public boolean synchronize(
+            @NonNull final PlatformContext platformContext,
+            @NonNull final Connection connection,
+            final boolean compact)
+            throws IOException, ParallelExecutionException, SyncException, InterruptedException {
         logger.info(SYNC_INFO.getMarker(), "{} sync start", connection.getDescription());
         try {
-            return reserveSynchronize(platformContext, connection);
+            return reserveSynchronize(platformContext, connection, compact);
         } finally {
             logger.info(SYNC_INFO.getMarker(), "{} sync end", connection.getDescription());
         }
@@ -185,10 +206,13 @@ public class ShadowgraphSynchronizer {
      *
      * @param platformContext the platform context
      * @param connection      the connection to use
+     * @param compact         if true, use the compact encoding of tips and tip knowledge
      * @return true if the sync was successful, false if it was aborted
      */
     private boolean reserveSynchronize(
-            @NonNull final PlatformContext platformContext, @NonNull final Connection connection)
+            @NonNull final PlatformContext platformContext,
+            @NonNull final Connection connection,
+            final boolean compact)
             throws IOException, ParallelExecutionException, SyncException, InterruptedException {
 
         // accumulates time points for each step in the execution of a single gossip session, used for stats
@@ -206,15 +230,30 @@ public class ShadowgraphSynchronizer {
 
             final List<ShadowEvent> myTips = getTips();
             // READ and WRITE event windows numbers & tip hashes
-            final TheirTipsAndEventWindow theirTipsAndEventWindow = readWriteParallel(
-                    readTheirTipsAndEventWindow(connection, numberOfNodes, ancientMode),
-                    writeMyTipsAndEventWindow(connection, myWindow, myTips),
-                    connection);
+            final EventWindow theirWindow;
+            final List<ShadowEvent> theirTips;
+            if (compact) {
+                final TheirCompactTipsAndEventWindow theirTipsAndEventWindow = readWriteParallel(
+                        readTheirCompactTipsAndEventWindow(connection, numberOfNodes, ancientMode),
+                        writeMyCompactTipsAndEventWindow(connection, myWindow, myTips, ancientMode),
+                        connection);
+                theirWindow = theirTipsAndEventWindow.eventWindow();
+                // process the descriptors received
+                theirTips = shadowGraph.shadowsByDescriptor(theirTipsAndEventWindow.tips());
+            } else {
+                final TheirTipsAndEventWindow theirTipsAndEventWindow = readWriteParallel(
+                        readTheirTipsAndEventWindow(connection, numberOfNodes, ancientMode),
+                        writeMyTipsAndEventWindow(connection, myWindow, myTips),
+                        connection);
+                theirWindow = theirTipsAndEventWindow.eventWindow();
+                // process the hashes received
+                theirTips = shadowGraph.shadows(theirTipsAndEventWindow.tips());
+            }
             timing.setTimePoint(1);
 
-            syncMetrics.eventWindow(myWindow, theirTipsAndEventWindow.eventWindow());
+            syncMetrics.eventWindow(myWindow, theirWindow);
 
-            if (fallenBehind(myWindow, theirTipsAndEventWindow.eventWindow(), connection)) {
+            if (fallenBehind(myWindow, theirWindow, connection)) {
                 // aborting the sync since someone has fallen behind
                 return false;
             }
@@ -222,9 +261,6 @@ public class ShadowgraphSynchronizer {
             // events that I know they already have
             final Set<ShadowEvent> eventsTheyHave = new HashSet<>();
 
-            // process the hashes received
-            final List<ShadowEvent> theirTips = shadowGraph.shadows(theirTipsAndEventWindow.tips());
-
             // For each tip they send us, determine if we have that event.
             // For each tip, send true if we have the event and false if we don't.
             final List<Boolean> theirTipsIHave = getTheirTipsIHave(theirTips);
@@ -235,10 +271,15 @@ public class ShadowgraphSynchronizer {
             // Step 2: each peer tells the other which of the other's tips it already has.
 
             timing.setTimePoint(2);
-            final List<Boolean> theirBooleans = readWriteParallel(
-                    readMyTipsTheyHave(connection, myTips.size()),
-                    writeTheirTipsIHave(connection, theirTipsIHave),
-                    connection);
+            final List<Boolean> theirBooleans = compact
+                    ? readWriteParallel(
+                            readMyTipsTheyHaveBitSet(connection, myTips.size()),
+                            writeTheirTipsIHaveBitSet(connection, theirTipsIHave),
+                            connection)
+                    : readWriteParallel(
+                            readMyTipsTheyHave(connection, myTips.size()),
+                            writeTheirTipsIHave(connection, theirTipsIHave),
+                            connection);
             timing.setTimePoint(3);
 
             // Add each tip they know to the known set
@@ -246,8 +287,7 @@ public class ShadowgraphSynchronizer {
             eventsTheyHave.addAll(knownTips);
 
             // create a send list based on the known set
-            sendList = createSendList(
-                    connection.getSelfId(), eventsTheyHave, myWindow, theirTipsAndEventWindow.eventWindow());
+            sendList = createSendList(connection.getSelfId(), eventsTheyHave, myWindow, theirWindow);
         }
 
         final SyncConfig syncConfig = platformContext.getConfiguration().getConfigData(SyncConfig.class);
@@ -173,6 +173,130 @@ public final class SyncUtils {
         };
     }
 
+    /**
+     * Send the compact descriptors of the tips and the event window to the peer. This is the first data exchanged
+     * during a compact sync (after protocol negotiation). The complementary function to
+     * {@link #readTheirCompactTipsAndEventWindow(Connection, int, AncientMode)}.
+     *
+     * @param connection  the connection to write to
+     * @param eventWindow the event window to write
+     * @param tips        the tips to write
+     * @param ancientMode the current ancient mode
+     * @return a {@link Callable} that writes the tips and event window
+     */
+    public static Callable<Void> writeMyCompactTipsAndEventWindow(
+            @NonNull final Connection connection,
+            @NonNull final EventWindow eventWindow,
+            @NonNull final List<ShadowEvent> tips,
+            @NonNull final AncientMode ancientMode) {
+        return () -> {
+            final List<CompactTipDescriptor> tipDescriptors = new ArrayList<>(tips.size());
+            for (final ShadowEvent tip : tips) {
+                tipDescriptors.add(CompactTipDescriptor.of(tip, ancientMode));
+            }
+
+            serializeEventWindow(connection.getDos(), eventWindow);
+
+            connection.getDos().writeCompactTips(tipDescriptors);
+            connection.getDos().flush();
+            if (logger.isDebugEnabled(SYNC_INFO.getMarker())) {
+                logger.debug(
+                        SYNC_INFO.getMarker(),
+                        "{} sent event window: {}",
+                        connection::getDescription,
+                        eventWindow::toString);
+                logger.debug(
+                        SYNC_INFO.getMarker(),
+                        "{} sent compact tips: {}",
+                        connection::getDescription,
+                        () -> SyncLogging.toShortShadows(tips));
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Read the compact tip descriptors and event window from the peer. This is the first data exchanged during a
+     * compact sync (after protocol negotiation). The complementary function to
+     * {@link #writeMyCompactTipsAndEventWindow(Connection, EventWindow, List, AncientMode)}.
+     *
+     * @param connection    the connection to read from
+     * @param numberOfNodes the number of nodes in the network
+     * @param ancientMode   the current ancient mode
+     * @return a {@link Callable} that reads the tips and event window
+     */
+    public static Callable<TheirCompactTipsAndEventWindow> readTheirCompactTipsAndEventWindow(
+            @NonNull final Connection connection, final int numberOfNodes, @NonNull final AncientMode ancientMode) {
+        return () -> {
+            final EventWindow eventWindow = deserializeEventWindow(connection.getDis(), ancientMode);
+
+            final List<CompactTipDescriptor> tips = connection.getDis().readCompactTips(numberOfNodes);
+
+            if (logger.isDebugEnabled(SYNC_INFO.getMarker())) {
+                logger.debug(
+                        SYNC_INFO.getMarker(),
+                        "{} received event window: {}",
+                        connection::getDescription,
+                        eventWindow::toString);
+                logger.debug(
+                        SYNC_INFO.getMarker(),
+                        "{} received compact tips: {}",
+                        connection::getDescription,
+                        tips::toString);
+            }
+
+            return new TheirCompactTipsAndEventWindow(eventWindow, tips);
+        };
+    }
+
+    /**
+     * Tell the sync peer which of their tips I have, packed into a bit set. The complementary function to
+     * {@link #readMyTipsTheyHaveBitSet(Connection, int)}.
+     *
+     * @param connection     the connection to write to
+     * @param theirTipsIHave for each tip they sent me, true if I have it, false otherwise. Order corresponds to the
+     *                       order in which they sent me their tips.
+     * @return a {@link Callable} that writes the bit set
+     */
+    public static Callable<Void> writeTheirTipsIHaveBitSet(
+            @NonNull final Connection connection, @NonNull final List<Boolean> theirTipsIHave) {
+        return () -> {
+            connection.getDos().writeBitSet(theirTipsIHave);
+            connection.getDos().flush();
+            if (logger.isDebugEnabled(SYNC_INFO.getMarker())) {
+                logger.debug(
+                        SYNC_INFO.getMarker(),
+                        "{} sent booleans: {}",
+                        connection::getDescription,
+                        () -> SyncLogging.toShortBooleans(theirTipsIHave));
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Read from the peer which of my tips they have, packed into a bit set. The complementary function to
+     * {@link #writeTheirTipsIHaveBitSet(Connection, List)}.
+     *
+     * @param connection   the connection to read from
+     * @param numberOfTips the number of tips I sent them
+     * @return a {@link Callable} that reads the bit set
+     */
+    public static Callable<List<Boolean>> readMyTipsTheyHaveBitSet(
+            @NonNull final Connection connection, final int numberOfTips) {
+        return () -> {
+            final List<Boolean> booleans = connection.getDis().readBitSet(numberOfTips);
+            if (logger.isDebugEnabled(SYNC_INFO.getMarker())) {
+                logger.debug(
+                        SYNC_INFO.getMarker(),
+                        "{} received booleans: {}",
+                        connection::getDescription,
+                        () -> SyncLogging.toShortBooleans(booleans));
+            }
+            return booleans;
+        };
+    }
+
     /**
      * Send the events the peer needs. The complementary function to
      * {@link #readEventsINeed(Connection, Consumer, int, SyncMetrics, CountDownLatch, IntakeEventCounter, Duration)}.
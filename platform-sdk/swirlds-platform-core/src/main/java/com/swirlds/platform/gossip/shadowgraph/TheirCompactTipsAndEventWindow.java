@@ -0,0 +1,13 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.platform.gossip.shadowgraph;
+
+import com.swirlds.platform.consensus.EventWindow;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.List;
+
+/**
+ * The tips and event window of the sync peer, as sent by the compact sync protocol. This is the first thing
+ * sent/received during a compact sync (after protocol negotiation).
+ */
+public record TheirCompactTipsAndEventWindow(
+        @NonNull EventWindow eventWindow, @NonNull List<CompactTipDescriptor> tips) {}
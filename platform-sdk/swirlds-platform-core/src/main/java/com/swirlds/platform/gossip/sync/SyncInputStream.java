@@ -7,11 +7,13 @@ import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.io.extendable.extensions.CountingStreamExtension;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
+import com.swirlds.platform.gossip.shadowgraph.CompactTipDescriptor;
 import com.swirlds.platform.network.SocketConfig;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
@@ -62,4 +64,45 @@ public class SyncInputStream extends SerializableDataInputStream {
     public List<Hash> readTipHashes(final int numberOfNodes) throws IOException {
         return readSerializableList(numberOfNodes * MAX_TIPS_PER_NODE, false, Hash::new);
     }
+
+    /**
+     * Read the other node's compact tip descriptors
+     *
+     * @throws IOException is a stream exception occurs
+     */
+    public List<CompactTipDescriptor> readCompactTips(final int numberOfNodes) throws IOException {
+        final int size = readInt();
+        if (size < 0) {
+            throw new IOException("Negative number of tips: " + size);
+        }
+        checkLengthLimit(size, numberOfNodes * MAX_TIPS_PER_NODE);
+        final List<CompactTipDescriptor> tips = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tips.add(new CompactTipDescriptor(readLong(), readLong(), readLong()));
+        }
+        return tips;
+    }
+
+    /**
+     * Read a list of booleans that was packed into one bit per boolean
+     *
+     * @param maxSize the maximum number of booleans expected
+     * @throws IOException is a stream exception occurs
+     */
+    public List<Boolean> readBitSet(final int maxSize) throws IOException {
+        final int size = readInt();
+        if (size < 0) {
+            throw new IOException("Negative bit set size: " + size);
+        }
+        checkLengthLimit(size, maxSize);
+        final List<Boolean> booleans = new ArrayList<>(size);
+        int bits = 0;
+        for (int i = 0; i < size; i++) {
+            if (i % Byte.SIZE == 0) {
+                bits = readUnsignedByte();
+            }
+            booleans.add((bits & (1 << (i % Byte.SIZE))) != 0);
+        }
+        return booleans;
+    }
 }
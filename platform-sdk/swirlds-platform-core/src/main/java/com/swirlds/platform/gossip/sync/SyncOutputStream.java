@@ -7,6 +7,7 @@ import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.io.extendable.extensions.CountingStreamExtension;
 import com.swirlds.common.io.streams.SerializableDataOutputStream;
+import com.swirlds.platform.gossip.shadowgraph.CompactTipDescriptor;
 import com.swirlds.platform.network.SocketConfig;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.BufferedOutputStream;
@@ -71,4 +72,37 @@ public class SyncOutputStream extends SerializableDataOutputStream {
     public void writeTipHashes(final List<Hash> tipHashes) throws IOException {
         writeSerializableList(tipHashes, false, true);
     }
+
+    /**
+     * Write to the {@link SyncOutputStream} the compact descriptors of the tip events from this node's shadow graph
+     *
+     * @throws IOException iff the {@link SyncOutputStream} throws
+     */
+    public void writeCompactTips(@NonNull final List<CompactTipDescriptor> tips) throws IOException {
+        writeInt(tips.size());
+        for (final CompactTipDescriptor tip : tips) {
+            writeLong(tip.creator());
+            writeLong(tip.ancientIndicator());
+            writeLong(tip.hashPrefix());
+        }
+    }
+
+    /**
+     * Write a list of booleans to the {@link SyncOutputStream}, packed into one bit per boolean
+     *
+     * @throws IOException iff the {@link SyncOutputStream} throws
+     */
+    public void writeBitSet(@NonNull final List<Boolean> booleans) throws IOException {
+        writeInt(booleans.size());
+        int bits = 0;
+        for (int i = 0; i < booleans.size(); i++) {
+            if (booleans.get(i)) {
+                bits |= 1 << (i % Byte.SIZE);
+            }
+            if (i % Byte.SIZE == Byte.SIZE - 1 || i == booleans.size() - 1) {
+                write(bits);
+                bits = 0;
+            }
+        }
+    }
 }
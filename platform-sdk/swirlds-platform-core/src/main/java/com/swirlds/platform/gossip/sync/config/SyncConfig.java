@@ -35,6 +35,15 @@ import java.time.Duration;
  * @param minimumHealthyUnrevokedPermitCount the minimum number of permits that must be unrevoked when the system is in
  *                                           a healthy state. If non-zero, this means that this number of permits is
  *                                           immediately returned as soon as the system becomes healthy.
+ * @param compactSyncProtocol                if true, offer peers the compact sync protocol, which describes tips by
+ *                                           creator, ancient indicator and hash prefix instead of full hashes, and
+ *                                           sends tip knowledge as bitsets. It is only offered to peers that run the
+ *                                           same software version, or that have offered it first, since older peers
+ *                                           drop the connection on an unknown protocol. Peers that do not enable it
+ *                                           reject the offer, and the standard sync protocol is used instead.
+ * @param compactSyncRetryPeriod             ignored if {@link #compactSyncProtocol} is false. After a peer rejects the
+ *                                           compact sync protocol, the standard sync protocol is used with that peer
+ *                                           for this amount of time before the compact protocol is offered again
  */
 @ConfigData("sync")
 public record SyncConfig(
@@ -51,4 +60,6 @@ public record SyncConfig(
         @ConfigProperty(defaultValue = "1s") Duration unhealthyGracePeriod,
         @ConfigProperty(defaultValue = "5") double permitsRevokedPerSecond,
         @ConfigProperty(defaultValue = "0.1") double permitsReturnedPerSecond,
-        @ConfigProperty(defaultValue = "1") int minimumHealthyUnrevokedPermitCount) {}
+        @ConfigProperty(defaultValue = "1") int minimumHealthyUnrevokedPermitCount,
+        @ConfigProperty(defaultValue = "false") boolean compactSyncProtocol,
+        @ConfigProperty(defaultValue = "10s") Duration compactSyncRetryPeriod) {}
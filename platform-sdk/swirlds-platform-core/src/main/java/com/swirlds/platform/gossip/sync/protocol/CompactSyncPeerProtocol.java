@@ -0,0 +1,153 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.platform.gossip.sync.protocol;
+
+import static com.swirlds.common.utility.CompareTo.isGreaterThanOrEqualTo;
+
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.platform.gossip.sync.config.SyncConfig;
+import com.swirlds.platform.network.Connection;
+import com.swirlds.platform.network.NetworkProtocolException;
+import com.swirlds.platform.network.protocol.PeerProtocol;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * The variant of {@link SyncPeerProtocol} that exchanges tips as compact descriptors and tip knowledge as bit sets. It
+ * is negotiated as a separate protocol, so the encoding is agreed on before the sync starts. Peers running older
+ * software don't know its protocol ID and would drop the connection, so it is only offered to a peer after the
+ * version handshake shows the peer runs the same software, or after the peer has offered it. A peer that does not
+ * enable the compact encoding rejects it, after which the standard sync protocol is used with that peer for a while,
+ * before the compact encoding is offered again.
+ * <p>
+ * Permits, cooldowns and metrics are shared with the {@link SyncPeerProtocol} this variant belongs to. This object is
+ * instantiated once per peer, and is bidirectional.
+ */
+public class CompactSyncPeerProtocol implements PeerProtocol {
+
+    /**
+     * The standard sync protocol with the same peer
+     */
+    private final SyncPeerProtocol syncPeerProtocol;
+
+    private final PlatformContext platformContext;
+
+    /**
+     * If true, the compact encoding is offered to and accepted from the peer
+     */
+    private final boolean enabled;
+
+    /**
+     * The amount of time to use the standard sync protocol after the peer rejects the compact encoding
+     */
+    private final Duration retryPeriod;
+
+    /**
+     * The last time the peer rejected the compact encoding, or null if it has not rejected it since it last offered it
+     */
+    private Instant rejectedTime;
+
+    /**
+     * True if the peer is known to support the compact sync protocol ID
+     */
+    private volatile boolean peerSupported = false;
+
+    /**
+     * Constructor
+     *
+     * @param platformContext  the platform context
+     * @param syncPeerProtocol the standard sync protocol with the same peer
+     */
+    CompactSyncPeerProtocol(
+            @NonNull final PlatformContext platformContext, @NonNull final SyncPeerProtocol syncPeerProtocol) {
+        this.platformContext = Objects.requireNonNull(platformContext);
+        this.syncPeerProtocol = Objects.requireNonNull(syncPeerProtocol);
+
+        final SyncConfig syncConfig = platformContext.getConfiguration().getConfigData(SyncConfig.class);
+        this.enabled = syncConfig.compactSyncProtocol();
+        this.retryPeriod = syncConfig.compactSyncRetryPeriod();
+    }
+
+    /**
+     * Should the compact encoding be offered to the peer the next time a sync is initiated?
+     *
+     * @return true if it should be offered, false if the standard sync protocol should be used
+     */
+    boolean shouldOfferCompactSync() {
+        if (!enabled || !peerSupported) {
+            return false;
+        }
+        final Instant lastRejected = rejectedTime;
+        return lastRejected == null
+                || isGreaterThanOrEqualTo(
+                        Duration.between(lastRejected, platformContext.getTime().now()), retryPeriod);
+    }
+
+    /**
+     * Called after the software versions are exchanged with the peer on a new connection.
+     *
+     * @param versionsMatch true if the peer runs the same software version, and hence knows the compact sync protocol
+     */
+    public void peerVersionChecked(final boolean versionsMatch) {
+        peerSupported = versionsMatch;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean shouldInitiate() {
+        return shouldOfferCompactSync() && syncPeerProtocol.shouldInitiateSync();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void initiateFailed() {
+        // the peer may not support the compact encoding, fall back to the standard sync protocol for a while
+        rejectedTime = platformContext.getTime().now();
+        syncPeerProtocol.initiateFailed();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean shouldAccept() {
+        if (!enabled) {
+            return false;
+        }
+        // the peer supports the compact encoding, so it can be offered again
+        peerSupported = true;
+        rejectedTime = null;
+        return syncPeerProtocol.shouldAccept();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void acceptFailed() {
+        syncPeerProtocol.acceptFailed();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean acceptOnSimultaneousInitiate() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void runProtocol(@NonNull final Connection connection)
+            throws NetworkProtocolException, IOException, InterruptedException {
+        syncPeerProtocol.runSync(connection, true);
+    }
+}
@@ -82,6 +82,11 @@ public class SyncPeerProtocol implements PeerProtocol {
 
     private final Supplier<PlatformStatus> platformStatusSupplier;
 
+    /**
+     * Runs this protocol with the compact sync encoding, see {@link #getCompactSyncPeerProtocol()}.
+     */
+    private final CompactSyncPeerProtocol compactSyncPeerProtocol;
+
     /**
      * Constructs a new sync protocol
      *
@@ -119,6 +124,19 @@ public class SyncPeerProtocol implements PeerProtocol {
         this.sleepAfterSync = Objects.requireNonNull(sleepAfterSync);
         this.syncMetrics = Objects.requireNonNull(syncMetrics);
         this.platformStatusSupplier = Objects.requireNonNull(platformStatusSupplier);
+        this.compactSyncPeerProtocol = new CompactSyncPeerProtocol(platformContext, this);
+    }
+
+    /**
+     * Get the variant of this protocol that uses the compact sync encoding. It must be registered with the protocol
+     * negotiation as a separate protocol. While the compact variant should be offered to the peer, this protocol does
+     * not initiate syncs, and the compact variant initiates them instead.
+     *
+     * @return the compact variant of this protocol
+     */
+    @NonNull
+    public CompactSyncPeerProtocol getCompactSyncPeerProtocol() {
+        return compactSyncPeerProtocol;
     }
 
     /**
@@ -175,6 +193,19 @@ public class SyncPeerProtocol implements PeerProtocol {
      */
     @Override
     public boolean shouldInitiate() {
+        if (compactSyncPeerProtocol.shouldOfferCompactSync()) {
+            // the sync will be initiated by the compact variant of this protocol
+            return false;
+        }
+        return shouldInitiateSync();
+    }
+
+    /**
+     * Decide whether to initiate a sync, and acquire a permit if so.
+     *
+     * @return true if a sync should be initiated, false otherwise
+     */
+    boolean shouldInitiateSync() {
         syncMetrics.opportunityToInitiateSync();
         final boolean shouldSync = shouldSync();
 
@@ -237,9 +268,24 @@ public class SyncPeerProtocol implements PeerProtocol {
     @Override
     public void runProtocol(@NonNull final Connection connection)
             throws NetworkProtocolException, IOException, InterruptedException {
+        runSync(connection, false);
+    }
+
+    /**
+     * Run a sync with the peer.
+     *
+     * @param connection the connection to the peer
+     * @param compact    if true, use the compact sync encoding
+     */
+    void runSync(@NonNull final Connection connection, final boolean compact)
+            throws NetworkProtocolException, IOException, InterruptedException {
 
         try {
-            synchronizer.synchronize(platformContext, connection);
+            if (compact) {
+                synchronizer.synchronize(platformContext, connection, true);
+            } else {
+                synchronizer.synchronize(platformContext, connection);
+            }
         } catch (final ParallelExecutionException | SyncException e) {
             if (Utilities.isRootCauseSuppliedType(e, IOException.class)) {
                 throw new IOException(e);
@@ -79,6 +79,10 @@ public class EventImpl implements Clearable {
      * current election
      */
     private boolean[] votes;
+    /**
+     * the slot of this event in {@link com.swirlds.platform.consensus.ArrayConsensusMetadata}, or -1 if it has none
+     */
+    private int consensusMetadataSlot = -1;
 
     public EventImpl(
             @NonNull final PlatformEvent platformEvent,
@@ -337,6 +341,22 @@ public class EventImpl implements Clearable {
         this.firstWitnessS = firstWitnessS;
     }
 
+    /**
+     * @return the slot of this event in {@link com.swirlds.platform.consensus.ArrayConsensusMetadata}, or -1 if it
+     *     has none
+     */
+    public int getConsensusMetadataSlot() {
+        return consensusMetadataSlot;
+    }
+
+    /**
+     * @param consensusMetadataSlot the slot of this event in
+     *     {@link com.swirlds.platform.consensus.ArrayConsensusMetadata}, or -1 if it has none
+     */
+    public void setConsensusMetadataSlot(final int consensusMetadataSlot) {
+        this.consensusMetadataSlot = consensusMetadataSlot;
+    }
+
     /**
      * @return temporarily used during any graph algorithm that needs to mark vertices (events)
      *     already visited
@@ -4,6 +4,7 @@ package com.swirlds.platform.network.communication.handshake;
 import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
 
 import com.swirlds.common.io.SelfSerializable;
+import com.swirlds.common.platform.NodeId;
 import com.swirlds.platform.network.Connection;
 import com.swirlds.platform.network.NetworkProtocolException;
 import com.swirlds.platform.network.protocol.ProtocolRunnable;
@@ -11,6 +12,7 @@ import com.swirlds.platform.system.SoftwareVersion;
 import java.io.IOException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -22,6 +24,7 @@ public class VersionCompareHandshake implements ProtocolRunnable {
     private static final Logger logger = LogManager.getLogger(VersionCompareHandshake.class);
     private final SoftwareVersion version;
     private final boolean throwOnMismatch;
+    private final BiConsumer<NodeId, Boolean> versionCheckListener;
 
     /**
      * Calls {@link #VersionCompareHandshake(SoftwareVersion, boolean)} with throwOnMismatch set to true
@@ -39,9 +42,29 @@ public class VersionCompareHandshake implements ProtocolRunnable {
      * @throws NullPointerException in case {@code version} parameter is {@code null}
      */
     public VersionCompareHandshake(final SoftwareVersion version, final boolean throwOnMismatch) {
+        this(version, throwOnMismatch, (peerId, versionsMatch) -> {});
+    }
+
+    /**
+     * @param version
+     * 		the version of software this node is running
+     * @param throwOnMismatch
+     * 		if set to true, the protocol will throw an exception on a version mismatch. if set to false, it will log an
+     * 		error and continue
+     * @param versionCheckListener
+     * 		called with the peer ID and whether the versions match after every version exchange, before an exception
+     * 		is thrown on a mismatch
+     * @throws NullPointerException in case {@code version} or {@code versionCheckListener} parameter is {@code null}
+     */
+    public VersionCompareHandshake(
+            final SoftwareVersion version,
+            final boolean throwOnMismatch,
+            final BiConsumer<NodeId, Boolean> versionCheckListener) {
         Objects.requireNonNull(version, "version must not be null");
+        Objects.requireNonNull(versionCheckListener, "versionCheckListener must not be null");
         this.version = version;
         this.throwOnMismatch = throwOnMismatch;
+        this.versionCheckListener = versionCheckListener;
     }
 
     @Override
@@ -50,7 +73,9 @@ public class VersionCompareHandshake implements ProtocolRunnable {
         connection.getDos().writeSerializable(version, true);
         connection.getDos().flush();
         final SelfSerializable peerVersion = connection.getDis().readSerializable(Set.of(version.getClassId()));
-        if (!(peerVersion instanceof SoftwareVersion sv) || version.compareTo(sv) != 0) {
+        final boolean versionsMatch = peerVersion instanceof SoftwareVersion sv && version.compareTo(sv) == 0;
+        versionCheckListener.accept(connection.getOtherId(), versionsMatch);
+        if (!versionsMatch) {
             final String message = String.format(
                     "Incompatible versions. Self version is '%s', peer version is '%s'", version, peerVersion);
             if (throwOnMismatch) {
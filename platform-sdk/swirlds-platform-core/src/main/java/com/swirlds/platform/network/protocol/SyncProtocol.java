@@ -12,7 +12,9 @@ import com.swirlds.platform.metrics.SyncMetrics;
 import com.swirlds.platform.system.status.PlatformStatus;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.time.Duration;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 import org.hiero.consensus.gossip.FallenBehindManager;
@@ -32,6 +34,12 @@ public class SyncProtocol implements Protocol {
     private final SyncMetrics syncMetrics;
     private final Supplier<PlatformStatus> platformStatusSupplier;
 
+    /**
+     * The peer instances created so far, so that the standard and compact sync protocols with a peer share one
+     * instance.
+     */
+    private final Map<NodeId, SyncPeerProtocol> peerInstances = new ConcurrentHashMap<>();
+
     /**
      * Constructs a new sync protocol
      *
@@ -107,13 +115,44 @@ public class SyncProtocol implements Protocol {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Only one instance is created per peer, later calls for the same peer return the same instance.
      */
     @NonNull
     @Override
     public SyncPeerProtocol createPeerInstance(@NonNull final NodeId peerId) {
+        return peerInstances.computeIfAbsent(Objects.requireNonNull(peerId), this::newPeerInstance);
+    }
+
+    /**
+     * Get a factory for the compact variant of the sync protocol. For each peer, the compact variant shares its state
+     * with the instance returned by {@link #createPeerInstance(NodeId)}. It must be registered with the protocol
+     * negotiation after the standard sync protocol, so that the IDs of the existing protocols do not change.
+     *
+     * @return the factory for the compact sync protocol
+     */
+    @NonNull
+    public Protocol compactSyncProtocol() {
+        return peerId -> createPeerInstance(peerId).getCompactSyncPeerProtocol();
+    }
+
+    /**
+     * Called after the software versions are exchanged with a peer on a new connection. Peers that don't run the same
+     * software may not know the compact sync protocol ID, and rejecting an unknown ID drops the connection, so the
+     * compact sync protocol is only offered to peers that run the same software or have offered it themselves.
+     *
+     * @param peerId        the peer
+     * @param versionsMatch true if the peer runs the same software version
+     */
+    public void peerVersionChecked(@NonNull final NodeId peerId, final boolean versionsMatch) {
+        createPeerInstance(peerId).getCompactSyncPeerProtocol().peerVersionChecked(versionsMatch);
+    }
+
+    @NonNull
+    private SyncPeerProtocol newPeerInstance(@NonNull final NodeId peerId) {
         return new SyncPeerProtocol(
                 platformContext,
-                Objects.requireNonNull(peerId),
+                peerId,
                 synchronizer,
                 fallenBehindManager,
                 permitProvider,
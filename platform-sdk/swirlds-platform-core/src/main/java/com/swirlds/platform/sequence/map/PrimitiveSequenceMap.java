@@ -0,0 +1,733 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.platform.sequence.map;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>
+ * A lock free implementation of {@link SequenceMap} backed by primitive arrays. It behaves exactly like
+ * {@link StandardSequenceMap}, but allocates no objects per entry and per sequence number.
+ * </p>
+ *
+ * <p>
+ * Entries are stored in parallel arrays, and are found through an open addressing hash table with linear probing that
+ * holds entry indices. Entries with the same sequence number are linked into a list through their indices, and the
+ * head of each list is kept in a ring buffer indexed by sequence number. Shifting the window unlinks whole lists and
+ * returns their entries to a free list, so the cost of a shift is proportional to the number of entries removed and
+ * sequence numbers passed, and no memory is allocated once the arrays are large enough for the window.
+ * </p>
+ *
+ * @param <K> the type of the key
+ * @param <V> the type of the value
+ */
+public class PrimitiveSequenceMap<K, V> implements SequenceMap<K, V> {
+
+    /**
+     * The maximum supported size of an array is JVM dependant, but it's usually a little smaller than the maximum
+     * integer size. Various sources suggest this is a generally safe value to use.
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * The number of entries space is allocated for when no initial entry capacity is specified.
+     */
+    private static final int DEFAULT_ENTRY_CAPACITY = 64;
+
+    /**
+     * Marks the end of a list of entries, and empty sequence numbers in the ring.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * A method that gets the sequence number associated with a given key.
+     */
+    private final ToLongFunction<K> getSequenceNumberFromKey;
+
+    /**
+     * When this object is cleared, the lowest allowed sequence number is reset to this value.
+     */
+    private final long initialFirstSequenceNumber;
+
+    /**
+     * If true, expand when we get a high sequence number that does not fit. If false, reject the element.
+     */
+    private final boolean allowExpansion;
+
+    /**
+     * The lowest allowed sequence number.
+     */
+    private long firstSequenceNumberInWindow;
+
+    /**
+     * The current capacity for sequence numbers, the length of the ring.
+     */
+    private int sequenceNumberCapacity;
+
+    /**
+     * For each position in the ring, the sequence number it currently holds.
+     */
+    private long[] ringSequenceNumbers;
+
+    /**
+     * For each position in the ring, the first entry with its sequence number, or {@link #NONE}.
+     */
+    private int[] ringHeads;
+
+    /**
+     * The key of each entry, null if the entry is free.
+     */
+    private Object[] keys;
+
+    /**
+     * The value of each entry.
+     */
+    private Object[] values;
+
+    /**
+     * The hash of the key of each entry.
+     */
+    private int[] hashes;
+
+    /**
+     * The next entry with the same sequence number, or the next free entry if the entry is free.
+     */
+    private int[] next;
+
+    /**
+     * The previous entry with the same sequence number.
+     */
+    private int[] previous;
+
+    /**
+     * Open addressing hash table, each element is an entry index plus one, zero marks an empty bucket. Its length is a
+     * power of two, at least twice the number of entries.
+     */
+    private int[] table;
+
+    /**
+     * The first free entry, or {@link #NONE} if all entries below {@link #usedEntries} are in use.
+     */
+    private int firstFreeEntry = NONE;
+
+    /**
+     * The number of entries that have ever been used, all entries from this one up are free.
+     */
+    private int usedEntries;
+
+    /**
+     * The number of entries in the map.
+     */
+    private int size;
+
+    /**
+     * Construct a {@link SequenceMap} that does not permit expansion.
+     *
+     * @param firstSequenceNumberInWindow the lowest allowed sequence number
+     * @param sequenceNumberCapacity      the number of sequence numbers permitted to exist in this data structure. E.g.
+     *                                    if the lowest allowed sequence number is 100 and the capacity is 10, then
+     *                                    values with a sequence number between 100 and 109 (inclusive) will be allowed,
+     *                                    and any value with a sequence number outside that range will be rejected.
+     * @param getSequenceNumberFromKey    a method that extracts the sequence number from a key
+     */
+    public PrimitiveSequenceMap(
+            final long firstSequenceNumberInWindow,
+            final int sequenceNumberCapacity,
+            @NonNull final ToLongFunction<K> getSequenceNumberFromKey) {
+
+        this(firstSequenceNumberInWindow, sequenceNumberCapacity, false, getSequenceNumberFromKey);
+    }
+
+    /**
+     * Construct a {@link SequenceMap}.
+     *
+     * @param firstSequenceNumberInWindow the lowest allowed sequence number
+     * @param sequenceNumberCapacity      the number of sequence numbers permitted to exist in this data structure. E.g.
+     *                                    if the lowest allowed sequence number is 100 and the capacity is 10, then
+     *                                    values with a sequence number between 100 and 109 (inclusive) will be allowed,
+     *                                    and any value with a sequence number outside that range will be rejected.
+     * @param allowExpansion              if true, then instead of rejecting elements with a sequence number higher than
+     *                                    the allowed by the current capacity, increase capacity and then insert the
+     *                                    element. Does not expand if the sequence number is too low to fit in the
+     *                                    current capacity.
+     * @param getSequenceNumberFromKey    a method that extracts the sequence number from a key
+     */
+    public PrimitiveSequenceMap(
+            final long firstSequenceNumberInWindow,
+            final int sequenceNumberCapacity,
+            final boolean allowExpansion,
+            @NonNull final ToLongFunction<K> getSequenceNumberFromKey) {
+
+        this(
+                firstSequenceNumberInWindow,
+                sequenceNumberCapacity,
+                allowExpansion,
+                DEFAULT_ENTRY_CAPACITY,
+                getSequenceNumberFromKey);
+    }
+
+    /**
+     * Construct a {@link SequenceMap} with space for a given number of entries. The map grows if more entries are
+     * added, pre-sizing it avoids growing while the window fills up.
+     *
+     * @param firstSequenceNumberInWindow the lowest allowed sequence number
+     * @param sequenceNumberCapacity      the number of sequence numbers permitted to exist in this data structure. E.g.
+     *                                    if the lowest allowed sequence number is 100 and the capacity is 10, then
+     *                                    values with a sequence number between 100 and 109 (inclusive) will be allowed,
+     *                                    and any value with a sequence number outside that range will be rejected.
+     * @param allowExpansion              if true, then instead of rejecting elements with a sequence number higher than
+     *                                    the allowed by the current capacity, increase capacity and then insert the
+     *                                    element. Does not expand if the sequence number is too low to fit in the
+     *                                    current capacity.
+     * @param initialEntryCapacity        the number of entries to allocate space for
+     * @param getSequenceNumberFromKey    a method that extracts the sequence number from a key
+     */
+    public PrimitiveSequenceMap(
+            final long firstSequenceNumberInWindow,
+            final int sequenceNumberCapacity,
+            final boolean allowExpansion,
+            final int initialEntryCapacity,
+            @NonNull final ToLongFunction<K> getSequenceNumberFromKey) {
+
+        if (sequenceNumberCapacity < 1) {
+            throw new IllegalArgumentException("sequence number capacity must be positive");
+        }
+        this.initialFirstSequenceNumber = firstSequenceNumberInWindow;
+        this.firstSequenceNumberInWindow = firstSequenceNumberInWindow;
+        this.sequenceNumberCapacity = sequenceNumberCapacity;
+        this.allowExpansion = allowExpansion;
+        this.getSequenceNumberFromKey = Objects.requireNonNull(getSequenceNumberFromKey);
+
+        ringSequenceNumbers = new long[sequenceNumberCapacity];
+        ringHeads = new int[sequenceNumberCapacity];
+        resetRing(firstSequenceNumberInWindow);
+
+        final int entryCapacity = Integer.highestOneBit(Math.max(initialEntryCapacity, 2) * 2 - 1);
+        keys = new Object[entryCapacity];
+        values = new Object[entryCapacity];
+        hashes = new int[entryCapacity];
+        next = new int[entryCapacity];
+        previous = new int[entryCapacity];
+        table = new int[entryCapacity * 2];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V get(final K key) {
+        final int bucket = findBucket(key, hash(key));
+        return bucket == NONE ? null : value(table[bucket] - 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(final K key) {
+        return findBucket(key, hash(key)) != NONE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V computeIfAbsent(final K key, final Function<? super K, ? extends V> mappingFunction) {
+        V value = get(key);
+
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            final boolean added = putIfAbsent(key, value);
+            if (!added) {
+                value = null;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean putIfAbsent(final K key, final V value) {
+        final int ringIndex = getRingIndexForInsertion(getSequenceNumberFromKey.applyAsLong(key));
+        if (ringIndex == NONE) {
+            return false;
+        }
+        final int hash = hash(key);
+        if (findBucket(key, hash) != NONE) {
+            // don't re-insert if the value is already present
+            return false;
+        }
+        insert(key, value, hash, ringIndex);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V put(final K key, final V value) {
+        final int ringIndex = getRingIndexForInsertion(getSequenceNumberFromKey.applyAsLong(key));
+        if (ringIndex == NONE) {
+            return null;
+        }
+        final int hash = hash(key);
+        final int bucket = findBucket(key, hash);
+        if (bucket != NONE) {
+            final int entry = table[bucket] - 1;
+            final V previousValue = value(entry);
+            values[entry] = value;
+            return previousValue;
+        }
+        insert(key, value, hash, ringIndex);
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V remove(final K key) {
+        final long sequenceNumber = getSequenceNumberFromKey.applyAsLong(key);
+        final int ringIndex = getRingIndex(sequenceNumber);
+        if (ringSequenceNumbers[ringIndex] != sequenceNumber) {
+            // the key is outside the allowed window
+            return null;
+        }
+        final int bucket = findBucket(key, hash(key));
+        if (bucket == NONE) {
+            return null;
+        }
+        final int entry = table[bucket] - 1;
+        final V value = value(entry);
+        removeBucket(bucket);
+        unlink(entry, ringIndex);
+        freeEntry(entry);
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shiftWindow(final long firstSequenceNumberInWindow, final BiConsumer<K, V> removedValueHandler) {
+        final long previousFirstSequenceNumber = this.firstSequenceNumberInWindow;
+        if (firstSequenceNumberInWindow < previousFirstSequenceNumber) {
+            throw new IllegalStateException(
+                    "Window can only be shifted towards larger value. Current lowest sequence number = "
+                            + previousFirstSequenceNumber + ", requested lowest sequence number = "
+                            + firstSequenceNumberInWindow);
+        }
+        this.firstSequenceNumberInWindow = firstSequenceNumberInWindow;
+
+        for (int offset = 0; offset < sequenceNumberCapacity; offset++) {
+            // Stop purging once we encounter a high enough sequence number
+            final long sequenceNumberToReplace = previousFirstSequenceNumber + offset;
+            if (sequenceNumberToReplace >= firstSequenceNumberInWindow) {
+                return;
+            }
+
+            final int ringIndex = getRingIndex(sequenceNumberToReplace);
+            removeAll(ringIndex, removedValueHandler);
+            ringSequenceNumbers[ringIndex] =
+                    mapToNewSequenceNumber(firstSequenceNumberInWindow, sequenceNumberToReplace);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeValuesWithSequenceNumber(final long sequenceNumber, final BiConsumer<K, V> removedValueHandler) {
+        final int ringIndex = getRingIndex(sequenceNumber);
+        if (ringSequenceNumbers[ringIndex] == sequenceNumber) {
+            removeAll(ringIndex, removedValueHandler);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<K> getKeysWithSequenceNumber(final long sequenceNumber) {
+        final int ringIndex = getRingIndex(sequenceNumber);
+        if (ringSequenceNumbers[ringIndex] != sequenceNumber) {
+            return new ArrayList<>();
+        }
+        final List<K> list = new ArrayList<>();
+        for (int entry = ringHeads[ringIndex]; entry != NONE; entry = next[entry]) {
+            list.add(key(entry));
+        }
+        return list;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Map.Entry<K, V>> getEntriesWithSequenceNumber(final long sequenceNumber) {
+        final int ringIndex = getRingIndex(sequenceNumber);
+        if (ringSequenceNumbers[ringIndex] != sequenceNumber) {
+            return new ArrayList<>();
+        }
+        final List<Map.Entry<K, V>> list = new ArrayList<>();
+        for (int entry = ringHeads[ringIndex]; entry != NONE; entry = next[entry]) {
+            list.add(new AbstractMap.SimpleEntry<>(key(entry), value(entry)));
+        }
+        return list;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getFirstSequenceNumberInWindow() {
+        return firstSequenceNumberInWindow;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSequenceNumberCapacity() {
+        return sequenceNumberCapacity;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, usedEntries, null);
+        Arrays.fill(values, 0, usedEntries, null);
+        Arrays.fill(table, 0);
+        usedEntries = 0;
+        firstFreeEntry = NONE;
+        size = 0;
+        firstSequenceNumberInWindow = initialFirstSequenceNumber;
+        resetRing(initialFirstSequenceNumber);
+    }
+
+    /**
+     * Spread the hash code of a key, so that keys with similar hash codes don't cluster in the table.
+     *
+     * @param key the key
+     * @return the spread hash
+     */
+    private static int hash(@NonNull final Object key) {
+        final int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(final int entry) {
+        return (K) keys[entry];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(final int entry) {
+        return (V) values[entry];
+    }
+
+    /**
+     * Get the ring index for a given sequence number and current capacity.
+     *
+     * @param sequenceNumber the sequence number in question
+     * @return the index of the sequence number
+     */
+    private int getRingIndex(final long sequenceNumber) {
+        return (int) Math.floorMod(sequenceNumber, (long) sequenceNumberCapacity);
+    }
+
+    /**
+     * Get the ring index a key with the given sequence number is inserted at, expanding the capacity if needed and
+     * permitted.
+     *
+     * @param sequenceNumber the sequence number of the key
+     * @return the ring index, or {@link #NONE} if the sequence number is outside the allowed window
+     */
+    private int getRingIndexForInsertion(final long sequenceNumber) {
+        final int ringIndex = getRingIndex(sequenceNumber);
+        if (ringSequenceNumbers[ringIndex] == sequenceNumber) {
+            return ringIndex;
+        }
+        // the key is outside the allowed window
+        if (allowExpansion && sequenceNumber > firstSequenceNumberInWindow) {
+            expandCapacity(sequenceNumber);
+            return getRingIndex(sequenceNumber);
+        }
+        return NONE;
+    }
+
+    /**
+     * Set all positions of the ring to hold the sequence numbers of the window starting at a given sequence number,
+     * with no entries.
+     *
+     * @param firstSequenceNumber the first sequence number in the window
+     */
+    private void resetRing(final long firstSequenceNumber) {
+        for (int offset = 0; offset < sequenceNumberCapacity; offset++) {
+            final long sequenceNumber = firstSequenceNumber + offset;
+            ringSequenceNumbers[getRingIndex(sequenceNumber)] = sequenceNumber;
+        }
+        Arrays.fill(ringHeads, NONE);
+    }
+
+    /**
+     * Find the bucket of the hash table that holds a key.
+     *
+     * @param key  the key
+     * @param hash the spread hash of the key
+     * @return the bucket, or {@link #NONE} if the key is not in the map
+     */
+    private int findBucket(@NonNull final Object key, final int hash) {
+        final int mask = table.length - 1;
+        for (int bucket = hash & mask; ; bucket = (bucket + 1) & mask) {
+            final int entry = table[bucket] - 1;
+            if (entry == NONE) {
+                return NONE;
+            }
+            if (hashes[entry] == hash && key.equals(keys[entry])) {
+                return bucket;
+            }
+        }
+    }
+
+    /**
+     * Find the bucket of the hash table that holds an entry.
+     *
+     * @param entry an entry in use
+     * @return the bucket
+     */
+    private int findBucketOfEntry(final int entry) {
+        final int mask = table.length - 1;
+        int bucket = hashes[entry] & mask;
+        while (table[bucket] != entry + 1) {
+            bucket = (bucket + 1) & mask;
+        }
+        return bucket;
+    }
+
+    /**
+     * Put an entry in the first empty bucket for its hash.
+     *
+     * @param entry the entry
+     */
+    private void addToTable(final int entry) {
+        final int mask = table.length - 1;
+        int bucket = hashes[entry] & mask;
+        while (table[bucket] != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        table[bucket] = entry + 1;
+    }
+
+    /**
+     * Empty a bucket of the hash table, moving back the entries that follow it so that no entry is separated from its
+     * ideal bucket by an empty bucket.
+     *
+     * @param bucket the bucket to empty
+     */
+    private void removeBucket(final int bucket) {
+        final int mask = table.length - 1;
+        int gap = bucket;
+        for (int current = (bucket + 1) & mask; table[current] != 0; current = (current + 1) & mask) {
+            final int ideal = hashes[table[current] - 1] & mask;
+            // the entry can move to the gap unless its ideal bucket is after the gap
+            if (((current - ideal) & mask) >= ((current - gap) & mask)) {
+                table[gap] = table[current];
+                gap = current;
+            }
+        }
+        table[gap] = 0;
+    }
+
+    /**
+     * Insert a new entry.
+     *
+     * @param key       the key, not in the map
+     * @param value     the value
+     * @param hash      the spread hash of the key
+     * @param ringIndex the ring index of the key's sequence number
+     */
+    private void insert(@NonNull final K key, final V value, final int hash, final int ringIndex) {
+        final int entry = allocateEntry();
+        keys[entry] = key;
+        values[entry] = value;
+        hashes[entry] = hash;
+        addToTable(entry);
+
+        final int head = ringHeads[ringIndex];
+        next[entry] = head;
+        previous[entry] = NONE;
+        if (head != NONE) {
+            previous[head] = entry;
+        }
+        ringHeads[ringIndex] = entry;
+        size++;
+    }
+
+    /**
+     * Remove an entry from the list of its sequence number.
+     *
+     * @param entry     the entry
+     * @param ringIndex the ring index of the entry's sequence number
+     */
+    private void unlink(final int entry, final int ringIndex) {
+        final int nextEntry = next[entry];
+        final int previousEntry = previous[entry];
+        if (previousEntry == NONE) {
+            ringHeads[ringIndex] = nextEntry;
+        } else {
+            next[previousEntry] = nextEntry;
+        }
+        if (nextEntry != NONE) {
+            previous[nextEntry] = previousEntry;
+        }
+    }
+
+    /**
+     * Remove all entries with the sequence number at a ring index.
+     *
+     * @param ringIndex           the ring index
+     * @param removedValueHandler a callback that is passed all key/value pairs that are removed, ignored if null
+     */
+    private void removeAll(final int ringIndex, final BiConsumer<K, V> removedValueHandler) {
+        int entry = ringHeads[ringIndex];
+        ringHeads[ringIndex] = NONE;
+        while (entry != NONE) {
+            final int nextEntry = next[entry];
+            final K key = key(entry);
+            final V value = value(entry);
+            removeBucket(findBucketOfEntry(entry));
+            freeEntry(entry);
+            if (removedValueHandler != null) {
+                removedValueHandler.accept(key, value);
+            }
+            entry = nextEntry;
+        }
+    }
+
+    /**
+     * @return an entry that is not in use, growing the entry arrays if all entries are in use
+     */
+    private int allocateEntry() {
+        if (firstFreeEntry != NONE) {
+            final int entry = firstFreeEntry;
+            firstFreeEntry = next[entry];
+            return entry;
+        }
+        if (usedEntries == keys.length) {
+            growEntries();
+        }
+        return usedEntries++;
+    }
+
+    /**
+     * Return an entry to the free list.
+     *
+     * @param entry the entry
+     */
+    private void freeEntry(final int entry) {
+        keys[entry] = null;
+        values[entry] = null;
+        next[entry] = firstFreeEntry;
+        firstFreeEntry = entry;
+        size--;
+    }
+
+    /**
+     * Double the number of entries, and rebuild the hash table for the new size. Only called when all entries are in
+     * use.
+     */
+    private void growEntries() {
+        final int entryCapacity = keys.length * 2;
+        if (entryCapacity < 0 || entryCapacity > MAX_ARRAY_SIZE / 2) {
+            throw new IllegalStateException("Cannot hold more than " + keys.length + " entries");
+        }
+        keys = Arrays.copyOf(keys, entryCapacity);
+        values = Arrays.copyOf(values, entryCapacity);
+        hashes = Arrays.copyOf(hashes, entryCapacity);
+        next = Arrays.copyOf(next, entryCapacity);
+        previous = Arrays.copyOf(previous, entryCapacity);
+        table = new int[entryCapacity * 2];
+        for (int entry = 0; entry < usedEntries; entry++) {
+            addToTable(entry);
+        }
+    }
+
+    /**
+     * When the window is shifted, it causes some positions in the ring to increase their sequence number. This method
+     * computes the new sequence number that the position is required to have.
+     */
+    private long mapToNewSequenceNumber(final long firstSequenceNumberInWindow, final long sequenceNumberToReplace) {
+        // the distance between the new first sequence number in the window
+        // and the sequence number that is being replaced
+        final long difference = firstSequenceNumberInWindow - sequenceNumberToReplace;
+
+        // The number of times we have wrapped around the ring by increasing to the new first sequence number
+        final long wrapFactor =
+                difference / sequenceNumberCapacity + (difference % sequenceNumberCapacity == 0 ? 0 : 1);
+
+        // Every time we go one time around the ring, the sequence number at a particular
+        // index increases by an amount equal to the capacity.
+        return sequenceNumberToReplace + wrapFactor * sequenceNumberCapacity;
+    }
+
+    /**
+     * Expand the capacity so that we fit the required sequence number.
+     *
+     * @param requiredSequenceNumber the sequence number that we need to fit into this structure
+     */
+    private void expandCapacity(final long requiredSequenceNumber) {
+        final int oldCapacity = sequenceNumberCapacity;
+        final long minimumCapacity = requiredSequenceNumber - firstSequenceNumberInWindow;
+        if (minimumCapacity < 0) {
+            // this can only happen if we get integer overflow
+            throw new IllegalStateException("Cannot expand capacity beyond " + MAX_ARRAY_SIZE);
+        } else if (minimumCapacity < MAX_ARRAY_SIZE / 2 - 1) {
+            sequenceNumberCapacity = (int) (minimumCapacity * 2);
+        } else if (minimumCapacity <= MAX_ARRAY_SIZE) {
+            sequenceNumberCapacity = MAX_ARRAY_SIZE;
+        } else {
+            throw new IllegalStateException("Cannot expand capacity beyond " + MAX_ARRAY_SIZE);
+        }
+
+        final long[] oldRingSequenceNumbers = ringSequenceNumbers;
+        final int[] oldRingHeads = ringHeads;
+        ringSequenceNumbers = new long[sequenceNumberCapacity];
+        ringHeads = new int[sequenceNumberCapacity];
+
+        // Move the old positions to their place in the new ring
+        for (int oldIndex = 0; oldIndex < oldCapacity; oldIndex++) {
+            final int newIndex = getRingIndex(oldRingSequenceNumbers[oldIndex]);
+            ringSequenceNumbers[newIndex] = oldRingSequenceNumbers[oldIndex];
+            ringHeads[newIndex] = oldRingHeads[oldIndex];
+        }
+
+        // Initialize the positions for the added capacity
+        for (int offset = 0; offset < (sequenceNumberCapacity - oldCapacity); offset++) {
+            final long newSequenceNumber = firstSequenceNumberInWindow + oldCapacity + offset;
+            final int index = getRingIndex(newSequenceNumber);
+            ringSequenceNumbers[index] = newSequenceNumber;
+            ringHeads[index] = NONE;
+        }
+    }
+}
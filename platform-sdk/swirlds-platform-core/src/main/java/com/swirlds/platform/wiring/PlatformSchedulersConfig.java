@@ -43,6 +43,13 @@ import java.time.Duration;
  * @param eventHasher                          configuration for the event hasher scheduler
  * @param branchDetector                       configuration for the branch detector scheduler
  * @param branchReporter                       configuration for the branch reporter scheduler
+ * @param eventSignatureVerificationParallelism the maximum number of batches of events the event signature validator
+ *                                             verifies in parallel on the platform's default pool, or 0 to use the
+ *                                             number of available processors. The event signature validator scheduler
+ *                                             must be sequential, it releases events in the order they were
+ *                                             received.
+ * @param eventSignatureVerificationBatchSize  the maximum number of events verified by a single task of the event
+ *                                             signature validator, batches are only formed while events are queued
  */
 @ConfigData("platformSchedulers")
 public record PlatformSchedulersConfig(
@@ -50,7 +57,7 @@ public record PlatformSchedulersConfig(
                 TaskSchedulerConfiguration internalEventValidator,
         @ConfigProperty(defaultValue = "SEQUENTIAL CAPACITY(5000) FLUSHABLE UNHANDLED_TASK_METRIC")
                 TaskSchedulerConfiguration eventDeduplicator,
-        @ConfigProperty(defaultValue = "CONCURRENT CAPACITY(500) FLUSHABLE UNHANDLED_TASK_METRIC")
+        @ConfigProperty(defaultValue = "SEQUENTIAL_THREAD CAPACITY(500) FLUSHABLE UNHANDLED_TASK_METRIC")
                 TaskSchedulerConfiguration eventSignatureValidator,
         @ConfigProperty(defaultValue = "SEQUENTIAL CAPACITY(500) FLUSHABLE UNHANDLED_TASK_METRIC")
                 TaskSchedulerConfiguration orphanBuffer,
@@ -112,4 +119,6 @@ public record PlatformSchedulersConfig(
         @ConfigProperty(defaultValue = "SEQUENTIAL CAPACITY(500) FLUSHABLE UNHANDLED_TASK_METRIC")
                 TaskSchedulerConfiguration branchDetector,
         @ConfigProperty(defaultValue = "SEQUENTIAL CAPACITY(500) FLUSHABLE UNHANDLED_TASK_METRIC")
-                TaskSchedulerConfiguration branchReporter) {}
+                TaskSchedulerConfiguration branchReporter,
+        @ConfigProperty(defaultValue = "0") int eventSignatureVerificationParallelism,
+        @ConfigProperty(defaultValue = "16") int eventSignatureVerificationBatchSize) {}
@@ -47,8 +47,8 @@ import com.swirlds.platform.event.signing.SelfEventSigner;
 import com.swirlds.platform.event.stale.StaleEventDetector;
 import com.swirlds.platform.event.stale.StaleEventDetectorOutput;
 import com.swirlds.platform.event.stream.ConsensusEventStream;
-import com.swirlds.platform.event.validation.EventSignatureValidator;
 import com.swirlds.platform.event.validation.InternalEventValidator;
+import com.swirlds.platform.event.validation.OrderedEventSignatureValidator;
 import com.swirlds.platform.event.validation.RosterUpdate;
 import com.swirlds.platform.eventhandling.EventConfig;
 import com.swirlds.platform.eventhandling.TransactionHandler;
@@ -105,7 +105,7 @@ public class PlatformWiring {
     private final ComponentWiring<EventHasher, PlatformEvent> eventHasherWiring;
     private final ComponentWiring<InternalEventValidator, PlatformEvent> internalEventValidatorWiring;
     private final ComponentWiring<EventDeduplicator, PlatformEvent> eventDeduplicatorWiring;
-    private final ComponentWiring<EventSignatureValidator, PlatformEvent> eventSignatureValidatorWiring;
+    private final ComponentWiring<OrderedEventSignatureValidator, List<PlatformEvent>> eventSignatureValidatorWiring;
     private final ComponentWiring<OrphanBuffer, List<PlatformEvent>> orphanBufferWiring;
     private final ComponentWiring<ConsensusEngine, List<ConsensusRound>> consensusEngineWiring;
     private final ComponentWiring<EventCreationManager, UnsignedEvent> eventCreationManagerWiring;
@@ -184,7 +184,7 @@ public class PlatformWiring {
                 new ComponentWiring<>(model, InternalEventValidator.class, config.internalEventValidator());
         eventDeduplicatorWiring = new ComponentWiring<>(model, EventDeduplicator.class, config.eventDeduplicator());
         eventSignatureValidatorWiring =
-                new ComponentWiring<>(model, EventSignatureValidator.class, config.eventSignatureValidator());
+                new ComponentWiring<>(model, OrderedEventSignatureValidator.class, config.eventSignatureValidator());
         orphanBufferWiring = new ComponentWiring<>(model, OrphanBuffer.class, config.orphanBuffer());
         consensusEngineWiring = new ComponentWiring<>(model, ConsensusEngine.class, config.consensusEngine());
 
@@ -310,7 +310,7 @@ public class PlatformWiring {
 
         eventWindowOutputWire.solderTo(eventDeduplicatorWiring.getInputWire(EventDeduplicator::setEventWindow), INJECT);
         eventWindowOutputWire.solderTo(
-                eventSignatureValidatorWiring.getInputWire(EventSignatureValidator::setEventWindow), INJECT);
+                eventSignatureValidatorWiring.getInputWire(OrderedEventSignatureValidator::setEventWindow), INJECT);
         eventWindowOutputWire.solderTo(orphanBufferWiring.getInputWire(OrphanBuffer::setEventWindow), INJECT);
         eventWindowOutputWire.solderTo(gossipWiring.getEventWindowInput(), INJECT);
         eventWindowOutputWire.solderTo(
@@ -367,9 +367,10 @@ public class PlatformWiring {
                 .solderTo(eventDeduplicatorWiring.getInputWire(EventDeduplicator::handleEvent));
         eventDeduplicatorWiring
                 .getOutputWire()
-                .solderTo(eventSignatureValidatorWiring.getInputWire(EventSignatureValidator::validateSignature));
+                .solderTo(
+                        eventSignatureValidatorWiring.getInputWire(OrderedEventSignatureValidator::validateSignature));
         eventSignatureValidatorWiring
-                .getOutputWire()
+                .<PlatformEvent>getSplitOutput()
                 .solderTo(orphanBufferWiring.getInputWire(OrphanBuffer::handleEvent));
         final OutputWire<PlatformEvent> splitOrphanBufferOutput = orphanBufferWiring.getSplitOutput();
 
@@ -628,7 +629,7 @@ public class PlatformWiring {
         eventCreationManagerWiring.getInputWire(EventCreationManager::clear);
         notifierWiring.getInputWire(AppNotifier::sendReconnectCompleteNotification);
         notifierWiring.getInputWire(AppNotifier::sendPlatformStatusChangeNotification);
-        eventSignatureValidatorWiring.getInputWire(EventSignatureValidator::updateRosters);
+        eventSignatureValidatorWiring.getInputWire(OrderedEventSignatureValidator::updateRosters);
         eventWindowManagerWiring.getInputWire(EventWindowManager::updateEventWindow);
         orphanBufferWiring.getInputWire(OrphanBuffer::clear);
         pcesInlineWriterWiring.getInputWire(InlinePcesWriter::registerDiscontinuity);
@@ -673,7 +674,8 @@ public class PlatformWiring {
         eventHasherWiring.bind(builder::buildEventHasher);
         internalEventValidatorWiring.bind(builder::buildInternalEventValidator);
         eventDeduplicatorWiring.bind(builder::buildEventDeduplicator);
-        eventSignatureValidatorWiring.bind(builder::buildEventSignatureValidator);
+        eventSignatureValidatorWiring.bind(() -> builder.buildOrderedEventSignatureValidator(
+                eventSignatureValidatorWiring::getUnprocessedTaskCount));
         orphanBufferWiring.bind(builder::buildOrphanBuffer);
         consensusEngineWiring.bind(builder::buildConsensusEngine);
         stateSnapshotManagerWiring.bind(builder::buildStateSnapshotManager);
@@ -727,7 +729,7 @@ public class PlatformWiring {
      */
     @NonNull
     public InputWire<RosterUpdate> getRosterUpdateInput() {
-        return eventSignatureValidatorWiring.getInputWire(EventSignatureValidator::updateRosters);
+        return eventSignatureValidatorWiring.getInputWire(OrderedEventSignatureValidator::updateRosters);
     }
 
     /**
@@ -0,0 +1,118 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.platform.consensus;
+
+import static com.swirlds.platform.test.fixtures.event.EventImplTestUtils.createEventImpl;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.test.fixtures.RandomUtils;
+import com.swirlds.platform.internal.EventImpl;
+import com.swirlds.platform.test.fixtures.event.TestingEventBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ArrayConsensusMetadataTest {
+    private static final int NUM_MEMBERS = 4;
+
+    private final Random random = RandomUtils.getRandomPrintSeed();
+
+    private List<EventImpl> addEvents(final ArrayConsensusMetadata metadata, final int count) {
+        final List<EventImpl> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final EventImpl event = createEventImpl(new TestingEventBuilder(random), null, null);
+            metadata.eventAdded(event);
+            events.add(event);
+        }
+        return events;
+    }
+
+    @Test
+    void memoizeAndClear() {
+        final ArrayConsensusMetadata metadata = new ArrayConsensusMetadata(NUM_MEMBERS);
+        final List<EventImpl> events = addEvents(metadata, 3);
+        final EventImpl x = events.get(0);
+
+        assertFalse(metadata.hasLastSee(x));
+        assertFalse(metadata.hasStronglySeeP(x));
+        assertNull(metadata.getFirstSelfWitnessS(x));
+        assertNull(metadata.getFirstWitnessS(x));
+
+        metadata.initLastSee(x);
+        metadata.initStronglySeeP(x);
+        metadata.setLastSee(x, 1, events.get(1));
+        metadata.setStronglySeeP(x, 3, events.get(2));
+        metadata.setFirstSelfWitnessS(x, x);
+        metadata.setFirstWitnessS(x, events.get(1));
+
+        assertTrue(metadata.hasLastSee(x));
+        assertTrue(metadata.hasStronglySeeP(x));
+        for (int m = 0; m < NUM_MEMBERS; m++) {
+            assertSame(m == 1 ? events.get(1) : null, metadata.getLastSee(x, m));
+            assertSame(m == 3 ? events.get(2) : null, metadata.getStronglySeeP(x, m));
+        }
+        assertSame(x, metadata.getFirstSelfWitnessS(x));
+        assertSame(events.get(1), metadata.getFirstWitnessS(x));
+        assertFalse(metadata.hasLastSee(events.get(1)), "other events should not be affected");
+
+        metadata.clear(x);
+        assertFalse(metadata.hasLastSee(x));
+        assertFalse(metadata.hasStronglySeeP(x));
+        assertNull(metadata.getFirstSelfWitnessS(x));
+        assertNull(metadata.getFirstWitnessS(x));
+
+        metadata.reset();
+        events.forEach(e -> assertEquals(-1, e.getConsensusMetadataSlot()));
+        assertEquals(0, metadata.numLiveEvents());
+    }
+
+    @Test
+    void slotsOfRemovedEventsAreReused() {
+        final ArrayConsensusMetadata metadata = new ArrayConsensusMetadata(NUM_MEMBERS);
+        final int numEvents = ArrayConsensusMetadata.INITIAL_CAPACITY - 24;
+        final List<EventImpl> events = addEvents(metadata, numEvents);
+
+        // the first event is still in use, and it references a removed event
+        final EventImpl inUse = events.get(0);
+        final EventImpl referenced = events.get(1);
+        metadata.initLastSee(inUse);
+        metadata.setLastSee(inUse, 2, referenced);
+        final int referencedSlot = referenced.getConsensusMetadataSlot();
+        events.subList(1, numEvents).forEach(metadata::eventRemoved);
+        assertEquals(1, metadata.numLiveEvents());
+
+        // new events should take the slots of removed events, except the slot still referenced
+        final List<EventImpl> newEvents = addEvents(metadata, numEvents - 2);
+        assertEquals(ArrayConsensusMetadata.INITIAL_CAPACITY, metadata.capacity(), "no memory should be allocated");
+        assertEquals(numEvents - 1, metadata.numLiveEvents());
+        assertSame(referenced, metadata.getLastSee(inUse, 2));
+        assertEquals(referencedSlot, referenced.getConsensusMetadataSlot());
+        newEvents.forEach(e -> assertTrue(e.getConsensusMetadataSlot() != referencedSlot));
+        events.subList(2, numEvents).forEach(e -> assertEquals(-1, e.getConsensusMetadataSlot()));
+
+        // once nothing references the removed event, its slot is reused as well
+        metadata.clear(inUse);
+        newEvents.forEach(metadata::eventRemoved);
+        addEvents(metadata, numEvents - 1);
+        assertEquals(-1, referenced.getConsensusMetadataSlot());
+        assertEquals(ArrayConsensusMetadata.INITIAL_CAPACITY, metadata.capacity(), "no memory should be allocated");
+    }
+
+    @Test
+    void growBeyondInitialCapacity() {
+        final ArrayConsensusMetadata metadata = new ArrayConsensusMetadata(NUM_MEMBERS);
+        final List<EventImpl> events = addEvents(metadata, ArrayConsensusMetadata.INITIAL_CAPACITY * 2 + 1);
+        final EventImpl first = events.get(0);
+        final EventImpl last = events.get(events.size() - 1);
+        metadata.initStronglySeeP(last);
+        metadata.setStronglySeeP(last, 0, first);
+        metadata.setFirstWitnessS(first, last);
+        assertEquals(events.size(), metadata.numLiveEvents());
+        assertSame(first, metadata.getStronglySeeP(last, 0));
+        assertSame(last, metadata.getFirstWitnessS(first));
+    }
+}
@@ -0,0 +1,182 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.platform.event.validation;
+
+import static com.swirlds.platform.event.AncientMode.GENERATION_THRESHOLD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.hapi.node.state.roster.Roster;
+import com.swirlds.common.platform.NodeId;
+import com.swirlds.common.test.fixtures.Randotron;
+import com.swirlds.platform.consensus.EventWindow;
+import com.swirlds.platform.event.PlatformEvent;
+import com.swirlds.platform.test.fixtures.event.TestingEventBuilder;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OrderedEventSignatureValidatorTests {
+    private Randotron random;
+    private ExecutorService executor;
+    private AtomicLong unprocessedInputCount;
+    private SlowValidator slowValidator;
+
+    /**
+     * A validator that takes a random amount of time per event, so batches complete out of order, and that rejects
+     * events created by odd node IDs.
+     */
+    private static class SlowValidator implements EventSignatureValidator {
+        private final AtomicInteger rosterUpdates = new AtomicInteger();
+        private final AtomicInteger concurrentCalls = new AtomicInteger();
+        private final AtomicInteger maxConcurrentCalls = new AtomicInteger();
+
+        @Nullable
+        @Override
+        public PlatformEvent validateSignature(@NonNull final PlatformEvent event) {
+            maxConcurrentCalls.accumulateAndGet(concurrentCalls.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(event.getHash().getBytes().getByte(0) & 3);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concurrentCalls.decrementAndGet();
+            return event.getCreatorId().id() % 2 == 0 ? event : null;
+        }
+
+        @Override
+        public void setEventWindow(@NonNull final EventWindow eventWindow) {}
+
+        @Override
+        public void updateRosters(@NonNull final RosterUpdate rosterUpdate) {
+            assertEquals(0, concurrentCalls.get(), "rosters must not be updated while events are being verified");
+            rosterUpdates.incrementAndGet();
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        random = Randotron.create();
+        executor = Executors.newFixedThreadPool(4);
+        unprocessedInputCount = new AtomicLong();
+        slowValidator = new SlowValidator();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private List<PlatformEvent> generateEvents(final int count) {
+        final List<PlatformEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new TestingEventBuilder(random)
+                    .setCreatorId(NodeId.of(random.nextInt(4)))
+                    .build());
+        }
+        return events;
+    }
+
+    private static List<PlatformEvent> validEvents(final List<PlatformEvent> events) {
+        return events.stream().filter(e -> e.getCreatorId().id() % 2 == 0).toList();
+    }
+
+    @Test
+    @DisplayName("Events queued up are verified in parallel and released in order")
+    void queuedEventsReleasedInOrder() {
+        final OrderedEventSignatureValidator validator =
+                new DefaultOrderedEventSignatureValidator(slowValidator, executor, 4, 8, unprocessedInputCount::get);
+        final List<PlatformEvent> events = generateEvents(500);
+
+        final List<PlatformEvent> released = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            // all events are already queued, the last one drains the validator
+            unprocessedInputCount.set(events.size() - i);
+            released.addAll(validator.validateSignature(events.get(i)));
+        }
+
+        assertEquals(validEvents(events), released);
+        assertTrue(slowValidator.maxConcurrentCalls.get() > 1, "signatures should be verified in parallel");
+    }
+
+    @Test
+    @DisplayName("Events are released right away when nothing else is queued")
+    void eventsReleasedWhenIdle() {
+        final OrderedEventSignatureValidator validator =
+                new DefaultOrderedEventSignatureValidator(slowValidator, executor, 4, 8, unprocessedInputCount::get);
+        unprocessedInputCount.set(1);
+
+        for (final PlatformEvent event : generateEvents(50)) {
+            assertEquals(validEvents(List.of(event)), validator.validateSignature(event));
+        }
+    }
+
+    @Test
+    @DisplayName("Other inputs release held back events")
+    void otherInputsReleaseEvents() {
+        final OrderedEventSignatureValidator validator =
+                new DefaultOrderedEventSignatureValidator(slowValidator, executor, 4, 8, unprocessedInputCount::get);
+        final List<PlatformEvent> events = generateEvents(50);
+
+        final List<PlatformEvent> released = new ArrayList<>();
+        unprocessedInputCount.set(10);
+        for (final PlatformEvent event : events.subList(0, 25)) {
+            released.addAll(validator.validateSignature(event));
+        }
+        // a roster update waits for all events received before it
+        released.addAll(validator.updateRosters(new RosterUpdate(null, Roster.DEFAULT)));
+        assertEquals(validEvents(events.subList(0, 25)), released);
+        assertEquals(1, slowValidator.rosterUpdates.get());
+
+        for (final PlatformEvent event : events.subList(25, 50)) {
+            released.addAll(validator.validateSignature(event));
+        }
+        // an event window that is the last input releases everything
+        unprocessedInputCount.set(1);
+        released.addAll(validator.setEventWindow(EventWindow.getGenesisEventWindow(GENERATION_THRESHOLD)));
+        assertEquals(validEvents(events), released);
+    }
+
+    @Test
+    @DisplayName("Events failing verification with an exception are dropped, other events are still released")
+    void failingEventsDropped() {
+        final EventSignatureValidator failingValidator = new EventSignatureValidator() {
+            @Nullable
+            @Override
+            public PlatformEvent validateSignature(@NonNull final PlatformEvent event) {
+                if (event.getCreatorId().id() == 2) {
+                    throw new IllegalStateException("verification failed");
+                }
+                return slowValidator.validateSignature(event);
+            }
+
+            @Override
+            public void setEventWindow(@NonNull final EventWindow eventWindow) {}
+
+            @Override
+            public void updateRosters(@NonNull final RosterUpdate rosterUpdate) {}
+        };
+        final OrderedEventSignatureValidator validator =
+                new DefaultOrderedEventSignatureValidator(failingValidator, executor, 4, 8, unprocessedInputCount::get);
+        final List<PlatformEvent> events = generateEvents(200);
+
+        final List<PlatformEvent> released = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            unprocessedInputCount.set(events.size() - i);
+            released.addAll(validator.validateSignature(events.get(i)));
+        }
+
+        final List<PlatformEvent> expected = validEvents(events).stream()
+                .filter(e -> e.getCreatorId().id() != 2)
+                .toList();
+        assertEquals(expected, released);
+    }
+}
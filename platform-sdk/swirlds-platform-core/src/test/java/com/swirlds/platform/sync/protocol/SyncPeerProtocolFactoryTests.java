@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 
 import com.swirlds.base.test.fixtures.time.FakeTime;
@@ -16,14 +17,19 @@ import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.platform.NodeId;
 import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
 import com.swirlds.common.threading.pool.ParallelExecutionException;
+import com.swirlds.config.api.Configuration;
+import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
 import com.swirlds.platform.gossip.IntakeEventCounter;
 import com.swirlds.platform.gossip.SyncException;
 import com.swirlds.platform.gossip.permits.SyncPermitProvider;
 import com.swirlds.platform.gossip.shadowgraph.ShadowgraphSynchronizer;
+import com.swirlds.platform.gossip.sync.config.SyncConfig_;
 import com.swirlds.platform.gossip.sync.protocol.SyncPeerProtocol;
 import com.swirlds.platform.metrics.SyncMetrics;
 import com.swirlds.platform.network.Connection;
 import com.swirlds.platform.network.NetworkProtocolException;
+import com.swirlds.platform.network.communication.NegotiationException;
+import com.swirlds.platform.network.communication.NegotiationProtocols;
 import com.swirlds.platform.network.protocol.PeerProtocol;
 import com.swirlds.platform.network.protocol.Protocol;
 import com.swirlds.platform.network.protocol.SyncProtocol;
@@ -622,4 +628,132 @@ class SyncPeerProtocolFactoryTests {
 
         assertTrue(peerProtocol.acceptOnSimultaneousInitiate());
     }
+
+    /**
+     * Build a sync protocol factory that uses the given platform context.
+     */
+    private SyncProtocol buildSyncProtocol(@NonNull final PlatformContext platformContext) {
+        return new SyncProtocol(
+                platformContext,
+                shadowGraphSynchronizer,
+                fallenBehindManager,
+                permitProvider,
+                mock(IntakeEventCounter.class),
+                () -> false,
+                sleepAfterSync,
+                syncMetrics,
+                () -> ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Compact sync is neither offered nor accepted when disabled")
+    void compactSyncDisabled() {
+        final SyncProtocol syncProtocol = buildSyncProtocol(platformContext);
+        final PeerProtocol peerProtocol = syncProtocol.createPeerInstance(peerId);
+        final PeerProtocol compactPeerProtocol =
+                syncProtocol.compactSyncProtocol().createPeerInstance(peerId);
+
+        assertEquals(2, countAvailablePermits(permitProvider));
+        assertFalse(compactPeerProtocol.shouldInitiate());
+        assertFalse(compactPeerProtocol.shouldAccept());
+        assertEquals(2, countAvailablePermits(permitProvider));
+
+        assertTrue(peerProtocol.shouldInitiate());
+        assertEquals(1, countAvailablePermits(permitProvider));
+    }
+
+    @Test
+    @DisplayName("Compact sync is offered when enabled, and the standard sync is used for a while after a rejection")
+    void compactSyncFallback() throws Exception {
+        final Configuration configuration = new TestConfigBuilder()
+                .withValue(SyncConfig_.COMPACT_SYNC_PROTOCOL, true)
+                .withValue(SyncConfig_.COMPACT_SYNC_RETRY_PERIOD, "10s")
+                .getOrCreateConfig();
+        final SyncProtocol syncProtocol = buildSyncProtocol(TestPlatformContextBuilder.create()
+                .withTime(time)
+                .withConfiguration(configuration)
+                .build());
+        final PeerProtocol peerProtocol = syncProtocol.createPeerInstance(peerId);
+        final PeerProtocol compactPeerProtocol =
+                syncProtocol.compactSyncProtocol().createPeerInstance(peerId);
+        syncProtocol.peerVersionChecked(peerId, true);
+
+        // the compact sync is preferred, the standard sync steps aside
+        assertFalse(peerProtocol.shouldInitiate());
+        assertEquals(2, countAvailablePermits(permitProvider));
+        assertTrue(compactPeerProtocol.shouldInitiate());
+        assertEquals(1, countAvailablePermits(permitProvider));
+
+        // the peer rejects the compact sync, so the standard sync is used
+        compactPeerProtocol.initiateFailed();
+        assertEquals(2, countAvailablePermits(permitProvider));
+        assertFalse(compactPeerProtocol.shouldInitiate());
+        assertTrue(peerProtocol.shouldInitiate());
+        peerProtocol.initiateFailed();
+
+        // once the retry period has elapsed, the compact sync is offered again
+        time.tick(Duration.ofSeconds(10));
+        assertFalse(peerProtocol.shouldInitiate());
+        assertTrue(compactPeerProtocol.shouldInitiate());
+
+        compactPeerProtocol.runProtocol(mock(Connection.class));
+        Mockito.verify(shadowGraphSynchronizer).synchronize(any(), any(), eq(true));
+        assertEquals(2, countAvailablePermits(permitProvider));
+    }
+
+    @Test
+    @DisplayName("A peer offering the compact sync is offered the compact sync again")
+    void compactSyncOfferedByPeer() {
+        final Configuration configuration = new TestConfigBuilder()
+                .withValue(SyncConfig_.COMPACT_SYNC_PROTOCOL, true)
+                .getOrCreateConfig();
+        final SyncProtocol syncProtocol = buildSyncProtocol(TestPlatformContextBuilder.create()
+                .withTime(time)
+                .withConfiguration(configuration)
+                .build());
+        final PeerProtocol compactPeerProtocol =
+                syncProtocol.compactSyncProtocol().createPeerInstance(peerId);
+        syncProtocol.peerVersionChecked(peerId, true);
+
+        assertTrue(compactPeerProtocol.shouldInitiate());
+        compactPeerProtocol.initiateFailed();
+        assertFalse(compactPeerProtocol.shouldInitiate());
+
+        assertTrue(compactPeerProtocol.shouldAccept());
+        compactPeerProtocol.acceptFailed();
+        assertTrue(compactPeerProtocol.shouldInitiate());
+    }
+
+    @Test
+    @DisplayName("Compact sync is not offered to a peer until it is known to support the compact sync protocol ID")
+    void compactSyncWithLegacyPeer() throws Exception {
+        final Configuration configuration = new TestConfigBuilder()
+                .withValue(SyncConfig_.COMPACT_SYNC_PROTOCOL, true)
+                .getOrCreateConfig();
+        final SyncProtocol syncProtocol = buildSyncProtocol(TestPlatformContextBuilder.create()
+                .withTime(time)
+                .withConfiguration(configuration)
+                .build());
+        final NegotiationProtocols ourProtocols = new NegotiationProtocols(List.of(
+                syncProtocol.createPeerInstance(peerId),
+                syncProtocol.compactSyncProtocol().createPeerInstance(peerId)));
+
+        // the legacy peer only knows the standard sync protocol, any other ID fails the negotiation
+        final PeerProtocol legacySyncProtocol = mock(PeerProtocol.class);
+        Mockito.when(legacySyncProtocol.shouldAccept()).thenReturn(true);
+        final NegotiationProtocols legacyProtocols = new NegotiationProtocols(List.of(legacySyncProtocol));
+        assertThrows(NegotiationException.class, () -> legacyProtocols.getProtocol(1));
+
+        // the legacy peer runs different software, so the standard sync is offered, and the legacy peer accepts it
+        syncProtocol.peerVersionChecked(peerId, false);
+        final byte protocolId = ourProtocols.initiateProtocol();
+        assertEquals(0, protocolId);
+        assertTrue(legacyProtocols.getProtocol(protocolId).shouldAccept());
+        ourProtocols.initiateAccepted();
+
+        // once the peer is known to run the same software, the compact sync is offered
+        syncProtocol.peerVersionChecked(peerId, true);
+        assertEquals(1, ourProtocols.initiateProtocol());
+        ourProtocols.initiateFailed();
+    }
 }
@@ -78,7 +78,11 @@ public class SequenceMapTests {
                 Arguments.of(new MapBuilder(
                         "concurrent",
                         (min, capacity, allowExpansion) ->
-                                new ConcurrentSequenceMap<>(min, capacity, allowExpansion, SequenceMapKey::sequence))));
+                                new ConcurrentSequenceMap<>(min, capacity, allowExpansion, SequenceMapKey::sequence))),
+                Arguments.of(new MapBuilder(
+                        "primitive",
+                        (min, capacity, allowExpansion) ->
+                                new PrimitiveSequenceMap<>(min, capacity, allowExpansion, SequenceMapKey::sequence))));
     }
 
     private static boolean isKeyPresent(final SequenceMap<SequenceMapKey, Integer> map, final Long sequenceNumber) {
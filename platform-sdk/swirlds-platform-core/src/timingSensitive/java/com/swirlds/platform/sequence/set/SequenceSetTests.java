@@ -68,7 +68,10 @@ public class SequenceSetTests {
                         (min, capacity) -> new StandardSequenceSet<>(min, capacity, SequenceSetElement::sequence))),
                 Arguments.of(new SetBuilder(
                         "concurrent",
-                        (min, capacity) -> new ConcurrentSequenceSet<>(min, capacity, SequenceSetElement::sequence))));
+                        (min, capacity) -> new ConcurrentSequenceSet<>(min, capacity, SequenceSetElement::sequence))),
+                Arguments.of(new SetBuilder(
+                        "primitive",
+                        (min, capacity) -> new PrimitiveSequenceSet<>(min, capacity, SequenceSetElement::sequence))));
     }
 
     private static boolean isKeyPresent(final SequenceSet<SequenceSetElement> set, final Long sequenceNumber) {
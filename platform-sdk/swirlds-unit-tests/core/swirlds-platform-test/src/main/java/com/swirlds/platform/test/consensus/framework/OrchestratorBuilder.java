@@ -28,6 +28,8 @@ public class OrchestratorBuilder {
     private Function<List<Long>, List<EventSource>> eventSourceBuilder = EventSourceFactory::newStandardEventSources;
     private Consumer<EventSource> eventSourceConfigurator = es -> {};
     private PlatformContext platformContext;
+    /** The platform context of the second node, or null if it is the same as the one of the first node */
+    private PlatformContext node2PlatformContext;
     /**
      * A function that creates an event emitter based on a graph generator and a seed. They should produce emitters that
      * will emit events in different orders. For example, nothing would be tested if both returned a
@@ -76,6 +78,18 @@ public class OrchestratorBuilder {
         return this;
     }
 
+    /**
+     * Set a different platform context for the second node, for example to compare consensus with different
+     * configurations.
+     *
+     * @param node2PlatformContext the platform context of the second node
+     * @return this builder
+     */
+    public @NonNull OrchestratorBuilder setNode2PlatformContext(@NonNull final PlatformContext node2PlatformContext) {
+        this.node2PlatformContext = node2PlatformContext;
+        return this;
+    }
+
     public @NonNull ConsensusTestOrchestrator build() {
         final ResettableRandom random = RandomUtils.initRandom(seed, false);
         final long weightSeed = random.nextLong();
@@ -102,7 +116,8 @@ public class OrchestratorBuilder {
         // Create two instances to run consensus on. Each instance reseeds the emitter so that they
         // emit events in different orders.
         nodes.add(ConsensusTestNode.genesisContext(platformContext, node1Emitter));
-        nodes.add(ConsensusTestNode.genesisContext(platformContext, node2Emitter));
+        nodes.add(ConsensusTestNode.genesisContext(
+                node2PlatformContext == null ? platformContext : node2PlatformContext, node2Emitter));
 
         return new ConsensusTestOrchestrator(platformContext, nodes, weights, totalEventNum);
     }
@@ -56,6 +56,13 @@ public class ConsensusTestArgs {
                 Arguments.of(new ConsensusTestParams(10, RANDOM_REAL_WEIGHT, RANDOM_WEIGHT_DESC)));
     }
 
+    static Stream<Arguments> arrayMetadataStore() {
+        return Stream.of(
+                Arguments.of(new ConsensusTestParams(4, BALANCED, BALANCED_WEIGHT_DESC)),
+                Arguments.of(new ConsensusTestParams(20, RANDOM, RANDOM_WEIGHT_DESC)),
+                Arguments.of(new ConsensusTestParams(40, RANDOM_REAL_WEIGHT, RANDOM_WEIGHT_DESC)));
+    }
+
     static Stream<Arguments> staleEvent() {
         return Stream.of(
                 Arguments.of(new ConsensusTestParams(6, BALANCED, BALANCED_WEIGHT_DESC)),
@@ -8,6 +8,7 @@ import static com.swirlds.platform.test.graph.OtherParentMatrixFactory.createPar
 import static com.swirlds.platform.test.graph.OtherParentMatrixFactory.createShunnedNodeOtherParentAffinityMatrix;
 
 import com.hedera.hapi.platform.state.ConsensusSnapshot;
+import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.platform.NodeId;
 import com.swirlds.common.utility.Threshold;
 import com.swirlds.config.api.Configuration;
@@ -521,6 +522,28 @@ public final class ConsensusTestDefinitions {
                 Validations.standard().ratios(EventRatioValidation.blank().setMinimumConsensusRatio(0.5)));
     }
 
+    /**
+     * Consensus with metadata stored in arrays should produce the same results as consensus with metadata stored in
+     * events. The second node and the reconnected node store metadata in arrays.
+     */
+    public static void arrayMetadataStore(
+            @NonNull final TestInput input, @NonNull final PlatformContext arrayMetadataContext) {
+        final ConsensusTestOrchestrator orchestrator = OrchestratorBuilder.builder()
+                .setTestInput(input)
+                .setNode2PlatformContext(arrayMetadataContext)
+                .build();
+
+        orchestrator.generateEvents(0.5);
+        orchestrator.validate(
+                Validations.standard().ratios(EventRatioValidation.blank().setMinimumConsensusRatio(0.5)));
+        orchestrator.addReconnectNode(arrayMetadataContext);
+
+        orchestrator.clearOutput();
+        orchestrator.generateEvents(0.5);
+        orchestrator.validateAndClear(
+                Validations.standard().ratios(EventRatioValidation.blank().setMinimumConsensusRatio(0.5)));
+    }
+
     public static void removeNode(@NonNull final TestInput input) {
         final ConsensusTestOrchestrator orchestrator =
                 OrchestratorBuilder.builder().setTestInput(input).build();
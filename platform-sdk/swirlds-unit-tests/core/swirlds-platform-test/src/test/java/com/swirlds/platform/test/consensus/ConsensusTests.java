@@ -7,6 +7,7 @@ import static com.swirlds.platform.test.consensus.ConsensusTestArgs.RANDOM_WEIGH
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.test.fixtures.junit.tags.TestComponentTags;
 import com.swirlds.platform.ConsensusImpl;
+import com.swirlds.platform.consensus.ConsensusConfig_;
 import com.swirlds.platform.eventhandling.EventConfig_;
 import com.swirlds.platform.test.PlatformTest;
 import java.util.List;
@@ -288,6 +289,31 @@ class ConsensusTests extends PlatformTest {
                 .run();
     }
 
+    @ParameterizedTest
+    @MethodSource("com.swirlds.platform.test.consensus.ConsensusTestArgs#arrayMetadataStore")
+    @Tag(TestComponentTags.PLATFORM)
+    @Tag(TestComponentTags.CONSENSUS)
+    @DisplayName("Array Metadata Store Tests")
+    void arrayMetadataStoreTests(final ConsensusTestParams params) {
+        for (final boolean useBirthRound : List.of(false, true)) {
+            final PlatformContext arrayMetadataContext = createPlatformContext(
+                    null,
+                    configBuilder -> configBuilder
+                            .withValue(EventConfig_.USE_BIRTH_ROUND_ANCIENT_THRESHOLD, useBirthRound)
+                            .withValue(ConsensusConfig_.ARRAY_METADATA_STORE, true));
+            final PlatformContext eventMetadataContext = createPlatformContext(
+                    null,
+                    configBuilder ->
+                            configBuilder.withValue(EventConfig_.USE_BIRTH_ROUND_ANCIENT_THRESHOLD, useBirthRound));
+            ConsensusTestRunner.create()
+                    .setTest(input -> ConsensusTestDefinitions.arrayMetadataStore(input, arrayMetadataContext))
+                    .setParams(params)
+                    .setContexts(List.of(eventMetadataContext))
+                    .setIterations(NUM_ITER)
+                    .run();
+        }
+    }
+
     @Test
     void syntheticSnapshotTest() {
         ConsensusTestRunner.create()
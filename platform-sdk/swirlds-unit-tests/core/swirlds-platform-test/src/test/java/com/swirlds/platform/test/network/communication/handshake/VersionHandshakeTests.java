@@ -2,6 +2,7 @@
 package com.swirlds.platform.test.network.communication.handshake;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.swirlds.base.utility.Pair;
@@ -21,6 +22,8 @@ import com.swirlds.platform.test.sync.ConnectionFactory;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -80,6 +83,23 @@ class VersionHandshakeTests {
         assertDoesNotThrow(() -> protocolToleratingMismatch.runProtocol(myConnection));
     }
 
+    @Test
+    @DisplayName("The result of the version comparison is reported for the peer")
+    void versionCheckListener() throws IOException {
+        final List<Boolean> results = new ArrayList<>();
+        final ProtocolRunnable protocol =
+                new VersionCompareHandshake(new BasicSoftwareVersion(5), true, (peerId, versionsMatch) -> {
+                    assertEquals(theirConnection.getSelfId(), peerId);
+                    results.add(versionsMatch);
+                });
+
+        clearWriteFlush(theirConnection, new BasicSoftwareVersion(5));
+        assertDoesNotThrow(() -> protocol.runProtocol(myConnection));
+        clearWriteFlush(theirConnection, new BasicSoftwareVersion(6));
+        assertThrows(HandshakeException.class, () -> protocol.runProtocol(myConnection));
+        assertEquals(List.of(true, false), results);
+    }
+
     @Test
     @DisplayName("Their software version is null")
     void nullVersion() throws IOException {
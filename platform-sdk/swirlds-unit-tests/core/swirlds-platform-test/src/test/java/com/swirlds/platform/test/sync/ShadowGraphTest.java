@@ -40,6 +40,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -590,6 +592,71 @@ class ShadowgraphTest {
         }
     }
 
+    @Test
+    @DisplayName("Tips returned to a reader are not affected by events added later")
+    void testTipsSnapshot() {
+        initShadowgraph(RandomUtils.getRandomPrintSeed(), 100, 4);
+
+        final List<ShadowEvent> tips = shadowgraph.getTips();
+        final List<ShadowEvent> tipsCopy = new ArrayList<>(tips);
+        for (int i = 0; i < 100; i++) {
+            assertDoesNotThrow(() -> shadowgraph.addEvent(emitter.emitEvent().getBaseEvent()));
+        }
+
+        assertEquals(tipsCopy, tips, "Tips returned earlier should not change when events are added.");
+        assertNotEquals(tipsCopy, shadowgraph.getTips(), "New tips should be returned after events are added.");
+    }
+
+    @Test
+    @DisplayName("Readers are able to use the shadowgraph while events are added and expired")
+    void testConcurrentReads() throws InterruptedException {
+        initShadowgraph(RandomUtils.getRandomPrintSeed(), 100, 4);
+
+        final int numReaders = 4;
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final AtomicReference<Throwable> readerError = new AtomicReference<>();
+        final List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < numReaders; i++) {
+            final Thread reader = new Thread(() -> {
+                try {
+                    while (writing.get()) {
+                        try (final ReservedEventWindow reservation = shadowgraph.reserve()) {
+                            final List<ShadowEvent> tips = shadowgraph.getTips();
+                            assertFalse(tips.isEmpty(), "The shadowgraph should always have tips.");
+                            final List<Hash> tipHashes = tips.stream()
+                                    .map(ShadowEvent::getEventBaseHash)
+                                    .toList();
+                            shadowgraph.shadows(tipHashes);
+                            shadowgraph.findAncestors(
+                                    tips,
+                                    e -> e.getEvent().getGeneration()
+                                            >= reservation.getEventWindow().getExpiredThreshold());
+                        }
+                    }
+                } catch (final Throwable t) {
+                    readerError.set(t);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            final EventImpl event = emitter.emitEvent();
+            assertDoesNotThrow(() -> shadowgraph.addEvent(event.getBaseEvent()));
+            if (i % 100 == 0) {
+                shadowgraph.updateEventWindow(
+                        new EventWindow(0, 0, Math.max(0, event.getGeneration() - 10), GENERATION_THRESHOLD));
+            }
+        }
+        writing.set(false);
+        for (final Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(readerError.get(), "Readers should not fail while events are added and expired.");
+    }
+
     @Test
     void testHashgraphEventWithNullHash() {
         initShadowgraph(RandomUtils.getRandomPrintSeed(), 100, 4);
@@ -58,6 +58,7 @@ public class SyncTestExecutor {
     private Predicate<EventImpl> callerAddToGraphTest;
     private Predicate<EventImpl> listenerAddToGraphTest;
     private final AncientMode ancientMode;
+    private boolean compactSync;
 
     /**
      * A randomly generated address book from the number of nodes in the parameters of the test.
@@ -254,7 +255,7 @@ public class SyncTestExecutor {
      * @throws Exception
      */
     private void sync() throws Exception {
-        final Synchronizer synchronizer = new Synchronizer();
+        final Synchronizer synchronizer = new Synchronizer(compactSync);
 
         final long start = System.nanoTime();
         synchronizer.synchronize(caller, listener);
@@ -416,4 +417,11 @@ public class SyncTestExecutor {
     public void setConnectionFactory(final ConnectionFactory connectionFactory) {
         this.connectionFactory = connectionFactory;
     }
+
+    /**
+     * @param compactSync if true, the nodes exchange tips using the compact encoding
+     */
+    public void setCompactSync(final boolean compactSync) {
+        this.compactSync = compactSync;
+    }
 }
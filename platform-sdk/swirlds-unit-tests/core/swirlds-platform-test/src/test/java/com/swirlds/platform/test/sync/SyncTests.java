@@ -310,6 +310,27 @@ public class SyncTests {
         SyncValidator.assertStreamsEmpty(executor.getCaller(), executor.getListener());
     }
 
+    /**
+     * Tests syncing graphs when tips are exchanged using the compact encoding.
+     */
+    @ParameterizedTest
+    @MethodSource({"simpleFourNodeGraphParams", "fourNodeGraphParams", "tenNodeGraphParams"})
+    void simpleGraphCompact(final SyncTestParams params) throws Exception {
+        final SyncTestExecutor executor = new SyncTestExecutor(params);
+        executor.setCompactSync(true);
+
+        executor.setGraphCustomization((caller, listener) -> {
+            caller.setSaveGeneratedEvents(true);
+            listener.setSaveGeneratedEvents(true);
+        });
+
+        executor.execute();
+
+        SyncValidator.assertOnlyRequiredEventsTransferred(
+                executor.getCaller(), executor.getListener(), params.getAncientMode());
+        SyncValidator.assertStreamsEmpty(executor.getCaller(), executor.getListener());
+    }
+
     /**
      * Tests skipping sync initialization bytes
      */
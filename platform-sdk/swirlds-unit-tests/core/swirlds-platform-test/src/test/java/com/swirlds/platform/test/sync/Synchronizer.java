@@ -21,14 +21,26 @@ public class Synchronizer {
     // The parallel executor used to execute the caller's and listener's synchronize at the same time
     private final ParallelExecutor parallelExecutor;
 
+    // If true, the nodes exchange tips using the compact encoding
+    private final boolean compact;
+
     public Synchronizer() {
-        parallelExecutor = new SyncPhaseParallelExecutor(getStaticThreadManager(), null, null, false);
+        this(false);
+    }
+
+    /**
+     * @param compact
+     * 		if true, the nodes exchange tips using the compact encoding
+     */
+    public Synchronizer(final boolean compact) {
+        this.parallelExecutor = new SyncPhaseParallelExecutor(getStaticThreadManager(), null, null, false);
+        this.compact = compact;
     }
 
     /**
      * Performs synchronization between the caller and listener nodes.
      *
-     * The {@link ShadowgraphSynchronizer#synchronize(PlatformContext, Connection)} method is
+     * The {@link ShadowgraphSynchronizer#synchronize(PlatformContext, Connection, boolean)} method is
      * invoked on each node in parallel using the {@link ParallelExecutor}.
      *
      * @throws Exception
@@ -50,7 +62,7 @@ public class Synchronizer {
                 () -> {
                     try {
                         final boolean synchronize =
-                                caller.getSynchronizer().synchronize(platformContext, caller.getConnection());
+                                caller.getSynchronizer().synchronize(platformContext, caller.getConnection(), compact);
                         caller.setSynchronizerReturn(synchronize);
                     } catch (final Exception e) {
                         caller.setSynchronizerReturn(null);
@@ -64,8 +76,8 @@ public class Synchronizer {
                 () -> {
                     try {
                         if (listener.isCanAcceptSync()) {
-                            final boolean synchronize =
-                                    listener.getSynchronizer().synchronize(platformContext, listener.getConnection());
+                            final boolean synchronize = listener.getSynchronizer()
+                                    .synchronize(platformContext, listener.getConnection(), compact);
                             listener.setSynchronizerReturn(synchronize);
                         }
                     } catch (final Exception e) {
@@ -0,0 +1,73 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.cache; // NOSONAR: Needed to benchmark internal classes
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares a boxed {@link ConcurrentHashMap} with {@link ConcurrentLongObjectMap} when used as a
+ * {@link VirtualNodeCache} path index. Each operation mimics either {@code putHash()}, which updates
+ * a path with compute(), or {@code lookupHashByPath()}, which reads it. Run with {@code -prof gc} to
+ * see allocation rates.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 10, time = 15)
+public class PathIndexBench {
+
+    @Param({"1000000"})
+    public int paths;
+
+    @Param({"20"})
+    public int writePercent;
+
+    private ConcurrentHashMap<Long, Object> boxedIndex;
+    private ConcurrentLongObjectMap<Object> longIndex;
+
+    private final Object hash = new Object();
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        boxedIndex = new ConcurrentHashMap<>();
+        longIndex = new ConcurrentLongObjectMap<>();
+        for (long path = 0; path < paths; path += 2) {
+            boxedIndex.put(path, hash);
+            longIndex.put(path, hash);
+        }
+    }
+
+    @Benchmark
+    public void boxedMix(final Blackhole blackhole) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long path = random.nextLong(paths);
+        if (random.nextInt(100) < writePercent) {
+            blackhole.consume(boxedIndex.compute(path, (k, v) -> hash));
+        } else {
+            blackhole.consume(boxedIndex.get(path));
+        }
+    }
+
+    @Benchmark
+    public void primitiveMix(final Blackhole blackhole) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long path = random.nextLong(paths);
+        if (random.nextInt(100) < writePercent) {
+            blackhole.consume(longIndex.compute(path, (k, v) -> hash));
+        } else {
+            blackhole.consume(longIndex.get(path));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.hash; // NOSONAR: Needed to benchmark internal classes
+
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.config.api.ConfigurationBuilder;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import com.swirlds.virtualmap.test.fixtures.TestKey;
+import com.swirlds.virtualmap.test.fixtures.TestValue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the time to hash a virtual tree with the given number of randomly distributed dirty
+ * leaves. All clean nodes have the same hash. When {@code maxChunkHeight} is the same as {@code
+ * chunkHeight}, all hashing chunks are of the same height, otherwise chunk height is chosen based
+ * on dirty leaf density.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class VirtualHasherBench {
+
+    @Param({"2000000"})
+    public int leaves;
+
+    @Param({"10000", "100000", "1000000"})
+    public int dirtyLeaves;
+
+    @Param({"3"})
+    public int chunkHeight;
+
+    @Param({"3", "6"})
+    public int maxChunkHeight;
+
+    private long firstLeafPath;
+    private long lastLeafPath;
+
+    private VirtualMapConfig config;
+
+    private List<VirtualLeafRecord<TestKey, TestValue>> sortedDirtyLeaves;
+
+    private Hash cleanHash;
+
+    private final VirtualHasher<TestKey, TestValue> hasher = new VirtualHasher<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        firstLeafPath = leaves - 1;
+        lastLeafPath = 2L * leaves - 2;
+        config = ConfigurationBuilder.create()
+                .withConfigDataType(VirtualMapConfig.class)
+                .withValue("virtualMap.virtualHasherChunkHeight", String.valueOf(chunkHeight))
+                .withValue("virtualMap.virtualHasherMaxChunkHeight", String.valueOf(maxChunkHeight))
+                .build()
+                .getConfigData(VirtualMapConfig.class);
+        final Random random = new Random(dirtyLeaves);
+        final byte[] cleanHashBytes = new byte[DigestType.SHA_384.digestLength()];
+        random.nextBytes(cleanHashBytes);
+        cleanHash = new Hash(cleanHashBytes, DigestType.SHA_384);
+        // Every leaf is dirty with the same probability, leaves are sorted by path
+        sortedDirtyLeaves = new ArrayList<>(dirtyLeaves);
+        for (long i = 0; i < leaves; i++) {
+            if (random.nextInt(leaves) < dirtyLeaves) {
+                final long path = firstLeafPath + i;
+                sortedDirtyLeaves.add(new VirtualLeafRecord<>(path, new TestKey(i), new TestValue(i)));
+            }
+        }
+    }
+
+    @Benchmark
+    public void hash(final Blackhole blackhole) {
+        blackhole.consume(hasher.hash(
+                path -> cleanHash,
+                sortedDirtyLeaves.iterator(),
+                firstLeafPath,
+                lastLeafPath,
+                null,
+                config,
+                sortedDirtyLeaves.size()));
+    }
+}
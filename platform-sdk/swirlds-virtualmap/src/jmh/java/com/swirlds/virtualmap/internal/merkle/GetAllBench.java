@@ -0,0 +1,147 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.merkle; // NOSONAR: Needed to benchmark internal classes
+
+import static com.swirlds.virtualmap.test.fixtures.VirtualMapTestUtils.CONFIGURATION;
+
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
+import com.swirlds.virtualmap.datasource.VirtualLeafBytes;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import com.swirlds.virtualmap.internal.cache.VirtualNodeCache;
+import com.swirlds.virtualmap.test.fixtures.DummyVirtualStateAccessor;
+import com.swirlds.virtualmap.test.fixtures.InMemoryDataSource;
+import com.swirlds.virtualmap.test.fixtures.TestKey;
+import com.swirlds.virtualmap.test.fixtures.TestKeySerializer;
+import com.swirlds.virtualmap.test.fixtures.TestValue;
+import com.swirlds.virtualmap.test.fixtures.TestValueSerializer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares looking up a batch of leaf records one by one, like {@code VirtualMap.get()} does, with
+ * looking them up as a single batch, like {@code VirtualMap.getAll()} does. None of the leaves are
+ * in the node cache, so they're all read from the data source. MerkleDb isn't available in this
+ * module, so the data source simulates a fixed disk read latency for every leaf, and loads batches
+ * in parallel, the same way {@code MerkleDbDataSource} does.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class GetAllBench {
+
+    @Param({"8", "32", "128"})
+    public int batchSize;
+
+    @Param({"100000"})
+    public int leaves;
+
+    @Param({"50"})
+    public int readLatencyMicros;
+
+    private RecordAccessorImpl<TestKey, TestValue> records;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        final long firstLeafPath = leaves - 1;
+        final long lastLeafPath = 2L * leaves - 2;
+        final DummyVirtualStateAccessor state = new DummyVirtualStateAccessor();
+        state.setFirstLeafPath(firstLeafPath);
+        state.setLastLeafPath(lastLeafPath);
+        final SlowDataSource dataSource = new SlowDataSource(readLatencyMicros);
+        dataSource.saveRecords(
+                firstLeafPath,
+                lastLeafPath,
+                Stream.empty(),
+                LongStream.range(0, leaves)
+                        .mapToObj(i -> new VirtualLeafRecord<>(firstLeafPath + i, new TestKey(i), new TestValue(i))
+                                .toBytes(TestKeySerializer.INSTANCE, TestValueSerializer.INSTANCE)),
+                Stream.empty());
+        final VirtualNodeCache<TestKey, TestValue> cache =
+                new VirtualNodeCache<>(CONFIGURATION.getConfigData(VirtualMapConfig.class));
+        records = new RecordAccessorImpl<>(
+                state, cache, TestKeySerializer.INSTANCE, TestValueSerializer.INSTANCE, dataSource);
+    }
+
+    private List<TestKey> nextKeys() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final List<TestKey> keys = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            keys.add(new TestKey(random.nextLong(leaves)));
+        }
+        return keys;
+    }
+
+    @Benchmark
+    public void oneByOne(final Blackhole blackhole) {
+        for (final TestKey key : nextKeys()) {
+            blackhole.consume(records.findLeafRecord(key, false));
+        }
+    }
+
+    @Benchmark
+    public void batch(final Blackhole blackhole) {
+        blackhole.consume(records.findLeafRecords(nextKeys()));
+    }
+
+    /**
+     * An in-memory data source, which parks the calling thread for the given time on every leaf
+     * read by key.
+     */
+    private static final class SlowDataSource extends InMemoryDataSource {
+
+        private final long readLatencyNanos;
+
+        SlowDataSource(final int readLatencyMicros) {
+            super("GetAllBench");
+            this.readLatencyNanos = TimeUnit.MICROSECONDS.toNanos(readLatencyMicros);
+        }
+
+        @Override
+        public VirtualLeafBytes loadLeafRecord(final Bytes key, final int keyHashCode) throws IOException {
+            LockSupport.parkNanos(readLatencyNanos);
+            return super.loadLeafRecord(key, keyHashCode);
+        }
+
+        @Override
+        public VirtualLeafBytes[] loadLeafRecords(final Bytes[] keyBytes, final int[] keyHashCodes)
+                throws IOException {
+            final VirtualLeafBytes[] result = new VirtualLeafBytes[keyBytes.length];
+            try {
+                IntStream.range(0, keyBytes.length).parallel().forEach(i -> {
+                    try {
+                        result[i] = loadLeafRecord(keyBytes[i], keyHashCodes[i]);
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (final UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return result;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import com.swirlds.virtualmap.config.VirtualMapConfig;
 import com.swirlds.virtualmap.constructable.constructors.VirtualMapConstructor;
 import com.swirlds.virtualmap.datasource.VirtualDataSource;
 import com.swirlds.virtualmap.datasource.VirtualDataSourceBuilder;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
 import com.swirlds.virtualmap.internal.merkle.VirtualMapState;
 import com.swirlds.virtualmap.internal.merkle.VirtualRootNode;
 import com.swirlds.virtualmap.internal.merkle.VirtualStateAccessorImpl;
@@ -38,6 +39,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A {@link MerkleInternal} node that virtualizes all of its children, such that the child nodes
@@ -447,6 +451,51 @@ public final class VirtualMap<K extends VirtualKey, V extends VirtualValue> exte
         return root.get(key);
     }
 
+    /**
+     * Gets the values associated with the given keys. Keys not found in memory are loaded from
+     * disk as a single batch, which is faster than calling {@link #get(VirtualKey)} for every key.
+     *
+     * @param keys
+     * 		The keys. The list and its elements must not be null. Duplicate keys are allowed.
+     * @return The values, in the same order as the keys. Values may be null, or will be read only.
+     */
+    public List<V> getAll(final List<K> keys) {
+        return root.getAll(keys);
+    }
+
+    /**
+     * Creates a spliterator over all leaves in this map, in the order of leaf paths. Leaves are
+     * loaded in batches, and data sources may read them from disk in file order. The spliterator
+     * can be split for parallel traversal, for example, using {@link
+     * java.util.stream.StreamSupport#stream(Spliterator, boolean)}.
+     *
+     * <p>This map must be an immutable copy, and it must not be released while the spliterator
+     * is in use. Leaf records must not be modified. See {@link #leafStream(boolean)} for a stream
+     * that keeps this copy reserved till the stream is closed.
+     *
+     * @return the leaf spliterator
+     * @throws IllegalStateException if this map is mutable
+     */
+    public Spliterator<VirtualLeafRecord<K, V>> leafSpliterator() {
+        return root.leafSpliterator();
+    }
+
+    /**
+     * Creates a stream of all leaves in this map, see {@link #leafSpliterator()}. The virtual
+     * root of this map copy is reserved till the stream is closed, so the root stays alive even
+     * if the map is released in the meantime. The stream must always be closed, for example, in
+     * a try-with-resources block.
+     *
+     * @param parallel whether to create a parallel stream
+     * @return the leaf stream
+     * @throws IllegalStateException if this map is mutable
+     */
+    public Stream<VirtualLeafRecord<K, V>> leafStream(final boolean parallel) {
+        final Spliterator<VirtualLeafRecord<K, V>> spliterator = leafSpliterator();
+        root.reserve();
+        return StreamSupport.stream(spliterator, parallel).onClose(root::release);
+    }
+
     /**
      * Puts the key/value pair into the map. The key must not be null, but the value
      * may be null. The previous value, if it existed, is returned. If the entry was already in the map,
@@ -488,4 +537,46 @@ public final class VirtualMap<K extends VirtualKey, V extends VirtualValue> exte
     public void warm(final K key) {
         root.warm(key);
     }
+
+    /**
+     * Warms multiple keys as a single batch. See {@link #warm(VirtualKey)} for details. Keys are
+     * deduplicated, and disk reads for different keys are made in parallel.
+     *
+     * @param keys keys of the leaves to warm
+     */
+    public void warmAll(final List<K> keys) {
+        root.warmAll(keys);
+    }
+
+    /**
+     * Requests the leaf for the given key to be loaded in the background, for example, when the key is
+     * known from pre-handle results to be accessed when the current round is handled. Requests are
+     * deduplicated and processed with bounded concurrency. Prefetched leaves are kept in memory until
+     * they are accessed, or until they become stale: when the round after the current round is handled
+     * and this map is copied. Has no effect, if prefetching is disabled in {@link VirtualMapConfig}.
+     *
+     * @param key key of the leaf to prefetch
+     */
+    public void prefetch(final K key) {
+        root.prefetch(key);
+    }
+
+    /**
+     * Requests the leaf at the given path to be loaded in the background. See {@link #prefetch(VirtualKey)}
+     * for details.
+     *
+     * @param path path of the leaf to prefetch
+     */
+    public void prefetchPath(final long path) {
+        root.prefetchPath(path);
+    }
+
+    /**
+     * Cancels all pending prefetch requests and drops all prefetched leaves, which haven't been accessed
+     * yet. When this map is copied, only stale requests and leaves are cancelled automatically, see
+     * {@link #prefetch(VirtualKey)}.
+     */
+    public void cancelPrefetch() {
+        root.cancelPrefetch();
+    }
 }
@@ -69,6 +69,37 @@ import java.time.Duration;
  * 		increase the amount of time required to make a fast copy by this amount of time.
  * @param maximumFlushThrottlePeriod
  * 		The maximum amount of time that any virtual map fast copy will be delayed due to a flush backlog.
+ * @param virtualHasherMaxChunkHeight
+ *      The max number of ranks minus one to handle in a single virtual hasher task. When the number of dirty
+ *      leaves to hash is known, chunk height is chosen based on dirty leaf density, from {@link
+ *      #virtualHasherChunkHeight} (dense) to this value (sparse). If this value is not greater than {@link
+ *      #virtualHasherChunkHeight}, all chunks are of {@link #virtualHasherChunkHeight} height. The default is the
+ *      same as the default {@link #virtualHasherChunkHeight}, so adaptive chunk heights must be enabled explicitly.
+ * @param flushThrottleAdaptive
+ *      Whether to use adaptive flush throttling in addition to family size backpressure. If enabled, virtual
+ *      pipeline estimates flush throughput from recent flushes, predicts the time to flush all copies in the
+ *      pipeline, and slows down new copies when the predicted time exceeds {@link #flushThrottleTargetDrainTime}.
+ *      Adaptive pauses are never longer than {@link #maximumFlushThrottlePeriod}. Family size backpressure, see
+ *      {@link #familyThrottleThreshold}, is applied in both modes, copies are slowed down by the longer of the two
+ *      pauses.
+ * @param flushThrottleTargetDrainTime
+ *      Target time to flush all virtual root copies in the pipeline, used when {@link #flushThrottleAdaptive} is
+ *      enabled. New copies are slowed down proportionally to how much the predicted time exceeds this target.
+ * @param offHeapLeafValues
+ *      Whether to move values of dirty leaves to off-heap arenas, when virtual node cache copies are sealed. This
+ *      reduces the amount of long-living objects on heap, when many copies are waiting to be flushed, at the cost
+ *      of deserializing the values on every cache lookup for sealed copies. Arenas are allocated as direct byte
+ *      buffers, which count towards the JVM max direct memory size, and are freed by GC after the copies are
+ *      released.
+ * @param prefetchThreads
+ *      The max number of threads to prefetch virtual leaves from the data source, per virtual map. If zero,
+ *      prefetching is disabled, and {@link VirtualMap#warm(com.swirlds.virtualmap.VirtualKey)} loads leaves
+ *      synchronously. Otherwise, warmed and prefetched leaves are loaded in the background on a thread pool
+ *      owned by the virtual map, and kept in memory until the round after the current round is handled.
+ *      The thread pool is shut down, when the virtual map data source is closed.
+ * @param prefetchMaxRequests
+ *      The max number of live prefetch requests per virtual map, for the current and the previous rounds. Extra
+ *      prefetch requests are ignored.
  */
 @ConfigData("virtualMap")
 public record VirtualMapConfig(
@@ -90,7 +121,13 @@ public record VirtualMapConfig(
         @ConfigProperty(defaultValue = "2000000000") long familyThrottleThreshold,
         @ConfigProperty(defaultValue = "10000") int preferredFlushQueueSize,
         @ConfigProperty(defaultValue = "200ms") Duration flushThrottleStepSize,
-        @ConfigProperty(defaultValue = "5s") Duration maximumFlushThrottlePeriod) {
+        @ConfigProperty(defaultValue = "5s") Duration maximumFlushThrottlePeriod,
+        @Min(1) @Max(64) @ConfigProperty(defaultValue = "3") int virtualHasherMaxChunkHeight,
+        @ConfigProperty(defaultValue = "false") boolean flushThrottleAdaptive,
+        @ConfigProperty(defaultValue = "10s") Duration flushThrottleTargetDrainTime,
+        @ConfigProperty(defaultValue = "false") boolean offHeapLeafValues,
+        @Min(0) @ConfigProperty(defaultValue = "0") int prefetchThreads,
+        @Min(1) @ConfigProperty(defaultValue = "100000") int prefetchMaxRequests) {
 
     private static final double UNIT_FRACTION_PERCENT = 100.0;
 
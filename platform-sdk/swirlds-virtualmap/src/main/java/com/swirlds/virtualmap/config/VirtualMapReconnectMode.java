@@ -24,5 +24,12 @@ public final class VirtualMapReconnectMode {
      */
     public static final String PULL_TWO_PHASE_PESSIMISTIC = "pullTwoPhasePessimistic";
 
+    /**
+     * "Pull / hash summary" reconnect mode, when learner sends hashes of all nodes at a summary rank
+     * in a single request, and then only requests nodes in sub-trees which hashes differ from the
+     * teacher's. Requests are batched, so the teacher must support batched pull requests
+     */
+    public static final String PULL_HASH_SUMMARY = "pullHashSummary";
+
     private VirtualMapReconnectMode() {}
 }
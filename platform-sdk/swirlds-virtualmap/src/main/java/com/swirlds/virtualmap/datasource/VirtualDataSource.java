@@ -134,6 +134,33 @@ public interface VirtualDataSource {
     @Nullable
     VirtualLeafBytes loadLeafRecord(final Bytes keyBytes, final int keyHashCode) throws IOException;
 
+    /**
+     * Load virtual record bytes for multiple leaf nodes by keys. The result array has the same
+     * length as the key arrays. Every result element is the leaf record for the key at the same
+     * index, or null if the key is not stored.
+     *
+     * <p>Data sources may override this method to load records more efficiently than one by
+     * one, for example, to read records from disk in parallel or in the order of their location.
+     * This default implementation just calls {@link #loadLeafRecord(Bytes, int)} for every key.
+     *
+     * @param keyBytes the key bytes for the leaves
+     * @param keyHashCodes the key hash codes, must be of the same length as {@code keyBytes}
+     * @return the leaves' records, null elements for keys that are not stored
+     * @throws IOException if there was a problem reading leaf records
+     */
+    @NonNull
+    default VirtualLeafBytes[] loadLeafRecords(@NonNull final Bytes[] keyBytes, @NonNull final int[] keyHashCodes)
+            throws IOException {
+        if (keyBytes.length != keyHashCodes.length) {
+            throw new IllegalArgumentException("Keys and key hash codes must be of the same length");
+        }
+        final VirtualLeafBytes[] result = new VirtualLeafBytes[keyBytes.length];
+        for (int i = 0; i < keyBytes.length; i++) {
+            result[i] = loadLeafRecord(keyBytes[i], keyHashCodes[i]);
+        }
+        return result;
+    }
+
     /**
      * Load virtual record bytes for a leaf node by path. If the path is outside the current
      * data source's leaf path range, this method returns {@code null}.
@@ -145,6 +172,32 @@ public interface VirtualDataSource {
     @Nullable
     VirtualLeafBytes loadLeafRecord(final long path) throws IOException;
 
+    /**
+     * Load virtual record bytes for all leaf nodes in a path range. The result array has
+     * {@code lastPath - firstPath + 1} elements, the element at index {@code i} is the leaf
+     * record for path {@code firstPath + i}, or null if no leaf is stored for the path.
+     *
+     * <p>Data sources may override this method to load records more efficiently than one by
+     * one, for example, to read records from disk in the order of their location. This default
+     * implementation just calls {@link #loadLeafRecord(long)} for every path.
+     *
+     * @param firstPath the first path in the range, inclusive
+     * @param lastPath the last path in the range, inclusive
+     * @return the leaves' records, null elements for paths that are not stored
+     * @throws IOException if there was a problem reading leaf records
+     */
+    @NonNull
+    default VirtualLeafBytes[] loadLeafRecords(final long firstPath, final long lastPath) throws IOException {
+        if ((firstPath < 0) || (lastPath < firstPath) || (lastPath - firstPath >= Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("Invalid path range: " + firstPath + " - " + lastPath);
+        }
+        final VirtualLeafBytes[] result = new VirtualLeafBytes[Math.toIntExact(lastPath - firstPath + 1)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = loadLeafRecord(firstPath + i);
+        }
+        return result;
+    }
+
     /**
      * Find the path of the given key.
      *
@@ -10,6 +10,8 @@ import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
 import com.swirlds.virtualmap.internal.cache.VirtualNodeCache;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Provides access to all records.
@@ -66,6 +68,31 @@ public interface RecordAccessor<K extends VirtualKey, V extends VirtualValue> {
      */
     VirtualLeafRecord<K, V> findLeafRecord(final K key, final boolean copy);
 
+    /**
+     * Locates and returns leaf nodes for multiple keys. The result list has the same size as the
+     * list of keys. Every result element is the leaf for the key at the same index, or null if
+     * there is no leaf for the key. Leaves are not copied, and records loaded from the data source
+     * are not put to the cache, just like {@link #findLeafRecord(VirtualKey, boolean)} works with
+     * {@code copy} set to false.
+     *
+     * <p>This default implementation looks up the keys one by one. Implementations may override
+     * it to look up the keys more efficiently as a batch.
+     *
+     * @param keys
+     * 		The keys. Must not contain nulls.
+     * @return The leaves, null elements for keys that have no leaves.
+     * @throws UncheckedIOException
+     * 		If we fail to access the data store, then a catastrophic error occurred and
+     * 		an UncheckedIOException is thrown.
+     */
+    default List<VirtualLeafRecord<K, V>> findLeafRecords(final List<K> keys) {
+        final List<VirtualLeafRecord<K, V>> result = new ArrayList<>(keys.size());
+        for (final K key : keys) {
+            result.add(findLeafRecord(key, false));
+        }
+        return result;
+    }
+
     /**
      * Locates and returns a leaf node based on the path. If the leaf
      * node already exists in memory, then the same instance is returned each time.
@@ -84,6 +111,33 @@ public interface RecordAccessor<K extends VirtualKey, V extends VirtualValue> {
      */
     VirtualLeafRecord<K, V> findLeafRecord(final long path, final boolean copy);
 
+    /**
+     * Locates and returns leaf nodes for all paths in a range. The result list has
+     * {@code lastPath - firstPath + 1} elements, the element at index {@code i} is the leaf at
+     * path {@code firstPath + i}, or null if there is no leaf at the path. Leaves are not copied,
+     * and records loaded from the data source are not put to the cache, just like {@link
+     * #findLeafRecord(long, boolean)} works with {@code copy} set to false.
+     *
+     * <p>This default implementation looks up the paths one by one. Implementations may override
+     * it to look up the paths more efficiently as a batch.
+     *
+     * @param firstPath
+     * 		The first path in the range, inclusive
+     * @param lastPath
+     * 		The last path in the range, inclusive
+     * @return The leaves, null elements for paths that have no leaves.
+     * @throws UncheckedIOException
+     * 		If we fail to access the data store, then a catastrophic error occurred and
+     * 		an UncheckedIOException is thrown.
+     */
+    default List<VirtualLeafRecord<K, V>> findLeafRecords(final long firstPath, final long lastPath) {
+        final List<VirtualLeafRecord<K, V>> result = new ArrayList<>(Math.toIntExact(lastPath - firstPath + 1));
+        for (long path = firstPath; path <= lastPath; path++) {
+            result.add(findLeafRecord(path, false));
+        }
+        return result;
+    }
+
     /**
      * Finds the path of the given key.
      * @param key
@@ -0,0 +1,367 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent map from primitive {@code long} keys to object values, optimized for use by the
+ * {@link VirtualNodeCache} path indexes.
+ * <p>
+ * The {@link VirtualNodeCache} used to keep its path indexes in {@link java.util.concurrent.ConcurrentHashMap}s
+ * keyed by {@link Long}. Every update then boxed the path and allocated a map node, which on heavy rounds
+ * produced a lot of short-lived garbage. This class avoids both allocations: keys are stored in
+ * {@link AtomicLongArray}s and values in {@link AtomicReferenceArray}s using open addressing with linear
+ * probing.
+ * <p>
+ * The map is split into a fixed number of segments, each guarded by its own lock. Reads ({@link #get(long)})
+ * are lock-free. Writes ({@link #put(long, Object)} and {@link #compute(long, RemappingFunction)}) take the
+ * segment lock, so the remapping function is executed atomically with respect to other writes to the same
+ * segment, just like {@link java.util.concurrent.ConcurrentHashMap#compute}.
+ * <p>
+ * Removed entries keep their key slot and have a null value (a tombstone). If the key is added again later,
+ * the same slot is reused. Tombstones are dropped when a segment is resized.
+ * <p>
+ * Any key except {@code Long.MIN_VALUE} is supported. Keys are stored internally with the sign bit
+ * flipped, so that zero can be used as the "empty slot" marker.
+ *
+ * @param <V>
+ * 		the value type
+ */
+final class ConcurrentLongObjectMap<V> {
+
+    /**
+     * Number of segments. Must be a power of two.
+     */
+    private static final int SEGMENT_COUNT = 64;
+
+    /**
+     * Minimal capacity of a segment table. Must be a power of two.
+     */
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    /**
+     * Key slot value that marks an empty slot.
+     */
+    private static final long EMPTY = 0;
+
+    /**
+     * Map segments.
+     */
+    private final Segment<V>[] segments;
+
+    /**
+     * A function to compute a new value for a key, given its current value.
+     *
+     * @param <V>
+     * 		the value type
+     */
+    @FunctionalInterface
+    interface RemappingFunction<V> {
+        /**
+         * Computes a new value.
+         *
+         * @param key
+         * 		the key
+         * @param value
+         * 		the current value, or null if there is no value for the key
+         * @return the new value, or null to remove the key from the map
+         */
+        V apply(long key, V value);
+    }
+
+    /**
+     * A consumer of map entries, which may throw a checked exception.
+     *
+     * @param <V>
+     * 		the value type
+     * @param <E>
+     * 		the exception type
+     */
+    @FunctionalInterface
+    interface EntryConsumer<V, E extends Exception> {
+        /**
+         * Processes a single map entry.
+         *
+         * @param key
+         * 		the key
+         * @param value
+         * 		the value, never null
+         * @throws E
+         * 		if the entry cannot be processed
+         */
+        void accept(long key, V value) throws E;
+    }
+
+    /**
+     * Create a new map with a default capacity.
+     */
+    ConcurrentLongObjectMap() {
+        this(SEGMENT_COUNT * MIN_SEGMENT_CAPACITY);
+    }
+
+    /**
+     * Create a new map.
+     *
+     * @param initialCapacity
+     * 		the expected number of entries in the map
+     */
+    @SuppressWarnings("unchecked")
+    ConcurrentLongObjectMap(final int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity must not be negative");
+        }
+        final int segmentCapacity = tableCapacityFor(initialCapacity / SEGMENT_COUNT + 1);
+        segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    /**
+     * Get the value for the given key. This method is lock-free.
+     *
+     * @param key
+     * 		the key
+     * @return the value, or null if the map doesn't contain the key
+     */
+    V get(final long key) {
+        final long hash = hash(key);
+        return segmentFor(hash).get(toStoredKey(key), (int) hash);
+    }
+
+    /**
+     * Put a value for the given key.
+     *
+     * @param key
+     * 		the key
+     * @param value
+     * 		the value, must not be null
+     */
+    void put(final long key, final V value) {
+        if (value == null) {
+            throw new NullPointerException("Null values are not supported");
+        }
+        compute(key, (k, v) -> value);
+    }
+
+    /**
+     * Atomically compute a new value for the given key. If the function returns null, the key is
+     * removed from the map. The function is called while a segment lock is held, so it must be short
+     * and must not modify this map.
+     *
+     * @param key
+     * 		the key
+     * @param function
+     * 		the remapping function
+     * @return the new value, or null if the key was removed or not added
+     */
+    V compute(final long key, final RemappingFunction<V> function) {
+        if (key == Long.MIN_VALUE) {
+            throw new IllegalArgumentException("Unsupported key: " + key);
+        }
+        final long hash = hash(key);
+        return segmentFor(hash).compute(key, (int) hash, function);
+    }
+
+    /**
+     * Get the number of entries in the map. If the map is being modified concurrently, the result is
+     * an estimate.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        int size = 0;
+        for (final Segment<V> segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * Iterate over all entries in the map. Entries added or removed concurrently may or may not be visited.
+     *
+     * @param consumer
+     * 		the entry consumer
+     * @param <E>
+     * 		the type of exception thrown by the consumer
+     * @throws E
+     * 		if the consumer throws
+     */
+    <E extends Exception> void forEach(final EntryConsumer<V, E> consumer) throws E {
+        for (final Segment<V> segment : segments) {
+            final Table<V> table = segment.table;
+            for (int i = 0; i < table.keys.length(); i++) {
+                final long storedKey = table.keys.get(i);
+                if (storedKey == EMPTY) {
+                    continue;
+                }
+                final V value = table.values.get(i);
+                if (value != null) {
+                    consumer.accept(fromStoredKey(storedKey), value);
+                }
+            }
+        }
+    }
+
+    private Segment<V> segmentFor(final long hash) {
+        return segments[(int) (hash >>> 32) & (SEGMENT_COUNT - 1)];
+    }
+
+    private static long toStoredKey(final long key) {
+        return key ^ Long.MIN_VALUE;
+    }
+
+    private static long fromStoredKey(final long storedKey) {
+        return storedKey ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Spread the key bits. Paths are dense, sequential numbers, so without mixing they would fall into
+     * long runs of adjacent slots and make probe sequences long.
+     */
+    private static long hash(final long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 32);
+    }
+
+    /**
+     * Get a table capacity (a power of two) large enough to hold the given number of entries
+     * at a load factor of no more than 0.5.
+     */
+    private static int tableCapacityFor(final int entries) {
+        final int capacity = Integer.highestOneBit(Math.max(entries, 1) * 2 - 1) << 1;
+        return Math.max(capacity, MIN_SEGMENT_CAPACITY);
+    }
+
+    /**
+     * An open-addressing hash table. Tables are never resized in place; a segment replaces its table
+     * with a new one instead.
+     */
+    private static final class Table<V> {
+        /**
+         * Stored keys (see {@link #toStoredKey(long)}), or {@link #EMPTY} for free slots.
+         */
+        final AtomicLongArray keys;
+
+        /**
+         * Values. A slot with a key and a null value is a removed entry.
+         */
+        final AtomicReferenceArray<V> values;
+
+        final int mask;
+
+        Table(final int capacity) {
+            keys = new AtomicLongArray(capacity);
+            values = new AtomicReferenceArray<>(capacity);
+            mask = capacity - 1;
+        }
+    }
+
+    /**
+     * A single map segment.
+     */
+    private static final class Segment<V> extends ReentrantLock {
+
+        private volatile Table<V> table;
+
+        /**
+         * Number of live entries. Only modified under the lock.
+         */
+        private volatile int size;
+
+        /**
+         * Number of used key slots, including removed entries. Only accessed under the lock.
+         */
+        private int usedSlots;
+
+        Segment(final int capacity) {
+            table = new Table<>(capacity);
+        }
+
+        V get(final long storedKey, final int hash) {
+            final Table<V> t = table;
+            int slot = hash & t.mask;
+            while (true) {
+                final long k = t.keys.get(slot);
+                if (k == storedKey) {
+                    return t.values.get(slot);
+                }
+                if (k == EMPTY) {
+                    return null;
+                }
+                slot = (slot + 1) & t.mask;
+            }
+        }
+
+        V compute(final long key, final int hash, final RemappingFunction<V> function) {
+            final long storedKey = toStoredKey(key);
+            lock();
+            try {
+                Table<V> t = table;
+                int slot = hash & t.mask;
+                long k;
+                while ((k = t.keys.get(slot)) != EMPTY && k != storedKey) {
+                    slot = (slot + 1) & t.mask;
+                }
+                final V oldValue = (k == EMPTY) ? null : t.values.get(slot);
+                final V newValue = function.apply(key, oldValue);
+                if (newValue == oldValue) {
+                    return newValue;
+                }
+                if (k == EMPTY) {
+                    // New key. The value must be visible before the key, so lock-free readers never
+                    // see a key with a stale value from a previous table state
+                    t.values.set(slot, newValue);
+                    t.keys.set(slot, storedKey);
+                    usedSlots++;
+                    size++;
+                    if (usedSlots > (t.mask + 1) / 4 * 3) {
+                        rehash(t);
+                    }
+                } else {
+                    t.values.set(slot, newValue);
+                    if (oldValue == null) {
+                        size++;
+                    } else if (newValue == null) {
+                        size--;
+                    }
+                }
+                return newValue;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Replace the current table with a new one, which contains live entries only. Must be
+         * called under the lock.
+         */
+        private void rehash(final Table<V> old) {
+            final Table<V> t = new Table<>(tableCapacityFor(size));
+            int used = 0;
+            for (int i = 0; i <= old.mask; i++) {
+                final long storedKey = old.keys.get(i);
+                if (storedKey == EMPTY) {
+                    continue;
+                }
+                final V value = old.values.get(i);
+                if (value == null) {
+                    continue;
+                }
+                int slot = (int) hash(fromStoredKey(storedKey)) & t.mask;
+                while (t.keys.get(slot) != EMPTY) {
+                    slot = (slot + 1) & t.mask;
+                }
+                t.values.set(slot, value);
+                t.keys.set(slot, storedKey);
+                used++;
+            }
+            usedSlots = used;
+            table = t;
+        }
+    }
+}
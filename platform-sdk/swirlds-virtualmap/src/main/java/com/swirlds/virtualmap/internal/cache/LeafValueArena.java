@@ -0,0 +1,244 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import com.swirlds.virtualmap.VirtualValue;
+import com.swirlds.virtualmap.serialize.ValueSerializer;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An off-heap arena for dirty leaf data of a single {@link VirtualNodeCache} copy. When a cache
+ * copy is sealed, values of all its dirty leaves are written to the arena, and the cache only keeps
+ * compact handles to them: a chunk reference and an offset in the chunk.
+ * <p>
+ * The arena memory is allocated in chunks using direct byte buffers. Every entry is stored as
+ * leaf path (8 bytes), value length (4 bytes, -1 for null values), and serialized value bytes.
+ * Entries are written by a single thread. Once an entry is written and its handle is published
+ * to other threads, the entry is never changed, so it can be read concurrently.
+ * <p>
+ * Arenas are reference counted. The cache copy, which owns the arena, holds one reference. When the
+ * copy is merged, the reference is passed to the newer copy, which the mutations are merged into.
+ * Cache snapshots hold their own references. Every read from the arena also holds a reference, so
+ * the arena isn't freed while it's being read. When the last reference is released, the arena drops
+ * all its chunks, and they are freed by GC. After that, the arena can't be acquired anymore, and
+ * readers must look for the leaves elsewhere, e.g. in the data source.
+ *
+ * @param <V> The type of the virtual value
+ */
+final class LeafValueArena<V extends VirtualValue> {
+
+    /**
+     * Max chunk size. Larger entries are stored in dedicated chunks.
+     */
+    static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Entry header size: leaf path and value length.
+     */
+    static final int HEADER_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final ValueSerializer<V> valueSerializer;
+
+    /**
+     * Total size of all arenas of a virtual map, which are not freed yet. Shared by all arenas
+     * of the cache copies of the map.
+     */
+    private final AtomicLong totalAllocatedBytes;
+
+    /**
+     * Number of bytes expected to be written to this arena, but not written yet. Used to size
+     * chunks, so small cache copies don't allocate more memory than needed.
+     */
+    private long remainingCapacity;
+
+    /**
+     * The chunk to write new entries to. May be null, if nothing has been written yet.
+     */
+    private ByteBuffer currentChunk;
+
+    /**
+     * Total size of all chunks allocated by this arena.
+     */
+    private long allocatedBytes = 0;
+
+    /**
+     * All chunks allocated by this arena.
+     */
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+
+    /**
+     * Number of references to this arena. Initially, the only reference is held by the cache copy
+     * that creates the arena. When the number drops to zero, the arena is freed.
+     */
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    /**
+     * Create a new arena.
+     *
+     * @param valueSerializer
+     * 		Serializer to write values to the arena. Cannot be null.
+     * @param capacity
+     * 		The expected total size of all entries to be written to the arena, including entry headers
+     * @param totalAllocatedBytes
+     * 		Total size of arenas, which this arena's size is added to, and subtracted from when the arena
+     * 		is freed. Cannot be null.
+     */
+    LeafValueArena(
+            @NonNull final ValueSerializer<V> valueSerializer,
+            final long capacity,
+            @NonNull final AtomicLong totalAllocatedBytes) {
+        this.valueSerializer = requireNonNull(valueSerializer);
+        this.remainingCapacity = capacity;
+        this.totalAllocatedBytes = requireNonNull(totalAllocatedBytes);
+    }
+
+    /**
+     * Gets the size of an entry in the arena for a value of the given serialized size.
+     *
+     * @param valueSize
+     * 		Serialized value size, or -1 for null values
+     * @return Entry size, including its header
+     */
+    static int entrySize(final int valueSize) {
+        return HEADER_SIZE + Math.max(valueSize, 0);
+    }
+
+    /**
+     * Writes a leaf path and value to this arena. After this call, the entry can be accessed using
+     * {@link #currentChunk()} and the returned offset.
+     *
+     * @param path
+     * 		Leaf path
+     * @param value
+     * 		Leaf value, may be null
+     * @param valueSize
+     * 		Serialized value size, as reported by the value serializer, or -1 for null values
+     * @return The entry offset in {@link #currentChunk()}
+     */
+    int add(final long path, @Nullable final V value, final int valueSize) {
+        assert (value == null) == (valueSize < 0);
+        final int size = entrySize(valueSize);
+        if ((currentChunk == null) || (currentChunk.remaining() < size)) {
+            final int chunkSize = (int) Math.max(size, Math.min(remainingCapacity, MAX_CHUNK_SIZE));
+            currentChunk = ByteBuffer.allocateDirect(chunkSize);
+            chunks.add(currentChunk);
+            allocatedBytes += chunkSize;
+            totalAllocatedBytes.addAndGet(chunkSize);
+        }
+        final int offset = currentChunk.position();
+        currentChunk.putLong(offset, path);
+        currentChunk.putInt(offset + Long.BYTES, valueSize);
+        if (value != null) {
+            final BufferedData out = BufferedData.wrap(currentChunk.slice(offset + HEADER_SIZE, valueSize));
+            valueSerializer.serialize(value, out);
+            assert out.position() == valueSize : "Value serializer reported wrong value size";
+        }
+        currentChunk.position(offset + size);
+        remainingCapacity -= size;
+        return offset;
+    }
+
+    /**
+     * Gets the chunk, which the last entry was written to.
+     *
+     * @return The current chunk
+     */
+    ByteBuffer currentChunk() {
+        return currentChunk;
+    }
+
+    /**
+     * Gets the total size of all chunks allocated by this arena, in bytes.
+     *
+     * @return Allocated off-heap memory size
+     */
+    long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Acquires a reference to this arena. The arena isn't freed until the reference is released using
+     * {@link #release()}. This method may be called concurrently from multiple threads.
+     *
+     * @return true if the reference is acquired, false if the arena has already been freed
+     */
+    boolean acquire() {
+        int count = references.get();
+        while (count > 0) {
+            if (references.compareAndSet(count, count + 1)) {
+                return true;
+            }
+            count = references.get();
+        }
+        return false;
+    }
+
+    /**
+     * Releases a reference to this arena. When the last reference is released, the arena drops all
+     * its chunks, so they can be collected by GC. This method may be called concurrently from multiple
+     * threads.
+     */
+    void release() {
+        final int count = references.decrementAndGet();
+        assert count >= 0 : "Arena released too many times";
+        if (count == 0) {
+            chunks.clear();
+            currentChunk = null;
+            totalAllocatedBytes.addAndGet(-allocatedBytes);
+        }
+    }
+
+    /**
+     * Checks if this arena has been freed.
+     *
+     * @return true if all references to this arena have been released
+     */
+    boolean isFreed() {
+        return references.get() == 0;
+    }
+
+    /**
+     * Reads a leaf path from an arena chunk. This method may be called concurrently from multiple threads.
+     * The caller must hold a reference to the arena.
+     *
+     * @param chunk
+     * 		The chunk
+     * @param offset
+     * 		Entry offset in the chunk
+     * @return The leaf path
+     */
+    static long readPath(@NonNull final ByteBuffer chunk, final int offset) {
+        return chunk.getLong(offset);
+    }
+
+    /**
+     * Reads and deserializes a leaf value from an arena chunk. Every call returns a new value object.
+     * This method may be called concurrently from multiple threads. The caller must hold a reference
+     * to the arena.
+     *
+     * @param chunk
+     * 		The chunk
+     * @param offset
+     * 		Entry offset in the chunk
+     * @param valueSerializer
+     * 		Serializer to read the value
+     * @return The leaf value, may be null
+     * @param <V> The type of the virtual value
+     */
+    static <V extends VirtualValue> V readValue(
+            @NonNull final ByteBuffer chunk, final int offset, @NonNull final ValueSerializer<V> valueSerializer) {
+        final int valueSize = chunk.getInt(offset + Long.BYTES);
+        if (valueSize < 0) {
+            return null;
+        }
+        return valueSerializer.deserialize(BufferedData.wrap(chunk.slice(offset + HEADER_SIZE, valueSize)));
+    }
+}
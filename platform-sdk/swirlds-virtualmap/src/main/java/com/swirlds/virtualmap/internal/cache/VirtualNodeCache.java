@@ -24,10 +24,20 @@ import com.swirlds.virtualmap.config.VirtualMapConfig;
 import com.swirlds.virtualmap.constructable.constructors.VirtualNodeCacheConstructor;
 import com.swirlds.virtualmap.datasource.VirtualHashRecord;
 import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import com.swirlds.virtualmap.serialize.ValueSerializer;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -38,6 +48,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -172,6 +183,19 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         return cleaningPool;
     }
 
+    private static Cleaner arenaCleaner = null;
+
+    /**
+     * Gets the cleaner to release off-heap arena references of cache copies and snapshots, which are
+     * collected by GC without being released. The cleaner is created on first use.
+     */
+    private static synchronized Cleaner getArenaCleaner() {
+        if (arenaCleaner == null) {
+            arenaCleaner = Cleaner.create();
+        }
+        return arenaCleaner;
+    }
+
     /**
      * The fast-copyable version of the cache. This version number is auto-incrementing and set
      * at construction time and cannot be changed, unless the cache is created through deserialization,
@@ -214,14 +238,24 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * <p>
      * <strong>ONE PER CHAIN OF CACHES</strong>.
      */
-    private final Map<Long, Mutation<Long, K>> pathToDirtyLeafIndex;
+    private final ConcurrentLongObjectMap<Mutation<Long, K>> pathToDirtyLeafIndex;
 
     /**
      * A shared index of paths to internals, via {@link Mutation}s. Works the same as {@link #keyToDirtyLeafIndex}.
      * <p>
      * <strong>ONE PER CHAIN OF CACHES</strong>.
      */
-    private final Map<Long, Mutation<Long, Hash>> pathToDirtyHashIndex;
+    private final ConcurrentLongObjectMap<Mutation<Long, Hash>> pathToDirtyHashIndex;
+
+    /**
+     * A shared read-through cache of leaf records prefetched from the data source. A record is only kept
+     * here while there are no mutations for its key in the cache, so it always matches the data source.
+     * Records are removed, when they are used, when their keys are modified, or when the cache is
+     * cleared, see {@link #clearPrefetchedLeaves()}.
+     * <p>
+     * <strong>ONE PER CHAIN OF CACHES</strong>.
+     */
+    private final Map<K, VirtualLeafRecord<K, V>> prefetchedLeaves;
 
     /**
      * Whether this instance is released. A released cache is often the last in the
@@ -310,10 +344,48 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      */
     private final AtomicLong lastReleased;
 
+    /**
+     * The oldest fast copy version of all cache copies merged into this copy, or this copy's version, if
+     * no copies have been merged into it. All mutations in the arrays of this copy have versions in the
+     * range from this version to {@link #fastCopyVersion}, inclusive.
+     */
+    private final AtomicLong oldestMergedVersion = new AtomicLong();
+
     /** Platform configuration for VirtualMap */
     @NonNull
     private final VirtualMapConfig virtualMapConfig;
 
+    /**
+     * Serializer used to store dirty leaf values off-heap, when {@link VirtualMapConfig#offHeapLeafValues()}
+     * is enabled. Shared by all copies in the chain. If null, leaf values are always kept on heap.
+     */
+    private volatile ValueSerializer<V> valueSerializer;
+
+    /**
+     * Indicates whether values of dirty leaves of this cache copy have been moved off-heap. This is done
+     * once, when the copy is sealed.
+     */
+    private final AtomicBoolean leafValuesOffHeap = new AtomicBoolean(false);
+
+    /**
+     * Total size of off-heap arenas of all copies in the chain, which are not freed yet, in bytes.
+     * Shared by all copies in the chain.
+     */
+    private final AtomicLong leafValueArenaBytes;
+
+    /**
+     * Off-heap arenas referenced by this cache copy: the arena of this copy, arenas of all copies
+     * merged into this copy, or, if this copy is a snapshot, arenas of all snapshot leaves. The
+     * references are released when this copy is released.
+     */
+    private final ArenaReferences arenaReferences = new ArenaReferences();
+
+    /**
+     * Releases {@link #arenaReferences}, either explicitly on {@link #release()}, or when this copy
+     * is collected by GC. Registered when the first arena reference is added.
+     */
+    private Cleaner.Cleanable arenaCleanable = null;
+
     /**
      * Create a new VirtualNodeCache. The cache will be the first in the chain. It will get a
      * fastCopyVersion of zero, and create the shared data structures.
@@ -333,11 +405,14 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      */
     public VirtualNodeCache(final @NonNull VirtualMapConfig virtualMapConfig, long fastCopyVersion) {
         this.keyToDirtyLeafIndex = new ConcurrentHashMap<>();
-        this.pathToDirtyLeafIndex = new ConcurrentHashMap<>();
-        this.pathToDirtyHashIndex = new ConcurrentHashMap<>();
+        this.pathToDirtyLeafIndex = new ConcurrentLongObjectMap<>();
+        this.pathToDirtyHashIndex = new ConcurrentLongObjectMap<>();
+        this.prefetchedLeaves = new ConcurrentHashMap<>();
         this.releaseLock = new ReentrantLock();
         this.lastReleased = new AtomicLong(-1L);
+        this.leafValueArenaBytes = new AtomicLong(0L);
         this.fastCopyVersion.set(fastCopyVersion);
+        this.oldestMergedVersion.set(fastCopyVersion);
         this.virtualMapConfig = requireNonNull(virtualMapConfig);
     }
 
@@ -355,14 +430,18 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
     private VirtualNodeCache(final VirtualNodeCache<K, V> source) {
         // Make sure this version is exactly 1 greater than source
         this.fastCopyVersion.set(source.fastCopyVersion.get() + 1);
+        this.oldestMergedVersion.set(fastCopyVersion.get());
 
         // Get a reference to the shared data structures
         this.keyToDirtyLeafIndex = source.keyToDirtyLeafIndex;
         this.pathToDirtyLeafIndex = source.pathToDirtyLeafIndex;
         this.pathToDirtyHashIndex = source.pathToDirtyHashIndex;
+        this.prefetchedLeaves = source.prefetchedLeaves;
         this.releaseLock = source.releaseLock;
         this.lastReleased = source.lastReleased;
+        this.leafValueArenaBytes = source.leafValueArenaBytes;
         this.virtualMapConfig = source.virtualMapConfig;
+        this.valueSerializer = source.valueSerializer;
 
         // The source now has immutable leaves and mutable internals
         source.prepareForHashing();
@@ -384,6 +463,18 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         return new VirtualNodeCache<>(this);
     }
 
+    /**
+     * Sets the serializer to store dirty leaf values off-heap. This serializer is inherited by all
+     * subsequent copies of this cache. If {@link VirtualMapConfig#offHeapLeafValues()} is disabled,
+     * the serializer is not used.
+     *
+     * @param valueSerializer
+     * 		The value serializer. Cannot be null.
+     */
+    public void setValueSerializer(@NonNull final ValueSerializer<V> valueSerializer) {
+        this.valueSerializer = requireNonNull(valueSerializer);
+    }
+
     /**
      * Makes the cache immutable for leaf changes, but mutable for internal node changes.
      * This method call is idempotent.
@@ -453,6 +544,10 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         purge(dirtyLeafPaths, pathToDirtyLeafIndex, virtualMapConfig);
         purge(dirtyHashes, pathToDirtyHashIndex, virtualMapConfig);
 
+        // All leaves of this copy and copies merged into it have been flushed, so their arenas can
+        // be freed. Concurrent lookups of these leaves fall back to the data source
+        releaseArenaReferences();
+
         dirtyLeaves = null;
         dirtyLeafPaths = null;
         dirtyHashes = null;
@@ -473,13 +568,21 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * Merges this cache with the one that is just-newer.
      * This cache will be removed from the chain and become available for garbage collection. Both this
      * cache and the one it is being merged into <strong>must</strong> be sealed (full immutable).
+     * <p>
+     * Every cache copy, together with all copies merged into it, is a generation of mutations. Within a
+     * generation, only the latest mutation for every key or path is not marked as filtered. When two
+     * adjacent generations are merged, mutations of this (older) generation, which are overridden by
+     * mutations of the newer generation, are marked as filtered. To find them, only the smaller of the two
+     * generations is scanned. Filtered mutations are then skipped on flushes and on purges.
      *
+     * @return the number of mutations scanned to find overridden mutations
      * @throws IllegalStateException
      * 		if there is nothing to merge into, or if both this cache and the one
      * 		it is merging into are not sealed.
      */
-    public void merge() {
+    public long merge() {
         releaseLock.lock();
+        long scanned = 0;
         try {
             // We only permit you to merge a cache if it is no longer being used for hashing.
             final VirtualNodeCache<K, V> p = prev.get();
@@ -489,15 +592,25 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
                 throw new IllegalStateException("You can only merge caches that are sealed");
             }
 
-            // Merge my mutations into the previous (newer) cache's arrays.
-            // This operation has a high probability of producing override mutations. That is, two mutations
-            // for the same key/path but with different versions. Before returning to a caller a stream of
-            // dirty leaves or dirty hashes, the stream must be sorted (which we had to do anyway) and
-            // deduplicated. But it makes for a _VERY FAST_ merge operation.
+            // Mark my mutations, which are overridden by mutations in the previous (newer) cache. After
+            // that, within the merged generation there is only one mutation per key/path, which is not
+            // filtered, so there is no need to deduplicate dirty leaves and hashes on flush
+            final long newerVersion = p.fastCopyVersion.get();
+            scanned += filterOverriddenMutations(dirtyLeaves, p.dirtyLeaves, keyToDirtyLeafIndex::get, newerVersion);
+            scanned += filterOverriddenMutations(
+                    dirtyLeafPaths, p.dirtyLeafPaths, pathToDirtyLeafIndex::get, newerVersion);
+            scanned +=
+                    filterOverriddenMutations(dirtyHashes, p.dirtyHashes, pathToDirtyHashIndex::get, newerVersion);
+
+            // Merge my mutations into the previous (newer) cache's arrays. Arrays are just linked together,
+            // so it makes for a _VERY FAST_ merge operation.
             p.dirtyLeaves.merge(dirtyLeaves);
             p.dirtyLeafPaths.merge(dirtyLeafPaths);
             p.dirtyHashes.merge(dirtyHashes);
             p.mergedCopy.set(true);
+            p.oldestMergedVersion.set(oldestMergedVersion.get());
+            // My mutations are now owned by the previous (newer) cache, so are their arenas
+            p.addArenaReferences(arenaReferences.removeAll());
 
             // Remove this cache from the chain and wire the prev and next caches together.
             // This will allow this cache to be garbage collected.
@@ -514,11 +627,84 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
                         dirtyHashes.seal());
             }
         }
+        return scanned;
+    }
+
+    /**
+     * Marks mutations from the given array of this cache, which are overridden by mutations from the given
+     * array of the just-newer cache, as filtered. A mutation is overridden, if there is a newer mutation for
+     * the same key/path with a version not greater than the newer cache version. Only the smaller of the two
+     * arrays is scanned:
+     * <ul>
+     *     <li>If the newer array is smaller, the next (the just-older) mutation is checked for every mutation
+     *     in the newer array. If it belongs to this cache generation, it's overridden.</li>
+     *     <li>Otherwise, for every mutation in this cache array, which isn't filtered yet, the mutation list
+     *     is checked from its head to the mutation. If there is a mutation not newer than the newer cache
+     *     version, the mutation is overridden.</li>
+     * </ul>
+     *
+     * @param mutations
+     * 		Mutations of this cache
+     * @param newerMutations
+     * 		Mutations of the just-newer cache
+     * @param index
+     * 		Function to get the head of the mutation list by key
+     * @param newerVersion
+     * 		The just-newer cache version
+     * @param <K1> The key type held by the mutations. Either a Key or a path.
+     * @param <V1> The value type held by the mutations.
+     * @return the number of scanned mutations
+     */
+    private <K1, V1> int filterOverriddenMutations(
+            final ConcurrentArray<Mutation<K1, V1>> mutations,
+            final ConcurrentArray<Mutation<K1, V1>> newerMutations,
+            final Function<K1, Mutation<K1, V1>> index,
+            final long newerVersion) {
+        final long firstVersion = oldestMergedVersion.get();
+        final long lastVersion = fastCopyVersion.get();
+        final ConcurrentArray<Mutation<K1, V1>> scanned;
+        final Consumer<Mutation<K1, V1>> action;
+        if (newerMutations.size() <= mutations.size()) {
+            scanned = newerMutations;
+            action = mutation -> {
+                // local variable is required because mutation.next can be changed by another thread to null
+                final Mutation<K1, V1> nextMutation = mutation.next;
+                if ((nextMutation != null)
+                        && (nextMutation.version >= firstVersion)
+                        && (nextMutation.version <= lastVersion)) {
+                    nextMutation.setFiltered();
+                }
+            };
+        } else {
+            scanned = mutations;
+            action = mutation -> {
+                if (mutation.isFiltered()) {
+                    return;
+                }
+                // Mutation lists are sorted by version, the newest first
+                for (Mutation<K1, V1> m = index.apply(mutation.key); (m != null) && (m != mutation); m = m.next) {
+                    if (m.version <= newerVersion) {
+                        mutation.setFiltered();
+                        break;
+                    }
+                }
+            };
+        }
+        try {
+            scanned.parallelTraverse(getCleaningPool(virtualMapConfig), action).getAndRethrow();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PlatformException("VirtualNodeCache.merge() interrupted", e, EXCEPTION);
+        }
+        return scanned.size();
     }
 
     /**
      * Seals this cache, making it immutable. A sealed cache can still be merged with another sealed
      * cache.
+     * <p>
+     * If {@link VirtualMapConfig#offHeapLeafValues()} is enabled, values of dirty leaves of this cache
+     * copy are moved to an off-heap arena, see {@link #moveLeafValuesOffHeap()}.
      */
     public void seal() {
         leafIndexesAreImmutable.set(true);
@@ -526,6 +712,9 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         dirtyLeaves.seal();
         dirtyHashes.seal();
         dirtyLeafPaths.seal();
+        if (virtualMapConfig.offHeapLeafValues() && !snapshot.get() && leafValuesOffHeap.compareAndSet(false, true)) {
+            moveLeafValuesOffHeap();
+        }
     }
 
     // --------------------------------------------------------------------------------------------
@@ -573,7 +762,12 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
 
         // Get the first data element (mutation) in the list based on the key,
         // and then create or update the associated mutation.
-        return keyToDirtyLeafIndex.compute(key, (k, mutations) -> mutate(leaf, mutations)).value;
+        final VirtualLeafRecord<K, V> result =
+                keyToDirtyLeafIndex.compute(key, (k, mutations) -> mutate(leaf, mutations)).value;
+        // The prefetched record, if any, is now obsolete. It must be removed after the mutation
+        // is added, see putPrefetchedLeaf()
+        prefetchedLeaves.remove(key);
+        return result;
     }
 
     /**
@@ -607,6 +801,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             assert pathToDirtyLeafIndex.get(leaf.getPath()).isDeleted() : "It should be deleted too";
             return mutations;
         });
+        prefetchedLeaves.remove(key);
     }
 
     /**
@@ -685,14 +880,19 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         // create a new value and a new mutation and return the new mutation.
         if (forModify && mutation.version < fastCopyVersion.get()) {
             assert !leafIndexesAreImmutable.get() : "You cannot create leaf records at this time!";
+            final VirtualLeafRecord<K, V> mutationLeaf = leafOf(mutation);
+            if (mutationLeaf == null) {
+                // The leaf arena has just been freed, the leaf is in the data source
+                return null;
+            }
             @SuppressWarnings("unchecked")
             final VirtualLeafRecord<K, V> leaf =
-                    new VirtualLeafRecord<>(mutation.value.getPath(), mutation.value.getKey(), (V)
-                            mutation.value.getValue().copy());
+                    new VirtualLeafRecord<>(mutationLeaf.getPath(), mutationLeaf.getKey(), (V)
+                            mutationLeaf.getValue().copy());
             return putLeaf(leaf);
         }
 
-        return mutation.value;
+        return leafOf(mutation);
     }
 
     /**
@@ -759,7 +959,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         if (mergedCopy.get()) {
             throw new IllegalStateException("Cannot get dirty leaves for hashing on a merged cache copy");
         }
-        final Stream<VirtualLeafRecord<K, V>> result = dirtyLeaves(firstLeafPath, lastLeafPath, false);
+        final Stream<VirtualLeafRecord<K, V>> result = dirtyLeaves(firstLeafPath, lastLeafPath);
         return result.sorted(Comparator.comparingLong(VirtualLeafRecord::getPath));
     }
 
@@ -775,7 +975,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      *      A stream of dirty leaves for flushes
      */
     public Stream<VirtualLeafRecord<K, V>> dirtyLeavesForFlush(final long firstLeafPath, final long lastLeafPath) {
-        return dirtyLeaves(firstLeafPath, lastLeafPath, true);
+        return dirtyLeaves(firstLeafPath, lastLeafPath);
     }
 
     /**
@@ -786,7 +986,9 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * This method is called for two purposes. First, to get dirty leaves to hash a single virtual map copy. The
      * resulting stream is expected to be sorted. No duplicate entries are expected in this case, as within a
      * single version there may not be duplicates. Second, to get dirty leaves to flush them to disk. In this
-     * case, the stream doesn't need to be sorted, but there may be duplicated entries from different versions.
+     * case, the stream doesn't need to be sorted. Mutations from different versions for the same key are
+     * deduplicated when cache copies are merged: all but the latest are marked as filtered, see {@link #merge()}.
+     * Filtered mutations are skipped, so no deduplication is needed here.
      *
      * <p>
      * This method may be called concurrently from multiple threads (although in practice, this should never happen).
@@ -799,31 +1001,21 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * 		The last leaf path to receive in the results. It is possible, through merging of multiple rounds,
      * 		for the data to have leaf data that is outside the expected range for the {@link VirtualMap} of
      * 		this cache. We need to provide the leaf boundaries to compensate for this.
-     * 	@param dedupe
-     *      Indicates if the duplicated entries should be removed from the stream
      * @return A non-null stream of dirty leaves. May be empty. Will not contain duplicate records
      * @throws MutabilityException if called on a cache that still allows dirty leaves to be added
      */
-    private Stream<VirtualLeafRecord<K, V>> dirtyLeaves(
-            final long firstLeafPath, final long lastLeafPath, final boolean dedupe) {
+    private Stream<VirtualLeafRecord<K, V>> dirtyLeaves(final long firstLeafPath, final long lastLeafPath) {
         if (!dirtyLeaves.isImmutable()) {
             throw new MutabilityException("Cannot call on a cache that is still mutable for dirty leaves");
         }
-        if (dedupe) {
-            // Mark obsolete mutations to filter later
-            filterMutations(dirtyLeaves, virtualMapConfig);
-        }
         return dirtyLeaves.stream()
+                .filter(mutation -> !mutation.isFiltered())
                 .filter(mutation -> {
-                    final long path = mutation.value.getPath();
+                    final long path = leafPathOf(mutation);
                     return path >= firstLeafPath && path <= lastLeafPath;
                 })
-                .filter(mutation -> {
-                    assert dedupe || !mutation.isFiltered();
-                    return !mutation.isFiltered();
-                })
                 .filter(mutation -> !mutation.isDeleted())
-                .map(mutation -> mutation.value);
+                .map(this::leafOf);
     }
 
     /**
@@ -868,6 +1060,122 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         return leaves.values().stream();
     }
 
+    /**
+     * Gets the version of the last released cache in this chain of caches, or -1, if no caches have
+     * been released yet. Caches are released after they are flushed to the data source, so this
+     * version changes every time mutations are moved from the cache to the data source.
+     *
+     * @return The last released version
+     */
+    public long getLastReleasedVersion() {
+        return lastReleased.get();
+    }
+
+    /**
+     * Checks whether there are any mutations for the given key in this chain of caches, including
+     * mutations in newer copies and mutations for deleted leaves.
+     * <p>
+     * This method may be called concurrently from multiple threads.
+     *
+     * @param key
+     * 		The key. Cannot be null.
+     * @return Whether the key has mutations in the cache
+     */
+    public boolean hasLeafMutations(final K key) {
+        return keyToDirtyLeafIndex.containsKey(key);
+    }
+
+    /**
+     * Checks whether there are any leaf mutations for the given path in this chain of caches,
+     * including mutations in newer copies and mutations for cleared paths.
+     * <p>
+     * This method may be called concurrently from multiple threads.
+     *
+     * @param path
+     * 		The leaf path
+     * @return Whether the path has leaf mutations in the cache
+     */
+    public boolean hasLeafPathMutations(final long path) {
+        return pathToDirtyLeafIndex.get(path) != null;
+    }
+
+    /**
+     * Puts a leaf record loaded from the data source to the prefetched leaves cache. The record is
+     * only kept, if there are no mutations for its key in the cache, and no caches have been released
+     * since the record was loaded. Otherwise, the record may not match the latest leaf for its key.
+     * <p>
+     * A record is first put to the prefetched leaves, and only then the cache is checked for mutations,
+     * while {@link #putLeaf(VirtualLeafRecord)} and {@link #deleteLeaf(VirtualLeafRecord)} first add
+     * mutations and then remove prefetched records. This guarantees that a record, which doesn't match
+     * the latest mutation, is never left in the prefetched leaves.
+     * <p>
+     * This method may be called concurrently from multiple threads.
+     *
+     * @param leaf
+     * 		The leaf record loaded from the data source. Cannot be null.
+     * @param lastReleasedVersion
+     * 		The last released version, see {@link #getLastReleasedVersion()}, as it was before the
+     * 		record was loaded from the data source
+     * @return Whether the record was added to the prefetched leaves
+     */
+    public boolean putPrefetchedLeaf(final VirtualLeafRecord<K, V> leaf, final long lastReleasedVersion) {
+        requireNonNull(leaf);
+        final K key = leaf.getKey();
+        if (prefetchedLeaves.putIfAbsent(key, leaf) != null) {
+            return false;
+        }
+        if (keyToDirtyLeafIndex.containsKey(key) || (lastReleased.get() != lastReleasedVersion)) {
+            prefetchedLeaves.remove(key, leaf);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gets a prefetched leaf record for the given key, without removing it from the prefetched leaves.
+     * Callers must look up the key using {@link #lookupLeafByKey(Object, boolean)} first, prefetched
+     * records are only valid for keys without mutations in the cache.
+     * <p>
+     * This method may be called concurrently from multiple threads.
+     *
+     * @param key
+     * 		The key. Cannot be null.
+     * @return The prefetched leaf record, or null if the key hasn't been prefetched
+     */
+    public VirtualLeafRecord<K, V> lookupPrefetchedLeaf(final K key) {
+        return prefetchedLeaves.get(key);
+    }
+
+    /**
+     * Gets a prefetched leaf record for the given key and removes it from the prefetched leaves.
+     * Callers must look up the key using {@link #lookupLeafByKey(Object, boolean)} first, prefetched
+     * records are only valid for keys without mutations in the cache.
+     * <p>
+     * This method may be called concurrently from multiple threads.
+     *
+     * @param key
+     * 		The key. Cannot be null.
+     * @return The prefetched leaf record, or null if the key hasn't been prefetched
+     */
+    public VirtualLeafRecord<K, V> takePrefetchedLeaf(final K key) {
+        return prefetchedLeaves.remove(key);
+    }
+
+    /**
+     * Removes all prefetched leaf records.
+     *
+     * @return The number of removed records
+     */
+    public int clearPrefetchedLeaves() {
+        int removed = 0;
+        for (final Iterator<K> it = prefetchedLeaves.keySet().iterator(); it.hasNext(); ) {
+            it.next();
+            it.remove();
+            removed++;
+        }
+        return removed;
+    }
+
     // --------------------------------------------------------------------------------------------
     // API for caching internal nodes.
     //
@@ -996,8 +1304,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         if (!dirtyHashes.isImmutable()) {
             throw new MutabilityException("Cannot get the dirty internal records for a non-sealed cache.");
         }
-        // Mark obsolete mutations to filter later
-        filterMutations(dirtyHashes, virtualMapConfig);
+        // Obsolete mutations are marked as filtered on merges, see merge()
         return dirtyHashes.stream()
                 .filter(mutation -> mutation.key <= lastLeafPath)
                 .filter(mutation -> !mutation.isFiltered())
@@ -1089,13 +1396,27 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             setMapSnapshotAndArray(
                     this.pathToDirtyLeafIndex, newSnapshot.pathToDirtyLeafIndex, newSnapshot.dirtyLeafPaths);
             setMapSnapshotAndArray(this.keyToDirtyLeafIndex, newSnapshot.keyToDirtyLeafIndex, newSnapshot.dirtyLeaves);
+            // The snapshot may outlive the copies, which own arenas of its leaves. Arenas of released
+            // copies can't be acquired here, since leaves of released versions aren't in the snapshot
+            newSnapshot.addArenaReferences(acquireArenas(newSnapshot.dirtyLeaves));
             newSnapshot.snapshot.set(true);
+            newSnapshot.valueSerializer = this.valueSerializer;
             newSnapshot.fastCopyVersion.set(this.fastCopyVersion.get());
             newSnapshot.seal();
             return newSnapshot;
         }
     }
 
+    /**
+     * Gets the total size of off-heap arenas of all copies of this cache, which are not freed yet.
+     * Arenas are only used if {@link VirtualMapConfig#offHeapLeafValues()} is enabled.
+     *
+     * @return The size of off-heap arenas, in bytes
+     */
+    public long getLeafValueArenaSize() {
+        return leafValueArenaBytes.get();
+    }
+
     // --------------------------------------------------------------------------------------------
     // Private helper methods.
     //
@@ -1180,7 +1501,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
     private <V1> void updatePaths(
             final V1 value,
             final long path,
-            final Map<Long, Mutation<Long, V1>> index,
+            final ConcurrentLongObjectMap<Mutation<Long, V1>> index,
             final ConcurrentArray<Mutation<Long, V1>> dirtyPaths) {
         index.compute(path, (key, mutation) -> {
             // If there is no mutation or the mutation isn't for this version, then we need to create a new mutation.
@@ -1266,7 +1587,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
 
             // Create a new mutation
             final Mutation<K, VirtualLeafRecord<K, V>> newerMutation =
-                    new Mutation<>(mutation, leaf.getKey(), leaf, fastCopyVersion.get());
+                    newLeafMutation(mutation, leaf, fastCopyVersion.get());
             dirtyLeaves.add(newerMutation);
             mutation = newerMutation;
         } else if (mutation.value != leaf) {
@@ -1303,55 +1624,64 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             @NonNull final VirtualMapConfig virtualMapConfig) {
         array.parallelTraverse(
                 getCleaningPool(virtualMapConfig),
-                element -> index.compute(element.key, (key, mutation) -> {
-                    if (mutation == null || element.equals(mutation)) {
-                        // Already removed for a more recent mutation
-                        return null;
+                element -> {
+                    // Filtered mutations are overridden by newer mutations from the same array. They are
+                    // removed from the index, when the newer mutations are purged
+                    if (element.isFiltered()) {
+                        return;
                     }
-                    for (Mutation<K, V> m = mutation; m.next != null; m = m.next) {
-                        if (element.equals(m.next)) {
-                            m.next = null;
-                            break;
+                    index.compute(element.key, (key, mutation) -> {
+                        if (mutation == null || element.equals(mutation)) {
+                            // Already removed for a more recent mutation
+                            return null;
                         }
-                    }
-                    return mutation;
-                }));
+                        for (Mutation<K, V> m = mutation; m.next != null; m = m.next) {
+                            if (element.equals(m.next)) {
+                                m.next = null;
+                                break;
+                            }
+                        }
+                        return mutation;
+                    });
+                });
     }
 
     /**
-     * Node cache contains lists of hash and leaf mutations for every cache version. When caches
-     * are merged, the lists are merged, too. To make merges very fast, duplicates aren't removed
-     * from the lists on merge. On flush / hash, no duplicates are allowed, so duplicated entries
-     * need to be removed.
-     *
-     * <p>This method iterates over the given list of mutations and marks all obsolete mutations
-     * as filtered. Later all marked mutations can be easily removed. A mutation is considered
-     * obsolete, if there is a newer mutation for the same key.
-     *
-     * BE AWARE: this method is called from the other NON-static method with providing the configuration.
+     * Same as {@link #purge(ConcurrentArray, Map, VirtualMapConfig)}, but for path indexes.
      *
-     * @param array the list of mutations to process
-     * @param <K>
-     * 		The key type used in the index
+     * @param array
+     * 		The mutations to purge from the index
+     * @param index
+     * 		The index to look through for entries to purge
      * @param <V>
      * 		The value type referenced by the mutation list
      */
-    private static <K, V> void filterMutations(
-            final ConcurrentArray<Mutation<K, V>> array, @NonNull final VirtualMapConfig virtualMapConfig) {
-        final Consumer<Mutation<K, V>> action = mutation -> {
-            // local variable is required because mutation.next can be changed by another thread to null
-            // see https://github.com/hashgraph/hedera-services/issues/7046 for the context
-            final Mutation<K, V> nextMutation = mutation.next;
-            if (nextMutation != null) {
-                nextMutation.setFiltered();
-            }
-        };
-        try {
-            array.parallelTraverse(getCleaningPool(virtualMapConfig), action).getAndRethrow();
-        } catch (final InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException(e);
-        }
+    private static <V> void purge(
+            final ConcurrentArray<Mutation<Long, V>> array,
+            final ConcurrentLongObjectMap<Mutation<Long, V>> index,
+            @NonNull final VirtualMapConfig virtualMapConfig) {
+        array.parallelTraverse(
+                getCleaningPool(virtualMapConfig),
+                element -> {
+                    // Filtered mutations are overridden by newer mutations from the same array. They are
+                    // removed from the index, when the newer mutations are purged
+                    if (element.isFiltered()) {
+                        return;
+                    }
+                    index.compute(element.key, (path, mutation) -> {
+                        if (mutation == null || element.equals(mutation)) {
+                            // Already removed for a more recent mutation
+                            return null;
+                        }
+                        for (Mutation<Long, V> m = mutation; m.next != null; m = m.next) {
+                            if (element.equals(m.next)) {
+                                m.next = null;
+                                break;
+                            }
+                        }
+                        return mutation;
+                    });
+                });
     }
 
     /**
@@ -1395,6 +1725,38 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         }
     }
 
+    /**
+     * Same as {@link #setMapSnapshotAndArray(Map, Map, ConcurrentArray)}, but for path indexes.
+     *
+     * @param src
+     * 		Map that contains the original mutations
+     * @param dst
+     * 		Map that acts as the destination of mutations
+     * @param <L2>
+     * 		Value type
+     */
+    private <L2> void setMapSnapshotAndArray(
+            final ConcurrentLongObjectMap<Mutation<Long, L2>> src,
+            final ConcurrentLongObjectMap<Mutation<Long, L2>> dst,
+            final ConcurrentArray<Mutation<Long, L2>> array) {
+        final long accepted = fastCopyVersion.get();
+        final long rejected = lastReleased.get();
+        src.forEach((path, value) -> {
+            Mutation<Long, L2> mutation = value;
+
+            while (mutation != null && mutation.version > accepted) {
+                mutation = mutation.next;
+            }
+
+            if (mutation == null || mutation.version <= rejected) {
+                return;
+            }
+
+            dst.put(path, mutation);
+            array.add(mutation);
+        });
+    }
+
     /**
      * Serialize the {@link #pathToDirtyHashIndex}.
      *
@@ -1406,13 +1768,12 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * 		If something fails.
      */
     private void serializePathToDirtyHashIndex(
-            final Map<Long, Mutation<Long, Hash>> map, final SerializableDataOutputStream out) throws IOException {
+            final ConcurrentLongObjectMap<Mutation<Long, Hash>> map, final SerializableDataOutputStream out)
+            throws IOException {
         assert snapshot.get() : "Only snapshots can be serialized";
         out.writeInt(map.size());
-        for (final Map.Entry<Long, Mutation<Long, Hash>> entry : map.entrySet()) {
-            out.writeLong(entry.getKey());
-            final Mutation<Long, Hash> mutation = entry.getValue();
-            assert mutation != null : "Mutations cannot be null in a snapshot";
+        map.forEach((path, mutation) -> {
+            out.writeLong(path);
             assert mutation.version <= this.fastCopyVersion.get()
                     : "Trying to serialize pathToDirtyInternalIndex with a version ahead";
             out.writeLong(mutation.version);
@@ -1420,7 +1781,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             if (!mutation.isDeleted()) {
                 out.writeSerializable(mutation.value, true);
             }
-        }
+        });
     }
 
     /**
@@ -1434,7 +1795,9 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * 		In case of trouble.
      */
     private void deserializePathToDirtyHashIndex(
-            final Map<Long, Mutation<Long, Hash>> map, final SerializableDataInputStream in, final int version)
+            final ConcurrentLongObjectMap<Mutation<Long, Hash>> map,
+            final SerializableDataInputStream in,
+            final int version)
             throws IOException {
         final int sizeOfMap = in.readInt();
         for (int index = 0; index < sizeOfMap; index++) {
@@ -1467,20 +1830,19 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * 		If something fails.
      */
     private void serializePathToDirtyLeafIndex(
-            final Map<Long, Mutation<Long, K>> map, final SerializableDataOutputStream out) throws IOException {
+            final ConcurrentLongObjectMap<Mutation<Long, K>> map, final SerializableDataOutputStream out)
+            throws IOException {
         assert snapshot.get() : "Only snapshots can be serialized";
         out.writeInt(map.size());
-        for (final Map.Entry<Long, Mutation<Long, K>> entry : map.entrySet()) {
-            out.writeLong(entry.getKey());
-            final Mutation<Long, K> mutation = entry.getValue();
-            assert mutation != null : "Mutations cannot be null in a snapshot";
+        map.forEach((path, mutation) -> {
+            out.writeLong(path);
             assert mutation.version <= this.fastCopyVersion.get()
                     : "Trying to serialize pathToDirtyLeafIndex with a version ahead";
 
             out.writeSerializable(mutation.value, true);
             out.writeLong(mutation.version);
             out.writeBoolean(mutation.isDeleted());
-        }
+        });
     }
 
     /**
@@ -1494,10 +1856,11 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * 		In case of trouble.
      */
     private void deserializePathToDirtyLeafIndex(
-            final Map<Long, Mutation<Long, K>> map, final SerializableDataInputStream in) throws IOException {
+            final ConcurrentLongObjectMap<Mutation<Long, K>> map, final SerializableDataInputStream in)
+            throws IOException {
         final int sizeOfMap = in.readInt();
         for (int index = 0; index < sizeOfMap; index++) {
-            final Long path = in.readLong();
+            final long path = in.readLong();
             final K key = in.readSerializable();
             final long mutationVersion = in.readLong();
             final boolean deleted = in.readBoolean();
@@ -1530,7 +1893,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             assert mutation.version <= this.fastCopyVersion.get()
                     : "Trying to serialize keyToDirtyLeafIndex with a version ahead";
 
-            final VirtualLeafRecord<K, V> leaf = mutation.value;
+            final VirtualLeafRecord<K, V> leaf = leafOf(mutation);
             out.writeSerializable(leaf, false);
             out.writeLong(mutation.version);
             out.writeBoolean(mutation.isDeleted());
@@ -1562,13 +1925,202 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             final long mutationVersion = in.readLong();
             final boolean deleted = in.readBoolean();
             final Mutation<K, VirtualLeafRecord<K, V>> mutation =
-                    new Mutation<>(null, leafRecord.getKey(), leafRecord, mutationVersion);
+                    newLeafMutation(null, leafRecord, mutationVersion);
             mutation.setDeleted(deleted);
             map.put(leafRecord.getKey(), mutation);
             dirtyLeaves.add(mutation);
         }
     }
 
+    /**
+     * Creates a new leaf mutation. If off-heap leaf values are enabled, the mutation is created as a
+     * {@link LeafMutation}, so its value can later be moved off-heap.
+     *
+     * @param next
+     * 		The next (older) mutation in the list. May be null.
+     * @param leaf
+     * 		The leaf record. Cannot be null.
+     * @param version
+     * 		The mutation version
+     * @return The new mutation
+     */
+    private Mutation<K, VirtualLeafRecord<K, V>> newLeafMutation(
+            final Mutation<K, VirtualLeafRecord<K, V>> next, final VirtualLeafRecord<K, V> leaf, final long version) {
+        return virtualMapConfig.offHeapLeafValues()
+                ? new LeafMutation<>(next, leaf.getKey(), leaf, version)
+                : new Mutation<>(next, leaf.getKey(), leaf, version);
+    }
+
+    /**
+     * Gets the leaf record of the given leaf mutation. If the leaf value has been moved off-heap, a new
+     * leaf record is created with a value read from the arena. Such records must not be modified.
+     *
+     * @param mutation
+     * 		The leaf mutation. Cannot be null.
+     * @return The leaf record
+     */
+    private VirtualLeafRecord<K, V> leafOf(final Mutation<K, VirtualLeafRecord<K, V>> mutation) {
+        final VirtualLeafRecord<K, V> leaf = mutation.value;
+        if ((leaf != null) || !(mutation instanceof LeafMutation<K, V> offHeapMutation)) {
+            return leaf;
+        }
+        final LeafValueArena<V> arena = offHeapMutation.arena;
+        if (!arena.acquire()) {
+            // The copy that owns the arena has been flushed and released
+            return null;
+        }
+        try {
+            final ByteBuffer chunk = offHeapMutation.chunk;
+            final int offset = offHeapMutation.offset;
+            assert valueSerializer != null : "Leaf values cannot be off-heap without a value serializer";
+            return new VirtualLeafRecord<>(
+                    LeafValueArena.readPath(chunk, offset),
+                    mutation.key,
+                    LeafValueArena.readValue(chunk, offset, valueSerializer));
+        } finally {
+            arena.release();
+        }
+    }
+
+    /**
+     * Gets the path of the leaf of the given leaf mutation. Unlike {@link #leafOf(Mutation)}, this method
+     * doesn't read leaf values from the off-heap arena.
+     *
+     * @param mutation
+     * 		The leaf mutation. Cannot be null.
+     * @return The leaf path
+     */
+    private long leafPathOf(final Mutation<K, VirtualLeafRecord<K, V>> mutation) {
+        final VirtualLeafRecord<K, V> leaf = mutation.value;
+        if ((leaf != null) || !(mutation instanceof LeafMutation<K, V> offHeapMutation)) {
+            return leaf.getPath();
+        }
+        final LeafValueArena<V> arena = offHeapMutation.arena;
+        if (!arena.acquire()) {
+            throw new IllegalStateException("Leaf arena is already freed");
+        }
+        try {
+            return LeafValueArena.readPath(offHeapMutation.chunk, offHeapMutation.offset);
+        } finally {
+            arena.release();
+        }
+    }
+
+    /**
+     * Moves values of all dirty leaves of this cache copy to an off-heap arena. Mutations for these
+     * leaves then only keep handles to the arena, while leaf records and values are released from the
+     * heap. Deleted leaves are not moved. Called once, when the cache copy is sealed. Leaf mutations
+     * of sealed copies are never changed, so the arena is never updated after this call.
+     * <p>
+     * Lookups of moved leaves may happen concurrently with this method. Before a leaf is moved, its
+     * record is returned from the cache, after that a new record with the same path, key, and value
+     * is returned.
+     */
+    private void moveLeafValuesOffHeap() {
+        final ValueSerializer<V> serializer = valueSerializer;
+        if (serializer == null) {
+            return;
+        }
+        final long version = fastCopyVersion.get();
+        final int count = dirtyLeaves.size();
+        // Serialized value sizes, -1 for null values, or Integer.MIN_VALUE for leaves to skip
+        final int[] valueSizes = new int[count];
+        long capacity = 0;
+        for (int i = 0; i < count; i++) {
+            final Mutation<K, VirtualLeafRecord<K, V>> mutation = dirtyLeaves.get(i);
+            final VirtualLeafRecord<K, V> leaf = mutation.value;
+            if ((mutation.version != version)
+                    || mutation.isDeleted()
+                    || (leaf == null)
+                    || !(mutation instanceof LeafMutation)) {
+                valueSizes[i] = Integer.MIN_VALUE;
+                continue;
+            }
+            final V value = leaf.getValue();
+            valueSizes[i] = (value == null) ? -1 : serializer.getSerializedSize(value);
+            capacity += LeafValueArena.entrySize(valueSizes[i]);
+        }
+        if (capacity == 0) {
+            return;
+        }
+        final LeafValueArena<V> arena = new LeafValueArena<>(serializer, capacity, leafValueArenaBytes);
+        for (int i = 0; i < count; i++) {
+            if (valueSizes[i] == Integer.MIN_VALUE) {
+                continue;
+            }
+            final Mutation<K, VirtualLeafRecord<K, V>> leafMutation = dirtyLeaves.get(i);
+            final VirtualLeafRecord<K, V> leaf = leafMutation.value;
+            final LeafMutation<K, V> mutation = (LeafMutation<K, V>) leafMutation;
+            final int offset = arena.add(leaf.getPath(), leaf.getValue(), valueSizes[i]);
+            mutation.moveOffHeap(arena, arena.currentChunk(), offset);
+        }
+        addArenaReferences(List.of(arena));
+        if (logger.isTraceEnabled()) {
+            logger.trace(
+                    VIRTUAL_MERKLE_STATS.getMarker(),
+                    "Moved leaf values of version {} off-heap, {} bytes",
+                    version,
+                    arena.getAllocatedBytes());
+        }
+    }
+
+    /**
+     * Adds the given arena references to this cache copy. The references are released when this copy
+     * is released, or when it's collected by GC.
+     *
+     * @param arenas
+     * 		Arenas to add, references to them must be already acquired
+     */
+    private void addArenaReferences(final List<LeafValueArena<?>> arenas) {
+        if (arenas.isEmpty()) {
+            return;
+        }
+        synchronized (arenaReferences) {
+            if (arenaCleanable == null) {
+                arenaCleanable = getArenaCleaner().register(this, arenaReferences);
+            }
+            arenaReferences.addAll(arenas);
+        }
+    }
+
+    /**
+     * Releases all arena references of this cache copy.
+     */
+    private void releaseArenaReferences() {
+        final Cleaner.Cleanable cleanable;
+        synchronized (arenaReferences) {
+            cleanable = arenaCleanable;
+        }
+        if (cleanable != null) {
+            cleanable.clean();
+        }
+    }
+
+    /**
+     * Acquires references to off-heap arenas of all leaves in the given array.
+     *
+     * @param mutations
+     * 		Leaf mutations
+     * @return Distinct acquired arenas
+     */
+    private static <K extends VirtualKey, V extends VirtualValue> List<LeafValueArena<?>> acquireArenas(
+            final ConcurrentArray<Mutation<K, VirtualLeafRecord<K, V>>> mutations) {
+        final Set<LeafValueArena<?>> arenas = Collections.newSetFromMap(new IdentityHashMap<>());
+        final int count = mutations.size();
+        for (int i = 0; i < count; i++) {
+            final Mutation<K, VirtualLeafRecord<K, V>> mutation = mutations.get(i);
+            // The value is read first, it publishes the arena
+            if ((mutation.value == null)
+                    && (mutation instanceof LeafMutation<K, V> offHeapMutation)
+                    && (offHeapMutation.arena != null)
+                    && !arenas.contains(offHeapMutation.arena)
+                    && offHeapMutation.arena.acquire()) {
+                arenas.add(offHeapMutation.arena);
+            }
+        }
+        return new ArrayList<>(arenas);
+    }
+
     /**
      * Helper method that throws a MutabilityException if the leaf is immutable.
      */
@@ -1593,7 +2145,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * @param <K> The key type of data held by the mutation.
      * @param <V> The type of data held by the mutation.
      */
-    private static final class Mutation<K, V> {
+    private static class Mutation<K, V> {
         private volatile Mutation<K, V> next;
         private final long version; // The version of the cache that owns this mutation
         private final K key;
@@ -1643,6 +2195,61 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         }
     }
 
+    /**
+     * A leaf mutation, which value may be moved off-heap. Initially, the mutation holds a leaf record
+     * like any other mutation. When the leaf is moved to an off-heap arena, the mutation value is set
+     * to null, and the mutation only keeps the arena chunk and the leaf entry offset in the chunk.
+     * @param <K> The key type of the leaf.
+     * @param <V> The value type of the leaf.
+     */
+    private static final class LeafMutation<K extends VirtualKey, V extends VirtualValue>
+            extends Mutation<K, VirtualLeafRecord<K, V>> {
+        // Arena with the leaf path and value, or null if the leaf is on heap
+        private LeafValueArena<V> arena;
+        // Arena chunk with the leaf path and value, or null if the leaf is on heap
+        private ByteBuffer chunk;
+        // Leaf entry offset in the chunk
+        private int offset;
+
+        LeafMutation(Mutation<K, VirtualLeafRecord<K, V>> next, K key, VirtualLeafRecord<K, V> value, long version) {
+            super(next, key, value, version);
+        }
+
+        void moveOffHeap(final LeafValueArena<V> arena, final ByteBuffer chunk, final int offset) {
+            this.arena = arena;
+            this.chunk = chunk;
+            this.offset = offset;
+            // The value is volatile, this write publishes the arena, the chunk, and the offset to other threads
+            super.value = null;
+        }
+    }
+
+    /**
+     * Off-heap arena references held by a cache copy. This class must not reference the cache copy,
+     * as it's used as a cleaner action for the copy.
+     */
+    private static final class ArenaReferences implements Runnable {
+        private final List<LeafValueArena<?>> arenas = new ArrayList<>();
+
+        synchronized void addAll(final List<LeafValueArena<?>> added) {
+            arenas.addAll(added);
+        }
+
+        synchronized List<LeafValueArena<?>> removeAll() {
+            final List<LeafValueArena<?>> removed = new ArrayList<>(arenas);
+            arenas.clear();
+            return removed;
+        }
+
+        /**
+         * Releases all arena references. Called at most once by the cleaner.
+         */
+        @Override
+        public void run() {
+            removeAll().forEach(LeafValueArena::release);
+        }
+    }
+
     /**
      * Given some cache, print out the contents of all the data structures and mark specially the set of mutations
      * that apply to this cache.
@@ -1659,13 +2266,9 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         //noinspection unchecked
         builder.append(toDebugStringIndex("keyToDirtyLeafIndex", (Map<Object, Mutation>) (Object) keyToDirtyLeafIndex))
                 .append("\n");
-        //noinspection unchecked
-        builder.append(toDebugStringIndex(
-                        "pathToDirtyLeafIndex", (Map<Object, Mutation>) (Object) pathToDirtyLeafIndex))
+        builder.append(toDebugStringIndex("pathToDirtyLeafIndex", toDebugMap(pathToDirtyLeafIndex)))
                 .append("\n");
-        //noinspection unchecked
-        builder.append(toDebugStringIndex(
-                        "pathToDirtyHashIndex", (Map<Object, Mutation>) (Object) pathToDirtyHashIndex))
+        builder.append(toDebugStringIndex("pathToDirtyHashIndex", toDebugMap(pathToDirtyHashIndex)))
                 .append("\n");
         //noinspection unchecked
         builder.append(toDebugStringArray("dirtyLeaves", (ConcurrentArray<Mutation>) (Object) dirtyLeaves));
@@ -1698,6 +2301,13 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         return builder.toString();
     }
 
+    @SuppressWarnings("rawtypes")
+    private static Map<Object, Mutation> toDebugMap(final ConcurrentLongObjectMap<? extends Mutation> index) {
+        final Map<Object, Mutation> map = new TreeMap<>();
+        index.forEach(map::put);
+        return map;
+    }
+
     private String toDebugStringIndex(
             final String indexName, @SuppressWarnings("rawtypes") final Map<Object, Mutation> index) {
         final StringBuilder builder = new StringBuilder();
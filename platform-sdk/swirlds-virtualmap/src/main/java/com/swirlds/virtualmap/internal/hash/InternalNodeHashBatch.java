@@ -0,0 +1,168 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.hash;
+
+import static com.swirlds.virtualmap.internal.Path.ROOT_PATH;
+
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.virtualmap.internal.merkle.VirtualInternalNode;
+import com.swirlds.virtualmap.internal.merkle.VirtualRootNode;
+import java.util.Arrays;
+
+/**
+ * A batch of virtual internal nodes to hash together. Nodes are added to the batch one by one
+ * using {@link #add(int, long, Hash, Hash)}, then all of them are hashed at once with a multi-lane
+ * {@link Sha384Batch}. Node hashes are the same as produced by {@link VirtualHasher}'s single node
+ * hashing: SHA-384 over the node class ID, serialization version, and left and right child hashes.
+ *
+ * <p>Only SHA-384 child hashes can be added to a batch, see {@link #canHash(Hash, Hash)}.
+ *
+ * <p>This class is not thread safe.
+ */
+final class InternalNodeHashBatch {
+
+    /** Internal node hash input length, bytes: class ID, serialization version, two child hashes */
+    static final int MESSAGE_LENGTH = Long.BYTES + Integer.BYTES + 2 * Sha384Batch.DIGEST_LENGTH;
+
+    private final Sha384Batch sha;
+
+    /** Hash input buffer */
+    private final byte[] message = new byte[MESSAGE_LENGTH];
+
+    // Batch entries. Indices are opaque to this class, they are provided by callers to
+    // match hashing results with their inputs
+    private int[] indices;
+    private long[] paths;
+    private Hash[] lefts;
+    private Hash[] rights;
+    private Hash[] results;
+
+    private int size = 0;
+
+    /**
+     * Creates a new batch.
+     *
+     * @param lanes the number of nodes to hash at once by the underlying multi-lane hasher
+     */
+    InternalNodeHashBatch(final int lanes) {
+        sha = new Sha384Batch(lanes);
+        indices = new int[lanes];
+        paths = new long[lanes];
+        lefts = new Hash[lanes];
+        rights = new Hash[lanes];
+        results = new Hash[lanes];
+    }
+
+    /**
+     * Checks if an internal node with the given child hashes can be hashed in a batch.
+     *
+     * @param left the left child hash
+     * @param right the right child hash
+     * @return whether both hashes are SHA-384 hashes
+     */
+    static boolean canHash(final Hash left, final Hash right) {
+        return (left.getDigestType() == DigestType.SHA_384) && (right.getDigestType() == DigestType.SHA_384);
+    }
+
+    /**
+     * Clears the batch.
+     */
+    void clear() {
+        Arrays.fill(lefts, 0, size, null);
+        Arrays.fill(rights, 0, size, null);
+        Arrays.fill(results, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * @return the number of nodes in the batch
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds an internal node to the batch.
+     *
+     * @param index an arbitrary index to identify the node in the batch, see {@link #index(int)}
+     * @param path the internal node path
+     * @param left the left child hash, must be a SHA-384 hash
+     * @param right the right child hash, must be a SHA-384 hash
+     */
+    void add(final int index, final long path, final Hash left, final Hash right) {
+        assert canHash(left, right);
+        if (size == indices.length) {
+            final int newLength = size * 2;
+            indices = Arrays.copyOf(indices, newLength);
+            paths = Arrays.copyOf(paths, newLength);
+            lefts = Arrays.copyOf(lefts, newLength);
+            rights = Arrays.copyOf(rights, newLength);
+            results = Arrays.copyOf(results, newLength);
+        }
+        indices[size] = index;
+        paths[size] = path;
+        lefts[size] = left;
+        rights[size] = right;
+        size++;
+    }
+
+    /**
+     * Hashes all nodes in the batch. Results are available via {@link #result(int)}.
+     */
+    void hash() {
+        final int lanes = sha.lanes();
+        for (int from = 0; from < size; from += lanes) {
+            final int count = Math.min(lanes, size - from);
+            for (int lane = 0; lane < count; lane++) {
+                final int i = from + lane;
+                final long classId = paths[i] == ROOT_PATH ? VirtualRootNode.CLASS_ID : VirtualInternalNode.CLASS_ID;
+                final int serId = paths[i] == ROOT_PATH
+                        ? VirtualRootNode.ClassVersion.CURRENT_VERSION
+                        : VirtualInternalNode.SERIALIZATION_VERSION;
+                // Class ID and version are hashed in little-endian order, the same way as
+                // HashBuilder does it
+                for (int j = 0; j < Long.BYTES; j++) {
+                    message[j] = (byte) (classId >>> (j * Byte.SIZE));
+                }
+                for (int j = 0; j < Integer.BYTES; j++) {
+                    message[Long.BYTES + j] = (byte) (serId >>> (j * Byte.SIZE));
+                }
+                final int leftOffset = Long.BYTES + Integer.BYTES;
+                final int rightOffset = leftOffset + Sha384Batch.DIGEST_LENGTH;
+                lefts[i].getBytes().getBytes(0, message, leftOffset, Sha384Batch.DIGEST_LENGTH);
+                rights[i].getBytes().getBytes(0, message, rightOffset, Sha384Batch.DIGEST_LENGTH);
+                sha.setMessage(lane, message, MESSAGE_LENGTH);
+            }
+            sha.digest(count);
+            for (int lane = 0; lane < count; lane++) {
+                final byte[] hashBytes = new byte[Sha384Batch.DIGEST_LENGTH];
+                sha.getDigest(lane, hashBytes, 0);
+                results[from + lane] = new Hash(hashBytes, DigestType.SHA_384);
+            }
+        }
+    }
+
+    /**
+     * @param i the entry number in the batch, from 0 (inclusive) to {@link #size()} (exclusive)
+     * @return the index provided when the entry was added to the batch
+     */
+    int index(final int i) {
+        return indices[i];
+    }
+
+    /**
+     * @param i the entry number in the batch, from 0 (inclusive) to {@link #size()} (exclusive)
+     * @return the internal node path
+     */
+    long path(final int i) {
+        return paths[i];
+    }
+
+    /**
+     * @param i the entry number in the batch, from 0 (inclusive) to {@link #size()} (exclusive)
+     * @return the internal node hash, or null if the batch hasn't been hashed yet
+     */
+    Hash result(final int i) {
+        return results[i];
+    }
+}
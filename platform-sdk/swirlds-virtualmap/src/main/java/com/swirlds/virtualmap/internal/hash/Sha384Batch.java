@@ -0,0 +1,232 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.hash;
+
+/**
+ * Multi-lane SHA-384 implementation for short messages that fit into a single 1024-bit block,
+ * that is messages up to {@link #MAX_MESSAGE_LENGTH} bytes long. Virtual internal node hashes
+ * are computed from a class ID, a serialization version, and two child hashes, 108 bytes in
+ * total, so they can always be hashed with this class.
+ *
+ * <p>Message schedules and working variables of all lanes are stored in arrays, one array
+ * element per lane. All lanes are processed by the same loops over the lane index, without
+ * any branches or data dependencies between lanes, which allows the JIT compiler to vectorize
+ * the compression function and to hash multiple independent messages at the cost of about one.
+ *
+ * <p>This class is not thread safe.
+ */
+final class Sha384Batch {
+
+    /** SHA-384 block size, bytes */
+    static final int BLOCK_SIZE = 128;
+
+    /** SHA-384 digest length, bytes */
+    static final int DIGEST_LENGTH = 48;
+
+    /** Max message length to fit into a single block: one padding byte and a 128-bit length are appended */
+    static final int MAX_MESSAGE_LENGTH = BLOCK_SIZE - 1 - 16;
+
+    private static final int ROUNDS = 80;
+
+    private static final int BLOCK_WORDS = BLOCK_SIZE / Long.BYTES;
+
+    /** SHA-384 initial hash values */
+    private static final long[] IV = {
+        0xcbbb9d5dc1059ed8L, 0x629a292a367cd507L, 0x9159015a3070dd17L, 0x152fecd8f70e5939L,
+        0x67332667ffc00b31L, 0x8eb44a8768581511L, 0xdb0c2e0d64f98fa7L, 0x47b5481dbefa4fa4L
+    };
+
+    /** SHA-384 (and SHA-512) round constants */
+    private static final long[] K = {
+        0x428a2f98d728ae22L, 0x7137449123ef65cdL, 0xb5c0fbcfec4d3b2fL, 0xe9b5dba58189dbbcL,
+        0x3956c25bf348b538L, 0x59f111f1b605d019L, 0x923f82a4af194f9bL, 0xab1c5ed5da6d8118L,
+        0xd807aa98a3030242L, 0x12835b0145706fbeL, 0x243185be4ee4b28cL, 0x550c7dc3d5ffb4e2L,
+        0x72be5d74f27b896fL, 0x80deb1fe3b1696b1L, 0x9bdc06a725c71235L, 0xc19bf174cf692694L,
+        0xe49b69c19ef14ad2L, 0xefbe4786384f25e3L, 0x0fc19dc68b8cd5b5L, 0x240ca1cc77ac9c65L,
+        0x2de92c6f592b0275L, 0x4a7484aa6ea6e483L, 0x5cb0a9dcbd41fbd4L, 0x76f988da831153b5L,
+        0x983e5152ee66dfabL, 0xa831c66d2db43210L, 0xb00327c898fb213fL, 0xbf597fc7beef0ee4L,
+        0xc6e00bf33da88fc2L, 0xd5a79147930aa725L, 0x06ca6351e003826fL, 0x142929670a0e6e70L,
+        0x27b70a8546d22ffcL, 0x2e1b21385c26c926L, 0x4d2c6dfc5ac42aedL, 0x53380d139d95b3dfL,
+        0x650a73548baf63deL, 0x766a0abb3c77b2a8L, 0x81c2c92e47edaee6L, 0x92722c851482353bL,
+        0xa2bfe8a14cf10364L, 0xa81a664bbc423001L, 0xc24b8b70d0f89791L, 0xc76c51a30654be30L,
+        0xd192e819d6ef5218L, 0xd69906245565a910L, 0xf40e35855771202aL, 0x106aa07032bbd1b8L,
+        0x19a4c116b8d2d0c8L, 0x1e376c085141ab53L, 0x2748774cdf8eeb99L, 0x34b0bcb5e19b48a8L,
+        0x391c0cb3c5c95a63L, 0x4ed8aa4ae3418acbL, 0x5b9cca4f7763e373L, 0x682e6ff3d6b2b8a3L,
+        0x748f82ee5defb2fcL, 0x78a5636f43172f60L, 0x84c87814a1f0ab72L, 0x8cc702081a6439ecL,
+        0x90befffa23631e28L, 0xa4506cebde82bde9L, 0xbef9a3f7b2c67915L, 0xc67178f2e372532bL,
+        0xca273eceea26619cL, 0xd186b8c721c0c207L, 0xeada7dd6cde0eb1eL, 0xf57d4f7fee6ed178L,
+        0x06f067aa72176fbaL, 0x0a637dc5a2c898a6L, 0x113f9804bef90daeL, 0x1b710b35131c471bL,
+        0x28db77f523047d84L, 0x32caab7b40c72493L, 0x3c9ebe0a15c9bebcL, 0x431d67c49c100d4cL,
+        0x4cc5d4becb3e42b6L, 0x597f299cfc657e2aL, 0x5fcb6fab3ad6faecL, 0x6c44198c4a475817L
+    };
+
+    /** Number of lanes, i.e. max number of messages hashed at once */
+    private final int lanes;
+
+    /** Message schedules of all lanes. Word {@code t} of lane {@code l} is at {@code t * lanes + l} */
+    private final long[] w;
+
+    // Working variables, one array element per lane
+    private final long[] a;
+    private final long[] b;
+    private final long[] c;
+    private final long[] d;
+    private final long[] e;
+    private final long[] f;
+    private final long[] g;
+    private final long[] h;
+
+    /** A buffer to pad messages before they are loaded to the message schedule */
+    private final byte[] block = new byte[BLOCK_SIZE];
+
+    /**
+     * Creates a new batch hasher.
+     *
+     * @param lanes the max number of messages to hash at once
+     */
+    Sha384Batch(final int lanes) {
+        if (lanes < 1) {
+            throw new IllegalArgumentException("Number of lanes must be positive");
+        }
+        this.lanes = lanes;
+        w = new long[ROUNDS * lanes];
+        a = new long[lanes];
+        b = new long[lanes];
+        c = new long[lanes];
+        d = new long[lanes];
+        e = new long[lanes];
+        f = new long[lanes];
+        g = new long[lanes];
+        h = new long[lanes];
+    }
+
+    /**
+     * @return the max number of messages to hash at once
+     */
+    int lanes() {
+        return lanes;
+    }
+
+    /**
+     * Loads a message to the given lane. The message is padded to a full block.
+     *
+     * @param lane the lane, from 0 (inclusive) to {@link #lanes()} (exclusive)
+     * @param message the message bytes
+     * @param length the message length, from 0 to {@link #MAX_MESSAGE_LENGTH}
+     */
+    void setMessage(final int lane, final byte[] message, final int length) {
+        if ((length < 0) || (length > MAX_MESSAGE_LENGTH)) {
+            throw new IllegalArgumentException("Message doesn't fit into a single block: " + length);
+        }
+        System.arraycopy(message, 0, block, 0, length);
+        block[length] = (byte) 0x80;
+        for (int i = length + 1; i < BLOCK_SIZE - Long.BYTES; i++) {
+            block[i] = 0;
+        }
+        // Message length in bits, the upper 64 bits of the 128-bit length are always zero
+        final long bitLength = (long) length * Byte.SIZE;
+        for (int i = 0; i < Long.BYTES; i++) {
+            block[BLOCK_SIZE - 1 - i] = (byte) (bitLength >>> (i * Byte.SIZE));
+        }
+        for (int t = 0; t < BLOCK_WORDS; t++) {
+            long word = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                word = (word << Byte.SIZE) | (block[t * Long.BYTES + i] & 0xFF);
+            }
+            w[t * lanes + lane] = word;
+        }
+    }
+
+    /**
+     * Hashes messages in lanes from 0 (inclusive) to {@code count} (exclusive). Messages must be
+     * loaded using {@link #setMessage(int, byte[], int)} before this method is called. Digests are
+     * available via {@link #getDigest(int, byte[], int)} after this method returns.
+     *
+     * @param count the number of lanes to hash
+     */
+    void digest(final int count) {
+        if ((count < 0) || (count > lanes)) {
+            throw new IllegalArgumentException("Wrong number of lanes: " + count);
+        }
+        for (int t = BLOCK_WORDS; t < ROUNDS; t++) {
+            final int base = t * lanes;
+            final int base2 = (t - 2) * lanes;
+            final int base7 = (t - 7) * lanes;
+            final int base15 = (t - 15) * lanes;
+            final int base16 = (t - 16) * lanes;
+            for (int l = 0; l < count; l++) {
+                final long w2 = w[base2 + l];
+                final long w15 = w[base15 + l];
+                final long s1 = Long.rotateRight(w2, 19) ^ Long.rotateRight(w2, 61) ^ (w2 >>> 6);
+                final long s0 = Long.rotateRight(w15, 1) ^ Long.rotateRight(w15, 8) ^ (w15 >>> 7);
+                w[base + l] = s1 + w[base7 + l] + s0 + w[base16 + l];
+            }
+        }
+        for (int l = 0; l < count; l++) {
+            a[l] = IV[0];
+            b[l] = IV[1];
+            c[l] = IV[2];
+            d[l] = IV[3];
+            e[l] = IV[4];
+            f[l] = IV[5];
+            g[l] = IV[6];
+            h[l] = IV[7];
+        }
+        for (int t = 0; t < ROUNDS; t++) {
+            final long k = K[t];
+            final int base = t * lanes;
+            for (int l = 0; l < count; l++) {
+                final long va = a[l];
+                final long vb = b[l];
+                final long vc = c[l];
+                final long ve = e[l];
+                final long vf = f[l];
+                final long vg = g[l];
+                final long s1 = Long.rotateRight(ve, 14) ^ Long.rotateRight(ve, 18) ^ Long.rotateRight(ve, 41);
+                final long ch = (ve & vf) ^ (~ve & vg);
+                final long t1 = h[l] + s1 + ch + k + w[base + l];
+                final long s0 = Long.rotateRight(va, 28) ^ Long.rotateRight(va, 34) ^ Long.rotateRight(va, 39);
+                final long maj = (va & vb) ^ (va & vc) ^ (vb & vc);
+                h[l] = vg;
+                g[l] = vf;
+                f[l] = ve;
+                e[l] = d[l] + t1;
+                d[l] = vc;
+                c[l] = vb;
+                b[l] = va;
+                a[l] = t1 + s0 + maj;
+            }
+        }
+        // Only the first six words are needed for SHA-384
+        for (int l = 0; l < count; l++) {
+            a[l] += IV[0];
+            b[l] += IV[1];
+            c[l] += IV[2];
+            d[l] += IV[3];
+            e[l] += IV[4];
+            f[l] += IV[5];
+        }
+    }
+
+    /**
+     * Copies the digest of the given lane to a byte array.
+     *
+     * @param lane the lane
+     * @param out the array to copy the digest to
+     * @param offset the offset in the array, there must be at least {@link #DIGEST_LENGTH} bytes
+     *               available starting from this offset
+     */
+    void getDigest(final int lane, final byte[] out, final int offset) {
+        putWord(a[lane], out, offset);
+        putWord(b[lane], out, offset + Long.BYTES);
+        putWord(c[lane], out, offset + 2 * Long.BYTES);
+        putWord(d[lane], out, offset + 3 * Long.BYTES);
+        putWord(e[lane], out, offset + 4 * Long.BYTES);
+        putWord(f[lane], out, offset + 5 * Long.BYTES);
+    }
+
+    private static void putWord(final long word, final byte[] out, final int offset) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            out[offset + i] = (byte) (word >>> ((Long.BYTES - 1 - i) * Byte.SIZE));
+        }
+    }
+}
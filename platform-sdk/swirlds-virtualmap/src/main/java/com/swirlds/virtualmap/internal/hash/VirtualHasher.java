@@ -27,6 +27,7 @@ import java.util.Objects;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.LongFunction;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -55,6 +56,23 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
     private static final ThreadLocal<HashBuilder> HASH_BUILDER_THREAD_LOCAL =
             ThreadLocal.withInitial(() -> new HashBuilder(Cryptography.DEFAULT_DIGEST_TYPE));
 
+    /**
+     * The number of internal nodes hashed at once by a multi-lane SHA-384 hasher.
+     */
+    static final int BATCH_LANES = 8;
+
+    /**
+     * When chunk height is chosen based on dirty leaf density, this is the expected number of dirty
+     * nodes at the lowest rank of a chunk. It's enough to fill all hasher lanes at that rank.
+     */
+    private static final int TARGET_DIRTY_CHUNK_INPUTS = 2 * BATCH_LANES;
+
+    /**
+     * This thread-local gets a batch to hash internal nodes of the same rank on a per-thread basis.
+     */
+    private static final ThreadLocal<InternalNodeHashBatch> HASH_BATCH_THREAD_LOCAL =
+            ThreadLocal.withInitial(() -> new InternalNodeHashBatch(BATCH_LANES));
+
     /**
      * A function to look up clean hashes by path during hashing. This function is stored in
      * a class field to avoid passing it as an arg to every hashing task.
@@ -84,6 +102,12 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
      */
     private final AtomicBoolean shutdown = new AtomicBoolean(false);
 
+    /**
+     * The number of nodes, both leaves and internal nodes, hashed during the last call to
+     * {@link #hash(LongFunction, Iterator, long, long, VirtualHashListener, VirtualMapConfig, long)}.
+     */
+    private final LongAdder hashedNodeCount = new LongAdder();
+
     /**
      * Indicate to the virtual hasher that it has been shut down. This method does not interrupt threads, but
      * it indicates to threads that an interrupt may happen, and that the interrupt should not be treated as
@@ -189,10 +213,16 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
                 hash = cryptography.digestSync(leaf);
                 listener.onLeafHashed(leaf);
                 listener.onNodeHashed(path, hash);
+                hashedNodeCount.increment();
             } else {
+                // All internal nodes at the same rank within the chunk are independent of each
+                // other, so they are collected to a batch and hashed together
+                final InternalNodeHashBatch batch = HASH_BATCH_THREAD_LOCAL.get();
+                int hashed = 0;
                 int len = 1 << height;
                 long rankPath = Path.getLeftGrandChildPath(path, height);
                 while (len > 1) {
+                    batch.clear();
                     for (int i = 0; i < len / 2; i++) {
                         final long hashedPath = Path.getParentPath(rankPath + i * 2);
                         Hash left = ins[i * 2];
@@ -206,13 +236,32 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
                             if (right == null) {
                                 right = hashReader.apply(rankPath + i * 2 + 1);
                             }
-                            ins[i] = hash(hashedPath, left, right);
-                            listener.onNodeHashed(hashedPath, ins[i]);
+                            if (InternalNodeHashBatch.canHash(left, right)) {
+                                // Inputs at indices 2i and 2i+1 have just been read, and inputs to
+                                // the right of them are not needed to hash this node, so ins[i] can
+                                // be set later, after the whole batch is hashed
+                                batch.add(i, hashedPath, left, right);
+                            } else {
+                                ins[i] = hash(hashedPath, left, right);
+                                listener.onNodeHashed(hashedPath, ins[i]);
+                                hashed++;
+                            }
                         }
                     }
+                    if (batch.size() > 0) {
+                        batch.hash();
+                        for (int j = 0; j < batch.size(); j++) {
+                            final Hash nodeHash = batch.result(j);
+                            ins[batch.index(j)] = nodeHash;
+                            listener.onNodeHashed(batch.path(j), nodeHash);
+                        }
+                        hashed += batch.size();
+                    }
                     rankPath = Path.getParentPath(rankPath);
                     len = len >> 1;
                 }
+                batch.clear();
+                hashedNodeCount.add(hashed);
                 hash = ins[0];
             }
             out.setHash(getIndexInOut(), hash);
@@ -260,8 +309,35 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
             final Iterator<VirtualLeafRecord<K, V>> sortedDirtyLeaves,
             final long firstLeafPath,
             final long lastLeafPath,
-            VirtualHashListener<K, V> listener,
+            final VirtualHashListener<K, V> listener,
             final @NonNull VirtualMapConfig virtualMapConfig) {
+        return hash(hashReader, sortedDirtyLeaves, firstLeafPath, lastLeafPath, listener, virtualMapConfig, -1);
+    }
+
+    /**
+     * If a dirty leaves stream is empty, returns {@code null}. If leaf path is empty, that
+     * is when {@code firstLeafPath} and/or {@code lastLeafPath} are zero or less, and
+     * dirty leaves stream is not empty, throws an {@link IllegalArgumentException}.
+     *
+     * <p>If the number of dirty leaves is known, it's used to choose hashing chunk height
+     * based on dirty leaf density, see {@link #chunkHeight(VirtualMapConfig, long, long, long)}.
+     *
+     * @param hashReader A function to read hashes for clean paths
+     * @param sortedDirtyLeaves A stream of leaf records, sorted by path
+     * @param firstLeafPath First leaf path
+     * @param lastLeafPath Last leaf path
+     * @param listener Hash listener. May be null
+     * @param virtualMapConfig VirtualMap config
+     * @param dirtyLeafCount Estimated number of dirty leaves, or a negative value, if unknown
+     */
+    public Hash hash(
+            final LongFunction<Hash> hashReader,
+            final Iterator<VirtualLeafRecord<K, V>> sortedDirtyLeaves,
+            final long firstLeafPath,
+            final long lastLeafPath,
+            VirtualHashListener<K, V> listener,
+            final @NonNull VirtualMapConfig virtualMapConfig,
+            final long dirtyLeafCount) {
         requireNonNull(virtualMapConfig);
 
         // We don't want to include null checks everywhere, so let the listener be NoopListener if null
@@ -278,6 +354,7 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
 
         // Let the listener know we have started hashing.
         listener.onHashingStarted();
+        hashedNodeCount.reset();
 
         if (!sortedDirtyLeaves.hasNext()) {
             // Nothing to hash.
@@ -317,8 +394,8 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
         // is calculated, it is set as an input dependency of that task. Output dependency value
         // may not be null.
 
-        // Default chunk height, from config
-        final int chunkHeight = virtualMapConfig.virtualHasherChunkHeight();
+        // Chunk height, either from config, or based on dirty leaf density
+        final int chunkHeight = chunkHeight(virtualMapConfig, dirtyLeafCount, firstLeafPath, lastLeafPath);
         int firstLeafRank = Path.getRank(firstLeafPath);
         int lastLeafRank = Path.getRank(lastLeafPath);
 
@@ -500,6 +577,52 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
         return resultTask.ins[0];
     }
 
+    /**
+     * Gets the number of nodes hashed during the last call to {@code hash()}, including both
+     * leaves and internal nodes.
+     *
+     * @return the number of hashed nodes
+     */
+    public long getHashedNodeCount() {
+        return hashedNodeCount.sum();
+    }
+
+    /**
+     * Chooses the height of hashing chunks based on dirty leaf density. Every chunk at the bottom
+     * of the tree covers {@code 2^height} nodes at its lowest rank, and the expected number of
+     * dirty nodes among them is proportional to the density. When dirty leaves are sparse, chunks
+     * are made taller, so they still have enough dirty inputs to fill the batch hasher lanes, and
+     * fewer tasks are scheduled. When dirty leaves are dense, chunks are kept short to keep more
+     * tasks available for parallel execution.
+     *
+     * <p>{@link VirtualMapConfig#virtualHasherChunkHeight()} is used as the min height, and
+     * {@link VirtualMapConfig#virtualHasherMaxChunkHeight()} as the max height. If the number of
+     * dirty leaves is unknown, the min height is used.
+     *
+     * @param virtualMapConfig VirtualMap config
+     * @param dirtyLeafCount Estimated number of dirty leaves, or a negative value, if unknown
+     * @param firstLeafPath First leaf path
+     * @param lastLeafPath Last leaf path
+     * @return the chunk height
+     */
+    static int chunkHeight(
+            final @NonNull VirtualMapConfig virtualMapConfig,
+            final long dirtyLeafCount,
+            final long firstLeafPath,
+            final long lastLeafPath) {
+        final int minHeight = virtualMapConfig.virtualHasherChunkHeight();
+        final int maxHeight = Math.max(minHeight, virtualMapConfig.virtualHasherMaxChunkHeight());
+        if ((dirtyLeafCount <= 0) || (minHeight == maxHeight) || (lastLeafPath < firstLeafPath)) {
+            return minHeight;
+        }
+        final long leafCount = lastLeafPath - firstLeafPath + 1;
+        final long dirtyCount = Math.min(dirtyLeafCount, leafCount);
+        // Min chunk width to have the target number of dirty inputs, rounded up to a power of two
+        final long chunkWidth = (TARGET_DIRTY_CHUNK_INPUTS * leafCount + dirtyCount - 1) / dirtyCount;
+        final int height = Long.SIZE - Long.numberOfLeadingZeros(chunkWidth - 1);
+        return Math.max(minHeight, Math.min(maxHeight, height));
+    }
+
     public Hash emptyRootHash() {
         final Hash NULL_HASH = CryptographyHolder.get().getNullHash();
         return ChunkHashTask.hash(ROOT_PATH, NULL_HASH, NULL_HASH);
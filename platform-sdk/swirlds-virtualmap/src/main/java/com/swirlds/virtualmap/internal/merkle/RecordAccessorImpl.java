@@ -19,6 +19,11 @@ import com.swirlds.virtualmap.serialize.KeySerializer;
 import com.swirlds.virtualmap.serialize.ValueSerializer;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -128,11 +133,21 @@ public class RecordAccessorImpl<K extends VirtualKey, V extends VirtualValue> im
 
     /**
      * {@inheritDoc}
+     *
+     * <p>If the key is not found in the cache, but its leaf has been prefetched, the prefetched
+     * record is used and removed from the cache, see {@link VirtualNodeCache#takePrefetchedLeaf}.
      */
     @Override
     public VirtualLeafRecord<K, V> findLeafRecord(final K key, final boolean copy) {
         VirtualLeafRecord<K, V> rec = cache.lookupLeafByKey(key, copy);
         if (rec == null) {
+            rec = cache.takePrefetchedLeaf(key);
+            if (rec != null) {
+                if (copy) {
+                    cache.putLeaf(rec);
+                }
+                return rec;
+            }
             try {
                 final Bytes keyBytes = keySerializer.toBytes(key);
                 final VirtualLeafBytes leafBytes = dataSource.loadLeafRecord(keyBytes, key.hashCode());
@@ -152,6 +167,72 @@ public class RecordAccessorImpl<K extends VirtualKey, V extends VirtualValue> im
         return rec == VirtualNodeCache.DELETED_LEAF_RECORD ? null : rec;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Keys are deduplicated, and all keys are looked up in the cache first, including prefetched
+     * leaves. All keys not found in the cache are then loaded from the data source as a single batch, see {@link
+     * VirtualDataSource#loadLeafRecords(Bytes[], int[])}.
+     */
+    @Override
+    public List<VirtualLeafRecord<K, V>> findLeafRecords(final List<K> keys) {
+        final int count = keys.size();
+        final List<VirtualLeafRecord<K, V>> result = new ArrayList<>(Collections.nCopies(count, null));
+        // Keys not found in the cache, mapped to their first indices in the list
+        final Map<K, Integer> keysToLoad = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            final K key = keys.get(i);
+            Objects.requireNonNull(key);
+            if (keysToLoad.containsKey(key)) {
+                continue;
+            }
+            VirtualLeafRecord<K, V> rec = cache.lookupLeafByKey(key, false);
+            if (rec == null) {
+                rec = cache.takePrefetchedLeaf(key);
+            }
+            if (rec == null) {
+                keysToLoad.put(key, i);
+            } else if (rec != VirtualNodeCache.DELETED_LEAF_RECORD) {
+                result.set(i, rec);
+            }
+        }
+        if (!keysToLoad.isEmpty()) {
+            final Bytes[] keyBytes = new Bytes[keysToLoad.size()];
+            final int[] keyHashCodes = new int[keysToLoad.size()];
+            int j = 0;
+            for (final K key : keysToLoad.keySet()) {
+                keyBytes[j] = keySerializer.toBytes(key);
+                keyHashCodes[j] = key.hashCode();
+                j++;
+            }
+            final VirtualLeafBytes[] loaded;
+            try {
+                loaded = dataSource.loadLeafRecords(keyBytes, keyHashCodes);
+            } catch (final IOException ex) {
+                throw new UncheckedIOException("Failed to read leaf records from the data source by keys", ex);
+            }
+            j = 0;
+            for (final int index : keysToLoad.values()) {
+                if (loaded[j] != null) {
+                    final VirtualLeafRecord<K, V> rec = loaded[j].toRecord(keySerializer, valueSerializer);
+                    assert rec.getKey().equals(keys.get(index))
+                            : "The key we found from the DB does not match the one we were looking for! key="
+                                    + keys.get(index);
+                    result.set(index, rec);
+                }
+                j++;
+            }
+        }
+        // Duplicate keys get the same leaves as their first occurrences
+        for (int i = 0; i < count; i++) {
+            final Integer firstIndex = keysToLoad.get(keys.get(i));
+            if ((firstIndex != null) && (firstIndex != i)) {
+                result.set(i, result.get(firstIndex));
+            }
+        }
+        return result;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -182,12 +263,71 @@ public class RecordAccessorImpl<K extends VirtualKey, V extends VirtualValue> im
         return rec == VirtualNodeCache.DELETED_LEAF_RECORD ? null : rec;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>All paths are looked up in the cache first. If some paths are not found in the cache, all
+     * paths from the first to the last of them are then loaded from the data source as a single
+     * batch, see {@link VirtualDataSource#loadLeafRecords(long, long)}.
+     */
+    @Override
+    public List<VirtualLeafRecord<K, V>> findLeafRecords(final long firstPath, final long lastPath) {
+        if (lastPath < firstPath) {
+            throw new IllegalArgumentException("Invalid path range: " + firstPath + " - " + lastPath);
+        }
+        final int count = Math.toIntExact(lastPath - firstPath + 1);
+        final List<VirtualLeafRecord<K, V>> result = new ArrayList<>(Collections.nCopies(count, null));
+        final long from = Math.max(firstPath, state.getFirstLeafPath());
+        final long to = Math.min(lastPath, state.getLastLeafPath());
+        if ((from == INVALID_PATH) || (from > to)) {
+            return result;
+        }
+        // Paths found in the cache, including deleted leaves
+        final boolean[] cached = new boolean[count];
+        long firstToLoad = INVALID_PATH;
+        long lastToLoad = INVALID_PATH;
+        for (long path = from; path <= to; path++) {
+            final VirtualLeafRecord<K, V> rec = cache.lookupLeafByPath(path, false);
+            if (rec == null) {
+                if (firstToLoad == INVALID_PATH) {
+                    firstToLoad = path;
+                }
+                lastToLoad = path;
+            } else {
+                final int index = Math.toIntExact(path - firstPath);
+                cached[index] = true;
+                if (rec != VirtualNodeCache.DELETED_LEAF_RECORD) {
+                    result.set(index, rec);
+                }
+            }
+        }
+        if (firstToLoad != INVALID_PATH) {
+            final VirtualLeafBytes[] loaded;
+            try {
+                loaded = dataSource.loadLeafRecords(firstToLoad, lastToLoad);
+            } catch (final IOException ex) {
+                throw new UncheckedIOException("Failed to read leaf records from the data source by paths", ex);
+            }
+            for (int j = 0; j < loaded.length; j++) {
+                final int index = Math.toIntExact(firstToLoad + j - firstPath);
+                // Leaves found in the cache take precedence over the data source
+                if ((loaded[j] != null) && !cached[index]) {
+                    result.set(index, loaded[j].toRecord(keySerializer, valueSerializer));
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public long findKey(final K key) {
-        final VirtualLeafRecord<K, V> rec = cache.lookupLeafByKey(key, false);
+        VirtualLeafRecord<K, V> rec = cache.lookupLeafByKey(key, false);
+        if (rec == null) {
+            rec = cache.lookupPrefetchedLeaf(key);
+        }
         if (rec != null) {
             return rec.getPath();
         }
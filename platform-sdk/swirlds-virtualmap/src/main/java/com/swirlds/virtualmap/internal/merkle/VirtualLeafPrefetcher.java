@@ -0,0 +1,401 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.merkle;
+
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
+import static com.swirlds.logging.legacy.LogMarker.VIRTUAL_MERKLE_STATS;
+import static java.util.Objects.requireNonNull;
+
+import com.swirlds.common.threading.framework.config.ThreadConfiguration;
+import com.swirlds.virtualmap.VirtualKey;
+import com.swirlds.virtualmap.VirtualValue;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
+import com.swirlds.virtualmap.datasource.VirtualDataSource;
+import com.swirlds.virtualmap.datasource.VirtualLeafBytes;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import com.swirlds.virtualmap.internal.cache.VirtualNodeCache;
+import com.swirlds.virtualmap.serialize.KeySerializer;
+import com.swirlds.virtualmap.serialize.ValueSerializer;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A queue of virtual leaves to load from the data source ahead of time, before they are accessed
+ * when transactions are handled. Leaves can be requested by keys or by paths, for example, for
+ * payers, transfer targets, and token relations known after transactions are pre-handled. Loaded
+ * leaf records are put to the prefetched leaves cache in {@link VirtualNodeCache}, which is then
+ * consulted by {@link RecordAccessorImpl} before the data source.
+ *
+ * <p>Requests are deduplicated. The number of live requests is limited by {@link
+ * VirtualMapConfig#prefetchMaxRequests()}, extra requests are ignored. Requests are
+ * processed on a thread pool owned by this prefetcher, with at most {@link
+ * VirtualMapConfig#prefetchThreads()} threads. The pool is shut down, when the prefetcher is
+ * closed together with its data source, see {@link #close()}.
+ *
+ * <p>Every request and every prefetched leaf belongs to a generation. A new generation is started
+ * every time a round is handled, see {@link #nextGeneration(VirtualNodeCache)}. Transactions may be
+ * pre-handled a round ahead, so requests and leaves of the previous generation are kept, and only
+ * older (stale) generations are cancelled: pending requests are skipped, and prefetched leaves,
+ * which haven't been used, are dropped. At this point, prefetch effectiveness, the ratio between
+ * dropped and used leaves, is reported to {@link VirtualMapStatistics}. A prefetched leaf is
+ * considered used, if it's read or modified before it's dropped.
+ *
+ * <p>One instance of this class is shared by all copies of a virtual root. This class is thread
+ * safe.
+ *
+ * @param <K> the type of the virtual key
+ * @param <V> the type of the virtual value
+ */
+public class VirtualLeafPrefetcher<K extends VirtualKey, V extends VirtualValue> {
+
+    private static final Logger logger = LogManager.getLogger(VirtualLeafPrefetcher.class);
+
+    /** Max time to wait for running loads to complete, when the prefetcher is closed */
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private static ExecutorService createPrefetchPool(@NonNull final VirtualMapConfig virtualMapConfig) {
+        final int threads = Math.max(1, virtualMapConfig.prefetchThreads());
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadConfiguration(getStaticThreadManager())
+                        .setThreadGroup(new ThreadGroup("virtual-leaf-prefetchers"))
+                        .setComponent("virtual-map")
+                        .setThreadName("leaf-prefetcher")
+                        .setExceptionHandler((t, ex) ->
+                                logger.error(EXCEPTION.getMarker(), "Failed to prefetch virtual leaves", ex))
+                        .buildFactory());
+        // Virtual maps, which don't prefetch, don't keep idle threads
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * A prefetch request. Either a key or a path.
+     *
+     * @param key the key to prefetch, or null if the request is for a path
+     * @param path the path to prefetch, ignored if the key is not null
+     * @param cache the cache to put the prefetched leaf to
+     * @param generation the generation, in which the request was made
+     */
+    private record Request<K extends VirtualKey, V extends VirtualValue>(
+            K key, long path, VirtualNodeCache<K, V> cache, long generation) {}
+
+    private final KeySerializer<K> keySerializer;
+
+    private final ValueSerializer<V> valueSerializer;
+
+    private final VirtualDataSource dataSource;
+
+    private final VirtualMapStatistics statistics;
+
+    private final Executor executor;
+
+    /** The thread pool created and owned by this prefetcher, or null if the executor is provided externally */
+    @Nullable
+    private final ExecutorService ownedExecutor;
+
+    /** Max number of concurrent loads */
+    private final int maxConcurrency;
+
+    /** Max number of requests in a single generation */
+    private final int maxRequests;
+
+    private final Queue<Request<K, V>> pendingRequests = new ConcurrentLinkedQueue<>();
+
+    /** Live requested keys and their request generations, used to deduplicate requests */
+    private final Map<K, Long> requestedKeys = new ConcurrentHashMap<>();
+
+    /** Live requested paths and their request generations, used to deduplicate requests */
+    private final Map<Long, Long> requestedPaths = new ConcurrentHashMap<>();
+
+    /** Keys of leaves put to the prefetched leaves cache, and their request generations */
+    private final Map<K, Long> prefetchedKeys = new ConcurrentHashMap<>();
+
+    /** Number of tasks currently running on the executor */
+    private final AtomicInteger activeTasks = new AtomicInteger(0);
+
+    /**
+     * Current generation. Incremented on every {@link #nextGeneration(VirtualNodeCache)} and {@link
+     * #cancel(VirtualNodeCache)} call.
+     */
+    private final AtomicLong generation = new AtomicLong(0);
+
+    /** The oldest generation, which is not stale. Requests made in older generations are skipped */
+    private volatile long oldestLiveGeneration = 0;
+
+    /** Whether this prefetcher is closed. Closed prefetchers ignore all requests */
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a new prefetcher, which runs requests on its own thread pool.
+     *
+     * @param virtualMapConfig virtual map config
+     * @param keySerializer virtual key serializer
+     * @param valueSerializer virtual value serializer
+     * @param dataSource the data source to load leaves from
+     * @param statistics virtual map statistics to report prefetch effectiveness to
+     */
+    public VirtualLeafPrefetcher(
+            @NonNull final VirtualMapConfig virtualMapConfig,
+            @NonNull final KeySerializer<K> keySerializer,
+            @NonNull final ValueSerializer<V> valueSerializer,
+            @NonNull final VirtualDataSource dataSource,
+            @NonNull final VirtualMapStatistics statistics) {
+        this(virtualMapConfig, keySerializer, valueSerializer, dataSource, statistics, null);
+    }
+
+    /**
+     * Creates a new prefetcher, which runs requests on the given executor. The executor isn't shut
+     * down, when the prefetcher is closed.
+     *
+     * @param virtualMapConfig virtual map config
+     * @param keySerializer virtual key serializer
+     * @param valueSerializer virtual value serializer
+     * @param dataSource the data source to load leaves from
+     * @param statistics virtual map statistics to report prefetch effectiveness to
+     * @param executor the executor to run requests on, or null to create a thread pool owned by
+     *                 the prefetcher
+     */
+    VirtualLeafPrefetcher(
+            @NonNull final VirtualMapConfig virtualMapConfig,
+            @NonNull final KeySerializer<K> keySerializer,
+            @NonNull final ValueSerializer<V> valueSerializer,
+            @NonNull final VirtualDataSource dataSource,
+            @NonNull final VirtualMapStatistics statistics,
+            @Nullable final Executor executor) {
+        this.keySerializer = requireNonNull(keySerializer);
+        this.valueSerializer = requireNonNull(valueSerializer);
+        this.dataSource = requireNonNull(dataSource);
+        this.statistics = requireNonNull(statistics);
+        this.ownedExecutor = (executor == null) ? createPrefetchPool(virtualMapConfig) : null;
+        this.executor = (executor == null) ? ownedExecutor : executor;
+        this.maxConcurrency = Math.max(1, virtualMapConfig.prefetchThreads());
+        this.maxRequests = virtualMapConfig.prefetchMaxRequests();
+    }
+
+    /**
+     * Requests a leaf with the given key to be prefetched. The request is ignored, if the key has
+     * already been requested in the current generation, if the leaf is already in the cache, or if
+     * there have been too many requests in the current generation.
+     *
+     * @param key the key to prefetch
+     * @param cache the current virtual node cache
+     * @return whether the request was accepted
+     */
+    public boolean prefetch(@NonNull final K key, @NonNull final VirtualNodeCache<K, V> cache) {
+        requireNonNull(key);
+        if (closed || cache.hasLeafMutations(key) || (cache.lookupPrefetchedLeaf(key) != null)) {
+            return false;
+        }
+        final long requestGeneration = generation.get();
+        if (tooManyRequests() || (requestedKeys.putIfAbsent(key, requestGeneration) != null)) {
+            return false;
+        }
+        pendingRequests.add(new Request<>(key, 0, cache, requestGeneration));
+        scheduleTasks();
+        return true;
+    }
+
+    /**
+     * Requests a leaf at the given path to be prefetched. The request is ignored, if the path has
+     * already been requested in the current generation, if the leaf at the path is already in the
+     * cache, or if there have been too many requests in the current generation.
+     *
+     * @param path the leaf path to prefetch
+     * @param cache the current virtual node cache
+     * @return whether the request was accepted
+     */
+    public boolean prefetchPath(final long path, @NonNull final VirtualNodeCache<K, V> cache) {
+        if (closed || cache.hasLeafPathMutations(path)) {
+            return false;
+        }
+        final long requestGeneration = generation.get();
+        if (tooManyRequests() || (requestedPaths.putIfAbsent(path, requestGeneration) != null)) {
+            return false;
+        }
+        pendingRequests.add(new Request<>(null, path, cache, requestGeneration));
+        scheduleTasks();
+        return true;
+    }
+
+    /**
+     * Starts a new generation, when a round is handled. Requests and prefetched leaves of the
+     * previous generation are kept, while older generations become stale and are cancelled,
+     * see {@link #cancelOlderThan(long, VirtualNodeCache)}.
+     *
+     * @param cache the current virtual node cache
+     */
+    public void nextGeneration(@NonNull final VirtualNodeCache<K, V> cache) {
+        final long current = generation.incrementAndGet();
+        cancelOlderThan(current - 1, cache);
+    }
+
+    /**
+     * Cancels all pending requests and drops all prefetched leaves, which haven't been used yet,
+     * regardless of their generations. A new generation is started.
+     *
+     * @param cache the current virtual node cache
+     */
+    public void cancel(@NonNull final VirtualNodeCache<K, V> cache) {
+        final long current = generation.incrementAndGet();
+        cancelOlderThan(current, cache);
+    }
+
+    /**
+     * Closes this prefetcher. Must be called before the data source is closed. All pending requests
+     * are cancelled, and running loads are awaited, so the data source isn't accessed after this
+     * method returns. If the thread pool is owned by this prefetcher, it's shut down. This method
+     * is idempotent.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        oldestLiveGeneration = Long.MAX_VALUE;
+        pendingRequests.clear();
+        requestedKeys.clear();
+        requestedPaths.clear();
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+            try {
+                if (!ownedExecutor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    logger.warn(VIRTUAL_MERKLE_STATS.getMarker(), "Leaf prefetch tasks did not complete in time");
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Cancels requests and drops unused prefetched leaves of all generations older than the given one.
+     * Requests, which are currently being processed, are completed, but their results are discarded.
+     * Prefetch effectiveness for the dropped leaves is reported to virtual map statistics.
+     *
+     * @param oldestLive the oldest generation to keep
+     * @param cache the current virtual node cache
+     */
+    private void cancelOlderThan(final long oldestLive, @NonNull final VirtualNodeCache<K, V> cache) {
+        oldestLiveGeneration = oldestLive;
+        pendingRequests.removeIf(request -> request.generation() < oldestLive);
+        requestedKeys.values().removeIf(requestGeneration -> requestGeneration < oldestLive);
+        requestedPaths.values().removeIf(requestGeneration -> requestGeneration < oldestLive);
+        long prefetched = 0;
+        long unused = 0;
+        for (final Iterator<Map.Entry<K, Long>> it = prefetchedKeys.entrySet().iterator(); it.hasNext(); ) {
+            final Map.Entry<K, Long> entry = it.next();
+            if (entry.getValue() < oldestLive) {
+                it.remove();
+                prefetched++;
+                if (cache.takePrefetchedLeaf(entry.getKey()) != null) {
+                    unused++;
+                }
+            }
+        }
+        statistics.recordPrefetch(prefetched, prefetched - unused);
+    }
+
+    private boolean isStale(final Request<K, V> request) {
+        return request.generation() < oldestLiveGeneration;
+    }
+
+    private boolean tooManyRequests() {
+        return requestedKeys.size() + requestedPaths.size() >= maxRequests;
+    }
+
+    /**
+     * Starts new tasks to process pending requests, unless there are already enough tasks running.
+     */
+    private void scheduleTasks() {
+        while (!closed && !pendingRequests.isEmpty()) {
+            final int active = activeTasks.get();
+            if (active >= maxConcurrency) {
+                return;
+            }
+            if (activeTasks.compareAndSet(active, active + 1)) {
+                try {
+                    executor.execute(this::processRequests);
+                } catch (final RejectedExecutionException e) {
+                    activeTasks.decrementAndGet();
+                    // The pool is shut down, when this prefetcher is closed
+                    if (!closed) {
+                        logger.error(EXCEPTION.getMarker(), "Failed to start a leaf prefetch task", e);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes pending requests until the queue is empty.
+     */
+    private void processRequests() {
+        try {
+            Request<K, V> request;
+            while (!closed && ((request = pendingRequests.poll()) != null)) {
+                if (!isStale(request)) {
+                    process(request);
+                }
+            }
+        } finally {
+            activeTasks.decrementAndGet();
+        }
+        // A request may be added after the queue is found empty, but before the number of active
+        // tasks is decremented. Such request would never be processed, unless a new task is started
+        scheduleTasks();
+    }
+
+    private void process(final Request<K, V> request) {
+        final VirtualNodeCache<K, V> cache = request.cache();
+        // Must be read before the leaf is loaded, see VirtualNodeCache.putPrefetchedLeaf()
+        final long lastReleasedVersion = cache.getLastReleasedVersion();
+        final K key = request.key();
+        final VirtualLeafBytes leafBytes;
+        try {
+            if (key != null) {
+                if (cache.hasLeafMutations(key)) {
+                    return;
+                }
+                leafBytes = dataSource.loadLeafRecord(keySerializer.toBytes(key), key.hashCode());
+            } else {
+                if (cache.hasLeafPathMutations(request.path())) {
+                    return;
+                }
+                leafBytes = dataSource.loadLeafRecord(request.path());
+            }
+        } catch (final IOException e) {
+            logger.warn(EXCEPTION.getMarker(), "Failed to prefetch a virtual leaf", e);
+            return;
+        }
+        if ((leafBytes == null) || isStale(request)) {
+            return;
+        }
+        final VirtualLeafRecord<K, V> leaf = leafBytes.toRecord(keySerializer, valueSerializer);
+        if (cache.putPrefetchedLeaf(leaf, lastReleasedVersion)) {
+            // If the request becomes stale at this point, the leaf is dropped in the next generation
+            prefetchedKeys.put(leaf.getKey(), request.generation());
+        }
+    }
+}
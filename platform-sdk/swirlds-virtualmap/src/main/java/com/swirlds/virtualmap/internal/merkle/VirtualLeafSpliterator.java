@@ -0,0 +1,158 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.merkle;
+
+import com.swirlds.virtualmap.VirtualKey;
+import com.swirlds.virtualmap.VirtualValue;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import com.swirlds.virtualmap.internal.RecordAccessor;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over virtual leaf records in a leaf path range. Splitting works the same way as
+ * in {@code LongListSpliterator}: the remaining path range is halved, but ranges smaller than two
+ * batches are not split any further. Leaves are loaded in batches of consecutive paths using
+ * {@link RecordAccessor#findLeafRecords(long, long)}, which allows data sources to read leaves
+ * from disk in the order of their locations rather than one by one.
+ *
+ * <p>The record accessor must be for an immutable virtual map copy, and the copy must not be
+ * released while the spliterator is in use. Every path in the range must have a leaf.
+ *
+ * @param <K>
+ * 		The key
+ * @param <V>
+ * 		The value
+ */
+final class VirtualLeafSpliterator<K extends VirtualKey, V extends VirtualValue>
+        implements Spliterator<VirtualLeafRecord<K, V>> {
+
+    /** Default number of leaves to load at once */
+    static final int DEFAULT_BATCH_SIZE = 4096;
+
+    private final RecordAccessor<K, V> records;
+
+    private final int batchSize;
+
+    /**
+     * One past the last usable path.
+     */
+    private final long fence;
+
+    /**
+     * The current path, modified on advance and split.
+     */
+    private long index;
+
+    /** Leaves loaded for paths starting from {@link #batchStart}, or null if no batch is loaded */
+    private List<VirtualLeafRecord<K, V>> batch;
+
+    /** The path of the first leaf in the current batch */
+    private long batchStart;
+
+    /**
+     * Creates a spliterator covering the given leaf path range.
+     *
+     * @param records
+     * 		the record accessor to load leaves, must be for an immutable virtual map copy
+     * @param origin
+     * 		the least path (inclusive) to cover
+     * @param fence
+     * 		one past the greatest path to cover
+     * @param batchSize
+     * 		the number of leaves to load at once
+     */
+    VirtualLeafSpliterator(
+            final RecordAccessor<K, V> records, final long origin, final long fence, final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        if ((origin < 0) || (fence < origin)) {
+            throw new IllegalArgumentException("Invalid path range: " + origin + " - " + fence);
+        }
+        this.records = Objects.requireNonNull(records);
+        this.index = origin;
+        this.fence = fence;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Spliterator<VirtualLeafRecord<K, V>> trySplit() {
+        final long lo = index;
+        if (fence - lo < 2L * batchSize) {
+            return null;
+        }
+        final long mid = (lo + fence) >>> 1;
+        index = mid;
+        final VirtualLeafSpliterator<K, V> prefix = new VirtualLeafSpliterator<>(records, lo, mid, batchSize);
+        // Hand over the already loaded leaves, if any, to the prefix
+        if ((batch != null) && (batchStart < mid)) {
+            prefix.batch = batch;
+            prefix.batchStart = batchStart;
+        }
+        if ((batch != null) && (batchStart + batch.size() <= mid)) {
+            batch = null;
+        }
+        return prefix;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean tryAdvance(final Consumer<? super VirtualLeafRecord<K, V>> action) {
+        Objects.requireNonNull(action);
+        if (index >= fence) {
+            return false;
+        }
+        action.accept(leaf(index++));
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachRemaining(final Consumer<? super VirtualLeafRecord<K, V>> action) {
+        Objects.requireNonNull(action);
+        while (index < fence) {
+            action.accept(leaf(index++));
+        }
+    }
+
+    /**
+     * Returns the leaf at the given path, loads the next batch of leaves if needed.
+     */
+    private VirtualLeafRecord<K, V> leaf(final long path) {
+        if ((batch == null) || (path < batchStart) || (path >= batchStart + batch.size())) {
+            final long last = Math.min(fence, path + batchSize) - 1;
+            batch = records.findLeafRecords(path, last);
+            batchStart = path;
+        }
+        final VirtualLeafRecord<K, V> leaf = batch.get(Math.toIntExact(path - batchStart));
+        if (leaf == null) {
+            throw new IllegalStateException("Leaf not found, path=" + path);
+        }
+        return leaf;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
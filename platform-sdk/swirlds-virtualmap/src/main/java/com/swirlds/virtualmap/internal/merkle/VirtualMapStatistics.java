@@ -8,6 +8,7 @@ import com.swirlds.metrics.api.LongAccumulator;
 import com.swirlds.metrics.api.LongGauge;
 import com.swirlds.metrics.api.Metrics;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Encapsulates statistics for a virtual map.
@@ -40,10 +41,18 @@ public class VirtualMapStatistics {
 
     /** Estimated virtual node cache size, bytes*/
     private LongGauge nodeCacheSizeB;
+    /** Off-heap leaf value arenas size, bytes */
+    private LongGauge leafValueArenaSizeB;
     /** Number of virtual root copies in the pipeline */
     private IntegerGauge pipelineSize;
     /** Flush backpressure duration, ms */
     private IntegerAccumulator flushBackpressureMs;
+    /** Estimated flush throughput, bytes per second */
+    private LongGauge flushThroughputBps;
+    /** Predicted time to flush all copies in the pipeline, ms */
+    private LongGauge flushBacklogDrainMs;
+    /** Flush throttle pause calculated for the last copy, ms */
+    private LongGauge flushThrottlePauseMs;
     /** Family size backpressure duration, ms */
     private IntegerAccumulator familySizeBackpressureMs;
     /** The average time to merge virtual map copy to the next copy, ms */
@@ -54,6 +63,20 @@ public class VirtualMapStatistics {
     private Counter flushCount;
     /** The average time to hash virtual map copy, ms */
     private LongAccumulator hashDurationMs;
+    /** The time to hash the last hashed virtual map copy, microseconds */
+    private LongGauge lastHashDurationUs;
+    /** The number of nodes hashed per second when the last virtual map copy was hashed */
+    private LongGauge hashNodesPerSec;
+    /** The time to merge the last merged virtual map copy, microseconds */
+    private LongGauge lastMergeDurationUs;
+    /** The number of cache mutations scanned when the last virtual map copy was merged */
+    private LongGauge lastMergeScannedMutations;
+    /** The number of leaves prefetched from the data source */
+    private Counter prefetchedLeaves;
+    /** The number of prefetched leaves used before they were dropped */
+    private Counter prefetchUsedLeaves;
+    /** The percent of prefetched leaves used in the last round */
+    private LongGauge prefetchEffectivenessPercent;
 
     private static LongAccumulator buildLongAccumulator(
             final Metrics metrics, final String name, final String description) {
@@ -120,6 +143,9 @@ public class VirtualMapStatistics {
         nodeCacheSizeB = metrics.getOrCreate(
                 new LongGauge.Config(STAT_CATEGORY, VMAP_PREFIX + LIFECYCLE_PREFIX + "nodeCacheSizeB_" + label)
                         .withDescription("Virtual node cache size, " + label + ", bytes"));
+        leafValueArenaSizeB = metrics.getOrCreate(
+                new LongGauge.Config(STAT_CATEGORY, VMAP_PREFIX + LIFECYCLE_PREFIX + "leafValueArenaSizeB_" + label)
+                        .withDescription("Virtual node cache off-heap leaf value arenas size, " + label + ", bytes"));
         pipelineSize = metrics.getOrCreate(
                 new IntegerGauge.Config(STAT_CATEGORY, VMAP_PREFIX + LIFECYCLE_PREFIX + "pipelineSize_" + label)
                         .withDescription("Virtual pipeline size, " + label));
@@ -127,6 +153,15 @@ public class VirtualMapStatistics {
                 metrics,
                 VMAP_PREFIX + LIFECYCLE_PREFIX + "flushBackpressureMs_" + label,
                 "Virtual pipeline flush backpressure, " + label + ", ms");
+        flushThroughputBps = metrics.getOrCreate(
+                new LongGauge.Config(STAT_CATEGORY, VMAP_PREFIX + LIFECYCLE_PREFIX + "flushThroughputBps_" + label)
+                        .withDescription("Estimated virtual root copy flush throughput, " + label + ", bytes/s"));
+        flushBacklogDrainMs = metrics.getOrCreate(
+                new LongGauge.Config(STAT_CATEGORY, VMAP_PREFIX + LIFECYCLE_PREFIX + "flushBacklogDrainMs_" + label)
+                        .withDescription("Predicted virtual pipeline flush backlog drain time, " + label + ", ms"));
+        flushThrottlePauseMs = metrics.getOrCreate(
+                new LongGauge.Config(STAT_CATEGORY, VMAP_PREFIX + LIFECYCLE_PREFIX + "flushThrottlePauseMs_" + label)
+                        .withDescription("Virtual pipeline flush throttle pause for the last copy, " + label + ", ms"));
         familySizeBackpressureMs = buildIntegerAccumulator(
                 metrics,
                 VMAP_PREFIX + LIFECYCLE_PREFIX + "familySizeBackpressureMs_" + label,
@@ -146,6 +181,27 @@ public class VirtualMapStatistics {
                 metrics,
                 VMAP_PREFIX + LIFECYCLE_PREFIX + "hashDurationMs_" + label,
                 "Virtual root copy hash duration, " + label + ", ms");
+        lastHashDurationUs = metrics.getOrCreate(
+                new LongGauge.Config(STAT_CATEGORY, VMAP_PREFIX + LIFECYCLE_PREFIX + "lastHashDurationUs_" + label)
+                        .withDescription("Last virtual root copy hash duration, " + label + ", us"));
+        hashNodesPerSec = metrics.getOrCreate(
+                new LongGauge.Config(STAT_CATEGORY, VMAP_PREFIX + LIFECYCLE_PREFIX + "hashNodesPerSec_" + label)
+                        .withDescription("Last virtual root copy hashed nodes, " + label + ", per second"));
+        lastMergeDurationUs = metrics.getOrCreate(
+                new LongGauge.Config(STAT_CATEGORY, VMAP_PREFIX + LIFECYCLE_PREFIX + "lastMergeDurationUs_" + label)
+                        .withDescription("Last virtual root copy merge duration, " + label + ", us"));
+        lastMergeScannedMutations = metrics.getOrCreate(new LongGauge.Config(
+                        STAT_CATEGORY, VMAP_PREFIX + LIFECYCLE_PREFIX + "lastMergeScannedMutations_" + label)
+                .withDescription("Last virtual root copy merge scanned cache mutations, " + label));
+        prefetchedLeaves = metrics.getOrCreate(
+                new Counter.Config(STAT_CATEGORY, VMAP_PREFIX + QUERIES_PREFIX + "prefetchedLeaves_" + label)
+                        .withDescription("Number of prefetched leaves, " + label));
+        prefetchUsedLeaves = metrics.getOrCreate(
+                new Counter.Config(STAT_CATEGORY, VMAP_PREFIX + QUERIES_PREFIX + "prefetchUsedLeaves_" + label)
+                        .withDescription("Number of used prefetched leaves, " + label));
+        prefetchEffectivenessPercent = metrics.getOrCreate(new LongGauge.Config(
+                        STAT_CATEGORY, VMAP_PREFIX + QUERIES_PREFIX + "prefetchEffectivenessPercent_" + label)
+                .withDescription("Percent of prefetched leaves used in the last round, " + label));
     }
 
     /**
@@ -206,6 +262,17 @@ public class VirtualMapStatistics {
         }
     }
 
+    /**
+     * Updates {@link #leafValueArenaSizeB} stat to the given value.
+     *
+     * @param value the value to set
+     */
+    public void setLeafValueArenaSize(final long value) {
+        if (this.leafValueArenaSizeB != null) {
+            this.leafValueArenaSizeB.set(value);
+        }
+    }
+
     /**
      * Updates {@link #pipelineSize} stat to the given value.
      *
@@ -228,6 +295,39 @@ public class VirtualMapStatistics {
         }
     }
 
+    /**
+     * Updates {@link #flushThroughputBps} stat to the given value.
+     *
+     * @param bytesPerSecond estimated flush throughput, bytes per second
+     */
+    public void setFlushThroughput(final long bytesPerSecond) {
+        if (this.flushThroughputBps != null) {
+            this.flushThroughputBps.set(bytesPerSecond);
+        }
+    }
+
+    /**
+     * Updates {@link #flushBacklogDrainMs} stat to the given value.
+     *
+     * @param drainTimeMs predicted flush backlog drain time, ms
+     */
+    public void setFlushBacklogDrainMs(final long drainTimeMs) {
+        if (this.flushBacklogDrainMs != null) {
+            this.flushBacklogDrainMs.set(drainTimeMs);
+        }
+    }
+
+    /**
+     * Updates {@link #flushThrottlePauseMs} stat to the given value.
+     *
+     * @param pauseMs flush throttle pause calculated for the last copy, ms
+     */
+    public void setFlushThrottlePauseMs(final long pauseMs) {
+        if (this.flushThrottlePauseMs != null) {
+            this.flushThrottlePauseMs.set(pauseMs);
+        }
+    }
+
     /**
      * Updates {@link #familySizeBackpressureMs} stat.
      *
@@ -250,6 +350,40 @@ public class VirtualMapStatistics {
         }
     }
 
+    /**
+     * Record a virtual root copy is merged, with the given number of cache mutations scanned in the given
+     * time. Updates {@link #lastMergeDurationUs} and {@link #lastMergeScannedMutations} stats.
+     *
+     * @param scannedMutations the number of cache mutations scanned during the merge
+     * @param mergeDurationNanos merge duration, ns
+     */
+    public void recordMergedMutations(final long scannedMutations, final long mergeDurationNanos) {
+        if (this.lastMergeDurationUs != null) {
+            this.lastMergeDurationUs.set(TimeUnit.NANOSECONDS.toMicros(mergeDurationNanos));
+        }
+        if (this.lastMergeScannedMutations != null) {
+            this.lastMergeScannedMutations.set(scannedMutations);
+        }
+    }
+
+    /**
+     * Record leaves are prefetched for a round, and some of them are used.
+     *
+     * @param prefetched the number of prefetched leaves
+     * @param used the number of prefetched leaves used before the round was handled
+     */
+    public void recordPrefetch(final long prefetched, final long used) {
+        if (this.prefetchedLeaves != null) {
+            this.prefetchedLeaves.add(prefetched);
+        }
+        if (this.prefetchUsedLeaves != null) {
+            this.prefetchUsedLeaves.add(used);
+        }
+        if ((this.prefetchEffectivenessPercent != null) && (prefetched > 0)) {
+            this.prefetchEffectivenessPercent.set(used * 100 / prefetched);
+        }
+    }
+
     /**
      * Record a virtual root copy is flushed, and flush duration is as specified.
      *
@@ -274,4 +408,20 @@ public class VirtualMapStatistics {
             this.hashDurationMs.update(hashDurationMs);
         }
     }
+
+    /**
+     * Record a virtual root copy is hashed, with the given number of nodes hashed in the given time.
+     * Updates {@link #lastHashDurationUs} and {@link #hashNodesPerSec} stats.
+     *
+     * @param hashedNodes the number of hashed nodes, both leaves and internal nodes
+     * @param hashDurationNanos hash duration, ns
+     */
+    public void recordHashedNodes(final long hashedNodes, final long hashDurationNanos) {
+        if (this.lastHashDurationUs != null) {
+            this.lastHashDurationUs.set(TimeUnit.NANOSECONDS.toMicros(hashDurationNanos));
+        }
+        if ((this.hashNodesPerSec != null) && (hashDurationNanos > 0)) {
+            this.hashNodesPerSec.set(hashedNodes * TimeUnit.SECONDS.toNanos(1) / hashDurationNanos);
+        }
+    }
 }
@@ -23,6 +23,7 @@ import static com.swirlds.virtualmap.internal.merkle.VirtualMapState.CLASS_ID;
 import static com.swirlds.virtualmap.internal.merkle.VirtualMapState.MAX_LABEL_LENGTH;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 import com.swirlds.common.constructable.ConstructableClass;
@@ -65,6 +66,7 @@ import com.swirlds.virtualmap.internal.hash.VirtualHasher;
 import com.swirlds.virtualmap.internal.pipeline.VirtualPipeline;
 import com.swirlds.virtualmap.internal.pipeline.VirtualRoot;
 import com.swirlds.virtualmap.internal.reconnect.ConcurrentBlockingIterator;
+import com.swirlds.virtualmap.internal.reconnect.HashSummaryTraversalOrder;
 import com.swirlds.virtualmap.internal.reconnect.LearnerPullVirtualTreeView;
 import com.swirlds.virtualmap.internal.reconnect.LearnerPushVirtualTreeView;
 import com.swirlds.virtualmap.internal.reconnect.NodeTraversalOrder;
@@ -83,6 +85,10 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
@@ -326,6 +332,12 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
 
     private VirtualMapStatistics statistics;
 
+    /**
+     * Loads leaves from the data source ahead of time, when they are requested using {@link #prefetch(VirtualKey)}
+     * or {@link #warm(VirtualKey)}. Shared by all copies. Null, if prefetching is disabled in virtual map config.
+     */
+    private VirtualLeafPrefetcher<K, V> prefetcher;
+
     /**
      * This reference is used to assert that there is only one thread modifying the VM at a time.
      * NOTE: This field is used *only* if assertions are enabled, otherwise it always has null value.
@@ -398,6 +410,7 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         this.pipeline = source.pipeline;
         this.flushThreshold.set(source.flushThreshold.get());
         this.statistics = source.statistics;
+        this.prefetcher = source.prefetcher;
         this.virtualMapConfig = source.virtualMapConfig;
 
         if (this.pipeline.isTerminated()) {
@@ -425,6 +438,7 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         if (cache == null) {
             cache = new VirtualNodeCache<>(virtualMapConfig);
         }
+        cache.setValueSerializer(valueSerializer);
         this.state = requireNonNull(state);
         updateShouldBeFlushed();
         requireNonNull(dataSourceBuilder);
@@ -437,6 +451,10 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
             // it is necessary to use the statistics object from the previous instance of the state.
             statistics = new VirtualMapStatistics(state.getLabel());
         }
+        if ((prefetcher == null) && (virtualMapConfig.prefetchThreads() > 0)) {
+            prefetcher = new VirtualLeafPrefetcher<>(
+                    virtualMapConfig, keySerializer, valueSerializer, dataSource, statistics);
+        }
         // VM size metric value is updated in add() and remove(). However, if no elements are added or
         // removed, the metric may have a stale value for a long time. Update it explicitly here
         statistics.setSize(size());
@@ -733,6 +751,11 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         final VirtualRootNode<K, V> copy = new VirtualRootNode<>(this);
         setImmutable(true);
 
+        // The round is handled. Leaves prefetched for older rounds, but not used, are dropped
+        if (prefetcher != null) {
+            prefetcher.nextGeneration(cache);
+        }
+
         if (isHashed()) {
             // Special case: after a "reconnect", the mutable copy will already be hashed
             // at this point in time.
@@ -849,6 +872,53 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         return value == null ? null : (V) value.asReadOnly();
     }
 
+    /**
+     * Gets the values associated with the given keys. This is equivalent to calling {@link
+     * #get(VirtualKey)} for every key, but keys not found in the cache are loaded from the
+     * data source as a single batch, which is faster than loading them one by one.
+     *
+     * @param keys
+     * 		The keys. The list and its elements must not be null. Duplicate keys are allowed.
+     * @return The values, in the same order as the keys. Values may be null, or will be read only.
+     */
+    public List<V> getAll(final List<K> keys) {
+        requireNonNull(keys);
+        final List<VirtualLeafRecord<K, V>> recs = records.findLeafRecords(keys);
+        final List<V> values = new ArrayList<>(recs.size());
+        for (final VirtualLeafRecord<K, V> rec : recs) {
+            final V value = rec == null ? null : rec.getValue();
+            statistics.countReadEntities();
+            //noinspection unchecked
+            values.add(value == null ? null : (V) value.asReadOnly());
+        }
+        return values;
+    }
+
+    /**
+     * Creates a spliterator over all leaves of this virtual root, in the order of leaf paths,
+     * from the first leaf path to the last leaf path. The spliterator can be split to traverse
+     * leaves in parallel. Leaves are loaded in batches of consecutive paths, see {@link
+     * RecordAccessor#findLeafRecords(long, long)}.
+     *
+     * <p>This root must be immutable, and it must not be released while the spliterator is in
+     * use. Leaf records must not be modified.
+     *
+     * @return the leaf spliterator
+     * @throws IllegalStateException if this root is mutable
+     */
+    public Spliterator<VirtualLeafRecord<K, V>> leafSpliterator() {
+        if (!isImmutable()) {
+            throw new IllegalStateException("Leaves can only be traversed in an immutable copy");
+        }
+        final long firstLeafPath = state.getFirstLeafPath();
+        final long lastLeafPath = state.getLastLeafPath();
+        if (firstLeafPath == INVALID_PATH) {
+            return Spliterators.emptySpliterator();
+        }
+        return new VirtualLeafSpliterator<>(
+                records, firstLeafPath, lastLeafPath + 1, VirtualLeafSpliterator.DEFAULT_BATCH_SIZE);
+    }
+
     /**
      * Puts the key/value pair into the map. The key must not be null, but the value
      * may be null. The previous value, if it existed, is returned. If the entry was already in the map,
@@ -986,6 +1056,10 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
     }
 
     private void closeDataSource() {
+        // Stop prefetching first, so no leaves are loaded from the data source after it's closed
+        if (prefetcher != null) {
+            prefetcher.close();
+        }
         // Shut down the data source. If this doesn't shut things down, then there isn't
         // much we can do aside from logging the fact. The node may well die before too long
         if (dataSource != null) {
@@ -1023,7 +1097,9 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         if (flushed.get()) {
             throw new IllegalStateException("a flushed copy can not be merged");
         }
-        cache.merge();
+        final long mergeStartNanos = System.nanoTime();
+        final long scannedMutations = cache.merge();
+        statistics.recordMergedMutations(scannedMutations, System.nanoTime() - mergeStartNanos);
         merged.set(true);
 
         final long end = System.currentTimeMillis();
@@ -1140,6 +1216,7 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         final long start = System.currentTimeMillis();
         flush(cache, state, dataSource);
         cache.release();
+        statistics.setLeafValueArenaSize(cache.getLeafValueArenaSize());
         final long end = System.currentTimeMillis();
         flushed.set(true);
         flushLatch.countDown();
@@ -1314,7 +1391,7 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
             return;
         }
 
-        final long start = System.currentTimeMillis();
+        final long start = System.nanoTime();
 
         // Make sure the cache is immutable for leaf changes but mutable for internal node changes
         cache.prepareForHashing();
@@ -1333,7 +1410,8 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
                 state.getFirstLeafPath(),
                 state.getLastLeafPath(),
                 hashListener,
-                virtualMapConfig);
+                virtualMapConfig,
+                cache.estimatedDirtyLeavesCount());
 
         if (virtualHash == null) {
             final Hash rootHash = (state.size() == 0) ? null : records.findHash(0);
@@ -1347,8 +1425,10 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         // are an attempt to merge the cache will fail because the cache hasn't been sealed yet
         setHashPrivate(virtualHash);
 
-        final long end = System.currentTimeMillis();
-        statistics.recordHash(end - start);
+        final long duration = System.nanoTime() - start;
+        statistics.setLeafValueArenaSize(cache.getLeafValueArenaSize());
+        statistics.recordHash(NANOSECONDS.toMillis(duration));
+        statistics.recordHashedNodes(hasher.getHashedNodeCount(), duration);
     }
 
     /*
@@ -1403,7 +1483,12 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         final VirtualDataSource dataSourceCopy = dataSourceBuilder.copy(dataSource, false, true);
         try {
             final VirtualNodeCache<K, V> cacheSnapshot = cache.snapshot();
-            flush(cacheSnapshot, state, dataSourceCopy);
+            try {
+                flush(cacheSnapshot, state, dataSourceCopy);
+            } finally {
+                // Release off-heap leaf arenas referenced by the snapshot
+                cacheSnapshot.release();
+            }
             dataSourceBuilder.snapshot(destination, dataSourceCopy);
         } finally {
             dataSourceCopy.close();
@@ -1434,6 +1519,8 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
                     getStaticThreadManager(), reconnectConfig, this, state, pipeline);
             case VirtualMapReconnectMode.PULL_TWO_PHASE_PESSIMISTIC -> new TeacherPullVirtualTreeView<>(
                     getStaticThreadManager(), reconnectConfig, this, state, pipeline);
+            case VirtualMapReconnectMode.PULL_HASH_SUMMARY -> new TeacherPullVirtualTreeView<>(
+                    getStaticThreadManager(), reconnectConfig, this, state, pipeline);
             default -> throw new UnsupportedOperationException(
                     "Unknown reconnect mode: " + virtualMapConfig.reconnectMode());
         };
@@ -1539,6 +1626,19 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
                         twoPhasePessimistic,
                         mapStats);
             }
+            case VirtualMapReconnectMode.PULL_HASH_SUMMARY -> {
+                final NodeTraversalOrder hashSummary =
+                        new HashSummaryTraversalOrder(reconnectConfig.pullLearnerHashSummaryRank());
+                yield new LearnerPullVirtualTreeView<>(
+                        reconnectConfig,
+                        this,
+                        originalMap.records,
+                        originalState,
+                        reconnectState,
+                        nodeRemover,
+                        hashSummary,
+                        mapStats);
+            }
             default -> throw new UnsupportedOperationException(
                     "Unknown reconnect mode: " + virtualMapConfig.reconnectMode());
         };
@@ -1644,13 +1744,67 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
     /**
      * Loads the leaf record.
      * Lower level caches (VirtualDataSource, the OS file cache) should make subsequent value retrievals faster.
-     * Warming keys can be done in parallel.
+     * Warming keys can be done in parallel. If prefetching is enabled, the leaf is prefetched in the
+     * background instead, see {@link #prefetch(VirtualKey)}.
      * @param key key to the leaf node
      */
     public void warm(final K key) {
+        if (prefetcher != null) {
+            prefetch(key);
+            return;
+        }
         records.findLeafRecord(key, false);
     }
 
+    /**
+     * Loads leaf records for multiple keys as a single batch. See {@link #warm(VirtualKey)}.
+     * @param keys keys to the leaf nodes
+     */
+    public void warmAll(final List<K> keys) {
+        if (prefetcher != null) {
+            keys.forEach(this::prefetch);
+            return;
+        }
+        records.findLeafRecords(keys);
+    }
+
+    /**
+     * Requests the leaf record for the given key to be loaded from the data source in the background.
+     * The loaded record is kept in memory until it's used, or until the round after the current round
+     * is handled and its copy is copied. Has no effect, if prefetching is disabled.
+     *
+     * @param key key to the leaf node
+     */
+    public void prefetch(final K key) {
+        requireNonNull(key, NO_NULL_KEYS_ALLOWED_MESSAGE);
+        if (prefetcher != null) {
+            prefetcher.prefetch(key, cache);
+        }
+    }
+
+    /**
+     * Requests the leaf record at the given path to be loaded from the data source in the background.
+     * See {@link #prefetch(VirtualKey)} for details.
+     *
+     * @param path path to the leaf node
+     */
+    public void prefetchPath(final long path) {
+        if ((prefetcher != null) && (path >= state.getFirstLeafPath()) && (path <= state.getLastLeafPath())) {
+            prefetcher.prefetchPath(path, cache);
+        }
+    }
+
+    /**
+     * Cancels all pending prefetch requests and drops prefetched leaf records, which haven't been used
+     * yet. When this copy is copied, only requests and leaves older than the previous round are cancelled
+     * automatically. Has no effect, if prefetching is disabled.
+     */
+    public void cancelPrefetch() {
+        if (prefetcher != null) {
+            prefetcher.cancel(cache);
+        }
+    }
+
     ////////////////////////
 
     /**
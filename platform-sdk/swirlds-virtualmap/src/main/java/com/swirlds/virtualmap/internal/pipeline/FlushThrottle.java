@@ -0,0 +1,136 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.pipeline;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Adaptive backpressure controller for a virtual pipeline. It estimates flush throughput from
+ * recent flush durations, and uses it to predict how long it would take to flush all copies
+ * currently in the pipeline (the flush backlog). If the predicted drain time is below the target,
+ * no backpressure is applied. Otherwise, new copies are slowed down proportionally to how much
+ * the drain time exceeds the target: when the drain time is twice the target, the time between
+ * copies is doubled, and so on, up to the max pause.
+ *
+ * <p>Time between copies is measured without backpressure pauses, otherwise the pauses would
+ * feed back into the next pause estimations.
+ *
+ * <p>This class is thread safe. Flushes are reported from the pipeline lifecycle thread, while
+ * copies are reported from threads that create virtual root copies.
+ */
+final class FlushThrottle {
+
+    /**
+     * Weight of the latest sample in exponential moving averages of flush throughput and
+     * time between copies.
+     */
+    static final double SMOOTHING_FACTOR = 0.3;
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /** Target time to flush all copies in the pipeline, ms */
+    private final long targetDrainTimeMs;
+
+    /** Max pause to apply to a single copy, ms */
+    private final long maxPauseMs;
+
+    /** Estimated flush throughput, bytes per second. Negative until the first flush is measured */
+    private double flushThroughput = -1;
+
+    /** Estimated time between copies without backpressure, ms. Negative until measured */
+    private double copyIntervalMs = -1;
+
+    /** The time when the previous copy was completed, ns, or -1 if there were no copies yet */
+    private long lastCopyCompletedNanos = -1;
+
+    /**
+     * Creates a new flush throttle.
+     *
+     * @param targetDrainTime target time to flush all copies in the pipeline
+     * @param maxPause max pause to apply to a single copy
+     */
+    FlushThrottle(@NonNull final Duration targetDrainTime, @NonNull final Duration maxPause) {
+        Objects.requireNonNull(targetDrainTime);
+        Objects.requireNonNull(maxPause);
+        this.targetDrainTimeMs = Math.max(1, targetDrainTime.toMillis());
+        this.maxPauseMs = maxPause.toMillis();
+    }
+
+    /**
+     * Records a completed flush.
+     *
+     * @param flushedBytes estimated size of the flushed copy, bytes
+     * @param flushDurationNanos flush duration, ns
+     */
+    synchronized void onFlush(final long flushedBytes, final long flushDurationNanos) {
+        if ((flushedBytes <= 0) || (flushDurationNanos <= 0)) {
+            return;
+        }
+        final double sample = flushedBytes * NANOS_PER_SECOND / flushDurationNanos;
+        flushThroughput = (flushThroughput < 0) ? sample : smooth(flushThroughput, sample);
+    }
+
+    /**
+     * Records a new copy is started, before any backpressure is applied to it.
+     *
+     * @param nowNanos current time, ns
+     */
+    synchronized void onCopyStarted(final long nowNanos) {
+        if (lastCopyCompletedNanos < 0) {
+            return;
+        }
+        final double sample = Math.max(0, nowNanos - lastCopyCompletedNanos) / NANOS_PER_MILLI;
+        copyIntervalMs = (copyIntervalMs < 0) ? sample : smooth(copyIntervalMs, sample);
+    }
+
+    /**
+     * Records a new copy is completed, after all backpressure is applied to it.
+     *
+     * @param nowNanos current time, ns
+     */
+    synchronized void onCopyCompleted(final long nowNanos) {
+        lastCopyCompletedNanos = nowNanos;
+    }
+
+    private static double smooth(final double average, final double sample) {
+        return average + SMOOTHING_FACTOR * (sample - average);
+    }
+
+    /**
+     * @return estimated flush throughput, bytes per second, or zero if unknown
+     */
+    synchronized long getFlushThroughput() {
+        return Math.max(0, Math.round(flushThroughput));
+    }
+
+    /**
+     * Predicts the time to flush the given backlog at the estimated flush throughput.
+     *
+     * @param backlogBytes estimated size of all copies in the pipeline, bytes
+     * @return predicted drain time, ms, or -1 if flush throughput is unknown
+     */
+    synchronized long predictDrainTimeMs(final long backlogBytes) {
+        if (flushThroughput <= 0) {
+            return -1;
+        }
+        return Math.round(Math.max(0, backlogBytes) * 1000.0 / flushThroughput);
+    }
+
+    /**
+     * Calculates the pause to apply to a new copy, given the current backlog.
+     *
+     * @param backlogBytes estimated size of all copies in the pipeline, bytes
+     * @return the pause, ms, zero if no backpressure is needed
+     */
+    synchronized long calculatePauseMs(final long backlogBytes) {
+        final long drainTimeMs = predictDrainTimeMs(backlogBytes);
+        if ((drainTimeMs <= targetDrainTimeMs) || (copyIntervalMs <= 0)) {
+            return 0;
+        }
+        final double excess = (double) (drainTimeMs - targetDrainTimeMs) / targetDrainTimeMs;
+        return Math.min(maxPauseMs, Math.round(copyIntervalMs * excess));
+    }
+}
@@ -26,6 +26,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -152,6 +153,12 @@ public class VirtualPipeline<K extends VirtualKey, V extends VirtualValue> {
 
     private final VirtualMapStatistics statistics;
 
+    /**
+     * Adaptive backpressure controller, used when {@link VirtualMapConfig#flushThrottleAdaptive()}
+     * is enabled. Flush throughput is measured regardless of the config, it's reported as a metric.
+     */
+    private final FlushThrottle flushThrottle;
+
     /**
      * Create a new pipeline for a family of fast copies on a virtual root.
      */
@@ -168,6 +175,8 @@ public class VirtualPipeline<K extends VirtualKey, V extends VirtualValue> {
                 .buildFactory());
 
         statistics = new VirtualMapStatistics(label);
+        flushThrottle =
+                new FlushThrottle(config.flushThrottleTargetDrainTime(), config.maximumFlushThrottlePeriod());
     }
 
     /**
@@ -203,21 +212,7 @@ public class VirtualPipeline<K extends VirtualKey, V extends VirtualValue> {
         }
 
         try {
-            final long sleepStartTime = System.currentTimeMillis();
-            long timeSleptSoFar;
-            do {
-                MILLISECONDS.sleep(1);
-                timeSleptSoFar = System.currentTimeMillis() - sleepStartTime;
-                // Virtual map copy may be flushing on the lifecycle thread, while this thread is
-                // sleeping. After any flush, total family size is reduced, and the current thread
-                // may not sleep any longer. Re-calculate backpressure duration as of now and
-                // check it against the time this thread has slept so far
-                final long currentSleepTimeMillis = calculateFamilySizeBackpressurePause();
-                if ((currentSleepTimeMillis <= 0) || (timeSleptSoFar >= currentSleepTimeMillis)) {
-                    break;
-                }
-            } while (timeSleptSoFar < sleepTimeMillis);
-
+            final long timeSleptSoFar = sleep(sleepTimeMillis, this::calculateFamilySizeBackpressurePause);
             // Record actual sleep time
             logger.info(VIRTUAL_MERKLE_STATS.getMarker(), "Total size backpressure: {} ms", timeSleptSoFar);
             statistics.recordFamilySizeBackpressureMs((int) timeSleptSoFar);
@@ -226,6 +221,70 @@ public class VirtualPipeline<K extends VirtualKey, V extends VirtualValue> {
         }
     }
 
+    /**
+     * Slow down the fast copy operation if the predicted time to flush all virtual root copies in
+     * this pipeline exceeds {@link VirtualMapConfig#flushThrottleTargetDrainTime()}. See {@link
+     * FlushThrottle} for details. Family size backpressure, see {@link #applyFamilySizeBackpressure()},
+     * is still applied as a safety limit, for example, when flush throughput isn't measured yet. The
+     * copy is paused for the longer of the two pauses.
+     */
+    private void applyFlushThrottle() {
+        flushThrottle.onCopyStarted(System.nanoTime());
+        try {
+            final long backlog = currentTotalSize();
+            final long flushThrottlePause = flushThrottle.calculatePauseMs(backlog);
+            final long familySizePause = calculateFamilySizeBackpressurePause();
+            statistics.setFlushBacklogDrainMs(flushThrottle.predictDrainTimeMs(backlog));
+            statistics.setFlushThrottlePauseMs(flushThrottlePause);
+            final long sleepTimeMillis = Math.max(flushThrottlePause, familySizePause);
+            if (sleepTimeMillis <= 0) {
+                return;
+            }
+            final long timeSleptSoFar = sleep(
+                    sleepTimeMillis,
+                    () -> Math.max(calculateFlushThrottlePause(), calculateFamilySizeBackpressurePause()));
+            // Record actual sleep time against the backpressure that caused it
+            if (flushThrottlePause >= familySizePause) {
+                logger.info(VIRTUAL_MERKLE_STATS.getMarker(), "Flush throttle backpressure: {} ms", timeSleptSoFar);
+                statistics.recordFlushBackpressureMs((int) timeSleptSoFar);
+            } else {
+                logger.info(VIRTUAL_MERKLE_STATS.getMarker(), "Total size backpressure: {} ms", timeSleptSoFar);
+                statistics.recordFamilySizeBackpressureMs((int) timeSleptSoFar);
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flushThrottle.onCopyCompleted(System.nanoTime());
+        }
+    }
+
+    /**
+     * Sleeps for the given time, but wakes up earlier, if the backpressure is released.
+     *
+     * @param sleepTimeMillis initial sleep time, ms
+     * @param currentSleepTime a function to re-calculate sleep time as of now, ms
+     * @return actual sleep time, ms
+     * @throws InterruptedException if the current thread is interrupted
+     */
+    private static long sleep(final long sleepTimeMillis, final LongSupplier currentSleepTime)
+            throws InterruptedException {
+        final long sleepStartTime = System.currentTimeMillis();
+        long timeSleptSoFar;
+        do {
+            MILLISECONDS.sleep(1);
+            timeSleptSoFar = System.currentTimeMillis() - sleepStartTime;
+            // Virtual map copy may be flushing on the lifecycle thread, while this thread is
+            // sleeping. After any flush, total family size is reduced, and the current thread
+            // may not sleep any longer. Re-calculate backpressure duration as of now and
+            // check it against the time this thread has slept so far
+            final long currentSleepTimeMillis = currentSleepTime.getAsLong();
+            if ((currentSleepTimeMillis <= 0) || (timeSleptSoFar >= currentSleepTimeMillis)) {
+                break;
+            }
+        } while (timeSleptSoFar < sleepTimeMillis);
+        return timeSleptSoFar;
+    }
+
     long calculateFamilySizeBackpressurePause() {
         final long sizeThreshold = config.familyThrottleThreshold();
         if (sizeThreshold <= 0) {
@@ -240,6 +299,10 @@ public class VirtualPipeline<K extends VirtualKey, V extends VirtualValue> {
         return (long) over100percentExcess * over100percentExcess;
     }
 
+    long calculateFlushThrottlePause() {
+        return flushThrottle.calculatePauseMs(currentTotalSize());
+    }
+
     /**
      * Register a fast copy of the map.
      *
@@ -275,7 +338,11 @@ public class VirtualPipeline<K extends VirtualKey, V extends VirtualValue> {
 
         statistics.setPipelineSize(copies.getSize());
 
-        applyFamilySizeBackpressure();
+        if (config.flushThrottleAdaptive()) {
+            applyFlushThrottle();
+        } else {
+            applyFamilySizeBackpressure();
+        }
     }
 
     /**
@@ -473,7 +540,11 @@ public class VirtualPipeline<K extends VirtualKey, V extends VirtualValue> {
         if (!copy.isHashed()) {
             hashCopy(copy);
         }
+        final long flushedSize = copy.estimatedSize();
+        final long start = System.nanoTime();
         copy.flush();
+        flushThrottle.onFlush(flushedSize, System.nanoTime() - start);
+        statistics.setFlushThroughput(flushThrottle.getFlushThroughput());
     }
 
     /**
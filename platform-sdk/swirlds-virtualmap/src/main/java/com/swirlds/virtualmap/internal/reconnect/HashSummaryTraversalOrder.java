@@ -0,0 +1,168 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.reconnect;
+
+import com.swirlds.common.merkle.synchronization.task.ReconnectNodeCount;
+import com.swirlds.virtualmap.internal.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Virtual node traversal policy, which starts with a hash summary of the learner state. The summary
+ * is hashes of all internal nodes at a single rank, the summary rank. Every node at this rank is
+ * a root of a chunk of the virtual tree. The learner state is the last saved state, so the summary
+ * hashes are read from the learner's hash store, where they are persisted along with the state.
+ *
+ * <p>All paths at the summary rank are sent to the teacher in a single request, see {@link
+ * #getRequestBatchSize(int)}. Chunks with clean roots are not traversed any further. For every
+ * dirty internal node, including dirty chunk roots, requests for its children are sent. Below the
+ * summary rank, only children of dirty nodes are requested, and no requests are sent for nodes in
+ * clean sub-trees. The number of requests is therefore proportional to the number of dirty nodes
+ * rather than to the virtual tree size.
+ *
+ * <p>Unlike {@link TopToBottomTraversalOrder}, this class doesn't pessimistically send requests
+ * for nodes, which parents may be clean. If there are no known dirty nodes to process, but some
+ * responses are still expected from the teacher, {@link #getNextPathToSend()} returns a value
+ * less than {@link Path#INVALID_PATH} to indicate that the learner should wait.
+ */
+public class HashSummaryTraversalOrder implements NodeTraversalOrder {
+
+    /** Returned from {@link #getNextPathToSend()} when there is nothing to send at the moment */
+    static final long WAIT_PATH = Path.INVALID_PATH - 1;
+
+    private ReconnectNodeCount nodeCount;
+
+    // Max summary rank. The actual summary rank may be lower for small trees
+    private final int maxSummaryRank;
+
+    private long reconnectFirstLeafPath;
+    private long reconnectLastLeafPath;
+
+    // The next path at the summary rank to send, or INVALID_PATH if the summary hasn't
+    // been started yet or is already sent. Initialized on the receiving thread, when the root
+    // response is received, and then only accessed on the sending thread
+    private long nextSummaryPath = Path.INVALID_PATH;
+
+    // The last path at the summary rank
+    private long lastSummaryPath = Path.INVALID_PATH;
+
+    // Number of paths at the summary rank
+    private int summarySize = 0;
+
+    // Paths to send, children of dirty internal nodes. This queue is populated on the receiving
+    // thread and polled on the sending thread
+    private final Queue<Long> pathsToSend = new ConcurrentLinkedQueue<>();
+
+    // Number of paths sent to the teacher, but not received back yet. Doesn't include the root
+    // path, which is sent by the learner outside this traversal order
+    private final AtomicLong pathsInFlight = new AtomicLong(0);
+
+    /**
+     * Creates a new hash summary traversal order.
+     *
+     * @param maxSummaryRank the max summary rank, must be positive
+     */
+    public HashSummaryTraversalOrder(final int maxSummaryRank) {
+        if (maxSummaryRank <= 0) {
+            throw new IllegalArgumentException("Summary rank must be positive");
+        }
+        this.maxSummaryRank = maxSummaryRank;
+    }
+
+    @Override
+    public void start(final long firstLeafPath, final long lastLeafPath, final ReconnectNodeCount nodeCount) {
+        this.reconnectFirstLeafPath = firstLeafPath;
+        this.reconnectLastLeafPath = lastLeafPath;
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     * Returns the rank used for the hash summary. All nodes at this rank are internal nodes. If
+     * the virtual tree has fewer than two ranks of internal nodes, zero is returned, which means
+     * the root node is used as the only chunk.
+     */
+    int getSummaryRank() {
+        if (reconnectFirstLeafPath <= 0) {
+            return 0;
+        }
+        final int leafParentRank = Path.getRank(reconnectFirstLeafPath) - 1;
+        return Math.max(0, Math.min(maxSummaryRank, leafParentRank));
+    }
+
+    @Override
+    public void nodeReceived(final long path, final boolean isClean) {
+        final boolean isLeaf = path >= reconnectFirstLeafPath;
+        if (isLeaf) {
+            nodeCount.incrementLeafCount();
+            if (isClean) {
+                nodeCount.incrementRedundantLeafCount();
+            }
+        } else {
+            nodeCount.incrementInternalCount();
+            if (isClean) {
+                nodeCount.incrementRedundantInternalCount();
+            }
+        }
+        if (path == Path.ROOT_PATH) {
+            if (!isClean) {
+                final int summaryRank = getSummaryRank();
+                if (summaryRank == 0) {
+                    addChildrenToSend(Path.ROOT_PATH);
+                } else {
+                    summarySize = 1 << summaryRank;
+                    lastSummaryPath = Path.getRightGrandChildPath(Path.ROOT_PATH, summaryRank);
+                    nextSummaryPath = Path.getLeftGrandChildPath(Path.ROOT_PATH, summaryRank);
+                }
+            }
+            return;
+        }
+        if (!isClean && !isLeaf) {
+            addChildrenToSend(path);
+        }
+        // Children must be added before the counter is decremented, see getNextPathToSend()
+        pathsInFlight.decrementAndGet();
+    }
+
+    private void addChildrenToSend(final long path) {
+        final long left = Path.getLeftChildPath(path);
+        if (left <= reconnectLastLeafPath) {
+            pathsToSend.add(left);
+        }
+        final long right = Path.getRightChildPath(path);
+        if (right <= reconnectLastLeafPath) {
+            pathsToSend.add(right);
+        }
+    }
+
+    @Override
+    public long getNextPathToSend() {
+        if (nextSummaryPath != Path.INVALID_PATH) {
+            final long result = nextSummaryPath;
+            nextSummaryPath = (result == lastSummaryPath) ? Path.INVALID_PATH : result + 1;
+            pathsInFlight.incrementAndGet();
+            return result;
+        }
+        // The counter must be checked before the queue. Paths are added to the queue before the
+        // counter is decremented, so if no paths are in flight, the queue is up to date
+        final boolean inFlight = pathsInFlight.get() > 0;
+        final Long path = pathsToSend.poll();
+        if (path != null) {
+            pathsInFlight.incrementAndGet();
+            return path;
+        }
+        return inFlight ? WAIT_PATH : Path.INVALID_PATH;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>While the summary is being sent, this method returns the max request size, so the whole
+     * summary is sent in a single request.
+     */
+    @Override
+    public int getRequestBatchSize(final int configuredBatchSize) {
+        return (nextSummaryPath != Path.INVALID_PATH)
+                ? Math.max(configuredBatchSize, summarySize)
+                : configuredBatchSize;
+    }
+}
@@ -83,8 +83,9 @@ public class LearnerPullVirtualTreeReceiveTask {
                     // the learner tree is notified about the new response in deserialize() method below
                     response.deserialize(in, 0);
                     view.getMapStats().incrementTransfersFromTeacher();
-                    logger.debug(RECONNECT.getMarker(), "Learner receive path: " + response.getPath());
-                    if (response.getPath() == 0) {
+                    logger.debug(RECONNECT.getMarker(), "Learner receive paths: " + response.getPathCount());
+                    // Root node is always requested in a separate batch
+                    if (response.getPath(0) == 0) {
                         rootResponseReceived.countDown();
                     }
                     expectedResponses.decrementAndGet();
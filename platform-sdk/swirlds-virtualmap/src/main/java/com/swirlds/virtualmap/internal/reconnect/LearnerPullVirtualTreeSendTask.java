@@ -10,6 +10,7 @@ import com.swirlds.common.merkle.synchronization.utility.MerkleSynchronizationEx
 import com.swirlds.common.threading.pool.StandardWorkGroup;
 import com.swirlds.virtualmap.internal.Path;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -25,9 +26,12 @@ import org.apache.logging.log4j.Logger;
  * tree path range on the teacher side.
  *
  * <p>After the root response has been received, this task keeps sending requests according to
- * the provided {@link NodeTraversalOrder}. After the next path to request is {@link
- * Path#INVALID_PATH}, this request is sent to indicate that there will be no more requests from
- * the learner, and this task is finished.
+ * the provided {@link NodeTraversalOrder}. Paths are sent in batches of up to {@link
+ * ReconnectConfig#pullLearnerRequestBatchSize()} paths, unless the traversal order requests larger
+ * batches, see {@link NodeTraversalOrder#getRequestBatchSize(int)}. A batch is sent when it's full,
+ * or when the traversal order has no more paths to send at the moment. After the next path to request is
+ * {@link Path#INVALID_PATH}, this request is sent to indicate that there will be no more requests
+ * from the learner, and this task is finished.
  */
 public class LearnerPullVirtualTreeSendTask {
 
@@ -46,6 +50,9 @@ public class LearnerPullVirtualTreeSendTask {
     // Max time to wait for path 0 (virtual root) response from the teacher
     private final Duration rootResponseTimeout;
 
+    // Max number of paths to send in a single request
+    private final int batchSize;
+
     // Indicates if a response for path 0 (virtual root) has been received
     private final CountDownLatch rootResponseReceived;
 
@@ -88,12 +95,31 @@ public class LearnerPullVirtualTreeSendTask {
         this.responsesExpected = responsesExpected;
 
         this.rootResponseTimeout = reconnectConfig.pullLearnerRootResponseTimeout();
+        this.batchSize = Math.min(reconnectConfig.pullLearnerRequestBatchSize(), PullVirtualTreeRequest.MAX_BATCH_SIZE);
     }
 
     void exec() {
         workGroup.execute(NAME, this::run);
     }
 
+    /**
+     * Sends a request for a batch of paths to the teacher. Learner hashes for the paths are loaded
+     * as a batch, too, see {@link LearnerPullVirtualTreeView#getNodeHashes(long[])}.
+     *
+     * @param batch the paths to request
+     * @param count the number of paths in the batch
+     * @throws InterruptedException if the thread is interrupted while sending the request
+     */
+    private void sendBatch(final long[] batch, final int count) throws InterruptedException {
+        final long[] paths = Arrays.copyOf(batch, count);
+        final Hash[] hashes = view.getNodeHashes(paths);
+        // Increment the number of expected responses before the request is sent, so the receiving
+        // task doesn't finish prematurely
+        responsesExpected.incrementAndGet();
+        out.sendAsync(new PullVirtualTreeRequest(paths, hashes));
+        view.getMapStats().incrementTransfersFromLearner();
+    }
+
     private void run() {
         try (out) {
             // Send a request for the root node first. The response will contain virtual tree path range
@@ -104,20 +130,39 @@ public class LearnerPullVirtualTreeSendTask {
                 throw new MerkleSynchronizationException("Timed out waiting for root node response from the teacher");
             }
 
+            long[] batch = new long[batchSize];
+            int batchCount = 0;
             while (true) {
                 final long path = traversalOrder.getNextPathToSend();
                 logger.debug(RECONNECT.getMarker(), "Learner send path: " + path);
                 if (path < Path.INVALID_PATH) {
-                    Thread.onSpinWait();
+                    // No paths to send at the moment, send what is already collected
+                    if (batchCount > 0) {
+                        sendBatch(batch, batchCount);
+                        batchCount = 0;
+                    } else {
+                        Thread.onSpinWait();
+                    }
                     continue;
                 }
-                final Hash hash = path == Path.INVALID_PATH ? null : view.getNodeHash(path);
-                out.sendAsync(new PullVirtualTreeRequest(path, hash));
-                view.getMapStats().incrementTransfersFromLearner();
                 if (path == Path.INVALID_PATH) {
+                    if (batchCount > 0) {
+                        sendBatch(batch, batchCount);
+                    }
+                    out.sendAsync(new PullVirtualTreeRequest(path, null));
+                    view.getMapStats().incrementTransfersFromLearner();
                     break;
                 }
-                responsesExpected.incrementAndGet();
+                final int limit = Math.min(
+                        traversalOrder.getRequestBatchSize(batchSize), PullVirtualTreeRequest.MAX_BATCH_SIZE);
+                if (batchCount == batch.length) {
+                    batch = Arrays.copyOf(batch, Math.max(limit, batchCount + 1));
+                }
+                batch[batchCount++] = path;
+                if (batchCount >= limit) {
+                    sendBatch(batch, batchCount);
+                    batchCount = 0;
+                }
             }
             logger.debug(RECONNECT.getMarker(), "Learner send done");
         } catch (final InterruptedException ex) {
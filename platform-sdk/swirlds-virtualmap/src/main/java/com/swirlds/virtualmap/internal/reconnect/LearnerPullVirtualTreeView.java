@@ -34,6 +34,8 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import java.util.zip.Inflater;
 
 /**
  * An implementation of {@link LearnerTreeView} for the virtual merkle. The learner during reconnect
@@ -91,6 +93,13 @@ public final class LearnerPullVirtualTreeView<K extends VirtualKey, V extends Vi
      */
     private boolean firstNodeResponse = true;
 
+    /**
+     * Used to decompress compressed responses from the teacher. Responses are only deserialized in
+     * the learner receiving task thread, so there is no need to synchronize access to it. Created
+     * on first use.
+     */
+    private Inflater inflater;
+
     /**
      * Create a new {@link LearnerPullVirtualTreeView}.
      *
@@ -266,6 +275,42 @@ public final class LearnerPullVirtualTreeView<K extends VirtualKey, V extends Vi
         return hash;
     }
 
+    /**
+     * Gets original node hashes for multiple paths, see {@link #getNodeHash(Long)}. If the number of
+     * paths is at least {@link ReconnectConfig#pullLearnerParallelHashThreshold()}, the hashes are
+     * loaded in parallel.
+     *
+     * @param paths the paths in the original tree
+     * @return the node hashes, in the same order as the paths
+     */
+    public Hash[] getNodeHashes(final long[] paths) {
+        final Hash[] hashes = new Hash[paths.length];
+        final int threshold = reconnectConfig.pullLearnerParallelHashThreshold();
+        if ((threshold > 0) && (paths.length >= threshold)) {
+            IntStream.range(0, paths.length).parallel().forEach(i -> hashes[i] = getNodeHash(paths[i]));
+        } else {
+            for (int i = 0; i < paths.length; i++) {
+                hashes[i] = getNodeHash(paths[i]);
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Decompresses a compressed response payload from the teacher.
+     *
+     * @param compressed the compressed payload
+     * @param length the expected payload length after decompression
+     * @return the decompressed payload
+     * @throws IOException if the payload is malformed
+     */
+    byte[] decompress(final byte[] compressed, final int length) throws IOException {
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        }
+        return VirtualReconnectUtils.decompress(inflater, compressed, length);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -320,6 +365,9 @@ public final class LearnerPullVirtualTreeView<K extends VirtualKey, V extends Vi
      */
     @Override
     public void close() {
+        if (inflater != null) {
+            inflater.end();
+        }
         nodeRemover.allNodesReceived();
         root.endLearnerReconnect();
     }
@@ -18,7 +18,9 @@ public interface NodeTraversalOrder {
     /**
      * Called by the learner's sending thread to send the next path to teacher. If this method returns
      * {@link com.swirlds.virtualmap.internal.Path#INVALID_PATH}, it indicates there are no more paths
-     * to send.
+     * to send. If this method returns a value less than {@code INVALID_PATH}, there are no paths to
+     * send at the moment, but more paths may become available after responses from the teacher are
+     * received.
      *
      * @return the next virtual path to send to the teacher
      * @throws InterruptedException if the current thread is interrupted while backpressure waiting
@@ -32,4 +34,16 @@ public interface NodeTraversalOrder {
      * @param isClean indicates if the node at the given path matches the corresponding node on the teacher
      */
     void nodeReceived(final long path, final boolean isClean);
+
+    /**
+     * Returns the max number of paths to send to the teacher in a single request. Called by the
+     * learner's sending thread after every path returned by {@link #getNextPathToSend()}. Traversal
+     * orders may override this method to send groups of paths known in advance in a single request.
+     *
+     * @param configuredBatchSize the batch size from reconnect config
+     * @return the max number of paths in a request
+     */
+    default int getRequestBatchSize(final int configuredBatchSize) {
+        return configuredBatchSize;
+    }
 }
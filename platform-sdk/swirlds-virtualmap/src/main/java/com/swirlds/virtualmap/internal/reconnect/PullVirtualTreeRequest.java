@@ -8,13 +8,25 @@ import com.swirlds.common.io.streams.SerializableDataInputStream;
 import com.swirlds.common.io.streams.SerializableDataOutputStream;
 import com.swirlds.virtualmap.internal.Path;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
- * Used during the synchronization protocol to send data needed to reconstruct a single virtual node.
+ * Used during the synchronization protocol to send data needed to reconstruct one or more virtual nodes.
  *
- * <p>On the learner side, a request is created with a path and a hash in the old learner
+ * <p>On the learner side, a request is created with a batch of paths and hashes in the old learner
  * tree (if exists), then sent to the teacher. On the teacher side, requests are deserialized
- * from the stream, and for every request a response is sent back to the learner.
+ * from the stream, and for every request a response is sent back to the learner. The response
+ * contains data for all nodes in the request batch.
+ *
+ * <p>Requests for a single path are written in the original format: a path followed by a hash,
+ * unless the path is {@link Path#INVALID_PATH}. Requests for multiple paths are written in the
+ * batched format: {@link #VERSION_MARKER} in place of the path, the format version, the number
+ * of paths, and a path and a hash for every path in the batch. Teachers detect the format of
+ * every request and respond in the same format, see {@link PullVirtualTreeResponse}. Therefore,
+ * the learner and the teacher don't need to run the same version, unless the learner sends
+ * batches. Teachers, which don't support batches, fail on the first batched request, since the
+ * marker isn't a valid path. Requests or responses in an unknown format version are rejected.
  */
 public class PullVirtualTreeRequest implements SelfSerializable {
 
@@ -22,15 +34,27 @@ public class PullVirtualTreeRequest implements SelfSerializable {
 
     private static class ClassVersion {
         public static final int ORIGINAL = 1;
+        // Multiple paths per request
+        public static final int BATCHED = 2;
     }
 
-    // Virtual node path. If the path is Path.INVALID_PATH, it indicates that the learner will
-    // not send any more node requests to the teacher
-    private long path;
+    // Max number of paths in a single request. Used to validate requests from the learner
+    static final int MAX_BATCH_SIZE = 64 * 1024;
+
+    // Written in place of a path at the start of requests and responses in other than the original
+    // format, followed by the format version. Less than any valid path, including Path.INVALID_PATH
+    static final long VERSION_MARKER = Long.MIN_VALUE;
+
+    // Format version. The original format is only used for requests with a single path
+    private int version = ClassVersion.BATCHED;
+
+    // Virtual node paths. If a single path is Path.INVALID_PATH, it indicates that the learner
+    // will not send any more node requests to the teacher
+    private long[] paths;
 
-    // Virtual node hash. If a node with the given path does not exist on the learner (path is
+    // Virtual node hashes. If a node with the given path does not exist on the learner (path is
     // outside of range), NULL_HASH is used. If the path is Path.INVALID_PATH, the hash is null
-    private Hash hash;
+    private Hash[] hashes;
 
     /**
      * This constructor is used by the teacher to deserialize the request from the stream.
@@ -38,13 +62,24 @@ public class PullVirtualTreeRequest implements SelfSerializable {
     public PullVirtualTreeRequest() {}
 
     /**
-     * This constructor is used by the learner to send requests to the teacher.
+     * This constructor is used by the learner to send single node requests to the teacher.
      */
     public PullVirtualTreeRequest(final long path, final Hash hash) {
+        this(new long[] {path}, new Hash[] {hash});
+    }
+
+    /**
+     * This constructor is used by the learner to send node request batches to the teacher.
+     * Terminating requests ({@link Path#INVALID_PATH}) must not be batched.
+     */
+    public PullVirtualTreeRequest(final long[] paths, final Hash[] hashes) {
+        assert paths.length > 0 && paths.length <= MAX_BATCH_SIZE && paths.length == hashes.length;
         // Null hash for the terminating requests, non-null otherwise
-        assert path == Path.INVALID_PATH || (path >= 0 && hash != null);
-        this.path = path;
-        this.hash = hash;
+        assert (paths.length == 1 && paths[0] == Path.INVALID_PATH)
+                || (Arrays.stream(paths).allMatch(p -> p >= 0) && Arrays.stream(hashes).allMatch(Objects::nonNull));
+        this.paths = paths;
+        this.hashes = hashes;
+        this.version = (paths.length == 1) ? ClassVersion.ORIGINAL : ClassVersion.BATCHED;
     }
 
     /**
@@ -52,9 +87,22 @@ public class PullVirtualTreeRequest implements SelfSerializable {
      */
     @Override
     public void serialize(final SerializableDataOutputStream out) throws IOException {
-        out.writeLong(path);
-        if (hash != null) {
-            hash.getBytes().writeTo(out);
+        if (version == ClassVersion.ORIGINAL) {
+            writePath(out, 0);
+            return;
+        }
+        out.writeLong(VERSION_MARKER);
+        out.writeInt(version);
+        out.writeInt(paths.length);
+        for (int i = 0; i < paths.length; i++) {
+            writePath(out, i);
+        }
+    }
+
+    private void writePath(final SerializableDataOutputStream out, final int i) throws IOException {
+        out.writeLong(paths[i]);
+        if (hashes[i] != null) {
+            hashes[i].getBytes().writeTo(out);
         }
     }
 
@@ -63,22 +111,68 @@ public class PullVirtualTreeRequest implements SelfSerializable {
      */
     @Override
     public void deserialize(final SerializableDataInputStream in, final int version) throws IOException {
-        path = in.readLong();
-        if (path >= 0) {
+        final long first = in.readLong();
+        if (first != VERSION_MARKER) {
+            this.version = ClassVersion.ORIGINAL;
+            paths = new long[] {first};
+            hashes = new Hash[1];
+            readHash(in, 0);
+            return;
+        }
+        this.version = in.readInt();
+        if (this.version != ClassVersion.BATCHED) {
+            throw new IOException("Unsupported request format version from the learner: " + this.version);
+        }
+        final int count = in.readInt();
+        if ((count <= 0) || (count > MAX_BATCH_SIZE)) {
+            throw new IOException("Invalid number of node requests from the learner: " + count);
+        }
+        paths = new long[count];
+        hashes = new Hash[count];
+        for (int i = 0; i < count; i++) {
+            paths[i] = in.readLong();
+            readHash(in, i);
+        }
+    }
+
+    private void readHash(final SerializableDataInputStream in, final int i) throws IOException {
+        if (paths[i] >= 0) {
             final byte[] hashBytes = new byte[DigestType.SHA_384.digestLength()];
             if (VirtualReconnectUtils.completelyRead(in, hashBytes) != DigestType.SHA_384.digestLength()) {
                 throw new IOException("Failed to read node hash from the learner");
             }
-            hash = new Hash(hashBytes, DigestType.SHA_384);
+            hashes[i] = new Hash(hashBytes, DigestType.SHA_384);
         }
     }
 
-    public long getPath() {
-        return path;
+    /**
+     * @return the number of paths in this request
+     */
+    public int getPathCount() {
+        return paths.length;
     }
 
-    public Hash getHash() {
-        return hash;
+    /**
+     * @param i the path index in this request, from 0 (inclusive) to {@link #getPathCount()} (exclusive)
+     * @return the virtual path
+     */
+    public long getPath(final int i) {
+        return paths[i];
+    }
+
+    /**
+     * @param i the path index in this request, from 0 (inclusive) to {@link #getPathCount()} (exclusive)
+     * @return the learner hash for the path, or null for the terminating request
+     */
+    public Hash getHash(final int i) {
+        return hashes[i];
+    }
+
+    /**
+     * @return whether this request indicates that the learner will not send any more requests
+     */
+    public boolean isTerminating() {
+        return (paths.length == 1) && (paths[0] == Path.INVALID_PATH);
     }
 
     /**
@@ -91,9 +185,12 @@ public class PullVirtualTreeRequest implements SelfSerializable {
 
     /**
      * {@inheritDoc}
+     *
+     * <p>For requests created by the learner, this is the format the request is written in. For
+     * requests read by the teacher, this is the format the request was read in.
      */
     @Override
     public int getVersion() {
-        return ClassVersion.ORIGINAL;
+        return version;
     }
 }
@@ -5,17 +5,32 @@ import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.io.SelfSerializable;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
 import com.swirlds.common.io.streams.SerializableDataOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
- * Used during the synchronization protocol to send data needed to reconstruct a single virtual node.
+ * Used during the synchronization protocol to send data needed to reconstruct one or more virtual nodes.
  *
  * <p>The teacher sends one response for every {@link PullVirtualTreeRequest} received from the
- * learner. Every response includes a path followed by an integer flag that indicates if the node
- * is clear (value 0, node hash on the teacher is the same as sent by the learner), or not (non-zero
- * value). If the path corresponds to a leaf node, and the node is not clear, a {@link
+ * learner, in the same format as the request, see {@link PullVirtualTreeRequest#getVersion()}.
+ * The response contains an entry for every node in the request. Every entry includes a path
+ * followed by an integer flag that indicates if the node is clear (value 0, node hash on the
+ * teacher is the same as sent by the learner), or not (non-zero value). If the path corresponds
+ * to a leaf node, and the node is not clear, a {@link
  * com.swirlds.virtualmap.datasource.VirtualLeafRecord} for the node is included in the end of the
- * response.
+ * entry.
+ *
+ * <p>In the original format, a response is a single entry. In the batched format, a response
+ * starts with {@link PullVirtualTreeRequest#VERSION_MARKER}, the format version and the number of
+ * nodes in the response, followed by a compression flag and a payload with all the entries.
+ * Compression is only used in the batched format. If the compression flag is zero, the payload is
+ * written as is. Otherwise, the payload is prefixed with its uncompressed and compressed lengths
+ * (two integers) and compressed using deflate compression. The teacher compresses payloads, which
+ * are large enough, only if enabled in reconnect config, see {@link
+ * com.swirlds.common.merkle.synchronization.config.ReconnectConfig#pullTeacherCompressLeaves()}.
  */
 @SuppressWarnings("rawtypes")
 public class PullVirtualTreeResponse implements SelfSerializable {
@@ -24,22 +39,31 @@ public class PullVirtualTreeResponse implements SelfSerializable {
 
     private static class ClassVersion {
         public static final int ORIGINAL = 1;
+        // Multiple nodes per response, optional payload compression
+        public static final int BATCHED = 2;
     }
 
+    // Max size of a decompressed response payload. Used to validate responses from the teacher
+    private static final int MAX_PAYLOAD_SIZE = 256 * 1024 * 1024;
+
     // Only used on the teacher side
     private final TeacherPullVirtualTreeView teacherView;
 
     // Only used on the learner side
     private final LearnerPullVirtualTreeView learnerView;
 
-    // Virtual node path
-    private long path;
+    // Virtual node paths
+    private long[] paths;
 
-    // Virtual node hash on the learner side. May be NULL_HASH, if the path is outside of path range
-    // in the old learner virtual tree
-    private Hash learnerHash;
+    // Virtual node hashes on the learner side. May be NULL_HASH, if the path is outside of path range
+    // in the old learner virtual tree. Only used on the teacher side
+    private Hash[] learnerHashes;
+
+    // Only used on the teacher side
+    private Hash[] teacherHashes;
 
-    private Hash teacherHash;
+    // Format version, the same as the version of the corresponding request
+    private int version = ClassVersion.BATCHED;
 
     /**
      * Zero-arg constructor for constructable registry.
@@ -51,19 +75,25 @@ public class PullVirtualTreeResponse implements SelfSerializable {
 
     /**
      * This constructor is used by the teacher to create new responses.
+     *
+     * @param version the format version of the request, see {@link PullVirtualTreeRequest#getVersion()}
      */
     public PullVirtualTreeResponse(
             final TeacherPullVirtualTreeView teacherView,
-            final long path,
-            final Hash learnerHash,
-            final Hash teacherHash) {
+            final int version,
+            final long[] paths,
+            final Hash[] learnerHashes,
+            final Hash[] teacherHashes) {
         this.teacherView = teacherView;
         this.learnerView = null;
-        this.path = path;
-        this.learnerHash = learnerHash;
-        assert learnerHash != null;
-        this.teacherHash = teacherHash;
-        // teacherHash may be null (in case the tree is empty)
+        assert version == ClassVersion.BATCHED || (version == ClassVersion.ORIGINAL && paths.length == 1);
+        this.version = version;
+        assert paths.length == learnerHashes.length && paths.length == teacherHashes.length;
+        this.paths = paths;
+        assert Arrays.stream(learnerHashes).allMatch(Objects::nonNull);
+        this.learnerHashes = learnerHashes;
+        // teacher hashes may be null (in case the tree is empty)
+        this.teacherHashes = teacherHashes;
     }
 
     /**
@@ -83,10 +113,41 @@ public class PullVirtualTreeResponse implements SelfSerializable {
     @Override
     public void serialize(final SerializableDataOutputStream out) throws IOException {
         assert teacherView != null;
-        out.writeLong(path);
-        final boolean isClean = (teacherHash == null) || teacherHash.equals(learnerHash);
-        out.write(isClean ? 0 : 1);
-        teacherView.writeNode(out, path, isClean);
+        if (version == ClassVersion.ORIGINAL) {
+            writeEntries(out);
+            return;
+        }
+        out.writeLong(PullVirtualTreeRequest.VERSION_MARKER);
+        out.writeInt(version);
+        out.writeInt(paths.length);
+        if (!teacherView.isCompressionEnabled()) {
+            out.write(0);
+            writeEntries(out);
+            return;
+        }
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (final SerializableDataOutputStream payloadOut = new SerializableDataOutputStream(payload)) {
+            writeEntries(payloadOut);
+        }
+        if (payload.size() < teacherView.getCompressMinBytes()) {
+            out.write(0);
+            payload.writeTo(out);
+        } else {
+            final byte[] compressed = teacherView.compress(payload.toByteArray());
+            out.write(1);
+            out.writeInt(payload.size());
+            out.writeInt(compressed.length);
+            out.write(compressed);
+        }
+    }
+
+    private void writeEntries(final SerializableDataOutputStream out) throws IOException {
+        for (int i = 0; i < paths.length; i++) {
+            out.writeLong(paths[i]);
+            final boolean isClean = (teacherHashes[i] == null) || teacherHashes[i].equals(learnerHashes[i]);
+            out.write(isClean ? 0 : 1);
+            teacherView.writeNode(out, paths[i], isClean);
+        }
     }
 
     /**
@@ -95,7 +156,46 @@ public class PullVirtualTreeResponse implements SelfSerializable {
     @Override
     public void deserialize(final SerializableDataInputStream in, final int version) throws IOException {
         assert learnerView != null;
-        path = in.readLong();
+        final long first = in.readLong();
+        if (first != PullVirtualTreeRequest.VERSION_MARKER) {
+            this.version = ClassVersion.ORIGINAL;
+            paths = new long[] {first};
+            readEntry(in, first);
+            return;
+        }
+        this.version = in.readInt();
+        if (this.version != ClassVersion.BATCHED) {
+            throw new IOException("Unsupported response format version from the teacher: " + this.version);
+        }
+        final int count = in.readInt();
+        if ((count <= 0) || (count > PullVirtualTreeRequest.MAX_BATCH_SIZE)) {
+            throw new IOException("Invalid number of nodes in a response from the teacher: " + count);
+        }
+        final boolean compressed = in.read() != 0;
+        final SerializableDataInputStream entriesIn;
+        if (compressed) {
+            final int length = in.readInt();
+            final int compressedLength = in.readInt();
+            if ((length < 0) || (length > MAX_PAYLOAD_SIZE) || (compressedLength < 0)) {
+                throw new IOException("Invalid payload length in a response from the teacher: " + length);
+            }
+            final byte[] compressedBytes = new byte[compressedLength];
+            if (VirtualReconnectUtils.completelyRead(in, compressedBytes) != compressedLength) {
+                throw new IOException("Failed to read compressed payload from the teacher");
+            }
+            entriesIn = new SerializableDataInputStream(
+                    new ByteArrayInputStream(learnerView.decompress(compressedBytes, length)));
+        } else {
+            entriesIn = in;
+        }
+        paths = new long[count];
+        for (int i = 0; i < count; i++) {
+            paths[i] = entriesIn.readLong();
+            readEntry(entriesIn, paths[i]);
+        }
+    }
+
+    private void readEntry(final SerializableDataInputStream in, final long path) throws IOException {
         final boolean isClean = in.read() == 0;
         learnerView.readNode(in, path, isClean);
         if (learnerView.isLeaf(path)) {
@@ -105,8 +205,19 @@ public class PullVirtualTreeResponse implements SelfSerializable {
         }
     }
 
-    public long getPath() {
-        return path;
+    /**
+     * @return the number of nodes in this response
+     */
+    public int getPathCount() {
+        return paths.length;
+    }
+
+    /**
+     * @param i the node index in this response, from 0 (inclusive) to {@link #getPathCount()} (exclusive)
+     * @return the virtual path
+     */
+    public long getPath(final int i) {
+        return paths[i];
     }
 
     /**
@@ -122,6 +233,6 @@ public class PullVirtualTreeResponse implements SelfSerializable {
      */
     @Override
     public int getVersion() {
-        return ClassVersion.ORIGINAL;
+        return version;
     }
 }
@@ -13,7 +13,6 @@ import com.swirlds.common.merkle.synchronization.streams.AsyncOutputStream;
 import com.swirlds.common.merkle.synchronization.utility.MerkleSynchronizationException;
 import com.swirlds.common.threading.pool.StandardWorkGroup;
 import com.swirlds.common.utility.throttle.RateLimiter;
-import com.swirlds.virtualmap.internal.Path;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -100,21 +99,35 @@ public class TeacherPullVirtualTreeReceiveTask {
                 rateLimit();
                 final PullVirtualTreeRequest request = new PullVirtualTreeRequest();
                 request.deserialize(in, 0);
-                logger.debug(RECONNECT.getMarker(), "Teacher receive path: " + request.getPath());
-                if (request.getPath() == Path.INVALID_PATH) {
+                if (request.isTerminating()) {
                     logger.info(RECONNECT.getMarker(), "Teacher receiver is complete as requested by the learner");
                     break;
                 }
-                final long path = request.getPath();
-                final Hash learnerHash = request.getHash();
-                final Hash teacherHash = view.loadHash(path);
-                // The only valid scenario, when teacherHash may be null, is the empty tree
-                if ((teacherHash == null) && (path != 0)) {
-                    throw new MerkleSerializationException(
-                            "Cannot load node hash (bad request from learner?), path = " + path);
+                final int count = request.getPathCount();
+                final long[] paths = new long[count];
+                final Hash[] learnerHashes = new Hash[count];
+                final Hash[] teacherHashes = new Hash[count];
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        rateLimit();
+                    }
+                    final long path = request.getPath(i);
+                    logger.debug(RECONNECT.getMarker(), "Teacher receive path: " + path);
+                    if (path < 0) {
+                        throw new MerkleSerializationException("Invalid path in a request batch from learner: " + path);
+                    }
+                    final Hash teacherHash = view.loadHash(path);
+                    // The only valid scenario, when teacherHash may be null, is the empty tree
+                    if ((teacherHash == null) && (path != 0)) {
+                        throw new MerkleSerializationException(
+                                "Cannot load node hash (bad request from learner?), path = " + path);
+                    }
+                    paths[i] = path;
+                    learnerHashes[i] = request.getHash(i);
+                    teacherHashes[i] = teacherHash;
                 }
                 final PullVirtualTreeResponse response =
-                        new PullVirtualTreeResponse(view, path, learnerHash, teacherHash);
+                        new PullVirtualTreeResponse(view, request.getVersion(), paths, learnerHashes, teacherHashes);
                 // All real work is done in the async output thread. This call just registers a response
                 // and returns immediately
                 out.sendAsync(response);
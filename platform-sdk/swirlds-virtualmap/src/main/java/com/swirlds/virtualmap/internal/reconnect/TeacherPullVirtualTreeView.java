@@ -26,6 +26,7 @@ import com.swirlds.virtualmap.internal.pipeline.VirtualPipeline;
 import java.io.IOException;
 import java.util.Queue;
 import java.util.concurrent.CountDownLatch;
+import java.util.zip.Deflater;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -62,6 +63,13 @@ public final class TeacherPullVirtualTreeView<K extends VirtualKey, V extends Vi
      */
     private final CountDownLatch ready = new CountDownLatch(1);
 
+    /**
+     * Used to compress response payloads, if compression is enabled. Responses are serialized
+     * in a single async output stream thread, so there is no need to synchronize access to it.
+     * Null if compression is disabled.
+     */
+    private final Deflater deflater;
+
     /**
      * Create a new {@link TeacherPullVirtualTreeView}.
      *
@@ -83,6 +91,7 @@ public final class TeacherPullVirtualTreeView<K extends VirtualKey, V extends Vi
         // There is no distinction between originalState and reconnectState in this implementation
         super(root, state, state);
         this.reconnectConfig = reconnectConfig;
+        this.deflater = reconnectConfig.pullTeacherCompressLeaves() ? new Deflater(Deflater.BEST_SPEED, true) : null;
         new ThreadConfiguration(threadManager)
                 .setRunnable(() -> {
                     records = pipeline.pausePipelineAndRun("copy", root::detach);
@@ -141,6 +150,32 @@ public final class TeacherPullVirtualTreeView<K extends VirtualKey, V extends Vi
         }
     }
 
+    /**
+     * @return whether response payloads should be compressed
+     */
+    boolean isCompressionEnabled() {
+        return deflater != null;
+    }
+
+    /**
+     * @return the min size of a response payload to compress, bytes
+     */
+    int getCompressMinBytes() {
+        return reconnectConfig.pullTeacherCompressMinBytes();
+    }
+
+    /**
+     * Compresses a response payload. Must only be called if compression is enabled, see
+     * {@link #isCompressionEnabled()}.
+     *
+     * @param payload the payload to compress
+     * @return the compressed payload
+     */
+    byte[] compress(final byte[] payload) {
+        assert deflater != null;
+        return VirtualReconnectUtils.compress(deflater, payload, payload.length);
+    }
+
     /**
      * Read the virtual node hash identified by a given path.
      *
@@ -266,6 +301,9 @@ public final class TeacherPullVirtualTreeView<K extends VirtualKey, V extends Vi
     @Override
     public void close() {
         try {
+            if (deflater != null) {
+                deflater.end();
+            }
             waitUntilReady();
             records.getDataSource().close();
         } catch (final IOException e) {
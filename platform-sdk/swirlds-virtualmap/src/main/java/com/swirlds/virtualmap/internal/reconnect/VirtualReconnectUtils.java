@@ -1,14 +1,21 @@
 // SPDX-License-Identifier: Apache-2.0
 package com.swirlds.virtualmap.internal.reconnect;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 /**
  * A class with a set of utility methods used during virtual map reconnects.
  */
 public class VirtualReconnectUtils {
 
+    // Max size of an intermediate buffer used to compress data
+    private static final int COMPRESSION_BUFFER_SIZE = 64 * 1024;
+
     /**
      * Reads bytes from an input stream to an array, until array length bytes are read, or EOF
      * is encountered.
@@ -30,4 +37,59 @@ public class VirtualReconnectUtils {
         }
         return totalBytesRead;
     }
+
+    /**
+     * Compresses bytes using the given deflater. The deflater is reset before use, so it can be
+     * reused for multiple calls, but not concurrently.
+     *
+     * @param deflater the deflater to use
+     * @param src the bytes to compress
+     * @param length the number of bytes to compress, starting from the beginning of the array
+     * @return the compressed bytes
+     */
+    public static byte[] compress(final Deflater deflater, final byte[] src, final int length) {
+        deflater.reset();
+        deflater.setInput(src, 0, length);
+        deflater.finish();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 2));
+        final byte[] buf = new byte[Math.min(COMPRESSION_BUFFER_SIZE, Math.max(64, length))];
+        while (!deflater.finished()) {
+            final int len = deflater.deflate(buf);
+            out.write(buf, 0, len);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decompresses bytes previously compressed with {@link #compress(Deflater, byte[], int)}.
+     * The inflater is reset before use, so it can be reused for multiple calls, but not
+     * concurrently.
+     *
+     * @param inflater the inflater to use
+     * @param src the compressed bytes
+     * @param length the expected number of decompressed bytes
+     * @return the decompressed bytes
+     * @throws IOException if the compressed bytes are malformed or don't match the expected length
+     */
+    public static byte[] decompress(final Inflater inflater, final byte[] src, final int length) throws IOException {
+        inflater.reset();
+        inflater.setInput(src);
+        final byte[] dst = new byte[length];
+        int total = 0;
+        try {
+            while (total < length) {
+                final int len = inflater.inflate(dst, total, length - total);
+                if ((len == 0) && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                total += len;
+            }
+        } catch (final DataFormatException e) {
+            throw new IOException("Malformed compressed data", e);
+        }
+        if ((total != length) || !inflater.finished()) {
+            throw new IOException("Unexpected decompressed data length, expected " + length);
+        }
+        return dst;
+    }
 }
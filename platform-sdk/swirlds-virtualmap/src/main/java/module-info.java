@@ -26,6 +26,7 @@ open module com.swirlds.virtualmap {
     requires com.swirlds.config.extensions;
     requires com.swirlds.logging;
     requires java.management; // Test dependency
+    requires jdk.unsupported;
     requires org.apache.logging.log4j;
     requires static transitive com.github.spotbugs.annotations;
 }
@@ -0,0 +1,108 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentLongObjectMapTest {
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Put, get, and remove through compute")
+    void putGetRemove() {
+        final ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>();
+        assertNull(map.get(1), "Empty map should not contain any keys");
+        map.put(1, "one");
+        map.put(-7, "minus seven");
+        map.put(0, "zero");
+        assertEquals("one", map.get(1), "Wrong value");
+        assertEquals("minus seven", map.get(-7), "Wrong value");
+        assertEquals("zero", map.get(0), "Wrong value");
+        assertEquals(3, map.size(), "Wrong size");
+
+        assertNull(map.compute(1, (k, v) -> null), "Compute returning null should remove the key");
+        assertNull(map.get(1), "Removed key should not be found");
+        assertEquals(2, map.size(), "Wrong size after removal");
+
+        assertEquals("one again", map.compute(1, (k, v) -> v == null ? "one again" : v), "Wrong computed value");
+        assertEquals("one again", map.get(1), "Removed key should be reusable");
+        assertEquals(3, map.size(), "Wrong size after re-adding");
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, "min"), "Expected IAE");
+        assertThrows(NullPointerException.class, () -> map.put(2, null), "Expected NPE");
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Map contents match a reference map after many random operations")
+    void randomOperations() {
+        final Random random = new Random(12341);
+        final ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>(16);
+        final Map<Long, Long> reference = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            final long key = random.nextInt(20_000);
+            if (random.nextInt(4) == 0) {
+                map.compute(key, (k, v) -> null);
+                reference.remove(key);
+            } else {
+                final long value = random.nextLong();
+                map.put(key, value);
+                reference.put(key, value);
+            }
+        }
+        assertEquals(reference.size(), map.size(), "Wrong size");
+        final Map<Long, Long> contents = new HashMap<>();
+        map.forEach(contents::put);
+        assertEquals(reference, contents, "Iterated entries don't match the reference map");
+        for (final Map.Entry<Long, Long> entry : reference.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()), "Wrong value for key " + entry.getKey());
+        }
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Concurrent computes on the same keys are atomic")
+    void concurrentCompute() throws Exception {
+        final int threads = 8;
+        final int keys = 10_000;
+        final int rounds = 20;
+        final ConcurrentLongObjectMap<Integer> map = new ConcurrentLongObjectMap<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int r = 0; r < rounds; r++) {
+                        for (long key = 0; key < keys; key++) {
+                            map.compute(key, (k, v) -> v == null ? 1 : v + 1);
+                        }
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(keys, map.size(), "Wrong size");
+        for (long key = 0; key < keys; key++) {
+            assertEquals(threads * rounds, map.get(key), "Lost update for key " + key);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.config.api.ConfigurationBuilder;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import com.swirlds.virtualmap.test.fixtures.TestKey;
+import com.swirlds.virtualmap.test.fixtures.TestValue;
+import com.swirlds.virtualmap.test.fixtures.TestValueSerializer;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VirtualNodeCacheOffHeapTest {
+
+    private static final int LEAVES = 100;
+    private static final long FIRST_LEAF_PATH = LEAVES - 1;
+    private static final long LAST_LEAF_PATH = 2L * LEAVES - 2;
+
+    private static VirtualMapConfig config(final boolean offHeapLeafValues) {
+        return ConfigurationBuilder.create()
+                .withConfigDataType(VirtualMapConfig.class)
+                .withValue("virtualMap.offHeapLeafValues", String.valueOf(offHeapLeafValues))
+                .build()
+                .getConfigData(VirtualMapConfig.class);
+    }
+
+    private static VirtualLeafRecord<TestKey, TestValue> leaf(final long path, final String value) {
+        return new VirtualLeafRecord<>(path, new TestKey(path), new TestValue(value));
+    }
+
+    private static VirtualNodeCache<TestKey, TestValue> createCache(final boolean offHeapLeafValues) {
+        final VirtualNodeCache<TestKey, TestValue> cache = new VirtualNodeCache<>(config(offHeapLeafValues));
+        cache.setValueSerializer(TestValueSerializer.INSTANCE);
+        for (long path = FIRST_LEAF_PATH; path <= LAST_LEAF_PATH; path++) {
+            cache.putLeaf(leaf(path, "v" + path));
+        }
+        return cache;
+    }
+
+    @Test
+    @DisplayName("Leaves of sealed copies are read from off-heap arenas")
+    void lookupSealedLeaves() {
+        final VirtualNodeCache<TestKey, TestValue> cache0 = createCache(true);
+        final VirtualLeafRecord<TestKey, TestValue> original =
+                cache0.lookupLeafByKey(new TestKey(FIRST_LEAF_PATH), false);
+        final VirtualNodeCache<TestKey, TestValue> cache1 = cache0.copy();
+        cache0.seal();
+
+        for (long path = FIRST_LEAF_PATH; path <= LAST_LEAF_PATH; path++) {
+            final VirtualLeafRecord<TestKey, TestValue> expected = leaf(path, "v" + path);
+            assertEquals(expected, cache0.lookupLeafByKey(new TestKey(path), false), "Wrong leaf in sealed copy");
+            assertEquals(expected, cache0.lookupLeafByPath(path, false), "Wrong leaf in sealed copy");
+            assertEquals(expected, cache1.lookupLeafByKey(new TestKey(path), false), "Wrong leaf in newer copy");
+        }
+        assertNotSame(
+                original,
+                cache0.lookupLeafByKey(new TestKey(FIRST_LEAF_PATH), false),
+                "Leaf value should be moved off-heap");
+
+        // Leaves from sealed copies can be modified in newer copies
+        final VirtualLeafRecord<TestKey, TestValue> modified =
+                cache1.lookupLeafByKey(new TestKey(LAST_LEAF_PATH), true);
+        assertEquals(new TestValue("v" + LAST_LEAF_PATH), modified.getValue());
+        modified.setValue(new TestValue("updated"));
+        assertSame(modified, cache1.lookupLeafByKey(new TestKey(LAST_LEAF_PATH), false));
+        assertEquals(
+                new TestValue("v" + LAST_LEAF_PATH),
+                cache0.lookupLeafByKey(new TestKey(LAST_LEAF_PATH), false).getValue(),
+                "Sealed copy should not be affected");
+    }
+
+    @Test
+    @DisplayName("Dirty leaves of merged copies include leaves from off-heap arenas")
+    void dirtyLeavesAfterMerge() {
+        final VirtualNodeCache<TestKey, TestValue> cache0 = createCache(true);
+        final VirtualNodeCache<TestKey, TestValue> cache1 = cache0.copy();
+        cache0.seal();
+        cache1.putLeaf(leaf(FIRST_LEAF_PATH, "updated"));
+        final VirtualNodeCache<TestKey, TestValue> cache2 = cache1.copy();
+        cache1.seal();
+        cache0.merge();
+
+        final List<VirtualLeafRecord<TestKey, TestValue>> leaves = cache1
+                .dirtyLeavesForFlush(FIRST_LEAF_PATH, LAST_LEAF_PATH)
+                .sorted(Comparator.comparingLong(VirtualLeafRecord::getPath))
+                .toList();
+        assertEquals(LEAVES, leaves.size());
+        for (int i = 0; i < LEAVES; i++) {
+            final long path = FIRST_LEAF_PATH + i;
+            final String value = (path == FIRST_LEAF_PATH) ? "updated" : "v" + path;
+            assertEquals(leaf(path, value), leaves.get(i), "Wrong dirty leaf");
+        }
+        assertEquals(leaf(FIRST_LEAF_PATH, "updated"), cache2.lookupLeafByPath(FIRST_LEAF_PATH, false));
+    }
+
+    @Test
+    @DisplayName("Arenas are freed when copies that own them are released")
+    void arenasFreedOnRelease() {
+        final VirtualNodeCache<TestKey, TestValue> cache0 = createCache(true);
+        final VirtualNodeCache<TestKey, TestValue> cache1 = cache0.copy();
+        cache0.seal();
+        final long arenaSize = cache0.getLeafValueArenaSize();
+        assertTrue(arenaSize > 0, "Leaf values should be moved off-heap");
+        cache1.putLeaf(leaf(FIRST_LEAF_PATH, "updated"));
+        final VirtualNodeCache<TestKey, TestValue> cache2 = cache1.copy();
+        cache1.seal();
+        assertTrue(cache1.getLeafValueArenaSize() > arenaSize, "Both copies should have arenas");
+
+        // The merged copy's arena is released together with the copy it's merged into
+        cache0.merge();
+        final VirtualNodeCache<TestKey, TestValue> snapshot = cache1.snapshot();
+        cache1.release();
+        assertTrue(cache2.getLeafValueArenaSize() > arenaSize, "Snapshot should keep arenas");
+        for (long path = FIRST_LEAF_PATH; path <= LAST_LEAF_PATH; path++) {
+            final String value = (path == FIRST_LEAF_PATH) ? "updated" : "v" + path;
+            assertEquals(leaf(path, value), snapshot.lookupLeafByKey(new TestKey(path), false));
+        }
+
+        snapshot.release();
+        assertEquals(0, cache2.getLeafValueArenaSize(), "All arenas should be freed");
+        // Leaves of released copies are read from the data source
+        assertNull(cache2.lookupLeafByKey(new TestKey(LAST_LEAF_PATH), false));
+    }
+
+    @Test
+    @DisplayName("Deleted leaves and disabled arenas keep leaves on heap")
+    void onHeapLeaves() {
+        final VirtualNodeCache<TestKey, TestValue> cache0 = createCache(true);
+        final VirtualLeafRecord<TestKey, TestValue> deleted = cache0.lookupLeafByPath(LAST_LEAF_PATH, false);
+        cache0.deleteLeaf(deleted);
+        cache0.copy();
+        cache0.seal();
+        assertEquals(List.of(deleted), cache0.deletedLeaves().toList());
+
+        final VirtualNodeCache<TestKey, TestValue> onHeap = createCache(false);
+        final VirtualLeafRecord<TestKey, TestValue> original = onHeap.lookupLeafByPath(FIRST_LEAF_PATH, false);
+        onHeap.copy();
+        onHeap.seal();
+        assertSame(original, onHeap.lookupLeafByPath(FIRST_LEAF_PATH, false));
+    }
+}
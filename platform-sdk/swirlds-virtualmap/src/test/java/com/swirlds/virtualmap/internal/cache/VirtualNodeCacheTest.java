@@ -2867,6 +2867,93 @@ class VirtualNodeCacheTest extends VirtualTestBase {
         assertEquals(Set.of(appleLeaf(1), bananaLeaf(2)), dirtyLeaves0F);
     }
 
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache"), @Tag("DirtyLeaves")})
+    @DisplayName("Merges scan the smaller copy and keep only the latest mutations for flushes")
+    void dirtyLeaves_mergeGenerations() {
+        final VirtualNodeCache<TestKey, TestValue> cache0 = new VirtualNodeCache<>(VIRTUAL_MAP_CONFIG);
+        cache0.putLeaf(appleLeaf(1));
+        cache0.putLeaf(bananaLeaf(2));
+        cache0.putLeaf(cherryLeaf(3));
+        cache0.putLeaf(dateLeaf(4));
+
+        final VirtualNodeCache<TestKey, TestValue> cache1 = cache0.copy();
+        cache0.putHash(rootInternal());
+        cache0.putHash(leftInternal());
+        cache0.seal();
+        cache1.putLeaf(aardvarkLeaf(1));
+
+        final VirtualNodeCache<TestKey, TestValue> cache2 = cache1.copy();
+        cache1.putHash(rootInternal());
+        cache1.seal();
+        cache2.putLeaf(bearLeaf(2));
+        cache2.putLeaf(cuttlefishLeaf(3));
+        cache2.putLeaf(dogLeaf(4));
+        cache2.putLeaf(eggplantLeaf(5));
+        cache2.putLeaf(figLeaf(6));
+        cache2.putLeaf(grapeLeaf(7));
+
+        cache2.copy();
+        final VirtualHashRecord rootInternal2 = rootInternal();
+        final VirtualHashRecord leftInternal2 = leftInternal();
+        cache2.putHash(rootInternal2);
+        cache2.putHash(leftInternal2);
+        cache2.seal();
+
+        // Cache 1 is smaller than cache 0 in all arrays: 1 leaf, 1 leaf path, and 1 hash are scanned
+        assertEquals(3, cache0.merge(), "Only the newer copy should be scanned");
+        // Cache 2 has more leaves than cache 0 and 1 together, but fewer hashes
+        assertEquals(5 + 5 + 2, cache1.merge(), "Only the smaller copy should be scanned");
+
+        final List<VirtualLeafRecord<TestKey, TestValue>> leaves = cache2.dirtyLeavesForFlush(1, 7)
+                .sorted(Comparator.comparingLong(VirtualLeafRecord::getPath))
+                .toList();
+        assertEquals(
+                List.of(
+                        aardvarkLeaf(1),
+                        bearLeaf(2),
+                        cuttlefishLeaf(3),
+                        dogLeaf(4),
+                        eggplantLeaf(5),
+                        figLeaf(6),
+                        grapeLeaf(7)),
+                leaves,
+                "Only the latest leaves should be flushed");
+        final List<VirtualHashRecord> hashes = cache2.dirtyHashesForFlush(7)
+                .sorted(Comparator.comparingLong(VirtualHashRecord::path))
+                .toList();
+        assertEquals(List.of(rootInternal2, leftInternal2), hashes, "Only the latest hashes should be flushed");
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Prefetched leaves are shared by all copies and invalidated by mutations")
+    void prefetchedLeaves() {
+        final VirtualNodeCache<TestKey, TestValue> cache0 = new VirtualNodeCache<>(VIRTUAL_MAP_CONFIG);
+        final long lastReleased = cache0.getLastReleasedVersion();
+        assertTrue(cache0.putPrefetchedLeaf(appleLeaf(1), lastReleased), "Leaf should be prefetched");
+        assertTrue(cache0.putPrefetchedLeaf(bananaLeaf(2), lastReleased), "Leaf should be prefetched");
+        assertNull(cache0.lookupLeafByKey(A_KEY, false), "Prefetched leaves are not mutations");
+
+        final VirtualNodeCache<TestKey, TestValue> cache1 = cache0.copy();
+        assertEquals(appleLeaf(1), cache1.lookupPrefetchedLeaf(A_KEY), "Prefetched leaves should be shared");
+        assertEquals(appleLeaf(1), cache1.takePrefetchedLeaf(A_KEY), "Prefetched leaf should be taken");
+        assertNull(cache0.lookupPrefetchedLeaf(A_KEY), "Taken leaf should be removed");
+
+        // A mutation invalidates the prefetched leaf, and no leaves can be prefetched for mutated keys
+        cache1.putLeaf(bearLeaf(2));
+        assertNull(cache1.lookupPrefetchedLeaf(B_KEY), "Modified leaf should be invalidated");
+        assertFalse(cache1.putPrefetchedLeaf(bananaLeaf(2), lastReleased), "Modified leaf should not be prefetched");
+
+        // Leaves loaded before a copy is released may be stale
+        cache0.seal();
+        cache0.release();
+        assertFalse(cache1.putPrefetchedLeaf(cherryLeaf(3), lastReleased), "Stale leaf should not be prefetched");
+        assertTrue(cache1.putPrefetchedLeaf(cherryLeaf(3), cache1.getLastReleasedVersion()));
+        assertEquals(1, cache1.clearPrefetchedLeaves(), "One unused leaf should be cleared");
+        assertNull(cache1.lookupPrefetchedLeaf(C_KEY));
+    }
+
     // ----------------------------------------------------------------------
     // Test Utility methods
     // ----------------------------------------------------------------------
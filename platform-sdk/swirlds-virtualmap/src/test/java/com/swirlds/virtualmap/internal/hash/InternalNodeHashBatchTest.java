@@ -0,0 +1,135 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.hash;
+
+import static com.swirlds.virtualmap.internal.Path.ROOT_PATH;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.crypto.HashBuilder;
+import com.swirlds.config.api.ConfigurationBuilder;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
+import com.swirlds.virtualmap.internal.merkle.VirtualInternalNode;
+import com.swirlds.virtualmap.internal.merkle.VirtualRootNode;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class InternalNodeHashBatchTest {
+
+    private static Hash randomHash(final Random random, final DigestType digestType) {
+        final byte[] bytes = new byte[digestType.digestLength()];
+        random.nextBytes(bytes);
+        return new Hash(bytes, digestType);
+    }
+
+    private static VirtualMapConfig config(final int chunkHeight, final int maxChunkHeight) {
+        return ConfigurationBuilder.create()
+                .withConfigDataType(VirtualMapConfig.class)
+                .withValue("virtualMap.virtualHasherChunkHeight", String.valueOf(chunkHeight))
+                .withValue("virtualMap.virtualHasherMaxChunkHeight", String.valueOf(maxChunkHeight))
+                .build()
+                .getConfigData(VirtualMapConfig.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 8})
+    void sha384MatchesMessageDigest(final int lanes) throws NoSuchAlgorithmException {
+        final Random random = new Random(lanes);
+        final Sha384Batch sha = new Sha384Batch(lanes);
+        final MessageDigest digest = MessageDigest.getInstance("SHA-384");
+        for (int length = 0; length <= Sha384Batch.MAX_MESSAGE_LENGTH; length += lanes) {
+            final int count = Math.min(lanes, Sha384Batch.MAX_MESSAGE_LENGTH + 1 - length);
+            final byte[][] messages = new byte[count][];
+            for (int lane = 0; lane < count; lane++) {
+                messages[lane] = new byte[length + lane];
+                random.nextBytes(messages[lane]);
+                sha.setMessage(lane, messages[lane], messages[lane].length);
+            }
+            sha.digest(count);
+            for (int lane = 0; lane < count; lane++) {
+                final byte[] actual = new byte[Sha384Batch.DIGEST_LENGTH];
+                sha.getDigest(lane, actual, 0);
+                assertArrayEquals(digest.digest(messages[lane]), actual, "Wrong digest, length=" + (length + lane));
+            }
+        }
+    }
+
+    @Test
+    void sha384MessageTooLong() {
+        final Sha384Batch sha = new Sha384Batch(4);
+        final byte[] message = new byte[Sha384Batch.MAX_MESSAGE_LENGTH + 1];
+        assertThrows(IllegalArgumentException.class, () -> sha.setMessage(0, message, message.length));
+        assertThrows(IllegalArgumentException.class, () -> sha.digest(5));
+    }
+
+    @Test
+    void batchMatchesSingleNodeHashing() {
+        final Random random = new Random(12345);
+        // More nodes than lanes, so the batch is hashed in several rounds
+        final int count = VirtualHasher.BATCH_LANES * 3 + 5;
+        final InternalNodeHashBatch batch = new InternalNodeHashBatch(VirtualHasher.BATCH_LANES);
+        final Hash[] lefts = new Hash[count];
+        final Hash[] rights = new Hash[count];
+        for (int i = 0; i < count; i++) {
+            lefts[i] = randomHash(random, DigestType.SHA_384);
+            rights[i] = randomHash(random, DigestType.SHA_384);
+            batch.add(count - i, i, lefts[i], rights[i]);
+        }
+        assertEquals(count, batch.size());
+        batch.hash();
+        final HashBuilder builder = new HashBuilder(DigestType.SHA_384);
+        for (int i = 0; i < count; i++) {
+            assertEquals(count - i, batch.index(i));
+            assertEquals(i, batch.path(i));
+            builder.reset();
+            if (i == ROOT_PATH) {
+                builder.update(VirtualRootNode.CLASS_ID);
+                builder.update(VirtualRootNode.ClassVersion.CURRENT_VERSION);
+            } else {
+                builder.update(VirtualInternalNode.CLASS_ID);
+                builder.update(VirtualInternalNode.SERIALIZATION_VERSION);
+            }
+            builder.update(lefts[i]);
+            builder.update(rights[i]);
+            assertEquals(builder.build(), batch.result(i), "Wrong hash, path=" + i);
+        }
+        batch.clear();
+        assertEquals(0, batch.size());
+    }
+
+    @Test
+    void onlySha384CanBeBatched() {
+        final Random random = new Random(54321);
+        final Hash sha384 = randomHash(random, DigestType.SHA_384);
+        final Hash sha512 = randomHash(random, DigestType.SHA_512);
+        assertTrue(InternalNodeHashBatch.canHash(sha384, sha384));
+        assertFalse(InternalNodeHashBatch.canHash(sha384, sha512));
+        assertFalse(InternalNodeHashBatch.canHash(sha512, sha384));
+    }
+
+    @Test
+    void chunkHeightByDirtyLeafDensity() {
+        final VirtualMapConfig config = config(3, 6);
+        final long firstLeafPath = 999_999;
+        final long lastLeafPath = 1_999_998;
+        // Unknown number of dirty leaves
+        assertEquals(3, VirtualHasher.chunkHeight(config, -1, firstLeafPath, lastLeafPath));
+        // All leaves are dirty
+        assertEquals(4, VirtualHasher.chunkHeight(config, 1_000_000, firstLeafPath, lastLeafPath));
+        // Every 8th leaf is dirty
+        assertEquals(6, VirtualHasher.chunkHeight(config, 125_000, firstLeafPath, lastLeafPath));
+        // Very sparse
+        assertEquals(6, VirtualHasher.chunkHeight(config, 10, firstLeafPath, lastLeafPath));
+        // Adaptive height is disabled
+        assertEquals(3, VirtualHasher.chunkHeight(config(3, 3), 10, firstLeafPath, lastLeafPath));
+        assertEquals(5, VirtualHasher.chunkHeight(config(5, 1), 10, firstLeafPath, lastLeafPath));
+    }
+}
@@ -35,6 +35,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -230,6 +231,67 @@ public class RecordAccessorImplTest {
         assertNull(records.findLeafRecord(new TestKey(DELETED_LEAF_PATH), false), "Deleted records should be null");
     }
 
+    @Test
+    @DisplayName("findLeafRecords by keys resolves cached, on disk, deleted, bogus, and duplicate keys")
+    void findLeafRecordsByKeys() {
+        final List<VirtualLeafRecord<TestKey, TestValue>> leaves = records.findLeafRecords(List.of(
+                new TestKey(CHANGED_LEAF_KEY),
+                new TestKey(UNCHANGED_LEAF_PATH),
+                new TestKey(DELETED_LEAF_PATH),
+                new TestKey(BOGUS_LEAF_PATH),
+                new TestKey(UNCHANGED_LEAF_PATH)));
+        assertEquals(5, leaves.size(), "Result should have an element per key");
+        assertSame(
+                records.findLeafRecord(new TestKey(CHANGED_LEAF_KEY), false),
+                leaves.get(0),
+                "Cached record should be the same instance");
+        assertNotNull(leaves.get(1), "Did not find record on disk");
+        assertEquals(UNCHANGED_LEAF_PATH, leaves.get(1).getPath(), "Unexpected path in record");
+        assertNull(leaves.get(2), "Deleted records should be null");
+        assertNull(leaves.get(3), "Bogus records should be null");
+        assertSame(leaves.get(1), leaves.get(4), "Duplicate keys should get the same record");
+    }
+
+    @Test
+    @DisplayName("findLeafRecords by keys with broken data source throws")
+    void findLeafRecordsByKeysOnDiskWhenBrokenThrows() {
+        dataSource.throwExceptionOnLoadLeafRecordByKey = true;
+        final List<TestKey> keys = List.of(new TestKey(UNCHANGED_LEAF_PATH));
+        assertThrows(
+                UncheckedIOException.class,
+                () -> records.findLeafRecords(keys),
+                "Should have thrown UncheckedIOException");
+    }
+
+    @Test
+    @DisplayName("findLeafRecords by paths resolves cached, on disk, and out of range paths")
+    void findLeafRecordsByPaths() {
+        final List<VirtualLeafRecord<TestKey, TestValue>> leaves = records.findLeafRecords(4, 11);
+        assertEquals(8, leaves.size(), "Result should have an element per path");
+        assertNull(leaves.get(0), "Paths before the first leaf path should be null");
+        assertSame(
+                records.findLeafRecord(CHANGED_LEAF_PATH, false),
+                leaves.get(1),
+                "Cached record should be the same instance");
+        for (long path = 6; path <= 10; path++) {
+            final VirtualLeafRecord<TestKey, TestValue> leaf = leaves.get((int) (path - 4));
+            assertNotNull(leaf, "Did not find record on disk");
+            assertEquals(path, leaf.getPath(), "Unexpected path in record");
+            assertEquals(new TestKey(path), leaf.getKey(), "Unexpected key in record");
+        }
+        assertNull(leaves.get(7), "Paths after the last leaf path should be null");
+    }
+
+    @Test
+    @DisplayName("findLeafRecords by paths with broken data source throws")
+    void findLeafRecordsByPathsOnDiskWhenBrokenThrows() {
+        dataSource.throwExceptionOnLoadLeafRecordByPath = true;
+        assertThrows(
+                UncheckedIOException.class,
+                () -> records.findLeafRecords(UNCHANGED_LEAF_PATH, UNCHANGED_LEAF_PATH + 1),
+                "Should have thrown UncheckedIOException");
+    }
+
     @Test
     @DisplayName("findLeafRecord of bad path returns null")
     void findLeafRecordBadPath() {
@@ -0,0 +1,128 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.merkle;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.config.api.ConfigurationBuilder;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
+import com.swirlds.virtualmap.datasource.VirtualDataSource;
+import com.swirlds.virtualmap.datasource.VirtualLeafBytes;
+import com.swirlds.virtualmap.internal.cache.VirtualNodeCache;
+import com.swirlds.virtualmap.test.fixtures.TestKey;
+import com.swirlds.virtualmap.test.fixtures.TestKeySerializer;
+import com.swirlds.virtualmap.test.fixtures.TestValue;
+import com.swirlds.virtualmap.test.fixtures.TestValueSerializer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VirtualLeafPrefetcherTest {
+
+    private static final VirtualMapConfig CONFIG = ConfigurationBuilder.create()
+            .withConfigDataType(VirtualMapConfig.class)
+            .withValue("virtualMap.prefetchThreads", "1")
+            .build()
+            .getConfigData(VirtualMapConfig.class);
+
+    private VirtualDataSource dataSource;
+
+    private VirtualNodeCache<TestKey, TestValue> cache;
+
+    /** Tasks submitted to the test executor, run explicitly by tests */
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataSource = mock(VirtualDataSource.class);
+        when(dataSource.loadLeafRecord(any(Bytes.class), anyInt())).thenAnswer(invocation -> {
+            final Bytes keyBytes = invocation.getArgument(0);
+            final int keyHashCode = invocation.getArgument(1);
+            final Bytes valueBytes = TestValueSerializer.INSTANCE.toBytes(new TestValue("value"));
+            return new VirtualLeafBytes(1, keyBytes, keyHashCode, valueBytes);
+        });
+        cache = new VirtualNodeCache<>(CONFIG);
+        cache.setValueSerializer(TestValueSerializer.INSTANCE);
+        tasks.clear();
+    }
+
+    private VirtualLeafPrefetcher<TestKey, TestValue> createPrefetcher(final Executor executor) {
+        return new VirtualLeafPrefetcher<>(
+                CONFIG,
+                TestKeySerializer.INSTANCE,
+                TestValueSerializer.INSTANCE,
+                dataSource,
+                new VirtualMapStatistics("test"),
+                executor);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    @Test
+    @DisplayName("Prefetched leaves of the previous generation are kept, older ones are dropped")
+    void staleLeavesDropped() {
+        final VirtualLeafPrefetcher<TestKey, TestValue> prefetcher = createPrefetcher(Runnable::run);
+        final TestKey key = new TestKey(1);
+        assertTrue(prefetcher.prefetch(key, cache), "Request should be accepted");
+        assertNotNull(cache.lookupPrefetchedLeaf(key), "Leaf should be prefetched");
+
+        prefetcher.nextGeneration(cache);
+        assertNotNull(cache.lookupPrefetchedLeaf(key), "Leaf of the previous generation should be kept");
+        assertFalse(prefetcher.prefetch(key, cache), "Live request should be deduplicated");
+
+        prefetcher.nextGeneration(cache);
+        assertNull(cache.lookupPrefetchedLeaf(key), "Stale leaf should be dropped");
+    }
+
+    @Test
+    @DisplayName("Pending requests are processed in the next generation, but skipped when stale")
+    void staleRequestsSkipped() throws IOException {
+        final VirtualLeafPrefetcher<TestKey, TestValue> prefetcher = createPrefetcher(tasks::add);
+        final TestKey fresh = new TestKey(1);
+        final TestKey stale = new TestKey(2);
+        assertTrue(prefetcher.prefetch(stale, cache), "Request should be accepted");
+        prefetcher.nextGeneration(cache);
+        assertTrue(prefetcher.prefetch(fresh, cache), "Request should be accepted");
+        prefetcher.nextGeneration(cache);
+        runTasks();
+
+        assertNotNull(cache.lookupPrefetchedLeaf(fresh), "Request of the previous generation should be processed");
+        assertNull(cache.lookupPrefetchedLeaf(stale), "Stale request should be skipped");
+        verify(dataSource, never()).loadLeafRecord(TestKeySerializer.INSTANCE.toBytes(stale), stale.hashCode());
+    }
+
+    @Test
+    @DisplayName("Closed prefetchers don't load leaves from the data source")
+    void closeCancelsRequests() throws IOException {
+        final VirtualLeafPrefetcher<TestKey, TestValue> prefetcher = createPrefetcher(tasks::add);
+        assertTrue(prefetcher.prefetch(new TestKey(1), cache), "Request should be accepted");
+        prefetcher.close();
+        runTasks();
+        assertFalse(prefetcher.prefetch(new TestKey(2), cache), "Closed prefetcher should ignore requests");
+        runTasks();
+        verify(dataSource, never()).loadLeafRecord(any(Bytes.class), anyInt());
+
+        // A prefetcher with its own thread pool shuts the pool down
+        final VirtualLeafPrefetcher<TestKey, TestValue> owning = createPrefetcher(null);
+        owning.close();
+        owning.close();
+        assertFalse(owning.prefetch(new TestKey(3), cache), "Closed prefetcher should ignore requests");
+    }
+}
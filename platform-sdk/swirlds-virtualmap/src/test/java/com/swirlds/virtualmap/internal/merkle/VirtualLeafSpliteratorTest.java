@@ -0,0 +1,135 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.merkle;
+
+import static com.swirlds.virtualmap.test.fixtures.VirtualMapTestUtils.CONFIGURATION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.virtualmap.config.VirtualMapConfig;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import com.swirlds.virtualmap.internal.cache.VirtualNodeCache;
+import com.swirlds.virtualmap.test.fixtures.DummyVirtualStateAccessor;
+import com.swirlds.virtualmap.test.fixtures.InMemoryBuilder;
+import com.swirlds.virtualmap.test.fixtures.InMemoryDataSource;
+import com.swirlds.virtualmap.test.fixtures.TestKey;
+import com.swirlds.virtualmap.test.fixtures.TestKeySerializer;
+import com.swirlds.virtualmap.test.fixtures.TestValue;
+import com.swirlds.virtualmap.test.fixtures.TestValueSerializer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VirtualLeafSpliteratorTest {
+
+    private static final int LEAVES = 1000;
+    private static final long FIRST_LEAF_PATH = LEAVES - 1;
+    private static final long LAST_LEAF_PATH = 2L * LEAVES - 2;
+
+    private static final long UPDATED_LEAF_PATH = FIRST_LEAF_PATH + 10;
+
+    private RecordAccessorImpl<TestKey, TestValue> records;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final DummyVirtualStateAccessor state = new DummyVirtualStateAccessor();
+        state.setFirstLeafPath(FIRST_LEAF_PATH);
+        state.setLastLeafPath(LAST_LEAF_PATH);
+        final InMemoryDataSource dataSource = new InMemoryBuilder().build("spliterator", true);
+        dataSource.saveRecords(
+                FIRST_LEAF_PATH,
+                LAST_LEAF_PATH,
+                Stream.empty(),
+                LongStream.rangeClosed(FIRST_LEAF_PATH, LAST_LEAF_PATH)
+                        .mapToObj(path -> leaf(path, path))
+                        .map(r -> r.toBytes(TestKeySerializer.INSTANCE, TestValueSerializer.INSTANCE)),
+                Stream.empty());
+        // One leaf is updated in the cache
+        final VirtualNodeCache<TestKey, TestValue> cache =
+                new VirtualNodeCache<>(CONFIGURATION.getConfigData(VirtualMapConfig.class));
+        cache.putLeaf(leaf(UPDATED_LEAF_PATH, -1));
+        cache.seal();
+        records = new RecordAccessorImpl<>(
+                state, cache, TestKeySerializer.INSTANCE, TestValueSerializer.INSTANCE, dataSource);
+    }
+
+    private static VirtualLeafRecord<TestKey, TestValue> leaf(final long path, final long value) {
+        return new VirtualLeafRecord<>(path, new TestKey(path), new TestValue(value));
+    }
+
+    private static void assertLeaves(final long firstPath, final List<VirtualLeafRecord<TestKey, TestValue>> leaves) {
+        for (int i = 0; i < leaves.size(); i++) {
+            final long path = firstPath + i;
+            final VirtualLeafRecord<TestKey, TestValue> leaf = leaves.get(i);
+            assertEquals(path, leaf.getPath(), "Leaves should be in the order of paths");
+            assertEquals(new TestKey(path), leaf.getKey(), "Unexpected key");
+            final long value = (path == UPDATED_LEAF_PATH) ? -1 : path;
+            assertEquals(new TestValue(value), leaf.getValue(), "Unexpected value");
+        }
+    }
+
+    @Test
+    @DisplayName("Sequential traversal visits all leaves in the order of paths")
+    void sequentialTraversal() {
+        final VirtualLeafSpliterator<TestKey, TestValue> spliterator =
+                new VirtualLeafSpliterator<>(records, FIRST_LEAF_PATH, LAST_LEAF_PATH + 1, 64);
+        assertEquals(LEAVES, spliterator.estimateSize());
+        final List<VirtualLeafRecord<TestKey, TestValue>> leaves = new ArrayList<>();
+        assertTrue(spliterator.tryAdvance(leaves::add));
+        spliterator.forEachRemaining(leaves::add);
+        assertEquals(LEAVES, leaves.size());
+        assertLeaves(FIRST_LEAF_PATH, leaves);
+        assertEquals(0, spliterator.estimateSize());
+    }
+
+    @Test
+    @DisplayName("Splits cover the whole range and are not smaller than a batch")
+    void split() {
+        final int batchSize = 100;
+        final VirtualLeafSpliterator<TestKey, TestValue> suffix =
+                new VirtualLeafSpliterator<>(records, FIRST_LEAF_PATH, LAST_LEAF_PATH + 1, batchSize);
+        // Advance a little, so the current batch is split, too
+        final List<VirtualLeafRecord<TestKey, TestValue>> leaves = new ArrayList<>();
+        assertTrue(suffix.tryAdvance(leaves::add));
+        final Spliterator<VirtualLeafRecord<TestKey, TestValue>> prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        assertEquals(LEAVES - 1, prefix.estimateSize() + suffix.estimateSize());
+        prefix.forEachRemaining(leaves::add);
+        suffix.forEachRemaining(leaves::add);
+        assertEquals(LEAVES, leaves.size());
+        assertLeaves(FIRST_LEAF_PATH, leaves);
+
+        final VirtualLeafSpliterator<TestKey, TestValue> small =
+                new VirtualLeafSpliterator<>(records, FIRST_LEAF_PATH, FIRST_LEAF_PATH + 2 * batchSize - 1, batchSize);
+        assertNull(small.trySplit(), "Ranges smaller than two batches should not be split");
+    }
+
+    @Test
+    @DisplayName("Parallel stream visits all leaves")
+    void parallelTraversal() {
+        final VirtualLeafSpliterator<TestKey, TestValue> spliterator =
+                new VirtualLeafSpliterator<>(records, FIRST_LEAF_PATH, LAST_LEAF_PATH + 1, 16);
+        final List<VirtualLeafRecord<TestKey, TestValue>> leaves =
+                StreamSupport.stream(spliterator, true).collect(Collectors.toList());
+        assertEquals(LEAVES, leaves.size());
+        assertLeaves(FIRST_LEAF_PATH, leaves);
+    }
+
+    @Test
+    @DisplayName("Missing leaves are reported")
+    void missingLeaf() {
+        final VirtualLeafSpliterator<TestKey, TestValue> spliterator =
+                new VirtualLeafSpliterator<>(records, FIRST_LEAF_PATH - 1, LAST_LEAF_PATH + 1, 16);
+        assertThrows(IllegalStateException.class, () -> spliterator.tryAdvance(leaf -> {}));
+    }
+}
@@ -0,0 +1,74 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class FlushThrottleTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private static void copy(final FlushThrottle throttle, final long startMs, final long endMs) {
+        throttle.onCopyStarted(TimeUnit.MILLISECONDS.toNanos(startMs));
+        throttle.onCopyCompleted(TimeUnit.MILLISECONDS.toNanos(endMs));
+    }
+
+    @Test
+    void noBackpressureUntilFlushThroughputIsKnown() {
+        final FlushThrottle throttle = new FlushThrottle(Duration.ofSeconds(10), Duration.ofSeconds(5));
+        copy(throttle, 0, 0);
+        copy(throttle, 100, 100);
+        assertEquals(0, throttle.getFlushThroughput());
+        assertEquals(-1, throttle.predictDrainTimeMs(100_000 * MB));
+        assertEquals(0, throttle.calculatePauseMs(100_000 * MB));
+    }
+
+    @Test
+    void flushThroughputEstimation() {
+        final FlushThrottle throttle = new FlushThrottle(Duration.ofSeconds(10), Duration.ofSeconds(5));
+        // 100 MB in 1 second
+        throttle.onFlush(100 * MB, TimeUnit.SECONDS.toNanos(1));
+        assertEquals(100 * MB, throttle.getFlushThroughput());
+        assertEquals(10_000, throttle.predictDrainTimeMs(1000 * MB));
+        // 200 MB in 1 second, the estimation moves towards the new sample
+        throttle.onFlush(200 * MB, TimeUnit.SECONDS.toNanos(1));
+        final long expected = Math.round(100 * MB + FlushThrottle.SMOOTHING_FACTOR * 100 * MB);
+        assertEquals(expected, throttle.getFlushThroughput());
+        // Empty flushes are ignored
+        throttle.onFlush(0, TimeUnit.SECONDS.toNanos(1));
+        assertEquals(expected, throttle.getFlushThroughput());
+    }
+
+    @Test
+    void pauseIsProportionalToDrainTimeExcess() {
+        final FlushThrottle throttle = new FlushThrottle(Duration.ofSeconds(10), Duration.ofSeconds(5));
+        throttle.onFlush(100 * MB, TimeUnit.SECONDS.toNanos(1));
+        // Copies are created every 200 ms
+        copy(throttle, 0, 0);
+        copy(throttle, 200, 200);
+        // Drain time is below the target
+        assertEquals(0, throttle.calculatePauseMs(500 * MB));
+        assertEquals(0, throttle.calculatePauseMs(1000 * MB));
+        // Drain time is 50% over the target
+        assertEquals(100, throttle.calculatePauseMs(1500 * MB));
+        // Drain time is twice the target
+        assertEquals(200, throttle.calculatePauseMs(2000 * MB));
+        // Max pause
+        assertEquals(5000, throttle.calculatePauseMs(1_000_000 * MB));
+    }
+
+    @Test
+    void pausesAreNotCountedAsTimeBetweenCopies() {
+        final FlushThrottle throttle = new FlushThrottle(Duration.ofSeconds(10), Duration.ofSeconds(5));
+        throttle.onFlush(100 * MB, TimeUnit.SECONDS.toNanos(1));
+        copy(throttle, 0, 0);
+        // Each copy is paused for 1 second, but there are only 200 ms between copies otherwise
+        copy(throttle, 200, 1200);
+        copy(throttle, 1400, 2400);
+        copy(throttle, 2600, 3600);
+        assertEquals(200, throttle.calculatePauseMs(2000 * MB));
+    }
+}
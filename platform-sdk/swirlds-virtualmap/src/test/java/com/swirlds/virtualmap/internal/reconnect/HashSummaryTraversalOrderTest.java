@@ -0,0 +1,134 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.reconnect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.merkle.synchronization.task.ReconnectNodeCount;
+import com.swirlds.virtualmap.internal.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HashSummaryTraversalOrderTest {
+
+    private static final ReconnectNodeCount NODE_COUNT = new ReconnectNodeCount() {
+        @Override
+        public void incrementLeafCount() {}
+
+        @Override
+        public void incrementRedundantLeafCount() {}
+
+        @Override
+        public void incrementInternalCount() {}
+
+        @Override
+        public void incrementRedundantInternalCount() {}
+    };
+
+    /**
+     * Emulates a learner and a teacher. All requested paths are collected, and responses for them
+     * are only delivered when the traversal order asks to wait.
+     */
+    private static List<Long> traverse(
+            final HashSummaryTraversalOrder order,
+            final long firstLeafPath,
+            final long lastLeafPath,
+            final Set<Long> dirtyPaths,
+            final List<Integer> batchSizes) {
+        order.start(firstLeafPath, lastLeafPath, NODE_COUNT);
+        order.nodeReceived(Path.ROOT_PATH, !dirtyPaths.contains(Path.ROOT_PATH));
+        final List<Long> sent = new ArrayList<>();
+        final List<Long> inFlight = new ArrayList<>();
+        while (true) {
+            final long path = order.getNextPathToSend();
+            if (path == Path.INVALID_PATH) {
+                break;
+            }
+            if (path < Path.INVALID_PATH) {
+                assertTrue(!inFlight.isEmpty(), "Nothing to wait for");
+                inFlight.forEach(p -> order.nodeReceived(p, !dirtyPaths.contains(p)));
+                inFlight.clear();
+                continue;
+            }
+            batchSizes.add(order.getRequestBatchSize(1));
+            sent.add(path);
+            inFlight.add(path);
+        }
+        assertTrue(inFlight.isEmpty(), "All responses must be received");
+        return sent;
+    }
+
+    private static Set<Long> pathsToRoot(final long... paths) {
+        final Set<Long> result = new HashSet<>();
+        for (long path : paths) {
+            while (path != Path.ROOT_PATH) {
+                result.add(path);
+                path = Path.getParentPath(path);
+            }
+        }
+        result.add(Path.ROOT_PATH);
+        return result;
+    }
+
+    @Test
+    @DisplayName("Only the summary and dirty sub-trees are traversed")
+    void dirtyChunks() {
+        // 1024 leaves, leaf parent rank is 9
+        final long firstLeafPath = 1023;
+        final long lastLeafPath = 2046;
+        final HashSummaryTraversalOrder order = new HashSummaryTraversalOrder(4);
+        final List<Integer> batchSizes = new ArrayList<>();
+        final List<Long> sent =
+                traverse(order, firstLeafPath, lastLeafPath, pathsToRoot(1500, 1999, 2000), batchSizes);
+        assertEquals(4, order.getSummaryRank());
+
+        // The whole summary is sent first, in a single batch
+        final List<Long> summary = LongStream.rangeClosed(15, 30).boxed().toList();
+        assertEquals(summary, sent.subList(0, 16));
+        for (int i = 0; i < 15; i++) {
+            assertEquals(16, batchSizes.get(i), "Summary must be sent in a single batch");
+        }
+        assertEquals(1, batchSizes.get(15), "Configured batch size must be used after the summary");
+
+        // Then two children for every dirty node below the summary rank. Leaves 1999 and 2000 are
+        // siblings, so they share all parents
+        final Set<Long> expected = new HashSet<>(summary);
+        for (final long dirty : pathsToRoot(1500, 2000)) {
+            if ((Path.getRank(dirty) >= 4) && (dirty < firstLeafPath)) {
+                expected.add(Path.getLeftChildPath(dirty));
+                expected.add(Path.getRightChildPath(dirty));
+            }
+        }
+        assertEquals(expected.size(), sent.size(), "No path must be requested twice");
+        assertEquals(expected, new HashSet<>(sent));
+        assertTrue(sent.containsAll(List.of(1500L, 1999L, 2000L)));
+    }
+
+    @Test
+    @DisplayName("Nothing is requested if the root is clean")
+    void cleanRoot() {
+        final HashSummaryTraversalOrder order = new HashSummaryTraversalOrder(16);
+        final List<Long> sent = traverse(order, 1023, 2046, Set.of(), new ArrayList<>());
+        assertEquals(List.of(), sent);
+    }
+
+    @Test
+    @DisplayName("Summary rank is limited by the tree height")
+    void smallTrees() {
+        // Single leaf, only path 1 is requested
+        final HashSummaryTraversalOrder singleLeaf = new HashSummaryTraversalOrder(16);
+        assertEquals(List.of(1L), traverse(singleLeaf, 1, 1, Set.of(0L, 1L), new ArrayList<>()));
+        assertEquals(0, singleLeaf.getSummaryRank());
+
+        // Three leaves, paths 2, 3, and 4. The first leaf is at rank 1, so there is no summary
+        final HashSummaryTraversalOrder threeLeaves = new HashSummaryTraversalOrder(16);
+        final List<Long> sent = traverse(threeLeaves, 2, 4, Set.of(0L, 1L, 4L), new ArrayList<>());
+        assertEquals(0, threeLeaves.getSummaryRank());
+        assertEquals(List.of(1L, 2L, 3L, 4L), sent);
+    }
+}
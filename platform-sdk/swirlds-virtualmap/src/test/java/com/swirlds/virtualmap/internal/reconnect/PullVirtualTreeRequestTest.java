@@ -0,0 +1,158 @@
+// SPDX-License-Identifier: Apache-2.0
+package com.swirlds.virtualmap.internal.reconnect;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.io.streams.SerializableDataInputStream;
+import com.swirlds.common.io.streams.SerializableDataOutputStream;
+import com.swirlds.virtualmap.internal.Path;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PullVirtualTreeRequestTest {
+
+    private static Hash randomHash(final Random random) {
+        final byte[] bytes = new byte[DigestType.SHA_384.digestLength()];
+        random.nextBytes(bytes);
+        return new Hash(bytes, DigestType.SHA_384);
+    }
+
+    private static byte[] serialize(final PullVirtualTreeRequest request) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final SerializableDataOutputStream out = new SerializableDataOutputStream(bytes)) {
+            request.serialize(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static PullVirtualTreeRequest roundTrip(final PullVirtualTreeRequest request) throws IOException {
+        final PullVirtualTreeRequest result = new PullVirtualTreeRequest();
+        try (final SerializableDataInputStream in =
+                new SerializableDataInputStream(new ByteArrayInputStream(serialize(request)))) {
+            result.deserialize(in, 0);
+        }
+        assertEquals(request.getVersion(), result.getVersion(), "Request format should be preserved");
+        return result;
+    }
+
+    private static void assertRejected(final byte[] bytes) {
+        final PullVirtualTreeRequest request = new PullVirtualTreeRequest();
+        final SerializableDataInputStream in = new SerializableDataInputStream(new ByteArrayInputStream(bytes));
+        assertThrows(IOException.class, () -> request.deserialize(in, 0));
+    }
+
+    @Test
+    @DisplayName("Request batches are serialized and deserialized")
+    void batchRoundTrip() throws IOException {
+        final Random random = new Random(1234);
+        final long[] paths = {3, 4, 9, 10};
+        final Hash[] hashes = new Hash[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            hashes[i] = randomHash(random);
+        }
+        final PullVirtualTreeRequest request = roundTrip(new PullVirtualTreeRequest(paths, hashes));
+        assertFalse(request.isTerminating());
+        assertEquals(paths.length, request.getPathCount());
+        for (int i = 0; i < paths.length; i++) {
+            assertEquals(paths[i], request.getPath(i));
+            assertEquals(hashes[i], request.getHash(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Terminating request is serialized and deserialized")
+    void terminatingRoundTrip() throws IOException {
+        final PullVirtualTreeRequest request = roundTrip(new PullVirtualTreeRequest(Path.INVALID_PATH, null));
+        assertTrue(request.isTerminating());
+        assertEquals(1, request.getPathCount());
+        assertNull(request.getHash(0));
+    }
+
+    @Test
+    @DisplayName("Single path requests are written in the original format")
+    void singlePathOriginalFormat() throws IOException {
+        final Hash hash = randomHash(new Random(5678));
+        final PullVirtualTreeRequest single = new PullVirtualTreeRequest(7, hash);
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (final SerializableDataOutputStream out = new SerializableDataOutputStream(expected)) {
+            out.writeLong(7);
+            hash.getBytes().writeTo(out);
+        }
+        assertArrayEquals(expected.toByteArray(), serialize(single), "Original format is a path and a hash");
+
+        final PullVirtualTreeRequest request = roundTrip(single);
+        assertFalse(request.isTerminating());
+        assertEquals(1, request.getPathCount());
+        assertEquals(7, request.getPath(0));
+        assertEquals(hash, request.getHash(0));
+        assertTrue(request.getVersion() < new PullVirtualTreeRequest().getVersion(), "Batched format is newer");
+    }
+
+    @Test
+    @DisplayName("Requests with invalid number of paths are rejected")
+    void invalidBatchSize() throws IOException {
+        final int version = new PullVirtualTreeRequest().getVersion();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final SerializableDataOutputStream out = new SerializableDataOutputStream(bytes)) {
+            out.writeLong(PullVirtualTreeRequest.VERSION_MARKER);
+            out.writeInt(version);
+            out.writeInt(PullVirtualTreeRequest.MAX_BATCH_SIZE + 1);
+        }
+        assertRejected(bytes.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Requests in unknown formats are rejected")
+    void unknownVersion() throws IOException {
+        final int version = new PullVirtualTreeRequest().getVersion();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final SerializableDataOutputStream out = new SerializableDataOutputStream(bytes)) {
+            out.writeLong(PullVirtualTreeRequest.VERSION_MARKER);
+            out.writeInt(version + 1);
+            out.writeInt(1);
+            out.writeLong(1);
+        }
+        assertRejected(bytes.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Compressed payloads are decompressed to the original bytes")
+    void compression() throws IOException {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        final Inflater inflater = new Inflater(true);
+        try {
+            final Random random = new Random(4321);
+            // The same deflater and inflater are reused for multiple payloads
+            for (int size : new int[] {1, 100, 10_000, 1_000_000}) {
+                final StringBuilder sb = new StringBuilder();
+                while (sb.length() < size) {
+                    sb.append("leaf").append(random.nextInt(1000));
+                }
+                final byte[] payload = sb.substring(0, size).getBytes(StandardCharsets.UTF_8);
+                final byte[] compressed = VirtualReconnectUtils.compress(deflater, payload, payload.length);
+                assertArrayEquals(payload, VirtualReconnectUtils.decompress(inflater, compressed, payload.length));
+                assertThrows(
+                        IOException.class,
+                        () -> VirtualReconnectUtils.decompress(inflater, compressed, payload.length + 1),
+                        "Decompressed length mismatch should be detected");
+            }
+        } finally {
+            deflater.end();
+            inflater.end();
+        }
+    }
+}
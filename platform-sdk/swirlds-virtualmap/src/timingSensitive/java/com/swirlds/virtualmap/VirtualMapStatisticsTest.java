@@ -121,6 +121,16 @@ public class VirtualMapStatisticsTest {
         assertValueEquals(metric, 2345L);
     }
 
+    @Test
+    void testLeafValueArenaSize() {
+        // given
+        final Metric metric = getMetric("lifecycle_", "leafValueArenaSizeB_" + LABEL);
+        // when
+        statistics.setLeafValueArenaSize(3456L);
+        // then
+        assertValueEquals(metric, 3456L);
+    }
+
     @Test
     void testPipelineSize() {
         // given
@@ -182,4 +192,32 @@ public class VirtualMapStatisticsTest {
         // then
         assertValueEquals(metric, 56789L);
     }
+
+    @Test
+    void testFlushThrottle() {
+        // given
+        final Metric metricThroughput = getMetric("lifecycle_", "flushThroughputBps_" + LABEL);
+        final Metric metricDrainMs = getMetric("lifecycle_", "flushBacklogDrainMs_" + LABEL);
+        final Metric metricPauseMs = getMetric("lifecycle_", "flushThrottlePauseMs_" + LABEL);
+        // when
+        statistics.setFlushThroughput(123456L);
+        statistics.setFlushBacklogDrainMs(2345L);
+        statistics.setFlushThrottlePauseMs(67L);
+        // then
+        assertValueEquals(metricThroughput, 123456L);
+        assertValueEquals(metricDrainMs, 2345L);
+        assertValueEquals(metricPauseMs, 67L);
+    }
+
+    @Test
+    void testHashedNodes() {
+        // given
+        final Metric metricDurationUs = getMetric("lifecycle_", "lastHashDurationUs_" + LABEL);
+        final Metric metricNodesPerSec = getMetric("lifecycle_", "hashNodesPerSec_" + LABEL);
+        // when
+        statistics.recordHashedNodes(3000L, 2_000_000L);
+        // then
+        assertValueEquals(metricDurationUs, 2000L);
+        assertValueEquals(metricNodesPerSec, 1_500_000L);
+    }
 }
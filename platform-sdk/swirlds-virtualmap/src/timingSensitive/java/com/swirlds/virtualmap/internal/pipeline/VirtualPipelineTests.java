@@ -864,6 +864,45 @@ class VirtualPipelineTests {
         }
     }
 
+    @Test
+    @DisplayName("Family size backpressure is applied with adaptive flush throttling")
+    void testFamilySizeBackpressureWithAdaptiveThrottle() throws InterruptedException {
+        final int familyThrottleThreshold = 1000;
+        final int estimatedSize = 100;
+
+        final Configuration config = new TestConfigBuilder()
+                .withSource(new SimpleConfigSource()
+                        .withValue(VirtualMapConfig_.FAMILY_THROTTLE_THRESHOLD, familyThrottleThreshold + "")
+                        .withValue(VirtualMapConfig_.FLUSH_THROTTLE_ADAPTIVE, "true"))
+                .withConfigDataType(VirtualMapConfig.class)
+                .getOrCreateConfig();
+
+        final Deque<DummyVirtualRoot<VirtualKey, VirtualValue>> copies = new LinkedList<>();
+        final DummyVirtualRoot<VirtualKey, VirtualValue> originalCopy =
+                new DummyVirtualRoot<>("flushThrottle", config.getConfigData(VirtualMapConfig.class));
+        originalCopy.setEstimatedSize(estimatedSize);
+        copies.add(originalCopy);
+
+        // No flushes have been measured yet, so the adaptive throttle doesn't pause copies. Family
+        // size backpressure must still be applied, once the family size exceeds the threshold
+        long backpressureApplied = 0;
+        for (int i = 0; i < familyThrottleThreshold / estimatedSize + 2; i++) {
+            final long start = System.currentTimeMillis();
+            final DummyVirtualRoot<VirtualKey, VirtualValue> copy = copies.getLast().copy();
+            final long duration = System.currentTimeMillis() - start;
+            copies.add(copy);
+            final long expectedPause = copy.getPipeline().calculateFamilySizeBackpressurePause();
+            assertTrue(duration >= expectedPause, "Copy must be paused for at least " + expectedPause + " ms");
+            backpressureApplied += expectedPause;
+        }
+        assertTrue(backpressureApplied > 0, "Family size backpressure must be applied");
+
+        // Release all copies so that the background thread dies.
+        while (!copies.isEmpty()) {
+            copies.removeFirst().release();
+        }
+    }
+
     @Test
     @DisplayName("Get same copy hash in multiple threads")
     void concurrentHashing() throws InterruptedException {